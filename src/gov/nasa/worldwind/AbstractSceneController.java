@@ -80,6 +80,10 @@ public abstract class AbstractSceneController extends WWObjectImpl implements Sc
     protected SurfaceObjectTileBuilder surfaceObjectTileBuilder = new SurfaceObjectTileBuilder();
     /** The display name for the surface object tile count performance statistic. */
     protected static final String SURFACE_OBJECT_TILE_COUNT_NAME = "Surface Object Tiles";
+    /** The display name for the updated surface object tile count performance statistic. */
+    protected static final String SURFACE_OBJECT_TILE_UPDATE_COUNT_NAME = "Surface Object Tiles Updated";
+    /** The display name for the drawn surface object count performance statistic. */
+    protected static final String SURFACE_OBJECT_DRAW_COUNT_NAME = "Surface Objects Drawn";
     protected ClutterFilter clutterFilter = new BasicClutterFilter();
     //protected Map<String, GroupingFilter> groupingFilters = new HashMap<String, GroupingFilter>();
     protected boolean deferOrderedRendering;
@@ -1086,6 +1090,11 @@ public abstract class AbstractSceneController extends WWObjectImpl implements Sc
         if (dc.getOrderedSurfaceRenderables().size() > 0)
         {
             this.surfaceObjectTileBuilder.buildTiles(dc, dc.getOrderedSurfaceRenderables());
+
+            dc.setPerFrameStatistic(PerformanceStatistic.SURFACE_OBJECT_TILE_UPDATE_COUNT,
+                SURFACE_OBJECT_TILE_UPDATE_COUNT_NAME, this.surfaceObjectTileBuilder.getUpdatedTileCount());
+            dc.setPerFrameStatistic(PerformanceStatistic.SURFACE_OBJECT_DRAW_COUNT, SURFACE_OBJECT_DRAW_COUNT_NAME,
+                this.surfaceObjectTileBuilder.getDrawnObjectCount());
         }
     }
 
@@ -430,6 +430,7 @@ public interface AVKey // TODO: Eliminate unused constants, if any
     final String STEREO_TYPE_PARALLEL = "gov.nasa.worldwind.avkey.StereoModeParallel";
     final String STOP = "gov.nasa.worldwind.avkey.Stop";
     final String STYLE_NAMES = "gov.nasa.worldwind.avkey.StyleNames";
+    final String SURFACE_SHAPE_GEOMETRY_CACHE_SIZE = "gov.nasa.worldwind.avkey.SurfaceShapeGeometryCacheSize";
     final String SURFACE_TILE_DRAW_CONTEXT = "gov.nasa.worldwind.avkey.SurfaceTileDrawContext";
 
     final String TESSELLATOR_CLASS_NAME = "gov.nasa.worldwind.avkey.TessellatorClassName";
@@ -520,4 +521,6 @@ public interface AVKey // TODO: Eliminate unused constants, if any
     final String WORLD_WIND_DOT_NET_LAYER_SET = "gov.nasa.worldwind.avkey.WorldWindDotNetLayerSet";
     final String WORLD_WIND_DOT_NET_PERMANENT_DIRECTORY = "gov.nasa.worldwind.avkey.WorldWindDotNetPermanentDirectory";
     final String WORLD_WINDOW_CLASS_NAME = "gov.nasa.worldwind.avkey.WorldWindowClassName";
+
+    final String XML_CURSOR_PARSING_ENABLED = "gov.nasa.worldwind.avkey.XMLCursorParsingEnabled";
 }
@@ -6,9 +6,11 @@
 package gov.nasa.worldwind.formats.geojson;
 
 import gov.nasa.worldwind.formats.json.*;
+import gov.nasa.worldwind.util.Logging;
 import org.codehaus.jackson.JsonParser;
 
 import java.io.IOException;
+import java.util.Set;
 
 /**
  * @author dcollins
@@ -21,6 +23,30 @@ public class GeoJSONDoc extends JSONDoc
         super(source);
     }
 
+    /**
+     * Returns an iterator that parses this document's features one at a time, as an alternative to {@link #parse()}.
+     * Use this for documents too large to hold in memory, such as large FeatureCollections or newline-delimited
+     * GeoJSON. The iterator reads from this document's stream, so a document may be either parsed or iterated, but not
+     * both. Close the document when iteration is complete.
+     *
+     * @param propertyNames the names of the feature properties to retain. All other properties are skipped without
+     *                      being parsed. May be null, in which case all properties are retained.
+     *
+     * @return an iterator over this document's features, or null if the document could not be opened.
+     *
+     * @throws IOException if an error occurs while reading the document.
+     */
+    public GeoJSONFeatureIterator getFeatureIterator(Set<String> propertyNames) throws IOException
+    {
+        if (this.jsonParser == null)
+        {
+            Logging.logger().warning(Logging.getMessage("generic.ParserUninitialized", this.displayName));
+            return null;
+        }
+
+        return new GeoJSONFeatureIterator(this.createEventParserContext(this.jsonParser), propertyNames);
+    }
+
     @Override
     protected JSONEventParserContext createEventParserContext(JsonParser parser) throws IOException
     {
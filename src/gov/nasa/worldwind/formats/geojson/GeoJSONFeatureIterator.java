@@ -0,0 +1,322 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+package gov.nasa.worldwind.formats.geojson;
+
+import gov.nasa.worldwind.avlist.*;
+import gov.nasa.worldwind.exception.WWRuntimeException;
+import gov.nasa.worldwind.formats.json.*;
+import gov.nasa.worldwind.util.Logging;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Iterates over the features of a GeoJSON document, parsing one feature at a time. Memory use is bounded by the size of
+ * the largest single feature rather than the size of the document. The document may be any of: <ul> <li>a
+ * FeatureCollection, whose features are returned in order,</li> <li>a single Feature,</li> <li>an array of Features,
+ * or</li> <li>a sequence of root-level Features or FeatureCollections, such as newline-delimited GeoJSON.</li> </ul>
+ * Root-level objects that are neither features nor feature collections are skipped.
+ * <p/>
+ * Feature coordinates are packed into buffers by {@link GeoJSONCoordinateParser}, as they are when parsing with {@link
+ * GeoJSONDoc#parse()}. If a set of property names is specified, only those properties are retained; all others are
+ * skipped in the input stream without being parsed.
+ * <p/>
+ * The members of a FeatureCollection other than its features, such as <code>crs</code> and <code>bbox</code>, are
+ * available from {@link #getCollectionFields()} once they have been read. Members that follow the features array are
+ * available only after iteration has passed the end of the collection.
+ *
+ * @version $Id$
+ * @see GeoJSONDoc#getFeatureIterator(java.util.Set)
+ */
+public class GeoJSONFeatureIterator implements Iterator<GeoJSONFeature>
+{
+    protected static final int STATE_ROOT = 0;
+    protected static final int STATE_ROOT_ARRAY = 1;
+    protected static final int STATE_ROOT_OBJECT = 2;
+    protected static final int STATE_FEATURES_ARRAY = 3;
+
+    protected JSONEventParserContext ctx;
+    protected Set<String> propertyNames;
+    protected int state = STATE_ROOT;
+    /** Parses the fields of the current root object other than its features array. */
+    protected FeatureParser rootParser;
+    protected AVList collectionFields = new AVListImpl();
+    protected GeoJSONFeature nextFeature;
+    protected boolean nextFeatureResolved;
+
+    /**
+     * Constructs an iterator over the features read from a specified event parser context.
+     *
+     * @param ctx           the context to read events from. The context must be positioned before the first root-level
+     *                      value of the document.
+     * @param propertyNames the names of the feature properties to retain. All others are skipped. May be null, in
+     *                      which case all properties are retained.
+     *
+     * @throws IllegalArgumentException if the context is null.
+     */
+    public GeoJSONFeatureIterator(JSONEventParserContext ctx, Set<String> propertyNames)
+    {
+        if (ctx == null)
+        {
+            String message = Logging.getMessage("nullValue.ParserContextIsNull");
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        this.ctx = ctx;
+        this.propertyNames = propertyNames;
+    }
+
+    /**
+     * Returns the non-feature members of the FeatureCollections read so far, such as <code>type</code>,
+     * <code>crs</code> and <code>bbox</code>.
+     *
+     * @return the collection members read so far.
+     */
+    public AVList getCollectionFields()
+    {
+        return this.collectionFields;
+    }
+
+    public boolean hasNext()
+    {
+        this.resolveNextFeature();
+
+        return this.nextFeature != null;
+    }
+
+    public GeoJSONFeature next()
+    {
+        this.resolveNextFeature();
+
+        if (this.nextFeature == null)
+            throw new NoSuchElementException();
+
+        GeoJSONFeature feature = this.nextFeature;
+        this.nextFeature = null;
+        this.nextFeatureResolved = false;
+
+        return feature;
+    }
+
+    public void remove()
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    protected void resolveNextFeature()
+    {
+        if (this.nextFeatureResolved)
+            return;
+
+        try
+        {
+            this.nextFeature = this.readNextFeature();
+            this.nextFeatureResolved = true;
+        }
+        catch (IOException e)
+        {
+            String message = Logging.getMessage("generic.ExceptionAttemptingToReadGeoJSON", e.getMessage());
+            Logging.logger().severe(message);
+            throw new WWRuntimeException(message, e);
+        }
+    }
+
+    /**
+     * Reads events until the next feature is complete.
+     *
+     * @return the next feature, or null if the document contains no more features.
+     *
+     * @throws IOException if an error occurs while reading the document.
+     */
+    protected GeoJSONFeature readNextFeature() throws IOException
+    {
+        while (this.ctx.hasNext())
+        {
+            JSONEvent event = this.ctx.nextEvent();
+            if (event == null)
+                continue;
+
+            if (this.state == STATE_ROOT)
+            {
+                if (event.isStartObject())
+                {
+                    this.rootParser = this.createFeatureParser();
+                    this.state = STATE_ROOT_OBJECT;
+                }
+                else if (event.isStartArray())
+                {
+                    this.state = STATE_ROOT_ARRAY;
+                }
+            }
+            else if (this.state == STATE_ROOT_ARRAY)
+            {
+                if (event.isEndArray())
+                {
+                    this.state = STATE_ROOT;
+                }
+                else if (event.isStartObject())
+                {
+                    GeoJSONFeature feature = this.parseFeature(event);
+                    if (feature != null)
+                        return feature;
+                }
+            }
+            else if (this.state == STATE_FEATURES_ARRAY)
+            {
+                if (event.isEndArray())
+                {
+                    this.ctx.popFieldName();
+                    this.state = STATE_ROOT_OBJECT;
+                }
+                else if (event.isStartObject())
+                {
+                    GeoJSONFeature feature = this.parseFeature(event);
+                    if (feature != null)
+                        return feature;
+                }
+            }
+            else if (this.state == STATE_ROOT_OBJECT)
+            {
+                if (event.isEndObject())
+                {
+                    this.state = STATE_ROOT;
+
+                    GeoJSONFeature feature = this.resolveRootObject(event);
+                    if (feature != null)
+                        return feature;
+                }
+                else if (event.isFieldName())
+                {
+                    JSONEvent valueEvent = this.ctx.peek();
+
+                    if (GeoJSONConstants.FIELD_FEATURES.equals(event.getFieldName())
+                        && valueEvent != null && valueEvent.isStartArray())
+                    {
+                        this.ctx.pushFieldName(event.getFieldName());
+                        this.ctx.nextEvent(); // Consume the start of the features array.
+                        this.state = STATE_FEATURES_ARRAY;
+                    }
+                    else
+                    {
+                        this.rootParser.parseObjectField(this.ctx, event);
+                    }
+                }
+            }
+        }
+
+        return null;
+    }
+
+    protected GeoJSONFeature parseFeature(JSONEvent event) throws IOException
+    {
+        Object o = this.createFeatureParser().parse(this.ctx, event);
+
+        return (o instanceof GeoJSONFeature) ? (GeoJSONFeature) o : null;
+    }
+
+    /**
+     * Called when the end of a root-level object is reached. If the object was a single feature, the feature is
+     * returned. If it was a feature collection, its members other than the features are added to the collection
+     * fields.
+     *
+     * @param event the event ending the root object.
+     *
+     * @return the root object if it is a feature, otherwise null.
+     */
+    protected GeoJSONFeature resolveRootObject(JSONEvent event)
+    {
+        Object o = this.rootParser.resolveObject(this.ctx, event);
+        this.rootParser = null;
+
+        if (o instanceof GeoJSONFeature)
+            return (GeoJSONFeature) o;
+
+        if (o instanceof GeoJSONFeatureCollection)
+            this.collectionFields.setValues((AVList) o);
+        else if (o != null)
+            Logging.logger().warning(Logging.getMessage("generic.UnexpectedObjectType", o));
+
+        return null;
+    }
+
+    protected FeatureParser createFeatureParser()
+    {
+        return new FeatureParser(this.propertyNames);
+    }
+
+    /**
+     * Parses a feature object, retaining only a specified set of its properties. Properties not in the set are skipped
+     * in the input stream.
+     */
+    protected static class FeatureParser extends GeoJSONEventParser
+    {
+        protected Set<String> propertyNames;
+
+        public FeatureParser(Set<String> propertyNames)
+        {
+            this.propertyNames = propertyNames;
+        }
+
+        @Override
+        protected void parseObjectField(JSONEventParserContext ctx, JSONEvent event) throws IOException
+        {
+            JSONEvent valueEvent = ctx.peek();
+
+            if (this.propertyNames != null && GeoJSONConstants.FIELD_PROPERTIES.equals(event.getFieldName())
+                && valueEvent != null && valueEvent.isStartObject())
+            {
+                ctx.pushFieldName(event.getFieldName());
+                this.addFieldContent(ctx, this.parseProperties(ctx, ctx.nextEvent()));
+                ctx.popFieldName();
+            }
+            else
+            {
+                super.parseObjectField(ctx, event);
+            }
+        }
+
+        protected AVList parseProperties(JSONEventParserContext ctx, JSONEvent event) throws IOException
+        {
+            AVList properties = null;
+
+            for (event = ctx.nextEvent(); ctx.hasNext(); event = ctx.nextEvent())
+            {
+                if (event == null)
+                    continue;
+
+                if (event.isEndObject())
+                    break;
+
+                if (!event.isFieldName())
+                    continue;
+
+                if (!this.propertyNames.contains(event.getFieldName()))
+                {
+                    ctx.skipNextValue();
+                    continue;
+                }
+
+                if (properties == null)
+                    properties = new AVListImpl();
+
+                ctx.pushFieldName(event.getFieldName());
+                JSONEvent valueEvent = ctx.nextEvent();
+                Object value = null;
+
+                if (valueEvent.isStartObject() || valueEvent.isStartArray())
+                    value = this.parseComplexContent(ctx, valueEvent);
+                else if (valueEvent.isScalarValue())
+                    value = valueEvent.asScalarValue();
+
+                properties.setValue(event.getFieldName(), value);
+                ctx.popFieldName();
+            }
+
+            return properties;
+        }
+    }
+}
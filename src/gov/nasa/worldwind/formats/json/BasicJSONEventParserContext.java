@@ -53,6 +53,19 @@ public class BasicJSONEventParserContext implements JSONEventParserContext
         return this.nextEvent;
     }
 
+    public void skipNextValue() throws IOException
+    {
+        if (!this.hasNext)
+            return;
+
+        // The parser's current token is the token of the next event. Skipping its children leaves the parser on the
+        // matching end token, which advance() then steps past.
+        if (this.nextEvent.isStartObject() || this.nextEvent.isStartArray())
+            this.parser.skipChildren();
+
+        this.advance();
+    }
+
     public String getCurrentFieldName()
     {
         return this.fieldNameStack.peek();
@@ -19,6 +19,8 @@ public interface JSONEventParserContext
 
     JSONEvent peek();
 
+    void skipNextValue() throws IOException;
+
     String getCurrentFieldName();
 
     void pushFieldName(String name);
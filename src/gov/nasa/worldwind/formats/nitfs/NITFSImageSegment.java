@@ -114,6 +114,7 @@ public class NITFSImageSegment extends NITFSSegment
     }
 
     private CompressionLookupRecord[] compressionLUTS;
+    private byte[] codebook;
 
     public UserDefinedImageSubheader getUserDefinedImageSubheader()
     {
@@ -147,14 +148,6 @@ public class NITFSImageSegment extends NITFSSegment
         buffer.position(saveOffset); // last line - restore buffer's position
     }
 
-    private void decompressBlock4x4(byte[][] block4x4, short code)
-    {
-        this.compressionLUTS[0].copyValues(block4x4[0], 0, code, 4);
-        this.compressionLUTS[1].copyValues(block4x4[1], 0, code, 4);
-        this.compressionLUTS[2].copyValues(block4x4[2], 0, code, 4);
-        this.compressionLUTS[3].copyValues(block4x4[3], 0, code, 4);
-    }
-
     private void decompressBlock16(byte[] block16, short code)
     {
         this.compressionLUTS[0].copyValues(block16,  0, code, 4);
@@ -163,6 +156,36 @@ public class NITFSImageSegment extends NITFSSegment
         this.compressionLUTS[3].copyValues(block16, 12, code, 4);
     }
 
+    /**
+     * Returns the 4x4 block of color codes for every compression code, with the block for code N at index 16 * N in
+     * row major order. The codebook is expanded from the compression lookup tables once per image segment.
+     *
+     * @return the expanded codebook.
+     */
+    private byte[] getCodebook()
+    {
+        if (this.codebook == null)
+        {
+            int numCodes = Integer.MAX_VALUE;
+            for (int i = 0; i < 4; i++)
+            {
+                numCodes = Math.min(numCodes, this.compressionLUTS[i].getNumOfRecords());
+            }
+
+            byte[] block16 = new byte[16];
+            byte[] codebook = new byte[16 * numCodes];
+            for (int code = 0; code < numCodes; code++)
+            {
+                this.decompressBlock16(block16, (short) code);
+                System.arraycopy(block16, 0, codebook, 16 * code, 16);
+            }
+
+            this.codebook = codebook;
+        }
+
+        return this.codebook;
+    }
+
     public int[] getImagePixelsAsArray(int[] pixels, RPFImageType imageType) throws NITFSRuntimeException {
         RPFFrameFileComponents rpfComponents = this.getRPFFrameFileComponents();
         RPFLocationSection componentLocationTable = rpfComponents.componentLocationTable;
@@ -173,10 +196,51 @@ public class NITFSImageSegment extends NITFSSegment
         int band = 0; // for(int band = 0; band < rpfComponents.numOfSpectralBandTables;  band++)
         NITFSImageBand imageBand = this.imageBands[band];
 
-        int rgbColor, colorCode;
+        // Resolve the output color of each of the 256 color codes once, rather than once per pixel. Transparent
+        // pixels and reserved application codes leave the output pixel unchanged.
+        int[] colors = new int[256];
+        boolean[] skipColor = new boolean[256];
+        for (int colorCode = 0; colorCode < 256; colorCode++)
+        {
+            if (hasTransparentPixels && this.transparentOutputPixelCode == colorCode)
+            {   // this is a transparent pixel
+                skipColor[colorCode] = true;
+                continue;
+            }
+
+            if (imageBand.isReservedApplicationCode(colorCode))
+            {
+                // This is a reserved color code used to define an application-specific overlay. We don't know the
+                // meaning of application overlay codes, therefore we treat them as transparent or background pixels.
+                skipColor[colorCode] = true;
+                continue;
+            }
+
+            int rgbColor = imageBand.lookupRGB(colorCode);
+            switch (imageType)
+            {
+                case IMAGE_TYPE_ALPHA_RGB:
+                    rgbColor = 0xFF000000 + rgbColor;
+                    break;
+              //case IMAGE_TYPE_GRAY:
+              //    break;
+              //case IMAGE_TYPE_RGB:
+              //    break;
+                case IMAGE_TYPE_GRAY_ALPHA:
+                    rgbColor = (rgbColor << 8) + 0xFF;
+                    break;
+                case IMAGE_TYPE_RGB_ALPHA:
+                    rgbColor = (rgbColor << 8) + 0xFF;
+                    break;
+            }
+            colors[colorCode] = rgbColor;
+        }
+
+        byte[] codebook = this.getCodebook();
+        int numCodes = codebook.length / 16;
+
         short aa, ab, bb;
         short[] codes = new short[(int) this.numOfImageCodesPerRow];
-        byte[][] block4x4 = new byte[4][4];
         int rowSize = (short) ((this.numOfImageCodesPerRow * this.imageCodeBitLength) / 8L);
         byte[] rowBytes = new byte[rowSize];
         int subFrameOffset;
@@ -208,7 +272,6 @@ public class NITFSImageSegment extends NITFSSegment
 
                     super.buffer.get(rowBytes, 0, rowSize);
 
-                    // short[] codes = new short[(int) this.numOfImageCodesPerRow];
                     for (int i = 0, cidx = 0, bidx = 0; i < (int) this.numOfImageCodesPerRow / 2; i++)
                     {
                         aa = (short) ((0x00FF & (short) rowBytes[bidx++]) << 4);
@@ -225,54 +288,25 @@ public class NITFSImageSegment extends NITFSSegment
                         {
                             if (4095 == codes[col])
                             {   // this is a transparent kernel
-                                continue;                          
+                                continue;
                             }
                         }
 
-                        this.decompressBlock4x4( block4x4, codes[col] );
+                        if (codes[col] >= numCodes)
+                            throw new NITFSRuntimeException("NITFSReader.AttemptToCopyOutOfBoundsAtSource");
 
                         int qx = blockX + col * 4;
+                        int blockOffset = 16 * codes[col];
 
                         for (int h = 0; h < 4; h++)
                         {
+                            int pixelOffset = (qy + h) * this.numSignificantCols + qx;
+
                             for (int w = 0; w < 4; w++)
                             {
-                                colorCode = 0x00FF & block4x4[h][w];
-
-                                if (hasTransparentPixels)
-                                {
-                                    if (this.transparentOutputPixelCode == colorCode)
-                                    {   // this is a transparent pixel
-                                        continue;
-                                    }
-                                }
-
-                                if (imageBand.isReservedApplicationCode(colorCode))
-                                {
-                                    // This is a reserved color code used to define an application-specific overlay. We
-                                    // don't know the meaning of application overlay codes, therefore we treat them as
-                                    // transparent or background pixels.
-                                    continue;
-                                }
-
-                                rgbColor = imageBand.lookupRGB(colorCode);
-                                switch (imageType)
-                                {
-                                    case IMAGE_TYPE_ALPHA_RGB:
-                                        rgbColor = 0xFF000000 + rgbColor;
-                                        break;
-                                  //case IMAGE_TYPE_GRAY:
-                                  //    break;
-                                  //case IMAGE_TYPE_RGB:
-                                  //    break;
-                                    case IMAGE_TYPE_GRAY_ALPHA:
-                                        rgbColor = (rgbColor << 8) + 0xFF;
-                                        break;
-                                    case IMAGE_TYPE_RGB_ALPHA:
-                                        rgbColor = (rgbColor << 8) + 0xFF;
-                                        break;
-                                }
-                                pixels[(qy + h) * this.numSignificantCols + (qx + w)] = rgbColor;
+                                int colorCode = 0x00FF & codebook[blockOffset++];
+                                if (!skipColor[colorCode])
+                                    pixels[pixelOffset + w] = colors[colorCode];
                             }
                         }
                     } // end of column loop
@@ -662,6 +662,7 @@ public abstract class VPFBasicDataBufferFactory implements VPFDataBufferFactory
     {
         protected int coordsPerElem;
         protected int bytesPerCoord;
+        protected ByteBuffer tmpByteBuffer;
 
         public AbstractVecReader(int coordsPerElem, int bytesPerCoord)
         {
@@ -683,8 +684,12 @@ public abstract class VPFBasicDataBufferFactory implements VPFDataBufferFactory
             try
             {
                 byteBuffer.limit(limit);
-                BufferWrapper newBuffer = this.doRead(byteBuffer);
-                vecBuffer = new VecBuffer(this.coordsPerElem, newBuffer);
+                // Null coordinates are replaced in the source buffer, so read-only buffers such as memory mapped
+                // tables are first copied to a writable buffer.
+                BufferWrapper newBuffer = this.doRead(byteBuffer.isReadOnly() ? this.copyOf(byteBuffer) : byteBuffer);
+                // A null buffer indicates an empty or completely null vector.
+                if (newBuffer != null)
+                    vecBuffer = new VecBuffer(this.coordsPerElem, newBuffer);
             }
             finally
             {
@@ -695,6 +700,19 @@ public abstract class VPFBasicDataBufferFactory implements VPFDataBufferFactory
             return vecBuffer;
         }
 
+        protected ByteBuffer copyOf(ByteBuffer byteBuffer)
+        {
+            if (this.tmpByteBuffer == null || this.tmpByteBuffer.capacity() < byteBuffer.remaining())
+                this.tmpByteBuffer = ByteBuffer.allocate(byteBuffer.remaining());
+
+            this.tmpByteBuffer.clear();
+            this.tmpByteBuffer.order(byteBuffer.order());
+            this.tmpByteBuffer.put(byteBuffer.duplicate());
+            this.tmpByteBuffer.flip();
+
+            return this.tmpByteBuffer;
+        }
+
         protected abstract BufferWrapper doRead(ByteBuffer byteBuffer);
     }
 
@@ -220,8 +220,9 @@ public class VPFBasicFeatureFactory implements VPFFeatureFactory
         VPFBufferedRecordData joinTable, int[] primitiveIds, boolean query)
     {
         // Although a direct link between feature and primitive(s) is provided by the primitive_id column in the join
-        // table, a sequential search of the feature_id column must still be performed to find all primitives associated
-        // with a selected feature.
+        // table, the feature_id column must still be searched to find all primitives associated with a selected
+        // feature. The join table indexes the feature_id column the first time it is searched, so each feature's
+        // primitives are found without a sequential search of the join table.
 
         VPFRelation featureToJoin = this.getFeatureToJoinRelation(featureClass);
         if (featureToJoin == null)
@@ -239,15 +240,11 @@ public class VPFBasicFeatureFactory implements VPFFeatureFactory
         int numPrimitives = 0;
         VPFBoundingBox bounds = null;
 
-        for (VPFRecord joinRow : joinTable)
+        for (VPFRecord joinRow : joinTable.getRecords(joinFeatureKey, featureId))
         {
             if (this.tile != null && !matchesTile(joinRow, this.tile))
                 continue;
 
-            int fId = asInt(joinRow.getValue(joinFeatureKey));
-            if (featureId != fId)
-                continue;
-
             if (!query)
             {
                 int pId = asInt(joinRow.getValue(joinPrimitiveKey));
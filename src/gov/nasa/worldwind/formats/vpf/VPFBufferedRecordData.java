@@ -15,61 +15,132 @@ import java.util.*;
  */
 public class VPFBufferedRecordData implements Iterable<VPFRecord>
 {
+    /**
+     * Reads the values of a single table column. Implementations are called at most once, the first time the column's
+     * values are requested from the record data.
+     */
+    public interface ColumnReader
+    {
+        /**
+         * Returns a data buffer containing the column value for each record, with the value for record ID N at index
+         * N.
+         *
+         * @return the column's data buffer.
+         */
+        VPFDataBuffer read();
+    }
+
     protected static class RecordData
     {
-        public VPFDataBuffer dataBuffer;
-        protected Map<Object, Integer> recordIndex;
+        protected VPFDataBuffer dataBuffer;
+        protected ColumnReader columnReader;
+        protected KeyIndex recordIndex;
+        protected int numLookups;
 
         public RecordData(VPFDataBuffer dataBuffer)
         {
             this.dataBuffer = dataBuffer;
         }
 
-        public boolean hasIndex()
+        public RecordData(ColumnReader columnReader)
+        {
+            this.columnReader = columnReader;
+        }
+
+        public synchronized VPFDataBuffer getDataBuffer()
+        {
+            if (this.dataBuffer == null && this.columnReader != null)
+            {
+                this.dataBuffer = this.columnReader.read();
+                this.columnReader = null; // Release the reader and any file buffer it references.
+            }
+
+            return this.dataBuffer;
+        }
+
+        public synchronized boolean isDataBufferRead()
+        {
+            return this.columnReader == null;
+        }
+
+        public synchronized boolean hasIndex()
         {
             return this.recordIndex != null;
         }
 
-        public int indexOf(Object value, int startIndex, int endIndex)
+        public synchronized int indexOf(Object value, int startIndex, int endIndex)
         {
-            int index = -1;
+            // A single lookup is satisfied by a sequential search, which costs no more than building an index. The
+            // index is built on the second lookup, since a column that is searched twice is usually a join key that
+            // will be searched once per row of another table.
+            if (this.recordIndex == null && ++this.numLookups > 1)
+                this.updateIndex(startIndex, endIndex);
 
             if (this.recordIndex != null)
+                return this.recordIndex.firstIndexOf(value);
+
+            VPFDataBuffer buffer = this.getDataBuffer();
+
+            for (int i = startIndex; i <= endIndex; i++)
             {
-                Integer i = this.recordIndex.get(value);
-                if (i != null)
-                    index = i;
-            }
-            else
-            {
-                for (int i = startIndex; i <= endIndex; i++)
-                {
-                    Object o = this.dataBuffer.get(i);
-                    if ((o != null) ? o.equals(value) : (value == null))
-                    {
-                        index = i;
-                        break;
-                    }
-                }
+                Object o = buffer.get(i);
+                if ((o != null) ? o.equals(value) : (value == null))
+                    return i;
             }
 
-            return index;
+            return -1;
         }
 
-        public boolean updateIndex(int startIndex, int endIndex)
+        public synchronized KeyIndex getIndex(int startIndex, int endIndex)
         {
             if (this.recordIndex == null)
-                this.recordIndex = new HashMap<Object, Integer>();
+                this.updateIndex(startIndex, endIndex);
+
+            return this.recordIndex;
+        }
 
-            this.recordIndex.clear();
+        public synchronized boolean updateIndex(int startIndex, int endIndex)
+        {
+            this.recordIndex = new KeyIndex(this.getDataBuffer(), startIndex, endIndex);
+            return true;
+        }
+    }
+
+    /**
+     * Hash index from the values of a column to the records containing them. Records with equal values are chained in
+     * ascending order, so the index serves both unique keys and non-unique foreign keys.
+     */
+    protected static class KeyIndex
+    {
+        /** Maps each value to the first record index containing it. */
+        protected Map<Object, Integer> firstIndex;
+        /** The next record index containing the same value as the record at each index, or -1 if none. */
+        protected int[] nextIndex;
 
-            for (int index = startIndex; index <= endIndex; index++)
+        public KeyIndex(VPFDataBuffer dataBuffer, int startIndex, int endIndex)
+        {
+            int count = Math.max(0, endIndex - startIndex + 1);
+            this.firstIndex = new HashMap<Object, Integer>(Math.max(16, (int) (count / 0.75f) + 1));
+            this.nextIndex = new int[endIndex + 1];
+
+            // Visit the records in reverse order so that each chain is ascending and the map retains each value's
+            // first record.
+            for (int index = endIndex; index >= startIndex; index--)
             {
-                Object o = this.dataBuffer.get(index);
-                this.recordIndex.put(o, index);
+                Integer next = this.firstIndex.put(dataBuffer.get(index), index);
+                this.nextIndex[index] = (next != null) ? next : -1;
             }
+        }
 
-            return true;
+        public int firstIndexOf(Object value)
+        {
+            Integer i = this.firstIndex.get(value);
+            return (i != null) ? i : -1;
+        }
+
+        public int nextIndexOf(int index)
+        {
+            return this.nextIndex[index];
         }
     }
 
@@ -105,7 +176,7 @@ public class VPFBufferedRecordData implements Iterable<VPFRecord>
         }
 
         RecordData data = this.dataMap.get(parameterName);
-        return (data != null) ? data.dataBuffer : null;
+        return (data != null) ? data.getDataBuffer() : null;
     }
 
     public void setRecordData(String parameterName, VPFDataBuffer dataBuffer)
@@ -127,6 +198,57 @@ public class VPFBufferedRecordData implements Iterable<VPFRecord>
         }
     }
 
+    /**
+     * Specifies a reader for the values of a named column. The reader is not invoked until the column's values are
+     * first requested, so columns that are never accessed are never decoded.
+     *
+     * @param parameterName the column name.
+     * @param reader        the column reader. May be null, in which case the column is removed.
+     *
+     * @throws IllegalArgumentException if the parameter name is null.
+     */
+    public void setColumnReader(String parameterName, ColumnReader reader)
+    {
+        if (parameterName == null)
+        {
+            String message = Logging.getMessage("nullValue.ParameterNameIsNull");
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        if (reader != null)
+        {
+            this.dataMap.put(parameterName, new RecordData(reader));
+        }
+        else
+        {
+            this.dataMap.remove(parameterName);
+        }
+    }
+
+    /**
+     * Indicates whether the values of a named column have been read. Columns specified by data buffer are always read;
+     * columns specified by {@link ColumnReader} are read the first time their values are requested.
+     *
+     * @param parameterName the column name.
+     *
+     * @return true if the column exists and its values have been read, otherwise false.
+     *
+     * @throws IllegalArgumentException if the parameter name is null.
+     */
+    public boolean isRecordDataRead(String parameterName)
+    {
+        if (parameterName == null)
+        {
+            String message = Logging.getMessage("nullValue.ParameterNameIsNull");
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        RecordData data = this.dataMap.get(parameterName);
+        return (data != null) && data.isDataBufferRead();
+    }
+
     public VPFRecord getRecord(int id)
     {
         if (id < 1 || id > this.numRecords)
@@ -158,6 +280,66 @@ public class VPFBufferedRecordData implements Iterable<VPFRecord>
         return (index > 0) ? new RecordImpl(index) : null;
     }
 
+    /**
+     * Returns the records whose value for a named column equals a specified value, in ascending record order. The
+     * lookup uses an index of the column, which is built the first time this method is called for that column.
+     *
+     * @param parameterName the column name.
+     * @param value         the value to match.
+     *
+     * @return the matching records. The iterable is empty if the column does not exist or no records match.
+     *
+     * @throws IllegalArgumentException if the parameter name is null.
+     */
+    public Iterable<VPFRecord> getRecords(String parameterName, final Object value)
+    {
+        if (parameterName == null)
+        {
+            String message = Logging.getMessage("nullValue.ParameterNameIsNull");
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        RecordData data = this.dataMap.get(parameterName);
+        if (data == null)
+        {
+            return Collections.emptyList();
+        }
+
+        final KeyIndex index = data.getIndex(1, this.numRecords);
+
+        return new Iterable<VPFRecord>()
+        {
+            public Iterator<VPFRecord> iterator()
+            {
+                return new Iterator<VPFRecord>()
+                {
+                    private int next = index.firstIndexOf(value);
+
+                    public boolean hasNext()
+                    {
+                        return this.next > 0;
+                    }
+
+                    public VPFRecord next()
+                    {
+                        if (this.next <= 0)
+                            throw new NoSuchElementException();
+
+                        VPFRecord record = new RecordImpl(this.next);
+                        this.next = index.nextIndexOf(this.next);
+                        return record;
+                    }
+
+                    public void remove()
+                    {
+                        throw new UnsupportedOperationException();
+                    }
+                };
+            }
+        };
+    }
+
     public Iterator<VPFRecord> iterator()
     {
         return new Iterator<VPFRecord>()
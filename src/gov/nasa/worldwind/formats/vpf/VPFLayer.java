@@ -7,6 +7,7 @@ package gov.nasa.worldwind.formats.vpf;
 
 import gov.nasa.worldwind.*;
 import gov.nasa.worldwind.avlist.AVKey;
+import gov.nasa.worldwind.cache.*;
 import gov.nasa.worldwind.geom.*;
 import gov.nasa.worldwind.layers.AbstractLayer;
 import gov.nasa.worldwind.render.*;
@@ -18,6 +19,10 @@ import java.util.concurrent.*;
 
 /**
  * Renders elements from a VPF database.
+ * <p/>
+ * Coverage tiles are loaded on the task service, nearest visible tiles first, and only while they remain in view. The
+ * symbols of loaded tiles are held in a memory cache whose capacity is specified by {@link #setCacheCapacity(long)};
+ * the least recently visible tiles are evicted when the cache is full.
  *
  * @author Patrick Murris
  * @version $Id: VPFLayer.java 1171 2013-02-11 21:45:02Z dcollins $
@@ -27,6 +32,15 @@ public class VPFLayer extends AbstractLayer
     public static final String LIBRARY_CHANGED = "VPFLayer.LibraryChanged";
     public static final String COVERAGE_CHANGED = "VPFLayer.CoverageChanged";
 
+    /** The default capacity of the tile symbol cache, in bytes. */
+    protected static final long DEFAULT_CACHE_CAPACITY = 64L * 1024L * 1024L;
+    /**
+     * The time in milliseconds after which a tile request is abandoned if the tile has not been requested again. Tiles
+     * are requested each frame while they are in view. The layer asks for a repaint when it abandons a request, so a
+     * tile still in view of an idle window is requested again.
+     */
+    protected static final long STALE_REQUEST_INTERVAL = 2000;
+
     // Reference
     protected VPFDatabase db;
     protected ArrayList<VPFLibraryRenderable> libraries;
@@ -46,6 +60,7 @@ public class VPFLayer extends AbstractLayer
     // Threaded requests
     protected Queue<Runnable> requestQ = new PriorityBlockingQueue<Runnable>(4);
     protected Queue<Disposable> disposalQ = new ConcurrentLinkedQueue<Disposable>();
+    protected MemoryCache tileCache;
 
     // --- Inner classes ----------------------------------------------------------------------
 
@@ -88,12 +103,12 @@ public class VPFLayer extends AbstractLayer
 
             if (this.referenceCoverage != null)
             {
-                this.referenceCoverage.assembleSymbols(null);
+                this.referenceCoverage.assembleSymbols(dc, null);
             }
 
             for (VPFCoverageRenderable cr : this.coverages)
             {
-                cr.assembleSymbols((cr.coverage.isTiled() ? this.currentTiles : null));
+                cr.assembleSymbols(dc, (cr.coverage.isTiled() ? this.currentTiles : null));
             }
         }
 
@@ -170,71 +185,122 @@ public class VPFLayer extends AbstractLayer
         protected boolean enabled = false;
         protected VPFLayer layer;
         protected VPFCoverage coverage;
-        protected Map<VPFTile, VPFSymbolCollection> tileCache;
+        /** The time each pending tile was last requested, in milliseconds. */
+        protected Map<VPFTile, Long> requestTimes = new ConcurrentHashMap<VPFTile, Long>();
 
         public VPFCoverageRenderable(VPFLayer layer, VPFCoverage coverage)
         {
             this.layer = layer;
             this.coverage = coverage;
-            this.tileCache = Collections.synchronizedMap(new BoundedHashMap<VPFTile, VPFSymbolCollection>(6, true)
-            {
-                protected boolean removeEldestEntry(Map.Entry<VPFTile, VPFSymbolCollection> eldest)
-                {
-                    if (!super.removeEldestEntry(eldest))
-                        return false;
-
-                    dispose(eldest.getValue());
-                    return true;
-                }
-            });
         }
 
-        public void assembleSymbols(Iterable<? extends VPFTile> tiles)
+        public void assembleSymbols(DrawContext dc, Iterable<? extends VPFTile> tiles)
         {
             if (!this.enabled)
                 return;
 
             if (tiles == null)
             {
-                this.doAssembleSymbols(NULL_TILE);
+                this.doAssembleSymbols(dc, NULL_TILE);
                 return;
             }
 
             for (VPFTile tile : tiles)
             {
-                this.doAssembleSymbols(tile);
+                this.doAssembleSymbols(dc, tile);
             }
         }
 
-        protected void doAssembleSymbols(VPFTile tile)
+        protected void doAssembleSymbols(DrawContext dc, VPFTile tile)
         {
-            VPFSymbolCollection symbolCollection = this.tileCache.get(tile);
+            VPFSymbolCollection symbolCollection = (VPFSymbolCollection) this.layer.tileCache.getObject(
+                new TileKey(this, tile));
             if (symbolCollection != null)
             {
                 this.layer.symbols.addAll(symbolCollection.getSymbols());
             }
             else
             {
-                this.layer.requestQ.add(new RequestTask(this, tile));
+                this.requestTimes.put(tile, System.currentTimeMillis());
+                this.layer.requestQ.add(new RequestTask(this, tile, this.computeTilePriority(dc, tile)));
             }
         }
 
-        protected void dispose(VPFSymbolCollection renderInfo)
+        /**
+         * Computes the load priority of a tile. Lower values are loaded first. Untiled coverages have the highest
+         * priority, followed by tiles in order of their distance from the eye.
+         *
+         * @param dc   the current draw context.
+         * @param tile the tile to prioritize.
+         *
+         * @return the tile's priority.
+         */
+        protected double computeTilePriority(DrawContext dc, VPFTile tile)
+        {
+            if (tile == NULL_TILE)
+                return 0;
+
+            Extent extent = tile.getExtent(dc.getGlobe(), dc.getVerticalExaggeration());
+            return Math.max(0, extent.getCenter().distanceTo3(dc.getView().getEyePoint()) - extent.getRadius());
+        }
+
+        protected boolean isRequestStale(VPFTile tile)
+        {
+            Long time = this.requestTimes.get(tile);
+            return time == null || System.currentTimeMillis() - time > STALE_REQUEST_INTERVAL;
+        }
+    }
+
+    /** Identifies the symbols of one coverage tile in the layer's tile cache. */
+    protected static class TileKey
+    {
+        protected final VPFCoverageRenderable coverageRenderable;
+        protected final VPFTile tile;
+
+        public TileKey(VPFCoverageRenderable coverageRenderable, VPFTile tile)
+        {
+            this.coverageRenderable = coverageRenderable;
+            this.tile = tile;
+        }
+
+        public boolean equals(Object o)
+        {
+            if (this == o)
+                return true;
+            if (o == null || getClass() != o.getClass())
+                return false;
+
+            TileKey that = (TileKey) o;
+            return this.coverageRenderable == that.coverageRenderable && this.tile.equals(that.tile);
+        }
+
+        public int hashCode()
         {
-            this.layer.disposalQ.add(renderInfo);
+            return 31 * this.coverageRenderable.hashCode() + this.tile.hashCode();
         }
     }
 
-    protected static class VPFSymbolCollection implements Disposable
+    protected static class VPFSymbolCollection implements Disposable, Cacheable
     {
-        public static final VPFSymbolCollection EMPTY_SYMBOL_COLLECTION = new VPFSymbolCollection(null);
+        /** The estimated size of a symbol and its renderable, excluding the renderable's coordinates. */
+        protected static final long SYMBOL_SIZE_ESTIMATE = 256;
+
+        public static final VPFSymbolCollection EMPTY_SYMBOL_COLLECTION = new VPFSymbolCollection(null, 0);
 
         protected final ArrayList<VPFSymbol> symbols = new ArrayList<VPFSymbol>();
+        protected final long sizeInBytes;
 
-        public VPFSymbolCollection(Collection<? extends VPFSymbol> symbols)
+        public VPFSymbolCollection(Collection<? extends VPFSymbol> symbols, long dataSizeInBytes)
         {
             if (symbols != null)
                 this.symbols.addAll(symbols);
+
+            this.sizeInBytes = SYMBOL_SIZE_ESTIMATE * (1 + this.symbols.size()) + dataSizeInBytes;
+        }
+
+        public long getSizeInBytes()
+        {
+            return this.sizeInBytes;
         }
 
         public Collection<VPFSymbol> getSymbols()
@@ -286,27 +352,43 @@ public class VPFLayer extends AbstractLayer
                 list.addAll(symbols);
         }
 
-        return new VPFSymbolCollection(list);
+        return new VPFSymbolCollection(list, primitiveData.getSizeInBytes());
     }
 
     protected static class RequestTask implements Runnable, Comparable<RequestTask>
     {
         protected VPFCoverageRenderable coverageRenderable;
         protected VPFTile tile;
+        protected double priority;
 
-        protected RequestTask(VPFCoverageRenderable coverageRenderable, VPFTile tile)
+        protected RequestTask(VPFCoverageRenderable coverageRenderable, VPFTile tile, double priority)
         {
             this.coverageRenderable = coverageRenderable;
             this.tile = tile;
+            this.priority = priority;
         }
 
         public void run()
         {
-            VPFSymbolCollection symbols = this.coverageRenderable.layer.loadTileSymbols(
-                this.coverageRenderable.coverage, (this.tile != NULL_TILE) ? this.tile : null);
+            if (Thread.currentThread().isInterrupted())
+                return; // the task was cancelled because it's a duplicate or for some other reason
+
+            // Abandon the request if the tile has left the view while the task was queued. The view may instead have
+            // stopped repainting, so repaint to request the tile again if it is still in view.
+            VPFLayer layer = this.coverageRenderable.layer;
+            if (this.coverageRenderable.isRequestStale(this.tile))
+            {
+                this.coverageRenderable.requestTimes.remove(this.tile);
+                layer.firePropertyChange(AVKey.LAYER, null, layer);
+                return;
+            }
+
+            VPFSymbolCollection symbols = layer.loadTileSymbols(this.coverageRenderable.coverage,
+                (this.tile != NULL_TILE) ? this.tile : null);
 
-            this.coverageRenderable.tileCache.put(this.tile, symbols);
-            this.coverageRenderable.layer.firePropertyChange(AVKey.LAYER, null, this.coverageRenderable.layer);
+            layer.addTileSymbols(new TileKey(this.coverageRenderable, this.tile), symbols);
+            this.coverageRenderable.requestTimes.remove(this.tile);
+            layer.firePropertyChange(AVKey.LAYER, null, layer);
         }
 
         /**
@@ -325,7 +407,7 @@ public class VPFLayer extends AbstractLayer
                 throw new IllegalArgumentException(msg);
             }
 
-            return 0;
+            return this.priority == that.priority ? 0 : this.priority < that.priority ? -1 : 1;
         }
 
         public boolean equals(Object o)
@@ -379,6 +461,62 @@ public class VPFLayer extends AbstractLayer
 
         this.textRenderer.setCullTextEnabled(true);
         this.textRenderer.setEffect(AVKey.TEXT_EFFECT_OUTLINE);
+
+        this.tileCache = new BasicMemoryCache((long) (0.8 * DEFAULT_CACHE_CAPACITY), DEFAULT_CACHE_CAPACITY);
+        this.tileCache.setName("VPF Tile Symbols");
+        this.tileCache.addCacheListener(new MemoryCache.CacheListener()
+        {
+            public void entryRemoved(Object key, Object clientObject)
+            {
+                // Symbols are disposed on the rendering thread.
+                if (clientObject instanceof Disposable)
+                    disposalQ.add((Disposable) clientObject);
+            }
+
+            public void removalException(Throwable e, Object key, Object clientObject)
+            {
+                Logging.logger().log(java.util.logging.Level.INFO, e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * Returns the capacity of the cache holding the symbols of loaded coverage tiles.
+     *
+     * @return the tile cache capacity, in bytes.
+     */
+    public long getCacheCapacity()
+    {
+        return this.tileCache.getCapacity();
+    }
+
+    /**
+     * Specifies the capacity of the cache holding the symbols of loaded coverage tiles. When the cache is full, the
+     * symbols of the least recently visible tiles are evicted and disposed.
+     *
+     * @param capacity the tile cache capacity, in bytes.
+     *
+     * @throws IllegalArgumentException if the capacity is less than 1.
+     */
+    public void setCacheCapacity(long capacity)
+    {
+        if (capacity < 1)
+        {
+            String message = Logging.getMessage("generic.ArgumentOutOfRange", "capacity < 1");
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        // The low water level must be less than the capacity, so set the capacity first.
+        this.tileCache.setCapacity(capacity);
+        this.tileCache.setLowWater((long) (0.8 * capacity));
+    }
+
+    protected void addTileSymbols(TileKey key, VPFSymbolCollection symbols)
+    {
+        // A tile larger than the whole cache is still cached, displacing every other tile, so that it is not
+        // requested again each frame.
+        this.tileCache.add(key, symbols, Math.min(symbols.getSizeInBytes(), this.tileCache.getCapacity()));
     }
 
     public VPFDatabase getVPFDatabase()
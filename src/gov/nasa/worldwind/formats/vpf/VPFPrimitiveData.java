@@ -190,6 +190,31 @@ public class VPFPrimitiveData
         this.primitiveCoords.put(name, coords);
     }
 
+    /**
+     * Returns an estimate of the memory held by this primitive data: the coordinate buffers plus a nominal size per
+     * primitive.
+     *
+     * @return the estimated size of this primitive data, in bytes.
+     */
+    public long getSizeInBytes()
+    {
+        long size = 0;
+
+        for (PrimitiveInfo[] info : this.primitiveInfo.values())
+        {
+            if (info != null)
+                size += 64L * info.length;
+        }
+
+        for (VecBufferSequence coords : this.primitiveCoords.values())
+        {
+            if (coords != null)
+                size += coords.getVecBuffer().getBufferWrapper().getSizeInBytes();
+        }
+
+        return size;
+    }
+
     public CompoundStringBuilder getPrimitiveStrings(String name)
     {
         return this.primitiveStrings.get(name);
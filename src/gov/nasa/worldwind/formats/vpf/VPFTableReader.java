@@ -35,7 +35,7 @@ public class VPFTableReader
 
         try
         {
-            ByteBuffer buffer = this.readFileToBuffer(file);
+            ByteBuffer buffer = this.mapFileToBuffer(file);
             return this.doRead(file, buffer);
         }
         catch (Exception e)
@@ -53,6 +53,15 @@ public class VPFTableReader
         return buffer;
     }
 
+    protected ByteBuffer mapFileToBuffer(File file) throws IOException
+    {
+        // Map the VPF table read-only. Column values are decoded from the mapped buffer when first accessed, so the
+        // table's bytes are paged in by the operating system rather than copied to the heap.
+        ByteBuffer buffer = WWIO.mapFile(file);
+        buffer.order(ByteOrder.LITTLE_ENDIAN); // Default to least significant byte first order.
+        return buffer;
+    }
+
     protected VPFBufferedRecordData doRead(File file, ByteBuffer buffer)
     {
         // Read the table header.
@@ -313,49 +322,168 @@ public class VPFTableReader
 
     protected VPFBufferedRecordData readRecordData(ByteBuffer byteBuffer, Column[] columns, RecordIndex recordIndex)
     {
-        int numRows = recordIndex.numEntries;
-        int numColumns = columns.length;
+        VPFBufferedRecordData recordData = new VPFBufferedRecordData();
+        recordData.setNumRecords(recordIndex.numEntries);
 
-        // Create data readers for each column.
-        RecordDataReader[] readers = new RecordDataReader[numColumns];
-        for (int col = 0; col < numColumns; col++)
+        // Defer reading each column until its values are first requested. Key indexes are likewise built on demand
+        // by VPFBufferedRecordData, the first time a column is used for a join.
+        for (int col = 0; col < columns.length; col++)
         {
-            VPFDataType type = VPFDataType.fromTypeName(columns[col].dataType);
-            VPFDataBuffer dataBuffer = type.createDataBuffer(numRows, columns[col].numElements);
-            readers[col] = columns[col].isVariableLengthField() ?
-                new VariableLengthDataReader(dataBuffer)
-                : new FixedLengthDataReader(dataBuffer, columns[col].numElements);
+            recordData.setColumnReader(columns[col].name, this.createColumnReader(byteBuffer, columns, col,
+                recordIndex));
         }
 
-        // Read the column data associated with each row.
-        for (int row = 0; row < numRows; row++)
+        return recordData;
+    }
+
+    protected VPFBufferedRecordData.ColumnReader createColumnReader(ByteBuffer byteBuffer, Column[] columns,
+        int column, RecordIndex recordIndex)
+    {
+        return new DeferredColumnReader(byteBuffer, columns, column, recordIndex);
+    }
+
+    /**
+     * Reads one column of a table from the table's buffer. The column's offset in each record is computed once when
+     * the columns preceding it have fixed length, and otherwise found by skipping the preceding fields of each record
+     * without decoding them.
+     */
+    protected static class DeferredColumnReader implements VPFBufferedRecordData.ColumnReader
+    {
+        protected ByteBuffer byteBuffer;
+        protected Column[] columns;
+        protected int column;
+        protected RecordIndex recordIndex;
+
+        public DeferredColumnReader(ByteBuffer byteBuffer, Column[] columns, int column, RecordIndex recordIndex)
         {
-            byteBuffer.position(recordIndex.entries[row].offset);
+            this.byteBuffer = byteBuffer;
+            this.columns = columns;
+            this.column = column;
+            this.recordIndex = recordIndex;
+        }
 
-            for (int col = 0; col < numColumns; col++)
+        public VPFDataBuffer read()
+        {
+            // Read from a view of the table buffer, so that columns may be read concurrently. Views do not inherit
+            // the byte order of their source.
+            ByteBuffer buffer = this.byteBuffer.duplicate();
+            buffer.order(this.byteBuffer.order());
+
+            int numRows = this.recordIndex.numEntries;
+            Column col = this.columns[this.column];
+            VPFDataType type = VPFDataType.fromTypeName(col.dataType);
+            VPFDataBuffer dataBuffer = type.createDataBuffer(numRows, col.numElements);
+            RecordDataReader reader = col.isVariableLengthField() ?
+                new VariableLengthDataReader(dataBuffer)
+                : new FixedLengthDataReader(dataBuffer, col.numElements);
+
+            int fieldOffset = this.computeFieldOffset();
+
+            for (int row = 0; row < numRows; row++)
             {
-                readers[col].read(byteBuffer);
+                int recordOffset = this.recordIndex.entries[row].offset;
+
+                if (fieldOffset >= 0)
+                {
+                    buffer.position(recordOffset + fieldOffset);
+                }
+                else
+                {
+                    buffer.position(recordOffset);
+                    for (int i = 0; i < this.column; i++)
+                    {
+                        skipField(buffer, this.columns[i]);
+                    }
+                }
+
+                reader.read(buffer);
             }
+
+            return dataBuffer;
         }
 
-        VPFBufferedRecordData recordData = new VPFBufferedRecordData();
-        recordData.setNumRecords(numRows);
+        /**
+         * Returns the offset of this reader's column from the start of each record, or -1 if a preceding column has
+         * variable length.
+         *
+         * @return the column's offset in bytes, or -1 if the offset differs between records.
+         */
+        protected int computeFieldOffset()
+        {
+            int offset = 0;
+
+            for (int i = 0; i < this.column; i++)
+            {
+                if (this.columns[i].isVariableLengthField())
+                    return -1;
+
+                offset += this.columns[i].getFieldLength();
+            }
 
-        // Set the record data buffer associated with each column.
-        for (int col = 0; col < numColumns; col++)
+            return offset;
+        }
+
+        /**
+         * Advances a buffer past one field of a specified column, consuming the same bytes as the column's data buffer
+         * would when reading the field.
+         *
+         * @param buffer the buffer positioned at the start of the field.
+         * @param col    the column the field belongs to.
+         */
+        protected static void skipField(ByteBuffer buffer, Column col)
         {
-            recordData.setRecordData(columns[col].name, readers[col].getDataBuffer());
+            if (!col.isVariableLengthField())
+            {
+                buffer.position(buffer.position() + col.getFieldLength());
+                return;
+            }
 
-            // Compute an index for any columns which are identified as primary keys or unique keys.
-            if (!columns[col].name.equals(VPFConstants.ID) &&
-                (columns[col].name.equals(VPFConstants.PRIMARY_KEY) ||
-                    columns[col].name.equals(VPFConstants.UNIQUE_KEY)))
+            VPFDataType type = VPFDataType.fromTypeName(col.dataType);
+            switch (type)
             {
-                recordData.buildRecordIndex(columns[col].name);
+                case TRIPLET_ID:
+                    // The type byte encodes the width of each of the three ids.
+                    int bits = buffer.get();
+                    buffer.position(buffer.position() + tripletIdLength(bits >> 6) + tripletIdLength(bits >> 4)
+                        + tripletIdLength(bits >> 2));
+                    break;
+                case TEXT:
+                case TEXT_L1:
+                case TEXT_L2:
+                case TEXT_L3:
+                case SHORT_COORD_2I:
+                case LONG_COORD_2I:
+                case SHORT_COORD_3I:
+                case LONG_COORD_3I:
+                case SHORT_COORD_2F:
+                case LONG_COORD_2F:
+                case SHORT_COORD_3F:
+                case LONG_COORD_3F:
+                    // Variable length text and coordinate fields are preceded by their element count.
+                    int numElements = buffer.getInt();
+                    buffer.position(buffer.position() + numElements * type.getFieldLength());
+                    break;
+                default:
+                    // Scalar and date fields always hold a single element.
+                    buffer.position(buffer.position() + Math.max(0, type.getFieldLength()));
+                    break;
             }
         }
 
-        return recordData;
+        protected static int tripletIdLength(int bits)
+        {
+            switch (bits & 3)
+            {
+                case 1:
+                    return 1;
+                case 2:
+                    return 2;
+                case 3:
+                    return 4;
+                default:
+                    return 0;
+            }
+        }
     }
 
     //**************************************************************//
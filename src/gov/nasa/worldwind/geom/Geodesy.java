@@ -0,0 +1,1095 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+package gov.nasa.worldwind.geom;
+
+import gov.nasa.worldwind.avlist.AVKey;
+import gov.nasa.worldwind.util.Logging;
+
+/**
+ * Geodesic computations on locations expressed as primitive latitude and longitude values in radians. The {@link
+ * LatLon} distance, azimuth, end position and interpolation methods delegate to these methods, which allocate nothing,
+ * and the batch methods apply them to paths held in packed arrays.
+ * <p/>
+ * A packed path is a <code>double</code> array holding each location's latitude followed by its longitude, in radians.
+ * Use {@link #toRadians(double[], double[], int)} to pack a path held in degrees. Path types are those accepted by
+ * {@link LatLon#pathDistance(String, LatLon, LatLon)}: {@link AVKey#GREAT_CIRCLE}, {@link AVKey#RHUMB_LINE} or {@link
+ * AVKey#LOXODROME}, and any other value, which indicates a linear path.
+ * <p/>
+ * Unless otherwise noted, distances are angular distances in radians on a sphere. Multiply by the globe's radius to
+ * compute a distance in meters.
+ *
+ * @version $Id$
+ */
+public class Geodesy
+{
+    /** A near zero threshold used in the rhumb line calculations where floating point calculations cause errors. */
+    protected static final double NEAR_ZERO_THRESHOLD = 1e-15;
+    protected static final double DEGREES_TO_RADIANS = Math.PI / 180d;
+    protected static final double RADIANS_TO_DEGREES = 180d / Math.PI;
+    /** The largest latitude at which Mercator coordinates are computed, just short of the pole. */
+    protected static final double MAX_MERCATOR_LATITUDE = Math.toRadians(89.999999);
+
+    protected Geodesy()
+    {
+    }
+
+    /**
+     * Computes the great circle angular distance between two locations, using the haversine formula.
+     *
+     * @param lat1 the first location's latitude in radians.
+     * @param lon1 the first location's longitude in radians.
+     * @param lat2 the second location's latitude in radians.
+     * @param lon2 the second location's longitude in radians.
+     *
+     * @return the angular distance between the locations, in radians.
+     */
+    public static double greatCircleDistance(double lat1, double lon1, double lat2, double lon2)
+    {
+        if (lat1 == lat2 && lon1 == lon2)
+            return 0;
+
+        // "Haversine formula," taken from http://en.wikipedia.org/wiki/Great-circle_distance#Formul.C3.A6
+        double a = Math.sin((lat2 - lat1) / 2.0);
+        double b = Math.sin((lon2 - lon1) / 2.0);
+        double c = a * a + +Math.cos(lat1) * Math.cos(lat2) * b * b;
+        double distanceRadians = 2.0 * Math.asin(Math.sqrt(c));
+
+        return Double.isNaN(distanceRadians) ? 0 : distanceRadians;
+    }
+
+    /**
+     * Computes the azimuth, clockwise from North, of the great circle arc from the first location through the second.
+     *
+     * @param lat1 the first location's latitude in radians.
+     * @param lon1 the first location's longitude in radians.
+     * @param lat2 the second location's latitude in radians.
+     * @param lon2 the second location's longitude in radians.
+     *
+     * @return the azimuth in radians.
+     */
+    public static double greatCircleAzimuth(double lat1, double lon1, double lat2, double lon2)
+    {
+        if (lat1 == lat2 && lon1 == lon2)
+            return 0;
+
+        if (lon1 == lon2)
+            return lat1 > lat2 ? Math.PI : 0;
+
+        // Taken from "Map Projections - A Working Manual", page 30, equation 5-4b.
+        // The atan2() function is used in place of the traditional atan(y/x) to simplify the case when x==0.
+        double y = Math.cos(lat2) * Math.sin(lon2 - lon1);
+        double x = Math.cos(lat1) * Math.sin(lat2) - Math.sin(lat1) * Math.cos(lat2) * Math.cos(lon2 - lon1);
+        double azimuthRadians = Math.atan2(y, x);
+
+        return Double.isNaN(azimuthRadians) ? 0 : azimuthRadians;
+    }
+
+    /**
+     * Computes the location on a great circle arc with a starting location, azimuth and arc distance.
+     *
+     * @param lat      the starting location's latitude in radians.
+     * @param lon      the starting location's longitude in radians.
+     * @param azimuth  the great circle azimuth in radians, clockwise from North.
+     * @param distance the arc distance to travel in radians.
+     * @param result   receives the normalized latitude and longitude of the location, in radians.
+     * @param offset   the index in <code>result</code> of the latitude.
+     *
+     * @return true if a location was computed, or false if the distance is zero or the computation failed, in which
+     * case <code>result</code> receives the starting location.
+     */
+    public static boolean greatCircleEndPosition(double lat, double lon, double azimuth, double distance,
+        double[] result, int offset)
+    {
+        if (distance == 0)
+        {
+            setLocation(lat, lon, result, offset);
+            return false;
+        }
+
+        // Taken from "Map Projections - A Working Manual", page 31, equation 5-5 and 5-6.
+        double endLatRadians = Math.asin(Math.sin(lat) * Math.cos(distance)
+            + Math.cos(lat) * Math.sin(distance) * Math.cos(azimuth));
+        double endLonRadians = lon + Math.atan2(
+            Math.sin(distance) * Math.sin(azimuth),
+            Math.cos(lat) * Math.cos(distance) - Math.sin(lat) * Math.sin(distance) * Math.cos(azimuth));
+
+        if (Double.isNaN(endLatRadians) || Double.isNaN(endLonRadians))
+        {
+            setLocation(lat, lon, result, offset);
+            return false;
+        }
+
+        setLocation(normalizedLatitude(endLatRadians), normalizedLongitude(endLonRadians), result, offset);
+        return true;
+    }
+
+    /**
+     * Computes the great circle distance from a location to the nearest location in a region bounded by parallels and
+     * meridians. If the region spans the location's longitude, the nearest location is due north or south. Otherwise
+     * it's on one of the region's meridian edges: the point on the edge's meridian nearest the location when that's
+     * within the edge, or else one of the edge's ends. The region is assumed not to span the anti-meridian.
+     *
+     * @param lat    the location's latitude in radians.
+     * @param lon    the location's longitude in radians.
+     * @param minLat the region's minimum latitude in radians.
+     * @param maxLat the region's maximum latitude in radians.
+     * @param minLon the region's minimum longitude in radians.
+     * @param maxLon the region's maximum longitude in radians.
+     *
+     * @return the angular distance to the region, in radians, or zero if the location is within the region.
+     */
+    public static double greatCircleDistanceToRegion(double lat, double lon, double minLat, double maxLat,
+        double minLon, double maxLon)
+    {
+        if (lon >= minLon && lon <= maxLon)
+            return lat < minLat ? minLat - lat : lat > maxLat ? lat - maxLat : 0;
+
+        return Math.min(greatCircleDistanceToMeridian(lat, lon, minLat, maxLat, minLon),
+            greatCircleDistanceToMeridian(lat, lon, minLat, maxLat, maxLon));
+    }
+
+    protected static double greatCircleDistanceToMeridian(double lat, double lon, double minLat, double maxLat,
+        double meridian)
+    {
+        double cosDLon = Math.cos(meridian - lon);
+
+        // Within a quarter turn of longitude, the distance along the meridian has a single minimum at the nearest
+        // point, so the nearest point within the edge is that point clamped to the edge. Beyond a quarter turn the
+        // distance has a single maximum within the edge, so the nearest point is one of its ends.
+        if (cosDLon >= 0)
+        {
+            double nearestLat = Math.atan2(Math.sin(lat), Math.cos(lat) * cosDLon);
+            nearestLat = Math.max(minLat, Math.min(maxLat, nearestLat));
+            return greatCircleDistance(lat, lon, nearestLat, meridian);
+        }
+
+        return Math.min(greatCircleDistance(lat, lon, minLat, meridian),
+            greatCircleDistance(lat, lon, maxLat, meridian));
+    }
+
+    /**
+     * Computes the length of the rhumb line between two locations.
+     *
+     * @param lat1 the first location's latitude in radians.
+     * @param lon1 the first location's longitude in radians.
+     * @param lat2 the second location's latitude in radians.
+     * @param lon2 the second location's longitude in radians.
+     *
+     * @return the angular length of the rhumb line, in radians.
+     */
+    public static double rhumbDistance(double lat1, double lon1, double lat2, double lon2)
+    {
+        if (lat1 == lat2 && lon1 == lon2)
+            return 0;
+
+        // Taken from http://www.movable-type.co.uk/scripts/latlong.html
+        double dLat = lat2 - lat1;
+        double dLon = lon2 - lon1;
+
+        double q;
+        if (Math.abs(dLat) < NEAR_ZERO_THRESHOLD)
+        {
+            q = Math.cos(lat1);
+        }
+        else
+        {
+            double dPhi = Math.log(Math.tan(lat2 / 2.0 + Math.PI / 4.0) / Math.tan(lat1 / 2.0 + Math.PI / 4.0));
+            q = dLat / dPhi;
+        }
+
+        // If lonChange over 180 take shorter rhumb across 180 meridian.
+        if (Math.abs(dLon) > Math.PI)
+        {
+            dLon = dLon > 0 ? -(2 * Math.PI - dLon) : (2 * Math.PI + dLon);
+        }
+
+        double distanceRadians = Math.sqrt(dLat * dLat + q * q * dLon * dLon);
+
+        return Double.isNaN(distanceRadians) ? 0 : distanceRadians;
+    }
+
+    /**
+     * Computes the azimuth, clockwise from North, of the rhumb line between two locations.
+     *
+     * @param lat1 the first location's latitude in radians.
+     * @param lon1 the first location's longitude in radians.
+     * @param lat2 the second location's latitude in radians.
+     * @param lon2 the second location's longitude in radians.
+     *
+     * @return the azimuth in radians.
+     */
+    public static double rhumbAzimuth(double lat1, double lon1, double lat2, double lon2)
+    {
+        if (lat1 == lat2 && lon1 == lon2)
+            return 0;
+
+        // Taken from http://www.movable-type.co.uk/scripts/latlong.html
+        double dLon = lon2 - lon1;
+        double dPhi = Math.log(Math.tan(lat2 / 2.0 + Math.PI / 4.0) / Math.tan(lat1 / 2.0 + Math.PI / 4.0));
+        // If lonChange over 180 take shorter rhumb across 180 meridian.
+        if (Math.abs(dLon) > Math.PI)
+        {
+            dLon = dLon > 0 ? -(2 * Math.PI - dLon) : (2 * Math.PI + dLon);
+        }
+        double azimuthRadians = Math.atan2(dLon, dPhi);
+
+        return Double.isNaN(azimuthRadians) ? 0 : azimuthRadians;
+    }
+
+    /**
+     * Computes the location on a rhumb line with a starting location, azimuth and arc distance.
+     *
+     * @param lat1     the starting location's latitude in radians.
+     * @param lon1     the starting location's longitude in radians.
+     * @param azimuth  the rhumb azimuth in radians, clockwise from North.
+     * @param distance the arc distance to travel in radians.
+     * @param result   receives the normalized latitude and longitude of the location, in radians.
+     * @param offset   the index in <code>result</code> of the latitude.
+     *
+     * @return true if a location was computed, or false if the distance is zero or the computation failed, in which
+     * case <code>result</code> receives the starting location.
+     */
+    public static boolean rhumbEndPosition(double lat1, double lon1, double azimuth, double distance, double[] result,
+        int offset)
+    {
+        if (distance == 0)
+        {
+            setLocation(lat1, lon1, result, offset);
+            return false;
+        }
+
+        // Taken from http://www.movable-type.co.uk/scripts/latlong.html
+        double dLat = distance * Math.cos(azimuth);
+        double lat2 = lat1 + dLat;
+        double q;
+        if (Math.abs(dLat) < NEAR_ZERO_THRESHOLD)
+        {
+            q = Math.cos(lat1);
+        }
+        else
+        {
+            double dPhi = Math.log(Math.tan(lat2 / 2.0 + Math.PI / 4.0) / Math.tan(lat1 / 2.0 + Math.PI / 4.0));
+            q = (lat2 - lat1) / dPhi;
+        }
+
+        double dLon = distance * Math.sin(azimuth) / q;
+        // Handle latitude passing over either pole.
+        if (Math.abs(lat2) > Math.PI / 2.0)
+        {
+            lat2 = lat2 > 0 ? Math.PI - lat2 : -Math.PI - lat2;
+        }
+        double lon2 = (lon1 + dLon + Math.PI) % (2 * Math.PI) - Math.PI;
+
+        if (Double.isNaN(lat2) || Double.isNaN(lon2))
+        {
+            setLocation(lat1, lon1, result, offset);
+            return false;
+        }
+
+        setLocation(normalizedLatitude(lat2), normalizedLongitude(lon2), result, offset);
+        return true;
+    }
+
+    /**
+     * Computes the length of the linear path between two locations, treating latitude and longitude as a rectangular
+     * grid.
+     *
+     * @param lat1 the first location's latitude in radians.
+     * @param lon1 the first location's longitude in radians.
+     * @param lat2 the second location's latitude in radians.
+     * @param lon2 the second location's longitude in radians.
+     *
+     * @return the angular length of the path, in radians.
+     */
+    public static double linearDistance(double lat1, double lon1, double lat2, double lon2)
+    {
+        if (lat1 == lat2 && lon1 == lon2)
+            return 0;
+
+        double dLat = lat2 - lat1;
+        double dLon = lon2 - lon1;
+
+        // If lonChange over 180 take shorter path across 180 meridian.
+        if (Math.abs(dLon) > Math.PI)
+        {
+            dLon = dLon > 0 ? -(2 * Math.PI - dLon) : (2 * Math.PI + dLon);
+        }
+
+        double distanceRadians = Math.hypot(dLat, dLon);
+
+        return Double.isNaN(distanceRadians) ? 0 : distanceRadians;
+    }
+
+    /**
+     * Computes the azimuth, clockwise from North, of the linear path between two locations.
+     *
+     * @param lat1 the first location's latitude in radians.
+     * @param lon1 the first location's longitude in radians.
+     * @param lat2 the second location's latitude in radians.
+     * @param lon2 the second location's longitude in radians.
+     *
+     * @return the azimuth in radians.
+     */
+    public static double linearAzimuth(double lat1, double lon1, double lat2, double lon2)
+    {
+        if (lat1 == lat2 && lon1 == lon2)
+            return 0;
+
+        double dLon = lon2 - lon1;
+        double dLat = lat2 - lat1;
+
+        // If lonChange over 180 take shorter rhumb across 180 meridian.
+        if (Math.abs(dLon) > Math.PI)
+        {
+            dLon = dLon > 0 ? -(2 * Math.PI - dLon) : (2 * Math.PI + dLon);
+        }
+        double azimuthRadians = Math.atan2(dLon, dLat);
+
+        return Double.isNaN(azimuthRadians) ? 0 : azimuthRadians;
+    }
+
+    /**
+     * Computes the location on a linear path with a starting location, azimuth and arc distance.
+     *
+     * @param lat1     the starting location's latitude in radians.
+     * @param lon1     the starting location's longitude in radians.
+     * @param azimuth  the azimuth in radians, clockwise from North.
+     * @param distance the arc distance to travel in radians.
+     * @param result   receives the normalized latitude and longitude of the location, in radians.
+     * @param offset   the index in <code>result</code> of the latitude.
+     *
+     * @return true if a location was computed, or false if the distance is zero or the computation failed, in which
+     * case <code>result</code> receives the starting location.
+     */
+    public static boolean linearEndPosition(double lat1, double lon1, double azimuth, double distance, double[] result,
+        int offset)
+    {
+        if (distance == 0)
+        {
+            setLocation(lat1, lon1, result, offset);
+            return false;
+        }
+
+        double lat2 = lat1 + distance * Math.cos(azimuth);
+
+        // Handle latitude passing over either pole.
+        if (Math.abs(lat2) > Math.PI / 2.0)
+        {
+            lat2 = lat2 > 0 ? Math.PI - lat2 : -Math.PI - lat2;
+        }
+        double lon2 = (lon1 + distance * Math.sin(azimuth) + Math.PI) % (2 * Math.PI) - Math.PI;
+
+        if (Double.isNaN(lat2) || Double.isNaN(lon2))
+        {
+            setLocation(lat1, lon1, result, offset);
+            return false;
+        }
+
+        setLocation(normalizedLatitude(lat2), normalizedLongitude(lon2), result, offset);
+        return true;
+    }
+
+    /**
+     * Computes the length of the path between two locations according to a path type.
+     *
+     * @param pathType the path type.
+     * @param lat1     the first location's latitude in radians.
+     * @param lon1     the first location's longitude in radians.
+     * @param lat2     the second location's latitude in radians.
+     * @param lon2     the second location's longitude in radians.
+     *
+     * @return the angular length of the path, in radians.
+     */
+    public static double pathDistance(String pathType, double lat1, double lon1, double lat2, double lon2)
+    {
+        if (AVKey.GREAT_CIRCLE.equals(pathType))
+            return greatCircleDistance(lat1, lon1, lat2, lon2);
+        else if (AVKey.RHUMB_LINE.equals(pathType) || AVKey.LOXODROME.equals(pathType))
+            return rhumbDistance(lat1, lon1, lat2, lon2);
+        else // Default to linear.
+            return linearDistance(lat1, lon1, lat2, lon2);
+    }
+
+    /**
+     * Computes the azimuth of the path between two locations according to a path type.
+     *
+     * @param pathType the path type.
+     * @param lat1     the first location's latitude in radians.
+     * @param lon1     the first location's longitude in radians.
+     * @param lat2     the second location's latitude in radians.
+     * @param lon2     the second location's longitude in radians.
+     *
+     * @return the azimuth in radians, clockwise from North.
+     */
+    public static double pathAzimuth(String pathType, double lat1, double lon1, double lat2, double lon2)
+    {
+        if (AVKey.GREAT_CIRCLE.equals(pathType))
+            return greatCircleAzimuth(lat1, lon1, lat2, lon2);
+        else if (AVKey.RHUMB_LINE.equals(pathType) || AVKey.LOXODROME.equals(pathType))
+            return rhumbAzimuth(lat1, lon1, lat2, lon2);
+        else // Default to linear.
+            return linearAzimuth(lat1, lon1, lat2, lon2);
+    }
+
+    /**
+     * Computes the location on a path with a starting location, azimuth and arc distance, according to a path type.
+     *
+     * @param pathType the path type.
+     * @param lat      the starting location's latitude in radians.
+     * @param lon      the starting location's longitude in radians.
+     * @param azimuth  the path's azimuth in radians, clockwise from North.
+     * @param distance the arc distance to travel in radians.
+     * @param result   receives the normalized latitude and longitude of the location, in radians.
+     * @param offset   the index in <code>result</code> of the latitude.
+     *
+     * @return true if a location was computed, or false if the distance is zero or the computation failed, in which
+     * case <code>result</code> receives the starting location.
+     */
+    public static boolean pathEndPosition(String pathType, double lat, double lon, double azimuth, double distance,
+        double[] result, int offset)
+    {
+        if (AVKey.GREAT_CIRCLE.equals(pathType))
+            return greatCircleEndPosition(lat, lon, azimuth, distance, result, offset);
+        else if (AVKey.RHUMB_LINE.equals(pathType) || AVKey.LOXODROME.equals(pathType))
+            return rhumbEndPosition(lat, lon, azimuth, distance, result, offset);
+        else // Default to linear.
+            return linearEndPosition(lat, lon, azimuth, distance, result, offset);
+    }
+
+    /**
+     * Computes the forward azimuth between two locations on an ellipsoid, using Vincenty's formula.
+     *
+     * @param lat1             the first location's latitude in radians.
+     * @param lon1             the first location's longitude in radians.
+     * @param lat2             the second location's latitude in radians.
+     * @param lon2             the second location's longitude in radians.
+     * @param equatorialRadius the equatorial radius of the ellipsoid in meters.
+     * @param polarRadius      the polar radius of the ellipsoid in meters.
+     *
+     * @return the azimuth in radians, clockwise from North.
+     */
+    public static double ellipsoidalForwardAzimuth(double lat1, double lon1, double lat2, double lon2,
+        double equatorialRadius, double polarRadius)
+    {
+        // TODO: What if polar radius is larger than equatorial radius?
+        // Calculate flattening
+        final double f = (equatorialRadius - polarRadius) / equatorialRadius; // flattening
+
+        // Calculate reduced latitudes and related sines/cosines
+        final double U1 = Math.atan((1.0 - f) * Math.tan(lat1));
+        final double cU1 = Math.cos(U1);
+        final double sU1 = Math.sin(U1);
+
+        final double U2 = Math.atan((1.0 - f) * Math.tan(lat2));
+        final double cU2 = Math.cos(U2);
+        final double sU2 = Math.sin(U2);
+
+        // Calculate difference in longitude
+        final double L = lon2 - lon1;
+
+        // Vincenty's Formula for Forward Azimuth
+        // iterate until change in lambda is negligible (e.g. 1e-12 ~= 0.06mm)
+        // first approximation
+        double lambda = L;
+        double sLambda = Math.sin(lambda);
+        double cLambda = Math.cos(lambda);
+
+        // dummy value to ensure
+        double lambda_prev = Double.MAX_VALUE;
+        int count = 0;
+        while (Math.abs(lambda - lambda_prev) > 1e-12 && count++ < 100)
+        {
+            // Store old lambda
+            lambda_prev = lambda;
+            // Calculate new lambda
+            double sSigma = Math.sqrt(Math.pow(cU2 * sLambda, 2)
+                + Math.pow(cU1 * sU2 - sU1 * cU2 * cLambda, 2));
+            double cSigma = sU1 * sU2 + cU1 * cU2 * cLambda;
+            double sigma = Math.atan2(sSigma, cSigma);
+            double sAlpha = cU1 * cU2 * sLambda / sSigma;
+            double cAlpha2 = 1 - sAlpha * sAlpha; // trig identity
+            // As cAlpha2 approaches zeros, set cSigmam2 to zero to converge on a solution
+            double cSigmam2;
+            if (Math.abs(cAlpha2) < 1e-6)
+            {
+                cSigmam2 = 0;
+            }
+            else
+            {
+                cSigmam2 = cSigma - 2 * sU1 * sU2 / cAlpha2;
+            }
+            double c = f / 16 * cAlpha2 * (4 + f * (4 - 3 * cAlpha2));
+
+            lambda = L + (1 - c) * f * sAlpha * (sigma + c * sSigma * (cSigmam2 + c * cSigma * (-1 + 2 * cSigmam2)));
+            sLambda = Math.sin(lambda);
+            cLambda = Math.cos(lambda);
+        }
+
+        return Math.atan2(cU2 * sLambda, cU1 * sU2 - sU1 * cU2 * cLambda);
+    }
+
+    /**
+     * Computes the distance between two locations on an ellipsoid iteratively. See {@link
+     * LatLon#ellipsoidalDistance(LatLon, LatLon, double, double)} for the algorithm's origin and limitations.
+     *
+     * @param lat1             the first location's latitude in radians.
+     * @param lon1             the first location's longitude in radians.
+     * @param lat2             the second location's latitude in radians.
+     * @param lon2             the second location's longitude in radians.
+     * @param equatorialRadius the equatorial radius of the ellipsoid in meters.
+     * @param polarRadius      the polar radius of the ellipsoid in meters.
+     *
+     * @return the distance between the locations in meters.
+     */
+    public static double ellipsoidalDistance(double lat1, double lon1, double lat2, double lon2,
+        double equatorialRadius, double polarRadius)
+    {
+        // TODO: I think there is a non-iterative way to calculate the distance. Find it and compare with this one.
+        // TODO: What if polar radius is larger than equatorial radius?
+        final double F = (equatorialRadius - polarRadius) / equatorialRadius; // flattening = 1.0 / 298.257223563;
+        final double R = 1.0 - F;
+        final double EPS = 0.5E-13;
+
+        // Algorithm from National Geodetic Survey, FORTRAN program "inverse,"
+        // subroutine "INVER1," by L. PFEIFER and JOHN G. GERGEN.
+        // http://www.ngs.noaa.gov/TOOLS/Inv_Fwd/Inv_Fwd.html
+        // Conversion to JAVA from FORTRAN was made with as few changes as possible
+        // to avoid errors made while recasting form, and to facilitate any future
+        // comparisons between the original code and the altered version in Java.
+        // Original documentation:
+        // SOLUTION OF THE GEODETIC INVERSE PROBLEM AFTER T.VINCENTY
+        // MODIFIED RAINSFORD'S METHOD WITH HELMERT'S ELLIPTICAL TERMS
+        // EFFECTIVE IN ANY AZIMUTH AND AT ANY DISTANCE SHORT OF ANTIPODAL
+        // STANDPOINT/FOREPOINT MUST NOT BE THE GEOGRAPHIC POLE
+        // A IS THE SEMI-MAJOR AXIS OF THE REFERENCE ELLIPSOID
+        // F IS THE FLATTENING (NOT RECIPROCAL) OF THE REFERNECE ELLIPSOID
+        // LATITUDES GLAT1 AND GLAT2
+        // AND LONGITUDES GLON1 AND GLON2 ARE IN RADIANS POSITIVE NORTH AND EAST
+        // FORWARD AZIMUTHS AT BOTH POINTS RETURNED IN RADIANS FROM NORTH
+        //
+        // Reference ellipsoid is the WGS-84 ellipsoid.
+        // See http://www.colorado.edu/geography/gcraft/notes/datum/elist.html
+        // FAZ is forward azimuth in radians from pt1 to pt2;
+        // BAZ is backward azimuth from point 2 to 1;
+        // S is distance in meters.
+        //
+        // Conversion to JAVA from FORTRAN was made with as few changes as possible
+        // to avoid errors made while recasting form, and to facilitate any future
+        // comparisons between the original code and the altered version in Java.
+        //
+        //IMPLICIT REAL*8 (A-H,O-Z)
+        //  COMMON/CONST/PI,RAD
+
+        double GLAT1 = lat1;
+        double GLAT2 = lat2;
+        double TU1 = R * Math.sin(GLAT1) / Math.cos(GLAT1);
+        double TU2 = R * Math.sin(GLAT2) / Math.cos(GLAT2);
+        double CU1 = 1. / Math.sqrt(TU1 * TU1 + 1.);
+        double SU1 = CU1 * TU1;
+        double CU2 = 1. / Math.sqrt(TU2 * TU2 + 1.);
+        double S = CU1 * CU2;
+        double BAZ = S * TU2;
+        double FAZ = BAZ * TU1;
+        double GLON1 = lon1;
+        double GLON2 = lon2;
+        double X = GLON2 - GLON1;
+        double D, SX, CX, SY, CY, Y, SA, C2A, CZ, E, C;
+        int iterCount = 0;
+        do
+        {
+            SX = Math.sin(X);
+            CX = Math.cos(X);
+            TU1 = CU2 * SX;
+            TU2 = BAZ - SU1 * CU2 * CX;
+            SY = Math.sqrt(TU1 * TU1 + TU2 * TU2);
+            CY = S * CX + FAZ;
+            Y = Math.atan2(SY, CY);
+            SA = S * SX / SY;
+            C2A = -SA * SA + 1.;
+            CZ = FAZ + FAZ;
+            if (C2A > 0.)
+            {
+                CZ = -CZ / C2A + CY;
+            }
+            E = CZ * CZ * 2. - 1.;
+            C = ((-3. * C2A + 4.) * F + 4.) * C2A * F / 16.;
+            D = X;
+            X = ((E * CY * C + CZ) * SY * C + Y) * SA;
+            X = (1. - C) * X * F + GLON2 - GLON1;
+            //IF(DABS(D-X).GT.EPS) GO TO 100
+
+            ++iterCount;
+        }
+        while (Math.abs(D - X) > EPS && iterCount <= 10);
+
+        X = Math.sqrt((1. / R / R - 1.) * C2A + 1.) + 1.;
+        X = (X - 2.) / X;
+        C = 1. - X;
+        C = (X * X / 4. + 1.) / C;
+        D = (0.375 * X * X - 1.) * X;
+        X = E * CY;
+        S = 1. - E - E;
+        S = ((((SY * SY * 4. - 3.) * S * CZ * D / 6. - X) * D / 4. + CZ) * SY
+            * D + Y) * C * equatorialRadius * R;
+
+        return S;
+    }
+
+    /**
+     * Converts packed latitude and longitude pairs from degrees to radians. The source and destination arrays may be
+     * the same array.
+     *
+     * @param degrees   the latitude and longitude pairs in degrees.
+     * @param radians   receives the latitude and longitude pairs in radians.
+     * @param numPoints the number of pairs to convert.
+     *
+     * @throws IllegalArgumentException if either array is null or too short.
+     */
+    public static void toRadians(double[] degrees, double[] radians, int numPoints)
+    {
+        checkPath(degrees, numPoints);
+        checkPath(radians, numPoints);
+
+        for (int i = 0; i < 2 * numPoints; i++)
+        {
+            radians[i] = DEGREES_TO_RADIANS * degrees[i];
+        }
+    }
+
+    /**
+     * Packs locations into an array of latitude and longitude pairs in radians.
+     *
+     * @param locations the locations.
+     *
+     * @return the packed locations.
+     *
+     * @throws IllegalArgumentException if the locations are null.
+     */
+    public static double[] pack(Iterable<? extends LatLon> locations)
+    {
+        if (locations == null)
+        {
+            String message = Logging.getMessage("nullValue.LocationsListIsNull");
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        double[] packed = new double[16];
+        int n = 0;
+        for (LatLon ll : locations)
+        {
+            if (n == packed.length)
+                packed = java.util.Arrays.copyOf(packed, 2 * packed.length);
+
+            packed[n++] = ll.getLatitude().radians;
+            packed[n++] = ll.getLongitude().radians;
+        }
+
+        return java.util.Arrays.copyOf(packed, n);
+    }
+
+    /**
+     * Computes the length of a packed path, and optionally the length of the path up to each location.
+     *
+     * @param pathType   the path type.
+     * @param path       the path's latitude and longitude pairs in radians.
+     * @param numPoints  the number of locations in the path.
+     * @param cumulative receives the length of the path from its first location to each location, in radians. May be
+     *                   null.
+     *
+     * @return the path's angular length, in radians.
+     *
+     * @throws IllegalArgumentException if the path is null or too short, or if <code>cumulative</code> is too short.
+     */
+    public static double pathLength(String pathType, double[] path, int numPoints, double[] cumulative)
+    {
+        checkPath(path, numPoints);
+        checkCumulative(cumulative, numPoints);
+
+        boolean greatCircle = AVKey.GREAT_CIRCLE.equals(pathType);
+        boolean rhumb = AVKey.RHUMB_LINE.equals(pathType) || AVKey.LOXODROME.equals(pathType);
+
+        double length = 0;
+        if (cumulative != null && numPoints > 0)
+            cumulative[0] = 0;
+
+        for (int i = 1; i < numPoints; i++)
+        {
+            double lat1 = path[2 * i - 2], lon1 = path[2 * i - 1];
+            double lat2 = path[2 * i], lon2 = path[2 * i + 1];
+
+            if (greatCircle)
+                length += greatCircleDistance(lat1, lon1, lat2, lon2);
+            else if (rhumb)
+                length += rhumbDistance(lat1, lon1, lat2, lon2);
+            else
+                length += linearDistance(lat1, lon1, lat2, lon2);
+
+            if (cumulative != null)
+                cumulative[i] = length;
+        }
+
+        return length;
+    }
+
+    /**
+     * Computes the length of a packed path on an ellipsoid, following the ellipsoid's geodesics between locations, and
+     * optionally the length of the path up to each location.
+     *
+     * @param path             the path's latitude and longitude pairs in radians.
+     * @param numPoints        the number of locations in the path.
+     * @param equatorialRadius the equatorial radius of the ellipsoid in meters.
+     * @param polarRadius      the polar radius of the ellipsoid in meters.
+     * @param cumulative       receives the length of the path from its first location to each location, in meters.
+     *                         May be null.
+     *
+     * @return the path's length in meters.
+     *
+     * @throws IllegalArgumentException if the path is null or too short, or if <code>cumulative</code> is too short.
+     */
+    public static double ellipsoidalPathLength(double[] path, int numPoints, double equatorialRadius,
+        double polarRadius, double[] cumulative)
+    {
+        checkPath(path, numPoints);
+        checkCumulative(cumulative, numPoints);
+
+        double length = 0;
+        if (cumulative != null && numPoints > 0)
+            cumulative[0] = 0;
+
+        for (int i = 1; i < numPoints; i++)
+        {
+            double lat1 = path[2 * i - 2], lon1 = path[2 * i - 1];
+            double lat2 = path[2 * i], lon2 = path[2 * i + 1];
+            if (lat1 != lat2 || lon1 != lon2)
+                length += ellipsoidalDistance(lat1, lon1, lat2, lon2, equatorialRadius, polarRadius);
+
+            if (cumulative != null)
+                cumulative[i] = length;
+        }
+
+        return length;
+    }
+
+    /**
+     * Inserts locations into a packed path so that no segment is longer than an interval. Each segment longer than the
+     * interval is divided into the smallest number of equal parts no longer than the interval, with the new locations
+     * following the path type between the segment's end points. The path's locations are kept.
+     *
+     * @param pathType  the path type.
+     * @param path      the path's latitude and longitude pairs in radians.
+     * @param numPoints the number of locations in the path.
+     * @param interval  the longest segment, as an angular distance in radians.
+     *
+     * @return the densified path as latitude and longitude pairs in radians. Its length is twice its number of
+     * locations.
+     *
+     * @throws IllegalArgumentException if the path is null or too short, or if the interval is not positive.
+     */
+    public static double[] densify(String pathType, double[] path, int numPoints, double interval)
+    {
+        checkPath(path, numPoints);
+
+        if (!(interval > 0))
+        {
+            String message = Logging.getMessage("generic.ArgumentOutOfRange", interval);
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        // Measure each segment first so that the result is allocated once.
+        double[] distances = new double[numPoints];
+        int total = numPoints;
+        for (int i = 1; i < numPoints; i++)
+        {
+            distances[i] = pathDistance(pathType, path[2 * i - 2], path[2 * i - 1], path[2 * i], path[2 * i + 1]);
+            total += numParts(distances[i], interval) - 1;
+        }
+
+        double[] result = new double[2 * total];
+        int n = 0;
+        for (int i = 0; i < numPoints; i++)
+        {
+            double lat2 = path[2 * i], lon2 = path[2 * i + 1];
+
+            if (i > 0)
+            {
+                double lat1 = path[2 * i - 2], lon1 = path[2 * i - 1];
+                double distance = distances[i];
+                int parts = numParts(distance, interval);
+                if (parts > 1)
+                {
+                    double azimuth = pathAzimuth(pathType, lat1, lon1, lat2, lon2);
+                    for (int j = 1; j < parts; j++)
+                    {
+                        pathEndPosition(pathType, lat1, lon1, azimuth, distance * j / parts, result, n);
+                        n += 2;
+                    }
+                }
+            }
+
+            result[n++] = lat2;
+            result[n++] = lon2;
+        }
+
+        return result;
+    }
+
+    /**
+     * Finds the location on a packed path that is nearest a specified location. Great circle segments are searched
+     * exactly. Rhumb line and linear segments are searched in the plane in which they are straight lines, the Mercator
+     * and equirectangular projections, scaled to be locally undistorted at the specified location. This is exact for
+     * short segments and a close approximation for long ones.
+     *
+     * @param pathType  the path type.
+     * @param path      the path's latitude and longitude pairs in radians.
+     * @param numPoints the number of locations in the path. Must be at least one.
+     * @param latitude  the location's latitude in radians.
+     * @param longitude the location's longitude in radians.
+     * @param result    receives the nearest location's latitude and longitude in radians, its great circle distance
+     *                  from the specified location in radians, and its fraction of the distance along its segment.
+     *                  Must have at least four elements.
+     *
+     * @return the index of the location that begins the segment containing the nearest location.
+     *
+     * @throws IllegalArgumentException if the path is null, too short or empty, or if the result is null or has fewer
+     *                                  than four elements.
+     */
+    public static int nearestPointOnPath(String pathType, double[] path, int numPoints, double latitude,
+        double longitude, double[] result)
+    {
+        checkPath(path, numPoints);
+
+        if (numPoints < 1)
+        {
+            String message = Logging.getMessage("generic.ArgumentOutOfRange", numPoints);
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        if (result == null || result.length < 4)
+        {
+            String message = Logging.getMessage("generic.ArrayInvalidLength", result != null ? result.length : 0);
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        boolean greatCircle = AVKey.GREAT_CIRCLE.equals(pathType);
+        boolean rhumb = AVKey.RHUMB_LINE.equals(pathType) || AVKey.LOXODROME.equals(pathType);
+
+        // The nearest location so far. A single location path is its own nearest location.
+        int nearest = 0;
+        double nearestLat = path[0], nearestLon = path[1], nearestT = 0;
+        double nearestDistance = greatCircleDistance(latitude, longitude, nearestLat, nearestLon);
+
+        double cosLatitude = Math.cos(latitude);
+        double mercatorLatitude = mercatorY(latitude);
+        double[] candidate = new double[3];
+
+        for (int i = 0; i < numPoints - 1; i++)
+        {
+            double lat1 = path[2 * i], lon1 = path[2 * i + 1];
+            double lat2 = path[2 * i + 2], lon2 = path[2 * i + 3];
+
+            if (greatCircle)
+                nearestOnGreatCircleSegment(lat1, lon1, lat2, lon2, latitude, longitude, candidate);
+            else if (rhumb)
+                nearestOnRhumbSegment(lat1, lon1, lat2, lon2, latitude, longitude, mercatorLatitude, candidate);
+            else
+                nearestOnLinearSegment(lat1, lon1, lat2, lon2, latitude, longitude, cosLatitude, candidate);
+
+            double distance = greatCircleDistance(latitude, longitude, candidate[0], candidate[1]);
+            if (distance < nearestDistance)
+            {
+                nearest = i;
+                nearestLat = candidate[0];
+                nearestLon = candidate[1];
+                nearestT = candidate[2];
+                nearestDistance = distance;
+            }
+        }
+
+        result[0] = nearestLat;
+        result[1] = nearestLon;
+        result[2] = nearestDistance;
+        result[3] = nearestT;
+
+        return nearest;
+    }
+
+    protected static void nearestOnGreatCircleSegment(double lat1, double lon1, double lat2, double lon2,
+        double lat, double lon, double[] result)
+    {
+        // Work with unit vectors. The nearest location on the segment's great circle is the specified location
+        // projected onto the circle's plane.
+        double c1 = Math.cos(lat1), ax = c1 * Math.cos(lon1), ay = c1 * Math.sin(lon1), az = Math.sin(lat1);
+        double c2 = Math.cos(lat2), bx = c2 * Math.cos(lon2), by = c2 * Math.sin(lon2), bz = Math.sin(lat2);
+        double c = Math.cos(lat), px = c * Math.cos(lon), py = c * Math.sin(lon), pz = Math.sin(lat);
+
+        // The circle's normal.
+        double nx = ay * bz - az * by, ny = az * bx - ax * bz, nz = ax * by - ay * bx;
+        double nLength = Math.sqrt(nx * nx + ny * ny + nz * nz);
+
+        double dot = px * nx + py * ny + pz * nz;
+        double qx = px * nLength * nLength - dot * nx;
+        double qy = py * nLength * nLength - dot * ny;
+        double qz = pz * nLength * nLength - dot * nz;
+        double qLength = Math.sqrt(qx * qx + qy * qy + qz * qz);
+
+        if (nLength > 1e-12 && qLength > 1e-12)
+        {
+            // The projected location is on the segment if it is between the end points, as seen along the normal.
+            double s = (ay * qz - az * qy) * nx + (az * qx - ax * qz) * ny + (ax * qy - ay * qx) * nz;
+            double t = (qy * bz - qz * by) * nx + (qz * bx - qx * bz) * ny + (qx * by - qy * bx) * nz;
+            if (s >= 0 && t >= 0)
+            {
+                double qLat = Math.asin(Math.max(-1, Math.min(1, qz / qLength)));
+                double qLon = Math.atan2(qy, qx);
+                double segment = greatCircleDistance(lat1, lon1, lat2, lon2);
+                result[0] = qLat;
+                result[1] = qLon;
+                result[2] = segment > 0 ? Math.min(1, greatCircleDistance(lat1, lon1, qLat, qLon) / segment) : 0;
+                return;
+            }
+        }
+
+        // Otherwise the nearest location is the nearer end point.
+        nearerEndPoint(lat1, lon1, lat2, lon2, lat, lon, result);
+    }
+
+    protected static void nearestOnRhumbSegment(double lat1, double lon1, double lat2, double lon2,
+        double lat, double lon, double mercatorLatitude, double[] result)
+    {
+        // A rhumb line is straight in the Mercator projection, which is conformal, so the nearest location is found
+        // by projecting onto the straight segment.
+        double y1 = mercatorY(lat1);
+        double dx = wrapLongitudeDelta(lon2 - lon1);
+        double dy = mercatorY(lat2) - y1;
+        double px = wrapLongitudeDelta(lon - lon1);
+        double py = mercatorLatitude - y1;
+
+        double t = projectOntoSegment(px, py, dx, dy);
+        double y = y1 + t * dy;
+        result[0] = t == 0 ? lat1 : t == 1 ? lat2 : 2 * Math.atan(Math.exp(y)) - Math.PI / 2;
+        result[1] = t == 0 ? lon1 : t == 1 ? lon2 : normalizedLongitude(lon1 + t * dx);
+        result[2] = t;
+    }
+
+    protected static void nearestOnLinearSegment(double lat1, double lon1, double lat2, double lon2,
+        double lat, double lon, double cosLatitude, double[] result)
+    {
+        // A linear segment is straight in the equirectangular projection. Scale longitudes to the specified location's
+        // latitude so that the projection is locally undistorted there.
+        double dx = wrapLongitudeDelta(lon2 - lon1) * cosLatitude;
+        double dy = lat2 - lat1;
+        double px = wrapLongitudeDelta(lon - lon1) * cosLatitude;
+        double py = lat - lat1;
+
+        double t = projectOntoSegment(px, py, dx, dy);
+        result[0] = t == 0 ? lat1 : t == 1 ? lat2 : lat1 + t * dy;
+        result[1] = t == 0 ? lon1 : t == 1 ? lon2 : normalizedLongitude(lon1 + t * wrapLongitudeDelta(lon2 - lon1));
+        result[2] = t;
+    }
+
+    protected static void nearerEndPoint(double lat1, double lon1, double lat2, double lon2, double lat, double lon,
+        double[] result)
+    {
+        boolean first = greatCircleDistance(lat, lon, lat1, lon1) <= greatCircleDistance(lat, lon, lat2, lon2);
+        result[0] = first ? lat1 : lat2;
+        result[1] = first ? lon1 : lon2;
+        result[2] = first ? 0 : 1;
+    }
+
+    /** Returns the parameter of the point on the segment from the origin to (dx, dy) that is nearest (px, py). */
+    protected static double projectOntoSegment(double px, double py, double dx, double dy)
+    {
+        double lengthSquared = dx * dx + dy * dy;
+        if (lengthSquared == 0)
+            return 0;
+
+        double t = (px * dx + py * dy) / lengthSquared;
+        return t < 0 ? 0 : t > 1 ? 1 : t;
+    }
+
+    protected static double mercatorY(double latitude)
+    {
+        double lat = Math.max(-MAX_MERCATOR_LATITUDE, Math.min(MAX_MERCATOR_LATITUDE, latitude));
+        return Math.log(Math.tan(Math.PI / 4 + lat / 2));
+    }
+
+    /** Returns a longitude difference in the range [-pi, pi], taking the shorter way around the globe. */
+    protected static double wrapLongitudeDelta(double dLon)
+    {
+        if (Math.abs(dLon) > Math.PI)
+            dLon = dLon > 0 ? -(2 * Math.PI - dLon) : (2 * Math.PI + dLon);
+
+        return dLon;
+    }
+
+    /**
+     * Normalizes a latitude in radians to the range [-pi/2, pi/2], reflecting latitudes that pass over a pole. The
+     * result matches that of {@link Angle#normalizedLatitude()}.
+     *
+     * @param latitude the latitude in radians.
+     *
+     * @return the normalized latitude.
+     */
+    public static double normalizedLatitude(double latitude)
+    {
+        return DEGREES_TO_RADIANS * Angle.normalizedDegreesLatitude(RADIANS_TO_DEGREES * latitude);
+    }
+
+    /**
+     * Normalizes a longitude in radians to the range [-pi, pi]. The result matches that of {@link
+     * Angle#normalizedLongitude()}.
+     *
+     * @param longitude the longitude in radians.
+     *
+     * @return the normalized longitude.
+     */
+    public static double normalizedLongitude(double longitude)
+    {
+        return DEGREES_TO_RADIANS * Angle.normalizedDegreesLongitude(RADIANS_TO_DEGREES * longitude);
+    }
+
+    protected static int numParts(double distance, double interval)
+    {
+        return distance > interval ? (int) Math.ceil(distance / interval) : 1;
+    }
+
+    protected static void setLocation(double lat, double lon, double[] result, int offset)
+    {
+        result[offset] = lat;
+        result[offset + 1] = lon;
+    }
+
+    protected static void checkPath(double[] path, int numPoints)
+    {
+        if (path == null)
+        {
+            String message = Logging.getMessage("nullValue.ArrayIsNull");
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        if (numPoints < 0 || path.length < 2 * numPoints)
+        {
+            String message = Logging.getMessage("generic.ArrayInvalidLength", path.length);
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+    }
+
+    protected static void checkCumulative(double[] cumulative, int numPoints)
+    {
+        if (cumulative != null && cumulative.length < numPoints)
+        {
+            String message = Logging.getMessage("generic.ArrayInvalidLength", cumulative.length);
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+    }
+}
@@ -257,12 +257,20 @@ public class LatLon
         if (LatLon.equals(value1, value2))
             return value1;
 
+        double lat1 = value1.getLatitude().radians;
+        double lon1 = value1.getLongitude().radians;
+        double lat2 = value2.getLatitude().radians;
+        double lon2 = value2.getLongitude().radians;
+
         double t = WWMath.clamp(amount, 0d, 1d);
-        Angle azimuth = LatLon.greatCircleAzimuth(value1, value2);
-        Angle distance = LatLon.greatCircleDistance(value1, value2);
-        Angle pathLength = Angle.fromDegrees(t * distance.degrees);
+        double azimuth = Geodesy.greatCircleAzimuth(lat1, lon1, lat2, lon2);
+        double distance = Geodesy.greatCircleDistance(lat1, lon1, lat2, lon2);
+
+        double[] location = new double[2];
+        if (!Geodesy.greatCircleEndPosition(lat1, lon1, azimuth, t * distance, location, 0))
+            return value1;
 
-        return LatLon.greatCircleEndPosition(value1, azimuth, pathLength);
+        return LatLon.fromRadians(location[0], location[1]);
     }
 
     /**
@@ -293,12 +301,20 @@ public class LatLon
         if (LatLon.equals(value1, value2))
             return value1;
 
+        double lat1 = value1.getLatitude().radians;
+        double lon1 = value1.getLongitude().radians;
+        double lat2 = value2.getLatitude().radians;
+        double lon2 = value2.getLongitude().radians;
+
         double t = WWMath.clamp(amount, 0d, 1d);
-        Angle azimuth = LatLon.rhumbAzimuth(value1, value2);
-        Angle distance = LatLon.rhumbDistance(value1, value2);
-        Angle pathLength = Angle.fromDegrees(t * distance.degrees);
+        double azimuth = Geodesy.rhumbAzimuth(lat1, lon1, lat2, lon2);
+        double distance = Geodesy.rhumbDistance(lat1, lon1, lat2, lon2);
+
+        double[] location = new double[2];
+        if (!Geodesy.rhumbEndPosition(lat1, lon1, azimuth, t * distance, location, 0))
+            return value1;
 
-        return LatLon.rhumbEndPosition(value1, azimuth, pathLength);
+        return LatLon.fromRadians(location[0], location[1]);
     }
 
     /**
@@ -378,13 +394,7 @@ public class LatLon
         if (lat1 == lat2 && lon1 == lon2)
             return Angle.ZERO;
 
-        // "Haversine formula," taken from http://en.wikipedia.org/wiki/Great-circle_distance#Formul.C3.A6
-        double a = Math.sin((lat2 - lat1) / 2.0);
-        double b = Math.sin((lon2 - lon1) / 2.0);
-        double c = a * a + +Math.cos(lat1) * Math.cos(lat2) * b * b;
-        double distanceRadians = 2.0 * Math.asin(Math.sqrt(c));
-
-        return Double.isNaN(distanceRadians) ? Angle.ZERO : Angle.fromRadians(distanceRadians);
+        return Angle.fromRadians(Geodesy.greatCircleDistance(lat1, lon1, lat2, lon2));
     }
 
     /**
@@ -418,13 +428,7 @@ public class LatLon
         if (lon1 == lon2)
             return lat1 > lat2 ? Angle.POS180 : Angle.ZERO;
 
-        // Taken from "Map Projections - A Working Manual", page 30, equation 5-4b.
-        // The atan2() function is used in place of the traditional atan(y/x) to simplify the case when x==0.
-        double y = Math.cos(lat2) * Math.sin(lon2 - lon1);
-        double x = Math.cos(lat1) * Math.sin(lat2) - Math.sin(lat1) * Math.cos(lat2) * Math.cos(lon2 - lon1);
-        double azimuthRadians = Math.atan2(y, x);
-
-        return Double.isNaN(azimuthRadians) ? Angle.ZERO : Angle.fromRadians(azimuthRadians);
+        return Angle.fromRadians(Geodesy.greatCircleAzimuth(lat1, lon1, lat2, lon2));
     }
 
     /**
@@ -452,27 +456,18 @@ public class LatLon
             throw new IllegalArgumentException(message);
         }
 
-        double lat = p.getLatitude().radians;
-        double lon = p.getLongitude().radians;
         double azimuth = greatCircleAzimuth.radians;
         double distance = pathLength.radians;
 
         if (distance == 0)
             return p;
 
-        // Taken from "Map Projections - A Working Manual", page 31, equation 5-5 and 5-6.
-        double endLatRadians = Math.asin(Math.sin(lat) * Math.cos(distance)
-            + Math.cos(lat) * Math.sin(distance) * Math.cos(azimuth));
-        double endLonRadians = lon + Math.atan2(
-            Math.sin(distance) * Math.sin(azimuth),
-            Math.cos(lat) * Math.cos(distance) - Math.sin(lat) * Math.sin(distance) * Math.cos(azimuth));
-
-        if (Double.isNaN(endLatRadians) || Double.isNaN(endLonRadians))
+        double[] location = new double[2];
+        if (!Geodesy.greatCircleEndPosition(p.getLatitude().radians, p.getLongitude().radians, azimuth, distance,
+            location, 0))
             return p;
 
-        return new LatLon(
-            Angle.fromRadians(endLatRadians).normalizedLatitude(),
-            Angle.fromRadians(endLonRadians).normalizedLongitude());
+        return LatLon.fromRadians(location[0], location[1]);
     }
 
     /**
@@ -494,8 +489,15 @@ public class LatLon
             throw new IllegalArgumentException(message);
         }
 
-        return greatCircleEndPosition(p,
-            Angle.fromRadians(greatCircleAzimuthRadians), Angle.fromRadians(pathLengthRadians));
+        if (pathLengthRadians == 0)
+            return p;
+
+        double[] location = new double[2];
+        if (!Geodesy.greatCircleEndPosition(p.getLatitude().radians, p.getLongitude().radians,
+            greatCircleAzimuthRadians, pathLengthRadians, location, 0))
+            return p;
+
+        return LatLon.fromRadians(location[0], location[1]);
     }
 
     /**
@@ -722,30 +724,7 @@ public class LatLon
         if (lat1 == lat2 && lon1 == lon2)
             return Angle.ZERO;
 
-        // Taken from http://www.movable-type.co.uk/scripts/latlong.html
-        double dLat = lat2 - lat1;
-        double dLon = lon2 - lon1;
-
-        double q;
-        if (Math.abs(dLat) < NEAR_ZERO_THRESHOLD)
-        {
-            q = Math.cos(lat1);
-        }
-        else
-        {
-            double dPhi = Math.log(Math.tan(lat2 / 2.0 + Math.PI / 4.0) / Math.tan(lat1 / 2.0 + Math.PI / 4.0));
-            q = dLat / dPhi;
-        }
-
-        // If lonChange over 180 take shorter rhumb across 180 meridian.
-        if (Math.abs(dLon) > Math.PI)
-        {
-            dLon = dLon > 0 ? -(2 * Math.PI - dLon) : (2 * Math.PI + dLon);
-        }
-
-        double distanceRadians = Math.sqrt(dLat * dLat + q * q * dLon * dLon);
-
-        return Double.isNaN(distanceRadians) ? Angle.ZERO : Angle.fromRadians(distanceRadians);
+        return Angle.fromRadians(Geodesy.rhumbDistance(lat1, lon1, lat2, lon2));
     }
 
     /**
@@ -775,17 +754,7 @@ public class LatLon
         if (lat1 == lat2 && lon1 == lon2)
             return Angle.ZERO;
 
-        // Taken from http://www.movable-type.co.uk/scripts/latlong.html
-        double dLon = lon2 - lon1;
-        double dPhi = Math.log(Math.tan(lat2 / 2.0 + Math.PI / 4.0) / Math.tan(lat1 / 2.0 + Math.PI / 4.0));
-        // If lonChange over 180 take shorter rhumb across 180 meridian.
-        if (Math.abs(dLon) > Math.PI)
-        {
-            dLon = dLon > 0 ? -(2 * Math.PI - dLon) : (2 * Math.PI + dLon);
-        }
-        double azimuthRadians = Math.atan2(dLon, dPhi);
-
-        return Double.isNaN(azimuthRadians) ? Angle.ZERO : Angle.fromRadians(azimuthRadians);
+        return Angle.fromRadians(Geodesy.rhumbAzimuth(lat1, lon1, lat2, lon2));
     }
 
     /**
@@ -814,42 +783,18 @@ public class LatLon
             throw new IllegalArgumentException(message);
         }
 
-        double lat1 = p.getLatitude().radians;
-        double lon1 = p.getLongitude().radians;
         double azimuth = rhumbAzimuth.radians;
         double distance = pathLength.radians;
 
         if (distance == 0)
             return p;
 
-        // Taken from http://www.movable-type.co.uk/scripts/latlong.html
-        double dLat = distance * Math.cos(azimuth);
-        double lat2 = lat1 + dLat;
-        double q;
-        if (Math.abs(dLat) < NEAR_ZERO_THRESHOLD)
-        {
-            q = Math.cos(lat1);
-        }
-        else
-        {
-            double dPhi = Math.log(Math.tan(lat2 / 2.0 + Math.PI / 4.0) / Math.tan(lat1 / 2.0 + Math.PI / 4.0));
-            q = (lat2 - lat1) / dPhi;
-        }
-
-        double dLon = distance * Math.sin(azimuth) / q;
-        // Handle latitude passing over either pole.
-        if (Math.abs(lat2) > Math.PI / 2.0)
-        {
-            lat2 = lat2 > 0 ? Math.PI - lat2 : -Math.PI - lat2;
-        }
-        double lon2 = (lon1 + dLon + Math.PI) % (2 * Math.PI) - Math.PI;
-
-        if (Double.isNaN(lat2) || Double.isNaN(lon2))
+        double[] location = new double[2];
+        if (!Geodesy.rhumbEndPosition(p.getLatitude().radians, p.getLongitude().radians, azimuth, distance,
+            location, 0))
             return p;
 
-        return new LatLon(
-            Angle.fromRadians(lat2).normalizedLatitude(),
-            Angle.fromRadians(lon2).normalizedLongitude());
+        return LatLon.fromRadians(location[0], location[1]);
     }
 
     /**
@@ -872,7 +817,15 @@ public class LatLon
             throw new IllegalArgumentException(message);
         }
 
-        return rhumbEndPosition(p, Angle.fromRadians(rhumbAzimuthRadians), Angle.fromRadians(pathLengthRadians));
+        if (pathLengthRadians == 0)
+            return p;
+
+        double[] location = new double[2];
+        if (!Geodesy.rhumbEndPosition(p.getLatitude().radians, p.getLongitude().radians,
+            rhumbAzimuthRadians, pathLengthRadians, location, 0))
+            return p;
+
+        return LatLon.fromRadians(location[0], location[1]);
     }
 
     /**
@@ -904,18 +857,7 @@ public class LatLon
         if (lat1 == lat2 && lon1 == lon2)
             return Angle.ZERO;
 
-        double dLat = lat2 - lat1;
-        double dLon = lon2 - lon1;
-
-        // If lonChange over 180 take shorter path across 180 meridian.
-        if (Math.abs(dLon) > Math.PI)
-        {
-            dLon = dLon > 0 ? -(2 * Math.PI - dLon) : (2 * Math.PI + dLon);
-        }
-
-        double distanceRadians = Math.hypot(dLat, dLon);
-
-        return Double.isNaN(distanceRadians) ? Angle.ZERO : Angle.fromRadians(distanceRadians);
+        return Angle.fromRadians(Geodesy.linearDistance(lat1, lon1, lat2, lon2));
     }
 
     /**
@@ -943,17 +885,7 @@ public class LatLon
         if (lat1 == lat2 && lon1 == lon2)
             return Angle.ZERO;
 
-        double dLon = lon2 - lon1;
-        double dLat = lat2 - lat1;
-
-        // If lonChange over 180 take shorter rhumb across 180 meridian.
-        if (Math.abs(dLon) > Math.PI)
-        {
-            dLon = dLon > 0 ? -(2 * Math.PI - dLon) : (2 * Math.PI + dLon);
-        }
-        double azimuthRadians = Math.atan2(dLon, dLat);
-
-        return Double.isNaN(azimuthRadians) ? Angle.ZERO : Angle.fromRadians(azimuthRadians);
+        return Angle.fromRadians(Geodesy.linearAzimuth(lat1, lon1, lat2, lon2));
     }
 
     /**
@@ -982,29 +914,18 @@ public class LatLon
             throw new IllegalArgumentException(message);
         }
 
-        double lat1 = p.getLatitude().radians;
-        double lon1 = p.getLongitude().radians;
         double azimuth = linearAzimuth.radians;
         double distance = pathLength.radians;
 
         if (distance == 0)
             return p;
 
-        double lat2 = lat1 + distance * Math.cos(azimuth);
-
-        // Handle latitude passing over either pole.
-        if (Math.abs(lat2) > Math.PI / 2.0)
-        {
-            lat2 = lat2 > 0 ? Math.PI - lat2 : -Math.PI - lat2;
-        }
-        double lon2 = (lon1 + distance * Math.sin(azimuth) + Math.PI) % (2 * Math.PI) - Math.PI;
-
-        if (Double.isNaN(lat2) || Double.isNaN(lon2))
+        double[] location = new double[2];
+        if (!Geodesy.linearEndPosition(p.getLatitude().radians, p.getLongitude().radians, azimuth, distance,
+            location, 0))
             return p;
 
-        return new LatLon(
-            Angle.fromRadians(lat2).normalizedLatitude(),
-            Angle.fromRadians(lon2).normalizedLongitude());
+        return LatLon.fromRadians(location[0], location[1]);
     }
 
     /**
@@ -1720,61 +1641,9 @@ public class LatLon
             throw new IllegalArgumentException(message);
         }
 
-        // TODO: What if polar radius is larger than equatorial radius?
-        // Calculate flattening
-        final double f = (equatorialRadius - polarRadius) / equatorialRadius; // flattening
-
-        // Calculate reduced latitudes and related sines/cosines
-        final double U1 = Math.atan((1.0 - f) * Math.tan(p1.latitude.radians));
-        final double cU1 = Math.cos(U1);
-        final double sU1 = Math.sin(U1);
-
-        final double U2 = Math.atan((1.0 - f) * Math.tan(p2.latitude.radians));
-        final double cU2 = Math.cos(U2);
-        final double sU2 = Math.sin(U2);
-
-        // Calculate difference in longitude
-        final double L = p2.longitude.subtract(p1.longitude).radians;
-
-        // Vincenty's Formula for Forward Azimuth
-        // iterate until change in lambda is negligible (e.g. 1e-12 ~= 0.06mm)
-        // first approximation
-        double lambda = L;
-        double sLambda = Math.sin(lambda);
-        double cLambda = Math.cos(lambda);
-
-        // dummy value to ensure
-        double lambda_prev = Double.MAX_VALUE;
-        int count = 0;
-        while (Math.abs(lambda - lambda_prev) > 1e-12 && count++ < 100)
-        {
-            // Store old lambda
-            lambda_prev = lambda;
-            // Calculate new lambda
-            double sSigma = Math.sqrt(Math.pow(cU2 * sLambda, 2)
-                + Math.pow(cU1 * sU2 - sU1 * cU2 * cLambda, 2));
-            double cSigma = sU1 * sU2 + cU1 * cU2 * cLambda;
-            double sigma = Math.atan2(sSigma, cSigma);
-            double sAlpha = cU1 * cU2 * sLambda / sSigma;
-            double cAlpha2 = 1 - sAlpha * sAlpha; // trig identity
-            // As cAlpha2 approaches zeros, set cSigmam2 to zero to converge on a solution
-            double cSigmam2;
-            if (Math.abs(cAlpha2) < 1e-6)
-            {
-                cSigmam2 = 0;
-            }
-            else
-            {
-                cSigmam2 = cSigma - 2 * sU1 * sU2 / cAlpha2;
-            }
-            double c = f / 16 * cAlpha2 * (4 + f * (4 - 3 * cAlpha2));
-
-            lambda = L + (1 - c) * f * sAlpha * (sigma + c * sSigma * (cSigmam2 + c * cSigma * (-1 + 2 * cSigmam2)));
-            sLambda = Math.sin(lambda);
-            cLambda = Math.cos(lambda);
-        }
-
-        return Angle.fromRadians(Math.atan2(cU2 * sLambda, cU1 * sU2 - sU1 * cU2 * cLambda));
+        return Angle.fromRadians(Geodesy.ellipsoidalForwardAzimuth(p1.getLatitude().radians,
+            p1.getLongitude().radians, p2.getLatitude().radians, p2.getLongitude().radians, equatorialRadius,
+            polarRadius));
     }
 
     // TODO: Need method to compute end position from initial position, azimuth and distance. The companion to the
@@ -1806,12 +1675,6 @@ public class LatLon
      */
     public static double ellipsoidalDistance(LatLon p1, LatLon p2, double equatorialRadius, double polarRadius)
     {
-        // TODO: I think there is a non-iterative way to calculate the distance. Find it and compare with this one.
-        // TODO: What if polar radius is larger than equatorial radius?
-        final double F = (equatorialRadius - polarRadius) / equatorialRadius; // flattening = 1.0 / 298.257223563;
-        final double R = 1.0 - F;
-        final double EPS = 0.5E-13;
-
         if (p1 == null || p2 == null)
         {
             String message = Logging.getMessage("nullValue.PositionIsNull");
@@ -1819,91 +1682,8 @@ public class LatLon
             throw new IllegalArgumentException(message);
         }
 
-        // Algorithm from National Geodetic Survey, FORTRAN program "inverse,"
-        // subroutine "INVER1," by L. PFEIFER and JOHN G. GERGEN.
-        // http://www.ngs.noaa.gov/TOOLS/Inv_Fwd/Inv_Fwd.html
-        // Conversion to JAVA from FORTRAN was made with as few changes as possible
-        // to avoid errors made while recasting form, and to facilitate any future
-        // comparisons between the original code and the altered version in Java.
-        // Original documentation:
-        // SOLUTION OF THE GEODETIC INVERSE PROBLEM AFTER T.VINCENTY
-        // MODIFIED RAINSFORD'S METHOD WITH HELMERT'S ELLIPTICAL TERMS
-        // EFFECTIVE IN ANY AZIMUTH AND AT ANY DISTANCE SHORT OF ANTIPODAL
-        // STANDPOINT/FOREPOINT MUST NOT BE THE GEOGRAPHIC POLE
-        // A IS THE SEMI-MAJOR AXIS OF THE REFERENCE ELLIPSOID
-        // F IS THE FLATTENING (NOT RECIPROCAL) OF THE REFERNECE ELLIPSOID
-        // LATITUDES GLAT1 AND GLAT2
-        // AND LONGITUDES GLON1 AND GLON2 ARE IN RADIANS POSITIVE NORTH AND EAST
-        // FORWARD AZIMUTHS AT BOTH POINTS RETURNED IN RADIANS FROM NORTH
-        //
-        // Reference ellipsoid is the WGS-84 ellipsoid.
-        // See http://www.colorado.edu/geography/gcraft/notes/datum/elist.html
-        // FAZ is forward azimuth in radians from pt1 to pt2;
-        // BAZ is backward azimuth from point 2 to 1;
-        // S is distance in meters.
-        //
-        // Conversion to JAVA from FORTRAN was made with as few changes as possible
-        // to avoid errors made while recasting form, and to facilitate any future
-        // comparisons between the original code and the altered version in Java.
-        //
-        //IMPLICIT REAL*8 (A-H,O-Z)
-        //  COMMON/CONST/PI,RAD
-
-        double GLAT1 = p1.getLatitude().radians;
-        double GLAT2 = p2.getLatitude().radians;
-        double TU1 = R * Math.sin(GLAT1) / Math.cos(GLAT1);
-        double TU2 = R * Math.sin(GLAT2) / Math.cos(GLAT2);
-        double CU1 = 1. / Math.sqrt(TU1 * TU1 + 1.);
-        double SU1 = CU1 * TU1;
-        double CU2 = 1. / Math.sqrt(TU2 * TU2 + 1.);
-        double S = CU1 * CU2;
-        double BAZ = S * TU2;
-        double FAZ = BAZ * TU1;
-        double GLON1 = p1.getLongitude().radians;
-        double GLON2 = p2.getLongitude().radians;
-        double X = GLON2 - GLON1;
-        double D, SX, CX, SY, CY, Y, SA, C2A, CZ, E, C;
-        int iterCount = 0;
-        do
-        {
-            SX = Math.sin(X);
-            CX = Math.cos(X);
-            TU1 = CU2 * SX;
-            TU2 = BAZ - SU1 * CU2 * CX;
-            SY = Math.sqrt(TU1 * TU1 + TU2 * TU2);
-            CY = S * CX + FAZ;
-            Y = Math.atan2(SY, CY);
-            SA = S * SX / SY;
-            C2A = -SA * SA + 1.;
-            CZ = FAZ + FAZ;
-            if (C2A > 0.)
-            {
-                CZ = -CZ / C2A + CY;
-            }
-            E = CZ * CZ * 2. - 1.;
-            C = ((-3. * C2A + 4.) * F + 4.) * C2A * F / 16.;
-            D = X;
-            X = ((E * CY * C + CZ) * SY * C + Y) * SA;
-            X = (1. - C) * X * F + GLON2 - GLON1;
-            //IF(DABS(D-X).GT.EPS) GO TO 100
-
-            ++iterCount;
-        }
-        while (Math.abs(D - X) > EPS && iterCount <= 10);
-
-        //FAZ = Math.atan2(TU1, TU2);
-        //BAZ = Math.atan2(CU1 * SX, BAZ * CX - SU1 * CU2) + Math.PI;
-        X = Math.sqrt((1. / R / R - 1.) * C2A + 1.) + 1.;
-        X = (X - 2.) / X;
-        C = 1. - X;
-        C = (X * X / 4. + 1.) / C;
-        D = (0.375 * X * X - 1.) * X;
-        X = E * CY;
-        S = 1. - E - E;
-        S = ((((SY * SY * 4. - 3.) * S * CZ * D / 6. - X) * D / 4. + CZ) * SY
-            * D + Y) * C * equatorialRadius * R;
-
-        return S;
+        return Geodesy.ellipsoidalDistance(p1.getLatitude().radians, p1.getLongitude().radians,
+            p2.getLatitude().radians, p2.getLongitude().radians, equatorialRadius, polarRadius);
     }
 
     /**
@@ -0,0 +1,290 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+package gov.nasa.worldwind.geom;
+
+import gov.nasa.worldwind.util.Logging;
+
+/**
+ * A mutable companion to {@link Vec4} for loops that compute many intermediate vectors. Each operation stores its
+ * result in the vector it's invoked on and returns that vector, so a single instance can be reused for every iteration
+ * of a loop without allocating. The operations compute the same values as the corresponding <code>Vec4</code>
+ * operations.
+ * <p/>
+ * A mutable vector is not thread safe, and should not be retained by code that did not create it. Use {@link #toVec4()}
+ * to create an immutable copy.
+ *
+ * @version $Id$
+ * @see gov.nasa.worldwind.globes.Globe#computePointFromPosition(double, double, double, MutableVec4)
+ */
+public class MutableVec4
+{
+    public double x;
+    public double y;
+    public double z;
+    public double w;
+
+    /** Constructs a vector at the origin, with w = 1. */
+    public MutableVec4()
+    {
+        this(0, 0, 0, 1);
+    }
+
+    public MutableVec4(double x, double y, double z)
+    {
+        this(x, y, z, 1);
+    }
+
+    public MutableVec4(double x, double y, double z, double w)
+    {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.w = w;
+    }
+
+    public MutableVec4(Vec4 vec4)
+    {
+        this.set(vec4);
+    }
+
+    public final MutableVec4 set(double x, double y, double z)
+    {
+        return this.set(x, y, z, 1);
+    }
+
+    public final MutableVec4 set(double x, double y, double z, double w)
+    {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.w = w;
+        return this;
+    }
+
+    public final MutableVec4 set(Vec4 vec4)
+    {
+        if (vec4 == null)
+        {
+            String msg = Logging.getMessage("nullValue.Vec4IsNull");
+            Logging.logger().severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        return this.set(vec4.x, vec4.y, vec4.z, vec4.w);
+    }
+
+    public final MutableVec4 set(MutableVec4 vec4)
+    {
+        if (vec4 == null)
+        {
+            String msg = Logging.getMessage("nullValue.Vec4IsNull");
+            Logging.logger().severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        return this.set(vec4.x, vec4.y, vec4.z, vec4.w);
+    }
+
+    /**
+     * Creates an immutable vector with the same coordinates as this vector.
+     *
+     * @return a new vector equal to this vector.
+     */
+    public final Vec4 toVec4()
+    {
+        return new Vec4(this.x, this.y, this.z, this.w);
+    }
+
+    public final MutableVec4 add3(double x, double y, double z)
+    {
+        this.x += x;
+        this.y += y;
+        this.z += z;
+        return this;
+    }
+
+    public final MutableVec4 add3(Vec4 vec4)
+    {
+        if (vec4 == null)
+        {
+            String msg = Logging.getMessage("nullValue.Vec4IsNull");
+            Logging.logger().severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        return this.add3(vec4.x, vec4.y, vec4.z);
+    }
+
+    public final MutableVec4 subtract3(double x, double y, double z)
+    {
+        this.x -= x;
+        this.y -= y;
+        this.z -= z;
+        return this;
+    }
+
+    public final MutableVec4 subtract3(Vec4 vec4)
+    {
+        if (vec4 == null)
+        {
+            String msg = Logging.getMessage("nullValue.Vec4IsNull");
+            Logging.logger().severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        return this.subtract3(vec4.x, vec4.y, vec4.z);
+    }
+
+    public final MutableVec4 multiply3(double value)
+    {
+        this.x *= value;
+        this.y *= value;
+        this.z *= value;
+        return this;
+    }
+
+    /**
+     * Sets this vector to the cross product of two vectors.
+     *
+     * @param a the first vector.
+     * @param b the second vector.
+     *
+     * @return this vector, set to <code>a</code> cross <code>b</code>. Its w coordinate is set to 1.
+     *
+     * @throws IllegalArgumentException if either vector is null.
+     */
+    public final MutableVec4 cross3(Vec4 a, Vec4 b)
+    {
+        if (a == null || b == null)
+        {
+            String msg = Logging.getMessage("nullValue.Vec4IsNull");
+            Logging.logger().severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        return this.set(
+            (a.y * b.z) - (a.z * b.y),
+            (a.z * b.x) - (a.x * b.z),
+            (a.x * b.y) - (a.y * b.x));
+    }
+
+    public final double dot3(Vec4 vec4)
+    {
+        if (vec4 == null)
+        {
+            String msg = Logging.getMessage("nullValue.Vec4IsNull");
+            Logging.logger().severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        return (this.x * vec4.x) + (this.y * vec4.y) + (this.z * vec4.z);
+    }
+
+    public final double getLength3()
+    {
+        return Math.sqrt(this.getLengthSquared3());
+    }
+
+    public final double getLengthSquared3()
+    {
+        return (this.x * this.x)
+            + (this.y * this.y)
+            + (this.z * this.z);
+    }
+
+    /**
+     * Scales this vector to unit length. A vector of zero length is left unchanged. Otherwise the w coordinate is set
+     * to 1, as it is by {@link Vec4#normalize3()}.
+     *
+     * @return this vector.
+     */
+    public final MutableVec4 normalize3()
+    {
+        double length = this.getLength3();
+        // Vector has zero length.
+        if (length == 0)
+            return this;
+
+        return this.set(this.x / length, this.y / length, this.z / length);
+    }
+
+    public final double distanceTo3(Vec4 vec4)
+    {
+        if (vec4 == null)
+        {
+            String msg = Logging.getMessage("nullValue.Vec4IsNull");
+            Logging.logger().severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        double dx = vec4.x - this.x;
+        double dy = vec4.y - this.y;
+        double dz = vec4.z - this.z;
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+
+    public final double distanceTo3(MutableVec4 vec4)
+    {
+        if (vec4 == null)
+        {
+            String msg = Logging.getMessage("nullValue.Vec4IsNull");
+            Logging.logger().severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        double dx = vec4.x - this.x;
+        double dy = vec4.y - this.y;
+        double dz = vec4.z - this.z;
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+
+    /**
+     * Transforms this vector's x, y and z coordinates by the upper 3x3 portion of a matrix. The w coordinate is set to
+     * 1, as it is by {@link Vec4#transformBy3(Matrix)}.
+     *
+     * @param matrix the matrix to transform by.
+     *
+     * @return this vector.
+     *
+     * @throws IllegalArgumentException if the matrix is null.
+     */
+    public final MutableVec4 transformBy3(Matrix matrix)
+    {
+        if (matrix == null)
+        {
+            String msg = Logging.getMessage("nullValue.MatrixIsNull");
+            Logging.logger().severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        return this.set(
+            (matrix.m11 * this.x) + (matrix.m12 * this.y) + (matrix.m13 * this.z),
+            (matrix.m21 * this.x) + (matrix.m22 * this.y) + (matrix.m23 * this.z),
+            (matrix.m31 * this.x) + (matrix.m32 * this.y) + (matrix.m33 * this.z));
+    }
+
+    public final MutableVec4 transformBy4(Matrix matrix)
+    {
+        if (matrix == null)
+        {
+            String msg = Logging.getMessage("nullValue.MatrixIsNull");
+            Logging.logger().severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        return this.set(
+            (matrix.m11 * this.x) + (matrix.m12 * this.y) + (matrix.m13 * this.z) + (matrix.m14 * this.w),
+            (matrix.m21 * this.x) + (matrix.m22 * this.y) + (matrix.m23 * this.z) + (matrix.m24 * this.w),
+            (matrix.m31 * this.x) + (matrix.m32 * this.y) + (matrix.m33 * this.z) + (matrix.m34 * this.w),
+            (matrix.m41 * this.x) + (matrix.m42 * this.y) + (matrix.m43 * this.z) + (matrix.m44 * this.w));
+    }
+
+    @Override
+    public String toString()
+    {
+        return "(" + this.x + ", " + this.y + ", " + this.z + ", " + this.w + ")";
+    }
+}
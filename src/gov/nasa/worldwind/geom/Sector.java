@@ -1349,17 +1349,24 @@ public class Sector implements Cacheable, Comparable<Sector>, Iterable<LatLon>
             if (s == null)
                 continue;
 
-            for (LatLon p : s)
-            {
-                if (p.getLatitude().degrees < minLat.degrees)
-                    minLat = p.getLatitude();
-                if (p.getLatitude().degrees > maxLat.degrees)
-                    maxLat = p.getLatitude();
-                if (p.getLongitude().degrees < minLon.degrees)
-                    minLon = p.getLongitude();
-                if (p.getLongitude().degrees > maxLon.degrees)
-                    maxLon = p.getLongitude();
-            }
+            // Compare the sector's angles directly rather than iterating over its corners, which creates a location
+            // for each corner. Both bounds are tested against each extreme, as the corners would be.
+            if (s.minLatitude.degrees < minLat.degrees)
+                minLat = s.minLatitude;
+            if (s.maxLatitude.degrees < minLat.degrees)
+                minLat = s.maxLatitude;
+            if (s.maxLatitude.degrees > maxLat.degrees)
+                maxLat = s.maxLatitude;
+            if (s.minLatitude.degrees > maxLat.degrees)
+                maxLat = s.minLatitude;
+            if (s.minLongitude.degrees < minLon.degrees)
+                minLon = s.minLongitude;
+            if (s.maxLongitude.degrees < minLon.degrees)
+                minLon = s.maxLongitude;
+            if (s.maxLongitude.degrees > maxLon.degrees)
+                maxLon = s.maxLongitude;
+            if (s.minLongitude.degrees > maxLon.degrees)
+                maxLon = s.minLongitude;
         }
 
         return new Sector(minLat, maxLat, minLon, maxLon);
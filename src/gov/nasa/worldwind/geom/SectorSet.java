@@ -0,0 +1,791 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+package gov.nasa.worldwind.geom;
+
+import gov.nasa.worldwind.util.Logging;
+
+import java.util.*;
+
+/**
+ * A collection of sectors held in packed arrays of minimum and maximum latitude and longitude, in degrees. A sector set
+ * computes the union, intersection and difference of the regions two sets cover, the area they cover, and which
+ * sectors of one set intersect which sectors of another, without creating an object per sector.
+ * <p/>
+ * The set operations sweep the sectors in latitude order and combine the longitude intervals the sectors span between
+ * successive latitude bounds. Their results are sets of sectors whose interiors are disjoint, and in which adjacent
+ * rows with the same longitude intervals are merged. The joins sort the sectors by minimum longitude and sweep them in
+ * that order, testing each sector against the sectors of the other set whose longitude range it overlaps rather than
+ * against every sector.
+ * <p/>
+ * As with {@link Sector}, angles are assumed to be normalized to +/- 90 degrees latitude and +/- 180 degrees longitude.
+ * The set operations treat sectors as closed regions and discard results of zero area, so sectors that only touch have
+ * an empty intersection, and sectors of zero or negative extent cover nothing. The joins use the same test as {@link
+ * Sector#intersects(Sector)}, so sectors that touch are reported as intersecting.
+ * <p/>
+ * A sector set is not thread safe.
+ *
+ * @version $Id$
+ */
+public class SectorSet implements Iterable<Sector>
+{
+    protected static final int UNION = 0;
+    protected static final int INTERSECTION = 1;
+    protected static final int DIFFERENCE = 2;
+    protected static final int DEFAULT_CAPACITY = 16;
+    /** Index ranges of this size or smaller are sorted by insertion sort rather than partitioned. */
+    protected static final int INSERTION_SORT_THRESHOLD = 16;
+    protected static final double DEGREES_TO_RADIANS = Math.PI / 180d;
+
+    protected double[] minLatitudes;
+    protected double[] maxLatitudes;
+    protected double[] minLongitudes;
+    protected double[] maxLongitudes;
+    protected int size;
+    /** Indicates that the sectors' interiors are known not to overlap, as they don't in a set operation's result. */
+    protected boolean knownDisjoint = true;
+
+    /** Constructs an empty sector set. */
+    public SectorSet()
+    {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty sector set with room for a specified number of sectors before its arrays must grow.
+     *
+     * @param capacity the number of sectors the set initially has room for.
+     *
+     * @throws IllegalArgumentException if the capacity is negative.
+     */
+    public SectorSet(int capacity)
+    {
+        if (capacity < 0)
+        {
+            String msg = Logging.getMessage("generic.ArgumentOutOfRange", capacity);
+            Logging.logger().severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        this.minLatitudes = new double[capacity];
+        this.maxLatitudes = new double[capacity];
+        this.minLongitudes = new double[capacity];
+        this.maxLongitudes = new double[capacity];
+    }
+
+    /**
+     * Constructs a sector set containing the non-null sectors of an iterable, in iteration order.
+     *
+     * @param sectors the sectors to add to the set.
+     *
+     * @throws IllegalArgumentException if the iterable is null.
+     */
+    public SectorSet(Iterable<? extends Sector> sectors)
+    {
+        this(DEFAULT_CAPACITY);
+
+        if (sectors == null)
+        {
+            String msg = Logging.getMessage("nullValue.SectorListIsNull");
+            Logging.logger().severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        for (Sector s : sectors)
+        {
+            if (s != null)
+                this.add(s);
+        }
+    }
+
+    public int size()
+    {
+        return this.size;
+    }
+
+    public boolean isEmpty()
+    {
+        return this.size == 0;
+    }
+
+    public void clear()
+    {
+        this.size = 0;
+        this.knownDisjoint = true;
+    }
+
+    /**
+     * Adds a sector to the end of this set.
+     *
+     * @param sector the sector to add.
+     *
+     * @throws IllegalArgumentException if the sector is null.
+     */
+    public void add(Sector sector)
+    {
+        if (sector == null)
+        {
+            String msg = Logging.getMessage("nullValue.SectorIsNull");
+            Logging.logger().severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        this.add(sector.getMinLatitude().degrees, sector.getMaxLatitude().degrees, sector.getMinLongitude().degrees,
+            sector.getMaxLongitude().degrees);
+    }
+
+    /**
+     * Adds a sector, specified by its bounds in degrees, to the end of this set.
+     *
+     * @param minLatitude  the sector's minimum latitude in degrees.
+     * @param maxLatitude  the sector's maximum latitude in degrees.
+     * @param minLongitude the sector's minimum longitude in degrees.
+     * @param maxLongitude the sector's maximum longitude in degrees.
+     */
+    public void add(double minLatitude, double maxLatitude, double minLongitude, double maxLongitude)
+    {
+        if (this.size == this.minLatitudes.length)
+        {
+            int capacity = Math.max(DEFAULT_CAPACITY, 2 * this.size);
+            this.minLatitudes = Arrays.copyOf(this.minLatitudes, capacity);
+            this.maxLatitudes = Arrays.copyOf(this.maxLatitudes, capacity);
+            this.minLongitudes = Arrays.copyOf(this.minLongitudes, capacity);
+            this.maxLongitudes = Arrays.copyOf(this.maxLongitudes, capacity);
+        }
+
+        this.knownDisjoint = this.size == 0;
+        this.minLatitudes[this.size] = minLatitude;
+        this.maxLatitudes[this.size] = maxLatitude;
+        this.minLongitudes[this.size] = minLongitude;
+        this.maxLongitudes[this.size] = maxLongitude;
+        this.size++;
+    }
+
+    public double getMinLatitude(int index)
+    {
+        this.checkIndex(index);
+        return this.minLatitudes[index];
+    }
+
+    public double getMaxLatitude(int index)
+    {
+        this.checkIndex(index);
+        return this.maxLatitudes[index];
+    }
+
+    public double getMinLongitude(int index)
+    {
+        this.checkIndex(index);
+        return this.minLongitudes[index];
+    }
+
+    public double getMaxLongitude(int index)
+    {
+        this.checkIndex(index);
+        return this.maxLongitudes[index];
+    }
+
+    /**
+     * Creates a sector with the bounds of one of this set's sectors.
+     *
+     * @param index the index of the sector in this set.
+     *
+     * @return a new sector.
+     *
+     * @throws IllegalArgumentException if the index is less than 0 or not less than the set's size.
+     */
+    public Sector getSector(int index)
+    {
+        this.checkIndex(index);
+        return Sector.fromDegrees(this.minLatitudes[index], this.maxLatitudes[index], this.minLongitudes[index],
+            this.maxLongitudes[index]);
+    }
+
+    /**
+     * Returns an iterator over this set's sectors, which creates a sector for each one returned.
+     *
+     * @return an iterator over this set's sectors.
+     */
+    public Iterator<Sector> iterator()
+    {
+        return new Iterator<Sector>()
+        {
+            private int position = 0;
+
+            public boolean hasNext()
+            {
+                return this.position < SectorSet.this.size;
+            }
+
+            public Sector next()
+            {
+                if (this.position >= SectorSet.this.size)
+                    throw new NoSuchElementException();
+
+                return SectorSet.this.getSector(this.position++);
+            }
+
+            public void remove()
+            {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    /**
+     * Computes the smallest sector containing all of this set's sectors.
+     *
+     * @return the bounding sector, or null if this set is empty.
+     */
+    public Sector getBoundingSector()
+    {
+        if (this.size == 0)
+            return null;
+
+        double minLat = 90, maxLat = -90, minLon = 180, maxLon = -180;
+        for (int i = 0; i < this.size; i++)
+        {
+            minLat = Math.min(minLat, Math.min(this.minLatitudes[i], this.maxLatitudes[i]));
+            maxLat = Math.max(maxLat, Math.max(this.minLatitudes[i], this.maxLatitudes[i]));
+            minLon = Math.min(minLon, Math.min(this.minLongitudes[i], this.maxLongitudes[i]));
+            maxLon = Math.max(maxLon, Math.max(this.minLongitudes[i], this.maxLongitudes[i]));
+        }
+
+        return Sector.fromDegrees(minLat, maxLat, minLon, maxLon);
+    }
+
+    /**
+     * Determines whether any of this set's sectors intersects a specified sector, using the test of {@link
+     * Sector#intersects(Sector)}.
+     *
+     * @param sector the sector to test.
+     *
+     * @return true if the sector is non-null and intersects at least one of this set's sectors, otherwise false.
+     */
+    public boolean intersects(Sector sector)
+    {
+        if (sector == null)
+            return false;
+
+        double minLat = sector.getMinLatitude().degrees;
+        double maxLat = sector.getMaxLatitude().degrees;
+        double minLon = sector.getMinLongitude().degrees;
+        double maxLon = sector.getMaxLongitude().degrees;
+
+        for (int i = 0; i < this.size; i++)
+        {
+            if (maxLon >= this.minLongitudes[i] && minLon <= this.maxLongitudes[i]
+                && maxLat >= this.minLatitudes[i] && minLat <= this.maxLatitudes[i])
+                return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Computes the region covered by this set or another.
+     *
+     * @param that the other set.
+     *
+     * @return a new set of sectors with disjoint interiors covering the region covered by either set.
+     *
+     * @throws IllegalArgumentException if the other set is null.
+     */
+    public SectorSet union(SectorSet that)
+    {
+        checkSet(that);
+        return combine(this, that, UNION);
+    }
+
+    /**
+     * Computes the region covered by both this set and another.
+     *
+     * @param that the other set.
+     *
+     * @return a new set of sectors with disjoint interiors covering the region covered by both sets.
+     *
+     * @throws IllegalArgumentException if the other set is null.
+     */
+    public SectorSet intersection(SectorSet that)
+    {
+        checkSet(that);
+        return combine(this, that, INTERSECTION);
+    }
+
+    /**
+     * Computes the region covered by this set but not another.
+     *
+     * @param that the other set.
+     *
+     * @return a new set of sectors with disjoint interiors covering the region covered by this set and not the other.
+     *
+     * @throws IllegalArgumentException if the other set is null.
+     */
+    public SectorSet difference(SectorSet that)
+    {
+        checkSet(that);
+        return combine(this, that, DIFFERENCE);
+    }
+
+    /**
+     * Computes a set of sectors with disjoint interiors covering the same region as this set.
+     *
+     * @return a new set of sectors with disjoint interiors.
+     */
+    public SectorSet toDisjoint()
+    {
+        return combine(this, new SectorSet(0), UNION);
+    }
+
+    /**
+     * Computes the area of the region covered by this set on a unit sphere. Regions covered by more than one sector
+     * are counted once. Multiply by the square of a globe's radius to compute an area in square meters.
+     *
+     * @return the covered area, in steradians.
+     */
+    public double getCoveredArea()
+    {
+        SectorSet set = this.knownDisjoint ? this : this.toDisjoint();
+
+        double area = 0;
+        for (int i = 0; i < set.size; i++)
+        {
+            area += (set.maxLongitudes[i] - set.minLongitudes[i]) * DEGREES_TO_RADIANS
+                * (Math.sin(set.maxLatitudes[i] * DEGREES_TO_RADIANS)
+                - Math.sin(set.minLatitudes[i] * DEGREES_TO_RADIANS));
+        }
+
+        return area;
+    }
+
+    /**
+     * Finds the pairs of sectors, one from this set and one from another, that intersect.
+     *
+     * @param that the other set.
+     *
+     * @return an array holding the index of each pair's sector in this set followed by the index of its sector in the
+     *         other set, in no particular order. The array's length is twice the number of pairs.
+     *
+     * @throws IllegalArgumentException if the other set is null.
+     */
+    public int[] join(SectorSet that)
+    {
+        checkSet(that);
+
+        int[] thisOrder = sortedIndices(this.minLongitudes, this.size);
+        int[] thatOrder = sortedIndices(that.minLongitudes, that.size);
+        int[] thisActive = new int[this.size];
+        int[] thatActive = new int[that.size];
+        int numThisActive = 0, numThatActive = 0;
+        int[] pairs = new int[2 * DEFAULT_CAPACITY];
+        int numPairs = 0;
+
+        int i = 0, j = 0;
+        while (i < this.size || j < that.size)
+        {
+            if (j >= that.size || (i < this.size
+                && this.minLongitudes[thisOrder[i]] <= that.minLongitudes[thatOrder[j]]))
+            {
+                int index = thisOrder[i++];
+                int n = 0;
+                for (int k = 0; k < numThatActive; k++)
+                {
+                    int other = thatActive[k];
+                    if (that.maxLongitudes[other] < this.minLongitudes[index])
+                        continue; // the other sector ends before this and all remaining sectors begin
+
+                    thatActive[n++] = other;
+                    if (intersects(this, index, that, other))
+                    {
+                        if (numPairs == pairs.length)
+                            pairs = Arrays.copyOf(pairs, 2 * pairs.length);
+                        pairs[numPairs++] = index;
+                        pairs[numPairs++] = other;
+                    }
+                }
+                numThatActive = n;
+                thisActive[numThisActive++] = index;
+            }
+            else
+            {
+                int index = thatOrder[j++];
+                int n = 0;
+                for (int k = 0; k < numThisActive; k++)
+                {
+                    int other = thisActive[k];
+                    if (this.maxLongitudes[other] < that.minLongitudes[index])
+                        continue; // the other sector ends before this and all remaining sectors begin
+
+                    thisActive[n++] = other;
+                    if (intersects(that, index, this, other))
+                    {
+                        if (numPairs == pairs.length)
+                            pairs = Arrays.copyOf(pairs, 2 * pairs.length);
+                        pairs[numPairs++] = other;
+                        pairs[numPairs++] = index;
+                    }
+                }
+                numThisActive = n;
+                thatActive[numThatActive++] = index;
+            }
+        }
+
+        return Arrays.copyOf(pairs, numPairs);
+    }
+
+    /**
+     * Finds the pairs of distinct sectors in this set that intersect.
+     *
+     * @return an array holding the smaller index of each pair followed by the larger, in no particular order. The
+     *         array's length is twice the number of pairs.
+     */
+    public int[] selfJoin()
+    {
+        int[] order = sortedIndices(this.minLongitudes, this.size);
+        int[] active = new int[this.size];
+        int numActive = 0;
+        int[] pairs = new int[2 * DEFAULT_CAPACITY];
+        int numPairs = 0;
+
+        for (int i = 0; i < this.size; i++)
+        {
+            int index = order[i];
+            int n = 0;
+            for (int k = 0; k < numActive; k++)
+            {
+                int other = active[k];
+                if (this.maxLongitudes[other] < this.minLongitudes[index])
+                    continue; // the other sector ends before this and all remaining sectors begin
+
+                active[n++] = other;
+                if (intersects(this, index, this, other))
+                {
+                    if (numPairs == pairs.length)
+                        pairs = Arrays.copyOf(pairs, 2 * pairs.length);
+                    pairs[numPairs++] = Math.min(index, other);
+                    pairs[numPairs++] = Math.max(index, other);
+                }
+            }
+            numActive = n;
+            active[numActive++] = index;
+        }
+
+        return Arrays.copyOf(pairs, numPairs);
+    }
+
+    protected void checkIndex(int index)
+    {
+        if (index < 0 || index >= this.size)
+        {
+            String msg = Logging.getMessage("generic.ArgumentOutOfRange", index);
+            Logging.logger().severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+    }
+
+    protected static void checkSet(SectorSet set)
+    {
+        if (set == null)
+        {
+            String msg = Logging.getMessage("nullValue.SectorListIsNull");
+            Logging.logger().severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+    }
+
+    /**
+     * Tests a sector that begins at or after another in longitude against the other sector, completing the test of
+     * {@link Sector#intersects(Sector)} for sectors the sweep has found to overlap at the first sector's minimum
+     * longitude.
+     *
+     * @param a the first sector's set.
+     * @param i the first sector's index.
+     * @param b the other sector's set.
+     * @param j the other sector's index.
+     *
+     * @return true if the sectors intersect, otherwise false.
+     */
+    protected static boolean intersects(SectorSet a, int i, SectorSet b, int j)
+    {
+        return b.minLongitudes[j] <= a.maxLongitudes[i]
+            && b.maxLatitudes[j] >= a.minLatitudes[i]
+            && b.minLatitudes[j] <= a.maxLatitudes[i];
+    }
+
+    /**
+     * Combines the regions covered by two sets. The sectors' latitude bounds divide the sets into rows. In each row,
+     * the longitude intervals spanned by each set's sectors are merged, the two sets' intervals are combined by the
+     * operation, and a sector is created for each resulting interval, or the sectors of the previous row are extended
+     * when its intervals are the same.
+     *
+     * @param a         the first set.
+     * @param b         the second set.
+     * @param operation the operation: {@link #UNION}, {@link #INTERSECTION} or {@link #DIFFERENCE}.
+     *
+     * @return a new set of sectors with disjoint interiors.
+     */
+    protected static SectorSet combine(SectorSet a, SectorSet b, int operation)
+    {
+        SectorSet result = new SectorSet();
+
+        int numBounds = 2 * (a.size + b.size);
+        double[] bounds = new double[numBounds];
+        System.arraycopy(a.minLatitudes, 0, bounds, 0, a.size);
+        System.arraycopy(a.maxLatitudes, 0, bounds, a.size, a.size);
+        System.arraycopy(b.minLatitudes, 0, bounds, 2 * a.size, b.size);
+        System.arraycopy(b.maxLatitudes, 0, bounds, 2 * a.size + b.size, b.size);
+        Arrays.sort(bounds);
+
+        int[] aOrder = sortedIndices(a.minLatitudes, a.size);
+        int[] bOrder = sortedIndices(b.minLatitudes, b.size);
+        int[] aActive = new int[a.size];
+        int[] bActive = new int[b.size];
+        double[] aIntervals = new double[2 * a.size];
+        double[] bIntervals = new double[2 * b.size];
+        int aNext = 0, bNext = 0, numAActive = 0, numBActive = 0;
+        int prevStart = 0, prevCount = 0;
+
+        for (int k = 1; k < numBounds; k++)
+        {
+            double lat0 = bounds[k - 1];
+            double lat1 = bounds[k];
+            if (lat1 == lat0)
+                continue;
+
+            // Every sector bound is a row bound, so the sectors spanning this row are those that begin at or below
+            // its minimum latitude and end above it.
+            while (aNext < a.size && a.minLatitudes[aOrder[aNext]] <= lat0)
+            {
+                aActive[numAActive++] = aOrder[aNext++];
+            }
+            while (bNext < b.size && b.minLatitudes[bOrder[bNext]] <= lat0)
+            {
+                bActive[numBActive++] = bOrder[bNext++];
+            }
+            numAActive = retainSpanning(a, aActive, numAActive, lat0);
+            numBActive = retainSpanning(b, bActive, numBActive, lat0);
+
+            int numAIntervals = mergeIntervals(a, aActive, numAActive, aIntervals);
+            int numBIntervals = mergeIntervals(b, bActive, numBActive, bIntervals);
+            int start = result.size;
+            combineIntervals(aIntervals, numAIntervals, bIntervals, numBIntervals, operation, lat0, lat1, result);
+            int count = result.size - start;
+
+            // Extend the previous row's sectors rather than adding new ones when this row has the same intervals.
+            if (count > 0 && count == prevCount && result.maxLatitudes[prevStart] == lat0
+                && sameLongitudes(result, prevStart, start, count))
+            {
+                for (int i = 0; i < count; i++)
+                {
+                    result.maxLatitudes[prevStart + i] = lat1;
+                }
+                result.size = start;
+            }
+            else
+            {
+                prevStart = start;
+                prevCount = count;
+            }
+        }
+
+        result.knownDisjoint = true;
+        return result;
+    }
+
+    protected static int retainSpanning(SectorSet set, int[] active, int numActive, double latitude)
+    {
+        int n = 0;
+        for (int i = 0; i < numActive; i++)
+        {
+            if (set.maxLatitudes[active[i]] > latitude)
+                active[n++] = active[i];
+        }
+
+        return n;
+    }
+
+    /**
+     * Merges the longitude intervals of a list of sectors into a list of intervals that neither overlap nor touch,
+     * ordered by longitude, and discards intervals of zero length.
+     *
+     * @param set       the sectors' set.
+     * @param indices   the sectors' indices. The indices are reordered by minimum longitude.
+     * @param count     the number of sectors.
+     * @param intervals the array in which to store each interval's minimum and maximum longitude.
+     *
+     * @return the number of intervals.
+     */
+    protected static int mergeIntervals(SectorSet set, int[] indices, int count, double[] intervals)
+    {
+        sortIndices(indices, set.minLongitudes, 0, count);
+
+        int numIntervals = 0;
+        double min = 0, max = 0;
+        boolean open = false;
+        for (int i = 0; i < count; i++)
+        {
+            double minLon = set.minLongitudes[indices[i]];
+            double maxLon = set.maxLongitudes[indices[i]];
+            if (maxLon <= minLon)
+                continue;
+
+            if (open && minLon <= max)
+            {
+                max = Math.max(max, maxLon);
+                continue;
+            }
+
+            if (open)
+            {
+                intervals[2 * numIntervals] = min;
+                intervals[2 * numIntervals + 1] = max;
+                numIntervals++;
+            }
+
+            min = minLon;
+            max = maxLon;
+            open = true;
+        }
+
+        if (open)
+        {
+            intervals[2 * numIntervals] = min;
+            intervals[2 * numIntervals + 1] = max;
+            numIntervals++;
+        }
+
+        return numIntervals;
+    }
+
+    /**
+     * Combines two ordered lists of longitude intervals by walking their bounds in order, tracking whether each list
+     * covers the current longitude, and adds a sector to the result for each interval the operation covers.
+     *
+     * @param a           the first list's interval bounds.
+     * @param numA        the number of intervals in the first list.
+     * @param b           the second list's interval bounds.
+     * @param numB        the number of intervals in the second list.
+     * @param operation   the operation: {@link #UNION}, {@link #INTERSECTION} or {@link #DIFFERENCE}.
+     * @param minLatitude the minimum latitude of the sectors to create.
+     * @param maxLatitude the maximum latitude of the sectors to create.
+     * @param result      the set to add the sectors to.
+     */
+    protected static void combineIntervals(double[] a, int numA, double[] b, int numB, int operation,
+        double minLatitude, double maxLatitude, SectorSet result)
+    {
+        int i = 0, j = 0;
+        boolean inA = false, inB = false, inResult = false;
+        double start = 0;
+
+        while (i < 2 * numA || j < 2 * numB)
+        {
+            double lon = (j >= 2 * numB || (i < 2 * numA && a[i] <= b[j])) ? a[i] : b[j];
+            if (i < 2 * numA && a[i] == lon)
+            {
+                inA = !inA;
+                i++;
+            }
+            if (j < 2 * numB && b[j] == lon)
+            {
+                inB = !inB;
+                j++;
+            }
+
+            boolean in = operation == UNION ? inA || inB : operation == INTERSECTION ? inA && inB : inA && !inB;
+            if (in && !inResult)
+                start = lon;
+            else if (!in && inResult)
+                result.add(minLatitude, maxLatitude, start, lon);
+            inResult = in;
+        }
+    }
+
+    protected static boolean sameLongitudes(SectorSet set, int first, int second, int count)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            if (set.minLongitudes[first + i] != set.minLongitudes[second + i]
+                || set.maxLongitudes[first + i] != set.maxLongitudes[second + i])
+                return false;
+        }
+
+        return true;
+    }
+
+    protected static int[] sortedIndices(double[] keys, int count)
+    {
+        int[] indices = new int[count];
+        for (int i = 0; i < count; i++)
+        {
+            indices[i] = i;
+        }
+
+        sortIndices(indices, keys, 0, count);
+        return indices;
+    }
+
+    /**
+     * Sorts a range of indices by the values they index, without boxing them. Uses quicksort with a median of three
+     * pivot, recursing into the smaller partition to bound the stack depth, and insertion sort for short ranges.
+     *
+     * @param indices the indices to sort.
+     * @param keys    the values the indices are sorted by.
+     * @param from    the first index in the range, inclusive.
+     * @param to      the last index in the range, exclusive.
+     */
+    protected static void sortIndices(int[] indices, double[] keys, int from, int to)
+    {
+        while (to - from > INSERTION_SORT_THRESHOLD)
+        {
+            double x = keys[indices[from]];
+            double y = keys[indices[(from + to) >>> 1]];
+            double z = keys[indices[to - 1]];
+            double pivot = x < y ? (y < z ? y : Math.max(x, z)) : (x < z ? x : Math.max(y, z));
+
+            int i = from, j = to - 1;
+            while (i <= j)
+            {
+                while (keys[indices[i]] < pivot)
+                {
+                    i++;
+                }
+                while (keys[indices[j]] > pivot)
+                {
+                    j--;
+                }
+                if (i <= j)
+                {
+                    int tmp = indices[i];
+                    indices[i++] = indices[j];
+                    indices[j--] = tmp;
+                }
+            }
+
+            if (j - from < to - i)
+            {
+                sortIndices(indices, keys, from, j + 1);
+                from = i;
+            }
+            else
+            {
+                sortIndices(indices, keys, i, to);
+                to = j + 1;
+            }
+        }
+
+        for (int i = from + 1; i < to; i++)
+        {
+            int index = indices[i];
+            double key = keys[index];
+            int j = i - 1;
+            while (j >= from && keys[indices[j]] > key)
+            {
+                indices[j + 1] = indices[j];
+                j--;
+            }
+            indices[j + 1] = index;
+        }
+    }
+}
@@ -0,0 +1,405 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+package gov.nasa.worldwind.geom.coords;
+
+import gov.nasa.worldwind.globes.Globe;
+import gov.nasa.worldwind.util.*;
+
+import java.util.concurrent.*;
+
+/**
+ * Converts arrays of geodetic latitudes and longitudes to UTM, UPS or MGRS coordinates. Each conversion produces the
+ * same values as the corresponding {@link UTMCoord}, {@link UPSCoord} or {@link MGRSCoord} <code>fromLatLon</code>
+ * method, but without creating a coordinate object or setting up a projection for every point. A batch converter also
+ * shifts geodetic positions between the NAD27 and WGS84 datums, and converts ellipsoidal heights to orthometric
+ * heights.
+ * <p/>
+ * A batch converter holds no conversion state, so one instance may be shared by any number of threads. Large batches
+ * are divided into blocks of {@link #BLOCK_SIZE} points that are converted in parallel by the converter's fork/join
+ * pool. Each block uses its own converters, which reuse their projection setup from point to point.
+ * <p/>
+ * Points that cannot be converted, such as points outside the UTM latitude range, do not stop the conversion. Their
+ * outputs are marked as described by each method, and the number of such points is returned.
+ *
+ * @version $Id$
+ */
+public class BatchCoordConverter
+{
+    /** The number of points converted by each parallel task. */
+    public static final int BLOCK_SIZE = 4096;
+
+    protected static final double DEGREES_TO_RADIANS = Math.PI / 180d;
+
+    protected final Globe globe;
+    protected final ForkJoinPool pool;
+
+    /** Constructs a converter for the WGS84 ellipsoid that converts in parallel using the common fork/join pool. */
+    public BatchCoordConverter()
+    {
+        this(null, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a converter for a globe's ellipsoid that converts in parallel using the common fork/join pool.
+     *
+     * @param globe the globe, or null to use the WGS84 ellipsoid.
+     */
+    public BatchCoordConverter(Globe globe)
+    {
+        this(globe, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a converter for a globe's ellipsoid that converts in parallel using a specified fork/join pool.
+     *
+     * @param globe the globe, or null to use the WGS84 ellipsoid.
+     * @param pool  the pool that converts large batches, or null to convert every batch on the calling thread.
+     */
+    public BatchCoordConverter(Globe globe, ForkJoinPool pool)
+    {
+        this.globe = globe;
+        this.pool = pool;
+    }
+
+    public Globe getGlobe()
+    {
+        return this.globe;
+    }
+
+    public ForkJoinPool getPool()
+    {
+        return this.pool;
+    }
+
+    /**
+     * Converts geodetic coordinates to UTM coordinates. Points that cannot be converted are given zone 0, a null
+     * hemisphere and NaN easting and northing.
+     *
+     * @param latitudes   the latitudes in degrees.
+     * @param longitudes  the longitudes in degrees.
+     * @param count       the number of points to convert.
+     * @param zones       receives the UTM zones, 1 to 60.
+     * @param hemispheres receives the hemispheres, either {@link gov.nasa.worldwind.avlist.AVKey#NORTH} or {@link
+     *                    gov.nasa.worldwind.avlist.AVKey#SOUTH}.
+     * @param eastings    receives the eastings in meters.
+     * @param northings   receives the northings in meters.
+     *
+     * @return the number of points that could not be converted.
+     *
+     * @throws IllegalArgumentException if any array is null or shorter than <code>count</code>, or if
+     *                                  <code>count</code> is negative.
+     */
+    public int convertToUTM(final double[] latitudes, final double[] longitudes, int count, final int[] zones,
+        final String[] hemispheres, final double[] eastings, final double[] northings)
+    {
+        checkArrays(count, latitudes, longitudes, zones, hemispheres, eastings, northings);
+
+        return this.convert(count, new BlockConverter()
+        {
+            public int convert(int start, int end)
+            {
+                UTMCoordConverter converter = new UTMCoordConverter(globe);
+                int failures = 0;
+
+                for (int i = start; i < end; i++)
+                {
+                    long err = converter.convertGeodeticToUTM(DEGREES_TO_RADIANS * latitudes[i],
+                        DEGREES_TO_RADIANS * longitudes[i]);
+                    if (err == UTMCoordConverter.UTM_NO_ERROR)
+                    {
+                        zones[i] = converter.getZone();
+                        hemispheres[i] = converter.getHemisphere();
+                        eastings[i] = converter.getEasting();
+                        northings[i] = converter.getNorthing();
+                    }
+                    else
+                    {
+                        zones[i] = 0;
+                        hemispheres[i] = null;
+                        eastings[i] = Double.NaN;
+                        northings[i] = Double.NaN;
+                        failures++;
+                    }
+                }
+
+                return failures;
+            }
+        });
+    }
+
+    /**
+     * Converts geodetic coordinates to UPS coordinates. Points that cannot be converted are given a null hemisphere
+     * and NaN easting and northing.
+     *
+     * @param latitudes   the latitudes in degrees.
+     * @param longitudes  the longitudes in degrees.
+     * @param count       the number of points to convert.
+     * @param hemispheres receives the hemispheres, either {@link gov.nasa.worldwind.avlist.AVKey#NORTH} or {@link
+     *                    gov.nasa.worldwind.avlist.AVKey#SOUTH}.
+     * @param eastings    receives the eastings in meters.
+     * @param northings   receives the northings in meters.
+     *
+     * @return the number of points that could not be converted.
+     *
+     * @throws IllegalArgumentException if any array is null or shorter than <code>count</code>, or if
+     *                                  <code>count</code> is negative.
+     */
+    public int convertToUPS(final double[] latitudes, final double[] longitudes, int count,
+        final String[] hemispheres, final double[] eastings, final double[] northings)
+    {
+        checkArrays(count, latitudes, longitudes, hemispheres, eastings, northings);
+
+        return this.convert(count, new BlockConverter()
+        {
+            public int convert(int start, int end)
+            {
+                UPSCoordConverter converter = new UPSCoordConverter(globe);
+                int failures = 0;
+
+                for (int i = start; i < end; i++)
+                {
+                    long err = converter.convertGeodeticToUPS(DEGREES_TO_RADIANS * latitudes[i],
+                        DEGREES_TO_RADIANS * longitudes[i]);
+                    if (err == UPSCoordConverter.UPS_NO_ERROR)
+                    {
+                        hemispheres[i] = converter.getHemisphere();
+                        eastings[i] = converter.getEasting();
+                        northings[i] = converter.getNorthing();
+                    }
+                    else
+                    {
+                        hemispheres[i] = null;
+                        eastings[i] = Double.NaN;
+                        northings[i] = Double.NaN;
+                        failures++;
+                    }
+                }
+
+                return failures;
+            }
+        });
+    }
+
+    /**
+     * Converts geodetic coordinates to MGRS coordinate strings. Points that cannot be converted are given a null
+     * string.
+     *
+     * @param latitudes  the latitudes in degrees.
+     * @param longitudes the longitudes in degrees.
+     * @param count      the number of points to convert.
+     * @param precision  the number of digits used for easting and northing, 1 to 5.
+     * @param strings    receives the MGRS coordinate strings.
+     *
+     * @return the number of points that could not be converted.
+     *
+     * @throws IllegalArgumentException if any array is null or shorter than <code>count</code>, or if
+     *                                  <code>count</code> is negative.
+     */
+    public int convertToMGRS(final double[] latitudes, final double[] longitudes, int count, final int precision,
+        final String[] strings)
+    {
+        checkArrays(count, latitudes, longitudes, strings);
+
+        return this.convert(count, new BlockConverter()
+        {
+            public int convert(int start, int end)
+            {
+                MGRSCoordConverter converter = new MGRSCoordConverter(globe);
+                int failures = 0;
+
+                for (int i = start; i < end; i++)
+                {
+                    long err = converter.convertGeodeticToMGRS(DEGREES_TO_RADIANS * latitudes[i],
+                        DEGREES_TO_RADIANS * longitudes[i], precision);
+                    if (err == MGRSCoordConverter.MGRS_NO_ERROR)
+                    {
+                        strings[i] = converter.getMGRSString();
+                    }
+                    else
+                    {
+                        strings[i] = null;
+                        failures++;
+                    }
+                }
+
+                return failures;
+            }
+        });
+    }
+
+    /**
+     * Shifts the datum of geodetic positions from NAD27 to WGS84, giving the same positions as {@link
+     * DatumTransformation#convertNad27toWGS84(gov.nasa.worldwind.geom.Position)}. The positions are packed as
+     * latitude and longitude in degrees followed by elevation in meters.
+     *
+     * @param positions the positions in NAD27.
+     * @param count     the number of positions to shift.
+     * @param out       receives the positions in WGS84. May be the same array as <code>positions</code>.
+     *
+     * @throws IllegalArgumentException if either array is null or shorter than <code>3 * count</code>, or if
+     *                                  <code>count</code> is negative.
+     */
+    public void convertNad27ToWGS84(final double[] positions, int count, final double[] out)
+    {
+        DatumTransformation.checkPackedArrays(count, positions, out);
+
+        this.convert(count, new BlockConverter()
+        {
+            public int convert(int start, int end)
+            {
+                DatumTransformation.convertNad27toWGS84(positions, start, end, out);
+                return 0;
+            }
+        });
+    }
+
+    /**
+     * Shifts the datum of geodetic positions from WGS84 to NAD27, giving the same positions as {@link
+     * DatumTransformation#convertWGS84toNad27(gov.nasa.worldwind.geom.Position)}. The positions are packed as
+     * latitude and longitude in degrees followed by elevation in meters.
+     *
+     * @param positions the positions in WGS84.
+     * @param count     the number of positions to shift.
+     * @param out       receives the positions in NAD27. May be the same array as <code>positions</code>.
+     *
+     * @throws IllegalArgumentException if either array is null or shorter than <code>3 * count</code>, or if
+     *                                  <code>count</code> is negative.
+     */
+    public void convertWGS84ToNad27(final double[] positions, int count, final double[] out)
+    {
+        DatumTransformation.checkPackedArrays(count, positions, out);
+
+        this.convert(count, new BlockConverter()
+        {
+            public int convert(int start, int end)
+            {
+                DatumTransformation.convertWGS84toNad27(positions, start, end, out);
+                return 0;
+            }
+        });
+    }
+
+    /**
+     * Converts ellipsoidal heights to orthometric heights by subtracting the EGM96 geoid offset at each location.
+     *
+     * @param egm96      the geoid offsets.
+     * @param latitudes  the latitudes in degrees.
+     * @param longitudes the longitudes in degrees.
+     * @param count      the number of heights to convert.
+     * @param heights    the ellipsoidal heights in meters.
+     * @param out        receives the orthometric heights in meters. May be the same array as <code>heights</code>.
+     *
+     * @throws IllegalArgumentException if the geoid offsets are null, if any array is null or shorter than
+     *                                  <code>count</code>, or if <code>count</code> is negative.
+     */
+    public void convertToOrthometric(final EGM96 egm96, final double[] latitudes, final double[] longitudes,
+        int count, final double[] heights, final double[] out)
+    {
+        if (egm96 == null)
+        {
+            String message = Logging.getMessage("nullValue.ObjectIsNull");
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        checkArrays(count, latitudes, longitudes, heights, out);
+
+        this.convert(count, new BlockConverter()
+        {
+            public int convert(int start, int end)
+            {
+                for (int i = start; i < end; i++)
+                {
+                    out[i] = heights[i] - egm96.getOffset(latitudes[i], longitudes[i]);
+                }
+
+                return 0;
+            }
+        });
+    }
+
+    /** Converts a range of points with converters that are confined to the calling thread. */
+    protected interface BlockConverter
+    {
+        /**
+         * Converts the points from <code>start</code> up to but not including <code>end</code>.
+         *
+         * @param start the first point to convert.
+         * @param end   the index following the last point to convert.
+         *
+         * @return the number of points that could not be converted.
+         */
+        int convert(int start, int end);
+    }
+
+    protected int convert(int count, BlockConverter converter)
+    {
+        if (this.pool == null || count <= BLOCK_SIZE)
+            return converter.convert(0, count);
+
+        return this.pool.invoke(new ConvertTask(converter, 0, count));
+    }
+
+    /** Divides a range of points into blocks of at most {@link #BLOCK_SIZE} points and converts them in parallel. */
+    protected static class ConvertTask extends RecursiveTask<Integer>
+    {
+        protected final BlockConverter converter;
+        protected final int start;
+        protected final int end;
+
+        public ConvertTask(BlockConverter converter, int start, int end)
+        {
+            this.converter = converter;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected Integer compute()
+        {
+            if (this.end - this.start <= BLOCK_SIZE)
+                return this.converter.convert(this.start, this.end);
+
+            // Split on a block boundary so that every block but the last is full.
+            int blocks = (this.end - this.start + BLOCK_SIZE - 1) / BLOCK_SIZE;
+            int mid = this.start + (blocks / 2) * BLOCK_SIZE;
+
+            ConvertTask left = new ConvertTask(this.converter, this.start, mid);
+            left.fork();
+            int failures = new ConvertTask(this.converter, mid, this.end).compute();
+
+            return failures + left.join();
+        }
+    }
+
+    protected static void checkArrays(int count, Object... arrays)
+    {
+        if (count < 0)
+        {
+            String message = Logging.getMessage("generic.ArgumentOutOfRange", count);
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        for (Object array : arrays)
+        {
+            if (array == null)
+            {
+                String message = Logging.getMessage("nullValue.ArrayIsNull");
+                Logging.logger().severe(message);
+                throw new IllegalArgumentException(message);
+            }
+
+            int length = java.lang.reflect.Array.getLength(array);
+            if (length < count)
+            {
+                String message = Logging.getMessage("generic.ArrayInvalidLength", length);
+                Logging.logger().severe(message);
+                throw new IllegalArgumentException(message);
+            }
+        }
+    }
+}
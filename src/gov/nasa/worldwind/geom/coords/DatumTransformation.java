@@ -28,6 +28,14 @@ public class DatumTransformation
         EllipsoidalGlobe.makeElevationModel(AVKey.EARTH_ELEVATION_MODEL_CONFIG_FILE,
             "config/Earth/EarthElevations2.xml"));
 
+    // todo cite source for shift values
+    private final static double DX_NAD27_TO_WGS84 = -8.0;
+    private final static double DY_NAD27_TO_WGS84 = 160;
+    private final static double DZ_NAD27_TO_WGS84 = 176;
+
+    private final static double DEGREES_TO_RADIANS = Math.PI / 180d;
+    private final static double RADIANS_TO_DEGREES = 180d / Math.PI;
+
     /**
      * Shift datum from NAD27 to WGS84
      *
@@ -46,13 +54,10 @@ public class DatumTransformation
             throw new IllegalArgumentException(message);
         }
 
-        //todo cite source for shift values
-        double dx_nad27_to_wgs84 = -8.0;
-        double dy_nad27_to_wgs84 = 160;
-        double dz_nad27_to_wgs84 = 176;
+        double[] result = new double[3];
+        nad27ToWGS84(pos.getLatitude().radians, pos.getLongitude().radians, pos.getElevation(), result, 0);
 
-        return DatumTransformation.threeParamMolodenski(pos, CLARKE1866_GLOBE, new Earth(),
-            dx_nad27_to_wgs84, dy_nad27_to_wgs84, dz_nad27_to_wgs84);
+        return Position.fromRadians(result[0], result[1], result[2]);
     }
 
     /**
@@ -73,49 +78,144 @@ public class DatumTransformation
             throw new IllegalArgumentException(message);
         }
 
-        //todo cite source for shift values
-        double dx_wgs84_to_nad27 = 8.0;
-        double dy_wgs84_to_nad27 = -160;
-        double dz_wgs84_to_nad27 = -176;
+        double[] result = new double[3];
+        wgs84ToNad27(pos.getLatitude().radians, pos.getLongitude().radians, pos.getElevation(), result, 0);
+
+        return Position.fromRadians(result[0], result[1], result[2]);
+    }
+
+    /**
+     * Shift the datum of a list of positions from NAD27 to WGS84. The positions are packed as latitude and longitude
+     * in degrees followed by elevation in meters. This method allocates no objects, and may be called concurrently
+     * from any number of threads. {@link BatchCoordConverter} divides large lists among the threads of a fork/join
+     * pool.
+     *
+     * @param positions the original positions in NAD27.
+     * @param count     the number of positions to shift.
+     * @param out       an array to hold the positions in WGS84. May be the same array as <code>positions</code>.
+     *
+     * @throws IllegalArgumentException if either array is null or shorter than <code>3 * count</code>, or if
+     *                                  <code>count</code> is negative.
+     */
+    public static void convertNad27toWGS84(double[] positions, int count, double[] out)
+    {
+        checkPackedArrays(count, positions, out);
+
+        convertNad27toWGS84(positions, 0, count, out);
+    }
+
+    /**
+     * Shift the datum of a list of positions from WGS84 to NAD27. See {@link #convertNad27toWGS84(double[], int,
+     * double[])} for a description of the arguments.
+     *
+     * @param positions the original positions in WGS84.
+     * @param count     the number of positions to shift.
+     * @param out       an array to hold the positions in NAD27. May be the same array as <code>positions</code>.
+     *
+     * @throws IllegalArgumentException if either array is null or shorter than <code>3 * count</code>, or if
+     *                                  <code>count</code> is negative.
+     */
+    public static void convertWGS84toNad27(double[] positions, int count, double[] out)
+    {
+        checkPackedArrays(count, positions, out);
+
+        convertWGS84toNad27(positions, 0, count, out);
+    }
+
+    static void convertNad27toWGS84(double[] positions, int start, int end, double[] out)
+    {
+        for (int i = 3 * start; i < 3 * end; i += 3)
+        {
+            nad27ToWGS84(DEGREES_TO_RADIANS * positions[i], DEGREES_TO_RADIANS * positions[i + 1], positions[i + 2],
+                out, i);
+            out[i] *= RADIANS_TO_DEGREES;
+            out[i + 1] *= RADIANS_TO_DEGREES;
+        }
+    }
+
+    static void convertWGS84toNad27(double[] positions, int start, int end, double[] out)
+    {
+        for (int i = 3 * start; i < 3 * end; i += 3)
+        {
+            wgs84ToNad27(DEGREES_TO_RADIANS * positions[i], DEGREES_TO_RADIANS * positions[i + 1], positions[i + 2],
+                out, i);
+            out[i] *= RADIANS_TO_DEGREES;
+            out[i + 1] *= RADIANS_TO_DEGREES;
+        }
+    }
+
+    static void checkPackedArrays(int count, double[]... arrays)
+    {
+        if (count < 0)
+        {
+            String message = Logging.getMessage("generic.ArgumentOutOfRange", count);
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        for (double[] array : arrays)
+        {
+            if (array == null)
+            {
+                String message = Logging.getMessage("nullValue.ArrayIsNull");
+                Logging.logger().severe(message);
+                throw new IllegalArgumentException(message);
+            }
+
+            if (array.length < 3 * count)
+            {
+                String message = Logging.getMessage("generic.ArrayInvalidLength", array.length);
+                Logging.logger().severe(message);
+                throw new IllegalArgumentException(message);
+            }
+        }
+    }
 
-        return DatumTransformation.threeParamMolodenski(pos, new Earth(), CLARKE1866_GLOBE,
-            dx_wgs84_to_nad27, dy_wgs84_to_nad27, dz_wgs84_to_nad27);
+    private static void nad27ToWGS84(double lat, double lon, double elevation, double[] out, int offset)
+    {
+        threeParamMolodenski(lat, lon, elevation, Clarke1866_EQUATORIAL_RADIUS, Clarke1866_POLAR_RADIUS,
+            Clarke1866_ES, Earth.WGS84_EQUATORIAL_RADIUS, Earth.WGS84_POLAR_RADIUS,
+            DX_NAD27_TO_WGS84, DY_NAD27_TO_WGS84, DZ_NAD27_TO_WGS84, out, offset);
     }
 
-    private static Position threeParamMolodenski(Position source, Globe fromGlobe, Globe toGlobe,
-        double dx, double dy, double dz)
+    private static void wgs84ToNad27(double lat, double lon, double elevation, double[] out, int offset)
     {
+        threeParamMolodenski(lat, lon, elevation, Earth.WGS84_EQUATORIAL_RADIUS, Earth.WGS84_POLAR_RADIUS,
+            Earth.WGS84_ES, Clarke1866_EQUATORIAL_RADIUS, Clarke1866_POLAR_RADIUS,
+            -DX_NAD27_TO_WGS84, -DY_NAD27_TO_WGS84, -DZ_NAD27_TO_WGS84, out, offset);
+    }
 
-        double sinLat = Math.sin(source.getLatitude().getRadians());
-        double cosLat = Math.cos(source.getLatitude().getRadians());
-        double sinLon = Math.sin(source.getLongitude().getRadians());
-        double cosLon = Math.cos(source.getLongitude().getRadians());
+    private static void threeParamMolodenski(double lat, double lon, double elevation, double fromEquatorialRadius,
+        double fromPolarRadius, double fromEs, double toEquatorialRadius, double toPolarRadius,
+        double dx, double dy, double dz, double[] out, int offset)
+    {
+        double sinLat = Math.sin(lat);
+        double cosLat = Math.cos(lat);
+        double sinLon = Math.sin(lon);
+        double cosLon = Math.cos(lon);
         double sinLatsquared = sinLat * sinLat;
-        double fromF = (fromGlobe.getEquatorialRadius() - fromGlobe.getPolarRadius()) / fromGlobe.getEquatorialRadius();
-        double toF = (toGlobe.getEquatorialRadius() - toGlobe.getPolarRadius()) / toGlobe.getEquatorialRadius();
+        double fromF = (fromEquatorialRadius - fromPolarRadius) / fromEquatorialRadius;
+        double toF = (toEquatorialRadius - toPolarRadius) / toEquatorialRadius;
         double dF = toF - fromF;
         double adb = 1.0 / (1.0 - fromF);
 
-        double dEquatorialRadius = (toGlobe.getEquatorialRadius() - fromGlobe.getEquatorialRadius());
+        double dEquatorialRadius = (toEquatorialRadius - fromEquatorialRadius);
 
-        double rn = fromGlobe.getEquatorialRadius() / Math.sqrt(
-            1.0 - fromGlobe.getEccentricitySquared() * sinLatsquared);
-        double rm = fromGlobe.getEquatorialRadius() * (1. - fromGlobe.getEccentricitySquared()) /
-            Math.pow((1.0 - fromGlobe.getEccentricitySquared() * sinLatsquared), 1.5);
+        double rn = fromEquatorialRadius / Math.sqrt(1.0 - fromEs * sinLatsquared);
+        double rm = fromEquatorialRadius * (1. - fromEs) / Math.pow((1.0 - fromEs * sinLatsquared), 1.5);
 
         double dLat = (((((-dx * sinLat * cosLon - dy * sinLat * sinLon) + dz * cosLat)
-            + (dEquatorialRadius * ((rn * fromGlobe.getEccentricitySquared() * sinLat * cosLat)
-            / fromGlobe.getEquatorialRadius())))
+            + (dEquatorialRadius * ((rn * fromEs * sinLat * cosLat) / fromEquatorialRadius)))
             + (dF * (rm * adb + rn / adb) * sinLat * cosLat)))
-            / (rm + source.getElevation());
+            / (rm + elevation);
 
-        double dLon = (-dx * sinLon + dy * cosLon) / ((rn + source.getElevation()) * cosLat);
+        double dLon = (-dx * sinLon + dy * cosLon) / ((rn + elevation) * cosLat);
 
         double dh = (dx * cosLat * cosLon) + (dy * cosLat * sinLon) + (dz * sinLat)
-            - (dEquatorialRadius * (fromGlobe.getEquatorialRadius() / rn)) + ((dF * rn * sinLatsquared) / adb);
+            - (dEquatorialRadius * (fromEquatorialRadius / rn)) + ((dF * rn * sinLatsquared) / adb);
 
-        return Position.fromRadians(source.getLatitude().getRadians() + dLat,
-            source.getLongitude().getRadians() + dLon, source.getElevation() + dh);
+        out[offset] = lat + dLat;
+        out[offset + 1] = lon + dLon;
+        out[offset + 2] = elevation + dh;
     }
 }
-
@@ -75,6 +75,9 @@ class MGRSCoordConverter
     private double north, south, min_northing, northing_offset;  //smithjl added north_offset
     private double latitude;
     private double longitude;
+    // Geodetic to UTM and UPS converters, reused by successive conversions.
+    private UTMCoordConverter utmConverter;
+    private UPSCoordConverter upsConverter;
 
     private static final int LETTER_A = 0;   /* ARRAY INDEX FOR LETTER A               */
     private static final int LETTER_B = 1;   /* ARRAY INDEX FOR LETTER B               */
@@ -649,8 +652,13 @@ class MGRSCoordConverter
                 // TODO: polar
                 try
                 {
-                    UPSCoord UPS =
-                        UPSCoord.fromLatLon(Angle.fromRadians(latitude), Angle.fromRadians(longitude), globe);
+                    if (this.upsConverter == null)
+                        this.upsConverter = new UPSCoordConverter(globe);
+
+                    UPSCoordConverter UPS = this.upsConverter;
+                    if (UPS.convertGeodeticToUPS(latitude, longitude) != UPSCoordConverter.UPS_NO_ERROR)
+                        return MGRS_UPS_ERROR;
+
                     error_code |= convertUPSToMGRS(UPS.getHemisphere(), UPS.getEasting(),
                         UPS.getNorthing(), precision);
                 }
@@ -663,8 +671,13 @@ class MGRSCoordConverter
             {
                 try
                 {
-                    UTMCoord UTM =
-                        UTMCoord.fromLatLon(Angle.fromRadians(latitude), Angle.fromRadians(longitude), globe);
+                    if (this.utmConverter == null)
+                        this.utmConverter = new UTMCoordConverter(globe);
+
+                    UTMCoordConverter UTM = this.utmConverter;
+                    if (UTM.convertGeodeticToUTM(latitude, longitude) != UTMCoordConverter.UTM_NO_ERROR)
+                        return MGRS_UTM_ERROR;
+
                     error_code |= convertUTMToMGRS(UTM.getZone(), latitude, UTM.getEasting(),
                         UTM.getNorthing(), precision);
                 }
@@ -983,17 +996,21 @@ class MGRSCoordConverter
         long north;
         long error_code = MGRS_NO_ERROR;
 
+        StringBuilder sb = new StringBuilder(16);
         if (Zone != 0)
-            MGRSString = String.format("%02d", Zone);
+            sb.append(Zone < 10 ? "0" : "").append(Zone);
         else
-            MGRSString = "  ";
+            sb.append("  ");
 
         for (j = 0; j < 3; j++)
         {
 
             if (Letters[j] < 0 || Letters[j] > 26)
+            {
+                MGRSString = sb.toString();
                 return MGRS_ZONE_ERROR;  // TODO: Find out why this happens
-            MGRSString = MGRSString + alphabet.charAt((int) Letters[j]);
+            }
+            sb.append(alphabet.charAt((int) Letters[j]));
         }
 
         divisor = Math.pow(10.0, (5 - Precision));
@@ -1003,42 +1020,42 @@ class MGRSCoordConverter
         east = (long) (Easting / divisor);
 
         // Here we need to only use the number requesting in the precision
-        Integer iEast = (int) east;
-        String sEast = iEast.toString();
-        if (sEast.length() > Precision)
-            sEast = sEast.substring(0, (int) Precision - 1);
-        else
-        {
-            int i;
-            int length = sEast.length();
-            for (i = 0; i < Precision - length; i++)
-            {
-                sEast = "0" + sEast;
-            }
-        }
-        MGRSString = MGRSString + " " + sEast;
+        this.appendDigits(sb.append(' '), (int) east, Precision);
 
         Northing = Northing % 100000.0;
         if (Northing >= 99999.5)
             Northing = 99999.0;
         north = (long) (Northing / divisor);
 
-        Integer iNorth = (int) north;
-        String sNorth = iNorth.toString();
-        if (sNorth.length() > Precision)
-            sNorth = sNorth.substring(0, (int) Precision - 1);
+        this.appendDigits(sb.append(' '), (int) north, Precision);
+        MGRSString = sb.toString();
+
+        return (error_code);
+    }
+
+    /**
+     * Appends an easting or northing value to an MGRS string, padded with leading zeros to the precision's number of
+     * digits.
+     *
+     * @param sb        the MGRS string.
+     * @param value     the easting or northing value in units of the precision.
+     * @param Precision Precision level of MGRS string
+     */
+    private void appendDigits(StringBuilder sb, int value, long Precision)
+    {
+        String digits = Integer.toString(value);
+        if (digits.length() > Precision)
+        {
+            sb.append(digits, 0, (int) Precision - 1);
+        }
         else
         {
-            int i;
-            int length = sNorth.length();
-            for (i = 0; i < Precision - length; i++)
+            for (long i = digits.length(); i < Precision; i++)
             {
-                sNorth = "0" + sNorth;
+                sb.append('0');
             }
+            sb.append(digits);
         }
-        MGRSString = MGRSString + " " + sNorth;
-
-        return (error_code);
     }
 
     /**
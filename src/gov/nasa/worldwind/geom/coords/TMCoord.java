@@ -93,6 +93,82 @@ public class TMCoord
                 originLatitude, centralMeridian, falseEasting, falseNorthing, scale);
     }
 
+    /**
+     * Computes the Transverse Mercator coordinates of a grid of latitudes and longitudes, for the given
+     * <code>Globe</code> and projection parameters. The grid's points are every combination of the specified latitudes
+     * and longitudes, in row-major order with latitude varying slowest. Each point's easting and northing are identical
+     * to those of the <code>TMCoord</code> returned by {@link #fromLatLon(Angle, Angle, Globe, Double, Double, Angle,
+     * Angle, double, double, double)} for that point, but the terms that depend on only latitude or only longitude are
+     * computed once per grid row or column.
+     *
+     * @param latitudes the grid's latitudes in radians.
+     * @param longitudes the grid's longitudes in radians.
+     * @param globe the <code>Globe</code> - can be null (will use WGS84).
+     * @param a semi-major ellipsoid radius. If this and argument f are non-null and globe is null, will use the
+     * specified a and f.
+     * @param f ellipsoid flattening. If this and argument a are non-null and globe is null, will use the specified a
+     * and f.
+     * @param originLatitude the origin latitude <code>Angle</code>.
+     * @param centralMeridian the central meridian longitude <code>Angle</code>.
+     * @param falseEasting easting value at the center of the projection in meters.
+     * @param falseNorthing northing value at the center of the projection in meters.
+     * @param scale scaling factor.
+     * @param eastings the array in which to return the grid's eastings.
+     * @param northings the array in which to return the grid's northings.
+     * @throws IllegalArgumentException if any argument array, <code>originLatitude</code> or
+     * <code>centralMeridian</code> is null, if an output array is shorter than the number of grid points, or the
+     * conversion of any grid point to TM coordinates fails.
+     */
+    public static void fromLatLonGrid(double[] latitudes, double[] longitudes, Globe globe, Double a, Double f,
+                   Angle originLatitude, Angle centralMeridian,
+                   double falseEasting, double falseNorthing,
+                   double scale, double[] eastings, double[] northings)
+    {
+        if (latitudes == null || longitudes == null || eastings == null || northings == null)
+        {
+            String message = Logging.getMessage("nullValue.ArrayIsNull");
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+        if (originLatitude == null || centralMeridian == null)
+        {
+            String message = Logging.getMessage("nullValue.AngleIsNull");
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+        int numPoints = latitudes.length * longitudes.length;
+        if (eastings.length < numPoints || northings.length < numPoints)
+        {
+            String message = Logging.getMessage("generic.ArrayInvalidLength",
+                Math.min(eastings.length, northings.length));
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        final TMCoordConverter converter = new TMCoordConverter();
+        if (globe != null)
+        {
+            a = globe.getEquatorialRadius();
+            f = (globe.getEquatorialRadius() - globe.getPolarRadius()) / globe.getEquatorialRadius();
+        }
+        else if (a == null || f == null)
+        {
+            a = converter.getA();
+            f = converter.getF();
+        }
+        long err = converter.setTransverseMercatorParameters(a, f, originLatitude.radians, centralMeridian.radians,
+                falseEasting, falseNorthing, scale);
+        if (err == TMCoordConverter.TRANMERC_NO_ERROR)
+            err = converter.convertGeodeticToTransverseMercator(latitudes, longitudes, eastings, northings);
+
+        if ((err & ~TMCoordConverter.TRANMERC_LON_WARNING) != TMCoordConverter.TRANMERC_NO_ERROR)
+        {
+            String message = Logging.getMessage("Coord.TMConversionError");
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+    }
+
     /**
      * Create a set of Transverse Mercator coordinates for the given <code>Globe</code>,
      * easting, northing and projection parameters.
@@ -336,6 +336,143 @@ class TMCoordConverter
         return (Error_Code);
     }
 
+    /**
+     * Converts a grid of geodetic coordinates to Transverse Mercator coordinates, according to the current ellipsoid
+     * and Transverse Mercator projection parameters. The grid's points are every combination of the specified
+     * latitudes and longitudes, in row-major order with latitude varying slowest. The terms of {@link
+     * #convertGeodeticToTransverseMercator(double, double)} that depend only on latitude are computed once per row,
+     * and those that depend only on longitude are computed once per column, so the grid requires trigonometric
+     * functions in proportion to its number of rows plus its number of columns rather than its number of points. Each
+     * point's easting and northing are identical to those computed by converting the point individually. Points whose
+     * latitude or longitude are out of range are left unchanged in the output arrays.
+     *
+     * @param latitudes  the grid's latitudes in radians.
+     * @param longitudes the grid's longitudes in radians.
+     * @param eastings   the array in which to return the eastings, at least the number of grid points long.
+     * @param northings  the array in which to return the northings, at least the number of grid points long.
+     *
+     * @return the combined error codes of all the grid's points.
+     */
+    public long convertGeodeticToTransverseMercator(double[] latitudes, double[] longitudes, double[] eastings,
+        double[] northings)
+    {
+        int numLon = longitudes.length;
+        long Error_Code = TRANMERC_NO_ERROR;
+
+        // The powers of delta longitude for each column, in the order dlam, dlam^2, ..., dlam^8.
+        double[] dlamPowers = new double[8 * numLon];
+        boolean[] lonValid = new boolean[numLon];
+        for (int i = 0; i < numLon; i++)
+        {
+            double Longitude = longitudes[i];
+            if (Longitude > PI)
+                Longitude -= (2 * PI);
+            if ((Longitude < (TranMerc_Origin_Long - MAX_DELTA_LONG))
+                || (Longitude > (TranMerc_Origin_Long + MAX_DELTA_LONG)))
+            {
+                double temp_Long = Longitude < 0 ? Longitude + 2 * PI : Longitude;
+                double temp_Origin = TranMerc_Origin_Long < 0 ? TranMerc_Origin_Long + 2 * PI : TranMerc_Origin_Long;
+                if ((temp_Long < (temp_Origin - MAX_DELTA_LONG))
+                    || (temp_Long > (temp_Origin + MAX_DELTA_LONG)))
+                {
+                    Error_Code |= TRANMERC_LON_ERROR;
+                    continue;
+                }
+            }
+
+            double dlam = Longitude - TranMerc_Origin_Long;
+            if (Math.abs(dlam) > (9.0 * PI / 180))
+                Error_Code |= TRANMERC_LON_WARNING;
+            if (dlam > PI)
+                dlam -= (2 * PI);
+            if (dlam < -PI)
+                dlam += (2 * PI);
+            if (Math.abs(dlam) < 2.e-10)
+                dlam = 0.0;
+
+            int k = 8 * i;
+            dlamPowers[k] = dlam;
+            for (int p = 1; p < 8; p++)
+            {
+                dlamPowers[k + p] = Math.pow(dlam, p + 1);
+            }
+            lonValid[i] = true;
+        }
+
+        double tmdo = TranMerc_ap * TranMerc_Origin_Lat
+            - TranMerc_bp * Math.sin(2.0 * TranMerc_Origin_Lat)
+            + TranMerc_cp * Math.sin(4.0 * TranMerc_Origin_Lat)
+            - TranMerc_dp * Math.sin(6.0 * TranMerc_Origin_Lat)
+            + TranMerc_ep * Math.sin(8.0 * TranMerc_Origin_Lat);
+
+        for (int j = 0, pos = 0; j < latitudes.length; j++, pos += numLon)
+        {
+            double Latitude = latitudes[j];
+            if ((Latitude < -MAX_LAT) || (Latitude > MAX_LAT))
+            {
+                Error_Code |= TRANMERC_LAT_ERROR;
+                continue;
+            }
+
+            // The latitude terms, computed exactly as convertGeodeticToTransverseMercator computes them.
+            double s = Math.sin(Latitude);
+            double c = Math.cos(Latitude);
+            double c2 = c * c;
+            double c3 = c2 * c;
+            double c5 = c3 * c2;
+            double c7 = c5 * c2;
+            double t = Math.tan(Latitude);
+            double tan2 = t * t;
+            double tan3 = tan2 * t;
+            double tan4 = tan3 * t;
+            double tan5 = tan4 * t;
+            double tan6 = tan5 * t;
+            double eta = TranMerc_ebs * c2;
+            double eta2 = eta * eta;
+            double eta3 = eta2 * eta;
+            double eta4 = eta3 * eta;
+            double sn = TranMerc_a / Math.sqrt(1 - TranMerc_es * Math.pow(Math.sin(Latitude), 2));
+            double tmd = TranMerc_ap * Latitude
+                - TranMerc_bp * Math.sin(2.0 * Latitude)
+                + TranMerc_cp * Math.sin(4.0 * Latitude)
+                - TranMerc_dp * Math.sin(6.0 * Latitude)
+                + TranMerc_ep * Math.sin(8.0 * Latitude);
+
+            double t1 = (tmd - tmdo) * TranMerc_Scale_Factor;
+            double t2 = sn * s * c * TranMerc_Scale_Factor / 2.e0;
+            double t3 = sn * s * c3 * TranMerc_Scale_Factor * (5.e0 - tan2 + 9.e0 * eta
+                + 4.e0 * eta2) / 24.e0;
+            double t4 = sn * s * c5 * TranMerc_Scale_Factor * (61.e0 - 58.e0 * tan2
+                + tan4 + 270.e0 * eta - 330.e0 * tan2 * eta + 445.e0 * eta2
+                + 324.e0 * eta3 - 680.e0 * tan2 * eta2 + 88.e0 * eta4
+                - 600.e0 * tan2 * eta3 - 192.e0 * tan2 * eta4) / 720.e0;
+            double t5 = sn * s * c7 * TranMerc_Scale_Factor * (1385.e0 - 3111.e0 *
+                tan2 + 543.e0 * tan4 - tan6) / 40320.e0;
+            double t6 = sn * c * TranMerc_Scale_Factor;
+            double t7 = sn * c3 * TranMerc_Scale_Factor * (1.e0 - tan2 + eta) / 6.e0;
+            double t8 = sn * c5 * TranMerc_Scale_Factor * (5.e0 - 18.e0 * tan2 + tan4
+                + 14.e0 * eta - 58.e0 * tan2 * eta + 13.e0 * eta2 + 4.e0 * eta3
+                - 64.e0 * tan2 * eta2 - 24.e0 * tan2 * eta3) / 120.e0;
+            double t9 = sn * c7 * TranMerc_Scale_Factor * (61.e0 - 479.e0 * tan2
+                + 179.e0 * tan4 - tan6) / 5040.e0;
+
+            for (int i = 0; i < numLon; i++)
+            {
+                if (!lonValid[i])
+                    continue;
+
+                int k = 8 * i;
+                northings[pos + i] = TranMerc_False_Northing + t1 + dlamPowers[k + 1] * t2
+                    + dlamPowers[k + 3] * t3 + dlamPowers[k + 5] * t4
+                    + dlamPowers[k + 7] * t5;
+                eastings[pos + i] = TranMerc_False_Easting + dlamPowers[k] * t6 + dlamPowers[k + 2] * t7
+                    + dlamPowers[k + 4] * t8 + dlamPowers[k + 6] * t9;
+            }
+        }
+
+        return (Error_Code);
+    }
+
     /** @return Easting/X at the center of the projection */
     public double getEasting()
     {
@@ -8,6 +8,7 @@ package gov.nasa.worldwind.geom.coords;
 import gov.nasa.worldwind.avlist.AVKey;
 import gov.nasa.worldwind.geom.*;
 import gov.nasa.worldwind.globes.Globe;
+import gov.nasa.worldwind.util.Logging;
 
 /**
  * Converter used to translate UTM coordinates to and from geodetic latitude and longitude.
@@ -66,6 +67,7 @@ class UTMCoordConverter
     private double Latitude;
     private double Longitude;
     private double Central_Meridian;
+    private TMCoordConverter[] tmConverters;
 
     UTMCoordConverter(Globe globe)
     {
@@ -206,9 +208,13 @@ class UTMCoordConverter
 
                 try
                 {
-                    TMCoord TM = TMCoord.fromLatLon(Angle.fromRadians(Latitude), Angle.fromRadians(Longitude),
-                        this.globe, this.UTM_a, this.UTM_f, Angle.fromRadians(Origin_Latitude),
-                        Angle.fromRadians(Central_Meridian), False_Easting, False_Northing, Scale);
+                    TMCoordConverter TM = this.getTMConverter((int) temp_zone, Origin_Latitude, Central_Meridian,
+                        False_Easting, False_Northing, Scale);
+                    long TM_Error_Code = TM.convertGeodeticToTransverseMercator(Latitude, Longitude);
+                    if (TM_Error_Code != TMCoordConverter.TRANMERC_NO_ERROR
+                        && TM_Error_Code != TMCoordConverter.TRANMERC_LON_WARNING)
+                        return UTM_TM_ERROR;
+
                     Easting = TM.getEasting();
                     Northing = TM.getNorthing();
 
@@ -226,6 +232,57 @@ class UTMCoordConverter
         return (Error_Code);
     }
 
+    /**
+     * Returns the Transverse Mercator converter for a UTM zone and hemisphere. Converters are set up on first use and
+     * are reused by subsequent conversions in the same zone and hemisphere, which avoids repeating the projection
+     * setup for every point.
+     *
+     * @param zone             UTM zone, 1 to 60.
+     * @param Origin_Latitude  Latitude in radians at the origin of the projection
+     * @param Central_Meridian Longitude in radians at the center of the projection
+     * @param False_Easting    Easting/X at the center of the projection
+     * @param False_Northing   Northing/Y at the center of the projection, which identifies the hemisphere
+     * @param Scale            Projection scale factor
+     *
+     * @return the zone's Transverse Mercator converter.
+     *
+     * @throws IllegalArgumentException if the projection parameters are invalid.
+     */
+    private TMCoordConverter getTMConverter(int zone, double Origin_Latitude, double Central_Meridian,
+        double False_Easting, double False_Northing, double Scale)
+    {
+        if (this.tmConverters == null)
+            this.tmConverters = new TMCoordConverter[120];
+
+        int index = 2 * (zone - 1) + (False_Northing != 0 ? 1 : 0);
+        TMCoordConverter converter = this.tmConverters[index];
+        if (converter == null)
+        {
+            // Use the globe's ellipsoid when there is one, even if it was rejected as a UTM ellipsoid.
+            double a = this.UTM_a;
+            double f = this.UTM_f;
+            if (this.globe != null)
+            {
+                a = this.globe.getEquatorialRadius();
+                f = (this.globe.getEquatorialRadius() - this.globe.getPolarRadius()) / this.globe.getEquatorialRadius();
+            }
+
+            converter = new TMCoordConverter();
+            long err = converter.setTransverseMercatorParameters(a, f, Origin_Latitude, Central_Meridian,
+                False_Easting, False_Northing, Scale);
+            if (err != TMCoordConverter.TRANMERC_NO_ERROR)
+            {
+                String message = Logging.getMessage("Coord.TMConversionError");
+                Logging.logger().severe(message);
+                throw new IllegalArgumentException(message);
+            }
+
+            this.tmConverters[index] = converter;
+        }
+
+        return converter;
+    }
+
     /** @return Easting (X) in meters */
     public double getEasting()
     {
@@ -13,6 +13,7 @@ import gov.nasa.worldwind.terrain.*;
 import gov.nasa.worldwind.util.*;
 
 import java.io.IOException;
+import java.nio.FloatBuffer;
 import java.util.List;
 
 /**
@@ -28,6 +29,11 @@ import java.util.List;
  */
 public class EllipsoidalGlobe extends WWObjectImpl implements Globe
 {
+    /** The number of points converted at a time when filling a buffer with packed points. */
+    protected static final int POINT_BLOCK_SIZE = 1024;
+    protected static final double DEGREES_TO_RADIANS = Math.PI / 180d;
+    protected static final double RADIANS_TO_DEGREES = 180d / Math.PI;
+
     protected final double equatorialRadius;
     protected final double polarRadius;
     protected final double es;
@@ -601,6 +607,103 @@ public class EllipsoidalGlobe extends WWObjectImpl implements Globe
         this.geodeticToCartesian(sector, numLat, numLon, metersElevation, out);
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public void computePointsFromPositions(double[] positions, int count, Vec4 referenceCenter, double[] out)
+    {
+        checkPackedArray(count, positions);
+        checkPackedArray(count, out);
+
+        this.geodeticToCartesian(positions, count, referenceCenter, out);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void computePointsFromPositions(double[] positions, int count, Vec4 referenceCenter, FloatBuffer out)
+    {
+        checkPackedArray(count, positions);
+
+        if (out == null)
+        {
+            String message = Logging.getMessage("nullValue.BufferIsNull");
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        if (out.remaining() < 3 * count)
+        {
+            String message = Logging.getMessage("generic.BufferOverflow", out.remaining(), 3 * count);
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        // Convert in blocks so that the double precision points need only a small scratch array.
+        double[] points = new double[3 * Math.min(count, POINT_BLOCK_SIZE)];
+        double[] block = count > POINT_BLOCK_SIZE ? new double[points.length] : positions;
+        for (int start = 0; start < count; start += POINT_BLOCK_SIZE)
+        {
+            int n = Math.min(POINT_BLOCK_SIZE, count - start);
+            if (block != positions)
+                System.arraycopy(positions, 3 * start, block, 0, 3 * n);
+
+            this.geodeticToCartesian(block, n, referenceCenter, points);
+            for (int i = 0; i < 3 * n; i++)
+            {
+                out.put((float) points[i]);
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void computePositionsFromPoints(double[] points, int count, Vec4 referenceCenter, double[] out)
+    {
+        checkPackedArray(count, points);
+        checkPackedArray(count, out);
+
+        this.cartesianToGeodetic(points, count, referenceCenter, out);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public MutableVec4 computePointFromPosition(double latitude, double longitude, double metersElevation,
+        MutableVec4 result)
+    {
+        if (result == null)
+        {
+            String message = Logging.getMessage("nullValue.Vec4IsNull");
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        this.geodeticToCartesian(latitude, longitude, metersElevation, result);
+        return result;
+    }
+
+    protected static void checkPackedArray(int count, double[] array)
+    {
+        if (count < 0)
+        {
+            String message = Logging.getMessage("generic.ArgumentOutOfRange", count);
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        if (array == null)
+        {
+            String message = Logging.getMessage("nullValue.ArrayIsNull");
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        if (array.length < 3 * count)
+        {
+            String message = Logging.getMessage("generic.ArrayInvalidLength", array.length);
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+    }
+
     /**
      * Returns the normal to the Globe at the specified position.
      *
@@ -972,6 +1075,96 @@ public class EllipsoidalGlobe extends WWObjectImpl implements Globe
         }
     }
 
+    /**
+     * Maps a list of geographic positions to Cartesian coordinates, relative to an optional reference center. The
+     * positions are packed as latitude and longitude in degrees followed by elevation in meters, and the points are
+     * written as packed x, y and z coordinates. The arguments are not checked.
+     *
+     * @param positions       the positions as latitude, longitude and elevation triplets.
+     * @param count           the number of positions to convert.
+     * @param referenceCenter the point to subtract from each computed point. May be null.
+     * @param out             an array to hold the computed points. May be the same array as <code>positions</code>.
+     *
+     * @see #cartesianToGeodetic(double[], int, gov.nasa.worldwind.geom.Vec4, double[])
+     */
+    protected void geodeticToCartesian(double[] positions, int count, Vec4 referenceCenter, double[] out)
+    {
+        this.geodeticToEllipsoidal(positions, count, referenceCenter, out);
+    }
+
+    /**
+     * Maps a geographic position to Cartesian coordinates, storing the point in a caller-supplied vector. The
+     * arguments are not checked.
+     *
+     * @param latitude        the position's latitude in degrees.
+     * @param longitude       the position's longitude in degrees.
+     * @param metersElevation the position's elevation in meters.
+     * @param result          the vector in which to store the point.
+     */
+    protected void geodeticToCartesian(double latitude, double longitude, double metersElevation, MutableVec4 result)
+    {
+        this.geodeticToEllipsoidal(latitude, longitude, metersElevation, result);
+    }
+
+    /**
+     * Maps a geographic position to ellipsoidal coordinates, storing the point in a caller-supplied vector. The
+     * arguments are not checked.
+     *
+     * @param latitude        the position's latitude in degrees.
+     * @param longitude       the position's longitude in degrees.
+     * @param metersElevation the position's elevation in meters.
+     * @param result          the vector in which to store the point.
+     */
+    protected void geodeticToEllipsoidal(double latitude, double longitude, double metersElevation,
+        MutableVec4 result)
+    {
+        double lat = DEGREES_TO_RADIANS * latitude;
+        double lon = DEGREES_TO_RADIANS * longitude;
+
+        double cosLat = Math.cos(lat);
+        double sinLat = Math.sin(lat);
+        double cosLon = Math.cos(lon);
+        double sinLon = Math.sin(lon);
+        double rpm = this.equatorialRadius / Math.sqrt(1.0 - this.es * sinLat * sinLat);
+
+        result.set((rpm + metersElevation) * cosLat * sinLon, (rpm * (1.0 - this.es) + metersElevation) * sinLat,
+            (rpm + metersElevation) * cosLat * cosLon);
+    }
+
+    /**
+     * Maps a list of geographic positions to ellipsoidal coordinates, relative to an optional reference center. See
+     * {@link #geodeticToCartesian(double[], int, gov.nasa.worldwind.geom.Vec4, double[])} for a description of the
+     * arguments.
+     *
+     * @param positions       the positions as latitude, longitude and elevation triplets.
+     * @param count           the number of positions to convert.
+     * @param referenceCenter the point to subtract from each computed point. May be null.
+     * @param out             an array to hold the computed points. May be the same array as <code>positions</code>.
+     */
+    protected void geodeticToEllipsoidal(double[] positions, int count, Vec4 referenceCenter, double[] out)
+    {
+        double rx = referenceCenter != null ? referenceCenter.x : 0;
+        double ry = referenceCenter != null ? referenceCenter.y : 0;
+        double rz = referenceCenter != null ? referenceCenter.z : 0;
+
+        for (int i = 0; i < 3 * count; i += 3)
+        {
+            double lat = DEGREES_TO_RADIANS * positions[i];
+            double lon = DEGREES_TO_RADIANS * positions[i + 1];
+            double elev = positions[i + 2];
+
+            double cosLat = Math.cos(lat);
+            double sinLat = Math.sin(lat);
+            double cosLon = Math.cos(lon);
+            double sinLon = Math.sin(lon);
+            double rpm = this.equatorialRadius / Math.sqrt(1.0 - this.es * sinLat * sinLat);
+
+            out[i] = (rpm + elev) * cosLat * sinLon - rx;
+            out[i + 1] = (rpm * (1.0 - this.es) + elev) * sinLat - ry;
+            out[i + 2] = (rpm + elev) * cosLat * cosLon - rz;
+        }
+    }
+
 //    protected Position cartesianToGeodeticOriginal(Vec4 cart)
 //    {
 //        if (cart == null)
@@ -1049,14 +1242,72 @@ public class EllipsoidalGlobe extends WWObjectImpl implements Globe
             throw new IllegalArgumentException(message);
         }
 
+        double[] position = new double[3];
+        this.ellipsoidalToGeodetic(cart.x, cart.y, cart.z, position, 0);
+
+        return Position.fromRadians(position[0], position[1], position[2]);
+    }
+
+    /**
+     * Maps a list of Cartesian points to geographic positions. The points are packed x, y and z coordinates relative
+     * to an optional reference center, and the positions are written as packed latitude and longitude in degrees
+     * followed by elevation in meters. The arguments are not checked.
+     *
+     * @param points          the points as x, y and z triplets.
+     * @param count           the number of points to convert.
+     * @param referenceCenter the point to add to each point before it is converted. May be null.
+     * @param out             an array to hold the computed positions. May be the same array as <code>points</code>.
+     *
+     * @see #geodeticToCartesian(double[], int, gov.nasa.worldwind.geom.Vec4, double[])
+     */
+    protected void cartesianToGeodetic(double[] points, int count, Vec4 referenceCenter, double[] out)
+    {
+        this.ellipsoidalToGeodetic(points, count, referenceCenter, out);
+    }
+
+    /**
+     * Maps a list of ellipsoidal points to geographic positions. See {@link #cartesianToGeodetic(double[], int,
+     * gov.nasa.worldwind.geom.Vec4, double[])} for a description of the arguments.
+     *
+     * @param points          the points as x, y and z triplets.
+     * @param count           the number of points to convert.
+     * @param referenceCenter the point to add to each point before it is converted. May be null.
+     * @param out             an array to hold the computed positions. May be the same array as <code>points</code>.
+     */
+    protected void ellipsoidalToGeodetic(double[] points, int count, Vec4 referenceCenter, double[] out)
+    {
+        double rx = referenceCenter != null ? referenceCenter.x : 0;
+        double ry = referenceCenter != null ? referenceCenter.y : 0;
+        double rz = referenceCenter != null ? referenceCenter.z : 0;
+
+        for (int i = 0; i < 3 * count; i += 3)
+        {
+            this.ellipsoidalToGeodetic(points[i] + rx, points[i + 1] + ry, points[i + 2] + rz, out, i);
+            out[i] *= RADIANS_TO_DEGREES;
+            out[i + 1] *= RADIANS_TO_DEGREES;
+        }
+    }
+
+    /**
+     * Computes the geographic position of an ellipsoidal point.
+     *
+     * @param x      the point's x coordinate.
+     * @param y      the point's y coordinate.
+     * @param z      the point's z coordinate.
+     * @param out    receives the position's latitude and longitude in radians followed by its elevation in meters.
+     * @param offset the index in <code>out</code> of the latitude.
+     */
+    @SuppressWarnings({"SuspiciousNameCombination"})
+    protected void ellipsoidalToGeodetic(double x, double y, double z, double[] out, int offset)
+    {
         // According to
         // H. Vermeille,
         // "An analytical method to transform geocentric into geodetic coordinates"
         // http://www.springerlink.com/content/3t6837t27t351227/fulltext.pdf
         // Journal of Geodesy, accepted 10/2010, not yet published
-        double X = cart.z;
-        double Y = cart.x;
-        double Z = cart.y;
+        double X = z;
+        double Y = x;
+        double Z = y;
         double XXpYY = X * X + Y * Y;
         double sqrtXXpYY = Math.sqrt(XXpYY);
 
@@ -1147,7 +1398,9 @@ public class EllipsoidalGlobe extends WWObjectImpl implements Globe
             lambda = Math.PI * 0.5 - 2 * Math.atan2(X, sqrtXXpYY + Y);
         }
 
-        return Position.fromRadians(phi, lambda, h);
+        out[offset] = phi;
+        out[offset + 1] = lambda;
+        out[offset + 2] = h;
     }
 //
 //    /**
@@ -44,6 +44,19 @@ public class FlatGlobe extends EllipsoidalGlobe implements Globe2D
         Configuration.getStringValue(AVKey.GEOGRAPHIC_PROJECTION_CLASS_NAME,
             "gov.nasa.worldwind.globes.projections.ProjectionEquirectangular"));
 
+    /**
+     * The packed position reused by each thread to convert single positions with the projection's packed array method.
+     * Flat globes may be used from several threads at once, so the array is kept per thread rather than per globe.
+     */
+    protected static final ThreadLocal<double[]> scratchPoint = new ThreadLocal<double[]>()
+    {
+        @Override
+        protected double[] initialValue()
+        {
+            return new double[3];
+        }
+    };
+
     protected boolean continuous;
     protected int offset;
     protected Vec4 offsetVector = Vec4.ZERO;
@@ -427,6 +440,40 @@ public class FlatGlobe extends EllipsoidalGlobe implements Globe2D
         return pos;
     }
 
+    @Override
+    protected void geodeticToCartesian(double[] positions, int count, Vec4 referenceCenter, double[] out)
+    {
+        this.projection.geographicToCartesian(this, positions, count, this.offsetVector, referenceCenter, out);
+    }
+
+    @Override
+    protected void geodeticToCartesian(double latitude, double longitude, double metersElevation, MutableVec4 result)
+    {
+        double[] point = scratchPoint.get();
+        point[0] = latitude;
+        point[1] = longitude;
+        point[2] = metersElevation;
+        this.projection.geographicToCartesian(this, point, 1, this.offsetVector, null, point);
+        result.set(point[0], point[1], point[2]);
+    }
+
+    @Override
+    protected void cartesianToGeodetic(double[] points, int count, Vec4 referenceCenter, double[] out)
+    {
+        this.projection.cartesianToGeographic(this, points, count, this.offsetVector, referenceCenter, out);
+        if (this.isContinuous())
+        {
+            // Wrap if the globe is continuous.
+            for (int i = 1; i < 3 * count; i += 3)
+            {
+                if (out[i] < -180)
+                    out[i] += 360;
+                else if (out[i] > 180)
+                    out[i] -= 360;
+            }
+        }
+    }
+
 //
 //    /**
 //     * Returns a cylinder that minimally surrounds the specified minimum and maximum elevations in the sector at a
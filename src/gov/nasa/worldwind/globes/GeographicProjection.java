@@ -102,6 +102,28 @@ public interface GeographicProjection
     void geographicToCartesian(Globe globe, Sector sector, int numLat, int numLon, double[] metersElevation,
         Vec4 offset, Vec4[] out);
 
+    /**
+     * Converts a list of geographic positions to points in Cartesian coordinates, without creating an object for each
+     * point. The positions are packed as latitude and longitude in degrees followed by elevation in meters. The points
+     * are written as packed x, y and z coordinates relative to an optional reference center.
+     * <p/>
+     * Note: The input arguments are not checked prior to being used. The caller, typically a {@link Globe2D}
+     * implementation, is expected do perform that check prior to calling this method.
+     * @param globe           The globe this projection is applied to.
+     * @param positions       The positions as latitude, longitude and elevation triplets.
+     * @param count           The number of positions to convert.
+     * @param offset          An optional offset to be applied to the Cartesian output. Typically only projections that
+     *                        are continuous (see {@link #isContinuous()} apply this offset. Others ignore it. May be
+     *                        null.
+     * @param referenceCenter An optional point to subtract from each Cartesian point. May be null.
+     * @param out             An array to hold the computed points. It must have a length of at least <code>3 x
+     *                        count</code>. It may be the same array as <code>positions</code>.
+     * @see #cartesianToGeographic(Globe, double[], int, gov.nasa.worldwind.geom.Vec4, gov.nasa.worldwind.geom.Vec4,
+     *      double[])
+     */
+    void geographicToCartesian(Globe globe, double[] positions, int count, Vec4 offset, Vec4 referenceCenter,
+        double[] out);
+
     /**
      * Converts a Cartesian point in meters to a geographic position.
      * <p/>
@@ -121,6 +143,28 @@ public interface GeographicProjection
      */
     Position cartesianToGeographic(Globe globe, Vec4 cart, Vec4 offset);
 
+    /**
+     * Converts a list of Cartesian points in meters to geographic positions, without creating an object for each
+     * position. The points are packed x, y and z coordinates relative to an optional reference center. The positions
+     * are written as packed latitude and longitude in degrees followed by elevation in meters.
+     * <p/>
+     * Note: The input arguments are not checked prior to being used. The caller, typically a {@link Globe2D}
+     * implementation, is expected do perform that check prior to calling this method.
+     * @param globe           The globe this projection is applied to.
+     * @param points          The points as x, y and z triplets.
+     * @param count           The number of points to convert.
+     * @param offset          An optional offset to be applied to the Cartesian input prior to converting it. Typically
+     *                        only projections that are continuous (see {@link #isContinuous()} apply this offset.
+     *                        Others ignore it. May be null.
+     * @param referenceCenter An optional point to add to each Cartesian point prior to converting it. May be null.
+     * @param out             An array to hold the computed positions. It must have a length of at least <code>3 x
+     *                        count</code>. It may be the same array as <code>points</code>.
+     * @see #geographicToCartesian(Globe, double[], int, gov.nasa.worldwind.geom.Vec4, gov.nasa.worldwind.geom.Vec4,
+     *      double[])
+     */
+    void cartesianToGeographic(Globe globe, double[] points, int count, Vec4 offset, Vec4 referenceCenter,
+        double[] out);
+
     /**
      * Computes a Cartesian vector that points north and is tangent to the meridian at the specified geographic
      * location.
@@ -9,7 +9,9 @@ import gov.nasa.worldwind.WWObject;
 import gov.nasa.worldwind.geom.*;
 import gov.nasa.worldwind.render.DrawContext;
 import gov.nasa.worldwind.terrain.*;
+import gov.nasa.worldwind.util.Logging;
 
+import java.nio.FloatBuffer;
 import java.util.List;
 
 /**
@@ -266,6 +268,155 @@ public interface Globe extends WWObject, Extent
      */
     void computePointsFromPositions(Sector sector, int numLat, int numLon, double[] metersElevation, Vec4[] out);
 
+    /**
+     * Computes the cartesian point for a geographic position, storing it in a caller-supplied vector. This produces the
+     * same point as {@link #computePointFromPosition(gov.nasa.worldwind.geom.Angle, gov.nasa.worldwind.geom.Angle,
+     * double)} without creating an angle or a vector, so that a loop may reuse one vector for every position.
+     * <p/>
+     * The default implementation calls {@link #computePointFromPosition(gov.nasa.worldwind.geom.Angle,
+     * gov.nasa.worldwind.geom.Angle, double)} and copies the point into <code>result</code>.
+     *
+     * @param latitude        the position's latitude in degrees.
+     * @param longitude       the position's longitude in degrees.
+     * @param metersElevation the position's elevation in meters.
+     * @param result          the vector in which to store the point.
+     *
+     * @return <code>result</code>, set to the computed point.
+     *
+     * @throws IllegalArgumentException if the result is null.
+     */
+    default MutableVec4 computePointFromPosition(double latitude, double longitude, double metersElevation,
+        MutableVec4 result)
+    {
+        if (result == null)
+        {
+            String message = Logging.getMessage("nullValue.Vec4IsNull");
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        return result.set(this.computePointFromPosition(Angle.fromDegrees(latitude), Angle.fromDegrees(longitude),
+            metersElevation));
+    }
+
+    /**
+     * Computes cartesian points for a list of geographic positions. The positions are packed in an array as latitude
+     * and longitude in degrees followed by elevation in meters. The points are written to an output array as packed x,
+     * y and z coordinates, relative to an optional reference center. This produces the same points as {@link
+     * #computePointFromPosition(gov.nasa.worldwind.geom.Angle, gov.nasa.worldwind.geom.Angle, double)} without
+     * creating an object for each point.
+     * <p/>
+     * The default implementation calls {@link #computePointFromPosition(gov.nasa.worldwind.geom.Angle,
+     * gov.nasa.worldwind.geom.Angle, double)} for each position.
+     *
+     * @param positions       the positions as latitude, longitude and elevation triplets.
+     * @param count           the number of positions to convert.
+     * @param referenceCenter the point subtracted from each computed point. May be null, in which case the points are
+     *                        absolute.
+     * @param out             an array to hold the computed points. It must have a length of at least <code>3 x
+     *                        count</code>. It may be the same array as <code>positions</code>.
+     *
+     * @throws IllegalArgumentException if either array is null or shorter than <code>3 x count</code>, or if
+     *                                  <code>count</code> is negative.
+     */
+    default void computePointsFromPositions(double[] positions, int count, Vec4 referenceCenter, double[] out)
+    {
+        EllipsoidalGlobe.checkPackedArray(count, positions);
+        EllipsoidalGlobe.checkPackedArray(count, out);
+
+        Vec4 offset = referenceCenter != null ? referenceCenter : Vec4.ZERO;
+        for (int i = 0; i < 3 * count; i += 3)
+        {
+            Vec4 point = this.computePointFromPosition(Angle.fromDegrees(positions[i]),
+                Angle.fromDegrees(positions[i + 1]), positions[i + 2]);
+            out[i] = point.x - offset.x;
+            out[i + 1] = point.y - offset.y;
+            out[i + 2] = point.z - offset.z;
+        }
+    }
+
+    /**
+     * Computes cartesian points for a list of geographic positions, as {@link #computePointsFromPositions(double[],
+     * int, gov.nasa.worldwind.geom.Vec4, double[])} does, and puts them in a buffer as packed x, y and z coordinates.
+     * The points are put at the buffer's position, which is advanced by <code>3 x count</code>.
+     * <p/>
+     * The default implementation calls {@link #computePointFromPosition(gov.nasa.worldwind.geom.Angle,
+     * gov.nasa.worldwind.geom.Angle, double)} for each position.
+     *
+     * @param positions       the positions as latitude, longitude and elevation triplets.
+     * @param count           the number of positions to convert.
+     * @param referenceCenter the point subtracted from each computed point. May be null, in which case the points are
+     *                        absolute.
+     * @param out             a buffer to hold the computed points. It must have at least <code>3 x count</code>
+     *                        elements remaining.
+     *
+     * @throws IllegalArgumentException if the array or the buffer is null or too short, or if <code>count</code> is
+     *                                  negative.
+     */
+    default void computePointsFromPositions(double[] positions, int count, Vec4 referenceCenter, FloatBuffer out)
+    {
+        EllipsoidalGlobe.checkPackedArray(count, positions);
+
+        if (out == null)
+        {
+            String message = Logging.getMessage("nullValue.BufferIsNull");
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        if (out.remaining() < 3 * count)
+        {
+            String message = Logging.getMessage("generic.BufferOverflow", out.remaining(), 3 * count);
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        Vec4 offset = referenceCenter != null ? referenceCenter : Vec4.ZERO;
+        for (int i = 0; i < 3 * count; i += 3)
+        {
+            Vec4 point = this.computePointFromPosition(Angle.fromDegrees(positions[i]),
+                Angle.fromDegrees(positions[i + 1]), positions[i + 2]);
+            out.put((float) (point.x - offset.x));
+            out.put((float) (point.y - offset.y));
+            out.put((float) (point.z - offset.z));
+        }
+    }
+
+    /**
+     * Computes the geographic positions of a list of cartesian points. This is the inverse of {@link
+     * #computePointsFromPositions(double[], int, gov.nasa.worldwind.geom.Vec4, double[])}: the points are packed x, y
+     * and z coordinates relative to an optional reference center, and the positions are written as packed latitude and
+     * longitude in degrees followed by elevation in meters. This produces the same positions as {@link
+     * #computePositionFromPoint(gov.nasa.worldwind.geom.Vec4)} without creating an object for each position.
+     * <p/>
+     * The default implementation calls {@link #computePositionFromPoint(gov.nasa.worldwind.geom.Vec4)} for each point.
+     *
+     * @param points          the points as x, y and z triplets.
+     * @param count           the number of points to convert.
+     * @param referenceCenter the point added to each point before it is converted. May be null, in which case the
+     *                        points are absolute.
+     * @param out             an array to hold the computed positions. It must have a length of at least <code>3 x
+     *                        count</code>. It may be the same array as <code>points</code>.
+     *
+     * @throws IllegalArgumentException if either array is null or shorter than <code>3 x count</code>, or if
+     *                                  <code>count</code> is negative.
+     */
+    default void computePositionsFromPoints(double[] points, int count, Vec4 referenceCenter, double[] out)
+    {
+        EllipsoidalGlobe.checkPackedArray(count, points);
+        EllipsoidalGlobe.checkPackedArray(count, out);
+
+        Vec4 offset = referenceCenter != null ? referenceCenter : Vec4.ZERO;
+        for (int i = 0; i < 3 * count; i += 3)
+        {
+            Position position = this.computePositionFromPoint(
+                new Vec4(points[i] + offset.x, points[i + 1] + offset.y, points[i + 2] + offset.z));
+            out[i] = position.getLatitude().degrees;
+            out[i + 1] = position.getLongitude().degrees;
+            out[i + 2] = position.getElevation();
+        }
+    }
+
     /**
      * Computes a vector perpendicular to the surface of this globe in cartesian coordinates.
      *
@@ -6,8 +6,8 @@
 
 package gov.nasa.worldwind.globes.projections;
 
-import gov.nasa.worldwind.geom.Sector;
-import gov.nasa.worldwind.globes.GeographicProjection;
+import gov.nasa.worldwind.geom.*;
+import gov.nasa.worldwind.globes.*;
 import gov.nasa.worldwind.util.Logging;
 
 /**
@@ -16,6 +16,9 @@ import gov.nasa.worldwind.util.Logging;
  */
 public abstract class AbstractGeographicProjection implements GeographicProjection
 {
+    protected static final double DEGREES_TO_RADIANS = Math.PI / 180d;
+    protected static final double RADIANS_TO_DEGREES = 180d / Math.PI;
+
     protected Sector projectionLimits;
 
     public AbstractGeographicProjection(Sector projectionLimits)
@@ -56,4 +59,53 @@ public abstract class AbstractGeographicProjection implements GeographicProjecti
         this.projectionLimits = projectionLimits;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * This implementation converts each position with {@link #geographicToCartesian(gov.nasa.worldwind.globes.Globe,
+     * gov.nasa.worldwind.geom.Angle, gov.nasa.worldwind.geom.Angle, double, gov.nasa.worldwind.geom.Vec4)}.
+     * Subclasses override it to convert without creating objects.
+     */
+    @Override
+    public void geographicToCartesian(Globe globe, double[] positions, int count, Vec4 offset, Vec4 referenceCenter,
+        double[] out)
+    {
+        double rx = referenceCenter != null ? referenceCenter.x : 0;
+        double ry = referenceCenter != null ? referenceCenter.y : 0;
+        double rz = referenceCenter != null ? referenceCenter.z : 0;
+
+        for (int i = 0; i < 3 * count; i += 3)
+        {
+            Vec4 p = this.geographicToCartesian(globe, Angle.fromDegrees(positions[i]),
+                Angle.fromDegrees(positions[i + 1]), positions[i + 2], offset);
+            out[i] = p.x - rx;
+            out[i + 1] = p.y - ry;
+            out[i + 2] = p.z - rz;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * This implementation converts each point with {@link #cartesianToGeographic(gov.nasa.worldwind.globes.Globe,
+     * gov.nasa.worldwind.geom.Vec4, gov.nasa.worldwind.geom.Vec4)}. Subclasses override it to convert without creating
+     * objects.
+     */
+    @Override
+    public void cartesianToGeographic(Globe globe, double[] points, int count, Vec4 offset, Vec4 referenceCenter,
+        double[] out)
+    {
+        double rx = referenceCenter != null ? referenceCenter.x : 0;
+        double ry = referenceCenter != null ? referenceCenter.y : 0;
+        double rz = referenceCenter != null ? referenceCenter.z : 0;
+
+        for (int i = 0; i < 3 * count; i += 3)
+        {
+            Position pos = this.cartesianToGeographic(globe,
+                new Vec4(points[i] + rx, points[i + 1] + ry, points[i + 2] + rz), offset);
+            out[i] = pos.getLatitude().degrees;
+            out[i + 1] = pos.getLongitude().degrees;
+            out[i + 2] = pos.getElevation();
+        }
+    }
 }
@@ -86,6 +86,48 @@ public class ProjectionEquirectangular extends AbstractGeographicProjection
             (cart.x - offset.x) / globe.getEquatorialRadius(), cart.z);
     }
 
+    @Override
+    public void geographicToCartesian(Globe globe, double[] positions, int count, Vec4 offset, Vec4 referenceCenter,
+        double[] out)
+    {
+        double eqr = globe.getEquatorialRadius();
+        double rx = referenceCenter != null ? referenceCenter.x : 0;
+        double ry = referenceCenter != null ? referenceCenter.y : 0;
+        double rz = referenceCenter != null ? referenceCenter.z : 0;
+        double xOffset = offset != null ? offset.x : 0;
+
+        for (int i = 0; i < 3 * count; i += 3)
+        {
+            double lat = DEGREES_TO_RADIANS * positions[i];
+            double lon = DEGREES_TO_RADIANS * positions[i + 1];
+            double elev = positions[i + 2];
+            out[i] = eqr * lon + xOffset - rx;
+            out[i + 1] = eqr * lat - ry;
+            out[i + 2] = elev - rz;
+        }
+    }
+
+    @Override
+    public void cartesianToGeographic(Globe globe, double[] points, int count, Vec4 offset, Vec4 referenceCenter,
+        double[] out)
+    {
+        double eqr = globe.getEquatorialRadius();
+        double rx = referenceCenter != null ? referenceCenter.x : 0;
+        double ry = referenceCenter != null ? referenceCenter.y : 0;
+        double rz = referenceCenter != null ? referenceCenter.z : 0;
+        double xOffset = offset != null ? offset.x : 0;
+
+        for (int i = 0; i < 3 * count; i += 3)
+        {
+            double x = points[i] + rx;
+            double y = points[i + 1] + ry;
+            double z = points[i + 2] + rz;
+            out[i] = RADIANS_TO_DEGREES * (y / eqr);
+            out[i + 1] = RADIANS_TO_DEGREES * ((x - xOffset) / eqr);
+            out[i + 2] = z;
+        }
+    }
+
     @Override
     public Vec4 northPointingTangent(Globe globe, Angle latitude, Angle longitude)
     {
@@ -140,6 +140,82 @@ public class ProjectionMercator extends AbstractGeographicProjection
         return Position.fromRadians(lat, (cart.x - xOffset) / globe.getEquatorialRadius(), cart.z);
     }
 
+    @Override
+    public void geographicToCartesian(Globe globe, double[] positions, int count, Vec4 offset, Vec4 referenceCenter,
+        double[] out)
+    {
+        Sector limits = this.getProjectionLimits();
+        double eqr = globe.getEquatorialRadius();
+        double ecc = Math.sqrt(globe.getEccentricitySquared());
+        double rx = referenceCenter != null ? referenceCenter.x : 0;
+        double ry = referenceCenter != null ? referenceCenter.y : 0;
+        double rz = referenceCenter != null ? referenceCenter.z : 0;
+        double xOffset = offset != null ? offset.x : 0;
+
+        for (int i = 0; i < 3 * count; i += 3)
+        {
+            // Limit the position to the projection limits, as the single position conversion does.
+            double latDegrees = positions[i];
+            double lonDegrees = positions[i + 1];
+            double lat = latDegrees > limits.getMaxLatitude().degrees ? limits.getMaxLatitude().radians
+                : latDegrees < limits.getMinLatitude().degrees ? limits.getMinLatitude().radians
+                    : DEGREES_TO_RADIANS * latDegrees;
+            double lon = lonDegrees > limits.getMaxLongitude().degrees ? limits.getMaxLongitude().radians
+                : lonDegrees < limits.getMinLongitude().degrees ? limits.getMinLongitude().radians
+                    : DEGREES_TO_RADIANS * lonDegrees;
+            double elev = positions[i + 2];
+
+            double sinPhi = Math.sin(lat);
+            double s = ((1 + sinPhi) / (1 - sinPhi)) * Math.pow((1 - ecc * sinPhi) / (1 + ecc * sinPhi), ecc);
+
+            out[i] = eqr * lon + xOffset - rx;
+            out[i + 1] = 0.5 * eqr * Math.log(s) - ry;
+            out[i + 2] = elev - rz;
+        }
+    }
+
+    @Override
+    public void cartesianToGeographic(Globe globe, double[] points, int count, Vec4 offset, Vec4 referenceCenter,
+        double[] out)
+    {
+        double eqr = globe.getEquatorialRadius();
+        double rx = referenceCenter != null ? referenceCenter.x : 0;
+        double ry = referenceCenter != null ? referenceCenter.y : 0;
+        double rz = referenceCenter != null ? referenceCenter.z : 0;
+        double xOffset = offset != null ? offset.x : 0;
+
+        // The series coefficients depend only on the globe, so compute them once for all points.
+        double ecc2 = globe.getEccentricitySquared();
+        double ecc4 = ecc2 * ecc2;
+        double ecc6 = ecc4 * ecc2;
+        double ecc8 = ecc6 * ecc2;
+        double B = ecc2 / 2 + 5 * ecc4 / 24 + ecc6 / 12 + 13 * ecc8 / 360;
+        double C = 7 * ecc4 / 48 + 29 * ecc6 / 240 + 811 * ecc8 / 11520;
+        double D = 7 * ecc6 / 120 + 81 * ecc8 / 1120;
+        double E = 4279 * ecc8 / 161280;
+        double Bp = B - 3 * D;
+        double Cp = 2 * C - 8 * E;
+        double Dp = 4 * D;
+        double Ep = 8 * E;
+
+        for (int i = 0; i < 3 * count; i += 3)
+        {
+            double x = points[i] + rx;
+            double y = points[i + 1] + ry;
+            double z = points[i + 2] + rz;
+
+            double t = Math.pow(Math.E, -y / eqr);
+            double A = Math.PI / 2 - 2 * Math.atan(t);
+            double Ap = A - C + E;
+            double s2p = Math.sin(2 * A);
+            double lat = Ap + s2p * (Bp + s2p * (Cp + s2p * (Dp + Ep * s2p)));
+
+            out[i] = RADIANS_TO_DEGREES * lat;
+            out[i + 1] = RADIANS_TO_DEGREES * ((x - xOffset) / eqr);
+            out[i + 2] = z;
+        }
+    }
+
     @Override
     public Vec4 northPointingTangent(Globe globe, Angle latitude, Angle longitude)
     {
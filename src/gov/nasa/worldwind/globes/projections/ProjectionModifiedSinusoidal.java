@@ -97,6 +97,53 @@ public class ProjectionModifiedSinusoidal extends AbstractGeographicProjection
         return Position.fromRadians(latRadians, lonRadians, cart.z);
     }
 
+    @Override
+    public void geographicToCartesian(Globe globe, double[] positions, int count, Vec4 offset, Vec4 referenceCenter,
+        double[] out)
+    {
+        double eqr = globe.getEquatorialRadius();
+        double rx = referenceCenter != null ? referenceCenter.x : 0;
+        double ry = referenceCenter != null ? referenceCenter.y : 0;
+        double rz = referenceCenter != null ? referenceCenter.z : 0;
+
+        for (int i = 0; i < 3 * count; i += 3)
+        {
+            double lat = DEGREES_TO_RADIANS * positions[i];
+            double lon = DEGREES_TO_RADIANS * positions[i + 1];
+            double elev = positions[i + 2];
+
+            double latCos = Math.cos(lat);
+            out[i] = (latCos > 0 ? eqr * lon * Math.pow(latCos, .3) : 0) - rx;
+            out[i + 1] = eqr * lat - ry;
+            out[i + 2] = elev - rz;
+        }
+    }
+
+    @Override
+    public void cartesianToGeographic(Globe globe, double[] points, int count, Vec4 offset, Vec4 referenceCenter,
+        double[] out)
+    {
+        double eqr = globe.getEquatorialRadius();
+        double rx = referenceCenter != null ? referenceCenter.x : 0;
+        double ry = referenceCenter != null ? referenceCenter.y : 0;
+        double rz = referenceCenter != null ? referenceCenter.z : 0;
+
+        for (int i = 0; i < 3 * count; i += 3)
+        {
+            double x = points[i] + rx;
+            double y = points[i + 1] + ry;
+            double z = points[i + 2] + rz;
+
+            double latRadians = WWMath.clamp(y / eqr, -Math.PI / 2, Math.PI / 2);
+            double latCos = Math.cos(latRadians);
+            double lonRadians = WWMath.clamp(latCos > 0 ? x / eqr / Math.pow(latCos, .3) : 0, -Math.PI, Math.PI);
+
+            out[i] = RADIANS_TO_DEGREES * latRadians;
+            out[i + 1] = RADIANS_TO_DEGREES * lonRadians;
+            out[i + 2] = z;
+        }
+    }
+
     @Override
     public Vec4 northPointingTangent(Globe globe, Angle latitude, Angle longitude)
     {
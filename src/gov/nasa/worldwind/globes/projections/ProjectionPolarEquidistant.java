@@ -165,6 +165,78 @@ public class ProjectionPolarEquidistant extends AbstractGeographicProjection
         return Position.fromRadians(lat, lon, cart.z);
     }
 
+    @Override
+    public void geographicToCartesian(Globe globe, double[] positions, int count, Vec4 offset, Vec4 referenceCenter,
+        double[] out)
+    {
+        // Formulae taken from "Map Projections -- A Working Manual", Snyder, USGS paper 1395, pg. 195.
+
+        double radius = globe.getRadius();
+        double sign = this.pole == SOUTH ? 1 : -1;
+        double poleDegrees = this.pole == SOUTH ? -90 : 90;
+        double rx = referenceCenter != null ? referenceCenter.x : 0;
+        double ry = referenceCenter != null ? referenceCenter.y : 0;
+        double rz = referenceCenter != null ? referenceCenter.z : 0;
+
+        for (int i = 0; i < 3 * count; i += 3)
+        {
+            double latDegrees = positions[i];
+            double lon = DEGREES_TO_RADIANS * positions[i + 1];
+            double elev = positions[i + 2];
+
+            double x = 0, y = 0;
+            if (latDegrees != poleDegrees)
+            {
+                double a = radius * (Math.PI / 2 + DEGREES_TO_RADIANS * latDegrees * sign);
+                x = a * Math.sin(lon);
+                y = a * Math.cos(lon) * sign;
+            }
+
+            out[i] = x - rx;
+            out[i + 1] = y - ry;
+            out[i + 2] = elev - rz;
+        }
+    }
+
+    @Override
+    public void cartesianToGeographic(Globe globe, double[] points, int count, Vec4 offset, Vec4 referenceCenter,
+        double[] out)
+    {
+        // Formulae taken from "Map Projections -- A Working Manual", Snyder, USGS paper 1395, pg. 196.
+
+        double radius = globe.getRadius();
+        double rx = referenceCenter != null ? referenceCenter.x : 0;
+        double ry = referenceCenter != null ? referenceCenter.y : 0;
+        double rz = referenceCenter != null ? referenceCenter.z : 0;
+
+        for (int i = 0; i < 3 * count; i += 3)
+        {
+            double x = points[i] + rx;
+            double y = points[i + 1] + ry;
+            double z = points[i + 2] + rz;
+
+            double rho = Math.sqrt(x * x + y * y);
+            if (rho < 1.0e-4)
+            {
+                out[i] = this.pole == SOUTH ? -90 : 90;
+                out[i + 1] = 0;
+                out[i + 2] = z;
+                continue;
+            }
+
+            double c = rho / radius;
+            if (c > Math.PI) // map cartesian points beyond the projections radius to the edge of the projection
+                c = Math.PI;
+
+            double lat = Math.asin(Math.cos(c) * (this.pole == SOUTH ? -1 : 1));
+            double lon = Math.atan2(x, y * (this.pole == SOUTH ? 1 : -1)); // use atan2(x,y) instead of atan(x/y)
+
+            out[i] = RADIANS_TO_DEGREES * lat;
+            out[i + 1] = RADIANS_TO_DEGREES * lon;
+            out[i + 2] = z;
+        }
+    }
+
     @Override
     public Vec4 northPointingTangent(Globe globe, Angle latitude, Angle longitude)
     {
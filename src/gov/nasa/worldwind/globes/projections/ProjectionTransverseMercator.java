@@ -229,31 +229,38 @@ public class ProjectionTransverseMercator extends AbstractGeographicProjection
         double maxLatLimit = 86 * Math.PI / 180;
         double minLonLimit = this.centralMeridian.radians - this.width.radians;
         double maxLonLimit = this.centralMeridian.radians + this.width.radians;
-        int pos = 0;
+        double[] lats = new double[numLat];
+        double[] lons = new double[numLon];
 
-        // Iterate over the latitude and longitude coordinates in the specified sector, computing the Cartesian point
-        // corresponding to each latitude and longitude.
+        // Compute the latitude and longitude coordinates in the specified sector. The Transverse Mercator terms that
+        // depend on only latitude or only longitude are computed once per row or column of the grid.
         double lat = minLat;
         for (int j = 0; j < numLat; j++, lat += deltaLat)
         {
             if (j == numLat - 1) // explicitly set the last lat to the max latitude to ensure alignment
                 lat = maxLat;
             lat = WWMath.clamp(lat, minLatLimit, maxLatLimit); // limit lat to projection limits
+            lats[j] = lat;
+        }
+
+        double lon = minLon;
+        for (int i = 0; i < numLon; i++, lon += deltaLon)
+        {
+            if (i == numLon - 1) // explicitly set the last lon to the max longitude to ensure alignment
+                lon = maxLon;
+            lon = WWMath.clamp(lon, minLonLimit, maxLonLimit); // limit lon to projection limits
+            lons[i] = lon;
+        }
+
+        int numPoints = numLat * numLon;
+        double[] eastings = new double[numPoints];
+        double[] northings = new double[numPoints];
+        TMCoord.fromLatLonGrid(lats, lons, globe, null, null, this.centralLatitude, this.centralMeridian, 0, 0,
+            this.getScale(), eastings, northings);
 
-            double lon = minLon;
-            for (int i = 0; i < numLon; i++, lon += deltaLon)
-            {
-                if (i == numLon - 1) // explicitly set the last lon to the max longitude to ensure alignment
-                    lon = maxLon;
-                lon = WWMath.clamp(lon, minLonLimit, maxLonLimit); // limit lon to projection limits
-
-                TMCoord tm = TMCoord.fromLatLon(Angle.fromRadians(lat), Angle.fromRadians(lon),
-                    globe, null, null, this.centralLatitude, this.centralMeridian, 0, 0, this.getScale());
-                double x = tm.getEasting();
-                double y = tm.getNorthing();
-                double z = metersElevation[pos];
-                out[pos++] = new Vec4(x, y, z);
-            }
+        for (int pos = 0; pos < numPoints; pos++)
+        {
+            out[pos] = new Vec4(eastings[pos], northings[pos], metersElevation[pos]);
         }
     }
 
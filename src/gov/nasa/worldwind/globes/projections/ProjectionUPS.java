@@ -113,10 +113,30 @@ public class ProjectionUPS extends AbstractGeographicProjection
         double maxLatLimit = this.getProjectionLimits().getMaxLatitude().radians;
         double minLonLimit = this.getProjectionLimits().getMinLongitude().radians;
         double maxLonLimit = this.getProjectionLimits().getMaxLongitude().radians;
+        double k0 = 0.994; // standard UPS scale factor -- see geographicToCartesian above.
+        double ecc = Math.sqrt(globe.getEccentricitySquared());
+        double s = Math.sqrt(Math.pow(1 + ecc, 1 + ecc) * Math.pow(1 - ecc, 1 - ecc));
+        double ySign = this.pole == NORTH ? 1 : -1;
         int pos = 0;
 
-        // Iterate over the latitude and longitude coordinates in the specified sector, computing the Cartesian point
-        // corresponding to each latitude and longitude.
+        // Compute the sine and cosine of each column's longitude once rather than once per row.
+        double[] sinLon = new double[numLon];
+        double[] cosLon = new double[numLon];
+        double lon = minLon;
+        for (int i = 0; i < numLon; i++, lon += deltaLon)
+        {
+            if (i == numLon - 1) // explicitly set the last lon to the max longitude to ensure alignment
+                lon = maxLon;
+            lon = WWMath.clamp(lon, minLonLimit, maxLonLimit); // limit lon to projection limits
+
+            double radians = Angle.fromRadiansLongitude(lon).radians;
+            sinLon[i] = Math.sin(radians);
+            cosLon[i] = Math.cos(radians);
+        }
+
+        // Iterate over the latitude coordinates in the specified sector, computing the polar radius of each row once
+        // and the Cartesian point corresponding to each latitude and longitude from the row radius and the column
+        // terms. The arithmetic is that of geographicToCartesian above, so the points are identical.
         double lat = minLat;
         for (int j = 0; j < numLat; j++, lat += deltaLat)
         {
@@ -124,16 +144,29 @@ public class ProjectionUPS extends AbstractGeographicProjection
                 lat = maxLat;
             lat = WWMath.clamp(lat, minLatLimit, maxLatLimit); // limit lat to projection limits
 
-            double lon = minLon;
-            for (int i = 0; i < numLon; i++, lon += deltaLon)
+            Angle latitude = Angle.fromRadiansLatitude(lat);
+            if ((this.pole == NORTH && latitude.degrees == 90) || (this.pole == SOUTH && latitude.degrees == -90))
             {
-                if (i == numLon - 1) // explicitly set the last lon to the max longitude to ensure alignment
-                    lon = maxLon;
-                lon = WWMath.clamp(lon, minLonLimit, maxLonLimit); // limit lon to projection limits
+                for (int i = 0; i < numLon; i++, pos++)
+                {
+                    out[pos] = new Vec4(0, 0, metersElevation[pos]);
+                }
+                continue;
+            }
+
+            double rowLat = latitude.radians;
+            if (this.pole == NORTH && rowLat < 0)
+                rowLat = 0;
+            else if (this.pole == SOUTH && rowLat > 0)
+                rowLat = 0;
 
-                out[pos] = this.geographicToCartesian(globe, Angle.fromRadiansLatitude(lat),
-                    Angle.fromRadiansLongitude(lon), metersElevation[pos], offset);
-                ++pos;
+            double sp = Math.sin(rowLat * (this.pole == NORTH ? 1 : -1));
+            double t = Math.sqrt(((1 - sp) / (1 + sp)) * Math.pow((1 + ecc * sp) / (1 - ecc * sp), ecc));
+            double r = 2 * globe.getEquatorialRadius() * k0 * t / s;
+
+            for (int i = 0; i < numLon; i++, pos++)
+            {
+                out[pos] = new Vec4(r * sinLon[i], -r * cosLon[i] * ySign, metersElevation[pos]);
             }
         }
     }
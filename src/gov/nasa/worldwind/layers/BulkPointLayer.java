@@ -0,0 +1,956 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+
+package gov.nasa.worldwind.layers;
+
+import com.jogamp.common.nio.Buffers;
+import gov.nasa.worldwind.WorldWind;
+import gov.nasa.worldwind.avlist.AVKey;
+import gov.nasa.worldwind.geom.*;
+import gov.nasa.worldwind.globes.*;
+import gov.nasa.worldwind.pick.*;
+import gov.nasa.worldwind.render.*;
+import gov.nasa.worldwind.util.*;
+
+import javax.media.opengl.*;
+import java.awt.*;
+import java.awt.geom.Rectangle2D;
+import java.nio.*;
+import java.util.Arrays;
+
+/**
+ * A layer that displays a large number of point features, such as sensors or points of interest, as screen-aligned
+ * dots with optional labels. Unlike {@link gov.nasa.worldwind.render.PointPlacemark}, the layer holds no object per
+ * point: positions, styles and labels are stored in primitive arrays indexed by point number, and each frame the layer
+ * projects, culls and declutters all of its points in a single pass over those arrays. Hundreds of thousands of points
+ * can be displayed this way.
+ * <p/>
+ * A point's style is an index into the layer's list of styles, each of which specifies a color and a point size in
+ * pixels. The layer creates a single default style, white and five pixels in size, with index 0. Additional styles are
+ * added with {@link #addStyle(java.awt.Color, double)}.
+ * <p/>
+ * Decluttering displays at most one point in each square screen cell of the declutter cell size, giving priority to
+ * points added earlier. Labels are decluttered separately, and at most {@link #getMaxLabels()} are drawn each frame.
+ * <p/>
+ * Picking identifies a point by its index: the picked object is the layer, its position is the point's position, and
+ * its {@link AVKey#ORDINAL} value is the point's index.
+ * <p/>
+ * The model coordinates of the points are computed once and reused until the globe, the vertical exaggeration or the
+ * points change. When the altitude mode follows the terrain the points are also recomputed periodically, at the
+ * interval given by {@link #getTerrainUpdateInterval()}, so that they follow elevations as they are refined.
+ *
+ * @version $Id$
+ */
+public class BulkPointLayer extends AbstractLayer
+{
+    /** The default point color. */
+    public static final Color DEFAULT_COLOR = Color.WHITE;
+    /** The default point size, in pixels. */
+    public static final double DEFAULT_POINT_SIZE = 5;
+    /** The default declutter cell size, in pixels. */
+    public static final int DEFAULT_DECLUTTER_CELL_SIZE = 4;
+    /** The default maximum number of labels drawn each frame. */
+    public static final int DEFAULT_MAX_LABELS = 500;
+    /** The default interval at which terrain following points are recomputed, in milliseconds. */
+    public static final long DEFAULT_TERRAIN_UPDATE_INTERVAL = 2000;
+    /** The default label font. */
+    public static final Font DEFAULT_LABEL_FONT = Font.decode("Arial-BOLD-12");
+    /** The default label color. */
+    public static final Color DEFAULT_LABEL_COLOR = Color.WHITE;
+    /** The window depth offset applied to points so that points on the terrain are not hidden by it. */
+    protected static final double DEPTH_OFFSET = 8 * 0.00048875809;
+    /** The distance in pixels between a point and its label. */
+    protected static final int LABEL_OFFSET = 4;
+
+    protected double[] latitudes = new double[0];
+    protected double[] longitudes = new double[0];
+    protected double[] altitudes = new double[0];
+    protected int[] styles = new int[0];
+    protected String[] labels = new String[0];
+    protected int pointCount;
+
+    protected int[] styleColors = new int[0];
+    protected float[] styleSizes = new float[0];
+    protected int styleCount;
+
+    protected int altitudeMode = WorldWind.ABSOLUTE;
+    protected boolean enableDecluttering = true;
+    protected int declutterCellSize = DEFAULT_DECLUTTER_CELL_SIZE;
+    protected int maxLabels = DEFAULT_MAX_LABELS;
+    protected Font labelFont = DEFAULT_LABEL_FONT;
+    protected Color labelColor = DEFAULT_LABEL_COLOR;
+    protected long terrainUpdateInterval = DEFAULT_TERRAIN_UPDATE_INTERVAL;
+
+    /** The model coordinates of each point, as consecutive x, y, z values. */
+    protected double[] modelPoints;
+    protected boolean modelPointsValid;
+    protected Object modelGlobeStateKey;
+    protected double modelVerticalExaggeration;
+    protected long modelPointsTime;
+
+    /** The indices of the points that passed culling and decluttering in the most recent frame, in priority order. */
+    protected int[] visibleIndices = new int[0];
+    /** The viewport relative screen x, y and window depth of each visible point. */
+    protected float[] screenPoints = new float[0];
+    protected int visibleCount;
+    protected long visibleFrameTimeStamp = -1;
+    /** The frame number of each declutter cell's most recent point. */
+    protected int[] cellStamps = new int[0];
+    protected int cellStamp;
+
+    protected FloatBuffer vertexBuffer;
+    protected ByteBuffer colorBuffer;
+    protected int[] styleOffsets = new int[0];
+    protected ClutterGrid labelGrid = new ClutterGrid();
+    protected PickSupport pickSupport = new PickSupport();
+
+    /** Constructs an empty layer with a single default style. */
+    public BulkPointLayer()
+    {
+        this.addStyle(DEFAULT_COLOR, DEFAULT_POINT_SIZE);
+    }
+
+    /**
+     * Adds a point style.
+     *
+     * @param color the point color, including its alpha component.
+     * @param size  the point size, in pixels.
+     *
+     * @return the new style's index.
+     *
+     * @throws IllegalArgumentException if the color is null or the size is not positive.
+     */
+    public int addStyle(Color color, double size)
+    {
+        if (color == null)
+        {
+            String message = Logging.getMessage("nullValue.ColorIsNull");
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        if (size <= 0)
+        {
+            String message = Logging.getMessage("generic.ArgumentOutOfRange", "size=" + size);
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        if (this.styleCount == this.styleColors.length)
+        {
+            int capacity = Math.max(4, 2 * this.styleCount);
+            this.styleColors = Arrays.copyOf(this.styleColors, capacity);
+            this.styleSizes = Arrays.copyOf(this.styleSizes, capacity);
+        }
+
+        this.styleColors[this.styleCount] = color.getRGB();
+        this.styleSizes[this.styleCount] = (float) size;
+
+        return this.styleCount++;
+    }
+
+    /**
+     * Returns the number of point styles, including the default style.
+     *
+     * @return the number of styles.
+     */
+    public int getStyleCount()
+    {
+        return this.styleCount;
+    }
+
+    /**
+     * Adds a point. Points added earlier have priority when the layer is decluttered.
+     *
+     * @param latitude  the point's latitude, in degrees.
+     * @param longitude the point's longitude, in degrees.
+     * @param altitude  the point's altitude, in meters, interpreted according to the layer's altitude mode.
+     * @param style     the index of the point's style.
+     * @param label     the point's label. May be null, in which case no label is displayed.
+     *
+     * @return the new point's index.
+     *
+     * @throws IllegalArgumentException if the style index is not that of a style in this layer.
+     */
+    public int addPoint(double latitude, double longitude, double altitude, int style, String label)
+    {
+        this.checkStyle(style);
+
+        if (this.pointCount == this.latitudes.length)
+            this.ensureCapacity(Math.max(16, 2 * this.pointCount));
+
+        int index = this.pointCount++;
+        this.latitudes[index] = latitude;
+        this.longitudes[index] = longitude;
+        this.altitudes[index] = altitude;
+        this.styles[index] = style;
+        this.labels[index] = label;
+        this.modelPointsValid = false;
+
+        return index;
+    }
+
+    /**
+     * Allocates storage for a specified number of points, avoiding repeated growth when many points are added.
+     *
+     * @param capacity the number of points to allocate storage for.
+     */
+    public void ensureCapacity(int capacity)
+    {
+        if (capacity <= this.latitudes.length)
+            return;
+
+        this.latitudes = Arrays.copyOf(this.latitudes, capacity);
+        this.longitudes = Arrays.copyOf(this.longitudes, capacity);
+        this.altitudes = Arrays.copyOf(this.altitudes, capacity);
+        this.styles = Arrays.copyOf(this.styles, capacity);
+        this.labels = Arrays.copyOf(this.labels, capacity);
+    }
+
+    /**
+     * Moves a point.
+     *
+     * @param index     the point's index.
+     * @param latitude  the point's new latitude, in degrees.
+     * @param longitude the point's new longitude, in degrees.
+     * @param altitude  the point's new altitude, in meters.
+     *
+     * @throws IllegalArgumentException if the index is out of range.
+     */
+    public void setPointPosition(int index, double latitude, double longitude, double altitude)
+    {
+        this.checkIndex(index);
+
+        this.latitudes[index] = latitude;
+        this.longitudes[index] = longitude;
+        this.altitudes[index] = altitude;
+        this.modelPointsValid = false;
+    }
+
+    /**
+     * Returns a point's position.
+     *
+     * @param index the point's index.
+     *
+     * @return the point's position.
+     *
+     * @throws IllegalArgumentException if the index is out of range.
+     */
+    public Position getPointPosition(int index)
+    {
+        this.checkIndex(index);
+
+        return Position.fromDegrees(this.latitudes[index], this.longitudes[index], this.altitudes[index]);
+    }
+
+    /**
+     * Changes a point's style.
+     *
+     * @param index the point's index.
+     * @param style the index of the point's new style.
+     *
+     * @throws IllegalArgumentException if either index is out of range.
+     */
+    public void setPointStyle(int index, int style)
+    {
+        this.checkIndex(index);
+        this.checkStyle(style);
+
+        this.styles[index] = style;
+    }
+
+    /**
+     * Returns a point's style.
+     *
+     * @param index the point's index.
+     *
+     * @return the index of the point's style.
+     *
+     * @throws IllegalArgumentException if the index is out of range.
+     */
+    public int getPointStyle(int index)
+    {
+        this.checkIndex(index);
+
+        return this.styles[index];
+    }
+
+    /**
+     * Changes a point's label.
+     *
+     * @param index the point's index.
+     * @param label the point's new label. May be null.
+     *
+     * @throws IllegalArgumentException if the index is out of range.
+     */
+    public void setPointLabel(int index, String label)
+    {
+        this.checkIndex(index);
+
+        this.labels[index] = label;
+    }
+
+    /**
+     * Returns a point's label.
+     *
+     * @param index the point's index.
+     *
+     * @return the point's label, or null if it has none.
+     *
+     * @throws IllegalArgumentException if the index is out of range.
+     */
+    public String getPointLabel(int index)
+    {
+        this.checkIndex(index);
+
+        return this.labels[index];
+    }
+
+    /**
+     * Returns the number of points in this layer.
+     *
+     * @return the number of points.
+     */
+    public int getPointCount()
+    {
+        return this.pointCount;
+    }
+
+    /** Removes all points from this layer. The layer's styles are retained. */
+    public void removeAllPoints()
+    {
+        Arrays.fill(this.labels, 0, this.pointCount, null);
+        this.pointCount = 0;
+        this.modelPointsValid = false;
+        this.visibleCount = 0;
+        this.visibleFrameTimeStamp = -1;
+    }
+
+    protected void checkIndex(int index)
+    {
+        if (index < 0 || index >= this.pointCount)
+        {
+            String message = Logging.getMessage("generic.indexOutOfRange", index);
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+    }
+
+    protected void checkStyle(int style)
+    {
+        if (style < 0 || style >= this.styleCount)
+        {
+            String message = Logging.getMessage("generic.indexOutOfRange", style);
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+    }
+
+    /**
+     * Returns the altitude mode of this layer's points.
+     *
+     * @return the altitude mode.
+     */
+    public int getAltitudeMode()
+    {
+        return this.altitudeMode;
+    }
+
+    /**
+     * Specifies how the altitudes of this layer's points are interpreted: {@link WorldWind#ABSOLUTE}, {@link
+     * WorldWind#RELATIVE_TO_GROUND} or {@link WorldWind#CLAMP_TO_GROUND}. The default is {@link WorldWind#ABSOLUTE}.
+     *
+     * @param altitudeMode the altitude mode.
+     */
+    public void setAltitudeMode(int altitudeMode)
+    {
+        this.altitudeMode = altitudeMode;
+        this.modelPointsValid = false;
+    }
+
+    public boolean isEnableDecluttering()
+    {
+        return this.enableDecluttering;
+    }
+
+    /**
+     * Specifies whether points that fall in the same screen cell as a higher priority point are hidden. The default is
+     * true.
+     *
+     * @param enableDecluttering true to declutter points, otherwise false.
+     */
+    public void setEnableDecluttering(boolean enableDecluttering)
+    {
+        this.enableDecluttering = enableDecluttering;
+    }
+
+    public int getDeclutterCellSize()
+    {
+        return this.declutterCellSize;
+    }
+
+    /**
+     * Specifies the width and height of the screen cells used to declutter points, in pixels. The default is 4.
+     *
+     * @param declutterCellSize the cell size.
+     *
+     * @throws IllegalArgumentException if the cell size is less than 1.
+     */
+    public void setDeclutterCellSize(int declutterCellSize)
+    {
+        if (declutterCellSize < 1)
+        {
+            String message = Logging.getMessage("generic.ArgumentOutOfRange", "declutterCellSize=" + declutterCellSize);
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        this.declutterCellSize = declutterCellSize;
+    }
+
+    public int getMaxLabels()
+    {
+        return this.maxLabels;
+    }
+
+    /**
+     * Specifies the maximum number of labels drawn each frame. Labels of higher priority points are drawn first. The
+     * default is 500.
+     *
+     * @param maxLabels the maximum number of labels. Zero disables labels.
+     */
+    public void setMaxLabels(int maxLabels)
+    {
+        this.maxLabels = maxLabels;
+    }
+
+    public Font getLabelFont()
+    {
+        return this.labelFont;
+    }
+
+    public void setLabelFont(Font labelFont)
+    {
+        if (labelFont == null)
+        {
+            String message = Logging.getMessage("nullValue.FontIsNull");
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        this.labelFont = labelFont;
+    }
+
+    public Color getLabelColor()
+    {
+        return this.labelColor;
+    }
+
+    public void setLabelColor(Color labelColor)
+    {
+        if (labelColor == null)
+        {
+            String message = Logging.getMessage("nullValue.ColorIsNull");
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        this.labelColor = labelColor;
+    }
+
+    public long getTerrainUpdateInterval()
+    {
+        return this.terrainUpdateInterval;
+    }
+
+    /**
+     * Specifies how often the points are recomputed when the altitude mode follows the terrain, in milliseconds. The
+     * default is 2000.
+     *
+     * @param terrainUpdateInterval the update interval.
+     */
+    public void setTerrainUpdateInterval(long terrainUpdateInterval)
+    {
+        this.terrainUpdateInterval = terrainUpdateInterval;
+    }
+
+    /**
+     * Returns the number of points that passed culling and decluttering in the most recent frame.
+     *
+     * @return the number of visible points.
+     */
+    public int getVisibleCount()
+    {
+        return this.visibleCount;
+    }
+
+    /**
+     * Returns the indices of the points that passed culling and decluttering in the most recent frame, in priority
+     * order.
+     *
+     * @return a new array of the visible point indices.
+     */
+    public int[] getVisibleIndices()
+    {
+        return Arrays.copyOf(this.visibleIndices, this.visibleCount);
+    }
+
+    /**
+     * Returns the screen coordinates of the points that passed culling and decluttering in the most recent frame, as
+     * consecutive x, y and window depth values in the same order as {@link #getVisibleIndices()}. The x and y
+     * coordinates are relative to the viewport's origin.
+     *
+     * @return a new array of the visible points' screen coordinates.
+     */
+    public float[] getVisibleScreenPoints()
+    {
+        return Arrays.copyOf(this.screenPoints, 3 * this.visibleCount);
+    }
+
+    /**
+     * Updates the model coordinates of the points if they are out of date.
+     *
+     * @param globe                the globe the points are on.
+     * @param verticalExaggeration the vertical exaggeration.
+     */
+    protected void updateModelPoints(Globe globe, double verticalExaggeration)
+    {
+        Object globeStateKey = globe.getGlobeStateKey();
+        boolean followsTerrain = this.altitudeMode != WorldWind.ABSOLUTE;
+        long now = System.currentTimeMillis();
+
+        if (this.modelPointsValid && globeStateKey.equals(this.modelGlobeStateKey)
+            && verticalExaggeration == this.modelVerticalExaggeration
+            && (!followsTerrain || now - this.modelPointsTime < this.terrainUpdateInterval))
+        {
+            return;
+        }
+
+        this.computeModelPoints(globe, verticalExaggeration);
+        this.modelPointsValid = true;
+        this.modelGlobeStateKey = globeStateKey;
+        this.modelVerticalExaggeration = verticalExaggeration;
+        this.modelPointsTime = now;
+    }
+
+    /**
+     * Computes the model coordinates of all points.
+     *
+     * @param globe                the globe the points are on.
+     * @param verticalExaggeration the vertical exaggeration.
+     */
+    protected void computeModelPoints(Globe globe, double verticalExaggeration)
+    {
+        if (this.modelPoints == null || this.modelPoints.length < 3 * this.pointCount)
+            this.modelPoints = new double[3 * this.latitudes.length];
+
+        // Pack the positions into the model point array, then convert them in place. Only the terrain elevation lookup
+        // still takes angles.
+        double[] points = this.modelPoints;
+        for (int i = 0; i < this.pointCount; i++)
+        {
+            double elevation;
+            if (this.altitudeMode == WorldWind.CLAMP_TO_GROUND)
+                elevation = verticalExaggeration * globe.getElevation(Angle.fromDegrees(this.latitudes[i]),
+                    Angle.fromDegrees(this.longitudes[i]));
+            else if (this.altitudeMode == WorldWind.RELATIVE_TO_GROUND)
+                elevation = verticalExaggeration * globe.getElevation(Angle.fromDegrees(this.latitudes[i]),
+                    Angle.fromDegrees(this.longitudes[i])) + this.altitudes[i];
+            else
+                elevation = verticalExaggeration * this.altitudes[i];
+
+            points[3 * i] = this.latitudes[i];
+            points[3 * i + 1] = this.longitudes[i];
+            points[3 * i + 2] = elevation;
+        }
+
+        globe.computePointsFromPositions(points, this.pointCount, null, points);
+    }
+
+    /**
+     * Projects all points to the screen, and records the points that are within the view frustum, in front of the
+     * globe's horizon and, if decluttering is enabled, not hidden by a higher priority point. The results are available
+     * from {@link #getVisibleIndices()} and {@link #getVisibleScreenPoints()}.
+     *
+     * @param globe                the globe the points are on.
+     * @param verticalExaggeration the vertical exaggeration.
+     * @param eyePoint             the eye point, in model coordinates.
+     * @param modelviewProjection  the product of the projection and modelview matrices.
+     * @param viewport             the viewport.
+     *
+     * @return the number of visible points.
+     *
+     * @throws IllegalArgumentException if any argument is null.
+     */
+    public int computeVisiblePoints(Globe globe, double verticalExaggeration, Vec4 eyePoint,
+        Matrix modelviewProjection, Rectangle viewport)
+    {
+        if (globe == null)
+        {
+            String message = Logging.getMessage("nullValue.GlobeIsNull");
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        if (eyePoint == null || modelviewProjection == null)
+        {
+            String message = Logging.getMessage(eyePoint == null ? "nullValue.EyeIsNull" : "nullValue.MatrixIsNull");
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        if (viewport == null)
+        {
+            String message = Logging.getMessage("nullValue.RectangleIsNull");
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        this.updateModelPoints(globe, verticalExaggeration);
+
+        if (this.visibleIndices.length < this.pointCount)
+        {
+            this.visibleIndices = new int[this.latitudes.length];
+            this.screenPoints = new float[3 * this.latitudes.length];
+        }
+
+        // The horizon test is performed in a space in which the globe's ellipsoid is a unit sphere: a point is hidden
+        // if it is behind the plane of the horizon and within the cone tangent to the sphere from the eye.
+        boolean testHorizon = !(globe instanceof Globe2D);
+        double ra = 1 / globe.getEquatorialRadius();
+        double rb = 1 / globe.getPolarRadius();
+        double cx = eyePoint.x * ra;
+        double cy = eyePoint.y * rb;
+        double cz = eyePoint.z * ra;
+        double vh2 = cx * cx + cy * cy + cz * cz - 1;
+        if (vh2 <= 0) // The eye is inside the ellipsoid.
+            testHorizon = false;
+
+        // Prepare the declutter grid, using a new stamp rather than clearing the cells.
+        int cellSize = this.declutterCellSize;
+        int gridWidth = viewport.width / cellSize + 1;
+        int gridHeight = viewport.height / cellSize + 1;
+        boolean declutter = this.enableDecluttering;
+        if (declutter)
+        {
+            if (this.cellStamps.length < gridWidth * gridHeight)
+            {
+                this.cellStamps = new int[gridWidth * gridHeight];
+                this.cellStamp = 0;
+            }
+
+            if (++this.cellStamp == Integer.MAX_VALUE)
+            {
+                Arrays.fill(this.cellStamps, 0);
+                this.cellStamp = 1;
+            }
+        }
+
+        Matrix m = modelviewProjection;
+        double halfWidth = 0.5 * viewport.width;
+        double halfHeight = 0.5 * viewport.height;
+        double[] points = this.modelPoints;
+        int[] indices = this.visibleIndices;
+        float[] screen = this.screenPoints;
+        int[] stamps = this.cellStamps;
+        int stamp = this.cellStamp;
+        int count = 0;
+
+        for (int i = 0, j = 0; i < this.pointCount; i++, j += 3)
+        {
+            double x = points[j];
+            double y = points[j + 1];
+            double z = points[j + 2];
+
+            double w = m.m41 * x + m.m42 * y + m.m43 * z + m.m44;
+            if (w <= 0)
+                continue;
+
+            double px = m.m11 * x + m.m12 * y + m.m13 * z + m.m14;
+            if (px < -w || px > w)
+                continue;
+
+            double py = m.m21 * x + m.m22 * y + m.m23 * z + m.m24;
+            if (py < -w || py > w)
+                continue;
+
+            double pz = m.m31 * x + m.m32 * y + m.m33 * z + m.m34;
+            if (pz < -w || pz > w)
+                continue;
+
+            if (testHorizon)
+            {
+                double tx = x * ra - cx;
+                double ty = y * rb - cy;
+                double tz = z * ra - cz;
+                double vtDotVc = -(tx * cx + ty * cy + tz * cz);
+                if (vtDotVc > vh2 && vtDotVc * vtDotVc / (tx * tx + ty * ty + tz * tz) > vh2)
+                    continue;
+            }
+
+            double sx = halfWidth * (px / w + 1);
+            double sy = halfHeight * (py / w + 1);
+
+            if (declutter)
+            {
+                int cell = ((int) sy / cellSize) * gridWidth + (int) sx / cellSize;
+                if (stamps[cell] == stamp)
+                    continue;
+                stamps[cell] = stamp;
+            }
+
+            indices[count] = i;
+            screen[3 * count] = (float) sx;
+            screen[3 * count + 1] = (float) sy;
+            screen[3 * count + 2] = (float) (0.5 * (pz / w + 1));
+            count++;
+        }
+
+        this.visibleCount = count;
+
+        return count;
+    }
+
+    @Override
+    protected void doRender(DrawContext dc)
+    {
+        this.draw(dc);
+    }
+
+    @Override
+    protected void doPick(DrawContext dc, Point point)
+    {
+        this.pickSupport.clearPickList();
+        try
+        {
+            this.pickSupport.beginPicking(dc);
+            this.draw(dc);
+        }
+        finally
+        {
+            this.pickSupport.endPicking(dc);
+            this.pickSupport.resolvePick(dc, point, this);
+        }
+    }
+
+    /**
+     * Computes the visible points if they have not been computed for the current frame, and draws them.
+     *
+     * @param dc the current draw context.
+     */
+    protected void draw(DrawContext dc)
+    {
+        if (this.pointCount == 0)
+            return;
+
+        // The picking and rendering passes of a frame share the same visible points.
+        if (dc.getFrameTimeStamp() != this.visibleFrameTimeStamp)
+        {
+            Matrix mvp = dc.getView().getProjectionMatrix().multiply(dc.getView().getModelviewMatrix());
+            this.computeVisiblePoints(dc.getGlobe(), dc.getVerticalExaggeration(), dc.getView().getEyePoint(), mvp,
+                dc.getView().getViewport());
+            this.visibleFrameTimeStamp = dc.getFrameTimeStamp();
+        }
+
+        if (this.visibleCount == 0)
+            return;
+
+        GL2 gl = dc.getGL().getGL2(); // GL initialization checks for GL2 compatibility.
+        Rectangle viewport = dc.getView().getViewport();
+        OGLStackHandler ogsh = new OGLStackHandler();
+        ogsh.pushAttrib(gl, GL2.GL_COLOR_BUFFER_BIT // for blend and alpha test
+            | GL2.GL_DEPTH_BUFFER_BIT // for depth test, depth mask and depth func
+            | GL2.GL_ENABLE_BIT // for enable/disable changes
+            | GL2.GL_POINT_BIT // for point size and smoothing
+            | GL2.GL_CURRENT_BIT); // for current color
+        ogsh.pushClientAttrib(gl, GL2.GL_CLIENT_VERTEX_ARRAY_BIT);
+        try
+        {
+            // Draw in window coordinates, with z equal to the window depth.
+            ogsh.pushProjectionIdentity(gl);
+            gl.glOrtho(0, viewport.width, 0, viewport.height, 0, -1);
+            ogsh.pushModelviewIdentity(gl);
+
+            gl.glDisable(GL.GL_TEXTURE_2D);
+            gl.glDisable(GL2.GL_LIGHTING);
+            if (!dc.isDeepPickingEnabled())
+                gl.glEnable(GL.GL_DEPTH_TEST);
+            gl.glDepthFunc(GL.GL_LEQUAL);
+            gl.glDepthMask(false);
+
+            if (!dc.isPickingMode())
+            {
+                gl.glEnable(GL.GL_BLEND);
+                OGLUtil.applyBlending(gl, false);
+                gl.glEnable(GL2.GL_POINT_SMOOTH);
+            }
+
+            this.drawPoints(dc);
+
+            if (!dc.isPickingMode() && this.maxLabels > 0)
+                this.drawLabels(dc);
+        }
+        finally
+        {
+            ogsh.pop(gl);
+        }
+    }
+
+    /**
+     * Draws the visible points as one run of GL_POINTS per style. In picking mode each point is drawn in a unique pick
+     * color.
+     *
+     * @param dc the current draw context.
+     */
+    protected void drawPoints(DrawContext dc)
+    {
+        int count = this.visibleCount;
+        if (this.vertexBuffer == null || this.vertexBuffer.capacity() < 3 * count)
+        {
+            this.vertexBuffer = Buffers.newDirectFloatBuffer(3 * this.visibleIndices.length);
+            this.colorBuffer = Buffers.newDirectByteBuffer(4 * this.visibleIndices.length);
+        }
+
+        // Sort the visible points by style with a counting sort, so that each style is drawn with a single call.
+        if (this.styleOffsets.length < this.styleCount + 1)
+            this.styleOffsets = new int[this.styleCount + 1];
+        int[] offsets = this.styleOffsets;
+        Arrays.fill(offsets, 0, this.styleCount + 1, 0);
+        for (int k = 0; k < count; k++)
+        {
+            offsets[this.styles[this.visibleIndices[k]] + 1]++;
+        }
+        for (int s = 0; s < this.styleCount; s++)
+        {
+            offsets[s + 1] += offsets[s];
+        }
+
+        int pickBase = 0;
+        if (dc.isPickingMode())
+        {
+            pickBase = dc.getUniquePickColorRange(count).getRGB() & 0xFFFFFF;
+            final int[] pickedIndices = Arrays.copyOf(this.visibleIndices, count);
+            final int base = pickBase;
+            this.pickSupport.addPickableObjectRange(pickBase, count, new PickedObjectFactory()
+            {
+                public PickedObject createPickedObject(int colorCode)
+                {
+                    return createPickedPoint(colorCode, pickedIndices[colorCode - base]);
+                }
+            });
+        }
+
+        FloatBuffer vertices = this.vertexBuffer;
+        ByteBuffer colors = this.colorBuffer;
+        int[] next = Arrays.copyOf(offsets, this.styleCount);
+        for (int k = 0; k < count; k++)
+        {
+            int style = this.styles[this.visibleIndices[k]];
+            int pos = next[style]++;
+            vertices.put(3 * pos, this.screenPoints[3 * k]);
+            vertices.put(3 * pos + 1, this.screenPoints[3 * k + 1]);
+            vertices.put(3 * pos + 2, (float) (this.screenPoints[3 * k + 2] - DEPTH_OFFSET));
+
+            int color = dc.isPickingMode() ? (pickBase + k) | 0xFF000000 : this.styleColors[style];
+            colors.put(4 * pos, (byte) (color >> 16));
+            colors.put(4 * pos + 1, (byte) (color >> 8));
+            colors.put(4 * pos + 2, (byte) color);
+            colors.put(4 * pos + 3, (byte) (color >>> 24));
+        }
+        vertices.rewind();
+        colors.rewind();
+
+        GL2 gl = dc.getGL().getGL2(); // GL initialization checks for GL2 compatibility.
+        gl.glEnableClientState(GL2.GL_VERTEX_ARRAY);
+        gl.glEnableClientState(GL2.GL_COLOR_ARRAY);
+        gl.glVertexPointer(3, GL.GL_FLOAT, 0, vertices);
+        gl.glColorPointer(4, GL.GL_UNSIGNED_BYTE, 0, colors);
+
+        for (int s = 0; s < this.styleCount; s++)
+        {
+            int n = offsets[s + 1] - offsets[s];
+            if (n == 0)
+                continue;
+
+            gl.glPointSize(this.styleSizes[s]);
+            gl.glDrawArrays(GL.GL_POINTS, offsets[s], n);
+        }
+    }
+
+    /**
+     * Creates the picked object for a point.
+     *
+     * @param colorCode the point's pick color code.
+     * @param index     the point's index.
+     *
+     * @return the picked object.
+     */
+    protected PickedObject createPickedPoint(int colorCode, int index)
+    {
+        PickedObject po = new PickedObject(colorCode, this, this.getPointPosition(index), false);
+        po.setValue(AVKey.ORDINAL, index);
+
+        return po;
+    }
+
+    /**
+     * Draws the labels of the visible points to the right of each point, omitting labels that overlap the label of a
+     * higher priority point.
+     *
+     * @param dc the current draw context.
+     */
+    protected void drawLabels(DrawContext dc)
+    {
+        TextRenderer textRenderer = OGLTextRenderer.getOrCreateTextRenderer(dc.getTextRendererCache(),
+            this.labelFont);
+        Rectangle viewport = dc.getView().getViewport();
+        this.labelGrid.reset(0, 0, viewport.width, viewport.height, 64, 16);
+
+        Color color = this.labelColor;
+        Color backgroundColor = color.getAlpha() < 255 ? new Color(0, 0, 0, color.getAlpha()) : Color.BLACK;
+
+        GL2 gl = dc.getGL().getGL2(); // GL initialization checks for GL2 compatibility.
+        gl.glDisable(GL.GL_DEPTH_TEST);
+
+        textRenderer.begin3DRendering();
+        try
+        {
+            int drawn = 0;
+            for (int k = 0; k < this.visibleCount && drawn < this.maxLabels; k++)
+            {
+                int index = this.visibleIndices[k];
+                String label = this.labels[index];
+                if (label == null)
+                    continue;
+
+                float x = this.screenPoints[3 * k] + 0.5f * this.styleSizes[this.styles[index]] + LABEL_OFFSET;
+                float y = this.screenPoints[3 * k + 1];
+                Rectangle2D bounds = textRenderer.getBounds(label);
+                bounds.setRect(x, y - 0.5 * bounds.getHeight(), bounds.getWidth(), bounds.getHeight());
+                if (this.labelGrid.firstIntersecting(bounds) >= 0)
+                    continue;
+                this.labelGrid.add(bounds);
+
+                float ty = (float) bounds.getY();
+                textRenderer.setColor(backgroundColor);
+                textRenderer.draw3D(label, x + 1, ty - 1, 0, 1);
+                textRenderer.setColor(color);
+                textRenderer.draw3D(label, x, ty, 0, 1);
+                drawn++;
+            }
+        }
+        finally
+        {
+            textRenderer.end3DRendering();
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return Logging.getMessage("layers.BulkPointLayer.Name");
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+package gov.nasa.worldwind.layers;
+
+import gov.nasa.worldwind.render.*;
+import gov.nasa.worldwind.util.*;
+
+import java.util.ArrayList;
+
+/**
+ * A {@link RenderableLayer} that keeps its renderables in a {@link RenderableQuadTree} and pre-renders, picks and
+ * renders only those that may intersect the view frustum. Whole groups of renderables outside the frustum are culled
+ * with a single test, so the per-frame cost grows with the number of visible renderables rather than the total. This
+ * suits layers holding many thousands of geographically distributed shapes or placemarks.
+ * <p/>
+ * Renderables are placed in the tree according to their geographic bounds when they are added. Applications that move
+ * a renderable or change its positions must call {@link #updateRenderable(gov.nasa.worldwind.render.Renderable)}
+ * afterwards. Renderables that are neither {@link gov.nasa.worldwind.render.GeographicExtent}s nor {@link
+ * gov.nasa.worldwind.Locatable}s, such as screen annotations, are never culled.
+ * <p/>
+ * Unlike <code>RenderableLayer</code>, this layer does not draw its renderables in the order they were added. Culling
+ * is disabled, and the layer behaves as a <code>RenderableLayer</code>, when a custom Iterable has been specified by
+ * {@link #setRenderables(Iterable)} or the globe is a continuous 2D globe.
+ *
+ * @version $Id$
+ * @see RenderableQuadTree
+ */
+public class IndexedRenderableLayer extends RenderableLayer
+{
+    protected RenderableQuadTree index = new RenderableQuadTree();
+    /** The renderables that passed culling in the current frame. */
+    protected ArrayList<Renderable> visibleRenderables = new ArrayList<Renderable>();
+    protected long visibleFrameTimeStamp = -1;
+
+    /** Creates a new <code>IndexedRenderableLayer</code> with a null <code>delegateOwner</code> */
+    public IndexedRenderableLayer()
+    {
+    }
+
+    @Override
+    public void addRenderable(Renderable renderable)
+    {
+        super.addRenderable(renderable);
+        this.index.add(renderable);
+    }
+
+    @Override
+    public void addRenderable(int index, Renderable renderable)
+    {
+        super.addRenderable(index, renderable);
+        this.index.add(renderable);
+    }
+
+    @Override
+    public void addRenderables(Iterable<? extends Renderable> renderables)
+    {
+        super.addRenderables(renderables);
+
+        for (Renderable renderable : renderables)
+        {
+            if (renderable != null)
+                this.index.add(renderable);
+        }
+    }
+
+    @Override
+    public void removeRenderable(Renderable renderable)
+    {
+        super.removeRenderable(renderable);
+        this.index.remove(renderable);
+    }
+
+    /**
+     * Reindexes a renderable in this layer after its geographic bounds have changed. Does nothing if the renderable is
+     * not in this layer.
+     *
+     * @param renderable the renderable to reindex.
+     *
+     * @throws IllegalArgumentException If <code>renderable</code> is null.
+     */
+    public void updateRenderable(Renderable renderable)
+    {
+        if (renderable == null)
+        {
+            String msg = Logging.getMessage("nullValue.RenderableIsNull");
+            Logging.logger().severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        this.index.update(renderable);
+    }
+
+    @Override
+    protected void clearRenderables()
+    {
+        super.clearRenderables();
+        this.index.clear();
+    }
+
+    @Override
+    protected void disposeRenderables()
+    {
+        super.disposeRenderables();
+        this.index.clear();
+    }
+
+    /**
+     * Returns the renderables that may be visible in the current frame. Culling is performed once per frame; the
+     * pre-render, pick and render passes of the same frame share its result.
+     *
+     * @param dc the current draw context.
+     *
+     * @return the renderables to draw in the current frame.
+     */
+    protected Iterable<Renderable> getVisibleRenderables(DrawContext dc)
+    {
+        if (this.renderablesOverride != null || dc.isContinuous2DGlobe() || dc.getView() == null)
+            return this.getActiveRenderables();
+
+        if (this.visibleFrameTimeStamp != dc.getFrameTimeStamp())
+        {
+            this.visibleRenderables.clear();
+            this.index.getVisibleRenderables(dc.getGlobe(), dc.getVerticalExaggeration(),
+                dc.getView().getFrustumInModelCoordinates(), this.visibleRenderables);
+            this.visibleFrameTimeStamp = dc.getFrameTimeStamp();
+        }
+
+        return this.visibleRenderables;
+    }
+
+    @Override
+    protected void doPreRender(DrawContext dc)
+    {
+        this.doPreRender(dc, this.getVisibleRenderables(dc));
+    }
+
+    @Override
+    protected void doPick(DrawContext dc, java.awt.Point pickPoint)
+    {
+        this.doPick(dc, this.getVisibleRenderables(dc), pickPoint);
+    }
+
+    @Override
+    protected void doRender(DrawContext dc)
+    {
+        this.doRender(dc, this.getVisibleRenderables(dc));
+    }
+}
@@ -6,6 +6,7 @@
 package gov.nasa.worldwind.layers.rpf;
 
 import gov.nasa.worldwind.avlist.*;
+import gov.nasa.worldwind.cache.*;
 import gov.nasa.worldwind.formats.rpf.*;
 import gov.nasa.worldwind.formats.wvt.*;
 import gov.nasa.worldwind.geom.*;
@@ -17,6 +18,7 @@ import java.awt.image.*;
 import java.io.*;
 import java.net.*;
 import java.util.*;
+import java.util.concurrent.*;
 
 /**
  * @author brownrigg
@@ -32,11 +34,17 @@ class RPFGenerator
     // Wavelet parameters.
     private final int smallImageSize;
     private final int preloadRes;
+    // Decoded frames, and the frames currently being decoded.
+    private final MemoryCache frameCache;
+    private final ConcurrentHashMap<Long, Future<RPFFrameTransform.RPFImage[]>> pendingFrames =
+        new ConcurrentHashMap<Long, Future<RPFFrameTransform.RPFImage[]>>();
+    private static ExecutorService decodeExecutor;
 
     // Configuration property keys.
     public static final String RPF_FILE_INDEX = "RPFGenerator.RPFFileIndex";
     public static final String WAVELET_IMAGE_THRESHOLD = "RPFGenerator.WaveletImageThreshold";
     public static final String WAVELET_PRELOAD_SIZE = "RPFGenerator.WaveletPreloadSize";
+    public static final String FRAME_CACHE_CAPACITY = "RPFGenerator.FrameCacheCapacity";
 
     public RPFGenerator(AVList params)
     {
@@ -56,6 +64,10 @@ class RPFGenerator
 
         this.smallImageSize = (Integer) params.getValue(WAVELET_IMAGE_THRESHOLD);
         this.preloadRes = (Integer) params.getValue(WAVELET_PRELOAD_SIZE);
+
+        long capacity = ((Number) params.getValue(FRAME_CACHE_CAPACITY)).longValue();
+        this.frameCache = new BasicMemoryCache((long) (0.8 * capacity), capacity);
+        this.frameCache.setName("RPF Decoded Frames");
     }
 
     private static AVList initParams(AVList params)
@@ -82,6 +94,10 @@ class RPFGenerator
         if (o == null || !(o instanceof Integer) || !WWMath.isPowerOfTwo((Integer) o))
             params.setValue(WAVELET_PRELOAD_SIZE, 32);
 
+        o = params.getValue(FRAME_CACHE_CAPACITY);
+        if (o == null || !(o instanceof Number) || ((Number) o).longValue() < 1)
+            params.setValue(FRAME_CACHE_CAPACITY, 128L * 1024L * 1024L);
+
         return params;
     }
 
@@ -213,6 +229,10 @@ class RPFGenerator
                 throw new IllegalArgumentException(message);
             }
 
+            // The decode started most recently is run on this thread after the frame loop. Until then it is published
+            // in the pending frames but not running, so it must not be left behind if the request fails.
+            DecodeFrameTask lastDecode = null;
+
             try
             {
                 Sector reqSector = (Sector) params.getValue(BBOX);
@@ -222,6 +242,11 @@ class RPFGenerator
                 BufferedImage reqImage = new BufferedImage(reqWidth, reqHeight, BufferedImage.TYPE_4BYTE_ABGR);
                 int numFramesInRequest = 0;
 
+                // Start decoding every RPF frame the request needs before drawing any of them, so that frames are
+                // decoded in parallel. Frames are then drawn in their original order.
+                ArrayList<FrameFile> requestFrames = new ArrayList<FrameFile>();
+                ArrayList<Object> requestSources = new ArrayList<Object>();
+
                 for (FrameFile frame : RPFGenerator.this.frameFiles)
                 {
                     try
@@ -253,16 +278,27 @@ class RPFGenerator
 
                     // Depending upon footprint, either get image from it RPF framefile, or reconstruct
                     // it from a wavelet encoding.
-                    BufferedImage sourceImage;
                     if (footprintX > smallImageSize || footprintY > smallImageSize)
                     {
-                        RPFFrameTransform.RPFImage[] images = getImageFromRPFSource(frame);
-                         if (images == null)
-                             continue;
-                         for (RPFFrameTransform.RPFImage image : images) {
-                             if (image.getSector() == null || image.getImage() == null) continue;
-                             drawImageIntoRequest(reqImage, reqSector, image.getImage(), image.getSector());
-                         }
+                        Object source = RPFGenerator.this.frameCache.getObject(frame.id);
+                        if (source == null)
+                        {
+                            // The most recently started decode is run on this thread rather than queued.
+                            if (lastDecode != null)
+                                getDecodeExecutor().execute(lastDecode);
+                            lastDecode = null;
+
+                            DecodeFrameTask task = new DecodeFrameTask(frame);
+                            source = RPFGenerator.this.pendingFrames.putIfAbsent(frame.id, task);
+                            if (source == null)
+                            {
+                                source = task;
+                                lastDecode = task;
+                            }
+                        }
+
+                        requestFrames.add(frame);
+                        requestSources.add(source);
                      }
                      else
                      {
@@ -272,10 +308,35 @@ class RPFGenerator
                          int res = (int) Math.pow(2., power);
                          res = Math.max(1, res);
 
-                         sourceImage = getImageFromWaveletEncoding(frame, res);
-                         if (sourceImage == null)
-                             continue;
-                         drawImageIntoRequest(reqImage, reqSector, sourceImage, frameSector);
+                         requestFrames.add(frame);
+                         requestSources.add(res);
+                    }
+                }
+
+                if (lastDecode != null)
+                    lastDecode.run();
+
+                for (int i = 0; i < requestFrames.size(); i++)
+                {
+                    FrameFile frame = requestFrames.get(i);
+                    Object source = requestSources.get(i);
+
+                    if (source instanceof Integer)
+                    {
+                        BufferedImage sourceImage = getImageFromWaveletEncoding(frame, (Integer) source);
+                        if (sourceImage == null)
+                            continue;
+                        drawImageIntoRequest(reqImage, reqSector, sourceImage, frame.sector);
+                    }
+                    else
+                    {
+                        RPFFrameTransform.RPFImage[] images = resolveFrameImages(frame, source);
+                        if (images == null)
+                            continue;
+                        for (RPFFrameTransform.RPFImage image : images) {
+                            if (image.getSector() == null || image.getImage() == null) continue;
+                            drawImageIntoRequest(reqImage, reqSector, image.getImage(), image.getSector());
+                        }
                     }
 
                     ++numFramesInRequest;
@@ -292,6 +353,12 @@ class RPFGenerator
                 Logging.logger().log(java.util.logging.Level.SEVERE, msg, e);
                 throw new IOException(msg);
             }
+            finally
+            {
+                // Withdraw the decode if it never ran. Other requests waiting on it then decode the frame themselves.
+                if (lastDecode != null)
+                    lastDecode.cancel(false);
+            }
         }
 
         private void drawImageIntoRequest(BufferedImage reqImage, Sector reqSector, BufferedImage srcImage, Sector srcSector)
@@ -430,6 +497,45 @@ class RPFGenerator
             return params;
         }
 
+        @SuppressWarnings({"unchecked"})
+        private RPFFrameTransform.RPFImage[] resolveFrameImages(FrameFile frame, Object source)
+            throws InterruptedException
+        {
+            while (source instanceof Future)
+            {
+                Future<RPFFrameTransform.RPFImage[]> future = (Future<RPFFrameTransform.RPFImage[]>) source;
+                try
+                {
+                    return future.get();
+                }
+                catch (ExecutionException e)
+                {
+                    // Exceptions while reading the frame are handled by getImageFromRPFSource.
+                    Logging.logger().log(java.util.logging.Level.SEVERE, e.getMessage(), e);
+                    return null;
+                }
+                catch (CancellationException e)
+                {
+                    // The request that started the decode failed before running it. Decode the frame on this thread,
+                    // unless it has been decoded or another request has started decoding it since.
+                    RPFGenerator.this.pendingFrames.remove(frame.id, future);
+                    source = RPFGenerator.this.frameCache.getObject(frame.id);
+                    if (source == null)
+                    {
+                        DecodeFrameTask task = new DecodeFrameTask(frame);
+                        source = RPFGenerator.this.pendingFrames.putIfAbsent(frame.id, task);
+                        if (source == null)
+                        {
+                            task.run();
+                            source = task;
+                        }
+                    }
+                }
+            }
+
+            return (RPFFrameTransform.RPFImage[]) source;
+        }
+
         //
         // Attempts to return the specified FrameFile as a BufferedImage. Returns null on failure.
         //
@@ -496,6 +602,71 @@ class RPFGenerator
         }
     }
 
+    //
+    // Decodes a frame file and adds its images to the frame cache. When the decode completes or is cancelled it removes
+    // itself from the pending frames, leaving any decode of the same frame started since in place.
+    //
+    private class DecodeFrameTask extends FutureTask<RPFFrameTransform.RPFImage[]>
+    {
+        private final FrameFile frame;
+
+        public DecodeFrameTask(final FrameFile frame)
+        {
+            super(new Callable<RPFFrameTransform.RPFImage[]>()
+            {
+                public RPFFrameTransform.RPFImage[] call() throws Exception
+                {
+                    RPFFrameTransform.RPFImage[] images = getServiceInstance().getImageFromRPFSource(frame);
+                    if (images != null)
+                        frameCache.add(frame.id, images, Math.min(sizeInBytes(images), frameCache.getCapacity()));
+
+                    return images;
+                }
+            });
+            this.frame = frame;
+        }
+
+        @Override
+        protected void done()
+        {
+            pendingFrames.remove(this.frame.id, this);
+        }
+    }
+
+    private static long sizeInBytes(RPFFrameTransform.RPFImage[] images)
+    {
+        long size = 1;
+
+        for (RPFFrameTransform.RPFImage image : images)
+        {
+            if (image.getImage() != null)
+                size += 4L * image.getImage().getWidth() * image.getImage().getHeight();
+        }
+
+        return size;
+    }
+
+    private static synchronized ExecutorService getDecodeExecutor()
+    {
+        if (decodeExecutor == null)
+        {
+            decodeExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+                new ThreadFactory()
+                {
+                    public Thread newThread(Runnable r)
+                    {
+                        Thread thread = new Thread(r);
+                        thread.setDaemon(true);
+                        thread.setPriority(Thread.MIN_PRIORITY);
+                        thread.setName("RPF Frame Decoder");
+                        return thread;
+                    }
+                });
+        }
+
+        return decodeExecutor;
+    }
+
     private void markFrameFileAbsent(FrameFile frame)
     {
         this.absentFrames.markResourceAbsent(frame.id);
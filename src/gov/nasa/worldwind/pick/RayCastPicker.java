@@ -0,0 +1,914 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+package gov.nasa.worldwind.pick;
+
+import gov.nasa.worldwind.*;
+import gov.nasa.worldwind.avlist.AVKey;
+import gov.nasa.worldwind.geom.*;
+import gov.nasa.worldwind.geom.Box;
+import gov.nasa.worldwind.globes.Globe;
+import gov.nasa.worldwind.layers.Layer;
+import gov.nasa.worldwind.render.*;
+import gov.nasa.worldwind.render.Polygon;
+import gov.nasa.worldwind.terrain.Terrain;
+import gov.nasa.worldwind.util.Logging;
+
+import java.awt.Point;
+import java.util.*;
+import java.util.List;
+
+/**
+ * Picks shapes and terrain by casting a ray against their geometry on the CPU, rather than by drawing them in unique
+ * colors and reading back the frame buffer. Picking requires no OpenGL context, so it can be used headless, for
+ * example in server-side code, and it does not cost a render pass.
+ * <p/>
+ * Objects are added to the picker, which indexes them in a bounding volume hierarchy built lazily on the first pick
+ * after the set of objects changes. The following objects are picked: <ul> <li>{@link Path}s, as polylines whose pick
+ * width is their outline width plus the pick tolerance, in pixels. Each segment is subdivided according to the path's
+ * path type and number of subsegments.</li> <li>{@link PointPlacemark}s, as screen-aligned discs centered on their
+ * position, whose diameter is a nominal icon size scaled by the placemark's scale. The icon image itself is not
+ * examined.</li> <li>Other {@link AbstractShape}s, such as {@link Polygon}, {@link ExtrudedPolygon} and {@link
+ * RigidShape}, by their {@link AbstractShape#intersect(gov.nasa.worldwind.geom.Line,
+ * gov.nasa.worldwind.terrain.Terrain)} method.</li> <li>The terrain, by {@link Terrain#intersect(Position, Position,
+ * int)} between the ray origin and a point below the lowest terrain.</li> </ul> The geometry of paths
+ * and placemarks is computed against the picker's terrain and cached. Objects that change shape or position must be
+ * refreshed by {@link #update(Object)}.
+ * <p/>
+ * A pick returns a {@link PickedObjectList} like that produced by color picking: the terrain's picked object, if the
+ * ray hits the terrain, followed by the picked objects in order of increasing distance from the ray origin, the
+ * nearest marked as on top. Objects farther than the terrain are omitted unless deep picking is enabled. A shape's
+ * delegate owner, if any, is reported in place of the shape.
+ * <p/>
+ * This class is thread safe.
+ *
+ * @version $Id$
+ */
+public class RayCastPicker
+{
+    /** The default distance in pixels by which a pick may miss a line or placemark. */
+    protected static final double DEFAULT_PICK_TOLERANCE = 3;
+    /** The nominal size in pixels of a placemark's icon, before the placemark's scale is applied. */
+    protected static final double DEFAULT_PLACEMARK_SIZE = 32;
+    /** The maximum number of objects in a leaf of the bounding volume hierarchy. */
+    protected static final int MAX_LEAF_SIZE = 4;
+
+    protected static class Entry
+    {
+        protected final Object object;
+        protected final Layer layer;
+        protected final int colorCode;
+        /** The entry's Cartesian bounds as min x, min y, min z, max x, max y, max z. */
+        protected final double[] bounds = new double[6];
+        protected boolean bounded;
+        /** The distance in pixels within which the ray hits the entry's points. Zero for surfaces and volumes. */
+        protected double pixelRadius;
+        /** Cached Cartesian points of a path's polyline or a placemark's position, as consecutive x, y, z triples. */
+        protected double[] points;
+        protected boolean geometryValid;
+
+        public Entry(Object object, Layer layer, int colorCode)
+        {
+            this.object = object;
+            this.layer = layer;
+            this.colorCode = colorCode;
+        }
+    }
+
+    protected static class Node
+    {
+        protected final double[] bounds = new double[6];
+        protected double maxPixelRadius;
+        protected Node left;
+        protected Node right;
+        /** The range of entries in a leaf node. */
+        protected int start;
+        protected int end;
+    }
+
+    protected static class Hit implements Comparable<Hit>
+    {
+        protected final Entry entry;
+        protected final double distance;
+        protected final Vec4 point;
+
+        public Hit(Entry entry, double distance, Vec4 point)
+        {
+            this.entry = entry;
+            this.distance = distance;
+            this.point = point;
+        }
+
+        public int compareTo(Hit that)
+        {
+            return Double.compare(this.distance, that.distance);
+        }
+    }
+
+    protected final Terrain terrain;
+    protected final Map<Object, Entry> entryMap = new IdentityHashMap<Object, Entry>();
+    protected int nextColorCode = 1;
+    protected double pickTolerance = DEFAULT_PICK_TOLERANCE;
+    protected boolean terrainPickEnabled = true;
+    protected boolean deepPickEnabled;
+    /** The bounded entries, ordered by the hierarchy so that each leaf's entries are contiguous. */
+    protected Entry[] boundedEntries;
+    protected List<Entry> unboundedEntries = new ArrayList<Entry>();
+    protected Node root;
+    protected boolean dirty = true;
+
+    /**
+     * Constructs a picker that computes shape geometry against, and picks, a specified terrain. To pick headless, use
+     * a {@link gov.nasa.worldwind.terrain.HighResolutionTerrain}.
+     *
+     * @param terrain the terrain.
+     *
+     * @throws IllegalArgumentException if the terrain is null.
+     */
+    public RayCastPicker(Terrain terrain)
+    {
+        if (terrain == null)
+        {
+            String msg = Logging.getMessage("nullValue.TerrainIsNull");
+            Logging.logger().severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        this.terrain = terrain;
+    }
+
+    public Terrain getTerrain()
+    {
+        return this.terrain;
+    }
+
+    /**
+     * Indicates the distance in pixels by which a pick may miss a path or placemark and still pick it.
+     *
+     * @return the pick tolerance in pixels.
+     */
+    public synchronized double getPickTolerance()
+    {
+        return this.pickTolerance;
+    }
+
+    /**
+     * Specifies the distance in pixels by which a pick may miss a path or placemark and still pick it.
+     *
+     * @param tolerance the pick tolerance in pixels.
+     */
+    public synchronized void setPickTolerance(double tolerance)
+    {
+        this.pickTolerance = tolerance;
+
+        // Each entry's pick radius includes the tolerance, so recompute every entry's geometry.
+        for (Entry entry : this.entryMap.values())
+        {
+            entry.geometryValid = false;
+        }
+        this.dirty = true;
+    }
+
+    public synchronized boolean isTerrainPickEnabled()
+    {
+        return this.terrainPickEnabled;
+    }
+
+    /**
+     * Specifies whether picks include the terrain. If false, the terrain is neither returned nor occludes objects
+     * behind it.
+     *
+     * @param enabled true to pick the terrain, otherwise false.
+     */
+    public synchronized void setTerrainPickEnabled(boolean enabled)
+    {
+        this.terrainPickEnabled = enabled;
+    }
+
+    public synchronized boolean isDeepPickEnabled()
+    {
+        return this.deepPickEnabled;
+    }
+
+    /**
+     * Specifies whether picks include objects behind the terrain.
+     *
+     * @param enabled true to return objects behind the terrain, otherwise false.
+     */
+    public synchronized void setDeepPickEnabled(boolean enabled)
+    {
+        this.deepPickEnabled = enabled;
+    }
+
+    /**
+     * Adds an object to the picker. Objects other than those described in the class documentation are ignored.
+     *
+     * @param object the object to add.
+     *
+     * @throws IllegalArgumentException if the object is null.
+     */
+    public void add(Object object)
+    {
+        this.add(object, null);
+    }
+
+    /**
+     * Adds an object to the picker, specifying the layer reported as the parent layer of its picked objects. Does
+     * nothing if the object has already been added.
+     *
+     * @param object the object to add.
+     * @param layer  the object's layer. May be null.
+     *
+     * @throws IllegalArgumentException if the object is null.
+     */
+    public synchronized void add(Object object, Layer layer)
+    {
+        if (object == null)
+        {
+            String msg = Logging.getMessage("nullValue.ObjectIsNull");
+            Logging.logger().severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        if (!this.entryMap.containsKey(object))
+        {
+            this.entryMap.put(object, new Entry(object, layer, this.nextColorCode++));
+            this.dirty = true;
+        }
+    }
+
+    /**
+     * Removes an object from the picker.
+     *
+     * @param object the object to remove.
+     *
+     * @throws IllegalArgumentException if the object is null.
+     */
+    public synchronized void remove(Object object)
+    {
+        if (object == null)
+        {
+            String msg = Logging.getMessage("nullValue.ObjectIsNull");
+            Logging.logger().severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        if (this.entryMap.remove(object) != null)
+            this.dirty = true;
+    }
+
+    /**
+     * Recomputes the cached geometry of an object whose shape or position has changed.
+     *
+     * @param object the object to update.
+     *
+     * @throws IllegalArgumentException if the object is null.
+     */
+    public synchronized void update(Object object)
+    {
+        if (object == null)
+        {
+            String msg = Logging.getMessage("nullValue.ObjectIsNull");
+            Logging.logger().severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        Entry entry = this.entryMap.get(object);
+        if (entry != null)
+        {
+            entry.geometryValid = false;
+            this.dirty = true;
+        }
+    }
+
+    /** Removes all objects from the picker. */
+    public synchronized void clear()
+    {
+        this.entryMap.clear();
+        this.dirty = true;
+    }
+
+    public synchronized int size()
+    {
+        return this.entryMap.size();
+    }
+
+    /**
+     * Picks the objects under a screen point of a view. The view must have been applied, so that its modelview and
+     * projection are current.
+     *
+     * @param view      the view.
+     * @param pickPoint the screen point, in AWT screen coordinates.
+     *
+     * @return the picked objects. The list is empty if nothing is picked.
+     *
+     * @throws IllegalArgumentException if the view or pick point is null.
+     * @throws InterruptedException     if the pick is interrupted while computing shape or terrain geometry.
+     */
+    public PickedObjectList pick(View view, Point pickPoint) throws InterruptedException
+    {
+        if (view == null)
+        {
+            String msg = Logging.getMessage("nullValue.ViewIsNull");
+            Logging.logger().severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        if (pickPoint == null)
+        {
+            String msg = Logging.getMessage("nullValue.PointIsNull");
+            Logging.logger().severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        Line ray = view.computeRayFromScreenPoint(pickPoint.getX(), pickPoint.getY());
+        if (ray == null)
+            return new PickedObjectList();
+
+        return this.pick(ray, view.computePixelSizeAtDistance(1));
+    }
+
+    /**
+     * Picks the objects along a ray.
+     *
+     * @param ray       the pick ray, with a unit length direction.
+     * @param pixelSize the size of a pixel, in meters, at a distance of one meter from the ray origin. Used to convert
+     *                  the pixel sizes of paths and placemarks to model coordinates.
+     *
+     * @return the picked objects. The list is empty if nothing is picked.
+     *
+     * @throws IllegalArgumentException if the ray is null.
+     * @throws InterruptedException     if the pick is interrupted while computing shape or terrain geometry.
+     */
+    public synchronized PickedObjectList pick(Line ray, double pixelSize) throws InterruptedException
+    {
+        if (ray == null)
+        {
+            String msg = Logging.getMessage("nullValue.LineIsNull");
+            Logging.logger().severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        if (this.dirty)
+            this.build();
+
+        Vec4 terrainPoint = this.isTerrainPickEnabled() ? this.intersectTerrain(ray) : null;
+        double maxDistance = terrainPoint != null && !this.isDeepPickEnabled()
+            ? terrainPoint.distanceTo3(ray.getOrigin()) : Double.MAX_VALUE;
+
+        List<Hit> hits = new ArrayList<Hit>();
+        if (this.root != null)
+            this.intersect(this.root, ray, pixelSize, maxDistance, hits);
+
+        for (Entry entry : this.unboundedEntries)
+        {
+            this.intersect(entry, ray, pixelSize, maxDistance, hits);
+        }
+
+        Collections.sort(hits);
+
+        Globe globe = this.terrain.getGlobe();
+        PickedObjectList pickedObjects = new PickedObjectList();
+
+        if (terrainPoint != null)
+        {
+            Position position = globe.computePositionFromPoint(terrainPoint);
+            PickedObject po = new PickedObject(0, position, position, true);
+            if (hits.isEmpty())
+                po.setOnTop();
+            pickedObjects.add(po);
+        }
+
+        for (Hit hit : hits)
+        {
+            Object userObject = hit.entry.object;
+            if (userObject instanceof AbstractShape && ((AbstractShape) userObject).getDelegateOwner() != null)
+                userObject = ((AbstractShape) userObject).getDelegateOwner();
+            else if (userObject instanceof PointPlacemark && ((PointPlacemark) userObject).getDelegateOwner() != null)
+                userObject = ((PointPlacemark) userObject).getDelegateOwner();
+
+            PickedObject po = new PickedObject(hit.entry.colorCode, userObject,
+                globe.computePositionFromPoint(hit.point), false);
+            po.setParentLayer(hit.entry.layer);
+            if (pickedObjects.isEmpty() || (terrainPoint != null && pickedObjects.size() == 1))
+                po.setOnTop();
+            pickedObjects.add(po);
+        }
+
+        return pickedObjects;
+    }
+
+    /**
+     * Returns the nearest intersection of a ray with the terrain.
+     *
+     * @param ray the ray.
+     *
+     * @return the intersection point, or null if the ray does not intersect the terrain.
+     *
+     * @throws InterruptedException if the operation is interrupted.
+     */
+    protected Vec4 intersectTerrain(Line ray) throws InterruptedException
+    {
+        // Intersect the terrain along the segment from the ray origin to a point below the lowest terrain.
+        Globe globe = this.terrain.getGlobe();
+        Intersection[] ellipsoid = globe.intersect(ray, Math.min(0, globe.getMinElevation()) - 1);
+        if (ellipsoid == null || ellipsoid.length == 0)
+            return null;
+
+        Position pA = globe.computePositionFromPoint(ray.getOrigin());
+        Position pB = globe.computePositionFromPoint(ellipsoid[0].getIntersectionPoint());
+        Intersection[] intersections = this.terrain.intersect(pA, pB, WorldWind.ABSOLUTE);
+
+        if (Thread.currentThread().isInterrupted())
+            throw new InterruptedException();
+
+        return nearest(ray, intersections != null ? Arrays.asList(intersections) : null);
+    }
+
+    protected static Vec4 nearest(Line ray, List<Intersection> intersections)
+    {
+        if (intersections == null)
+            return null;
+
+        Vec4 nearest = null;
+        double nearestDistance = Double.MAX_VALUE;
+        for (Intersection intersection : intersections)
+        {
+            Vec4 point = intersection.getIntersectionPoint();
+            double t = point.subtract3(ray.getOrigin()).dot3(ray.getDirection());
+            if (t >= 0 && t < nearestDistance)
+            {
+                nearest = point;
+                nearestDistance = t;
+            }
+        }
+
+        return nearest;
+    }
+
+    protected void intersect(Node node, Line ray, double pixelSize, double maxDistance, List<Hit> hits)
+        throws InterruptedException
+    {
+        if (!intersects(node.bounds, node.maxPixelRadius * pixelSize, ray, maxDistance))
+            return;
+
+        if (node.left == null)
+        {
+            for (int i = node.start; i < node.end; i++)
+            {
+                Entry entry = this.boundedEntries[i];
+                if (intersects(entry.bounds, entry.pixelRadius * pixelSize, ray, maxDistance))
+                    this.intersect(entry, ray, pixelSize, maxDistance, hits);
+            }
+        }
+        else
+        {
+            this.intersect(node.left, ray, pixelSize, maxDistance, hits);
+            this.intersect(node.right, ray, pixelSize, maxDistance, hits);
+        }
+    }
+
+    /**
+     * Indicates whether a ray passes within a distance of an axis-aligned box before a maximum distance. The distance
+     * grows in proportion to the distance from the ray origin, so the test is conservative for screen-space sizes.
+     *
+     * @param bounds      the box as min x, min y, min z, max x, max y, max z.
+     * @param growth      the distance by which to expand the box at unit distance from the ray origin.
+     * @param ray         the ray.
+     * @param maxDistance the maximum distance along the ray.
+     *
+     * @return true if the ray passes within the distance of the box, otherwise false.
+     */
+    protected static boolean intersects(double[] bounds, double growth, Line ray, double maxDistance)
+    {
+        Vec4 o = ray.getOrigin();
+        Vec4 d = ray.getDirection();
+
+        double pad = 0;
+        if (growth > 0)
+        {
+            // Expand the box by the growth at the distance of its farthest corner.
+            double dx = Math.max(Math.abs(bounds[0] - o.x), Math.abs(bounds[3] - o.x));
+            double dy = Math.max(Math.abs(bounds[1] - o.y), Math.abs(bounds[4] - o.y));
+            double dz = Math.max(Math.abs(bounds[2] - o.z), Math.abs(bounds[5] - o.z));
+            pad = growth * Math.sqrt(dx * dx + dy * dy + dz * dz);
+        }
+
+        double tNear = 0;
+        double tFar = maxDistance;
+        double[] origin = {o.x, o.y, o.z};
+        double[] direction = {d.x, d.y, d.z};
+
+        for (int i = 0; i < 3; i++)
+        {
+            double min = bounds[i] - pad;
+            double max = bounds[i + 3] + pad;
+
+            if (direction[i] == 0)
+            {
+                if (origin[i] < min || origin[i] > max)
+                    return false;
+                continue;
+            }
+
+            double t1 = (min - origin[i]) / direction[i];
+            double t2 = (max - origin[i]) / direction[i];
+            tNear = Math.max(tNear, Math.min(t1, t2));
+            tFar = Math.min(tFar, Math.max(t1, t2));
+
+            if (tNear > tFar)
+                return false;
+        }
+
+        return true;
+    }
+
+    protected void intersect(Entry entry, Line ray, double pixelSize, double maxDistance, List<Hit> hits)
+        throws InterruptedException
+    {
+        Object o = entry.object;
+
+        if (o instanceof Path)
+        {
+            if (((Path) o).isVisible())
+                this.intersectPolyline(entry, ray, pixelSize, maxDistance, hits);
+        }
+        else if (o instanceof PointPlacemark)
+        {
+            if (((PointPlacemark) o).isVisible())
+                this.intersectPoint(entry, ray, pixelSize, maxDistance, hits);
+        }
+        else if (o instanceof AbstractShape)
+        {
+            AbstractShape shape = (AbstractShape) o;
+            if (!shape.isVisible())
+                return;
+
+            Vec4 point = nearest(ray, shape.intersect(ray, this.terrain));
+            if (point != null)
+            {
+                double distance = point.distanceTo3(ray.getOrigin());
+                if (distance <= maxDistance)
+                    hits.add(new Hit(entry, distance, point));
+            }
+        }
+    }
+
+    protected void intersectPolyline(Entry entry, Line ray, double pixelSize, double maxDistance, List<Hit> hits)
+    {
+        double[] p = entry.points;
+        if (p == null)
+            return;
+
+        Vec4 o = ray.getOrigin();
+        Vec4 d = ray.getDirection();
+        double bestT = Double.MAX_VALUE;
+        double[] closest = new double[2];
+
+        for (int i = 0; i + 5 < p.length; i += 3)
+        {
+            closestApproach(o, d, p[i], p[i + 1], p[i + 2], p[i + 3], p[i + 4], p[i + 5], closest);
+            double t = closest[0];
+            if (t >= 0 && t <= maxDistance && t < bestT && closest[1] <= entry.pixelRadius * pixelSize * t)
+                bestT = t;
+        }
+
+        if (bestT != Double.MAX_VALUE)
+            hits.add(new Hit(entry, bestT, ray.getPointAt(bestT)));
+    }
+
+    protected void intersectPoint(Entry entry, Line ray, double pixelSize, double maxDistance, List<Hit> hits)
+    {
+        double[] p = entry.points;
+        if (p == null)
+            return;
+
+        Vec4 point = new Vec4(p[0], p[1], p[2]);
+        double t = point.subtract3(ray.getOrigin()).dot3(ray.getDirection());
+        if (t < 0 || t > maxDistance)
+            return;
+
+        if (ray.getPointAt(t).distanceTo3(point) <= entry.pixelRadius * pixelSize * t)
+            hits.add(new Hit(entry, t, point));
+    }
+
+    /**
+     * Computes the closest approach of a ray to a line segment.
+     *
+     * @param o      the ray origin.
+     * @param d      the unit ray direction.
+     * @param ax     the x coordinate of the segment's first point.
+     * @param ay     the y coordinate of the segment's first point.
+     * @param az     the z coordinate of the segment's first point.
+     * @param bx     the x coordinate of the segment's second point.
+     * @param by     the y coordinate of the segment's second point.
+     * @param bz     the z coordinate of the segment's second point.
+     * @param result an array in which to return the distance along the ray and the distance from the ray to the
+     *               segment at the closest approach.
+     */
+    protected static void closestApproach(Vec4 o, Vec4 d, double ax, double ay, double az, double bx, double by,
+        double bz, double[] result)
+    {
+        double ux = bx - ax, uy = by - ay, uz = bz - az;
+        double wx = o.x - ax, wy = o.y - ay, wz = o.z - az;
+
+        double b = d.x * ux + d.y * uy + d.z * uz;
+        double c = ux * ux + uy * uy + uz * uz;
+        double dd = d.x * wx + d.y * wy + d.z * wz;
+        double e = ux * wx + uy * wy + uz * wz;
+        double denom = c - b * b; // The ray direction is unit length.
+
+        // Parameter along the segment, clamped to its end points.
+        double s = c > 0 ? (denom > 1e-12 * c ? (e - b * dd) / denom : 0) : 0;
+        s = Math.max(0, Math.min(1, s));
+
+        // Parameter along the ray for the closest point to the segment point.
+        double t = b * s - dd;
+
+        double px = o.x + t * d.x - (ax + s * ux);
+        double py = o.y + t * d.y - (ay + s * uy);
+        double pz = o.z + t * d.z - (az + s * uz);
+
+        result[0] = t;
+        result[1] = Math.sqrt(px * px + py * py + pz * pz);
+    }
+
+    /** Computes the geometry of changed entries and rebuilds the bounding volume hierarchy. */
+    protected void build()
+    {
+        List<Entry> bounded = new ArrayList<Entry>();
+        this.unboundedEntries.clear();
+
+        for (Entry entry : this.entryMap.values())
+        {
+            if (!entry.geometryValid)
+            {
+                this.computeGeometry(entry);
+                entry.geometryValid = true;
+            }
+
+            if (entry.bounded)
+                bounded.add(entry);
+            else if (entry.object instanceof AbstractShape && !(entry.object instanceof Path))
+                this.unboundedEntries.add(entry);
+        }
+
+        this.boundedEntries = bounded.toArray(new Entry[bounded.size()]);
+        this.root = this.boundedEntries.length > 0 ? this.buildNode(0, this.boundedEntries.length) : null;
+        this.dirty = false;
+    }
+
+    protected Node buildNode(int start, int end)
+    {
+        Node node = new Node();
+        node.start = start;
+        node.end = end;
+
+        double[] b = node.bounds;
+        b[0] = b[1] = b[2] = Double.MAX_VALUE;
+        b[3] = b[4] = b[5] = -Double.MAX_VALUE;
+        for (int i = start; i < end; i++)
+        {
+            Entry entry = this.boundedEntries[i];
+            for (int k = 0; k < 3; k++)
+            {
+                b[k] = Math.min(b[k], entry.bounds[k]);
+                b[k + 3] = Math.max(b[k + 3], entry.bounds[k + 3]);
+            }
+            node.maxPixelRadius = Math.max(node.maxPixelRadius, entry.pixelRadius);
+        }
+
+        if (end - start <= MAX_LEAF_SIZE)
+            return node;
+
+        // Split at the median of the entry centers along the longest axis of the node's bounds.
+        int axis = 0;
+        for (int k = 1; k < 3; k++)
+        {
+            if (b[k + 3] - b[k] > b[axis + 3] - b[axis])
+                axis = k;
+        }
+
+        final int sortAxis = axis;
+        Arrays.sort(this.boundedEntries, start, end, new Comparator<Entry>()
+        {
+            public int compare(Entry a, Entry b)
+            {
+                return Double.compare(a.bounds[sortAxis] + a.bounds[sortAxis + 3],
+                    b.bounds[sortAxis] + b.bounds[sortAxis + 3]);
+            }
+        });
+
+        int mid = (start + end) >>> 1;
+        node.left = this.buildNode(start, mid);
+        node.right = this.buildNode(mid, end);
+
+        return node;
+    }
+
+    /**
+     * Computes an entry's cached geometry and bounds. Paths and placemarks cache their points. Other shapes are given
+     * conservative bounds from their geographic extent and the range of elevations they can occupy; shapes whose
+     * bounds cannot be determined are tested on every pick.
+     *
+     * @param entry the entry to compute geometry for.
+     */
+    protected void computeGeometry(Entry entry)
+    {
+        entry.bounded = false;
+        entry.points = null;
+        entry.pixelRadius = 0;
+
+        Object o = entry.object;
+        Globe globe = this.terrain.getGlobe();
+
+        if (o instanceof Path)
+        {
+            Path path = (Path) o;
+            entry.points = this.computePathPoints(path);
+            ShapeAttributes attrs = path.getAttributes();
+            double lineWidth = attrs != null ? attrs.getOutlineWidth() : 1;
+            entry.pixelRadius = 0.5 * lineWidth + this.pickTolerance;
+        }
+        else if (o instanceof PointPlacemark)
+        {
+            PointPlacemark placemark = (PointPlacemark) o;
+            Position position = placemark.getPosition();
+            if (position != null)
+            {
+                Vec4 point = this.computePoint(position, placemark.getAltitudeMode());
+                entry.points = new double[] {point.x, point.y, point.z};
+            }
+            PointPlacemarkAttributes attrs = placemark.getAttributes();
+            double scale = attrs != null && attrs.getScale() != null ? attrs.getScale() : 1;
+            entry.pixelRadius = 0.5 * DEFAULT_PLACEMARK_SIZE * scale + this.pickTolerance;
+        }
+        else if (o instanceof RigidShape)
+        {
+            RigidShape shape = (RigidShape) o;
+            Position center = shape.getCenterPosition();
+            if (center != null)
+            {
+                Vec4 point = this.computePoint(center, shape.getAltitudeMode());
+                double r = Math.sqrt(shape.getNorthSouthRadius() * shape.getNorthSouthRadius()
+                    + shape.getEastWestRadius() * shape.getEastWestRadius()
+                    + shape.getVerticalRadius() * shape.getVerticalRadius());
+                setBounds(entry.bounds, point.x - r, point.y - r, point.z - r, point.x + r, point.y + r, point.z + r);
+                entry.bounded = true;
+            }
+        }
+        else if (o instanceof Polygon || o instanceof ExtrudedPolygon)
+        {
+            Sector sector;
+            Iterable<? extends LatLon> positions;
+            double height = 0;
+
+            if (o instanceof Polygon)
+            {
+                sector = ((Polygon) o).getSector();
+                List<List<? extends Position>> boundaries = ((Polygon) o).getBoundaries();
+                positions = boundaries != null && boundaries.size() > 0 ? boundaries.get(0) : null;
+            }
+            else
+            {
+                sector = ((ExtrudedPolygon) o).getSector();
+                positions = ((ExtrudedPolygon) o).getOuterBoundary();
+                height = ((ExtrudedPolygon) o).getHeight();
+            }
+
+            if (sector != null && positions != null)
+            {
+                double minElevation = 0;
+                double maxElevation = 0;
+                for (LatLon location : positions)
+                {
+                    if (location instanceof Position)
+                    {
+                        minElevation = Math.min(minElevation, ((Position) location).getElevation());
+                        maxElevation = Math.max(maxElevation, ((Position) location).getElevation());
+                    }
+                }
+
+                // Conservative for every altitude mode: the shape lies between the lowest terrain offset by its lowest
+                // position and the highest terrain offset by its highest position and extrusion height.
+                Box box = Sector.computeBoundingBox(globe, this.terrain.getVerticalExaggeration(), sector,
+                    globe.getMinElevation() + minElevation,
+                    globe.getMaxElevation() + maxElevation + Math.max(0, height));
+                setBounds(entry.bounds, box.getCorners());
+                entry.bounded = true;
+            }
+        }
+
+        if (entry.points != null)
+        {
+            double[] p = entry.points;
+            setBounds(entry.bounds, p[0], p[1], p[2], p[0], p[1], p[2]);
+            for (int i = 3; i < p.length; i += 3)
+            {
+                entry.bounds[0] = Math.min(entry.bounds[0], p[i]);
+                entry.bounds[1] = Math.min(entry.bounds[1], p[i + 1]);
+                entry.bounds[2] = Math.min(entry.bounds[2], p[i + 2]);
+                entry.bounds[3] = Math.max(entry.bounds[3], p[i]);
+                entry.bounds[4] = Math.max(entry.bounds[4], p[i + 1]);
+                entry.bounds[5] = Math.max(entry.bounds[5], p[i + 2]);
+            }
+            entry.bounded = true;
+        }
+    }
+
+    protected double[] computePathPoints(Path path)
+    {
+        Iterable<? extends Position> positions = path.getPositions();
+        if (positions == null)
+            return null;
+
+        int numSubsegments = Math.max(1, path.getNumSubsegments());
+        String pathType = path.getPathType();
+        List<Vec4> points = new ArrayList<Vec4>();
+        Position previous = null;
+
+        for (Position position : positions)
+        {
+            if (previous != null && (path.isFollowTerrain() || !AVKey.LINEAR.equals(pathType)))
+            {
+                for (int i = 1; i < numSubsegments; i++)
+                {
+                    double amount = (double) i / numSubsegments;
+                    LatLon location = LatLon.interpolate(pathType, amount, previous, position);
+                    double elevation = (1 - amount) * previous.getElevation() + amount * position.getElevation();
+                    points.add(this.computePoint(new Position(location, elevation), path.getAltitudeMode()));
+                }
+            }
+
+            points.add(this.computePoint(position, path.getAltitudeMode()));
+            previous = position;
+        }
+
+        double[] coords = new double[3 * points.size()];
+        for (int i = 0; i < points.size(); i++)
+        {
+            Vec4 p = points.get(i);
+            coords[3 * i] = p.x;
+            coords[3 * i + 1] = p.y;
+            coords[3 * i + 2] = p.z;
+        }
+
+        return coords;
+    }
+
+    /**
+     * Computes the model coordinate point of a position in a specified altitude mode.
+     *
+     * @param position     the position.
+     * @param altitudeMode the altitude mode.
+     *
+     * @return the position's model coordinate point.
+     */
+    protected Vec4 computePoint(Position position, int altitudeMode)
+    {
+        Vec4 point = null;
+
+        if (altitudeMode == WorldWind.CLAMP_TO_GROUND)
+            point = this.terrain.getSurfacePoint(position.getLatitude(), position.getLongitude(), 0);
+        else if (altitudeMode == WorldWind.RELATIVE_TO_GROUND)
+            point = this.terrain.getSurfacePoint(position.getLatitude(), position.getLongitude(),
+                position.getElevation());
+
+        if (point == null)
+        {
+            point = this.terrain.getGlobe().computePointFromPosition(position.getLatitude(), position.getLongitude(),
+                position.getElevation() * this.terrain.getVerticalExaggeration());
+        }
+
+        return point;
+    }
+
+    protected static void setBounds(double[] bounds, double minX, double minY, double minZ, double maxX, double maxY,
+        double maxZ)
+    {
+        bounds[0] = minX;
+        bounds[1] = minY;
+        bounds[2] = minZ;
+        bounds[3] = maxX;
+        bounds[4] = maxY;
+        bounds[5] = maxZ;
+    }
+
+    protected static void setBounds(double[] bounds, Vec4[] corners)
+    {
+        setBounds(bounds, Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE, -Double.MAX_VALUE,
+            -Double.MAX_VALUE);
+
+        for (Vec4 corner : corners)
+        {
+            bounds[0] = Math.min(bounds[0], corner.x);
+            bounds[1] = Math.min(bounds[1], corner.y);
+            bounds[2] = Math.min(bounds[2], corner.z);
+            bounds[3] = Math.max(bounds[3], corner.x);
+            bounds[4] = Math.max(bounds[4], corner.y);
+            bounds[5] = Math.max(bounds[5], corner.z);
+        }
+    }
+}
@@ -0,0 +1,943 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+
+package gov.nasa.worldwind.poi;
+
+import gov.nasa.worldwind.avlist.AVKey;
+import gov.nasa.worldwind.exception.NoItemException;
+import gov.nasa.worldwind.geom.*;
+import gov.nasa.worldwind.util.*;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.*;
+
+/**
+ * A gazetteer over a fixed set of named places that answers nearest neighbor, distance and name queries locally,
+ * without a network service. The index is built once from a list of names and locations, from {@link PointOfInterest}s
+ * or from a delimited text file such as a GeoNames dump, and may be written to a file and later opened by mapping the
+ * file into memory, so opening even a very large index reads nothing until it's queried.
+ * <p/>
+ * Places are held in a single {@link ByteBuffer} whose layout is the file's format: a header, each place's latitude
+ * and longitude as integer multiples of 10<sup>-7</sup> degrees (about one centimeter), the offsets of each place's
+ * UTF-8 name, the places ordered by name and the offsets of their lower case names, followed by the names and the
+ * lower case names themselves. Places are stored in the order of an implicit, balanced k-d tree that alternately
+ * splits on latitude and longitude, so the tree needs no storage of its own. Nearest neighbor and distance queries
+ * descend the tree, skipping any subtree whose region is farther from the query location than the current result.
+ * Name queries binary search the lower case names.
+ * <p/>
+ * Queries identify places by their index, from zero to {@link #size()}, and are also available as lists of {@link
+ * PointOfInterest}s whose {@link AVKey#DISPLAY_NAME} is the place's name. The index is never modified after it's
+ * created, so any number of threads may query it concurrently. Distances are angular distances in radians, as in
+ * {@link Geodesy}; multiply by the globe's radius to compute a distance in meters. The index holds up to about 2
+ * gigabytes of places and names.
+ *
+ * @version $Id$
+ */
+public class POIIndex implements Gazetteer
+{
+    /** The first four bytes of an index, "WWPI". */
+    protected static final int MAGIC = 0x57575049;
+    protected static final int VERSION = 1;
+    protected static final int HEADER_SIZE = 20;
+    protected static final double DEGREES_PER_UNIT = 1e-7;
+    protected static final double UNITS_TO_RADIANS = DEGREES_PER_UNIT * Math.PI / 180d;
+    /** Tree nodes spanning this many places or fewer are searched in full rather than split further. */
+    protected static final int LEAF_SIZE = 8;
+    protected static final int DEFAULT_MAX_PLACES = 100;
+    protected static final Charset UTF8 = Charset.forName("UTF-8");
+
+    /** A nearest neighbor or distance query's state and results. */
+    protected abstract static class Search
+    {
+        protected final double latitude;
+        protected final double longitude;
+
+        public Search(double latitude, double longitude)
+        {
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+
+        /**
+         * Indicates whether a place or region at a specified distance from the query location may be in the results.
+         *
+         * @param distance the distance in radians.
+         *
+         * @return true if the distance is within the current results.
+         */
+        protected abstract boolean accepts(double distance);
+
+        protected abstract void add(int index, double distance);
+    }
+
+    /** Keeps the specified number of nearest places in a heap whose root is the farthest of them. */
+    protected static class NearestSearch extends Search
+    {
+        protected final int[] indices;
+        protected final double[] distances;
+        protected int size;
+
+        public NearestSearch(double latitude, double longitude, int count)
+        {
+            super(latitude, longitude);
+            this.indices = new int[count];
+            this.distances = new double[count];
+        }
+
+        protected boolean accepts(double distance)
+        {
+            return this.size < this.indices.length || distance < this.distances[0];
+        }
+
+        protected void add(int index, double distance)
+        {
+            if (this.size < this.indices.length)
+            {
+                // Sift the new place up from the end of the heap.
+                int i = this.size++;
+                while (i > 0 && this.distances[(i - 1) / 2] < distance)
+                {
+                    this.indices[i] = this.indices[(i - 1) / 2];
+                    this.distances[i] = this.distances[(i - 1) / 2];
+                    i = (i - 1) / 2;
+                }
+                this.indices[i] = index;
+                this.distances[i] = distance;
+            }
+            else
+            {
+                this.replaceRoot(index, distance, this.size);
+            }
+        }
+
+        /** Replaces the heap's root and sifts it down within the first <code>size</code> places. */
+        protected void replaceRoot(int index, double distance, int size)
+        {
+            int i = 0;
+            for (int child = 1; child < size; child = 2 * i + 1)
+            {
+                if (child + 1 < size && this.distances[child + 1] > this.distances[child])
+                    child++;
+                if (this.distances[child] <= distance)
+                    break;
+
+                this.indices[i] = this.indices[child];
+                this.distances[i] = this.distances[child];
+                i = child;
+            }
+            this.indices[i] = index;
+            this.distances[i] = distance;
+        }
+
+        /** Empties the heap, returning the places ordered from nearest to farthest. */
+        protected int[] toSortedIndices()
+        {
+            int[] sorted = new int[this.size];
+            for (int n = this.size; n > 0; n--)
+            {
+                sorted[n - 1] = this.indices[0];
+                this.replaceRoot(this.indices[n - 1], this.distances[n - 1], n - 1);
+            }
+
+            return sorted;
+        }
+    }
+
+    /** Collects every place within a specified distance. */
+    protected static class DistanceSearch extends Search
+    {
+        protected final double distance;
+        protected int[] indices = new int[16];
+        protected int size;
+
+        public DistanceSearch(double latitude, double longitude, double distance)
+        {
+            super(latitude, longitude);
+            this.distance = distance;
+        }
+
+        protected boolean accepts(double distance)
+        {
+            return distance <= this.distance;
+        }
+
+        protected void add(int index, double distance)
+        {
+            if (this.size == this.indices.length)
+                this.indices = Arrays.copyOf(this.indices, 2 * this.size);
+
+            this.indices[this.size++] = index;
+        }
+    }
+
+    protected final ByteBuffer buffer;
+    protected final int size;
+    protected final int latitudesOffset;
+    protected final int longitudesOffset;
+    protected final int nameOffsetsOffset;
+    protected final int nameOrderOffset;
+    protected final int keyOffsetsOffset;
+    protected final int namesOffset;
+    protected final int keysOffset;
+
+    /**
+     * Creates an index over a buffer holding an index's contents, such as the buffer of an index file mapped into
+     * memory. The buffer's contents must not be modified while the index is in use.
+     *
+     * @param buffer the buffer, whose contents begin at index zero.
+     *
+     * @throws IllegalArgumentException if the buffer is null or doesn't contain an index.
+     */
+    public POIIndex(ByteBuffer buffer)
+    {
+        if (buffer == null)
+        {
+            String message = Logging.getMessage("nullValue.BufferIsNull");
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+            || buffer.getInt(8) < 0 || buffer.getInt(12) < 0 || buffer.getInt(16) < 0
+            || computeSize(buffer.getInt(8), buffer.getInt(12), buffer.getInt(16)) > buffer.capacity())
+        {
+            String message = Logging.getMessage("POI.UnrecognizedIndexFormat");
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        this.buffer = buffer;
+        this.size = buffer.getInt(8);
+        this.latitudesOffset = HEADER_SIZE;
+        this.longitudesOffset = this.latitudesOffset + 4 * this.size;
+        this.nameOffsetsOffset = this.longitudesOffset + 4 * this.size;
+        this.nameOrderOffset = this.nameOffsetsOffset + 4 * (this.size + 1);
+        this.keyOffsetsOffset = this.nameOrderOffset + 4 * this.size;
+        this.namesOffset = this.keyOffsetsOffset + 4 * (this.size + 1);
+        this.keysOffset = this.namesOffset + buffer.getInt(12);
+    }
+
+    /**
+     * Opens an index file written by {@link #write(File)}, mapping it into memory.
+     *
+     * @param file the index file.
+     *
+     * @return the index.
+     *
+     * @throws IOException              if the file cannot be mapped.
+     * @throws IllegalArgumentException if the file is null or doesn't contain an index.
+     */
+    public static POIIndex open(File file) throws IOException
+    {
+        return new POIIndex(WWIO.mapFile(file, FileChannel.MapMode.READ_ONLY));
+    }
+
+    /**
+     * Creates an index of places specified by their names and locations.
+     *
+     * @param names     the places' names.
+     * @param locations the places' locations, holding each place's latitude followed by its longitude, in degrees.
+     *
+     * @return the index.
+     *
+     * @throws IllegalArgumentException if either argument or any name is null, if the locations array is too short for
+     *                                  the number of names, or if any location is outside +/- 90 degrees latitude and
+     *                                  +/- 180 degrees longitude.
+     */
+    public static POIIndex build(List<String> names, double[] locations)
+    {
+        if (names == null)
+        {
+            String message = Logging.getMessage("nullValue.ListIsNull");
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        if (locations == null)
+        {
+            String message = Logging.getMessage("nullValue.ArrayIsNull");
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        int size = names.size();
+        if (locations.length < 2 * size)
+        {
+            String message = Logging.getMessage("generic.ArrayInvalidLength", locations.length);
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        int[] latitudes = new int[size];
+        int[] longitudes = new int[size];
+        for (int i = 0; i < size; i++)
+        {
+            if (names.get(i) == null)
+            {
+                String message = Logging.getMessage("nullValue.NameIsNull");
+                Logging.logger().severe(message);
+                throw new IllegalArgumentException(message);
+            }
+
+            double latitude = locations[2 * i];
+            double longitude = locations[2 * i + 1];
+            if (!(latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180))
+            {
+                String message = Logging.getMessage("generic.ArgumentOutOfRange", latitude + ", " + longitude);
+                Logging.logger().severe(message);
+                throw new IllegalArgumentException(message);
+            }
+
+            latitudes[i] = (int) Math.round(latitude / DEGREES_PER_UNIT);
+            longitudes[i] = (int) Math.round(longitude / DEGREES_PER_UNIT);
+        }
+
+        // Arrange the places in k-d tree order, then encode their names in that order.
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++)
+        {
+            order[i] = i;
+        }
+        buildTree(order, latitudes, longitudes, 0, size, 0);
+
+        final byte[][] names8 = new byte[size][];
+        final byte[][] keys8 = new byte[size][];
+        long namesLength = 0;
+        long keysLength = 0;
+        for (int i = 0; i < size; i++)
+        {
+            String name = names.get(order[i]);
+            names8[i] = name.getBytes(UTF8);
+            keys8[i] = toKey(name);
+            namesLength += names8[i].length;
+            keysLength += keys8[i].length;
+        }
+
+        Integer[] nameOrder = new Integer[size];
+        for (int i = 0; i < size; i++)
+        {
+            nameOrder[i] = i;
+        }
+        Arrays.sort(nameOrder, new Comparator<Integer>()
+        {
+            public int compare(Integer a, Integer b)
+            {
+                return compareKeys(keys8[a], keys8[b]);
+            }
+        });
+
+        long length = computeSize(size, namesLength, keysLength);
+        if (length > Integer.MAX_VALUE)
+        {
+            String message = Logging.getMessage("POI.IndexTooLarge", length);
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) length);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(size).putInt((int) namesLength).putInt((int) keysLength);
+        for (int i = 0; i < size; i++)
+        {
+            buffer.putInt(latitudes[order[i]]);
+        }
+        for (int i = 0; i < size; i++)
+        {
+            buffer.putInt(longitudes[order[i]]);
+        }
+        for (int i = 0, offset = 0; i <= size; offset += i < size ? names8[i].length : 0, i++)
+        {
+            buffer.putInt(offset);
+        }
+        for (int i = 0; i < size; i++)
+        {
+            buffer.putInt(nameOrder[i]);
+        }
+        for (int i = 0, offset = 0; i <= size; offset += i < size ? keys8[nameOrder[i]].length : 0, i++)
+        {
+            buffer.putInt(offset);
+        }
+        for (int i = 0; i < size; i++)
+        {
+            buffer.put(names8[i]);
+        }
+        for (int i = 0; i < size; i++)
+        {
+            buffer.put(keys8[nameOrder[i]]);
+        }
+
+        return new POIIndex(buffer);
+    }
+
+    /**
+     * Creates an index of points of interest. Each place's name is its {@link AVKey#DISPLAY_NAME}, or the empty string
+     * if it has none.
+     *
+     * @param places the points of interest.
+     *
+     * @return the index.
+     *
+     * @throws IllegalArgumentException if the list is null.
+     */
+    public static POIIndex build(Iterable<? extends PointOfInterest> places)
+    {
+        if (places == null)
+        {
+            String message = Logging.getMessage("nullValue.ListIsNull");
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        List<String> names = new ArrayList<String>();
+        double[] locations = new double[64];
+        for (PointOfInterest place : places)
+        {
+            String name = place.getStringValue(AVKey.DISPLAY_NAME);
+            if (2 * names.size() == locations.length)
+                locations = Arrays.copyOf(locations, 2 * locations.length);
+
+            locations[2 * names.size()] = place.getLatlon().getLatitude().degrees;
+            locations[2 * names.size() + 1] = place.getLatlon().getLongitude().degrees;
+            names.add(name != null ? name : "");
+        }
+
+        return build(names, locations);
+    }
+
+    /**
+     * Creates an index of the places in a tab delimited text file, such as a GeoNames dump, which holds each place's
+     * name in column 1, its latitude in column 4 and its longitude in column 5. Lines that don't have the specified
+     * columns or whose coordinates aren't numbers are skipped.
+     *
+     * @param reader          the text to read.
+     * @param nameColumn      the zero based column of each place's name.
+     * @param latitudeColumn  the zero based column of each place's latitude, in degrees.
+     * @param longitudeColumn the zero based column of each place's longitude, in degrees.
+     *
+     * @return the index.
+     *
+     * @throws IOException              if the text cannot be read.
+     * @throws IllegalArgumentException if the reader is null or a column is negative.
+     */
+    public static POIIndex read(Reader reader, int nameColumn, int latitudeColumn, int longitudeColumn)
+        throws IOException
+    {
+        if (reader == null)
+        {
+            String message = Logging.getMessage("nullValue.ReaderIsNull");
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        if (nameColumn < 0 || latitudeColumn < 0 || longitudeColumn < 0)
+        {
+            String message = Logging.getMessage("generic.ArgumentOutOfRange",
+                nameColumn + ", " + latitudeColumn + ", " + longitudeColumn);
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        int numColumns = Math.max(nameColumn, Math.max(latitudeColumn, longitudeColumn)) + 1;
+        List<String> names = new ArrayList<String>();
+        double[] locations = new double[64];
+        BufferedReader lines = new BufferedReader(reader);
+        for (String line = lines.readLine(); line != null; line = lines.readLine())
+        {
+            String[] columns = line.split("\t", numColumns + 1);
+            if (columns.length < numColumns)
+                continue;
+
+            double latitude;
+            double longitude;
+            try
+            {
+                latitude = Double.parseDouble(columns[latitudeColumn]);
+                longitude = Double.parseDouble(columns[longitudeColumn]);
+            }
+            catch (NumberFormatException e)
+            {
+                continue;
+            }
+
+            if (2 * names.size() == locations.length)
+                locations = Arrays.copyOf(locations, 2 * locations.length);
+
+            locations[2 * names.size()] = latitude;
+            locations[2 * names.size() + 1] = longitude;
+            names.add(columns[nameColumn]);
+        }
+
+        return build(names, locations);
+    }
+
+    /**
+     * Writes this index to a file, which may be opened by {@link #open(File)}.
+     *
+     * @param file the file to write.
+     *
+     * @throws IOException              if the file cannot be written.
+     * @throws IllegalArgumentException if the file is null.
+     */
+    public void write(File file) throws IOException
+    {
+        if (file == null)
+        {
+            String message = Logging.getMessage("nullValue.FileIsNull");
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        ByteBuffer contents = this.buffer.duplicate();
+        contents.clear();
+        contents.limit(this.keysOffset + this.buffer.getInt(16));
+
+        FileOutputStream fos = null;
+        try
+        {
+            fos = new FileOutputStream(file);
+            FileChannel channel = fos.getChannel();
+            while (contents.hasRemaining())
+            {
+                channel.write(contents);
+            }
+        }
+        finally
+        {
+            WWIO.closeStream(fos, file.getPath());
+        }
+    }
+
+    /**
+     * Returns the number of places in this index.
+     *
+     * @return the number of places.
+     */
+    public int size()
+    {
+        return this.size;
+    }
+
+    /**
+     * Returns a place's latitude.
+     *
+     * @param index the place's index.
+     *
+     * @return the latitude in degrees.
+     */
+    public double getLatitude(int index)
+    {
+        return this.buffer.getInt(this.latitudesOffset + 4 * index) * DEGREES_PER_UNIT;
+    }
+
+    /**
+     * Returns a place's longitude.
+     *
+     * @param index the place's index.
+     *
+     * @return the longitude in degrees.
+     */
+    public double getLongitude(int index)
+    {
+        return this.buffer.getInt(this.longitudesOffset + 4 * index) * DEGREES_PER_UNIT;
+    }
+
+    /**
+     * Returns a place's name.
+     *
+     * @param index the place's index.
+     *
+     * @return the name.
+     */
+    public String getName(int index)
+    {
+        int start = this.buffer.getInt(this.nameOffsetsOffset + 4 * index);
+        int end = this.buffer.getInt(this.nameOffsetsOffset + 4 * index + 4);
+
+        return new String(this.getBytes(this.namesOffset + start, end - start), UTF8);
+    }
+
+    /**
+     * Returns a place as a point of interest whose {@link AVKey#DISPLAY_NAME} is the place's name.
+     *
+     * @param index the place's index.
+     *
+     * @return a new point of interest.
+     */
+    public PointOfInterest getPlace(int index)
+    {
+        BasicPointOfInterest place = new BasicPointOfInterest(
+            LatLon.fromDegrees(this.getLatitude(index), this.getLongitude(index)));
+        place.setValue(AVKey.DISPLAY_NAME, this.getName(index));
+
+        return place;
+    }
+
+    /**
+     * Finds the places nearest a location.
+     *
+     * @param latitude  the location's latitude in degrees.
+     * @param longitude the location's longitude in degrees.
+     * @param count     the maximum number of places to find.
+     *
+     * @return the indices of the nearest places, ordered from nearest to farthest.
+     *
+     * @throws IllegalArgumentException if the count is negative.
+     */
+    public int[] findNearest(double latitude, double longitude, int count)
+    {
+        if (count < 0)
+        {
+            String message = Logging.getMessage("generic.ArgumentOutOfRange", count);
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        NearestSearch search = new NearestSearch(Math.toRadians(latitude), Math.toRadians(longitude),
+            Math.min(count, this.size));
+        if (count > 0)
+            this.search(search, 0, this.size, 0, -Math.PI / 2, Math.PI / 2, -Math.PI, Math.PI);
+
+        return search.toSortedIndices();
+    }
+
+    /**
+     * Finds the places within a distance of a location.
+     *
+     * @param latitude  the location's latitude in degrees.
+     * @param longitude the location's longitude in degrees.
+     * @param distance  the great circle distance in radians.
+     *
+     * @return the indices of the places within the distance, in no particular order.
+     */
+    public int[] findWithin(double latitude, double longitude, double distance)
+    {
+        DistanceSearch search = new DistanceSearch(Math.toRadians(latitude), Math.toRadians(longitude), distance);
+        this.search(search, 0, this.size, 0, -Math.PI / 2, Math.PI / 2, -Math.PI, Math.PI);
+
+        return Arrays.copyOf(search.indices, search.size);
+    }
+
+    /**
+     * Finds the places whose names begin with a specified prefix, ignoring case. Places whose names equal the prefix
+     * are first, followed by the others in the order of their lower case names.
+     *
+     * @param prefix   the prefix.
+     * @param maxCount the maximum number of places to find.
+     *
+     * @return the indices of the matching places.
+     *
+     * @throws IllegalArgumentException if the prefix is null or the count is negative.
+     */
+    public int[] findByName(String prefix, int maxCount)
+    {
+        if (prefix == null)
+        {
+            String message = Logging.getMessage("nullValue.StringIsNull");
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        if (maxCount < 0)
+        {
+            String message = Logging.getMessage("generic.ArgumentOutOfRange", maxCount);
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        byte[] key = toKey(prefix);
+
+        // Find the first name not less than the prefix. The names that begin with the prefix follow it.
+        int lo = 0;
+        int hi = this.size;
+        while (lo < hi)
+        {
+            int mid = (lo + hi) >>> 1;
+            if (this.compareKey(mid, key) < 0)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+
+        int count = 0;
+        while (lo + count < this.size && count < maxCount && this.compareKey(lo + count, key) == 0)
+        {
+            count++;
+        }
+
+        int[] indices = new int[count];
+        for (int i = 0; i < count; i++)
+        {
+            indices[i] = this.buffer.getInt(this.nameOrderOffset + 4 * (lo + i));
+        }
+
+        return indices;
+    }
+
+    /**
+     * Returns the places nearest a location, as points of interest.
+     *
+     * @param location the location.
+     * @param count    the maximum number of places to return.
+     *
+     * @return the nearest places, ordered from nearest to farthest.
+     *
+     * @throws IllegalArgumentException if the location is null or the count is negative.
+     */
+    public List<PointOfInterest> getNearestPlaces(LatLon location, int count)
+    {
+        if (location == null)
+        {
+            String message = Logging.getMessage("nullValue.LatLonIsNull");
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        return this.getPlaces(this.findNearest(location.getLatitude().degrees, location.getLongitude().degrees, count));
+    }
+
+    /**
+     * Returns the places within a distance of a location, as points of interest.
+     *
+     * @param location the location.
+     * @param distance the great circle distance.
+     *
+     * @return the places within the distance, in no particular order.
+     *
+     * @throws IllegalArgumentException if the location or distance is null.
+     */
+    public List<PointOfInterest> getPlacesWithin(LatLon location, Angle distance)
+    {
+        if (location == null)
+        {
+            String message = Logging.getMessage("nullValue.LatLonIsNull");
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        if (distance == null)
+        {
+            String message = Logging.getMessage("nullValue.AngleIsNull");
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        return this.getPlaces(this.findWithin(location.getLatitude().degrees, location.getLongitude().degrees,
+            distance.radians));
+    }
+
+    /**
+     * Finds the places whose names begin with the specified text, ignoring case and surrounding white space. See
+     * {@link #findByName(String, int)}. Returns at most 100 places.
+     *
+     * @param placeInfo the beginning of the place names.
+     *
+     * @return the matching places, or null if the text is null or empty.
+     *
+     * @throws NoItemException if no place name begins with the text.
+     */
+    public List<PointOfInterest> findPlaces(String placeInfo) throws NoItemException
+    {
+        if (placeInfo == null || placeInfo.trim().length() < 1)
+            return null;
+
+        List<PointOfInterest> places = this.getPlaces(this.findByName(placeInfo.trim(), DEFAULT_MAX_PLACES));
+        if (places.isEmpty())
+            throw new NoItemException(Logging.getMessage("POI.NoPlaceFound", placeInfo));
+
+        return places;
+    }
+
+    protected List<PointOfInterest> getPlaces(int[] indices)
+    {
+        List<PointOfInterest> places = new ArrayList<PointOfInterest>(indices.length);
+        for (int index : indices)
+        {
+            places.add(this.getPlace(index));
+        }
+
+        return places;
+    }
+
+    /**
+     * Searches the tree node spanning a range of places, whose region is bounded by the specified latitudes and
+     * longitudes in radians. The node's place is the middle of the range, and its children are the ranges on either
+     * side. Searches the child on the search location's side first, then the other child if its region may hold a
+     * place within the search's results.
+     */
+    protected void search(Search search, int lo, int hi, int depth, double minLat, double maxLat, double minLon,
+        double maxLon)
+    {
+        if (hi - lo <= LEAF_SIZE)
+        {
+            for (int i = lo; i < hi; i++)
+            {
+                this.test(search, i);
+            }
+            return;
+        }
+
+        int mid = (lo + hi) >>> 1;
+        double split = this.test(search, mid);
+
+        if ((depth & 1) == 0)
+        {
+            if (search.latitude < split)
+            {
+                this.search(search, lo, mid, depth + 1, minLat, split, minLon, maxLon);
+                if (search.accepts(Geodesy.greatCircleDistanceToRegion(search.latitude, search.longitude, split,
+                    maxLat, minLon, maxLon)))
+                    this.search(search, mid + 1, hi, depth + 1, split, maxLat, minLon, maxLon);
+            }
+            else
+            {
+                this.search(search, mid + 1, hi, depth + 1, split, maxLat, minLon, maxLon);
+                if (search.accepts(Geodesy.greatCircleDistanceToRegion(search.latitude, search.longitude, minLat,
+                    split, minLon, maxLon)))
+                    this.search(search, lo, mid, depth + 1, minLat, split, minLon, maxLon);
+            }
+        }
+        else
+        {
+            split = this.buffer.getInt(this.longitudesOffset + 4 * mid) * UNITS_TO_RADIANS;
+            if (search.longitude < split)
+            {
+                this.search(search, lo, mid, depth + 1, minLat, maxLat, minLon, split);
+                if (search.accepts(Geodesy.greatCircleDistanceToRegion(search.latitude, search.longitude, minLat,
+                    maxLat, split, maxLon)))
+                    this.search(search, mid + 1, hi, depth + 1, minLat, maxLat, split, maxLon);
+            }
+            else
+            {
+                this.search(search, mid + 1, hi, depth + 1, minLat, maxLat, split, maxLon);
+                if (search.accepts(Geodesy.greatCircleDistanceToRegion(search.latitude, search.longitude, minLat,
+                    maxLat, minLon, split)))
+                    this.search(search, lo, mid, depth + 1, minLat, maxLat, minLon, split);
+            }
+        }
+    }
+
+    /** Adds a place to a search's results if it's within them, and returns the place's latitude in radians. */
+    protected double test(Search search, int index)
+    {
+        double lat = this.buffer.getInt(this.latitudesOffset + 4 * index) * UNITS_TO_RADIANS;
+        double lon = this.buffer.getInt(this.longitudesOffset + 4 * index) * UNITS_TO_RADIANS;
+        double distance = Geodesy.greatCircleDistance(search.latitude, search.longitude, lat, lon);
+        if (search.accepts(distance))
+            search.add(index, distance);
+
+        return lat;
+    }
+
+    /**
+     * Compares the lower case name at a position in name order with a key, considering only the key's length of the
+     * name.
+     *
+     * @return a negative number, zero or a positive number if the name is less than, begins with or is greater than the
+     * key.
+     */
+    protected int compareKey(int position, byte[] key)
+    {
+        int start = this.keysOffset + this.buffer.getInt(this.keyOffsetsOffset + 4 * position);
+        int length = this.keysOffset + this.buffer.getInt(this.keyOffsetsOffset + 4 * position + 4) - start;
+        for (int i = 0; i < key.length; i++)
+        {
+            if (i == length)
+                return -1;
+
+            int diff = (this.buffer.get(start + i) & 0xff) - (key[i] & 0xff);
+            if (diff != 0)
+                return diff;
+        }
+
+        return 0;
+    }
+
+    protected byte[] getBytes(int offset, int length)
+    {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++)
+        {
+            bytes[i] = this.buffer.get(offset + i);
+        }
+
+        return bytes;
+    }
+
+    protected static long computeSize(long size, long namesLength, long keysLength)
+    {
+        return HEADER_SIZE + 4 * (5 * size + 2) + namesLength + keysLength;
+    }
+
+    /** Returns the UTF-8 bytes of a lower case name, whose unsigned order is the order of the name's code points. */
+    protected static byte[] toKey(String name)
+    {
+        return name.toLowerCase(Locale.ROOT).getBytes(UTF8);
+    }
+
+    protected static int compareKeys(byte[] a, byte[] b)
+    {
+        for (int i = 0; i < a.length && i < b.length; i++)
+        {
+            int diff = (a[i] & 0xff) - (b[i] & 0xff);
+            if (diff != 0)
+                return diff;
+        }
+
+        return a.length - b.length;
+    }
+
+    /**
+     * Arranges a range of places in k-d tree order: the median place by latitude or longitude, alternately at each
+     * depth, is in the middle of the range, with places not greater than it before and places not less than it after.
+     */
+    protected static void buildTree(int[] order, int[] latitudes, int[] longitudes, int lo, int hi, int depth)
+    {
+        if (hi - lo <= LEAF_SIZE)
+            return;
+
+        int mid = (lo + hi) >>> 1;
+        select(order, (depth & 1) == 0 ? latitudes : longitudes, lo, hi - 1, mid);
+        buildTree(order, latitudes, longitudes, lo, mid, depth + 1);
+        buildTree(order, latitudes, longitudes, mid + 1, hi, depth + 1);
+    }
+
+    /** Partially sorts the places from lo to hi inclusive so the k'th is in its sorted position. */
+    protected static void select(int[] order, int[] keys, int lo, int hi, int k)
+    {
+        while (lo < hi)
+        {
+            int pivot = keys[order[(lo + hi) >>> 1]];
+            int i = lo;
+            int j = hi;
+            while (i <= j)
+            {
+                while (keys[order[i]] < pivot)
+                {
+                    i++;
+                }
+                while (keys[order[j]] > pivot)
+                {
+                    j--;
+                }
+                if (i <= j)
+                {
+                    int temp = order[i];
+                    order[i++] = order[j];
+                    order[j--] = temp;
+                }
+            }
+
+            if (k <= j)
+                hi = j;
+            else if (k >= i)
+                lo = i;
+            else
+                break;
+        }
+    }
+}
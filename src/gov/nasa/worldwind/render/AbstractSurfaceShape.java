@@ -8,6 +8,7 @@ package gov.nasa.worldwind.render;
 import com.jogamp.common.nio.Buffers;
 import gov.nasa.worldwind.*;
 import gov.nasa.worldwind.avlist.AVKey;
+import gov.nasa.worldwind.cache.*;
 import gov.nasa.worldwind.drag.*;
 import gov.nasa.worldwind.exception.WWRuntimeException;
 import gov.nasa.worldwind.geom.*;
@@ -60,12 +61,22 @@ public abstract class AbstractSurfaceShape extends AbstractSurfaceObject impleme
     protected static final int DEFAULT_MAX_EDGE_INTERVALS = 100;
     /** The attributes used if attributes are not specified. */
     protected static final ShapeAttributes defaultAttrs;
+    /** The memory cache key for the packed geometry shared by all surface shapes. */
+    protected static final String GEOMETRY_CACHE_KEY = PackedGeometry.class.getName();
 
     static
     {
         defaultAttrs = new BasicShapeAttributes();
         defaultAttrs.setInteriorMaterial(DEFAULT_INTERIOR_MATERIAL);
         defaultAttrs.setOutlineMaterial(DEFAULT_OUTLINE_MATERIAL);
+
+        if (!WorldWind.getMemoryCacheSet().containsCache(GEOMETRY_CACHE_KEY))
+        {
+            long size = Configuration.getLongValue(AVKey.SURFACE_SHAPE_GEOMETRY_CACHE_SIZE, (long) 32e6); // 32MB
+            MemoryCache cache = new BasicMemoryCache((long) (0.85 * size), size);
+            cache.setName("Surface Shape Geometry");
+            WorldWind.getMemoryCacheSet().addCache(GEOMETRY_CACHE_KEY, cache);
+        }
     }
 
     // Public interface properties.
@@ -82,9 +93,11 @@ public abstract class AbstractSurfaceShape extends AbstractSurfaceObject impleme
     // Rendering properties.
     protected List<List<LatLon>> activeGeometry = new ArrayList<List<LatLon>>(); // re-determined each frame
     protected List<List<LatLon>> activeOutlineGeometry = new ArrayList<List<LatLon>>(); // re-determined each frame
+    protected PackedGeometry activePackedGeometry; // re-determined each frame
     protected WWTexture texture; // An optional texture.
     protected Map<Object, CacheEntry> sectorCache = new HashMap<Object, CacheEntry>();
-    protected Map<Object, CacheEntry> geometryCache = new HashMap<Object, CacheEntry>();
+    /** Identifies this shape's current geometry in the geometry cache. Replaced when the shape's caches are cleared. */
+    protected long geometryId = nextUniqueId();
     protected OGLStackHandler stackHandler = new OGLStackHandler();
     protected static FloatBuffer vertexBuffer;
     // Measurement properties.
@@ -606,14 +619,15 @@ public abstract class AbstractSurfaceShape extends AbstractSurfaceObject impleme
     /**
      * {@inheritDoc}
      * <p/>
-     * Overridden to clear this SurfaceShape's internal sector and geometry caches.
+     * Overridden to clear this SurfaceShape's internal sector cache, and to identify its geometry in the geometry cache
+     * by a new ID. Geometry cached for the previous ID is no longer used, and is eventually evicted from the cache.
      */
     @Override
     protected void clearCaches()
     {
         super.clearCaches();
         this.sectorCache.clear();
-        this.geometryCache.clear();
+        this.geometryId = nextUniqueId();
     }
 
     //**************************************************************//
@@ -719,6 +733,7 @@ public abstract class AbstractSurfaceShape extends AbstractSurfaceObject impleme
 
     protected void doDrawGeographic(DrawContext dc, SurfaceTileDrawContext sdc)
     {
+        this.activePackedGeometry = null; // determined by the default implementation of determineActiveGeometry
         this.determineActiveGeometry(dc, sdc);
 
         if (this.getActiveAttributes().isDrawInterior() && this.getActiveAttributes().getInteriorOpacity() > 0)
@@ -786,41 +801,70 @@ public abstract class AbstractSurfaceShape extends AbstractSurfaceObject impleme
         return this.activeAttrs;
     }
 
+    /**
+     * Determines the geometry drawn for the specified surface tile draw context. By default this assigns the shape's
+     * cached {@link PackedGeometry} to {@link #activePackedGeometry}, leaving the lists {@link #activeGeometry} and
+     * {@link #activeOutlineGeometry} empty. Subclasses that override this method may instead fill those lists, which
+     * are drawn when there is no active packed geometry.
+     *
+     * @param dc  the current draw context.
+     * @param sdc the context of the surface tile being drawn.
+     */
     protected void determineActiveGeometry(DrawContext dc, SurfaceTileDrawContext sdc)
     {
         this.activeGeometry.clear();
         this.activeOutlineGeometry.clear();
+        this.activePackedGeometry = this.getCachedPackedGeometry(dc, sdc);
+    }
 
-        List<List<LatLon>> geom = this.getCachedGeometry(dc, sdc);
-        if (geom == null)
-            return;
+    /**
+     * Creates the packed geometry for a list of contours returned by {@link #createGeometry(Globe, double)}. The
+     * interior contours are wrapped around any pole they enclose and split along the anti-meridian, and the outline
+     * contours are split along the anti-meridian. This is performed once for each cached geometry rather than each time
+     * the shape is drawn.
+     *
+     * @param globe    the globe the geometry relates to.
+     * @param contours the contours to pack. May be null.
+     *
+     * @return the packed geometry, or null if the contours are null.
+     */
+    protected PackedGeometry createPackedGeometry(Globe globe, List<List<LatLon>> contours)
+    {
+        if (contours == null)
+            return null;
 
-        for (List<LatLon> locations : geom)
-        {
-            List<LatLon> drawLocations = new ArrayList<LatLon>(locations);
+        List<List<LatLon>> interior = new ArrayList<List<LatLon>>(contours.size());
+        List<List<LatLon>> outline = new ArrayList<List<LatLon>>(contours.size());
+        boolean sameOutline = true;
 
-            String pole = this.containsPole(drawLocations);
+        for (List<LatLon> locations : contours)
+        {
+            String pole = this.containsPole(locations);
             if (pole != null)
             {
                 // Wrap the shape interior around the pole and along the anti-meridian. See WWJ-284.
-                List<LatLon> poleLocations = this.cutAlongDateLine(drawLocations, pole, dc.getGlobe());
-                this.activeGeometry.add(poleLocations);
+                interior.add(this.cutAlongDateLine(locations, pole, globe));
                 // The outline need only compensate for dateline crossing. See WWJ-452.
-                List<List<LatLon>> datelineLocations = this.repeatAroundDateline(drawLocations);
-                this.activeOutlineGeometry.addAll(datelineLocations);
+                outline.addAll(this.repeatAroundDateline(locations));
+                sameOutline = false;
             }
-            else if (LatLon.locationsCrossDateLine(drawLocations))
+            else if (LatLon.locationsCrossDateLine(locations))
             {
-                List<List<LatLon>> datelineLocations = this.repeatAroundDateline(drawLocations);
-                this.activeGeometry.addAll(datelineLocations);
-                this.activeOutlineGeometry.addAll(datelineLocations);
+                List<List<LatLon>> datelineLocations = this.repeatAroundDateline(locations);
+                interior.addAll(datelineLocations);
+                outline.addAll(datelineLocations);
             }
             else
             {
-                this.activeGeometry.add(drawLocations);
-                this.activeOutlineGeometry.add(drawLocations);
+                interior.add(locations);
+                outline.add(locations);
             }
         }
+
+        PackedContours packedInterior = new PackedContours(interior);
+        PackedContours packedOutline = sameOutline ? packedInterior : new PackedContours(outline);
+
+        return new PackedGeometry(new PackedContours(contours), packedInterior, packedOutline);
     }
 
     /**
@@ -898,7 +942,8 @@ public abstract class AbstractSurfaceShape extends AbstractSurfaceObject impleme
 
     protected void drawInterior(DrawContext dc, SurfaceTileDrawContext sdc)
     {
-        if (this.getActiveGeometry().isEmpty())
+        if (this.getActiveGeometry().isEmpty() && (this.activePackedGeometry == null
+            || this.activePackedGeometry.interior.getContourCount() == 0))
             return;
 
         this.applyInteriorState(dc, sdc, this.getActiveAttributes(), this.getInteriorTexture(),
@@ -913,6 +958,22 @@ public abstract class AbstractSurfaceShape extends AbstractSurfaceObject impleme
 
     protected void drawOutline(DrawContext dc, SurfaceTileDrawContext sdc)
     {
+        if (this.activePackedGeometry != null)
+        {
+            PackedContours outline = this.activePackedGeometry.outline;
+            if (outline.getContourCount() == 0)
+                return;
+
+            this.applyOutlineState(dc, this.getActiveAttributes());
+
+            for (int i = 0; i < outline.getContourCount(); i++)
+            {
+                this.drawLineStrip(dc, outline.coords, outline.offsets[i], outline.offsets[i + 1] - outline.offsets[i]);
+            }
+
+            return;
+        }
+
         if (this.activeOutlineGeometry.isEmpty())
             return;
 
@@ -946,6 +1007,38 @@ public abstract class AbstractSurfaceShape extends AbstractSurfaceObject impleme
         gl.glDrawArrays(GL.GL_LINE_STRIP, 0, locations.size());
     }
 
+    /**
+     * Draws a line strip through packed locations.
+     *
+     * @param dc     the current draw context.
+     * @param coords the packed longitude and latitude pairs, in degrees.
+     * @param offset the index of the strip's first location in the packed coordinates.
+     * @param count  the number of locations in the strip.
+     */
+    protected void drawLineStrip(DrawContext dc, double[] coords, int offset, int count)
+    {
+        Position refPos = this.getReferencePosition();
+        if (refPos == null)
+            return;
+
+        if (vertexBuffer == null || vertexBuffer.capacity() < 2 * count)
+            vertexBuffer = Buffers.newDirectFloatBuffer(2 * count);
+        vertexBuffer.clear();
+
+        double refLon = refPos.getLongitude().degrees;
+        double refLat = refPos.getLatitude().degrees;
+        for (int i = 2 * offset; i < 2 * (offset + count); i += 2)
+        {
+            vertexBuffer.put((float) (coords[i] - refLon));
+            vertexBuffer.put((float) (coords[i + 1] - refLat));
+        }
+        vertexBuffer.flip();
+
+        GL2 gl = dc.getGL().getGL2(); // GL initialization checks for GL2 compatibility.
+        gl.glVertexPointer(2, GL.GL_FLOAT, 0, vertexBuffer);
+        gl.glDrawArrays(GL.GL_LINE_STRIP, 0, count);
+    }
+
     protected WWTexture getInteriorTexture()
     {
         if (this.getActiveAttributes().getImageSource() == null)
@@ -961,8 +1054,37 @@ public abstract class AbstractSurfaceShape extends AbstractSurfaceObject impleme
         return this.texture;
     }
 
-    @SuppressWarnings({"unchecked"})
+    /**
+     * Returns the contours created by {@link #createGeometry(Globe, double)} for the specified surface tile draw
+     * context. The contours are unpacked from the shape's cached {@link PackedGeometry} on first use.
+     *
+     * @param dc  the current draw context.
+     * @param sdc the context of the surface tile being drawn.
+     *
+     * @return the shape's contours, or null if the shape has no geometry.
+     *
+     * @throws IllegalArgumentException if the draw context is null.
+     */
     protected List<List<LatLon>> getCachedGeometry(DrawContext dc, SurfaceTileDrawContext sdc)
+    {
+        PackedGeometry geometry = this.getCachedPackedGeometry(dc, sdc);
+        return geometry != null ? geometry.getContourLists() : null;
+    }
+
+    /**
+     * Returns the shape's packed geometry for the specified surface tile draw context. Geometry is shared by all
+     * surface shapes through a size-bounded memory cache, and is keyed by the shape's geometry ID, the globe and the
+     * edge intervals per degree. Each level of detail is therefore created once and retained until it's evicted or the
+     * shape changes.
+     *
+     * @param dc  the current draw context.
+     * @param sdc the context of the surface tile being drawn.
+     *
+     * @return the shape's packed geometry, or null if the shape has no geometry.
+     *
+     * @throws IllegalArgumentException if the draw context is null.
+     */
+    protected PackedGeometry getCachedPackedGeometry(DrawContext dc, SurfaceTileDrawContext sdc)
     {
         if (dc == null)
         {
@@ -971,18 +1093,29 @@ public abstract class AbstractSurfaceShape extends AbstractSurfaceObject impleme
             throw new IllegalArgumentException(message);
         }
 
+        MemoryCache cache = this.getGeometryCache();
         Object key = this.createGeometryKey(dc, sdc);
-        CacheEntry entry = this.geometryCache.get(key);
-        if (entry != null)
+        PackedGeometry geometry = (PackedGeometry) cache.getObject(key);
+        if (geometry == null)
         {
-            return (List<List<LatLon>>) entry.object;
-        }
-        else
-        {
-            entry = new CacheEntry(this.createGeometry(dc.getGlobe(), sdc), dc);
-            this.geometryCache.put(key, entry);
-            return (List<List<LatLon>>) entry.object;
+            geometry = this.createPackedGeometry(dc.getGlobe(), this.createGeometry(dc.getGlobe(), sdc));
+            if (geometry == null)
+                return null;
+
+            cache.add(key, geometry);
         }
+
+        return geometry;
+    }
+
+    /**
+     * Returns the memory cache shared by all surface shapes to hold their packed geometry.
+     *
+     * @return the geometry cache.
+     */
+    protected MemoryCache getGeometryCache()
+    {
+        return WorldWind.getMemoryCache(GEOMETRY_CACHE_KEY);
     }
 
     protected List<List<LatLon>> createGeometry(Globe globe, SurfaceTileDrawContext sdc)
@@ -995,7 +1128,7 @@ public abstract class AbstractSurfaceShape extends AbstractSurfaceObject impleme
 
     protected Object createGeometryKey(DrawContext dc, SurfaceTileDrawContext sdc)
     {
-        return new GeometryKey(dc, this.computeEdgeIntervalsPerDegree(sdc));
+        return new GeometryKey(dc, this.geometryId, this.computeEdgeIntervalsPerDegree(sdc));
     }
 
     protected double computeEdgeIntervalsPerDegree(SurfaceTileDrawContext sdc)
@@ -1377,6 +1510,9 @@ public abstract class AbstractSurfaceShape extends AbstractSurfaceObject impleme
 
     protected Integer tessellateInteriorVertices(GLUtessellator tess)
     {
+        if (this.activePackedGeometry != null)
+            return this.tessellateInteriorVertices(tess, this.activePackedGeometry.interior);
+
         if (this.getActiveGeometry().isEmpty())
             return null;
 
@@ -1406,6 +1542,44 @@ public abstract class AbstractSurfaceShape extends AbstractSurfaceObject impleme
         return numBytes;
     }
 
+    /**
+     * Tessellates the interior of packed contours.
+     *
+     * @param tess     the GLU tessellator to use.
+     * @param contours the interior contours.
+     *
+     * @return the number of bytes of vertex data passed to the tessellator, or null if there are no contours.
+     */
+    protected Integer tessellateInteriorVertices(GLUtessellator tess, PackedContours contours)
+    {
+        if (contours.getContourCount() == 0)
+            return null;
+
+        Position referencePos = this.getReferencePosition();
+        if (referencePos == null)
+            return null;
+
+        double refLon = referencePos.getLongitude().degrees;
+        double refLat = referencePos.getLatitude().degrees;
+        GLU.gluTessBeginPolygon(tess, null);
+
+        for (int c = 0; c < contours.getContourCount(); c++)
+        {
+            GLU.gluTessBeginContour(tess);
+            for (int i = 2 * contours.offsets[c]; i < 2 * contours.offsets[c + 1]; i += 2)
+            {
+                // The tessellator retains a reference to each vertex until the polygon ends.
+                double[] vertex = {contours.coords[i] - refLon, contours.coords[i + 1] - refLat, 0};
+                GLU.gluTessVertex(tess, vertex, 0, vertex);
+            }
+            GLU.gluTessEndContour(tess);
+        }
+
+        GLU.gluTessEndPolygon(tess);
+
+        return 3 * 8 * contours.getLocationCount(); // 3 coords of 8 bytes each
+    }
+
     protected void handleUnsuccessfulInteriorTessellation(DrawContext dc)
     {
     }
@@ -1736,6 +1910,7 @@ public abstract class AbstractSurfaceShape extends AbstractSurfaceObject impleme
     protected static class GeometryKey
     {
         protected Globe globe;
+        protected long geometryId;
         protected double edgeIntervalsPerDegree;
 
         public GeometryKey(DrawContext dc, double edgeIntervalsPerDegree)
@@ -1744,6 +1919,21 @@ public abstract class AbstractSurfaceShape extends AbstractSurfaceObject impleme
             this.edgeIntervalsPerDegree = edgeIntervalsPerDegree;
         }
 
+        /**
+         * Constructs a key for geometry shared among shapes, which is distinguished by the geometry ID of the shape it
+         * belongs to.
+         *
+         * @param dc                     the current draw context.
+         * @param geometryId             the geometry ID of the shape.
+         * @param edgeIntervalsPerDegree the geometry's edge intervals per degree.
+         */
+        public GeometryKey(DrawContext dc, long geometryId, double edgeIntervalsPerDegree)
+        {
+            this.globe = dc.getGlobe();
+            this.geometryId = geometryId;
+            this.edgeIntervalsPerDegree = edgeIntervalsPerDegree;
+        }
+
         @Override
         public boolean equals(Object o)
         {
@@ -1753,19 +1943,136 @@ public abstract class AbstractSurfaceShape extends AbstractSurfaceObject impleme
                 return false;
 
             GeometryKey that = (GeometryKey) o;
-            return this.globe.equals(that.globe) && this.edgeIntervalsPerDegree == that.edgeIntervalsPerDegree;
+            return this.geometryId == that.geometryId && this.globe.equals(that.globe)
+                && this.edgeIntervalsPerDegree == that.edgeIntervalsPerDegree;
         }
 
         @Override
         public int hashCode()
         {
             int hash = this.globe.hashCode();
+            hash = 31 * hash + (int) (this.geometryId ^ (this.geometryId >>> 32));
             long temp = this.edgeIntervalsPerDegree != +0.0d ? Double.doubleToLongBits(this.edgeIntervalsPerDegree)
                 : 0L;
             return 31 * hash + (int) (temp ^ (temp >>> 32));
         }
     }
 
+    /**
+     * A list of contours packed as longitude and latitude pairs, in degrees. Contour <code>i</code> holds the
+     * locations with indices <code>offsets[i]</code> through <code>offsets[i + 1] - 1</code>, whose coordinates begin
+     * at <code>coords[2 * offsets[i]]</code>.
+     */
+    protected static class PackedContours
+    {
+        protected final double[] coords;
+        protected final int[] offsets;
+
+        /**
+         * Packs a list of contours.
+         *
+         * @param contours the contours to pack.
+         */
+        public PackedContours(List<? extends List<? extends LatLon>> contours)
+        {
+            this.offsets = new int[contours.size() + 1];
+            for (int i = 0; i < contours.size(); i++)
+            {
+                this.offsets[i + 1] = this.offsets[i] + contours.get(i).size();
+            }
+
+            this.coords = new double[2 * this.offsets[contours.size()]];
+            int index = 0;
+            for (List<? extends LatLon> contour : contours)
+            {
+                for (LatLon ll : contour)
+                {
+                    this.coords[index++] = ll.getLongitude().degrees;
+                    this.coords[index++] = ll.getLatitude().degrees;
+                }
+            }
+        }
+
+        public int getContourCount()
+        {
+            return this.offsets.length - 1;
+        }
+
+        public int getLocationCount()
+        {
+            return this.offsets[this.offsets.length - 1];
+        }
+
+        /**
+         * Returns the contours as lists of locations.
+         *
+         * @return a new list of the unpacked contours.
+         */
+        public List<List<LatLon>> unpack()
+        {
+            List<List<LatLon>> contours = new ArrayList<List<LatLon>>(this.getContourCount());
+            for (int c = 0; c < this.getContourCount(); c++)
+            {
+                List<LatLon> contour = new ArrayList<LatLon>(this.offsets[c + 1] - this.offsets[c]);
+                for (int i = 2 * this.offsets[c]; i < 2 * this.offsets[c + 1]; i += 2)
+                {
+                    contour.add(LatLon.fromDegrees(this.coords[i + 1], this.coords[i]));
+                }
+                contours.add(contour);
+            }
+
+            return contours;
+        }
+
+        public long getSizeInBytes()
+        {
+            return 8 * this.coords.length + 4 * this.offsets.length + 32; // arrays and their headers
+        }
+    }
+
+    /**
+     * A surface shape's geometry at one level of detail. Holds the contours created by the shape, the interior contours
+     * with poles and anti-meridian crossings resolved, and the outline contours with anti-meridian crossings resolved.
+     * The interior and outline are the same instance when no contour encloses a pole.
+     */
+    protected static class PackedGeometry implements Cacheable
+    {
+        protected final PackedContours contours;
+        protected final PackedContours interior;
+        protected final PackedContours outline;
+        /** The contours unpacked as lists of locations, or null if they have not been requested. */
+        protected List<List<LatLon>> contourLists;
+
+        public PackedGeometry(PackedContours contours, PackedContours interior, PackedContours outline)
+        {
+            this.contours = contours;
+            this.interior = interior;
+            this.outline = outline;
+        }
+
+        /**
+         * Returns the shape's contours as lists of locations. The lists are unpacked on first use and retained.
+         *
+         * @return the shape's contours.
+         */
+        public synchronized List<List<LatLon>> getContourLists()
+        {
+            if (this.contourLists == null)
+                this.contourLists = this.contours.unpack();
+
+            return this.contourLists;
+        }
+
+        public long getSizeInBytes()
+        {
+            long size = this.contours.getSizeInBytes() + this.interior.getSizeInBytes();
+            if (this.outline != this.interior)
+                size += this.outline.getSizeInBytes();
+
+            return size;
+        }
+    }
+
     /**
      * Does this object support a certain export format?
      *
@@ -102,44 +102,353 @@ public class DrawContextImpl extends WWObjectImpl implements DrawContext
         protected long time;
         protected int globeOffset;
         protected SectorGeometryList surfaceGeometry;
+        /** The entry's distance from the eye as a key whose unsigned order is back to front. */
+        protected long sortKey;
+
+        public OrderedRenderableEntry()
+        {
+        }
 
         public OrderedRenderableEntry(OrderedRenderable orderedRenderable, long insertionTime, DrawContext dc)
         {
-            this.or = orderedRenderable;
-            this.distanceFromEye = orderedRenderable.getDistanceFromEye();
+            this.set(orderedRenderable, orderedRenderable.getDistanceFromEye(), dc);
             this.time = insertionTime;
-            if (dc.isContinuous2DGlobe())
-            {
-                this.globeOffset = ((Globe2D) dc.getGlobe()).getOffset();
-                this.surfaceGeometry = dc.getSurfaceGeometry();
-            }
         }
 
         public OrderedRenderableEntry(OrderedRenderable orderedRenderable, double distanceFromEye, long insertionTime,
             DrawContext dc)
+        {
+            this.set(orderedRenderable, distanceFromEye, dc);
+            this.time = insertionTime;
+        }
+
+        public void set(OrderedRenderable orderedRenderable, double distanceFromEye, DrawContext dc)
         {
             this.or = orderedRenderable;
             this.distanceFromEye = distanceFromEye;
-            this.time = insertionTime;
             if (dc.isContinuous2DGlobe())
             {
                 this.globeOffset = ((Globe2D) dc.getGlobe()).getOffset();
                 this.surfaceGeometry = dc.getSurfaceGeometry();
             }
+            else
+            {
+                this.globeOffset = 0;
+                this.surfaceGeometry = null;
+            }
+
+            // Adding zero maps negative zero to positive zero, so the two sort as equal. Flipping the sign bit of
+            // positive values and all bits of negative values gives keys whose unsigned order is ascending distance;
+            // inverting those gives back to front order. NaN sorts behind positive infinity.
+            long bits = Double.doubleToLongBits(distanceFromEye + 0d);
+            this.sortKey = ~(bits ^ ((bits >> 63) | Long.MIN_VALUE));
+        }
+
+        public void clear()
+        {
+            this.or = null;
+            this.surfaceGeometry = null;
         }
     }
 
-    protected PriorityQueue<OrderedRenderableEntry> orderedRenderables =
-        new PriorityQueue<OrderedRenderableEntry>(100, new Comparator<OrderedRenderableEntry>()
+    /**
+     * Orders the frame's ordered renderables back to front, with renderables at the same distance from the eye in the
+     * order they were added. Renderables are appended unsorted and sorted in a single radix sort when the first one is
+     * requested, typically once per frame. Renderables added after that are sorted as a batch and merged with the
+     * remaining ones when the next renderable is requested. Entries are pooled and reused across frames.
+     */
+    protected static class OrderedRenderableQueue
+    {
+        /** The queue's entries. Those in [head, sortedEnd) are sorted; those in [sortedEnd, size) are not. */
+        protected OrderedRenderableEntry[] entries = new OrderedRenderableEntry[128];
+        protected int head;
+        protected int sortedEnd;
+        protected int size;
+        protected ArrayList<OrderedRenderableEntry> pool = new ArrayList<OrderedRenderableEntry>();
+        protected long sequence;
+        protected OrderedRenderableEntry[] scratch = new OrderedRenderableEntry[0];
+        protected long[] keys = new long[0];
+        protected long[] scratchKeys = new long[0];
+        protected int[] counts = new int[256];
+
+        /**
+         * Returns an entry from the pool, or a new entry if the pool is empty.
+         *
+         * @return an unused entry.
+         */
+        public OrderedRenderableEntry obtainEntry()
         {
-            public int compare(OrderedRenderableEntry orA, OrderedRenderableEntry orB)
+            int n = this.pool.size();
+
+            return n > 0 ? this.pool.remove(n - 1) : new OrderedRenderableEntry();
+        }
+
+        /**
+         * Returns an entry removed from the queue to the pool.
+         *
+         * @param entry the entry to recycle.
+         */
+        public void recycle(OrderedRenderableEntry entry)
+        {
+            entry.clear();
+            this.pool.add(entry);
+        }
+
+        /**
+         * Adds an entry to the queue, assigning its insertion time.
+         *
+         * @param entry the entry to add.
+         */
+        public void add(OrderedRenderableEntry entry)
+        {
+            if (this.size == this.entries.length)
             {
-                double eA = orA.distanceFromEye;
-                double eB = orB.distanceFromEye;
+                if (this.head > 0)
+                {
+                    System.arraycopy(this.entries, this.head, this.entries, 0, this.size - this.head);
+                    Arrays.fill(this.entries, this.size - this.head, this.size, null);
+                    this.size -= this.head;
+                    this.sortedEnd -= this.head;
+                    this.head = 0;
+                }
+                else
+                {
+                    this.entries = Arrays.copyOf(this.entries, 2 * this.size);
+                }
+            }
+
+            entry.time = this.sequence++;
+            this.entries[this.size++] = entry;
+        }
+
+        public boolean isEmpty()
+        {
+            return this.head == this.size;
+        }
+
+        public int size()
+        {
+            return this.size - this.head;
+        }
+
+        public OrderedRenderableEntry peek()
+        {
+            if (this.head == this.size)
+                return null;
+
+            this.sort();
+
+            return this.entries[this.head];
+        }
+
+        /**
+         * Removes and returns the entry farthest from the eye. The caller passes the entry to {@link
+         * #recycle(gov.nasa.worldwind.render.DrawContextImpl.OrderedRenderableEntry)} once it is done with it.
+         *
+         * @return the entry farthest from the eye, or null if the queue is empty.
+         */
+        public OrderedRenderableEntry poll()
+        {
+            OrderedRenderableEntry entry = this.peek();
+            if (entry == null)
+                return null;
+
+            this.entries[this.head++] = null;
+            if (this.head == this.size)
+                this.head = this.sortedEnd = this.size = 0;
+
+            return entry;
+        }
+
+        /**
+         * Removes the entries whose renderables are enabled {@link Declutterable}s, preserving the order of the
+         * remaining entries.
+         *
+         * @param result the list to add the removed entries to.
+         */
+        public void removeDeclutterables(List<OrderedRenderableEntry> result)
+        {
+            int n = this.head;
+            for (int i = this.head; i < this.size; i++)
+            {
+                OrderedRenderableEntry entry = this.entries[i];
+                if (entry.or instanceof Declutterable && ((Declutterable) entry.or).isEnableDecluttering())
+                {
+                    result.add(entry);
+                    if (i < this.sortedEnd)
+                        this.sortedEnd--;
+                }
+                else
+                {
+                    this.entries[n++] = entry;
+                }
+            }
 
-                return eA > eB ? -1 : eA == eB ? (orA.time < orB.time ? -1 : orA.time == orB.time ? 0 : 1) : 1;
+            Arrays.fill(this.entries, n, this.size, null);
+            this.size = n;
+        }
+
+        /** Removes all entries, returning them to the pool. */
+        public void clear()
+        {
+            for (int i = this.head; i < this.size; i++)
+            {
+                this.recycle(this.entries[i]);
+                this.entries[i] = null;
             }
-        });
+
+            this.head = this.sortedEnd = this.size = 0;
+            this.sequence = 0;
+        }
+
+        protected void sort()
+        {
+            if (this.sortedEnd == this.size)
+                return;
+
+            this.ensureScratchCapacity(this.size - this.head);
+            this.radixSort(this.sortedEnd, this.size);
+
+            if (this.sortedEnd > this.head)
+                this.merge();
+
+            this.sortedEnd = this.size;
+        }
+
+        protected void ensureScratchCapacity(int n)
+        {
+            if (this.scratch.length < n)
+            {
+                int capacity = Math.max(n, 2 * this.scratch.length);
+                this.scratch = new OrderedRenderableEntry[capacity];
+                this.keys = new long[capacity];
+                this.scratchKeys = new long[capacity];
+            }
+        }
+
+        /**
+         * Sorts a range of entries by their sort keys with a stable least significant digit radix sort, so entries with
+         * equal keys stay in insertion order. Passes over digits that all keys share are skipped, which for distances
+         * of similar magnitude eliminates the passes over the exponent bits.
+         *
+         * @param start the first entry to sort.
+         * @param end   one past the last entry to sort.
+         */
+        protected void radixSort(int start, int end)
+        {
+            int n = end - start;
+            if (n < 2)
+                return;
+
+            if (n < 32)
+            {
+                // Insertion sort is faster for small batches, such as renderables added while drawing.
+                for (int i = start + 1; i < end; i++)
+                {
+                    OrderedRenderableEntry entry = this.entries[i];
+                    int j = i - 1;
+                    while (j >= start && Long.compareUnsigned(this.entries[j].sortKey, entry.sortKey) > 0)
+                    {
+                        this.entries[j + 1] = this.entries[j];
+                        j--;
+                    }
+                    this.entries[j + 1] = entry;
+                }
+                return;
+            }
+
+            // Entries are read from src at srcOffset and written to dst at dstOffset, alternating between the queue
+            // and the scratch array. The keys arrays are parallel to the entries being sorted.
+            OrderedRenderableEntry[] src = this.entries;
+            OrderedRenderableEntry[] dst = this.scratch;
+            int srcOffset = start;
+            int dstOffset = 0;
+            long[] srcKeys = this.keys;
+            long[] dstKeys = this.scratchKeys;
+
+            for (int i = 0; i < n; i++)
+            {
+                srcKeys[i] = src[srcOffset + i].sortKey;
+            }
+
+            for (int shift = 0; shift < 64; shift += 8)
+            {
+                Arrays.fill(this.counts, 0);
+                for (int i = 0; i < n; i++)
+                {
+                    this.counts[(int) (srcKeys[i] >>> shift) & 0xFF]++;
+                }
+
+                if (this.counts[(int) (srcKeys[0] >>> shift) & 0xFF] == n)
+                    continue; // All keys share this digit.
+
+                int sum = 0;
+                for (int d = 0; d < 256; d++)
+                {
+                    int c = this.counts[d];
+                    this.counts[d] = sum;
+                    sum += c;
+                }
+
+                for (int i = 0; i < n; i++)
+                {
+                    long key = srcKeys[i];
+                    int pos = this.counts[(int) (key >>> shift) & 0xFF]++;
+                    dst[dstOffset + pos] = src[srcOffset + i];
+                    dstKeys[pos] = key;
+                }
+
+                OrderedRenderableEntry[] t = src;
+                src = dst;
+                dst = t;
+                int offset = srcOffset;
+                srcOffset = dstOffset;
+                dstOffset = offset;
+                long[] tk = srcKeys;
+                srcKeys = dstKeys;
+                dstKeys = tk;
+            }
+
+            if (src != this.entries)
+            {
+                System.arraycopy(src, srcOffset, this.entries, start, n);
+                Arrays.fill(src, srcOffset, srcOffset + n, null);
+            }
+        }
+
+        /** Merges the sorted entries added since the last sort with the remaining previously sorted entries. */
+        protected void merge()
+        {
+            int n = this.size - this.head;
+            int i = this.head;
+            int j = this.sortedEnd;
+            int k = 0;
+
+            while (i < this.sortedEnd && j < this.size)
+            {
+                // Earlier entries come first when keys are equal, keeping the order stable.
+                if (Long.compareUnsigned(this.entries[j].sortKey, this.entries[i].sortKey) < 0)
+                    this.scratch[k++] = this.entries[j++];
+                else
+                    this.scratch[k++] = this.entries[i++];
+            }
+
+            while (i < this.sortedEnd)
+            {
+                this.scratch[k++] = this.entries[i++];
+            }
+
+            while (j < this.size)
+            {
+                this.scratch[k++] = this.entries[j++];
+            }
+
+            System.arraycopy(this.scratch, 0, this.entries, this.head, n);
+            Arrays.fill(this.scratch, 0, n, null);
+        }
+    }
+
+    private OrderedRenderableQueue orderedRenderables = new OrderedRenderableQueue();
     // Use a standard Queue to store the ordered surface object renderables. Ordered surface renderables are processed
     // in the order they were submitted.
     protected Queue<OrderedRenderable> orderedSurfaceRenderables = new ArrayDeque<OrderedRenderable>();
@@ -681,6 +990,16 @@ public class DrawContextImpl extends WWObjectImpl implements DrawContext
         return this.globe instanceof Globe2D && ((Globe2D) this.getGlobe()).isContinuous();
     }
 
+    /**
+     * Returns the queue that orders this frame's ordered renderables back to front.
+     *
+     * @return the ordered renderable queue.
+     */
+    protected OrderedRenderableQueue getOrderedRenderableQueue()
+    {
+        return this.orderedRenderables;
+    }
+
     public void addOrderedRenderable(OrderedRenderable orderedRenderable)
     {
         if (null == orderedRenderable)
@@ -690,7 +1009,9 @@ public class DrawContextImpl extends WWObjectImpl implements DrawContext
             return; // benign event
         }
 
-        this.orderedRenderables.add(new OrderedRenderableEntry(orderedRenderable, System.nanoTime(), this));
+        OrderedRenderableEntry entry = this.orderedRenderables.obtainEntry();
+        entry.set(orderedRenderable, orderedRenderable.getDistanceFromEye(), this);
+        this.orderedRenderables.add(entry);
     }
 
     /** {@inheritDoc} */
@@ -708,8 +1029,9 @@ public class DrawContextImpl extends WWObjectImpl implements DrawContext
         // If multiple ordered renderables are added in this way, they are drawn according to the order in which they
         // are added.
         double eyeDistance = isBehind ? Double.MAX_VALUE : orderedRenderable.getDistanceFromEye();
-        this.orderedRenderables.add(
-            new OrderedRenderableEntry(orderedRenderable, eyeDistance, System.nanoTime(), this));
+        OrderedRenderableEntry entry = this.orderedRenderables.obtainEntry();
+        entry.set(orderedRenderable, eyeDistance, this);
+        this.orderedRenderables.add(entry);
     }
 
     public OrderedRenderable peekOrderedRenderables()
@@ -722,14 +1044,19 @@ public class DrawContextImpl extends WWObjectImpl implements DrawContext
     public OrderedRenderable pollOrderedRenderables()
     {
         OrderedRenderableEntry ore = this.orderedRenderables.poll();
+        if (ore == null)
+            return null;
 
-        if (ore != null && this.isContinuous2DGlobe())
+        if (this.isContinuous2DGlobe())
         {
             ((Globe2D) this.getGlobe()).setOffset(ore.globeOffset);
             this.setSurfaceGeometry(ore.surfaceGeometry);
         }
 
-        return ore != null ? ore.or : null;
+        OrderedRenderable or = ore.or;
+        this.orderedRenderables.recycle(ore);
+
+        return or;
     }
 //
 //    public void applyDeclutterFilter2()
@@ -793,13 +1120,9 @@ public class DrawContextImpl extends WWObjectImpl implements DrawContext
         if (this.getClutterFilter() == null)
             return;
 
-        // Collect all the active declutterables.
+        // Remove all the active declutterables from the ordered renderable queue.
         ArrayList<OrderedRenderableEntry> declutterableArray = new ArrayList<OrderedRenderableEntry>();
-        for (OrderedRenderableEntry ore : this.orderedRenderables)
-        {
-            if (ore.or instanceof Declutterable && ((Declutterable) ore.or).isEnableDecluttering())
-                declutterableArray.add(ore);
-        }
+        this.orderedRenderables.removeDeclutterables(declutterableArray);
 
         // Sort the declutterables front-to-back.
         Collections.sort(declutterableArray, new Comparator<OrderedRenderableEntry>()
@@ -816,15 +1139,13 @@ public class DrawContextImpl extends WWObjectImpl implements DrawContext
         if (declutterableArray.size() == 0)
             return;
 
-        // Prepare the declutterable list for the filter and remove eliminated ordered renderables from the renderable
-        // list. The clutter filter will add those it wants displayed back to the list, or it will add some other
-        // representation.
+        // Prepare the declutterable list for the filter. The clutter filter will add those it wants displayed back to
+        // the renderable list, or it will add some other representation.
         List<Declutterable> declutterables = new ArrayList<Declutterable>(declutterableArray.size());
         for (OrderedRenderableEntry ore : declutterableArray)
         {
             declutterables.add((Declutterable) ore.or);
-
-            orderedRenderables.remove(ore);
+            this.orderedRenderables.recycle(ore);
         }
 
         // Tell the filter to apply itself and draw whatever it draws.
@@ -206,26 +206,54 @@ public class MultiResolutionPath extends Path
     /**
      * {@inheritDoc}
      * <p/>
-     * Overridden to skip positions from this Path's original positions list. Positions are skipped first according to
-     * this Path's skipCountComputer. The skipCountComputer determines how many positions this path skips between
-     * tessellated positions. Any positions remaining after this step are skipped if the segment they are part of is
-     * either very small or not visible.
+     * Overridden to grow the PathData's positionOrdinals buffer and add the ordinals of the appended positions.
+     */
+    @Override
+    protected void appendTessellatedPositions(DrawContext dc, PathData pathData)
+    {
+        MultiResolutionPathData mrpd = (MultiResolutionPathData) pathData;
+        mrpd.positionOrdinals = growBuffer(mrpd.positionOrdinals, this.numPositions);
+
+        super.appendTessellatedPositions(dc, pathData);
+
+        mrpd.positionOrdinals.flip();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Overridden to skip positions from this Path's original positions list. See {@link #makeSegments(DrawContext,
+     * Position, int, java.util.Iterator, gov.nasa.worldwind.render.Path.PathData)}.
      */
     @Override
     protected void makePositions(DrawContext dc, PathData pathData)
     {
         Iterator<? extends Position> iter = this.positions.iterator();
         Position posA = iter.next();
-        int ordinalA = 0;
-        Color colorA = this.getColor(posA, ordinalA);
-        this.addTessellatedPosition(posA, colorA, ordinalA, pathData); // add the first position of the path
+        this.addTessellatedPosition(posA, this.getColor(posA, 0), 0, pathData); // add the first position of the path
+
+        // Tessellate each segment of the path.
+        this.makeSegments(dc, posA, 0, iter, pathData);
+    }
 
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Overridden to skip positions from this Path's original positions list. Positions are skipped first according to
+     * this Path's skipCountComputer. The skipCountComputer determines how many positions this path skips between
+     * tessellated positions. Any positions remaining after this step are skipped if the segment they are part of is
+     * either very small or not visible. The last position is never skipped.
+     */
+    @Override
+    protected void makeSegments(DrawContext dc, Position posA, int ordinalA, Iterator<? extends Position> iter,
+        PathData pathData)
+    {
         int skipCount = this.skipCountComputer.computeSkipCount(dc, pathData);
 
-        // Tessellate each segment of the path.
+        Color colorA = this.getColor(posA, ordinalA);
         Vec4 ptA = this.computePoint(dc.getTerrain(), posA);
 
-        for (int i = 1; iter.hasNext(); i++)
+        for (int i = ordinalA + 1; iter.hasNext(); i++)
         {
             Position posB = iter.next();
 
@@ -181,12 +181,44 @@ public class Path extends AbstractShape
         protected int vertexStride;
         /** Indicates the number of vertices represented by <code>renderedPath</code>. */
         protected int vertexCount;
+        /**
+         * Indicates the number of the path's specified positions represented by <code>tessellatedPositions</code>.
+         * Positions beyond this count have been appended since the geometry was computed. See {@link
+         * Path#addPositions(Iterable)}.
+         */
+        protected int positionCount;
+        /**
+         * The bounding box of <code>renderedPath</code>, relative to this shape data's reference center. Expanded to
+         * include the vertices of appended positions.
+         */
+        protected Box relativeExtent;
+        /** Indicates the number of floats at the start of <code>renderedPath</code> that are current in the VBO. */
+        protected int vboFloatCount;
+        /**
+         * Indicates whether the most recent geometry regeneration appended positions to the existing geometry rather
+         * than computing it in full.
+         */
+        protected boolean geometryAppended;
 
         public PathData(DrawContext dc, Path shape)
         {
             super(dc, shape.minExpiryTime, shape.maxExpiryTime);
         }
 
+        /**
+         * {@inheritDoc}
+         * <p/>
+         * Overridden to leave the timer running when positions were appended to the existing geometry. The geometry
+         * then still expires when scheduled by its last full computation, so a path appended to more often than its
+         * expiration interval is still periodically recomputed in full.
+         */
+        @Override
+        public void restartTimer(DrawContext dc)
+        {
+            if (!this.geometryAppended)
+                super.restartTimer(dc);
+        }
+
         /**
          * The positions resulting from tessellating this path. If the path's attributes don't cause tessellation, then
          * the positions returned are those originally specified.
@@ -655,6 +687,7 @@ public class Path extends AbstractShape
 
     protected Iterable<? extends Position> positions; // the positions as provided by the application
     protected int numPositions; // the number of positions in the positions field.
+    protected ArrayList<Position> appendablePositions; // this path's own copy of its positions once any are appended
     protected PositionColors positionColors; // defines a color at each application-provided position.
     protected static ByteBuffer pickPositionColors; // defines the colors used to resolve position point picking.
 
@@ -816,6 +849,87 @@ public class Path extends AbstractShape
         this.reset();
     }
 
+    /**
+     * Appends a position to the end of this path's positions. See {@link #addPositions(Iterable)}.
+     *
+     * @param position the position to append.
+     *
+     * @throws IllegalArgumentException if the position is null.
+     */
+    public void addPosition(Position position)
+    {
+        if (position == null)
+        {
+            String message = Logging.getMessage("nullValue.PositionIsNull");
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        this.addPositions(Collections.singletonList(position));
+    }
+
+    /**
+     * Appends positions to the end of this path's positions. Unlike {@link #setPositions(Iterable)}, this retains the
+     * path's computed geometry: the next time the path is rendered only the segments ending at the appended positions
+     * are tessellated and converted to model coordinates, and the path's vertex buffers and extent are grown to include
+     * them. This makes appending efficient for paths that grow continuously, such as live tracks. The geometry is
+     * computed in full as usual when it expires or when the globe or vertical exaggeration changes.
+     * <p/>
+     * The first call copies this path's positions to a list owned by this path, and appends to that list thereafter.
+     * Changes to the positions previously specified are therefore not seen by this path unless {@link
+     * #setPositions(Iterable)} is called.
+     *
+     * @param positions the positions to append.
+     *
+     * @throws IllegalArgumentException if positions is null.
+     */
+    public void addPositions(Iterable<? extends Position> positions)
+    {
+        if (positions == null)
+        {
+            String message = Logging.getMessage("nullValue.PositionsListIsNull");
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        if (this.positions == null || this.positions != this.appendablePositions)
+        {
+            this.appendablePositions = new ArrayList<Position>(Math.max(16, this.numPositions * 2));
+            if (this.positions != null)
+            {
+                for (Position pos : this.positions)
+                {
+                    this.appendablePositions.add(pos);
+                }
+            }
+            this.positions = this.appendablePositions;
+        }
+
+        int first = this.appendablePositions.size();
+        for (Position pos : positions)
+        {
+            this.appendablePositions.add(pos);
+        }
+        this.numPositions = this.appendablePositions.size();
+
+        // Only the segments ending at the appended positions can introduce a dateline crossing.
+        if (!this.positionsSpanDateline)
+        {
+            this.positionsSpanDateline = LatLon.locationsCrossDateLine(
+                this.appendablePositions.subList(Math.max(0, first - 1), this.numPositions));
+        }
+
+        // Keep the computed geometry so that it can be extended, but discard the extents so that this path is not
+        // culled against its previous bounds before the appended positions are included.
+        for (ShapeDataCache.ShapeDataCacheEntry entry : this.shapeDataCache)
+        {
+            entry.setExtent(null);
+        }
+
+        this.sector = null;
+        this.surfaceShape = null;
+    }
+
     /**
      * Indicates the PositionColors that defines the RGBA color for each of this path's positions. A return value of
      * <code>null</code> is valid and indicates that this path's positions are colored according to its
@@ -1117,6 +1231,9 @@ public class Path extends AbstractShape
         if (this.getCurrentPathData().tessellatedPositions == null)
             return true;
 
+        if (this.getCurrentPathData().positionCount < this.numPositions) // positions have been appended
+            return true;
+
         if (dc.getVerticalExaggeration() != this.getCurrentPathData().getVerticalExaggeration())
             return true;
 
@@ -1180,6 +1297,37 @@ public class Path extends AbstractShape
         // currentData must be set prior to calling this method
         PathData pathData = this.getCurrentPathData();
 
+        pathData.geometryAppended = this.canAppendGeometry(dc, pathData);
+        if (pathData.geometryAppended)
+            this.appendGeometry(dc, pathData);
+        else if (!this.makeGeometry(dc, pathData))
+            return false;
+
+        pathData.setGlobeStateKey(dc.getGlobe().getGlobeStateKey(dc));
+        pathData.setVerticalExaggeration(dc.getVerticalExaggeration());
+
+        // If the shape is less that a pixel in size, don't render it.
+        if (this.getExtent() == null || dc.isSmall(this.getExtent(), 1))
+            return false;
+
+        if (!this.intersectsFrustum(dc))
+            return false;
+
+        pathData.setEyeDistance(this.computeEyeDistance(dc, pathData));
+
+        return true;
+    }
+
+    /**
+     * Computes this path's tessellated positions, rendered points and extent from all of its positions.
+     *
+     * @param dc       the current draw context.
+     * @param pathData the current globe-specific path data.
+     *
+     * @return true if the geometry was computed, otherwise false.
+     */
+    protected boolean makeGeometry(DrawContext dc, PathData pathData)
+    {
         pathData.setReferencePoint(this.computeReferenceCenter(dc));
         if (pathData.getReferencePoint() == null)
             return false;
@@ -1197,21 +1345,58 @@ public class Path extends AbstractShape
 
         if (pathData.renderedPath.limit() > previousSize && this.shouldUseVBOs(dc))
             this.clearCachedVbos(dc);
+        pathData.vboFloatCount = 0; // the VBO must be filled in full
 
         pathData.setExtent(this.computeExtent(pathData));
 
-        // If the shape is less that a pixel in size, don't render it.
-        if (this.getExtent() == null || dc.isSmall(this.getExtent(), 1))
-            return false;
+        return true;
+    }
 
-        if (!this.intersectsFrustum(dc))
-            return false;
+    /**
+     * Indicates whether this path's current geometry can be extended by the positions appended since it was computed,
+     * rather than computed in full. This is the case when positions have been appended, the geometry has neither
+     * expired nor been invalidated by a change to the globe or vertical exaggeration, and the path does not need to be
+     * split at the dateline.
+     *
+     * @param dc       the current draw context.
+     * @param pathData the current globe-specific path data.
+     *
+     * @return true if the appended positions can be added to the current geometry, otherwise false.
+     */
+    protected boolean canAppendGeometry(DrawContext dc, PathData pathData)
+    {
+        return pathData.positionCount > 0 && pathData.positionCount < this.numPositions
+            && this.positions instanceof List
+            && pathData.tessellatedPositions != null && pathData.renderedPath != null
+            && pathData.getReferencePoint() != null
+            && !pathData.isExpired(dc) && pathData.isValid(dc)
+            && !(this.positionsSpanDateline && dc.is2DGlobe());
+    }
 
-        pathData.setEyeDistance(this.computeEyeDistance(dc, pathData));
-        pathData.setGlobeStateKey(dc.getGlobe().getGlobeStateKey(dc));
-        pathData.setVerticalExaggeration(dc.getVerticalExaggeration());
+    /**
+     * Tessellates the positions appended since this path's geometry was computed, and adds their points to the rendered
+     * path and the extent. The geometry computed for the path's previous positions is retained.
+     *
+     * @param dc       the current draw context.
+     * @param pathData the current globe-specific path data.
+     */
+    protected void appendGeometry(DrawContext dc, PathData pathData)
+    {
+        int firstPosition = pathData.tessellatedPositions.size();
+        this.appendTessellatedPositions(dc, pathData);
 
-        return true;
+        int firstFloat = pathData.renderedPath.limit();
+        int previousCapacity = pathData.renderedPath.capacity();
+        this.appendPath(dc, firstPosition, pathData);
+
+        if (pathData.renderedPath.capacity() != previousCapacity)
+        {
+            if (this.shouldUseVBOs(dc))
+                this.clearCachedVbos(dc);
+            pathData.vboFloatCount = 0; // the VBO must be filled in full
+        }
+
+        pathData.setExtent(this.expandExtent(pathData, firstFloat));
     }
 
     /**
@@ -1721,14 +1906,15 @@ public class Path extends AbstractShape
 
         Globe globe = dc.getGlobe();
         Vec4 referencePoint = pathData.getReferencePoint();
+        MutableVec4 pt = new MutableVec4(); // reused for every position
 
         if (dc.getVerticalExaggeration() != 1)
         {
             double ve = dc.getVerticalExaggeration();
             for (Position pos : positions)
             {
-                Vec4 pt = globe.computePointFromPosition(pos.getLatitude(), pos.getLongitude(),
-                    ve * (pos.getAltitude()));
+                globe.computePointFromPosition(pos.getLatitude().degrees, pos.getLongitude().degrees,
+                    ve * (pos.getAltitude()), pt);
                 path.put((float) (pt.x - referencePoint.x));
                 path.put((float) (pt.y - referencePoint.y));
                 path.put((float) (pt.z - referencePoint.z));
@@ -1747,7 +1933,8 @@ public class Path extends AbstractShape
         {
             for (Position pos : positions)
             {
-                Vec4 pt = globe.computePointFromPosition(pos);
+                globe.computePointFromPosition(pos.getLatitude().degrees, pos.getLongitude().degrees,
+                    pos.getElevation(), pt);
                 path.put((float) (pt.x - referencePoint.x));
                 path.put((float) (pt.y - referencePoint.y));
                 path.put((float) (pt.z - referencePoint.z));
@@ -1794,6 +1981,110 @@ public class Path extends AbstractShape
         pathData.hasExtrusionPoints = true;
     }
 
+    /**
+     * Appends the model-coordinate points of the tessellated positions starting at a specified index to the rendered
+     * path. The points are computed as {@link #computePath(DrawContext, java.util.List, PathData)} computes them, and
+     * follow the rendered path's existing layout of colors and extrusion points. The rendered path's capacity is grown
+     * geometrically when it is too small to hold the new points.
+     *
+     * @param dc            the current draw context.
+     * @param firstPosition the index of the first tessellated position to append.
+     * @param pathData      the current globe-specific path data.
+     */
+    protected void appendPath(DrawContext dc, int firstPosition, PathData pathData)
+    {
+        int lastPosition = pathData.tessellatedPositions.size();
+        int numPoints = (lastPosition - firstPosition) * (pathData.hasExtrusionPoints ? 2 : 1);
+        FloatBuffer path = growBuffer(pathData.renderedPath,
+            pathData.renderedPath.limit() + pathData.vertexStride * numPoints);
+
+        Iterator<Color> colorIter = (pathData.tessellatedColors != null
+            ? pathData.tessellatedColors.subList(firstPosition, lastPosition).iterator() : null);
+        float[] color = (pathData.tessellatedColors != null ? new float[4] : null);
+        boolean onTerrain = this.getAltitudeMode() == WorldWind.CLAMP_TO_GROUND || dc.is2DGlobe();
+        boolean relativeToTerrain = this.getAltitudeMode() == WorldWind.RELATIVE_TO_GROUND;
+        Vec4 referencePoint = pathData.getReferencePoint();
+
+        for (Position pos : pathData.tessellatedPositions.subList(firstPosition, lastPosition))
+        {
+            Vec4 pt;
+            if (onTerrain)
+                pt = dc.computeTerrainPoint(pos.getLatitude(), pos.getLongitude(), 0d);
+            else if (relativeToTerrain)
+                pt = dc.computeTerrainPoint(pos.getLatitude(), pos.getLongitude(), pos.getAltitude());
+            else
+                pt = dc.getGlobe().computePointFromPosition(pos.getLatitude(), pos.getLongitude(),
+                    dc.getVerticalExaggeration() * pos.getAltitude());
+
+            path.put((float) (pt.x - referencePoint.x));
+            path.put((float) (pt.y - referencePoint.y));
+            path.put((float) (pt.z - referencePoint.z));
+
+            if (colorIter != null && colorIter.hasNext())
+            {
+                colorIter.next().getRGBComponents(color);
+                path.put(color);
+            }
+
+            if (pathData.hasExtrusionPoints)
+                this.appendTerrainPoint(dc, pos, color, path, pathData);
+        }
+
+        path.flip();
+
+        pathData.renderedPath = path;
+        pathData.vertexCount = path.limit() / pathData.vertexStride;
+    }
+
+    /**
+     * Prepares a flipped buffer for appending elements. The returned buffer holds the specified buffer's elements, has
+     * its position at the end of those elements and its limit at its capacity. If the specified buffer's capacity is
+     * less than the required capacity, the returned buffer is a copy with 1.5 times the specified buffer's capacity, or
+     * the required capacity if that is larger.
+     *
+     * @param buffer      the buffer to append to. Its limit must identify the end of its elements.
+     * @param minCapacity the required capacity.
+     *
+     * @return a buffer into which to append elements.
+     */
+    protected static FloatBuffer growBuffer(FloatBuffer buffer, int minCapacity)
+    {
+        int size = buffer.limit();
+        if (buffer.capacity() < minCapacity)
+        {
+            buffer.rewind();
+            buffer = WWBufferUtil.copyOf(buffer, Math.max(minCapacity, buffer.capacity() + buffer.capacity() / 2));
+        }
+
+        buffer.limit(buffer.capacity());
+        buffer.position(size);
+
+        return buffer;
+    }
+
+    /**
+     * Prepares a flipped buffer for appending elements. See {@link #growBuffer(java.nio.FloatBuffer, int)}.
+     *
+     * @param buffer      the buffer to append to. Its limit must identify the end of its elements.
+     * @param minCapacity the required capacity.
+     *
+     * @return a buffer into which to append elements.
+     */
+    protected static IntBuffer growBuffer(IntBuffer buffer, int minCapacity)
+    {
+        int size = buffer.limit();
+        if (buffer.capacity() < minCapacity)
+        {
+            buffer.rewind();
+            buffer = WWBufferUtil.copyOf(buffer, Math.max(minCapacity, buffer.capacity() + buffer.capacity() / 2));
+        }
+
+        buffer.limit(buffer.capacity());
+        buffer.position(size);
+
+        return buffer;
+    }
+
     /**
      * Registers this Path's pickable position color codes with the specified pickCandidates. The pickCandidates must be
      * an instance of PathPickSupport. This does nothing if this Path's position points are not drawn.
@@ -1912,11 +2203,32 @@ public class Path extends AbstractShape
         pathData.tessellatedPositions.trimToSize();
         pathData.polePositions.flip();
         pathData.positionPoints.flip();
+        pathData.positionCount = this.numPositions;
 
         if (pathData.tessellatedColors != null)
             pathData.tessellatedColors.trimToSize();
     }
 
+    /**
+     * Tessellates the positions appended since this path's tessellated positions were computed, adding them to the
+     * path's <code>tessellatedPositions</code>, <code>polePositions</code> and <code>positionPoints</code>. The index
+     * buffers are grown geometrically when they are too small.
+     *
+     * @param dc       the current draw context.
+     * @param pathData the current globe-specific path data.
+     */
+    protected void appendTessellatedPositions(DrawContext dc, PathData pathData)
+    {
+        pathData.polePositions = growBuffer(pathData.polePositions, this.numPositions * 2);
+        pathData.positionPoints = growBuffer(pathData.positionPoints, this.numPositions);
+
+        this.makeAppendedPositions(dc, pathData);
+
+        pathData.polePositions.flip();
+        pathData.positionPoints.flip();
+        pathData.positionCount = this.numPositions;
+    }
+
     /**
      * Computes this Path's distance from the eye point, for use in determining when to show positions points. The value
      * returned is only an approximation because the eye distance varies along the path.
@@ -1941,12 +2253,45 @@ public class Path extends AbstractShape
 
         Iterator<? extends Position> iter = this.positions.iterator();
         Position posA = iter.next();
-        int ordinalA = 0;
-        Color colorA = this.getColor(posA, ordinalA);
 
-        this.addTessellatedPosition(posA, colorA, ordinalA, pathData); // add the first position of the path
+        this.addTessellatedPosition(posA, this.getColor(posA, 0), 0, pathData); // add the first position of the path
 
         // Tessellate each segment of the path.
+        this.makeSegments(dc, posA, 0, iter, pathData);
+
+        if (this.positionsSpanDateline && dc.is2DGlobe())
+            this.makePath2DIndices(pathData);
+    }
+
+    /**
+     * Tessellates the positions appended since this path's tessellated positions were computed. The segments are
+     * tessellated from this path's last previously tessellated position.
+     *
+     * @param dc       the current draw context.
+     * @param pathData the current globe-specific path data.
+     */
+    protected void makeAppendedPositions(DrawContext dc, PathData pathData)
+    {
+        List<? extends Position> list = (List<? extends Position>) this.positions;
+        int ordinalA = pathData.positionCount - 1;
+
+        this.makeSegments(dc, list.get(ordinalA), ordinalA, list.listIterator(ordinalA + 1), pathData);
+    }
+
+    /**
+     * Tessellates the segments between consecutive positions, starting with the segment from a position that has
+     * already been added to the tessellated positions.
+     *
+     * @param dc       the current draw context.
+     * @param posA     the position the first segment starts at.
+     * @param ordinalA the ordinal number of the first segment's starting position.
+     * @param iter     an iterator over the positions following the first segment's starting position.
+     * @param pathData the current globe-specific path data.
+     */
+    protected void makeSegments(DrawContext dc, Position posA, int ordinalA, Iterator<? extends Position> iter,
+        PathData pathData)
+    {
+        Color colorA = this.getColor(posA, ordinalA);
         Vec4 ptA = this.computePoint(dc.getTerrain(), posA);
 
         while (iter.hasNext())
@@ -2013,9 +2358,6 @@ public class Path extends AbstractShape
             ordinalA = ordinalB;
             colorA = colorB;
         }
-
-        if (this.positionsSpanDateline && dc.is2DGlobe())
-            this.makePath2DIndices(pathData);
     }
 
     /**
@@ -2204,9 +2546,12 @@ public class Path extends AbstractShape
             return;
         }
 
-        // Variables for great circle and rhumb computation.
-        Angle segmentAzimuth = null;
-        Angle segmentDistance = null;
+        // Variables for great circle and rhumb computation, in radians.
+        double latA = posA.getLatitude().radians;
+        double lonA = posA.getLongitude().radians;
+        double segmentAzimuth = 0;
+        double segmentDistance = -1;
+        double[] location = new double[2];
 
         for (double s = 0, p = 0; s < 1; )
         {
@@ -2219,47 +2564,45 @@ public class Path extends AbstractShape
             if (arcLength < p || arcLength - p < 1e-9)
                 break; // position is either beyond the arc length or the remaining distance is in millimeters on Earth
 
-            Position pos;
-            Color color;
             s = p / arcLength;
 
             if (this.pathType == AVKey.LINEAR)
             {
-                if (segmentAzimuth == null)
+                if (segmentDistance < 0)
                 {
-                    segmentAzimuth = LatLon.linearAzimuth(posA, posB);
-                    segmentDistance = LatLon.linearDistance(posA, posB);
+                    segmentAzimuth = Geodesy.linearAzimuth(latA, lonA, posB.getLatitude().radians,
+                        posB.getLongitude().radians);
+                    segmentDistance = Geodesy.linearDistance(latA, lonA, posB.getLatitude().radians,
+                        posB.getLongitude().radians);
                 }
-                Angle distance = Angle.fromRadians(s * segmentDistance.radians);
-                LatLon latLon = LatLon.linearEndPosition(posA, segmentAzimuth, distance);
-                pos = new Position(latLon, (1 - s) * posA.getElevation() + s * posB.getElevation());
-                color = (colorA != null && colorB != null) ? WWUtil.interpolateColor(s, colorA, colorB) : null;
+                Geodesy.linearEndPosition(latA, lonA, segmentAzimuth, s * segmentDistance, location, 0);
             }
             else if (this.pathType == AVKey.RHUMB_LINE || this.pathType == AVKey.LOXODROME)
             {
-                if (segmentAzimuth == null)
+                if (segmentDistance < 0)
                 {
-                    segmentAzimuth = LatLon.rhumbAzimuth(posA, posB);
-                    segmentDistance = LatLon.rhumbDistance(posA, posB);
+                    segmentAzimuth = Geodesy.rhumbAzimuth(latA, lonA, posB.getLatitude().radians,
+                        posB.getLongitude().radians);
+                    segmentDistance = Geodesy.rhumbDistance(latA, lonA, posB.getLatitude().radians,
+                        posB.getLongitude().radians);
                 }
-                Angle distance = Angle.fromRadians(s * segmentDistance.radians);
-                LatLon latLon = LatLon.rhumbEndPosition(posA, segmentAzimuth, distance);
-                pos = new Position(latLon, (1 - s) * posA.getElevation() + s * posB.getElevation());
-                color = (colorA != null && colorB != null) ? WWUtil.interpolateColor(s, colorA, colorB) : null;
+                Geodesy.rhumbEndPosition(latA, lonA, segmentAzimuth, s * segmentDistance, location, 0);
             }
             else // GREAT_CIRCLE
             {
-                if (segmentAzimuth == null)
+                if (segmentDistance < 0)
                 {
-                    segmentAzimuth = LatLon.greatCircleAzimuth(posA, posB);
-                    segmentDistance = LatLon.greatCircleDistance(posA, posB);
+                    segmentAzimuth = Geodesy.greatCircleAzimuth(latA, lonA, posB.getLatitude().radians,
+                        posB.getLongitude().radians);
+                    segmentDistance = Geodesy.greatCircleDistance(latA, lonA, posB.getLatitude().radians,
+                        posB.getLongitude().radians);
                 }
-                Angle distance = Angle.fromRadians(s * segmentDistance.radians);
-                LatLon latLon = LatLon.greatCircleEndPosition(posA, segmentAzimuth, distance);
-                pos = new Position(latLon, (1 - s) * posA.getElevation() + s * posB.getElevation());
-                color = (colorA != null && colorB != null) ? WWUtil.interpolateColor(s, colorA, colorB) : null;
+                Geodesy.greatCircleEndPosition(latA, lonA, segmentAzimuth, s * segmentDistance, location, 0);
             }
 
+            Position pos = Position.fromRadians(location[0], location[1],
+                (1 - s) * posA.getElevation() + s * posB.getElevation());
+            Color color = (colorA != null && colorB != null) ? WWUtil.interpolateColor(s, colorA, colorB) : null;
             this.addTessellatedPosition(pos, color, null, pathData);
 
             ptA = ptB;
@@ -2281,23 +2624,25 @@ public class Path extends AbstractShape
     @SuppressWarnings({"StringEquality"})
     protected double computeSegmentLength(DrawContext dc, Position posA, Position posB)
     {
-        LatLon llA = new LatLon(posA.getLatitude(), posA.getLongitude());
-        LatLon llB = new LatLon(posB.getLatitude(), posB.getLongitude());
+        double latA = posA.getLatitude().radians;
+        double lonA = posA.getLongitude().radians;
+        double latB = posB.getLatitude().radians;
+        double lonB = posB.getLongitude().radians;
 
-        Angle ang;
+        double ang;
         String pathType = this.getPathType();
         if (pathType == AVKey.LINEAR)
-            ang = LatLon.linearDistance(llA, llB);
+            ang = Geodesy.linearDistance(latA, lonA, latB, lonB);
         else if (pathType == AVKey.RHUMB_LINE || pathType == AVKey.LOXODROME)
-            ang = LatLon.rhumbDistance(llA, llB);
+            ang = Geodesy.rhumbDistance(latA, lonA, latB, lonB);
         else // Great circle
-            ang = LatLon.greatCircleDistance(llA, llB);
+            ang = Geodesy.greatCircleDistance(latA, lonA, latB, lonB);
 
         if (this.getAltitudeMode() == WorldWind.CLAMP_TO_GROUND)
-            return ang.radians * (dc.getGlobe().getRadius());
+            return ang * (dc.getGlobe().getRadius());
 
         double height = 0.5 * (posA.getElevation() + posB.getElevation());
-        return ang.radians * (dc.getGlobe().getRadius() + height * dc.getVerticalExaggeration());
+        return ang * (dc.getGlobe().getRadius() + height * dc.getVerticalExaggeration());
     }
 
     /**
@@ -2357,7 +2702,9 @@ public class Path extends AbstractShape
     }
 
     /**
-     * Computes the path's bounding box from the current rendering path. Assumes the rendering path is up-to-date.
+     * Computes the path's bounding box from the current rendering path. Assumes the rendering path is up-to-date. The
+     * box relative to the reference center is retained in the path data so that it can be expanded when positions are
+     * appended.
      *
      * @param current the current data for this shape.
      *
@@ -2371,6 +2718,7 @@ public class Path extends AbstractShape
         current.renderedPath.rewind();
         Box box = Box.computeBoundingBox(new BufferWrapper.FloatBufferWrapper(current.renderedPath),
             current.vertexStride);
+        current.relativeExtent = box;
 
         // The path points are relative to the reference center, so translate the extent to the reference center.
         box = box.translate(current.getReferencePoint());
@@ -2378,6 +2726,61 @@ public class Path extends AbstractShape
         return box;
     }
 
+    /**
+     * Expands the path's bounding box to include the rendered path's points starting at a specified offset. The box
+     * keeps its axes, so it may be less tight than the box computed by {@link #computeExtent(PathData)}; it is
+     * recomputed when the path's geometry is next computed in full.
+     *
+     * @param current   the current data for this shape.
+     * @param firstFloat the offset, in floats, of the first point to include.
+     *
+     * @return the expanded extent.
+     */
+    protected Extent expandExtent(PathData current, int firstFloat)
+    {
+        Box box = current.relativeExtent;
+        if (box == null)
+            return this.computeExtent(current);
+
+        Vec4 r = box.getUnitRAxis();
+        Vec4 s = box.getUnitSAxis();
+        Vec4 t = box.getUnitTAxis();
+
+        // The box's planes are at the extremes along each axis, with normals facing outwards.
+        Plane[] planes = box.getPlanes();
+        double minDotR = planes[0].getDistance();
+        double maxDotR = -planes[1].getDistance();
+        double minDotS = planes[2].getDistance();
+        double maxDotS = -planes[3].getDistance();
+        double minDotT = planes[4].getDistance();
+        double maxDotT = -planes[5].getDistance();
+
+        FloatBuffer path = current.renderedPath;
+        for (int i = firstFloat; i <= path.limit() - current.vertexStride; i += current.vertexStride)
+        {
+            double x = path.get(i);
+            double y = path.get(i + 1);
+            double z = path.get(i + 2);
+
+            double pdr = x * r.x + y * r.y + z * r.z;
+            minDotR = Math.min(minDotR, pdr);
+            maxDotR = Math.max(maxDotR, pdr);
+
+            double pds = x * s.x + y * s.y + z * s.z;
+            minDotS = Math.min(minDotS, pds);
+            maxDotS = Math.max(maxDotS, pds);
+
+            double pdt = x * t.x + y * t.y + z * t.z;
+            minDotT = Math.min(minDotT, pdt);
+            maxDotT = Math.max(maxDotT, pdt);
+        }
+
+        box = new Box(new Vec4[] {r, s, t}, minDotR, maxDotR, minDotS, maxDotS, minDotT, maxDotT);
+        current.relativeExtent = box;
+
+        return box.translate(current.getReferencePoint());
+    }
+
     public Extent getExtent(Globe globe, double verticalExaggeration)
     {
         // See if we've cached an extent associated with the globe.
@@ -2423,7 +2826,7 @@ public class Path extends AbstractShape
 
         GL gl = dc.getGL();
 
-        int vSize = pathData.renderedPath.limit() * 4;
+        int vSize = pathData.renderedPath.capacity() * 4;
         int iSize = pathData.hasExtrusionPoints
             && this.isDrawVerticals() ? pathData.tessellatedPositions.size() * 2 * 4 : 0;
         if (this.isShowPositions())
@@ -2435,13 +2838,27 @@ public class Path extends AbstractShape
             gl.glGenBuffers(vboIds.length, vboIds, 0);
             dc.getGpuResourceCache().put(pathData.getVboCacheKey(), vboIds, GpuResourceCache.VBO_BUFFERS,
                 vSize + iSize);
+            pathData.vboFloatCount = 0;
         }
 
         try
         {
             FloatBuffer vb = pathData.renderedPath;
             gl.glBindBuffer(GL.GL_ARRAY_BUFFER, vboIds[0]);
-            gl.glBufferData(GL.GL_ARRAY_BUFFER, vb.limit() * 4, vb.rewind(), GL.GL_STATIC_DRAW);
+            if (pathData.vboFloatCount > 0)
+            {
+                // Only points have been appended since the VBO was filled, so upload just those.
+                vb.position(pathData.vboFloatCount);
+                gl.glBufferSubData(GL.GL_ARRAY_BUFFER, pathData.vboFloatCount * 4,
+                    (vb.limit() - pathData.vboFloatCount) * 4, vb);
+            }
+            else
+            {
+                // Allocate the rendered path's full capacity so that appended points can be uploaded in place.
+                gl.glBufferData(GL.GL_ARRAY_BUFFER, vb.capacity() * 4, null, GL.GL_STATIC_DRAW);
+                gl.glBufferSubData(GL.GL_ARRAY_BUFFER, 0, vb.limit() * 4, vb.rewind());
+            }
+            pathData.vboFloatCount = vb.limit();
 
             if (pathData.hasExtrusionPoints && this.isDrawVerticals())
             {
@@ -19,7 +19,6 @@ import gov.nasa.worldwind.terrain.Terrain;
 import gov.nasa.worldwind.util.*;
 
 import javax.media.opengl.*;
-import javax.media.opengl.glu.GLU;
 import javax.xml.stream.*;
 import java.io.*;
 import java.nio.*;
@@ -1224,41 +1223,44 @@ public class Polygon extends AbstractShape
      */
     protected void tessellatePolygon(ShapeData shapeData, Vec4 normal)
     {
-        GLUTessellatorSupport glts = new GLUTessellatorSupport();
-        shapeData.cb = new GLUTessellatorSupport.CollectIndexListsCallback();
-
-        glts.beginTessellation(shapeData.cb, normal);
-        try
+        int vertexCount = 0;
+        int boundaryCount = 0;
+        for (BoundaryInfo boundary : shapeData)
         {
-            double[] coords = new double[3];
+            vertexCount += boundary.positions.size();
+            boundaryCount++;
+        }
 
-            GLU.gluTessBeginPolygon(glts.getGLUtessellator(), null);
+        double[] coords = new double[3 * vertexCount];
+        int[] boundaryStarts = new int[boundaryCount];
 
-            int k = 0;
-            for (BoundaryInfo boundary : shapeData)
+        int k = 0;
+        int b = 0;
+        for (BoundaryInfo boundary : shapeData)
+        {
+            boundaryStarts[b++] = k;
+            FloatBuffer vBuf = boundary.vertexBuffer;
+            for (int i = 0; i < boundary.positions.size(); i++, k++)
             {
-                GLU.gluTessBeginContour(glts.getGLUtessellator());
-                FloatBuffer vBuf = boundary.vertexBuffer;
-                for (int i = 0; i < boundary.positions.size(); i++)
-                {
-                    coords[0] = vBuf.get(i * 3);
-                    coords[1] = vBuf.get(i * 3 + 1);
-                    coords[2] = vBuf.get(i * 3 + 2);
-
-                    GLU.gluTessVertex(glts.getGLUtessellator(), coords, 0, k++);
-                }
-                GLU.gluTessEndContour(glts.getGLUtessellator());
+                coords[3 * k] = vBuf.get(i * 3);
+                coords[3 * k + 1] = vBuf.get(i * 3 + 1);
+                coords[3 * k + 2] = vBuf.get(i * 3 + 2);
             }
-
-            GLU.gluTessEndPolygon(glts.getGLUtessellator());
         }
-        finally
+
+        EarClippingTessellator tess = new EarClippingTessellator();
+        int indexCount = tess.tessellate(coords, 3, boundaryStarts, boundaryCount, vertexCount, normal.x, normal.y,
+            normal.z);
+
+        // Record the triangles as a single primitive in the form previously produced by the GLU tessellator.
+        shapeData.cb = new GLUTessellatorSupport.CollectIndexListsCallback();
+        shapeData.cb.begin(GL.GL_TRIANGLES);
+        int[] indices = tess.getIndices();
+        for (int i = 0; i < indexCount; i++)
         {
-            // Free any heap memory used for tessellation immediately. If tessellation has consumed all available
-            // heap memory, we must free memory used by tessellation immediately or subsequent operations such as
-            // message logging will fail.
-            glts.endTessellation();
+            shapeData.cb.vertex(indices[i]);
         }
+        shapeData.cb.end();
     }
 
     protected void generateInteriorIndices(ShapeData shapeData)
@@ -86,6 +86,10 @@ public class SurfaceObjectTileBuilder
      * equator.
      */
     protected static final int DEFAULT_NUM_LEVELS = 17;
+    /** The default distance, in pixels, that a tile's dirty region extends beyond the changed surface renderables. */
+    protected static final int DEFAULT_DIRTY_REGION_MARGIN = 8;
+    /** The fraction of a tile's area above which a tile is redrawn entirely rather than by its dirty region. */
+    protected static final double MAX_DIRTY_REGION_FRACTION = 0.5;
     /** The next unique ID. This property is shared by all instances of SurfaceObjectTileBuilder. */
     protected static long nextUniqueId = 1;
     /**
@@ -120,6 +124,16 @@ public class SurfaceObjectTileBuilder
     protected TileInfo currentInfo;
     /** Support class used to render to an offscreen surface tile. */
     protected OGLRenderToTextureSupport rttSupport = new OGLRenderToTextureSupport();
+    /** Controls if tiles are updated by redrawing only the regions affected by changed surface renderables. */
+    protected boolean useDirtyRegions = true;
+    /** The distance, in pixels, that a tile's dirty region extends beyond the changed surface renderables. */
+    protected int dirtyRegionMargin = DEFAULT_DIRTY_REGION_MARGIN;
+    /** The number of tiles updated during the last call to {@link #buildTiles(DrawContext, Iterable)}. */
+    protected int updatedTileCount;
+    /** The number of tiles updated by their dirty region during the last call to buildTiles. */
+    protected int dirtyRegionTileCount;
+    /** The number of surface renderables drawn during the last call to buildTiles. */
+    protected int drawnObjectCount;
 
     /**
      * Constructs a new SurfaceObjectTileBuilder with a tile width and height of <code>512</code>, with the default tile
@@ -321,6 +335,65 @@ public class SurfaceObjectTileBuilder
         return this.splitScale;
     }
 
+    /**
+     * Indicates whether tiles are updated by redrawing only the regions affected by changed surface renderables. See
+     * {@link #setUseDirtyRegions(boolean)}.
+     *
+     * @return true if tiles are updated by their dirty regions, false if tiles are always redrawn entirely.
+     */
+    public boolean isUseDirtyRegions()
+    {
+        return this.useDirtyRegions;
+    }
+
+    /**
+     * Specifies whether tiles are updated by redrawing only the regions affected by changed surface renderables. When
+     * true, a tile whose surface renderables were added, removed or changed since it was last drawn clears and redraws
+     * only the pixels within the changed renderables' previous and current sectors, expanded by the dirty region
+     * margin. Tiles are always redrawn entirely when framebuffer objects are unavailable, when picking, and when tile
+     * updates are forced. Initially true.
+     *
+     * @param useDirtyRegions true to update tiles by their dirty regions, false to always redraw tiles entirely.
+     */
+    public void setUseDirtyRegions(boolean useDirtyRegions)
+    {
+        this.useDirtyRegions = useDirtyRegions;
+    }
+
+    /**
+     * Returns the distance, in pixels, that a tile's dirty region extends beyond the sectors of the changed surface
+     * renderables.
+     *
+     * @return the dirty region margin, in pixels.
+     *
+     * @see #setDirtyRegionMargin(int)
+     */
+    public int getDirtyRegionMargin()
+    {
+        return this.dirtyRegionMargin;
+    }
+
+    /**
+     * Specifies the distance, in pixels, that a tile's dirty region extends beyond the sectors of the changed surface
+     * renderables. The margin must cover the pixels that renderables draw outside their sectors, such as half the
+     * width of a thick outline. The default is 8 pixels.
+     *
+     * @param margin the dirty region margin, in pixels.
+     *
+     * @throws IllegalArgumentException if the margin is negative.
+     */
+    public void setDirtyRegionMargin(int margin)
+    {
+        if (margin < 0)
+        {
+            String message = Logging.getMessage("generic.ArgumentOutOfRange", "margin < 0");
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        this.dirtyRegionMargin = margin;
+    }
+
     /**
      * Returns the number of SurfaceTiles assembled during the last call to {@link #buildTiles(DrawContext, Iterable)}.
      *
@@ -344,6 +417,41 @@ public class SurfaceObjectTileBuilder
         return tileInfo != null ? tileInfo.tiles.size() : 0;
     }
 
+    /**
+     * Returns the number of tiles whose textures were updated during the last call to {@link #buildTiles(DrawContext,
+     * Iterable)}, including tiles updated by their dirty region.
+     *
+     * @return the number of tiles updated.
+     */
+    public int getUpdatedTileCount()
+    {
+        return this.updatedTileCount;
+    }
+
+    /**
+     * Returns the number of tiles updated by redrawing only their dirty region during the last call to {@link
+     * #buildTiles(DrawContext, Iterable)}.
+     *
+     * @return the number of tiles partially updated.
+     *
+     * @see #setUseDirtyRegions(boolean)
+     */
+    public int getDirtyRegionTileCount()
+    {
+        return this.dirtyRegionTileCount;
+    }
+
+    /**
+     * Returns the number of surface renderables drawn into tiles during the last call to {@link
+     * #buildTiles(DrawContext, Iterable)}. A renderable drawn into several tiles is counted once for each tile.
+     *
+     * @return the number of surface renderables drawn.
+     */
+    public int getDrawnObjectCount()
+    {
+        return this.drawnObjectCount;
+    }
+
     /**
      * Returns the list of SurfaceTiles assembled during the last call to {@link #buildTiles(DrawContext, Iterable)}.
      *
@@ -389,6 +497,10 @@ public class SurfaceObjectTileBuilder
             throw new IllegalArgumentException(message);
         }
 
+        this.updatedTileCount = 0;
+        this.dirtyRegionTileCount = 0;
+        this.drawnObjectCount = 0;
+
         TileInfoKey tileInfoKey = this.createTileInfoKey(dc);
         this.currentInfo = this.tileInfoMap.get(tileInfoKey);
         if (this.currentInfo == null)
@@ -551,6 +663,10 @@ public class SurfaceObjectTileBuilder
      * when necessary. The tile keeps track of the list of surface renderables rendered into it, and the state keys
      * those objects. The tile is updated if the list changes, if any of the state keys change, or if the tile has no
      * texture. Otherwise the tile is left unchanged and the update is skipped.
+     * <p/>
+     * When dirty regions are in use and the tile already has a texture, only the region of the tile affected by added,
+     * removed or changed surface renderables is cleared and redrawn, and only the renderables that intersect that
+     * region are drawn. See {@link #computeDirtyRegion(SurfaceObjectTile, Object, Object)}.
      *
      * @param dc   the draw context the tile relates to.
      * @param tile the tile to update.
@@ -560,6 +676,8 @@ public class SurfaceObjectTileBuilder
         // Get the tile's texture from the draw context's texture cache. If null we create a new texture and update the
         // texture cache below.
         Texture texture = tile.getTexture(dc.getTextureCache());
+        Object lastStateKey = tile.lastUpdateStateKey;
+        Rectangle dirtyRegion = null;
 
         // If force tile updates is off, compare the previous tile state against the currently computed state to
         // determine if the tile needs to be updated. The tile needs to be updated if any the following conditions are
@@ -577,6 +695,17 @@ public class SurfaceObjectTileBuilder
             // If the tile needs to be updated, then assign its lastUpdateStateKey before its texture is created. This
             // ensures that the lastUpdateStateKey is current when the tile is added to the cache.
             tile.lastUpdateStateKey = tileStateKey;
+
+            // Record the sectors the tile's objects are drawn in, and limit the update to the region of the tile
+            // affected by changed objects when the tile's current contents can be reused.
+            if (this.canUpdateDirtyRegion(dc) && tileStateKey instanceof SurfaceObjectTileStateKey)
+            {
+                ((SurfaceObjectTileStateKey) tileStateKey).intersectingObjectSectors =
+                    this.computeObjectSectors(dc, tile);
+
+                if (texture != null)
+                    dirtyRegion = this.computeDirtyRegion(tile, lastStateKey, tileStateKey);
+            }
         }
 
         if (texture == null) // Create the tile's texture if it doesn't already have one.
@@ -599,24 +728,249 @@ public class SurfaceObjectTileBuilder
             dc.setValue(AVKey.SURFACE_TILE_DRAW_CONTEXT, this.createSurfaceTileDrawContext(tile));
 
             this.rttSupport.setColorTarget(dc, texture);
+
+            // Limit clearing and drawing to the dirty region, if any. The scissor box is restored to the entire tile
+            // below.
+            if (dirtyRegion != null)
+            {
+                dc.getGL().glScissor(dirtyRegion.x, dirtyRegion.y, dirtyRegion.width, dirtyRegion.height);
+                this.dirtyRegionTileCount++;
+            }
+
             this.rttSupport.clear(dc, new Color(0, 0, 0, 0)); // Set all texture pixels to transparent black.
 
             if (tile.hasObjects())
             {
-                for (SurfaceRenderable so : tile.getObjectList())
+                Sector[] sectors = dirtyRegion != null
+                    ? ((SurfaceObjectTileStateKey) tile.lastUpdateStateKey).intersectingObjectSectors : null;
+                List<SurfaceRenderable> objects = tile.getObjectList();
+
+                for (int i = 0; i < objects.size(); i++)
                 {
-                    so.render(dc);
+                    // Objects outside the dirty region would draw only pixels that the scissor test discards.
+                    if (sectors != null && sectors[i] != null && !dirtyRegion.intersects(
+                        this.computeTileRegion(tile, sectors[i], this.dirtyRegionMargin)))
+                        continue;
+
+                    objects.get(i).render(dc);
+                    this.drawnObjectCount++;
                 }
             }
+
+            this.updatedTileCount++;
         }
         finally
         {
+            if (dirtyRegion != null)
+                dc.getGL().glScissor(0, 0, tile.getWidth(), tile.getHeight());
+
             this.rttSupport.setColorTarget(dc, null);
 
             dc.removeKey(AVKey.SURFACE_TILE_DRAW_CONTEXT);
         }
     }
 
+    /**
+     * Indicates whether tiles may be updated by their dirty regions on the specified draw context. This is true only
+     * when dirty regions are enabled, tile updates are not forced, the draw context is not in picking mode, and tiles
+     * are drawn with framebuffer objects. When framebuffer objects are unavailable, tiles are drawn in the framebuffer
+     * and copied to their textures in their entirety, so the texture's previous contents cannot be reused.
+     *
+     * @param dc the draw context the tiles relate to.
+     *
+     * @return true if tiles may be updated by their dirty regions, otherwise false.
+     */
+    protected boolean canUpdateDirtyRegion(DrawContext dc)
+    {
+        return this.isUseDirtyRegions()
+            && !this.isForceTileUpdates()
+            && !dc.isPickingMode()
+            && this.rttSupport.isEnableFramebufferObject()
+            && dc.getGLRuntimeCapabilities().isUseFramebufferObject();
+    }
+
+    /**
+     * Returns the sectors of the specified tile's surface renderables, clipped to the tile's sector, in the order of
+     * the tile's object list. An element is null if the corresponding renderable's sectors are unknown.
+     *
+     * @param dc   the draw context the tile relates to.
+     * @param tile the tile whose objects' sectors are computed.
+     *
+     * @return the objects' sectors within the tile, or null if the tile has no objects.
+     */
+    protected Sector[] computeObjectSectors(DrawContext dc, SurfaceObjectTile tile)
+    {
+        if (!tile.hasObjects())
+            return null;
+
+        List<SurfaceRenderable> objects = tile.getObjectList();
+        Sector[] sectors = new Sector[objects.size()];
+
+        for (int i = 0; i < sectors.length; i++)
+        {
+            List<Sector> soSectors = objects.get(i).getSectors(dc);
+            if (soSectors == null)
+                continue;
+
+            for (Sector s : soSectors)
+            {
+                Sector intersection = tile.getSector().intersection(s);
+                if (intersection != null)
+                    sectors[i] = (sectors[i] != null) ? sectors[i].union(intersection) : intersection;
+            }
+        }
+
+        return sectors;
+    }
+
+    /**
+     * Computes the region of a tile that must be redrawn to change its contents from those drawn for one state key to
+     * those of another. Objects are matched by their state keys. The region bounds the previous sectors of objects that
+     * were removed or changed and the current sectors of objects that were added or changed, expanded by the dirty
+     * region margin.
+     * <p/>
+     * This returns null to indicate that the entire tile must be redrawn. This is the case when either state key has
+     * no recorded object sectors, when a changed object's sector is unknown, when unchanged objects are drawn in a
+     * different order, and when the region covers more than half of the tile.
+     *
+     * @param tile         the tile to compute a dirty region for.
+     * @param lastStateKey the state key for which the tile was last drawn.
+     * @param stateKey     the tile's current state key.
+     *
+     * @return the tile's dirty region in pixels, with its origin at the tile's lower left corner, or null if the
+     * entire tile must be redrawn.
+     */
+    protected Rectangle computeDirtyRegion(SurfaceObjectTile tile, Object lastStateKey, Object stateKey)
+    {
+        if (!(lastStateKey instanceof SurfaceObjectTileStateKey) || !(stateKey instanceof SurfaceObjectTileStateKey))
+            return null;
+
+        SurfaceObjectTileStateKey last = (SurfaceObjectTileStateKey) lastStateKey;
+        SurfaceObjectTileStateKey current = (SurfaceObjectTileStateKey) stateKey;
+        if (last.intersectingObjectSectors == null || current.intersectingObjectSectors == null)
+            return null;
+
+        List<Object> lastUnchanged = new ArrayList<Object>();
+        List<Object> unchanged = new ArrayList<Object>();
+        Sector dirtySector = null;
+
+        // Objects whose state keys are not matched by an equal key in the other state were added, removed or changed.
+        Map<Object, int[]> keyCounts = countKeys(current.intersectingObjectKeys);
+        for (int i = 0; i < last.intersectingObjectKeys.length; i++)
+        {
+            Object key = last.intersectingObjectKeys[i];
+            if (removeKey(keyCounts, key))
+            {
+                lastUnchanged.add(key);
+                continue;
+            }
+
+            if (last.intersectingObjectSectors[i] == null)
+                return null;
+
+            dirtySector = Sector.union(dirtySector, last.intersectingObjectSectors[i]);
+        }
+
+        keyCounts = countKeys(last.intersectingObjectKeys);
+        for (int i = 0; i < current.intersectingObjectKeys.length; i++)
+        {
+            Object key = current.intersectingObjectKeys[i];
+            if (removeKey(keyCounts, key))
+            {
+                unchanged.add(key);
+                continue;
+            }
+
+            if (current.intersectingObjectSectors[i] == null)
+                return null;
+
+            dirtySector = Sector.union(dirtySector, current.intersectingObjectSectors[i]);
+        }
+
+        // Unchanged objects drawn in a different order overlap one another differently.
+        if (dirtySector == null || !lastUnchanged.equals(unchanged))
+            return null;
+
+        Rectangle region = this.computeTileRegion(tile, dirtySector, this.dirtyRegionMargin);
+        if ((double) region.width * region.height > MAX_DIRTY_REGION_FRACTION * tile.getWidth() * tile.getHeight())
+            return null;
+
+        return region;
+    }
+
+    /**
+     * Returns the pixels of a tile covered by a sector expanded by a margin, clipped to the tile. The returned
+     * rectangle's origin is the tile's lower left corner.
+     *
+     * @param tile   the tile the sector is drawn into.
+     * @param sector the sector to compute the pixels of.
+     * @param margin the distance, in pixels, to expand the sector by.
+     *
+     * @return the tile's pixels covered by the expanded sector. The rectangle is empty if the sector is outside the
+     * tile.
+     */
+    protected Rectangle computeTileRegion(SurfaceObjectTile tile, Sector sector, int margin)
+    {
+        Sector tileSector = tile.getSector();
+        double sx = tile.getWidth() / tileSector.getDeltaLonDegrees();
+        double sy = tile.getHeight() / tileSector.getDeltaLatDegrees();
+
+        int minX = (int) Math.floor((sector.getMinLongitude().degrees - tileSector.getMinLongitude().degrees) * sx);
+        int maxX = (int) Math.ceil((sector.getMaxLongitude().degrees - tileSector.getMinLongitude().degrees) * sx);
+        int minY = (int) Math.floor((sector.getMinLatitude().degrees - tileSector.getMinLatitude().degrees) * sy);
+        int maxY = (int) Math.ceil((sector.getMaxLatitude().degrees - tileSector.getMinLatitude().degrees) * sy);
+
+        minX = Math.max(minX - margin, 0);
+        minY = Math.max(minY - margin, 0);
+        maxX = Math.min(maxX + margin, tile.getWidth());
+        maxY = Math.min(maxY + margin, tile.getHeight());
+
+        return new Rectangle(minX, minY, Math.max(maxX - minX, 0), Math.max(maxY - minY, 0));
+    }
+
+    /**
+     * Returns the number of occurrences of each of the specified state keys.
+     *
+     * @param keys the state keys to count. May be null.
+     *
+     * @return a map from each state key to a single element array holding its count.
+     */
+    protected static Map<Object, int[]> countKeys(Object[] keys)
+    {
+        Map<Object, int[]> counts = new HashMap<Object, int[]>();
+        if (keys == null)
+            return counts;
+
+        for (Object key : keys)
+        {
+            int[] count = counts.get(key);
+            if (count == null)
+                counts.put(key, new int[] {1});
+            else
+                count[0]++;
+        }
+
+        return counts;
+    }
+
+    /**
+     * Removes one occurrence of a state key from a map of state key counts.
+     *
+     * @param counts the state key counts.
+     * @param key    the state key to remove.
+     *
+     * @return true if the map contained the key, otherwise false.
+     */
+    protected static boolean removeKey(Map<Object, int[]> counts, Object key)
+    {
+        int[] count = counts.get(key);
+        if (count == null || count[0] == 0)
+            return false;
+
+        count[0]--;
+        return true;
+    }
+
     /**
      * Returns a new surface tile texture for use on the specified draw context with the specified width and height.
      * <p/>
@@ -1489,6 +1843,11 @@ public class SurfaceObjectTileBuilder
     {
         protected final TileKey tileKey;
         protected final Object[] intersectingObjectKeys;
+        /**
+         * The sectors of the intersecting objects within the tile, in the same order as their state keys, or null if
+         * they have not been recorded. Not part of the key's equality.
+         */
+        protected Sector[] intersectingObjectSectors;
 
         /**
          * Construsts a tile state key for the specified surface renderable tile.
@@ -1562,6 +1921,16 @@ public class SurfaceObjectTileBuilder
                     size += 4; // If the object doesn't implement Cacheable, just account for the reference to it.
             }
 
+            if (this.intersectingObjectSectors != null)
+            {
+                size += 4 * this.intersectingObjectSectors.length;
+                for (Sector sector : this.intersectingObjectSectors)
+                {
+                    if (sector != null)
+                        size += sector.getSizeInBytes();
+                }
+            }
+
             return size;
         }
     }
@@ -58,6 +58,43 @@ public abstract class AbstractAirspace extends WWObjectImpl
     /** The attributes used if attributes are not specified. */
     protected static AirspaceAttributes defaultAttributes;
 
+    /**
+     * The geometry key and frame globe state reused by the airspaces drawn on each thread. Airspaces draw one piece of
+     * geometry at a time, so a single key per thread suffices.
+     */
+    protected static final ThreadLocal<GeometryKeyState> geometryKeyState = new ThreadLocal<GeometryKeyState>()
+    {
+        @Override
+        protected GeometryKeyState initialValue()
+        {
+            return new GeometryKeyState();
+        }
+    };
+
+    /** Holds a reusable geometry cache key and the globe state keys of the current frame. */
+    protected static class GeometryKeyState
+    {
+        protected final Geometry.ShapeKey key = new Geometry.ShapeKey();
+        protected Globe globe;
+        protected long frameTimeStamp = -1;
+        protected double verticalExaggeration;
+        protected GlobeStateKey globeStateKey;
+        protected Object stateKey;
+
+        protected void update(DrawContext dc)
+        {
+            if (dc.getGlobe() != this.globe || dc.getFrameTimeStamp() != this.frameTimeStamp
+                || dc.getVerticalExaggeration() != this.verticalExaggeration)
+            {
+                this.globe = dc.getGlobe();
+                this.frameTimeStamp = dc.getFrameTimeStamp();
+                this.verticalExaggeration = dc.getVerticalExaggeration();
+                this.globeStateKey = this.globe.getGlobeStateKey();
+                this.stateKey = this.globe.getStateKey(dc);
+            }
+        }
+    }
+
     static
     {
         // Create and populate the default attributes.
@@ -1290,6 +1327,74 @@ public abstract class AbstractAirspace extends WWObjectImpl
         return WorldWind.getMemoryCache(GEOMETRY_CACHE_KEY);
     }
 
+    /**
+     * Returns the reusable geometry cache key of the current thread, reset to identify a named piece of geometry.
+     * Callers add the geometry's parameters to the key, then pass it to {@link #getCachedGeometry(Geometry.ShapeKey)}
+     * and {@link #addCachedGeometry(Geometry.ShapeKey, Cacheable)}. The key is valid until the next call to this
+     * method on the same thread.
+     * <p/>
+     * Geometry computed by private methods may be keyed by the declaring class, so that airspaces of different classes
+     * that share the computation, such as a {@link Cake} layer and a {@link PartialCappedCylinder} with the same
+     * parameters, share cache entries. Geometry computed by overridable methods must be keyed by the airspace's runtime
+     * class, since a subclass may compute it differently.
+     *
+     * @param dc   the current draw context, or null if the geometry does not depend on the globe.
+     * @param cls  the class whose methods compute the geometry.
+     * @param name the name of the geometry.
+     *
+     * @return the reset key.
+     */
+    protected Geometry.ShapeKey getGeometryKey(DrawContext dc, Class<?> cls, String name)
+    {
+        GeometryKeyState state = geometryKeyState.get();
+        GlobeStateKey globeStateKey = null;
+        if (dc != null)
+        {
+            state.update(dc);
+            globeStateKey = state.globeStateKey;
+        }
+
+        return state.key.reset(globeStateKey, cls, name);
+    }
+
+    /**
+     * Returns the geometry cached for a key.
+     *
+     * @param key the geometry's key.
+     *
+     * @return the cached geometry, or null if the cache has no geometry for the key.
+     */
+    protected Object getCachedGeometry(Geometry.ShapeKey key)
+    {
+        return this.getGeometryCache().getObject(key);
+    }
+
+    /**
+     * Adds geometry to the cache. The cache holds a copy of the key, so a reused key may be passed.
+     *
+     * @param key      the geometry's key.
+     * @param geometry the geometry.
+     */
+    protected void addCachedGeometry(Geometry.ShapeKey key, Cacheable geometry)
+    {
+        this.getGeometryCache().add(key.copy(), geometry);
+    }
+
+    /**
+     * Returns the globe's state key for the current frame, computing it only once per frame.
+     *
+     * @param dc the current draw context.
+     *
+     * @return the globe's state key.
+     */
+    protected Object getGlobeStateKey(DrawContext dc)
+    {
+        GeometryKeyState state = geometryKeyState.get();
+        state.update(dc);
+
+        return state.stateKey;
+    }
+
     protected boolean isExpired(DrawContext dc, Geometry geom)
     {
         if (dc == null)
@@ -1319,7 +1424,7 @@ public abstract class AbstractAirspace extends WWObjectImpl
 
         o = geom.getValue(GLOBE_KEY);
         //noinspection RedundantIfStatement
-        if (o != null && !dc.getGlobe().getStateKey(dc).equals(o))
+        if (o != null && !this.getGlobeStateKey(dc).equals(o))
             return true;
 
         return false;
@@ -1343,7 +1448,7 @@ public abstract class AbstractAirspace extends WWObjectImpl
 
         long expiryTime = this.getExpiryTime();
         geom.setValue(EXPIRY_TIME, (expiryTime >= 0L) ? expiryTime : null);
-        geom.setValue(GLOBE_KEY, dc.getGlobe().getStateKey(dc));
+        geom.setValue(GLOBE_KEY, this.getGlobeStateKey(dc));
     }
 
     protected long getExpiryTime()
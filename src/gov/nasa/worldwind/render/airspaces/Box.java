@@ -607,9 +607,10 @@ public class Box extends AbstractAirspace
     private BoxGeometry getBoxGeometry(DrawContext dc, double[] altitudes, boolean[] terrainConformant,
         int lengthSegments, int widthSegments)
     {
-        Object cacheKey = new Geometry.CacheKey(dc.getGlobe(), this.getClass(), "Box.Geometry", this.geometryCacheKey,
-            altitudes, terrainConformant, lengthSegments, widthSegments);
-        BoxGeometry geom = (BoxGeometry) this.getGeometryCache().getObject(cacheKey);
+        Geometry.ShapeKey cacheKey = this.getGeometryKey(dc, Box.class, "Box.Geometry")
+            .add(this.geometryCacheKey, this.geometryCacheKey.hashCode()).add(altitudes[0]).add(altitudes[1])
+            .add(terrainConformant[0]).add(terrainConformant[1]).add(lengthSegments).add(widthSegments);
+        BoxGeometry geom = (BoxGeometry) this.getCachedGeometry(cacheKey);
 
         if (geom != null && !this.isExpired(dc, geom.sideGeometry))
             return geom;
@@ -619,7 +620,7 @@ public class Box extends AbstractAirspace
 
         this.makeBoxGeometry(dc, altitudes, terrainConformant, lengthSegments, widthSegments, geom);
         this.updateExpiryCriteria(dc, geom.sideGeometry);
-        this.getGeometryCache().add(cacheKey, geom);
+        this.addCachedGeometry(cacheKey, geom);
 
         return geom;
     }
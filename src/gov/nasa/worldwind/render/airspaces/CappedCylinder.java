@@ -570,13 +570,14 @@ public class CappedCylinder extends AbstractAirspace
         Geometry vertexGeom = this.createCylinderVertexGeometry(dc, center, radius, altitudes, terrainConformant,
             slices, stacks, orientation, referenceCenter);
 
-        Object cacheKey = new Geometry.CacheKey(this.getClass(), "Cylinder.Indices", slices, stacks, orientation);
-        Geometry indexGeom = (Geometry) this.getGeometryCache().getObject(cacheKey);
+        Geometry.ShapeKey cacheKey = this.getGeometryKey(null, CappedCylinder.class, "Cylinder.Indices").add(slices)
+            .add(stacks).add(orientation);
+        Geometry indexGeom = (Geometry) this.getCachedGeometry(cacheKey);
         if (indexGeom == null)
         {
             indexGeom = new Geometry();
             this.makeCylinderIndices(slices, stacks, orientation, indexGeom);
-            this.getGeometryCache().add(cacheKey, indexGeom);
+            this.addCachedGeometry(cacheKey, indexGeom);
         }
 
         this.drawGeometry(dc, indexGeom, vertexGeom);
@@ -588,14 +589,14 @@ public class CappedCylinder extends AbstractAirspace
         Geometry vertexGeom = this.createCylinderVertexGeometry(dc, center, radius, altitudes, terrainConformant,
             slices, stacks, orientation, referenceCenter);
 
-        Object cacheKey = new Geometry.CacheKey(this.getClass(), "Cylinder.OutlineIndices", slices, stacks,
-            orientation);
-        Geometry outlineIndexGeom = (Geometry) this.getGeometryCache().getObject(cacheKey);
+        Geometry.ShapeKey cacheKey = this.getGeometryKey(null, CappedCylinder.class, "Cylinder.OutlineIndices")
+            .add(slices).add(stacks).add(orientation);
+        Geometry outlineIndexGeom = (Geometry) this.getCachedGeometry(cacheKey);
         if (outlineIndexGeom == null)
         {
             outlineIndexGeom = new Geometry();
             this.makeCylinderOutlineIndices(slices, stacks, orientation, outlineIndexGeom);
-            this.getGeometryCache().add(cacheKey, outlineIndexGeom);
+            this.addCachedGeometry(cacheKey, outlineIndexGeom);
         }
 
         this.drawGeometry(dc, outlineIndexGeom, vertexGeom);
@@ -604,10 +605,10 @@ public class CappedCylinder extends AbstractAirspace
     private Geometry createCylinderVertexGeometry(DrawContext dc, LatLon center, double radius, double[] altitudes,
         boolean[] terrainConformant, int slices, int stacks, int orientation, Vec4 referenceCenter)
     {
-        Object cacheKey = new Geometry.CacheKey(dc.getGlobe(), this.getClass(), "Cylinder.Vertices", center, radius,
-            altitudes[0], altitudes[1], terrainConformant[0], terrainConformant[1], slices, stacks, orientation,
-            referenceCenter);
-        Geometry vertexGeom = (Geometry) this.getGeometryCache().getObject(cacheKey);
+        Geometry.ShapeKey cacheKey = this.getGeometryKey(dc, CappedCylinder.class, "Cylinder.Vertices").add(center)
+            .add(radius).add(altitudes[0]).add(altitudes[1]).add(terrainConformant[0]).add(terrainConformant[1])
+            .add(slices).add(stacks).add(orientation).add(referenceCenter);
+        Geometry vertexGeom = (Geometry) this.getCachedGeometry(cacheKey);
         if (vertexGeom == null || this.isExpired(dc, vertexGeom))
         {
             if (vertexGeom == null)
@@ -615,7 +616,7 @@ public class CappedCylinder extends AbstractAirspace
             this.makeCylinder(dc, center, radius, altitudes, terrainConformant, slices, stacks, orientation,
                 referenceCenter, vertexGeom);
             this.updateExpiryCriteria(dc, vertexGeom);
-            this.getGeometryCache().add(cacheKey, vertexGeom);
+            this.addCachedGeometry(cacheKey, vertexGeom);
         }
 
         return vertexGeom;
@@ -671,10 +672,10 @@ public class CappedCylinder extends AbstractAirspace
     private void drawDisk(DrawContext dc, LatLon center, double[] radii, double altitude, boolean terrainConformant,
         int slices, int loops, int orientation, Vec4 referenceCenter)
     {
-        Object cacheKey = new Geometry.CacheKey(dc.getGlobe(), this.getClass(), "Disk.Vertices",
-            center, radii[0], radii[1], altitude, terrainConformant,
-            slices, loops, orientation, referenceCenter);
-        Geometry vertexGeom = (Geometry) this.getGeometryCache().getObject(cacheKey);
+        Geometry.ShapeKey cacheKey = this.getGeometryKey(dc, CappedCylinder.class, "Disk.Vertices").add(center)
+            .add(radii[0]).add(radii[1]).add(altitude).add(terrainConformant).add(slices).add(loops).add(orientation)
+            .add(referenceCenter);
+        Geometry vertexGeom = (Geometry) this.getCachedGeometry(cacheKey);
         if (vertexGeom == null || this.isExpired(dc, vertexGeom))
         {
             if (vertexGeom == null)
@@ -682,16 +683,17 @@ public class CappedCylinder extends AbstractAirspace
             this.makeDisk(dc, center, radii, altitude, terrainConformant,
                 slices, loops, orientation, referenceCenter, vertexGeom);
             this.updateExpiryCriteria(dc, vertexGeom);
-            this.getGeometryCache().add(cacheKey, vertexGeom);
+            this.addCachedGeometry(cacheKey, vertexGeom);
         }
 
-        cacheKey = new Geometry.CacheKey(this.getClass(), "Disk.Indices", slices, loops, orientation);
-        Geometry indexGeom = (Geometry) this.getGeometryCache().getObject(cacheKey);
+        cacheKey = this.getGeometryKey(null, CappedCylinder.class, "Disk.Indices").add(slices).add(loops)
+            .add(orientation);
+        Geometry indexGeom = (Geometry) this.getCachedGeometry(cacheKey);
         if (indexGeom == null)
         {
             indexGeom = new Geometry();
             this.makeDiskIndices(slices, loops, orientation, indexGeom);
-            this.getGeometryCache().add(cacheKey, indexGeom);
+            this.addCachedGeometry(cacheKey, indexGeom);
         }
 
         this.drawGeometry(dc, indexGeom, vertexGeom);
@@ -633,13 +633,14 @@ public class CappedEllipticalCylinder extends AbstractAirspace
         Geometry vertexGeom = this.createCylinderVertexGeometry(dc, center, minorRadius, majorRadius, heading,
             altitudes, terrainConformant, slices, stacks, orientation, referenceCenter);
 
-        Object cacheKey = new Geometry.CacheKey(this.getClass(), "EllipticalCylinder.Indices", slices, stacks, orientation);
-        Geometry indexGeom = (Geometry) this.getGeometryCache().getObject(cacheKey);
+        Geometry.ShapeKey cacheKey = this.getGeometryKey(null, CappedEllipticalCylinder.class,
+            "EllipticalCylinder.Indices").add(slices).add(stacks).add(orientation);
+        Geometry indexGeom = (Geometry) this.getCachedGeometry(cacheKey);
         if (indexGeom == null)
         {
             indexGeom = new Geometry();
             this.makeCylinderIndices(slices, stacks, orientation, indexGeom);
-            this.getGeometryCache().add(cacheKey, indexGeom);
+            this.addCachedGeometry(cacheKey, indexGeom);
         }
 
         this.drawGeometry(dc, indexGeom, vertexGeom);
@@ -652,14 +653,14 @@ public class CappedEllipticalCylinder extends AbstractAirspace
         Geometry vertexGeom = this.createCylinderVertexGeometry(dc, center, minorRadius, majorRadius, heading, altitudes,
             terrainConformant, slices, stacks, orientation, referenceCenter);
 
-        Object cacheKey = new Geometry.CacheKey(this.getClass(), "EllipticalCylinder.OutlineIndices", slices, stacks,
-            orientation);
-        Geometry outlineIndexGeom = (Geometry) this.getGeometryCache().getObject(cacheKey);
+        Geometry.ShapeKey cacheKey = this.getGeometryKey(null, CappedEllipticalCylinder.class,
+            "EllipticalCylinder.OutlineIndices").add(slices).add(stacks).add(orientation);
+        Geometry outlineIndexGeom = (Geometry) this.getCachedGeometry(cacheKey);
         if (outlineIndexGeom == null)
         {
             outlineIndexGeom = new Geometry();
             this.makeCylinderOutlineIndices(slices, stacks, orientation, outlineIndexGeom);
-            this.getGeometryCache().add(cacheKey, outlineIndexGeom);
+            this.addCachedGeometry(cacheKey, outlineIndexGeom);
         }
 
         this.drawGeometry(dc, outlineIndexGeom, vertexGeom);
@@ -669,11 +670,12 @@ public class CappedEllipticalCylinder extends AbstractAirspace
         Angle heading, double[] altitudes, boolean[] terrainConformant, int slices, int stacks, int orientation,
         Vec4 referenceCenter)
     {
-        Object cacheKey = new Geometry.CacheKey(dc.getGlobe(), this.getClass(), "EllipticalCylinder.Vertices", center,
-            minorRadius, majorRadius, heading,
-            altitudes[0], altitudes[1], terrainConformant[0], terrainConformant[1], slices, stacks, orientation,
-            referenceCenter);
-        Geometry vertexGeom = (Geometry) this.getGeometryCache().getObject(cacheKey);
+        Geometry.ShapeKey cacheKey = this.getGeometryKey(dc, CappedEllipticalCylinder.class,
+            "EllipticalCylinder.Vertices")
+            .add(center).add(minorRadius).add(majorRadius).add(heading).add(altitudes[0]).add(altitudes[1])
+            .add(terrainConformant[0]).add(terrainConformant[1]).add(slices).add(stacks).add(orientation)
+            .add(referenceCenter);
+        Geometry vertexGeom = (Geometry) this.getCachedGeometry(cacheKey);
         if (vertexGeom == null || this.isExpired(dc, vertexGeom))
         {
             if (vertexGeom == null)
@@ -681,7 +683,7 @@ public class CappedEllipticalCylinder extends AbstractAirspace
             this.makeCylinder(dc, center, minorRadius, majorRadius, heading, altitudes, terrainConformant, slices,
                 stacks, orientation, referenceCenter, vertexGeom);
             this.updateExpiryCriteria(dc, vertexGeom);
-            this.getGeometryCache().add(cacheKey, vertexGeom);
+            this.addCachedGeometry(cacheKey, vertexGeom);
         }
 
         return vertexGeom;
@@ -738,10 +740,10 @@ public class CappedEllipticalCylinder extends AbstractAirspace
     private void drawDisk(DrawContext dc, LatLon center, double[] radii, Angle heading, double altitude,
         boolean terrainConformant, int slices, int loops, int orientation, Vec4 referenceCenter)
     {
-        Object cacheKey = new Geometry.CacheKey(dc.getGlobe(), this.getClass(), "EllipticalDisk.Vertices",
-            center, radii[0], radii[1], radii[2], radii[3], heading, altitude, terrainConformant,
-            slices, loops, orientation, referenceCenter);
-        Geometry vertexGeom = (Geometry) this.getGeometryCache().getObject(cacheKey);
+        Geometry.ShapeKey cacheKey = this.getGeometryKey(dc, CappedEllipticalCylinder.class, "EllipticalDisk.Vertices")
+            .add(center).add(radii[0]).add(radii[1]).add(radii[2]).add(radii[3]).add(heading).add(altitude)
+            .add(terrainConformant).add(slices).add(loops).add(orientation).add(referenceCenter);
+        Geometry vertexGeom = (Geometry) this.getCachedGeometry(cacheKey);
         if (vertexGeom == null || this.isExpired(dc, vertexGeom))
         {
             if (vertexGeom == null)
@@ -749,16 +751,17 @@ public class CappedEllipticalCylinder extends AbstractAirspace
             this.makeDisk(dc, center, radii, heading, altitude, terrainConformant,
                 slices, loops, orientation, referenceCenter, vertexGeom);
             this.updateExpiryCriteria(dc, vertexGeom);
-            this.getGeometryCache().add(cacheKey, vertexGeom);
+            this.addCachedGeometry(cacheKey, vertexGeom);
         }
 
-        cacheKey = new Geometry.CacheKey(this.getClass(), "EllipticalDisk.Indices", slices, loops, orientation);
-        Geometry indexGeom = (Geometry) this.getGeometryCache().getObject(cacheKey);
+        cacheKey = this.getGeometryKey(null, CappedEllipticalCylinder.class, "EllipticalDisk.Indices").add(slices)
+            .add(loops).add(orientation);
+        Geometry indexGeom = (Geometry) this.getCachedGeometry(cacheKey);
         if (indexGeom == null)
         {
             indexGeom = new Geometry();
             this.makeDiskIndices(slices, loops, orientation, indexGeom);
-            this.getGeometryCache().add(cacheKey, indexGeom);
+            this.addCachedGeometry(cacheKey, indexGeom);
         }
 
         this.drawGeometry(dc, indexGeom, vertexGeom);
@@ -411,11 +411,15 @@ public class Curtain extends AbstractAirspace
         double[] altitudes, boolean[] terrainConformant,
         Vec4 referenceCenter)
     {
-        Object cacheKey = new Geometry.CacheKey(dc.getGlobe(), this.getClass(), "Curtain",
-            locations, pathType, altitudes[0], altitudes[1], terrainConformant[0], terrainConformant[1],
-            splitThreshold, referenceCenter);
+        Geometry.ShapeKey cacheKey = this.getGeometryKey(dc, this.getClass(), "Curtain").add(locations.length);
+        for (LatLon location : locations)
+        {
+            cacheKey.add(location);
+        }
+        cacheKey.add(pathType, pathType != null ? pathType.hashCode() : 0).add(altitudes[0]).add(altitudes[1])
+            .add(terrainConformant[0]).add(terrainConformant[1]).add(splitThreshold).add(referenceCenter);
 
-        CurtainGeometry geom = (CurtainGeometry) this.getGeometryCache().getObject(cacheKey);
+        CurtainGeometry geom = (CurtainGeometry) this.getCachedGeometry(cacheKey);
         if (geom == null || this.isExpired(dc, geom.getVertexGeometry()))
         {
             if (geom == null)
@@ -423,7 +427,7 @@ public class Curtain extends AbstractAirspace
             this.makeCurtainGeometry(dc, count, locations, pathType, splitThreshold, altitudes, terrainConformant,
                 referenceCenter, geom);
             this.updateExpiryCriteria(dc, geom.getVertexGeometry());
-            this.getGeometryCache().add(cacheKey, geom);
+            this.addCachedGeometry(cacheKey, geom);
         }
 
         return geom;
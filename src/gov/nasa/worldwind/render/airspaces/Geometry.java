@@ -8,6 +8,7 @@ package gov.nasa.worldwind.render.airspaces;
 import com.jogamp.common.nio.Buffers;
 import gov.nasa.worldwind.avlist.AVListImpl;
 import gov.nasa.worldwind.cache.Cacheable;
+import gov.nasa.worldwind.geom.*;
 import gov.nasa.worldwind.globes.*;
 
 import javax.media.opengl.*;
@@ -84,6 +85,195 @@ public class Geometry extends AVListImpl implements Cacheable
         }
     }
 
+    /**
+     * A geometry cache key that holds its parameters as primitive values and computes its hash code as the parameters
+     * are added. Unlike {@link CacheKey}, constructing and looking up a ShapeKey allocates no parameter array and boxes
+     * no parameters, so an airspace can reuse one instance for every lookup by calling {@link #reset(GlobeStateKey,
+     * Class, String)} and adding the parameters. A reused key must not be stored in a cache; store a {@link #copy()}
+     * instead.
+     * <p/>
+     * Parameters that are not primitive values, such as location lists, are compared with <code>equals</code> and are
+     * hashed with a caller supplied hash code, which the caller can compute once rather than on every lookup.
+     */
+    public static class ShapeKey
+    {
+        protected GlobeStateKey globeStateKey;
+        protected Class<?> cls;
+        protected String name;
+        protected long[] values;
+        protected int valueCount;
+        protected Object[] objects;
+        protected int objectCount;
+        protected int hash;
+        /** The most recent globe state key and its hash code, which may be expensive to compute. */
+        protected GlobeStateKey hashedGlobeStateKey;
+        protected int globeStateHash;
+
+        /** Constructs an empty key with room for 16 primitive parameters. */
+        public ShapeKey()
+        {
+            this.values = new long[16];
+            this.objects = new Object[2];
+        }
+
+        protected ShapeKey(ShapeKey key)
+        {
+            this.globeStateKey = key.globeStateKey;
+            this.cls = key.cls;
+            this.name = key.name;
+            this.values = Arrays.copyOf(key.values, key.valueCount);
+            this.valueCount = key.valueCount;
+            this.objects = Arrays.copyOf(key.objects, key.objectCount);
+            this.objectCount = key.objectCount;
+            this.hash = key.hash;
+        }
+
+        /**
+         * Removes this key's parameters and sets the globe state, class and name that identify the geometry.
+         *
+         * @param globeStateKey the state key of the globe the geometry is computed for, or null if the geometry does
+         *                      not depend on the globe.
+         * @param cls           the class that computes the geometry. May be null.
+         * @param name          the name of the geometry. May be null.
+         *
+         * @return this key.
+         */
+        public ShapeKey reset(GlobeStateKey globeStateKey, Class<?> cls, String name)
+        {
+            Arrays.fill(this.objects, 0, this.objectCount, null);
+            this.globeStateKey = globeStateKey;
+            this.cls = cls;
+            this.name = name;
+            this.valueCount = 0;
+            this.objectCount = 0;
+
+            if (globeStateKey != this.hashedGlobeStateKey)
+            {
+                this.hashedGlobeStateKey = globeStateKey;
+                this.globeStateHash = globeStateKey != null ? globeStateKey.hashCode() : 0;
+            }
+
+            int result = this.globeStateHash;
+            result = 31 * result + (cls != null ? cls.hashCode() : 0);
+            this.hash = 31 * result + (name != null ? name.hashCode() : 0);
+
+            return this;
+        }
+
+        public ShapeKey add(double value)
+        {
+            return this.addBits(Double.doubleToLongBits(value));
+        }
+
+        public ShapeKey add(int value)
+        {
+            return this.addBits(value);
+        }
+
+        public ShapeKey add(boolean value)
+        {
+            return this.addBits(value ? 1 : 0);
+        }
+
+        public ShapeKey add(Angle angle)
+        {
+            return this.add(angle.degrees);
+        }
+
+        public ShapeKey add(LatLon location)
+        {
+            return this.add(location.getLatitude().degrees).add(location.getLongitude().degrees);
+        }
+
+        public ShapeKey add(Vec4 point)
+        {
+            return this.add(point.x).add(point.y).add(point.z).add(point.w);
+        }
+
+        /**
+         * Adds a parameter that is compared with <code>equals</code>.
+         *
+         * @param object   the parameter. May be null.
+         * @param hashCode the parameter's hash code. Must be equal for parameters that are equal.
+         *
+         * @return this key.
+         */
+        public ShapeKey add(Object object, int hashCode)
+        {
+            if (this.objectCount == this.objects.length)
+                this.objects = Arrays.copyOf(this.objects, 2 * this.objects.length);
+
+            this.objects[this.objectCount++] = object;
+            this.hash = 31 * this.hash + hashCode;
+
+            return this;
+        }
+
+        protected ShapeKey addBits(long bits)
+        {
+            if (this.valueCount == this.values.length)
+                this.values = Arrays.copyOf(this.values, 2 * this.values.length);
+
+            this.values[this.valueCount++] = bits;
+            this.hash = 31 * this.hash + (int) (bits ^ (bits >>> 32));
+
+            return this;
+        }
+
+        /**
+         * Returns an independent copy of this key, suitable for storing in a cache.
+         *
+         * @return a copy of this key.
+         */
+        public ShapeKey copy()
+        {
+            return new ShapeKey(this);
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
+                return true;
+            if (o == null || this.getClass() != o.getClass())
+                return false;
+
+            ShapeKey that = (ShapeKey) o;
+
+            if (this.hash != that.hash || this.valueCount != that.valueCount || this.objectCount != that.objectCount)
+                return false;
+            if (this.cls != that.cls)
+                return false;
+            if (this.name != null ? !this.name.equals(that.name) : that.name != null)
+                return false;
+            if (this.globeStateKey != null ? !this.globeStateKey.equals(that.globeStateKey)
+                : that.globeStateKey != null)
+                return false;
+
+            for (int i = 0; i < this.valueCount; i++)
+            {
+                if (this.values[i] != that.values[i])
+                    return false;
+            }
+
+            for (int i = 0; i < this.objectCount; i++)
+            {
+                Object a = this.objects[i];
+                Object b = that.objects[i];
+                if (a != null ? !a.equals(b) : b != null)
+                    return false;
+            }
+
+            return true;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return this.hash;
+        }
+    }
+
     public static final int TEXTURE = 0;
     public static final int ELEMENT = 1;
     public static final int VERTEX = 2;
@@ -603,14 +603,14 @@ public class Orbit extends AbstractAirspace
         Geometry vertexGeom = this.createLongCylinderVertexGeometry(dc, center1, center2, radius, altitudes,
             terrainConformant, arcSlices, lengthSlices, stacks, orientation, referenceCenter);
 
-        Object cacheKey = new Geometry.CacheKey(this.getClass(), "LongCylinder.Indices", arcSlices, lengthSlices,
-            stacks, orientation);
-        Geometry indexGeom = (Geometry) this.getGeometryCache().getObject(cacheKey);
+        Geometry.ShapeKey cacheKey = this.getGeometryKey(null, Orbit.class, "LongCylinder.Indices").add(arcSlices)
+            .add(lengthSlices).add(stacks).add(orientation);
+        Geometry indexGeom = (Geometry) this.getCachedGeometry(cacheKey);
         if (indexGeom == null)
         {
             indexGeom = new Geometry();
             this.makeLongCylinderIndices(arcSlices, lengthSlices, stacks, orientation, indexGeom);
-            this.getGeometryCache().add(cacheKey, indexGeom);
+            this.addCachedGeometry(cacheKey, indexGeom);
         }
 
         this.drawGeometry(dc, indexGeom, vertexGeom);
@@ -623,14 +623,14 @@ public class Orbit extends AbstractAirspace
         Geometry vertexGeom = this.createLongCylinderVertexGeometry(dc, center1, center2, radius, altitudes,
             terrainConformant, arcSlices, lengthSlices, stacks, orientation, referenceCenter);
 
-        Object cacheKey = new Geometry.CacheKey(this.getClass(), "LongCylinder.OutlineIndices", arcSlices, lengthSlices,
-            stacks, orientation);
-        Geometry outlineIndexGeom = (Geometry) this.getGeometryCache().getObject(cacheKey);
+        Geometry.ShapeKey cacheKey = this.getGeometryKey(null, Orbit.class, "LongCylinder.OutlineIndices")
+            .add(arcSlices).add(lengthSlices).add(stacks).add(orientation);
+        Geometry outlineIndexGeom = (Geometry) this.getCachedGeometry(cacheKey);
         if (outlineIndexGeom == null)
         {
             outlineIndexGeom = new Geometry();
             this.makeLongCylinderOutlineIndices(arcSlices, lengthSlices, stacks, orientation, outlineIndexGeom);
-            this.getGeometryCache().add(cacheKey, outlineIndexGeom);
+            this.addCachedGeometry(cacheKey, outlineIndexGeom);
         }
 
         this.drawGeometry(dc, outlineIndexGeom, vertexGeom);
@@ -640,10 +640,11 @@ public class Orbit extends AbstractAirspace
         double[] altitudes, boolean[] terrainConformant, int arcSlices, int lengthSlices, int stacks, int orientation,
         Vec4 referenceCenter)
     {
-        Object cacheKey = new Geometry.CacheKey(dc.getGlobe(), this.getClass(), "LongCylinder.Vertices",
-            center1, center2, radius, altitudes[0], altitudes[1], terrainConformant[0], terrainConformant[1], arcSlices,
-            lengthSlices, stacks, orientation, referenceCenter);
-        Geometry vertexGeom = (Geometry) this.getGeometryCache().getObject(cacheKey);
+        Geometry.ShapeKey cacheKey = this.getGeometryKey(dc, Orbit.class, "LongCylinder.Vertices").add(center1)
+            .add(center2).add(radius).add(altitudes[0]).add(altitudes[1]).add(terrainConformant[0])
+            .add(terrainConformant[1]).add(arcSlices).add(lengthSlices).add(stacks).add(orientation)
+            .add(referenceCenter);
+        Geometry vertexGeom = (Geometry) this.getCachedGeometry(cacheKey);
         if (vertexGeom == null || this.isExpired(dc, vertexGeom))
         {
             if (vertexGeom == null)
@@ -651,7 +652,7 @@ public class Orbit extends AbstractAirspace
             this.makeLongCylinder(dc, center1, center2, radius, altitudes, terrainConformant, arcSlices, lengthSlices,
                 stacks, orientation, referenceCenter, vertexGeom);
             this.updateExpiryCriteria(dc, vertexGeom);
-            this.getGeometryCache().add(cacheKey, vertexGeom);
+            this.addCachedGeometry(cacheKey, vertexGeom);
         }
 
         return vertexGeom;
@@ -709,10 +710,10 @@ public class Orbit extends AbstractAirspace
     private void drawLongDisk(DrawContext dc, LatLon center1, LatLon center2, double[] radii, double altitude,
         boolean terrainConformant, int arcSlices, int lengthSlices, int loops, int orientation, Vec4 referenceCenter)
     {
-        Object cacheKey = new Geometry.CacheKey(dc.getGlobe(), this.getClass(), "LongDisk.Vertices", center1, center2,
-            radii[0], radii[1], altitude, terrainConformant, arcSlices, lengthSlices, loops, orientation,
-            referenceCenter);
-        Geometry vertexGeom = (Geometry) this.getGeometryCache().getObject(cacheKey);
+        Geometry.ShapeKey cacheKey = this.getGeometryKey(dc, Orbit.class, "LongDisk.Vertices").add(center1).add(center2)
+            .add(radii[0]).add(radii[1]).add(altitude).add(terrainConformant).add(arcSlices).add(lengthSlices)
+            .add(loops).add(orientation).add(referenceCenter);
+        Geometry vertexGeom = (Geometry) this.getCachedGeometry(cacheKey);
         if (vertexGeom == null || this.isExpired(dc, vertexGeom))
         {
             if (vertexGeom == null)
@@ -720,17 +721,17 @@ public class Orbit extends AbstractAirspace
             this.makeLongDisk(dc, center1, center2, radii, altitude, terrainConformant, arcSlices, lengthSlices, loops,
                 orientation, referenceCenter, vertexGeom);
             this.updateExpiryCriteria(dc, vertexGeom);
-            this.getGeometryCache().add(cacheKey, vertexGeom);
+            this.addCachedGeometry(cacheKey, vertexGeom);
         }
 
-        cacheKey = new Geometry.CacheKey(this.getClass(), "LongDisk.Indices", arcSlices, lengthSlices, loops,
-            orientation);
-        Geometry indexGeom = (Geometry) this.getGeometryCache().getObject(cacheKey);
+        cacheKey = this.getGeometryKey(null, Orbit.class, "LongDisk.Indices").add(arcSlices).add(lengthSlices)
+            .add(loops).add(orientation);
+        Geometry indexGeom = (Geometry) this.getCachedGeometry(cacheKey);
         if (indexGeom == null)
         {
             indexGeom = new Geometry();
             this.makeLongDiskIndices(arcSlices, lengthSlices, loops, orientation, indexGeom);
-            this.getGeometryCache().add(cacheKey, indexGeom);
+            this.addCachedGeometry(cacheKey, indexGeom);
         }
 
         this.drawGeometry(dc, indexGeom, vertexGeom);
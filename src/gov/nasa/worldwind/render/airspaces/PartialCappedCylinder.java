@@ -351,14 +351,14 @@ public class PartialCappedCylinder extends CappedCylinder
         Geometry vertexGeom = this.createPartialCylinderVertexGeometry(dc, center, radius, altitudes, terrainConformant,
             slices, stacks, orientation, start, sweep, referenceCenter);
 
-        Object cacheKey = new Geometry.CacheKey(this.getClass(), "PartialCylinder.Indices", slices, stacks,
-            orientation);
-        Geometry indexGeom = (Geometry) this.getGeometryCache().getObject(cacheKey);
+        Geometry.ShapeKey cacheKey = this.getGeometryKey(null, PartialCappedCylinder.class, "PartialCylinder.Indices")
+            .add(slices).add(stacks).add(orientation);
+        Geometry indexGeom = (Geometry) this.getCachedGeometry(cacheKey);
         if (indexGeom == null)
         {
             indexGeom = new Geometry();
             this.makePartialCylinderIndices(slices, stacks, orientation, indexGeom);
-            this.getGeometryCache().add(cacheKey, indexGeom);
+            this.addCachedGeometry(cacheKey, indexGeom);
         }
 
         this.drawGeometry(dc, indexGeom, vertexGeom);
@@ -371,14 +371,14 @@ public class PartialCappedCylinder extends CappedCylinder
         Geometry vertexGeom = this.createPartialCylinderVertexGeometry(dc, center, radius, altitudes, terrainConformant,
             slices, stacks, orientation, start, sweep, referenceCenter);
 
-        Object cacheKey = new Geometry.CacheKey(this.getClass(), "PartialCylinder.OutlineIndices", slices, stacks,
-            orientation);
-        Geometry outlineIndexGeom = (Geometry) this.getGeometryCache().getObject(cacheKey);
+        Geometry.ShapeKey cacheKey = this.getGeometryKey(null, PartialCappedCylinder.class,
+            "PartialCylinder.OutlineIndices").add(slices).add(stacks).add(orientation);
+        Geometry outlineIndexGeom = (Geometry) this.getCachedGeometry(cacheKey);
         if (outlineIndexGeom == null)
         {
             outlineIndexGeom = new Geometry();
             this.makePartialCylinderOutlineIndices(slices, stacks, orientation, outlineIndexGeom);
-            this.getGeometryCache().add(cacheKey, outlineIndexGeom);
+            this.addCachedGeometry(cacheKey, outlineIndexGeom);
         }
 
         this.drawGeometry(dc, outlineIndexGeom, vertexGeom);
@@ -388,10 +388,11 @@ public class PartialCappedCylinder extends CappedCylinder
         double[] altitudes, boolean[] terrainConformant, int slices, int stacks, int orientation, double start,
         double sweep, Vec4 referenceCenter)
     {
-        Object cacheKey = new Geometry.CacheKey(dc.getGlobe(), this.getClass(), "PartialCylinder.Vertices", center,
-            radius, altitudes[0], altitudes[1], terrainConformant[0], terrainConformant[1], slices, stacks, orientation,
-            start, sweep, referenceCenter);
-        Geometry vertexGeom = (Geometry) this.getGeometryCache().getObject(cacheKey);
+        Geometry.ShapeKey cacheKey = this.getGeometryKey(dc, PartialCappedCylinder.class, "PartialCylinder.Vertices")
+            .add(center).add(radius).add(altitudes[0]).add(altitudes[1]).add(terrainConformant[0])
+            .add(terrainConformant[1]).add(slices).add(stacks).add(orientation).add(start).add(sweep)
+            .add(referenceCenter);
+        Geometry vertexGeom = (Geometry) this.getCachedGeometry(cacheKey);
         if (vertexGeom == null || this.isExpired(dc, vertexGeom))
         {
             if (vertexGeom == null)
@@ -399,7 +400,7 @@ public class PartialCappedCylinder extends CappedCylinder
             this.makePartialCylinder(dc, center, radius, altitudes, terrainConformant, slices, stacks, orientation,
                 start, sweep, referenceCenter, vertexGeom);
             this.updateExpiryCriteria(dc, vertexGeom);
-            this.getGeometryCache().add(cacheKey, vertexGeom);
+            this.addCachedGeometry(cacheKey, vertexGeom);
         }
 
         return vertexGeom;
@@ -458,9 +459,10 @@ public class PartialCappedCylinder extends CappedCylinder
         boolean terrainConformant, int slices, int loops, int orientation, double start, double sweep,
         Vec4 referenceCenter)
     {
-        Object cacheKey = new Geometry.CacheKey(dc.getGlobe(), this.getClass(), "PartialDisk.Vertices", center,
-            radii[0], radii[1], altitude, terrainConformant, slices, loops, orientation, start, sweep, referenceCenter);
-        Geometry vertexGeom = (Geometry) this.getGeometryCache().getObject(cacheKey);
+        Geometry.ShapeKey cacheKey = this.getGeometryKey(dc, PartialCappedCylinder.class, "PartialDisk.Vertices")
+            .add(center).add(radii[0]).add(radii[1]).add(altitude).add(terrainConformant).add(slices).add(loops)
+            .add(orientation).add(start).add(sweep).add(referenceCenter);
+        Geometry vertexGeom = (Geometry) this.getCachedGeometry(cacheKey);
         if (vertexGeom == null || this.isExpired(dc, vertexGeom))
         {
             if (vertexGeom == null)
@@ -468,16 +470,17 @@ public class PartialCappedCylinder extends CappedCylinder
             this.makePartialDisk(dc, center, radii, altitude, terrainConformant, slices, loops, orientation, start,
                 sweep, referenceCenter, vertexGeom);
             this.updateExpiryCriteria(dc, vertexGeom);
-            this.getGeometryCache().add(cacheKey, vertexGeom);
+            this.addCachedGeometry(cacheKey, vertexGeom);
         }
 
-        cacheKey = new Geometry.CacheKey(this.getClass(), "PartialDisk.Indices", slices, loops, orientation);
-        Geometry indexGeom = (Geometry) this.getGeometryCache().getObject(cacheKey);
+        cacheKey = this.getGeometryKey(null, PartialCappedCylinder.class, "PartialDisk.Indices").add(slices).add(loops)
+            .add(orientation);
+        Geometry indexGeom = (Geometry) this.getCachedGeometry(cacheKey);
         if (indexGeom == null)
         {
             indexGeom = new Geometry();
             this.makePartialDiskIndices(slices, loops, orientation, indexGeom);
-            this.getGeometryCache().add(cacheKey, indexGeom);
+            this.addCachedGeometry(cacheKey, indexGeom);
         }
 
         this.drawGeometry(dc, indexGeom, vertexGeom);
@@ -525,13 +528,14 @@ public class PartialCappedCylinder extends CappedCylinder
         Geometry vertexGeom = this.createRadialWallVertexGeometry(dc, center, radii, angle, altitudes,
             terrainConformant, pillars, stacks, orientation, referenceCenter);
 
-        Object cacheKey = new Geometry.CacheKey(this.getClass(), "RadialWall.Indices", pillars, stacks, orientation);
-        Geometry indexGeom = (Geometry) this.getGeometryCache().getObject(cacheKey);
+        Geometry.ShapeKey cacheKey = this.getGeometryKey(null, PartialCappedCylinder.class, "RadialWall.Indices")
+            .add(pillars).add(stacks).add(orientation);
+        Geometry indexGeom = (Geometry) this.getCachedGeometry(cacheKey);
         if (indexGeom == null)
         {
             indexGeom = new Geometry();
             this.makeRadialWallIndices(pillars, stacks, orientation, indexGeom);
-            this.getGeometryCache().add(cacheKey, indexGeom);
+            this.addCachedGeometry(cacheKey, indexGeom);
         }
 
         this.drawGeometry(dc, indexGeom, vertexGeom);
@@ -543,14 +547,14 @@ public class PartialCappedCylinder extends CappedCylinder
         Geometry vertexGeom = this.createRadialWallVertexGeometry(dc, center, radii, angle, altitudes,
             terrainConformant, pillars, stacks, orientation, referenceCenter);
 
-        Object cacheKey = new Geometry.CacheKey(this.getClass(), "RadialWall.OutlineIndices", pillars, stacks,
-            orientation);
-        Geometry outlineIndexGeom = (Geometry) this.getGeometryCache().getObject(cacheKey);
+        Geometry.ShapeKey cacheKey = this.getGeometryKey(null, PartialCappedCylinder.class, "RadialWall.OutlineIndices")
+            .add(pillars).add(stacks).add(orientation);
+        Geometry outlineIndexGeom = (Geometry) this.getCachedGeometry(cacheKey);
         if (outlineIndexGeom == null)
         {
             outlineIndexGeom = new Geometry();
             this.makeRadialWallOutlineIndices(pillars, stacks, orientation, outlineIndexGeom);
-            this.getGeometryCache().add(cacheKey, outlineIndexGeom);
+            this.addCachedGeometry(cacheKey, outlineIndexGeom);
         }
 
         this.drawGeometry(dc, outlineIndexGeom, vertexGeom);
@@ -559,10 +563,11 @@ public class PartialCappedCylinder extends CappedCylinder
     private Geometry createRadialWallVertexGeometry(DrawContext dc, LatLon center, double[] radii, double angle,
         double[] altitudes, boolean[] terrainConformant, int pillars, int stacks, int orientation, Vec4 referenceCenter)
     {
-        Object cacheKey = new Geometry.CacheKey(dc.getGlobe(), this.getClass(), "RadialWall.Vertices", center, radii[0],
-            radii[1], angle, altitudes[0], altitudes[1], terrainConformant[0], terrainConformant[1], pillars, stacks,
-            orientation, referenceCenter);
-        Geometry vertexGeom = (Geometry) this.getGeometryCache().getObject(cacheKey);
+        Geometry.ShapeKey cacheKey = this.getGeometryKey(dc, PartialCappedCylinder.class, "RadialWall.Vertices")
+            .add(center).add(radii[0]).add(radii[1]).add(angle).add(altitudes[0]).add(altitudes[1])
+            .add(terrainConformant[0]).add(terrainConformant[1]).add(pillars).add(stacks).add(orientation)
+            .add(referenceCenter);
+        Geometry vertexGeom = (Geometry) this.getCachedGeometry(cacheKey);
         if (vertexGeom == null || this.isExpired(dc, vertexGeom))
         {
             if (vertexGeom == null)
@@ -570,7 +575,7 @@ public class PartialCappedCylinder extends CappedCylinder
             this.makeRadialWall(dc, center, radii, angle, altitudes, terrainConformant, pillars, stacks, orientation,
                 referenceCenter, vertexGeom);
             this.updateExpiryCriteria(dc, vertexGeom);
-            this.getGeometryCache().add(cacheKey, vertexGeom);
+            this.addCachedGeometry(cacheKey, vertexGeom);
         }
 
         return vertexGeom;
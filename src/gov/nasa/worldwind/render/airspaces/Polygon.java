@@ -511,9 +511,21 @@ public class Polygon extends AbstractAirspace
         boolean enableCaps, int subdivisions,
         Vec4 referenceCenter)
     {
-        Object cacheKey = new Geometry.CacheKey(dc.getGlobe(), this.getClass(), "Polygon",
-            locations, edgeFlags, altitudes[0], altitudes[1], terrainConformant[0], terrainConformant[1],
-            enableCaps, subdivisions, referenceCenter);
+        Geometry.ShapeKey cacheKey = this.getGeometryKey(dc, this.getClass(), "Polygon").add(locations.size());
+        for (LatLon location : locations)
+        {
+            cacheKey.add(location);
+        }
+        cacheKey.add(edgeFlags != null ? edgeFlags.size() : -1);
+        if (edgeFlags != null)
+        {
+            for (Boolean flag : edgeFlags)
+            {
+                cacheKey.add(flag);
+            }
+        }
+        cacheKey.add(altitudes[0]).add(altitudes[1]).add(terrainConformant[0]).add(terrainConformant[1])
+            .add(enableCaps).add(subdivisions).add(referenceCenter);
 
         // Wrap geometry creation in a try/catch block. We do this to catch and handle OutOfMemoryErrors caused during
         // tessellation of the polygon vertices. If the polygon cannot be tessellated, we replace the polygon's
@@ -521,7 +533,7 @@ public class Polygon extends AbstractAirspace
         // representation by omitting any part of the geometry.
         try
         {
-            PolygonGeometry geom = (PolygonGeometry) this.getGeometryCache().getObject(cacheKey);
+            PolygonGeometry geom = (PolygonGeometry) this.getCachedGeometry(cacheKey);
             if (geom == null || this.isExpired(dc, geom.getVertexGeometry()))
             {
                 if (geom == null)
@@ -529,7 +541,7 @@ public class Polygon extends AbstractAirspace
                 this.makePolygon(dc, locations, edgeFlags, altitudes, terrainConformant, enableCaps, subdivisions,
                     referenceCenter, geom);
                 this.updateExpiryCriteria(dc, geom.getVertexGeometry());
-                this.getGeometryCache().add(cacheKey, geom);
+                this.addCachedGeometry(cacheKey, geom);
             }
 
             return geom;
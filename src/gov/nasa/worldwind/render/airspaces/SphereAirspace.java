@@ -446,15 +446,15 @@ public class SphereAirspace extends AbstractAirspace
 
     protected void drawUnitSphere(DrawContext dc, int subdivisions)
     {
-        Object cacheKey = new Geometry.CacheKey(dc.getGlobe(), this.getClass(), "Sphere", subdivisions);
-        Geometry geom = (Geometry) this.getGeometryCache().getObject(cacheKey);
+        Geometry.ShapeKey cacheKey = this.getGeometryKey(dc, this.getClass(), "Sphere").add(subdivisions);
+        Geometry geom = (Geometry) this.getCachedGeometry(cacheKey);
         if (geom == null || this.isExpired(dc, geom))
         {
             if (geom == null)
                 geom = new Geometry();
             this.makeSphere(1.0, subdivisions, geom);
             this.updateExpiryCriteria(dc, geom);
-            this.getGeometryCache().add(cacheKey, geom);
+            this.addCachedGeometry(cacheKey, geom);
         }
 
         this.drawGeometry(dc, geom, geom);
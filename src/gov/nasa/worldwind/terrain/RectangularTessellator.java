@@ -699,6 +699,7 @@ public class RectangularTessellator extends WWObjectImpl implements Tessellator
 
         int ie = 0;
         int iv = 0;
+        MutableVec4 p = new MutableVec4(); // reused for every vertex
         Iterator<LatLon> latLonIter = latlons.iterator();
         for (int j = 0; j <= density + 2; j++)
         {
@@ -712,7 +713,8 @@ public class RectangularTessellator extends WWObjectImpl implements Tessellator
                     (j == 0 || j >= tile.density + 2 || i == 0 || i >= tile.density + 2))
                     elevation = exaggeratedMinElevation;
 
-                Vec4 p = globe.computePointFromPosition(latlon.getLatitude(), latlon.getLongitude(), elevation);
+                globe.computePointFromPosition(latlon.getLatitude().degrees, latlon.getLongitude().degrees, elevation,
+                    p);
                 verts.put(iv++, (float) (p.x - refCenter.x));
                 verts.put(iv++, (float) (p.y - refCenter.y));
                 verts.put(iv++, (float) (p.z - refCenter.z));
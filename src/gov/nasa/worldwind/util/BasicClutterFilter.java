@@ -12,7 +12,9 @@ import java.awt.geom.*;
 import java.util.*;
 
 /**
- * A simple clutter filter that compares bounding rectangles to each other.
+ * A simple clutter filter that compares bounding rectangles to each other. A shape is drawn only if its bounds do not
+ * intersect those of a shape before it in the list. Intersecting regions are found with a {@link ClutterGrid}, so the
+ * cost of filtering grows linearly with the number of shapes.
  *
  * @author tag
  * @version $Id: BasicClutterFilter.java 726 2012-08-29 03:16:03Z tgaskins $
@@ -20,12 +22,23 @@ import java.util.*;
 public class BasicClutterFilter implements ClutterFilter
 {
     protected List<Rectangle2D> rectList = new ArrayList<Rectangle2D>();
+    /** Indexes the regions in the region list. */
+    protected ClutterGrid grid = new ClutterGrid();
 
     public void apply(DrawContext dc, List<Declutterable> shapes)
     {
+        // Compute every shape's bounds first so the grid can be sized to cover them.
+        List<Rectangle2D> boundsList = new ArrayList<Rectangle2D>(shapes.size());
         for (Declutterable shape : shapes)
         {
-            Rectangle2D bounds = shape.getBounds(dc);
+            boundsList.add(shape.getBounds(dc));
+        }
+        this.grid.reset(boundsList);
+
+        int i = 0;
+        for (Declutterable shape : shapes)
+        {
+            Rectangle2D bounds = boundsList.get(i++);
             if (bounds == null)
                 continue;
 
@@ -35,7 +48,7 @@ public class BasicClutterFilter implements ClutterFilter
             if (intersectingRegion == null)
             {
                 dc.addOrderedRenderable(shape);
-                this.rectList.add(bounds);
+                this.addRegion(bounds);
             }
         }
 
@@ -45,6 +58,18 @@ public class BasicClutterFilter implements ClutterFilter
     protected void clear()
     {
         this.rectList.clear();
+        this.grid.clear();
+    }
+
+    /**
+     * Adds a region to the filter. Subsequent regions are checked for intersection with it.
+     *
+     * @param rectangle the region to add.
+     */
+    protected void addRegion(Rectangle2D rectangle)
+    {
+        this.rectList.add(rectangle);
+        this.grid.add(rectangle);
     }
 
     /**
@@ -59,13 +84,9 @@ public class BasicClutterFilter implements ClutterFilter
         if (rectangle == null)
             return null;
 
-        // Performs a simple linear search. This is a performance bottleneck for very large lists.
-        for (Rectangle2D rect : this.rectList)
-        {
-            if (rectangle.intersects(rect))
-                return rect;
-        }
+        // The grid returns the first region in the order added, as would a linear search of the region list.
+        int index = this.grid.firstIntersecting(rectangle);
 
-        return null;
+        return index >= 0 ? this.grid.getRegion(index) : null;
     }
 }
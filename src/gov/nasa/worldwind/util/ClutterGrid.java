@@ -0,0 +1,293 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+package gov.nasa.worldwind.util;
+
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+
+/**
+ * A uniform screen-space grid of rectangular regions, used by clutter filters to find the regions a new region
+ * intersects without comparing it against every region already in the filter. Regions are numbered in the order they
+ * are added, and {@link #firstIntersecting(java.awt.geom.Rectangle2D)} returns the lowest numbered intersecting
+ * region, which is the region a linear search of the regions in order would find.
+ * <p/>
+ * The grid covers an area specified by {@link #reset(Iterable)}, typically the union of the regions to be added.
+ * Regions extending beyond the area are assigned to the grid's edge cells, so they are still found, but a grid whose
+ * area is much smaller than the regions added to it degrades to a linear search.
+ *
+ * @version $Id$
+ */
+public class ClutterGrid
+{
+    /** The maximum number of cells along each grid axis. */
+    protected static final int MAX_CELLS_PER_AXIS = 256;
+    /** The minimum cell width and height, in pixels. */
+    protected static final double MIN_CELL_SIZE = 8;
+
+    protected double originX;
+    protected double originY;
+    protected double cellWidth = 1;
+    protected double cellHeight = 1;
+    protected int numCols = 1;
+    protected int numRows = 1;
+    /** The first and last entry in each cell, or -1 if the cell is empty. */
+    protected int[] cellHeads = new int[] {-1};
+    protected int[] cellTails = new int[] {-1};
+    /** The region index and next entry in the cell of each entry. Entries in a cell are ordered by region index. */
+    protected int[] entryRegions = new int[64];
+    protected int[] entryNext = new int[64];
+    protected int numEntries;
+    protected Rectangle2D[] regions = new Rectangle2D[16];
+    protected int numRegions;
+
+    /** Constructs an empty grid with a single cell. */
+    public ClutterGrid()
+    {
+    }
+
+    /**
+     * Removes all regions from the grid and sizes the grid for a specified set of regions. The grid covers the union of
+     * the regions, with cells about the size of the average region.
+     *
+     * @param regions the regions to size the grid for. Null elements are ignored. May be null, in which case the grid
+     *                has a single cell.
+     */
+    public void reset(Iterable<? extends Rectangle2D> regions)
+    {
+        double minX = Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE;
+        double maxY = -Double.MAX_VALUE;
+        double sumWidth = 0;
+        double sumHeight = 0;
+        int count = 0;
+
+        if (regions != null)
+        {
+            for (Rectangle2D region : regions)
+            {
+                if (region == null || region.isEmpty())
+                    continue;
+
+                minX = Math.min(minX, region.getMinX());
+                minY = Math.min(minY, region.getMinY());
+                maxX = Math.max(maxX, region.getMaxX());
+                maxY = Math.max(maxY, region.getMaxY());
+                sumWidth += region.getWidth();
+                sumHeight += region.getHeight();
+                count++;
+            }
+        }
+
+        if (count == 0)
+        {
+            this.reset(0, 0, 1, 1, 1, 1);
+        }
+        else
+        {
+            this.reset(minX, minY, maxX - minX, maxY - minY, Math.max(MIN_CELL_SIZE, sumWidth / count),
+                Math.max(MIN_CELL_SIZE, sumHeight / count));
+        }
+    }
+
+    /**
+     * Removes all regions from the grid and sets the area it covers and its approximate cell size.
+     *
+     * @param x          the minimum x coordinate of the area.
+     * @param y          the minimum y coordinate of the area.
+     * @param width      the width of the area.
+     * @param height     the height of the area.
+     * @param cellWidth  the desired cell width. The actual width may be larger, to limit the number of cells.
+     * @param cellHeight the desired cell height. The actual height may be larger, to limit the number of cells.
+     */
+    public void reset(double x, double y, double width, double height, double cellWidth, double cellHeight)
+    {
+        this.clear();
+
+        this.numCols = (int) Math.max(1, Math.min(MAX_CELLS_PER_AXIS, Math.ceil(width / cellWidth)));
+        this.numRows = (int) Math.max(1, Math.min(MAX_CELLS_PER_AXIS, Math.ceil(height / cellHeight)));
+        this.originX = x;
+        this.originY = y;
+        this.cellWidth = Math.max(width / this.numCols, 1e-9);
+        this.cellHeight = Math.max(height / this.numRows, 1e-9);
+
+        int numCells = this.numCols * this.numRows;
+        if (this.cellHeads.length < numCells)
+        {
+            this.cellHeads = new int[numCells];
+            this.cellTails = new int[numCells];
+        }
+
+        Arrays.fill(this.cellHeads, 0, numCells, -1);
+        Arrays.fill(this.cellTails, 0, numCells, -1);
+    }
+
+    /** Removes all regions from the grid, retaining its area and cell size. */
+    public void clear()
+    {
+        Arrays.fill(this.regions, 0, this.numRegions, null);
+        this.numRegions = 0;
+        this.numEntries = 0;
+        Arrays.fill(this.cellHeads, 0, this.numCols * this.numRows, -1);
+        Arrays.fill(this.cellTails, 0, this.numCols * this.numRows, -1);
+    }
+
+    /**
+     * Returns the number of regions in the grid.
+     *
+     * @return the number of regions in the grid.
+     */
+    public int size()
+    {
+        return this.numRegions;
+    }
+
+    /**
+     * Returns a region in the grid.
+     *
+     * @param index the region's index, as returned by {@link #add(java.awt.geom.Rectangle2D)}.
+     *
+     * @return the region.
+     *
+     * @throws IllegalArgumentException if the index is out of range.
+     */
+    public Rectangle2D getRegion(int index)
+    {
+        if (index < 0 || index >= this.numRegions)
+        {
+            String msg = Logging.getMessage("generic.indexOutOfRange", index);
+            Logging.logger().severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        return this.regions[index];
+    }
+
+    /**
+     * Adds a region to the grid.
+     *
+     * @param region the region to add.
+     *
+     * @return the region's index, one greater than that of the region added before it.
+     *
+     * @throws IllegalArgumentException if the region is null.
+     */
+    public int add(Rectangle2D region)
+    {
+        if (region == null)
+        {
+            String msg = Logging.getMessage("nullValue.RectangleIsNull");
+            Logging.logger().severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        if (this.numRegions == this.regions.length)
+            this.regions = Arrays.copyOf(this.regions, 2 * this.numRegions);
+
+        int index = this.numRegions++;
+        this.regions[index] = region;
+
+        int minCol = this.col(region.getMinX());
+        int maxCol = this.col(region.getMaxX());
+        int minRow = this.row(region.getMinY());
+        int maxRow = this.row(region.getMaxY());
+
+        for (int row = minRow; row <= maxRow; row++)
+        {
+            for (int col = minCol; col <= maxCol; col++)
+            {
+                this.addEntry(row * this.numCols + col, index);
+            }
+        }
+
+        return index;
+    }
+
+    /**
+     * Returns the first region added to the grid that intersects a specified region, as determined by {@link
+     * java.awt.geom.Rectangle2D#intersects(java.awt.geom.Rectangle2D)}.
+     *
+     * @param region the region to test.
+     *
+     * @return the index of the first intersecting region, or -1 if no region intersects the specified region or the
+     *         specified region is null.
+     */
+    public int firstIntersecting(Rectangle2D region)
+    {
+        if (region == null || this.numRegions == 0)
+            return -1;
+
+        int minCol = this.col(region.getMinX());
+        int maxCol = this.col(region.getMaxX());
+        int minRow = this.row(region.getMinY());
+        int maxRow = this.row(region.getMaxY());
+        int first = -1;
+
+        for (int row = minRow; row <= maxRow; row++)
+        {
+            for (int col = minCol; col <= maxCol; col++)
+            {
+                // Entries are ordered by region index, so the first intersecting entry is the cell's earliest match,
+                // and entries at or beyond the earliest match found so far need not be tested.
+                for (int e = this.cellHeads[row * this.numCols + col]; e >= 0; e = this.entryNext[e])
+                {
+                    int index = this.entryRegions[e];
+                    if (first >= 0 && index >= first)
+                        break;
+
+                    if (region.intersects(this.regions[index]))
+                    {
+                        first = index;
+                        break;
+                    }
+                }
+            }
+        }
+
+        return first;
+    }
+
+    protected void addEntry(int cell, int index)
+    {
+        if (this.numEntries == this.entryRegions.length)
+        {
+            this.entryRegions = Arrays.copyOf(this.entryRegions, 2 * this.numEntries);
+            this.entryNext = Arrays.copyOf(this.entryNext, 2 * this.numEntries);
+        }
+
+        int e = this.numEntries++;
+        this.entryRegions[e] = index;
+        this.entryNext[e] = -1;
+
+        if (this.cellTails[cell] < 0)
+            this.cellHeads[cell] = e;
+        else
+            this.entryNext[this.cellTails[cell]] = e;
+
+        this.cellTails[cell] = e;
+    }
+
+    protected int col(double x)
+    {
+        return clamp((x - this.originX) / this.cellWidth, this.numCols);
+    }
+
+    protected int row(double y)
+    {
+        return clamp((y - this.originY) / this.cellHeight, this.numRows);
+    }
+
+    protected static int clamp(double value, int count)
+    {
+        // NaN compares false in both tests and maps to the first cell.
+        if (value >= count)
+            return count - 1;
+        if (value > 0)
+            return (int) value;
+
+        return 0;
+    }
+}
@@ -0,0 +1,875 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+package gov.nasa.worldwind.util;
+
+import gov.nasa.worldwind.geom.*;
+
+import java.util.*;
+
+/**
+ * A quadtree of items located at points or spanning regions, which may be queried by any number of threads while
+ * another thread adds or removes items. Unlike {@link BasicQuadTree}, queries take no lock: each one reads the tree's
+ * current root once and traverses nodes that are never modified after they're published, so it sees every change
+ * made before it started and none made after. Use {@link #getSnapshot()} to run several queries against the same
+ * state of the tree.
+ * <p/>
+ * Changes copy the nodes on the path from the root to the changed node and publish a new root, so they're serialized
+ * with one another but never wait for queries. The nodes created within a single change are modified in place rather
+ * than copied again, so {@link #addAll(List, List)} loads many items for roughly the cost of building the tree once.
+ * <p/>
+ * Each item is held by the smallest node whose region contains it. A node holds up to a specified number of items
+ * before it's split into four children, down to a maximum depth. Items outside the tree's sector are held by the root,
+ * and are found by every query that matches them. Queries test each item's own location or region, so they return
+ * exactly the items that match rather than the items in matching cells. Like {@link Sector}, regions are assumed to
+ * be normalized to +/- 90 degrees latitude and +/- 180 degrees longitude and do not span the anti-meridian.
+ * <p/>
+ * Item locations and regions are specified as in {@link BasicQuadTree#add(Object, double[])}: a two element array
+ * holds a location's latitude and longitude, and a four element array holds a region's minimum and maximum latitude
+ * followed by its minimum and maximum longitude, all in degrees.
+ *
+ * @version $Id$
+ */
+public class ConcurrentQuadTree<T> implements Iterable<T>
+{
+    protected static final int DEFAULT_MAX_DEPTH = 16;
+    protected static final int DEFAULT_NODE_CAPACITY = 16;
+    protected static final double DEGREES_TO_RADIANS = Math.PI / 180d;
+
+    /** An item and the region it spans. A location is a region with equal minimum and maximum values. */
+    protected static class Entry<T>
+    {
+        protected final T item;
+        protected final double minLatitude;
+        protected final double maxLatitude;
+        protected final double minLongitude;
+        protected final double maxLongitude;
+
+        public Entry(T item, double minLatitude, double maxLatitude, double minLongitude, double maxLongitude)
+        {
+            this.item = item;
+            this.minLatitude = minLatitude;
+            this.maxLatitude = maxLatitude;
+            this.minLongitude = minLongitude;
+            this.maxLongitude = maxLongitude;
+        }
+
+        protected boolean intersects(double minLat, double maxLat, double minLon, double maxLon)
+        {
+            return this.maxLongitude >= minLon && this.minLongitude <= maxLon
+                && this.maxLatitude >= minLat && this.minLatitude <= maxLat;
+        }
+
+        protected boolean matches(Object item, Entry<?> that)
+        {
+            return this.item.equals(item)
+                && this.minLatitude == that.minLatitude && this.maxLatitude == that.maxLatitude
+                && this.minLongitude == that.minLongitude && this.maxLongitude == that.maxLongitude;
+        }
+    }
+
+    /**
+     * A tree node. A node may be modified only by the change that created it, identified by its edit token, and only
+     * until that change publishes the root it belongs to.
+     */
+    protected static class Node<T>
+    {
+        protected final Object edit;
+        protected Entry<T>[] entries;
+        protected int numEntries;
+        /** The children in the order southwest, southeast, northeast, northwest, or null if the node is a leaf. */
+        protected Node<T>[] children;
+        /** The number of items held by this node and its descendants. */
+        protected int count;
+
+        @SuppressWarnings("unchecked")
+        public Node(Object edit, int capacity)
+        {
+            this.edit = edit;
+            this.entries = (Entry<T>[]) new Entry<?>[capacity];
+        }
+
+        protected Node<T> editable(Object edit)
+        {
+            if (this.edit == edit)
+                return this;
+
+            Node<T> node = new Node<T>(edit, 0);
+            node.entries = Arrays.copyOf(this.entries, Math.max(this.numEntries + 1, this.entries.length));
+            node.numEntries = this.numEntries;
+            node.children = this.children != null ? this.children.clone() : null;
+            node.count = this.count;
+            return node;
+        }
+
+        protected void addEntry(Entry<T> entry)
+        {
+            if (this.numEntries == this.entries.length)
+                this.entries = Arrays.copyOf(this.entries, Math.max(4, 2 * this.entries.length));
+
+            this.entries[this.numEntries++] = entry;
+        }
+
+        protected void removeEntry(int index)
+        {
+            System.arraycopy(this.entries, index + 1, this.entries, index, this.numEntries - index - 1);
+            this.entries[--this.numEntries] = null;
+        }
+    }
+
+    /**
+     * An immutable view of the tree's items at the time it was created. Queries against a snapshot are unaffected by
+     * later changes to the tree.
+     */
+    public static class Snapshot<T> implements Iterable<T>
+    {
+        protected final Node<T> root;
+        protected final double minLatitude;
+        protected final double maxLatitude;
+        protected final double minLongitude;
+        protected final double maxLongitude;
+
+        protected Snapshot(Node<T> root, Sector sector)
+        {
+            this.root = root;
+            this.minLatitude = sector.getMinLatitude().degrees;
+            this.maxLatitude = sector.getMaxLatitude().degrees;
+            this.minLongitude = sector.getMinLongitude().degrees;
+            this.maxLongitude = sector.getMaxLongitude().degrees;
+        }
+
+        /**
+         * Indicates the number of items in the snapshot, counting an item once for each time it was added.
+         *
+         * @return the number of items.
+         */
+        public int size()
+        {
+            return this.root.count;
+        }
+
+        public boolean isEmpty()
+        {
+            return this.root.count == 0;
+        }
+
+        /**
+         * Finds the items whose location or region intersects a specified sector. Items on the sector's boundary are
+         * included, as they are by {@link Sector#intersects(Sector)}.
+         *
+         * @param testSector the sector of interest.
+         * @param outItems   a {@link Set} in which to place the items. If null, a new set is created.
+         *
+         * @return the set of intersecting items. The same set passed as the <code>outItems</code> argument is
+         *         returned, or a new set if that argument is null.
+         *
+         * @throws IllegalArgumentException if <code>testSector</code> is null.
+         */
+        public Set<T> getItemsInRegion(Sector testSector, Set<T> outItems)
+        {
+            if (testSector == null)
+            {
+                String message = Logging.getMessage("nullValue.SectorIsNull");
+                Logging.logger().severe(message);
+                throw new IllegalArgumentException(message);
+            }
+
+            if (outItems == null)
+                outItems = new HashSet<T>();
+
+            this.collect(this.root, this.minLatitude, this.maxLatitude, this.minLongitude, this.maxLongitude,
+                testSector.getMinLatitude().degrees, testSector.getMaxLatitude().degrees,
+                testSector.getMinLongitude().degrees, testSector.getMaxLongitude().degrees, outItems);
+
+            return outItems;
+        }
+
+        /**
+         * Finds the items located at a specified location, or whose region contains it.
+         *
+         * @param location the location of interest.
+         * @param outItems a {@link Set} in which to place the items. If null, a new set is created.
+         *
+         * @return the set of items. The same set passed as the <code>outItems</code> argument is returned, or a new
+         *         set if that argument is null.
+         *
+         * @throws IllegalArgumentException if <code>location</code> is null.
+         */
+        public Set<T> getItemsAtLocation(LatLon location, Set<T> outItems)
+        {
+            if (location == null)
+            {
+                String message = Logging.getMessage("nullValue.LatLonIsNull");
+                Logging.logger().severe(message);
+                throw new IllegalArgumentException(message);
+            }
+
+            if (outItems == null)
+                outItems = new HashSet<T>();
+
+            double lat = location.getLatitude().degrees;
+            double lon = location.getLongitude().degrees;
+            this.collect(this.root, this.minLatitude, this.maxLatitude, this.minLongitude, this.maxLongitude,
+                lat, lat, lon, lon, outItems);
+
+            return outItems;
+        }
+
+        /**
+         * Finds the items nearest a specified location, ordered by increasing great circle distance. The distance to an
+         * item spanning a region is the distance to the nearest location in the region, which is zero if the region
+         * contains the location. The tree is searched best first, visiting nodes in order of their distance from the
+         * location and ending once the nearest items are found.
+         *
+         * @param location the location of interest.
+         * @param count    the number of items to find.
+         *
+         * @return a new list of at most <code>count</code> items, nearest first. Items at equal distances are in no
+         *         particular order.
+         *
+         * @throws IllegalArgumentException if <code>location</code> is null or <code>count</code> is negative.
+         */
+        public List<T> getNearestItems(LatLon location, int count)
+        {
+            if (location == null)
+            {
+                String message = Logging.getMessage("nullValue.LatLonIsNull");
+                Logging.logger().severe(message);
+                throw new IllegalArgumentException(message);
+            }
+
+            if (count < 0)
+            {
+                String message = Logging.getMessage("generic.ArgumentOutOfRange", count);
+                Logging.logger().severe(message);
+                throw new IllegalArgumentException(message);
+            }
+
+            double lat = location.getLatitude().radians;
+            double lon = location.getLongitude().radians;
+            List<T> result = new ArrayList<T>(Math.min(count, this.root.count));
+
+            // Nodes and items share one queue. A node's distance is the distance to its region, which no item it holds
+            // is nearer than, so each item is removed from the queue only after every nearer item.
+            PriorityQueue<Candidate<T>> queue = new PriorityQueue<Candidate<T>>();
+            queue.add(new Candidate<T>(0, this.root, null, this.minLatitude, this.maxLatitude, this.minLongitude,
+                this.maxLongitude));
+
+            while (result.size() < count && !queue.isEmpty())
+            {
+                Candidate<T> candidate = queue.poll();
+                if (candidate.entry != null)
+                {
+                    result.add(candidate.entry.item);
+                    continue;
+                }
+
+                Node<T> node = candidate.node;
+                for (int i = 0; i < node.numEntries; i++)
+                {
+                    Entry<T> e = node.entries[i];
+                    queue.add(new Candidate<T>(distanceToRegion(lat, lon, e.minLatitude, e.maxLatitude,
+                        e.minLongitude, e.maxLongitude), null, e, 0, 0, 0, 0));
+                }
+
+                if (node.children == null)
+                    continue;
+
+                double midLat = 0.5 * (candidate.minLatitude + candidate.maxLatitude);
+                double midLon = 0.5 * (candidate.minLongitude + candidate.maxLongitude);
+                for (int i = 0; i < 4; i++)
+                {
+                    Node<T> child = node.children[i];
+                    if (child == null)
+                        continue;
+
+                    double minLat = i < 2 ? candidate.minLatitude : midLat;
+                    double maxLat = i < 2 ? midLat : candidate.maxLatitude;
+                    double minLon = i == 0 || i == 3 ? candidate.minLongitude : midLon;
+                    double maxLon = i == 0 || i == 3 ? midLon : candidate.maxLongitude;
+                    queue.add(new Candidate<T>(distanceToRegion(lat, lon, minLat, maxLat, minLon, maxLon), child,
+                        null, minLat, maxLat, minLon, maxLon));
+                }
+            }
+
+            return result;
+        }
+
+        /**
+         * Returns an iterator over the snapshot's items, in no particular order. An item added more than once is
+         * returned once for each time.
+         * <p/>
+         * <em>Note</em> The {@link java.util.Iterator#remove()} operation is not supported.
+         *
+         * @return an iterator over the snapshot's items.
+         */
+        public Iterator<T> iterator()
+        {
+            List<T> items = new ArrayList<T>(this.root.count);
+            this.collectAll(this.root, items);
+            return Collections.unmodifiableList(items).iterator();
+        }
+
+        protected void collect(Node<T> node, double minLat, double maxLat, double minLon, double maxLon,
+            double testMinLat, double testMaxLat, double testMinLon, double testMaxLon, Set<T> outItems)
+        {
+            for (int i = 0; i < node.numEntries; i++)
+            {
+                Entry<T> e = node.entries[i];
+                if (e.intersects(testMinLat, testMaxLat, testMinLon, testMaxLon))
+                    outItems.add(e.item);
+            }
+
+            if (node.children == null)
+                return;
+
+            double midLat = 0.5 * (minLat + maxLat);
+            double midLon = 0.5 * (minLon + maxLon);
+            boolean south = testMinLat <= midLat;
+            boolean north = testMaxLat >= midLat;
+            boolean west = testMinLon <= midLon;
+            boolean east = testMaxLon >= midLon;
+            Node<T>[] children = node.children;
+
+            if (south && west && children[0] != null)
+                this.collect(children[0], minLat, midLat, minLon, midLon, testMinLat, testMaxLat, testMinLon,
+                    testMaxLon, outItems);
+            if (south && east && children[1] != null)
+                this.collect(children[1], minLat, midLat, midLon, maxLon, testMinLat, testMaxLat, testMinLon,
+                    testMaxLon, outItems);
+            if (north && east && children[2] != null)
+                this.collect(children[2], midLat, maxLat, midLon, maxLon, testMinLat, testMaxLat, testMinLon,
+                    testMaxLon, outItems);
+            if (north && west && children[3] != null)
+                this.collect(children[3], midLat, maxLat, minLon, midLon, testMinLat, testMaxLat, testMinLon,
+                    testMaxLon, outItems);
+        }
+
+        protected void collectAll(Node<T> node, List<T> items)
+        {
+            for (int i = 0; i < node.numEntries; i++)
+            {
+                items.add(node.entries[i].item);
+            }
+
+            if (node.children == null)
+                return;
+
+            for (Node<T> child : node.children)
+            {
+                if (child != null)
+                    this.collectAll(child, items);
+            }
+        }
+    }
+
+    /** A node or an item waiting in the nearest neighbor search's queue, ordered by distance. */
+    protected static class Candidate<T> implements Comparable<Candidate<T>>
+    {
+        protected final double distance;
+        protected final Node<T> node;
+        protected final Entry<T> entry;
+        protected final double minLatitude;
+        protected final double maxLatitude;
+        protected final double minLongitude;
+        protected final double maxLongitude;
+
+        public Candidate(double distance, Node<T> node, Entry<T> entry, double minLatitude, double maxLatitude,
+            double minLongitude, double maxLongitude)
+        {
+            this.distance = distance;
+            this.node = node;
+            this.entry = entry;
+            this.minLatitude = minLatitude;
+            this.maxLatitude = maxLatitude;
+            this.minLongitude = minLongitude;
+            this.maxLongitude = maxLongitude;
+        }
+
+        public int compareTo(Candidate<T> that)
+        {
+            return Double.compare(this.distance, that.distance);
+        }
+    }
+
+    protected final Sector sector;
+    protected final int maxDepth;
+    protected final int nodeCapacity;
+    protected volatile Node<T> root;
+
+    /**
+     * Constructs an empty tree spanning a specified sector, with a maximum depth of 16 and nodes holding up to 16 items
+     * before they're split.
+     *
+     * @param sector the region the tree spans.
+     *
+     * @throws IllegalArgumentException if the sector is null.
+     */
+    public ConcurrentQuadTree(Sector sector)
+    {
+        this(sector, DEFAULT_MAX_DEPTH, DEFAULT_NODE_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty tree spanning a specified sector.
+     *
+     * @param sector       the region the tree spans.
+     * @param maxDepth     the maximum depth of the tree's nodes. The root is at depth 0.
+     * @param nodeCapacity the number of items a node holds before it's split.
+     *
+     * @throws IllegalArgumentException if the sector is null, the maximum depth is negative or the node capacity is
+     *                                  less than 1.
+     */
+    public ConcurrentQuadTree(Sector sector, int maxDepth, int nodeCapacity)
+    {
+        if (sector == null)
+        {
+            String message = Logging.getMessage("nullValue.SectorIsNull");
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        if (maxDepth < 0)
+        {
+            String message = Logging.getMessage("generic.ArgumentOutOfRange", maxDepth);
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        if (nodeCapacity < 1)
+        {
+            String message = Logging.getMessage("generic.ArgumentOutOfRange", nodeCapacity);
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        this.sector = sector;
+        this.maxDepth = maxDepth;
+        this.nodeCapacity = nodeCapacity;
+        this.root = new Node<T>(null, 0);
+    }
+
+    public Sector getSector()
+    {
+        return this.sector;
+    }
+
+    /**
+     * Returns a snapshot of the tree's current items. Creating a snapshot takes constant time and copies nothing.
+     *
+     * @return a snapshot of the tree.
+     */
+    public Snapshot<T> getSnapshot()
+    {
+        return new Snapshot<T>(this.root, this.sector);
+    }
+
+    public int size()
+    {
+        return this.root.count;
+    }
+
+    public boolean isEmpty()
+    {
+        return this.root.count == 0;
+    }
+
+    /**
+     * Adds an item to the tree. An item may be added more than once, at the same or different locations.
+     *
+     * @param item       the item to add.
+     * @param itemCoords an array specifying the location or region of the item. If the array's length is 2 it
+     *                   represents a location in [latitude, longitude]. If its length is 4 it represents a region in
+     *                   [minimum latitude, maximum latitude, minimum longitude, maximum longitude].
+     *
+     * @throws IllegalArgumentException if either argument is null or the array's length is neither 2 nor 4.
+     */
+    public synchronized void add(T item, double[] itemCoords)
+    {
+        Entry<T> entry = this.createEntry(item, itemCoords);
+
+        Object edit = new Object();
+        this.root = this.insert(this.root.editable(edit), edit, entry, 0, this.sector.getMinLatitude().degrees,
+            this.sector.getMaxLatitude().degrees, this.sector.getMinLongitude().degrees,
+            this.sector.getMaxLongitude().degrees);
+    }
+
+    /**
+     * Adds a list of items to the tree and publishes them at once, so a query sees either none of them or all of them.
+     *
+     * @param items      the items to add.
+     * @param itemCoords the location or region of each item, as specified to {@link #add(Object, double[])}.
+     *
+     * @throws IllegalArgumentException if either list is null, the lists differ in length, or any item or coordinate
+     *                                  array is invalid.
+     */
+    public synchronized void addAll(List<? extends T> items, List<double[]> itemCoords)
+    {
+        if (items == null || itemCoords == null)
+        {
+            String message = Logging.getMessage("nullValue.ListIsNull");
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        if (items.size() != itemCoords.size())
+        {
+            String message = Logging.getMessage("generic.ListLengthInsufficient",
+                Math.min(items.size(), itemCoords.size()));
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        // Validate every item before changing the tree, so an invalid item leaves the tree unchanged.
+        List<Entry<T>> entries = new ArrayList<Entry<T>>(items.size());
+        Iterator<double[]> coords = itemCoords.iterator();
+        for (T item : items)
+        {
+            entries.add(this.createEntry(item, coords.next()));
+        }
+
+        Object edit = new Object();
+        Node<T> node = this.root.editable(edit);
+        for (Entry<T> entry : entries)
+        {
+            node = this.insert(node, edit, entry, 0, this.sector.getMinLatitude().degrees,
+                this.sector.getMaxLatitude().degrees, this.sector.getMinLongitude().degrees,
+                this.sector.getMaxLongitude().degrees);
+        }
+
+        this.root = node;
+    }
+
+    /**
+     * Removes one occurrence of an item added at a specified location or region.
+     *
+     * @param item       the item to remove.
+     * @param itemCoords the location or region the item was added with.
+     *
+     * @return true if the item was found and removed, otherwise false.
+     *
+     * @throws IllegalArgumentException if either argument is null or the array's length is neither 2 nor 4.
+     */
+    public synchronized boolean remove(T item, double[] itemCoords)
+    {
+        Entry<T> entry = this.createEntry(item, itemCoords);
+
+        Node<T> node = this.root;
+        double minLat = this.sector.getMinLatitude().degrees;
+        double maxLat = this.sector.getMaxLatitude().degrees;
+        double minLon = this.sector.getMinLongitude().degrees;
+        double maxLon = this.sector.getMaxLongitude().degrees;
+
+        // Items are placed by their coordinates alone, so the only node that can hold the item is found by following
+        // the same path as when it was added. Check that it's there before copying any nodes.
+        while (node != null && indexOf(node, entry) < 0)
+        {
+            int child = node.children != null ? childIndex(entry, minLat, maxLat, minLon, maxLon) : -1;
+            if (child < 0)
+                return false;
+
+            double midLat = 0.5 * (minLat + maxLat);
+            double midLon = 0.5 * (minLon + maxLon);
+            minLat = child < 2 ? minLat : midLat;
+            maxLat = child < 2 ? midLat : maxLat;
+            minLon = child == 0 || child == 3 ? minLon : midLon;
+            maxLon = child == 0 || child == 3 ? midLon : maxLon;
+            node = node.children[child];
+        }
+
+        if (node == null)
+            return false;
+
+        Object edit = new Object();
+        this.root = this.delete(this.root, edit, entry, this.sector.getMinLatitude().degrees,
+            this.sector.getMaxLatitude().degrees, this.sector.getMinLongitude().degrees,
+            this.sector.getMaxLongitude().degrees);
+
+        return true;
+    }
+
+    /** Removes all items from the tree. */
+    public synchronized void clear()
+    {
+        this.root = new Node<T>(null, 0);
+    }
+
+    /**
+     * Finds the items whose location or region intersects a specified sector. See {@link
+     * Snapshot#getItemsInRegion(Sector, Set)}.
+     *
+     * @param testSector the sector of interest.
+     * @param outItems   a {@link Set} in which to place the items. If null, a new set is created.
+     *
+     * @return the set of intersecting items.
+     *
+     * @throws IllegalArgumentException if <code>testSector</code> is null.
+     */
+    public Set<T> getItemsInRegion(Sector testSector, Set<T> outItems)
+    {
+        return this.getSnapshot().getItemsInRegion(testSector, outItems);
+    }
+
+    /**
+     * Finds the items located at a specified location, or whose region contains it. See {@link
+     * Snapshot#getItemsAtLocation(LatLon, Set)}.
+     *
+     * @param location the location of interest.
+     * @param outItems a {@link Set} in which to place the items. If null, a new set is created.
+     *
+     * @return the set of items.
+     *
+     * @throws IllegalArgumentException if <code>location</code> is null.
+     */
+    public Set<T> getItemsAtLocation(LatLon location, Set<T> outItems)
+    {
+        return this.getSnapshot().getItemsAtLocation(location, outItems);
+    }
+
+    /**
+     * Finds the items nearest a specified location. See {@link Snapshot#getNearestItems(LatLon, int)}.
+     *
+     * @param location the location of interest.
+     * @param count    the number of items to find.
+     *
+     * @return a new list of at most <code>count</code> items, nearest first.
+     *
+     * @throws IllegalArgumentException if <code>location</code> is null or <code>count</code> is negative.
+     */
+    public List<T> getNearestItems(LatLon location, int count)
+    {
+        return this.getSnapshot().getNearestItems(location, count);
+    }
+
+    /**
+     * Returns an iterator over the tree's current items. See {@link Snapshot#iterator()}.
+     *
+     * @return an iterator over the tree's items.
+     */
+    public Iterator<T> iterator()
+    {
+        return this.getSnapshot().iterator();
+    }
+
+    protected Entry<T> createEntry(T item, double[] itemCoords)
+    {
+        if (item == null)
+        {
+            String message = Logging.getMessage("nullValue.ObjectIsNull");
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        if (itemCoords == null)
+        {
+            String message = Logging.getMessage("nullValue.CoordinatesAreNull");
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        if (itemCoords.length == 2)
+            return new Entry<T>(item, itemCoords[0], itemCoords[0], itemCoords[1], itemCoords[1]);
+        else if (itemCoords.length == 4)
+            return new Entry<T>(item, itemCoords[0], itemCoords[1], itemCoords[2], itemCoords[3]);
+
+        String message = Logging.getMessage("generic.ArrayInvalidLength", itemCoords.length);
+        Logging.logger().severe(message);
+        throw new IllegalArgumentException(message);
+    }
+
+    /**
+     * Adds an entry to an editable node or the appropriate descendant, splitting the node if it's a leaf holding more
+     * than the node capacity.
+     *
+     * @param node   the node, which must belong to the current change.
+     * @param edit   the current change's edit token.
+     * @param entry  the entry to add.
+     * @param depth  the node's depth.
+     * @param minLat the node's minimum latitude.
+     * @param maxLat the node's maximum latitude.
+     * @param minLon the node's minimum longitude.
+     * @param maxLon the node's maximum longitude.
+     *
+     * @return the node.
+     */
+    protected Node<T> insert(Node<T> node, Object edit, Entry<T> entry, int depth, double minLat, double maxLat,
+        double minLon, double maxLon)
+    {
+        node.count++;
+
+        int child = node.children != null ? childIndex(entry, minLat, maxLat, minLon, maxLon) : -1;
+        if (child >= 0)
+        {
+            node.children[child] = this.insertInChild(node.children[child], edit, entry, child, depth, minLat, maxLat,
+                minLon, maxLon);
+            return node;
+        }
+
+        node.addEntry(entry);
+
+        if (node.children == null && node.numEntries > this.nodeCapacity && depth < this.maxDepth)
+        {
+            // Split the leaf, moving each entry that fits within a child into that child.
+            @SuppressWarnings("unchecked")
+            Node<T>[] children = (Node<T>[]) new Node<?>[4];
+            node.children = children;
+
+            int n = 0;
+            for (int i = 0; i < node.numEntries; i++)
+            {
+                Entry<T> e = node.entries[i];
+                child = childIndex(e, minLat, maxLat, minLon, maxLon);
+                if (child >= 0)
+                    children[child] = this.insertInChild(children[child], edit, e, child, depth, minLat, maxLat,
+                        minLon, maxLon);
+                else
+                    node.entries[n++] = e;
+            }
+
+            Arrays.fill(node.entries, n, node.numEntries, null);
+            node.numEntries = n;
+        }
+
+        return node;
+    }
+
+    protected Node<T> insertInChild(Node<T> child, Object edit, Entry<T> entry, int index, int depth, double minLat,
+        double maxLat, double minLon, double maxLon)
+    {
+        double midLat = 0.5 * (minLat + maxLat);
+        double midLon = 0.5 * (minLon + maxLon);
+        child = child != null ? child.editable(edit) : new Node<T>(edit, this.nodeCapacity + 1);
+
+        return this.insert(child, edit, entry, depth + 1,
+            index < 2 ? minLat : midLat, index < 2 ? midLat : maxLat,
+            index == 0 || index == 3 ? minLon : midLon, index == 0 || index == 3 ? midLon : maxLon);
+    }
+
+    /**
+     * Removes an entry known to be held by a node or one of its descendants, copying the nodes on the path to it.
+     * Children left empty are discarded, and a node whose descendants hold no more than the node capacity becomes a
+     * leaf holding all of them.
+     *
+     * @param node   the node.
+     * @param edit   the current change's edit token.
+     * @param entry  the entry to remove.
+     * @param minLat the node's minimum latitude.
+     * @param maxLat the node's maximum latitude.
+     * @param minLon the node's minimum longitude.
+     * @param maxLon the node's maximum longitude.
+     *
+     * @return the node's replacement.
+     */
+    protected Node<T> delete(Node<T> node, Object edit, Entry<T> entry, double minLat, double maxLat,
+        double minLon, double maxLon)
+    {
+        node = node.editable(edit);
+        node.count--;
+
+        int index = indexOf(node, entry);
+        if (index >= 0)
+        {
+            node.removeEntry(index);
+        }
+        else
+        {
+            int child = childIndex(entry, minLat, maxLat, minLon, maxLon);
+            double midLat = 0.5 * (minLat + maxLat);
+            double midLon = 0.5 * (minLon + maxLon);
+            Node<T> newChild = this.delete(node.children[child], edit, entry,
+                child < 2 ? minLat : midLat, child < 2 ? midLat : maxLat,
+                child == 0 || child == 3 ? minLon : midLon, child == 0 || child == 3 ? midLon : maxLon);
+            node.children[child] = newChild.count > 0 ? newChild : null;
+        }
+
+        if (node.children != null && node.count <= this.nodeCapacity)
+        {
+            for (Node<T> child : node.children)
+            {
+                if (child != null)
+                    collectEntries(child, node);
+            }
+            node.children = null;
+        }
+
+        return node;
+    }
+
+    protected static <T> void collectEntries(Node<T> node, Node<T> target)
+    {
+        for (int i = 0; i < node.numEntries; i++)
+        {
+            target.addEntry(node.entries[i]);
+        }
+
+        if (node.children == null)
+            return;
+
+        for (Node<T> child : node.children)
+        {
+            if (child != null)
+                collectEntries(child, target);
+        }
+    }
+
+    protected static <T> int indexOf(Node<T> node, Entry<T> entry)
+    {
+        for (int i = 0; i < node.numEntries; i++)
+        {
+            if (node.entries[i].matches(entry.item, entry))
+                return i;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Determines which of a node's children contains an entry. An entry on the boundary between children is placed in
+     * the northern or eastern child.
+     *
+     * @param entry  the entry.
+     * @param minLat the node's minimum latitude.
+     * @param maxLat the node's maximum latitude.
+     * @param minLon the node's minimum longitude.
+     * @param maxLon the node's maximum longitude.
+     *
+     * @return the index of the child containing the entry, or -1 if the entry does not fit within one child.
+     */
+    protected static int childIndex(Entry<?> entry, double minLat, double maxLat, double minLon, double maxLon)
+    {
+        if (entry.minLatitude < minLat || entry.maxLatitude > maxLat
+            || entry.minLongitude < minLon || entry.maxLongitude > maxLon)
+            return -1;
+
+        double midLat = 0.5 * (minLat + maxLat);
+        double midLon = 0.5 * (minLon + maxLon);
+        boolean north = entry.minLatitude >= midLat;
+        boolean east = entry.minLongitude >= midLon;
+        if ((!north && entry.maxLatitude > midLat) || (!east && entry.maxLongitude > midLon))
+            return -1;
+
+        return north ? (east ? 2 : 3) : (east ? 1 : 0);
+    }
+
+    /**
+     * Computes the great circle distance from a location to the nearest location in a region whose bounds are in
+     * degrees. See {@link Geodesy#greatCircleDistanceToRegion(double, double, double, double, double, double)}.
+     *
+     * @param lat    the location's latitude in radians.
+     * @param lon    the location's longitude in radians.
+     * @param minLat the region's minimum latitude in degrees.
+     * @param maxLat the region's maximum latitude in degrees.
+     * @param minLon the region's minimum longitude in degrees.
+     * @param maxLon the region's maximum longitude in degrees.
+     *
+     * @return the distance in radians.
+     */
+    protected static double distanceToRegion(double lat, double lon, double minLat, double maxLat, double minLon,
+        double maxLon)
+    {
+        return Geodesy.greatCircleDistanceToRegion(lat, lon, minLat * DEGREES_TO_RADIANS, maxLat * DEGREES_TO_RADIANS,
+            minLon * DEGREES_TO_RADIANS, maxLon * DEGREES_TO_RADIANS);
+    }
+}
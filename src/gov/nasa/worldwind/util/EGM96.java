@@ -21,6 +21,10 @@ import java.io.*;
  * <p/>
  * Once constructed, the instance can be passed to {@link gov.nasa.worldwind.globes.EllipsoidalGlobe#applyEGMA96Offsets(String)}
  * to apply the offets to elevations produced by the globe.
+ * <p/>
+ * The offsets are held in an interpolation grid that repeats the column at 0 longitude after the last column, so that
+ * every interpolation reads its four posts directly. Lists of offsets can be computed with {@link #getOffsets(double[],
+ * double[], int, double[])}, which may be called concurrently from any number of threads.
  *
  * @author tag
  * @version $Id: EGM96.java 770 2012-09-13 02:48:23Z tgaskins $
@@ -29,6 +33,8 @@ public class EGM96
 {
     protected String offsetsFilePath;
     protected BufferWrapper deltas;
+    /** The offset grid in centimeters, with {@link #NUM_COLS} + 1 columns. Null if the offsets file failed to load. */
+    protected short[] posts;
 
     /**
      * Construct an instance.
@@ -66,6 +72,7 @@ public class EGM96
             bufferParams.setValue(AVKey.DATA_TYPE, AVKey.INT16);
             bufferParams.setValue(AVKey.BYTE_ORDER, AVKey.BIG_ENDIAN);
             this.deltas = BufferWrapper.wrap(WWIO.readStreamToBuffer(is, true), bufferParams);
+            this.posts = this.makePosts(this.deltas);
         }
         catch (IOException e)
         {
@@ -105,37 +112,89 @@ public class EGM96
             throw new IllegalArgumentException(msg);
         }
 
+        return this.getOffset(latitude.degrees, longitude.degrees);
+    }
+
+    /**
+     * Computes the offsets of a list of locations.
+     *
+     * @param latitudes  the latitudes in degrees.
+     * @param longitudes the longitudes in degrees.
+     * @param count      the number of locations.
+     * @param offsets    receives the offsets in meters, the same as those of {@link #getOffset(Angle, Angle)}.
+     *
+     * @throws IllegalArgumentException if any array is null or shorter than <code>count</code>, or if
+     *                                  <code>count</code> is negative.
+     */
+    public void getOffsets(double[] latitudes, double[] longitudes, int count, double[] offsets)
+    {
+        if (count < 0)
+        {
+            String msg = Logging.getMessage("generic.ArgumentOutOfRange", count);
+            Logging.logger().severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        if (latitudes == null || longitudes == null || offsets == null)
+        {
+            String msg = Logging.getMessage("nullValue.ArrayIsNull");
+            Logging.logger().severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        int length = Math.min(latitudes.length, Math.min(longitudes.length, offsets.length));
+        if (length < count)
+        {
+            String msg = Logging.getMessage("generic.ArrayInvalidLength", length);
+            Logging.logger().severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        for (int i = 0; i < count; i++)
+        {
+            offsets[i] = this.getOffset(latitudes[i], longitudes[i]);
+        }
+    }
+
+    /**
+     * Computes the offset of a location.
+     *
+     * @param lat the latitude in degrees.
+     * @param lon the longitude in degrees.
+     *
+     * @return the offset in meters.
+     */
+    public double getOffset(double lat, double lon)
+    {
         // Return 0 for all offsets if the file failed to load. A log message of the failure will have been generated
         // by the load method.
-        if (this.deltas == null)
+        if (this.posts == null)
             return 0;
 
-        double lat = latitude.degrees;
-        double lon = longitude.degrees >= 0 ? longitude.degrees : longitude.degrees + 360;
+        if (lon < 0)
+            lon += 360;
 
         int topRow = (int) ((90 - lat) / INTERVAL.degrees);
         if (lat <= -90)
             topRow = NUM_ROWS - 2;
         int bottomRow = topRow + 1;
 
-        // Note that the number of columns does not repeat the column at 0 longitude, so we must force the right
-        // column to 0 for any longitude that's less than one interval from 360, and force the left column to the
-        // last column of the grid.
+        // The grid repeats the column at 0 longitude after the last column, so the right column is always the one
+        // after the left column. Force the left column to the last column of the file for any longitude that's less
+        // than one interval from 360.
         int leftCol = (int) (lon / INTERVAL.degrees);
-        int rightCol = leftCol + 1;
         if (lon >= 360 - INTERVAL.degrees)
-        {
             leftCol = NUM_COLS - 1;
-            rightCol = 0;
-        }
 
         double latBottom = 90 - bottomRow * INTERVAL.degrees;
         double lonLeft = leftCol * INTERVAL.degrees;
 
-        double ul = this.gePostOffset(topRow, leftCol);
-        double ll = this.gePostOffset(bottomRow, leftCol);
-        double lr = this.gePostOffset(bottomRow, rightCol);
-        double ur = this.gePostOffset(topRow, rightCol);
+        int top = topRow * (NUM_COLS + 1) + leftCol;
+        int bottom = bottomRow * (NUM_COLS + 1) + leftCol;
+        double ul = this.posts[top];
+        double ll = this.posts[bottom];
+        double lr = this.posts[bottom + 1];
+        double ur = this.posts[top + 1];
 
         double u = (lon - lonLeft) / INTERVAL.degrees;
         double v = (lat - latBottom) / INTERVAL.degrees;
@@ -152,12 +211,19 @@ public class EGM96
 
     protected double gePostOffset(int row, int col)
     {
-        int k = row * NUM_COLS + col;
+        return this.posts[row * (NUM_COLS + 1) + col];
+    }
 
-        if (k >= this.deltas.length())
-            System.out.println(k);
+    protected short[] makePosts(BufferWrapper deltas)
+    {
+        short[] posts = new short[NUM_ROWS * (NUM_COLS + 1)];
+        for (int row = 0; row < NUM_ROWS; row++)
+        {
+            deltas.getShort(row * NUM_COLS, posts, row * (NUM_COLS + 1), NUM_COLS);
+            posts[row * (NUM_COLS + 1) + NUM_COLS] = posts[row * (NUM_COLS + 1)];
+        }
 
-        return this.deltas.getInt(k);
+        return posts;
     }
 //
 //    public static void main(String[] args)
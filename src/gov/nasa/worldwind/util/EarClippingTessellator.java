@@ -0,0 +1,1226 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ *
+ * This file is a port of earcut (https://github.com/mapbox/earcut), which is distributed under the following license:
+ *
+ * ISC License
+ *
+ * Copyright (c) 2016, Mapbox
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any purpose
+ * with or without fee is hereby granted, provided that the above copyright notice
+ * and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD TO
+ * THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR
+ * CONSEQUENTIAL DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA
+ * OR PROFITS, WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION,
+ * ARISING OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package gov.nasa.worldwind.util;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * Tessellates polygons into triangles by ear clipping, in pure Java and without the per-vertex allocation of the GLU
+ * tessellator. Polygon vertices are specified as a packed array of coordinates and the boundaries as the indices of
+ * their first vertices; the result is an array of triangle vertex indices.
+ * <p/>
+ * Boundaries are interpreted by the odd winding rule for boundaries that do not cross: a boundary nested inside an odd
+ * number of other boundaries is a hole, any other boundary is an outer boundary. Holes are joined to their enclosing
+ * outer boundary by bridge edges before clipping. Boundaries that touch themselves or each other at a vertex,
+ * duplicate vertices and collinear vertices are handled. Self-intersecting boundaries produce a tessellation
+ * covering approximately the polygon's interior. No vertices are added, so the triangle indices always refer to the
+ * specified vertices.
+ * <p/>
+ * Three dimensional polygons are tessellated in the coordinate plane most nearly perpendicular to a specified polygon
+ * normal, and the triangles are wound counter-clockwise when viewed against the normal. Boundaries with more than 80
+ * vertices are indexed along a z-order curve so that ear tests examine only nearby vertices.
+ * <p/>
+ * Instances retain their working arrays between calls to minimize allocation, and are not thread safe.
+ * <p/>
+ * The algorithm and its structure are ported from Mapbox's <a href="https://github.com/mapbox/earcut"
+ * target="_blank">earcut</a>, used under the ISC license reproduced in this file's header and in earcut.LICENSE.txt.
+ *
+ * @version $Id$
+ */
+public class EarClippingTessellator
+{
+    /** The vertex count above which ear tests use the z-order index. */
+    protected static final int HASH_THRESHOLD = 80;
+    protected static final int NONE = -1;
+
+    // The projected polygon coordinates, two per vertex.
+    protected double[] xy = new double[0];
+    // The linked list nodes, stored as parallel arrays indexed by node.
+    protected int[] nodeVertex = new int[0];
+    protected double[] nodeX = new double[0];
+    protected double[] nodeY = new double[0];
+    protected int[] prev = new int[0];
+    protected int[] next = new int[0];
+    protected int[] prevZ = new int[0];
+    protected int[] nextZ = new int[0];
+    protected int[] z = new int[0];
+    protected boolean[] steiner = new boolean[0];
+    protected int nodeCount;
+    // Per-boundary metadata used to group holes with their outer boundaries.
+    protected double[] ringArea = new double[0];
+    protected double[] ringBounds = new double[0];
+    protected int[] ringParent = new int[0];
+    protected int[] ringDepth = new int[0];
+    protected int[] holes = new int[0];
+    protected int[] holeNodes = new int[0];
+    // The triangle vertex indices.
+    protected int[] indices = new int[16];
+    protected int indexCount;
+    // The hashing parameters of the polygon being clipped.
+    protected double minX;
+    protected double minY;
+    protected double invSize;
+
+    public EarClippingTessellator()
+    {
+    }
+
+    /**
+     * Indicates the number of triangle vertex indices computed by the most recent tessellation.
+     *
+     * @return the number of indices, three per triangle.
+     */
+    public int getIndexCount()
+    {
+        return this.indexCount;
+    }
+
+    /**
+     * Returns the triangle vertex indices computed by the most recent tessellation. The returned array is owned by this
+     * tessellator and is overwritten by the next tessellation. Only the first {@link #getIndexCount()} elements are
+     * valid.
+     *
+     * @return this tessellator's index array.
+     */
+    public int[] getIndices()
+    {
+        return this.indices;
+    }
+
+    /**
+     * Copies the triangle vertex indices computed by the most recent tessellation into a buffer, offsetting each index
+     * by a specified amount.
+     *
+     * @param buffer the buffer to receive the indices, at its current position.
+     * @param offset the amount to add to each index.
+     *
+     * @return the specified buffer.
+     *
+     * @throws IllegalArgumentException if the buffer is null.
+     */
+    public IntBuffer getIndices(IntBuffer buffer, int offset)
+    {
+        if (buffer == null)
+        {
+            String msg = Logging.getMessage("nullValue.BufferIsNull");
+            Logging.logger().severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        for (int i = 0; i < this.indexCount; i++)
+        {
+            buffer.put(this.indices[i] + offset);
+        }
+
+        return buffer;
+    }
+
+    /**
+     * Tessellates a two dimensional polygon. Triangles are wound counter-clockwise.
+     *
+     * @param coords      the vertex coordinates, x and y for each vertex.
+     * @param ringStarts  the index of each boundary's first vertex, in increasing order. Each boundary continues to the
+     *                    next boundary's first vertex, and the last to the final vertex.
+     * @param ringCount   the number of boundaries.
+     * @param vertexCount the number of vertices.
+     *
+     * @return the number of triangle vertex indices computed.
+     *
+     * @throws IllegalArgumentException if the coordinate or boundary array is null or too small.
+     */
+    public int tessellate(double[] coords, int[] ringStarts, int ringCount, int vertexCount)
+    {
+        return this.tessellate(coords, 2, ringStarts, ringCount, vertexCount, 0, 0, 1);
+    }
+
+    /**
+     * Tessellates a polygon. Each vertex occupies <code>stride</code> consecutive coordinates, the first two or three
+     * of which are its x, y and z coordinates. A stride of 2 specifies a two dimensional polygon, for which the normal
+     * must be (0, 0, 1) or (0, 0, -1).
+     *
+     * @param coords      the vertex coordinates.
+     * @param stride      the number of coordinates per vertex, at least 2.
+     * @param ringStarts  the index of each boundary's first vertex, in increasing order. Each boundary continues to the
+     *                    next boundary's first vertex, and the last to the final vertex.
+     * @param ringCount   the number of boundaries.
+     * @param vertexCount the number of vertices.
+     * @param nx          the x component of the polygon's normal.
+     * @param ny          the y component of the polygon's normal.
+     * @param nz          the z component of the polygon's normal.
+     *
+     * @return the number of triangle vertex indices computed.
+     *
+     * @throws IllegalArgumentException if the coordinate or boundary array is null or too small, or the stride is less
+     *                                  than 2.
+     */
+    public int tessellate(double[] coords, int stride, int[] ringStarts, int ringCount, int vertexCount, double nx,
+        double ny, double nz)
+    {
+        if (coords == null)
+        {
+            String msg = Logging.getMessage("nullValue.CoordinatesAreNull");
+            Logging.logger().severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        if (ringStarts == null || ringStarts.length < ringCount)
+        {
+            String msg = Logging.getMessage("generic.ArrayInvalidLength", ringStarts != null ? ringStarts.length : 0);
+            Logging.logger().severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        if (stride < 2 || coords.length < stride * vertexCount)
+        {
+            String msg = Logging.getMessage("generic.ArrayInvalidLength", coords.length);
+            Logging.logger().severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        this.indexCount = 0;
+        this.nodeCount = 0;
+
+        if (vertexCount < 3 || ringCount < 1)
+            return 0;
+
+        // Project the vertices onto the coordinate plane most nearly perpendicular to the normal, choosing the axes so
+        // that the projection preserves the orientation seen looking against the normal.
+        int u = 0, v = 1;
+        boolean flip = nz < 0;
+        if (stride > 2)
+        {
+            double ax = Math.abs(nx), ay = Math.abs(ny), az = Math.abs(nz);
+            if (ax > ay && ax > az)
+            {
+                u = 1;
+                v = 2;
+                flip = nx < 0;
+            }
+            else if (ay > az)
+            {
+                u = 2;
+                v = 0;
+                flip = ny < 0;
+            }
+        }
+
+        if (this.xy.length < 2 * vertexCount)
+            this.xy = new double[2 * vertexCount];
+        for (int i = 0, k = 0; i < vertexCount; i++, k += stride)
+        {
+            this.xy[2 * i] = coords[k + u];
+            this.xy[2 * i + 1] = coords[k + v];
+        }
+
+        this.ensureNodeCapacity(vertexCount + 2 * ringCount + 2);
+
+        if (ringCount == 1)
+        {
+            this.tessellateRings(ringStarts, ringCount, vertexCount, 0, null, 0);
+        }
+        else
+        {
+            this.groupRings(ringStarts, ringCount, vertexCount);
+
+            for (int r = 0; r < ringCount; r++)
+            {
+                if (this.ringDepth[r] % 2 != 0 || this.ringArea[r] == 0)
+                    continue;
+
+                int holeCount = 0;
+                for (int h = 0; h < ringCount; h++)
+                {
+                    if (this.ringParent[h] == r && this.ringArea[h] != 0)
+                        this.holes[holeCount++] = h;
+                }
+
+                this.tessellateRings(ringStarts, ringCount, vertexCount, r, this.holes, holeCount);
+            }
+        }
+
+        if (flip)
+        {
+            for (int i = 0; i < this.indexCount; i += 3)
+            {
+                int t = this.indices[i + 1];
+                this.indices[i + 1] = this.indices[i + 2];
+                this.indices[i + 2] = t;
+            }
+        }
+
+        return this.indexCount;
+    }
+
+    protected static int ringEnd(int[] ringStarts, int ringCount, int vertexCount, int ring)
+    {
+        return ring + 1 < ringCount ? ringStarts[ring + 1] : vertexCount;
+    }
+
+    /**
+     * Determines each boundary's nesting depth and, for holes, the outer boundary immediately enclosing them.
+     *
+     * @param ringStarts  the index of each boundary's first vertex.
+     * @param ringCount   the number of boundaries.
+     * @param vertexCount the number of vertices.
+     */
+    protected void groupRings(int[] ringStarts, int ringCount, int vertexCount)
+    {
+        if (this.ringArea.length < ringCount)
+        {
+            this.ringArea = new double[ringCount];
+            this.ringBounds = new double[4 * ringCount];
+            this.ringParent = new int[ringCount];
+            this.ringDepth = new int[ringCount];
+            this.holes = new int[ringCount];
+        }
+
+        double[] xy = this.xy;
+        for (int r = 0; r < ringCount; r++)
+        {
+            int start = ringStarts[r];
+            int end = ringEnd(ringStarts, ringCount, vertexCount, r);
+            this.ringArea[r] = end - start < 3 ? 0 : Math.abs(this.signedArea(start, end));
+
+            double x0 = Double.MAX_VALUE, y0 = Double.MAX_VALUE, x1 = -Double.MAX_VALUE, y1 = -Double.MAX_VALUE;
+            for (int i = start; i < end; i++)
+            {
+                x0 = Math.min(x0, xy[2 * i]);
+                y0 = Math.min(y0, xy[2 * i + 1]);
+                x1 = Math.max(x1, xy[2 * i]);
+                y1 = Math.max(y1, xy[2 * i + 1]);
+            }
+            this.ringBounds[4 * r] = x0;
+            this.ringBounds[4 * r + 1] = y0;
+            this.ringBounds[4 * r + 2] = x1;
+            this.ringBounds[4 * r + 3] = y1;
+        }
+
+        for (int r = 0; r < ringCount; r++)
+        {
+            this.ringDepth[r] = 0;
+            this.ringParent[r] = NONE;
+            if (this.ringArea[r] == 0)
+                continue;
+
+            // Test a vertex of this ring against every larger ring whose bounds contain it. Rings are assumed not to
+            // cross, so the first vertex not lying on the other ring determines containment.
+            double parentArea = Double.MAX_VALUE;
+            for (int o = 0; o < ringCount; o++)
+            {
+                if (o == r || this.ringArea[o] < this.ringArea[r] || this.ringArea[o] == 0
+                    || (this.ringArea[o] == this.ringArea[r] && o > r))
+                    continue;
+
+                if (this.ringBounds[4 * r] < this.ringBounds[4 * o]
+                    || this.ringBounds[4 * r + 1] < this.ringBounds[4 * o + 1]
+                    || this.ringBounds[4 * r + 2] > this.ringBounds[4 * o + 2]
+                    || this.ringBounds[4 * r + 3] > this.ringBounds[4 * o + 3])
+                    continue;
+
+                if (this.ringContains(ringStarts, ringCount, vertexCount, o, r))
+                {
+                    this.ringDepth[r]++;
+                    if (this.ringArea[o] < parentArea)
+                    {
+                        parentArea = this.ringArea[o];
+                        this.ringParent[r] = o;
+                    }
+                }
+            }
+        }
+
+        // Only holes belong to a parent; an outer boundary nested in a hole is tessellated on its own.
+        for (int r = 0; r < ringCount; r++)
+        {
+            if (this.ringDepth[r] % 2 == 0)
+                this.ringParent[r] = NONE;
+        }
+    }
+
+    protected boolean ringContains(int[] ringStarts, int ringCount, int vertexCount, int outer, int inner)
+    {
+        int innerStart = ringStarts[inner];
+        int innerEnd = ringEnd(ringStarts, ringCount, vertexCount, inner);
+        int start = ringStarts[outer];
+        int end = ringEnd(ringStarts, ringCount, vertexCount, outer);
+        double[] xy = this.xy;
+
+        for (int k = innerStart; k < innerEnd; k++)
+        {
+            double px = xy[2 * k];
+            double py = xy[2 * k + 1];
+            boolean inside = false;
+            boolean onBoundary = false;
+
+            for (int i = start, j = end - 1; i < end; j = i++)
+            {
+                double xi = xy[2 * i], yi = xy[2 * i + 1];
+                double xj = xy[2 * j], yj = xy[2 * j + 1];
+
+                // A vertex on the other boundary does not determine containment; try the next.
+                if ((xj - xi) * (py - yi) == (px - xi) * (yj - yi) && px >= Math.min(xi, xj)
+                    && px <= Math.max(xi, xj) && py >= Math.min(yi, yj) && py <= Math.max(yi, yj))
+                {
+                    onBoundary = true;
+                    break;
+                }
+
+                if ((yi > py) != (yj > py) && px < (xj - xi) * (py - yi) / (yj - yi) + xi)
+                    inside = !inside;
+            }
+
+            if (!onBoundary)
+                return inside;
+        }
+
+        return false;
+    }
+
+    /**
+     * Clips an outer boundary and its holes into triangles.
+     *
+     * @param ringStarts  the index of each boundary's first vertex.
+     * @param ringCount   the number of boundaries.
+     * @param vertexCount the number of vertices.
+     * @param outer       the outer boundary.
+     * @param holeRings   the outer boundary's holes. May be null if there are none.
+     * @param holeCount   the number of holes.
+     */
+    protected void tessellateRings(int[] ringStarts, int ringCount, int vertexCount, int outer, int[] holeRings,
+        int holeCount)
+    {
+        int start = ringStarts[outer];
+        int end = ringEnd(ringStarts, ringCount, vertexCount, outer);
+
+        int outerNode = this.linkedList(start, end, true);
+        if (outerNode == NONE || this.next[outerNode] == this.prev[outerNode])
+            return;
+
+        int clipCount = end - start;
+        if (holeCount > 0)
+        {
+            if (this.holeNodes.length < holeCount)
+                this.holeNodes = new int[holeCount];
+
+            for (int h = 0; h < holeCount; h++)
+            {
+                int hole = holeRings[h];
+                int hs = ringStarts[hole];
+                int he = ringEnd(ringStarts, ringCount, vertexCount, hole);
+                clipCount += he - hs;
+            }
+
+            outerNode = this.eliminateHoles(ringStarts, ringCount, vertexCount, holeRings, holeCount, outerNode);
+        }
+
+        this.invSize = 0;
+        if (clipCount > HASH_THRESHOLD)
+        {
+            double x0 = Double.MAX_VALUE, y0 = Double.MAX_VALUE, x1 = -Double.MAX_VALUE, y1 = -Double.MAX_VALUE;
+            int p = outerNode;
+            do
+            {
+                x0 = Math.min(x0, this.nodeX[p]);
+                y0 = Math.min(y0, this.nodeY[p]);
+                x1 = Math.max(x1, this.nodeX[p]);
+                y1 = Math.max(y1, this.nodeY[p]);
+                p = this.next[p];
+            }
+            while (p != outerNode);
+
+            this.minX = x0;
+            this.minY = y0;
+            double size = Math.max(x1 - x0, y1 - y0);
+            this.invSize = size != 0 ? 32767 / size : 0;
+        }
+
+        this.earcutLinked(outerNode, 0);
+    }
+
+    protected double signedArea(int start, int end)
+    {
+        double[] xy = this.xy;
+        double sum = 0;
+        for (int i = start, j = end - 1; i < end; j = i++)
+        {
+            sum += (xy[2 * j] - xy[2 * i]) * (xy[2 * i + 1] + xy[2 * j + 1]);
+        }
+
+        return sum;
+    }
+
+    /**
+     * Creates a circular linked list of nodes for a boundary's vertices, in the specified orientation.
+     *
+     * @param start the boundary's first vertex.
+     * @param end   the vertex following the boundary's last vertex.
+     * @param outer true to link the vertices counter-clockwise, as required for outer boundaries, or false to link them
+     *              clockwise, as required for holes.
+     *
+     * @return the last node of the list, or NONE if the boundary is empty.
+     */
+    protected int linkedList(int start, int end, boolean outer)
+    {
+        int last = NONE;
+
+        if (outer == (this.signedArea(start, end) > 0))
+        {
+            for (int i = start; i < end; i++)
+            {
+                last = this.insertNode(i, last);
+            }
+        }
+        else
+        {
+            for (int i = end - 1; i >= start; i--)
+            {
+                last = this.insertNode(i, last);
+            }
+        }
+
+        if (last != NONE && this.equals(last, this.next[last]))
+        {
+            this.removeNode(last);
+            last = this.next[last];
+        }
+
+        return last;
+    }
+
+    /**
+     * Removes duplicate and collinear nodes from a list.
+     *
+     * @param start the node at which to start.
+     * @param end   the node at which to stop, or NONE to stop at the start node.
+     *
+     * @return a node remaining in the list.
+     */
+    protected int filterPoints(int start, int end)
+    {
+        if (start == NONE)
+            return start;
+        if (end == NONE)
+            end = start;
+
+        int p = start;
+        boolean again;
+        do
+        {
+            again = false;
+
+            if (!this.steiner[p] && (this.equals(p, this.next[p]) || this.area(this.prev[p], p, this.next[p]) == 0))
+            {
+                this.removeNode(p);
+                p = end = this.prev[p];
+                if (p == this.next[p])
+                    break;
+                again = true;
+            }
+            else
+            {
+                p = this.next[p];
+            }
+        }
+        while (again || p != end);
+
+        return end;
+    }
+
+    /**
+     * Clips ears from a list until it is exhausted. If no ear can be found, the list is successively filtered of
+     * degenerate nodes, cured of local self-intersections, and split in two.
+     *
+     * @param ear  the node at which to start.
+     * @param pass the recovery pass, 0 initially.
+     */
+    protected void earcutLinked(int ear, int pass)
+    {
+        if (ear == NONE)
+            return;
+
+        if (pass == 0 && this.invSize != 0)
+            this.indexCurve(ear);
+
+        int stop = ear;
+
+        while (this.prev[ear] != this.next[ear])
+        {
+            int p = this.prev[ear];
+            int n = this.next[ear];
+
+            if (this.invSize != 0 ? this.isEarHashed(ear) : this.isEar(ear))
+            {
+                this.addTriangle(this.nodeVertex[p], this.nodeVertex[ear], this.nodeVertex[n]);
+                this.removeNode(ear);
+
+                // Skipping the next vertex leads to fewer sliver triangles.
+                ear = this.next[n];
+                stop = this.next[n];
+                continue;
+            }
+
+            ear = n;
+
+            if (ear == stop)
+            {
+                if (pass == 0)
+                {
+                    this.earcutLinked(this.filterPoints(ear, NONE), 1);
+                }
+                else if (pass == 1)
+                {
+                    ear = this.cureLocalIntersections(this.filterPoints(ear, NONE));
+                    this.earcutLinked(ear, 2);
+                }
+                else if (pass == 2)
+                {
+                    this.splitEarcut(ear);
+                }
+
+                break;
+            }
+        }
+    }
+
+    protected boolean isEar(int ear)
+    {
+        int a = this.prev[ear], b = ear, c = this.next[ear];
+
+        if (this.area(a, b, c) >= 0)
+            return false; // reflex
+
+        double ax = this.nodeX[a], bx = this.nodeX[b], cx = this.nodeX[c];
+        double ay = this.nodeY[a], by = this.nodeY[b], cy = this.nodeY[c];
+        double x0 = Math.min(ax, Math.min(bx, cx)), y0 = Math.min(ay, Math.min(by, cy));
+        double x1 = Math.max(ax, Math.max(bx, cx)), y1 = Math.max(ay, Math.max(by, cy));
+
+        int p = this.next[c];
+        while (p != a)
+        {
+            double px = this.nodeX[p], py = this.nodeY[p];
+            if (px >= x0 && px <= x1 && py >= y0 && py <= y1
+                && pointInTriangleExceptFirst(ax, ay, bx, by, cx, cy, px, py)
+                && this.area(this.prev[p], p, this.next[p]) >= 0)
+                return false;
+            p = this.next[p];
+        }
+
+        return true;
+    }
+
+    protected boolean isEarHashed(int ear)
+    {
+        int a = this.prev[ear], b = ear, c = this.next[ear];
+
+        if (this.area(a, b, c) >= 0)
+            return false; // reflex
+
+        double ax = this.nodeX[a], bx = this.nodeX[b], cx = this.nodeX[c];
+        double ay = this.nodeY[a], by = this.nodeY[b], cy = this.nodeY[c];
+        double x0 = Math.min(ax, Math.min(bx, cx)), y0 = Math.min(ay, Math.min(by, cy));
+        double x1 = Math.max(ax, Math.max(bx, cx)), y1 = Math.max(ay, Math.max(by, cy));
+
+        // Examine only the nodes whose z-order values lie within the triangle's bounds, in both directions.
+        int minZ = this.zOrder(x0, y0);
+        int maxZ = this.zOrder(x1, y1);
+
+        int p = this.prevZ[ear];
+        int n = this.nextZ[ear];
+
+        while (p != NONE && this.z[p] >= minZ && n != NONE && this.z[n] <= maxZ)
+        {
+            if (this.blocksEar(p, a, c, ax, ay, bx, by, cx, cy, x0, y0, x1, y1))
+                return false;
+            p = this.prevZ[p];
+
+            if (this.blocksEar(n, a, c, ax, ay, bx, by, cx, cy, x0, y0, x1, y1))
+                return false;
+            n = this.nextZ[n];
+        }
+
+        while (p != NONE && this.z[p] >= minZ)
+        {
+            if (this.blocksEar(p, a, c, ax, ay, bx, by, cx, cy, x0, y0, x1, y1))
+                return false;
+            p = this.prevZ[p];
+        }
+
+        while (n != NONE && this.z[n] <= maxZ)
+        {
+            if (this.blocksEar(n, a, c, ax, ay, bx, by, cx, cy, x0, y0, x1, y1))
+                return false;
+            n = this.nextZ[n];
+        }
+
+        return true;
+    }
+
+    protected boolean blocksEar(int p, int a, int c, double ax, double ay, double bx, double by, double cx, double cy,
+        double x0, double y0, double x1, double y1)
+    {
+        double px = this.nodeX[p], py = this.nodeY[p];
+
+        return px >= x0 && px <= x1 && py >= y0 && py <= y1 && p != a && p != c
+            && pointInTriangleExceptFirst(ax, ay, bx, by, cx, cy, px, py)
+            && this.area(this.prev[p], p, this.next[p]) >= 0;
+    }
+
+    /**
+     * Clips the triangles formed where two adjacent edges of a list cross one another.
+     *
+     * @param start the node at which to start.
+     *
+     * @return a node remaining in the list.
+     */
+    protected int cureLocalIntersections(int start)
+    {
+        int p = start;
+        do
+        {
+            int a = this.prev[p];
+            int b = this.next[this.next[p]];
+
+            if (!this.equals(a, b) && this.intersects(a, p, this.next[p], b)
+                && this.locallyInside(a, b) && this.locallyInside(b, a))
+            {
+                this.addTriangle(this.nodeVertex[a], this.nodeVertex[p], this.nodeVertex[b]);
+
+                // Remove the two nodes involved.
+                this.removeNode(p);
+                this.removeNode(this.next[p]);
+
+                p = start = b;
+            }
+            p = this.next[p];
+        }
+        while (p != start);
+
+        return this.filterPoints(p, NONE);
+    }
+
+    /**
+     * Splits a list in two along a valid diagonal and clips each part.
+     *
+     * @param start the node at which to start.
+     */
+    protected void splitEarcut(int start)
+    {
+        int a = start;
+        do
+        {
+            int b = this.next[this.next[a]];
+            while (b != this.prev[a])
+            {
+                if (this.nodeVertex[a] != this.nodeVertex[b] && this.isValidDiagonal(a, b))
+                {
+                    int c = this.splitPolygon(a, b);
+
+                    a = this.filterPoints(a, this.next[a]);
+                    c = this.filterPoints(c, this.next[c]);
+
+                    this.earcutLinked(a, 0);
+                    this.earcutLinked(c, 0);
+                    return;
+                }
+                b = this.next[b];
+            }
+            a = this.next[a];
+        }
+        while (a != start);
+    }
+
+    /**
+     * Joins holes to an outer boundary's list by bridge edges, in order of their leftmost vertex.
+     *
+     * @return a node of the joined list.
+     */
+    protected int eliminateHoles(int[] ringStarts, int ringCount, int vertexCount, int[] holeRings, int holeCount,
+        int outerNode)
+    {
+        int count = 0;
+        for (int h = 0; h < holeCount; h++)
+        {
+            int hole = holeRings[h];
+            int start = ringStarts[hole];
+            int end = ringEnd(ringStarts, ringCount, vertexCount, hole);
+
+            int list = this.linkedList(start, end, false);
+            if (list == NONE)
+                continue;
+            if (list == this.next[list])
+                this.steiner[list] = true;
+            this.holeNodes[count++] = this.getLeftmost(list);
+        }
+
+        this.sortHolesByX(count);
+
+        for (int h = 0; h < count; h++)
+        {
+            outerNode = this.eliminateHole(this.holeNodes[h], outerNode);
+        }
+
+        return outerNode;
+    }
+
+    protected void sortHolesByX(int count)
+    {
+        // Insertion sort; polygons rarely have enough holes to warrant more.
+        for (int i = 1; i < count; i++)
+        {
+            int node = this.holeNodes[i];
+            double x = this.nodeX[node];
+            int j = i - 1;
+            while (j >= 0 && this.nodeX[this.holeNodes[j]] > x)
+            {
+                this.holeNodes[j + 1] = this.holeNodes[j];
+                j--;
+            }
+            this.holeNodes[j + 1] = node;
+        }
+    }
+
+    protected int eliminateHole(int hole, int outerNode)
+    {
+        int bridge = this.findHoleBridge(hole, outerNode);
+        if (bridge == NONE)
+            return outerNode;
+
+        int bridgeReverse = this.splitPolygon(bridge, hole);
+
+        // Filter the collinear points around the cuts.
+        this.filterPoints(bridgeReverse, this.next[bridgeReverse]);
+        return this.filterPoints(bridge, this.next[bridge]);
+    }
+
+    /**
+     * Finds an outer boundary node that can be connected to a hole's leftmost node without crossing any edge, by David
+     * Eberly's algorithm.
+     *
+     * @param hole      the hole's leftmost node.
+     * @param outerNode a node of the outer boundary.
+     *
+     * @return the bridge node, or NONE if none is found.
+     */
+    protected int findHoleBridge(int hole, int outerNode)
+    {
+        int p = outerNode;
+        double hx = this.nodeX[hole];
+        double hy = this.nodeY[hole];
+        double qx = Double.NEGATIVE_INFINITY;
+        int m = NONE;
+
+        // Find the segment nearest the hole's left whose end point is a bridge candidate.
+        do
+        {
+            int n = this.next[p];
+            double py = this.nodeY[p], ny = this.nodeY[n];
+            if (hy <= py && hy >= ny && ny != py)
+            {
+                double x = this.nodeX[p] + (hy - py) * (this.nodeX[n] - this.nodeX[p]) / (ny - py);
+                if (x <= hx && x > qx)
+                {
+                    qx = x;
+                    m = this.nodeX[p] < this.nodeX[n] ? p : n;
+                    if (x == hx)
+                        return m; // the hole touches the outer segment
+                }
+            }
+            p = n;
+        }
+        while (p != outerNode);
+
+        if (m == NONE)
+            return NONE;
+
+        // Look for nodes inside the triangle formed by the hole point, the segment intersection and the candidate; if
+        // any exist, choose the one with the minimum angle to the ray as the bridge.
+        int stop = m;
+        double mx = this.nodeX[m];
+        double my = this.nodeY[m];
+        double tanMin = Double.POSITIVE_INFINITY;
+
+        p = m;
+        do
+        {
+            double px = this.nodeX[p], py = this.nodeY[p];
+            if (hx >= px && px >= mx && hx != px
+                && pointInTriangle(hy < my ? hx : qx, hy, mx, my, hy < my ? qx : hx, hy, px, py))
+            {
+                double tan = Math.abs(hy - py) / (hx - px);
+
+                if (this.locallyInside(p, hole) && (tan < tanMin || (tan == tanMin
+                    && (px > this.nodeX[m] || (px == this.nodeX[m] && this.sectorContainsSector(m, p))))))
+                {
+                    m = p;
+                    tanMin = tan;
+                }
+            }
+            p = this.next[p];
+        }
+        while (p != stop);
+
+        return m;
+    }
+
+    protected boolean sectorContainsSector(int m, int p)
+    {
+        return this.area(this.prev[m], m, this.prev[p]) < 0 && this.area(this.next[p], m, this.next[m]) < 0;
+    }
+
+    /** Links a list's nodes in z-order. */
+    protected void indexCurve(int start)
+    {
+        int p = start;
+        do
+        {
+            this.z[p] = this.zOrder(this.nodeX[p], this.nodeY[p]);
+            this.prevZ[p] = this.prev[p];
+            this.nextZ[p] = this.next[p];
+            p = this.next[p];
+        }
+        while (p != start);
+
+        this.nextZ[this.prevZ[p]] = NONE;
+        this.prevZ[p] = NONE;
+
+        this.sortLinked(p);
+    }
+
+    /** Sorts a z-order list by z value with Simon Tatham's linked list merge sort. */
+    protected int sortLinked(int list)
+    {
+        int inSize = 1;
+        int numMerges;
+
+        do
+        {
+            int p = list;
+            int tail = NONE;
+            list = NONE;
+            numMerges = 0;
+
+            while (p != NONE)
+            {
+                numMerges++;
+                int q = p;
+                int pSize = 0;
+                for (int i = 0; i < inSize; i++)
+                {
+                    pSize++;
+                    q = this.nextZ[q];
+                    if (q == NONE)
+                        break;
+                }
+
+                int qSize = inSize;
+
+                while (pSize > 0 || (qSize > 0 && q != NONE))
+                {
+                    int e;
+                    if (pSize != 0 && (qSize == 0 || q == NONE || this.z[p] <= this.z[q]))
+                    {
+                        e = p;
+                        p = this.nextZ[p];
+                        pSize--;
+                    }
+                    else
+                    {
+                        e = q;
+                        q = this.nextZ[q];
+                        qSize--;
+                    }
+
+                    if (tail != NONE)
+                        this.nextZ[tail] = e;
+                    else
+                        list = e;
+
+                    this.prevZ[e] = tail;
+                    tail = e;
+                }
+
+                p = q;
+            }
+
+            this.nextZ[tail] = NONE;
+            inSize *= 2;
+        }
+        while (numMerges > 1);
+
+        return list;
+    }
+
+    /**
+     * Computes the z-order of a point from its coordinates scaled to 15 bits within the polygon's bounds.
+     *
+     * @param x the point's x coordinate.
+     * @param y the point's y coordinate.
+     *
+     * @return the point's z-order value.
+     */
+    protected int zOrder(double x, double y)
+    {
+        int ix = (int) ((x - this.minX) * this.invSize);
+        int iy = (int) ((y - this.minY) * this.invSize);
+
+        ix = (ix | (ix << 8)) & 0x00FF00FF;
+        ix = (ix | (ix << 4)) & 0x0F0F0F0F;
+        ix = (ix | (ix << 2)) & 0x33333333;
+        ix = (ix | (ix << 1)) & 0x55555555;
+
+        iy = (iy | (iy << 8)) & 0x00FF00FF;
+        iy = (iy | (iy << 4)) & 0x0F0F0F0F;
+        iy = (iy | (iy << 2)) & 0x33333333;
+        iy = (iy | (iy << 1)) & 0x55555555;
+
+        return ix | (iy << 1);
+    }
+
+    protected int getLeftmost(int start)
+    {
+        int p = start, leftmost = start;
+        do
+        {
+            if (this.nodeX[p] < this.nodeX[leftmost]
+                || (this.nodeX[p] == this.nodeX[leftmost] && this.nodeY[p] < this.nodeY[leftmost]))
+                leftmost = p;
+            p = this.next[p];
+        }
+        while (p != start);
+
+        return leftmost;
+    }
+
+    protected static boolean pointInTriangle(double ax, double ay, double bx, double by, double cx, double cy,
+        double px, double py)
+    {
+        return (cx - px) * (ay - py) >= (ax - px) * (cy - py)
+            && (ax - px) * (by - py) >= (bx - px) * (ay - py)
+            && (bx - px) * (cy - py) >= (cx - px) * (by - py);
+    }
+
+    protected static boolean pointInTriangleExceptFirst(double ax, double ay, double bx, double by, double cx,
+        double cy, double px, double py)
+    {
+        return !(ax == px && ay == py) && pointInTriangle(ax, ay, bx, by, cx, cy, px, py);
+    }
+
+    /** Indicates whether a diagonal between two nodes lies inside the polygon and crosses no edge. */
+    protected boolean isValidDiagonal(int a, int b)
+    {
+        return this.nodeVertex[this.next[a]] != this.nodeVertex[b]
+            && this.nodeVertex[this.prev[a]] != this.nodeVertex[b]
+            && !this.intersectsPolygon(a, b)
+            && (this.locallyInside(a, b) && this.locallyInside(b, a) && this.middleInside(a, b)
+            && (this.area(this.prev[a], a, this.prev[b]) != 0 || this.area(a, this.prev[b], b) != 0)
+            || this.equals(a, b) && this.area(this.prev[a], a, this.next[a]) > 0
+            && this.area(this.prev[b], b, this.next[b]) > 0);
+    }
+
+    /** Computes twice the signed area of a triangle, negative when its nodes are counter-clockwise. */
+    protected double area(int p, int q, int r)
+    {
+        return (this.nodeY[q] - this.nodeY[p]) * (this.nodeX[r] - this.nodeX[q])
+            - (this.nodeX[q] - this.nodeX[p]) * (this.nodeY[r] - this.nodeY[q]);
+    }
+
+    protected boolean equals(int p, int q)
+    {
+        return this.nodeX[p] == this.nodeX[q] && this.nodeY[p] == this.nodeY[q];
+    }
+
+    /** Indicates whether segment p1-q1 intersects segment p2-q2. */
+    protected boolean intersects(int p1, int q1, int p2, int q2)
+    {
+        double o1 = Math.signum(this.area(p1, q1, p2));
+        double o2 = Math.signum(this.area(p1, q1, q2));
+        double o3 = Math.signum(this.area(p2, q2, p1));
+        double o4 = Math.signum(this.area(p2, q2, q1));
+
+        if (o1 != o2 && o3 != o4)
+            return true;
+
+        return (o1 == 0 && this.onSegment(p1, p2, q1))
+            || (o2 == 0 && this.onSegment(p1, q2, q1))
+            || (o3 == 0 && this.onSegment(p2, p1, q2))
+            || (o4 == 0 && this.onSegment(p2, q1, q2));
+    }
+
+    /** Indicates whether collinear point q lies on segment p-r. */
+    protected boolean onSegment(int p, int q, int r)
+    {
+        return this.nodeX[q] <= Math.max(this.nodeX[p], this.nodeX[r])
+            && this.nodeX[q] >= Math.min(this.nodeX[p], this.nodeX[r])
+            && this.nodeY[q] <= Math.max(this.nodeY[p], this.nodeY[r])
+            && this.nodeY[q] >= Math.min(this.nodeY[p], this.nodeY[r]);
+    }
+
+    protected boolean intersectsPolygon(int a, int b)
+    {
+        int va = this.nodeVertex[a], vb = this.nodeVertex[b];
+        int p = a;
+        do
+        {
+            int n = this.next[p];
+            int vp = this.nodeVertex[p], vn = this.nodeVertex[n];
+            if (vp != va && vn != va && vp != vb && vn != vb && this.intersects(p, n, a, b))
+                return true;
+            p = n;
+        }
+        while (p != a);
+
+        return false;
+    }
+
+    protected boolean locallyInside(int a, int b)
+    {
+        return this.area(this.prev[a], a, this.next[a]) < 0
+            ? this.area(a, b, this.next[a]) >= 0 && this.area(a, this.prev[a], b) >= 0
+            : this.area(a, b, this.prev[a]) < 0 || this.area(a, this.next[a], b) < 0;
+    }
+
+    protected boolean middleInside(int a, int b)
+    {
+        int p = a;
+        boolean inside = false;
+        double px = (this.nodeX[a] + this.nodeX[b]) / 2;
+        double py = (this.nodeY[a] + this.nodeY[b]) / 2;
+        do
+        {
+            int n = this.next[p];
+            double y0 = this.nodeY[p], y1 = this.nodeY[n];
+            if ((y0 > py) != (y1 > py) && y1 != y0
+                && px < (this.nodeX[n] - this.nodeX[p]) * (py - y0) / (y1 - y0) + this.nodeX[p])
+                inside = !inside;
+            p = n;
+        }
+        while (p != a);
+
+        return inside;
+    }
+
+    /**
+     * Links two nodes with a bridge. If the nodes belong to the same list, the list is split in two; if they belong to
+     * different lists, the lists are merged.
+     *
+     * @return the copy of b created for the second list.
+     */
+    protected int splitPolygon(int a, int b)
+    {
+        int a2 = this.createNode(this.nodeVertex[a]);
+        int b2 = this.createNode(this.nodeVertex[b]);
+        int an = this.next[a];
+        int bp = this.prev[b];
+
+        this.next[a] = b;
+        this.prev[b] = a;
+
+        this.next[a2] = an;
+        this.prev[an] = a2;
+
+        this.next[b2] = a2;
+        this.prev[a2] = b2;
+
+        this.next[bp] = b2;
+        this.prev[b2] = bp;
+
+        return b2;
+    }
+
+    protected int insertNode(int vertex, int last)
+    {
+        int p = this.createNode(vertex);
+
+        if (last == NONE)
+        {
+            this.prev[p] = p;
+            this.next[p] = p;
+        }
+        else
+        {
+            this.next[p] = this.next[last];
+            this.prev[p] = last;
+            this.prev[this.next[last]] = p;
+            this.next[last] = p;
+        }
+
+        return p;
+    }
+
+    protected void removeNode(int p)
+    {
+        this.prev[this.next[p]] = this.prev[p];
+        this.next[this.prev[p]] = this.next[p];
+
+        if (this.prevZ[p] != NONE)
+            this.nextZ[this.prevZ[p]] = this.nextZ[p];
+        if (this.nextZ[p] != NONE)
+            this.prevZ[this.nextZ[p]] = this.prevZ[p];
+    }
+
+    protected int createNode(int vertex)
+    {
+        if (this.nodeCount == this.nodeVertex.length)
+            this.ensureNodeCapacity(this.nodeCount + this.nodeCount / 2 + 1);
+
+        int p = this.nodeCount++;
+        this.nodeVertex[p] = vertex;
+        this.nodeX[p] = this.xy[2 * vertex];
+        this.nodeY[p] = this.xy[2 * vertex + 1];
+        this.prev[p] = NONE;
+        this.next[p] = NONE;
+        this.prevZ[p] = NONE;
+        this.nextZ[p] = NONE;
+        this.z[p] = 0;
+        this.steiner[p] = false;
+
+        return p;
+    }
+
+    protected void ensureNodeCapacity(int capacity)
+    {
+        if (this.nodeVertex.length >= capacity)
+            return;
+
+        this.nodeVertex = Arrays.copyOf(this.nodeVertex, capacity);
+        this.nodeX = Arrays.copyOf(this.nodeX, capacity);
+        this.nodeY = Arrays.copyOf(this.nodeY, capacity);
+        this.prev = Arrays.copyOf(this.prev, capacity);
+        this.next = Arrays.copyOf(this.next, capacity);
+        this.prevZ = Arrays.copyOf(this.prevZ, capacity);
+        this.nextZ = Arrays.copyOf(this.nextZ, capacity);
+        this.z = Arrays.copyOf(this.z, capacity);
+        this.steiner = Arrays.copyOf(this.steiner, capacity);
+    }
+
+    protected void addTriangle(int a, int b, int c)
+    {
+        if (this.indexCount + 3 > this.indices.length)
+            this.indices = Arrays.copyOf(this.indices, Math.max(this.indexCount + 3, 2 * this.indices.length));
+
+        this.indices[this.indexCount++] = a;
+        this.indices[this.indexCount++] = b;
+        this.indices[this.indexCount++] = c;
+    }
+}
@@ -23,6 +23,9 @@ public class PerformanceStatistic implements Comparable<PerformanceStatistic>
     public static final String JVM_HEAP = "gov.nasa.worldwind.perfstat.JvmHeap";
     public static final String JVM_HEAP_USED = "gov.nasa.worldwind.perfstat.JvmHeapUsed";
     public static final String TEXTURE_CACHE = "gov.nasa.worldwind.perfstat.TextureCache";
+    public static final String SURFACE_OBJECT_TILE_UPDATE_COUNT =
+        "gov.nasa.worldwind.perfstat.SurfaceObjectTileUpdateCount";
+    public static final String SURFACE_OBJECT_DRAW_COUNT = "gov.nasa.worldwind.perfstat.SurfaceObjectDrawCount";
 
     public static final Set<String> ALL_STATISTICS_SET = new HashSet<String>(1);
     static
@@ -31,12 +31,23 @@ public class PlacemarkClutterFilter implements ClutterFilter
     protected List<Rectangle2D> rectList = new ArrayList<Rectangle2D>();
     /** Maintains a list of regions and the shapes associated with each region. */
     protected Map<Rectangle2D, List<Declutterable>> shapeMap = new HashMap<Rectangle2D, List<Declutterable>>();
+    /** Indexes the regions in the region list. */
+    protected ClutterGrid grid = new ClutterGrid();
 
     public void apply(DrawContext dc, List<Declutterable> shapes)
     {
+        // Compute every shape's bounds first so the grid can be sized to cover them.
+        List<Rectangle2D> boundsList = new ArrayList<Rectangle2D>(shapes.size());
         for (Declutterable shape : shapes)
         {
-            Rectangle2D bounds = shape.getBounds(dc);
+            boundsList.add(shape.getBounds(dc));
+        }
+        this.grid.reset(boundsList);
+
+        int i = 0;
+        for (Declutterable shape : shapes)
+        {
+            Rectangle2D bounds = boundsList.get(i++);
 
             Rectangle2D intersectingRegion = this.intersects(bounds);
             if (intersectingRegion != null)
@@ -62,6 +73,7 @@ public class PlacemarkClutterFilter implements ClutterFilter
     {
         this.rectList.clear();
         this.shapeMap.clear();
+        this.grid.clear();
     }
 
     /**
@@ -77,13 +89,10 @@ public class PlacemarkClutterFilter implements ClutterFilter
         if (rectangle == null)
             return null;
 
-        for (Rectangle2D rect : this.rectList)
-        {
-            if (rectangle.intersects(rect))
-                return rect;
-        }
+        // The grid returns the first region in the order added, as would a linear search of the region list.
+        int index = this.grid.firstIntersecting(rectangle);
 
-        return null;
+        return index >= 0 ? this.grid.getRegion(index) : null;
     }
 
     /**
@@ -101,6 +110,7 @@ public class PlacemarkClutterFilter implements ClutterFilter
             shapeList = new ArrayList<Declutterable>(1);
             this.shapeMap.put(rectangle, shapeList);
             this.rectList.add(rectangle);
+            this.grid.add(rectangle);
         }
 
         shapeList.add(shape);
@@ -6,73 +6,41 @@
 
 package gov.nasa.worldwind.util;
 
-import javax.media.opengl.glu.*;
 import java.nio.*;
+import java.util.Arrays;
 
 /**
  * TODO: Combine these capabilities into PolygonTessellator with support for pattern used by ShapefileExtrudedPolygons.
  * TODO: Keep the combined class in package gov.nasa.worldwind.util.
+ * <p/>
+ * Polygons are tessellated by an {@link EarClippingTessellator} when they end, so no OpenGL runtime is required.
+ * Boundary indices are the segments of each contour.
  *
  * @author dcollins
  * @version $Id: PolygonTessellator2.java 2367 2014-10-02 23:37:12Z dcollins $
  */
 public class PolygonTessellator2
 {
-    protected static class TessCallbackAdapter extends GLUtessellatorCallbackAdapter
-    {
-        @Override
-        public void beginData(int type, Object userData)
-        {
-            ((PolygonTessellator2) userData).tessBegin(type);
-        }
-
-        @Override
-        public void edgeFlagData(boolean boundaryEdge, Object userData)
-        {
-            ((PolygonTessellator2) userData).tessEdgeFlag(boundaryEdge);
-        }
-
-        @Override
-        public void vertexData(Object vertexData, Object userData)
-        {
-            ((PolygonTessellator2) userData).tessVertex(vertexData);
-        }
-
-        @Override
-        public void endData(Object userData)
-        {
-            ((PolygonTessellator2) userData).tessEnd();
-        }
-
-        @Override
-        public void combineData(double[] coords, Object[] vertexData, float[] weight, Object[] outData, Object userData)
-        {
-            ((PolygonTessellator2) userData).tessCombine(coords, vertexData, weight, outData);
-        }
-    }
-
-    protected GLUtessellator tess;
+    protected EarClippingTessellator tess = new EarClippingTessellator();
     protected FloatBuffer vertices = FloatBuffer.allocate(10);
     protected IntBuffer interiorIndices = IntBuffer.allocate(10);
     protected IntBuffer boundaryIndices = IntBuffer.allocate(10);
     protected Range polygonVertexRange = new Range(0, 0);
     protected int vertexStride = 3;
-    protected boolean isBoundaryEdge;
     protected double[] coords = new double[6];
     protected double[] offset = new double[3];
     protected double[] clip = {-Double.MAX_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE, Double.MAX_VALUE};
     protected float[] vertex = new float[3];
     protected int prevClipCode;
+    protected double[] normal = {0, 0, 1};
+    // The current polygon's vertex coordinates, three per vertex, and the index of each contour's first vertex.
+    protected double[] polygonCoords = new double[30];
+    protected int polygonVertexCount;
+    protected int[] contourStarts = new int[4];
+    protected int contourCount;
 
     public PolygonTessellator2()
     {
-        this.tess = GLU.gluNewTess();
-        TessCallbackAdapter callback = new TessCallbackAdapter();
-        GLU.gluTessCallback(this.tess, GLU.GLU_TESS_BEGIN_DATA, callback);
-        GLU.gluTessCallback(this.tess, GLU.GLU_TESS_EDGE_FLAG_DATA, callback);
-        GLU.gluTessCallback(this.tess, GLU.GLU_TESS_VERTEX_DATA, callback);
-        GLU.gluTessCallback(this.tess, GLU.GLU_TESS_END_DATA, callback);
-        GLU.gluTessCallback(this.tess, GLU.GLU_TESS_COMBINE_DATA, callback);
     }
 
     public int getVertexCount()
@@ -148,7 +116,9 @@ public class PolygonTessellator2
 
     public void setPolygonNormal(double x, double y, double z)
     {
-        GLU.gluTessNormal(this.tess, x, y, z);
+        this.normal[0] = x;
+        this.normal[1] = y;
+        this.normal[2] = z;
     }
 
     public void setPolygonClipCoords(double xMin, double xMax, double yMin, double yMax)
@@ -173,15 +143,18 @@ public class PolygonTessellator2
 
     public void beginPolygon()
     {
-        GLU.gluTessBeginPolygon(this.tess, this); // Use this as the polygon user data to enable callbacks.
-
         this.polygonVertexRange.location = this.vertices.position() / this.vertexStride;
         this.polygonVertexRange.length = 0;
+        this.polygonVertexCount = 0;
+        this.contourCount = 0;
     }
 
     public void beginContour()
     {
-        GLU.gluTessBeginContour(this.tess);
+        if (this.contourCount == this.contourStarts.length)
+            this.contourStarts = Arrays.copyOf(this.contourStarts, 2 * this.contourCount);
+
+        this.contourStarts[this.contourCount++] = this.polygonVertexCount;
         this.prevClipCode = -1;
     }
 
@@ -196,14 +169,12 @@ public class PolygonTessellator2
         int code = this.clipCode(x, y, z);
         if (this.prevClipCode > 0 && code != this.prevClipCode)
         {
-            int index = this.putVertex(this.coords, 3); // add the previous vertex
-            GLU.gluTessVertex(this.tess, this.coords, 3, index); // associate the vertex with its index
+            this.putVertex(this.coords, 3); // add the previous vertex
         }
 
         if (code == 0 || code != this.prevClipCode)
         {
-            int index = this.putVertex(this.coords, 0); // add the current vertex
-            GLU.gluTessVertex(this.tess, this.coords, 0, index); // associate the vertex with its index
+            this.putVertex(this.coords, 0); // add the current vertex
         }
 
         System.arraycopy(this.coords, 0, this.coords, 3, 3); // copy the current vertex to the previous vertex
@@ -212,65 +183,51 @@ public class PolygonTessellator2
 
     public void endContour()
     {
-        GLU.gluTessEndContour(this.tess);
+        // Intentionally left blank.
     }
 
     public void endPolygon()
     {
-        GLU.gluTessEndPolygon(this.tess);
+        int location = this.polygonVertexRange.location;
 
-        this.polygonVertexRange.length = this.vertices.position() / this.vertexStride;
-        this.polygonVertexRange.length -= this.polygonVertexRange.location;
-    }
-
-    @SuppressWarnings("UnusedParameters")
-    protected void tessBegin(int type)
-    {
-        // Intentionally left blank.
-    }
+        this.tess.tessellate(this.polygonCoords, 3, this.contourStarts, this.contourCount, this.polygonVertexCount,
+            this.normal[0], this.normal[1], this.normal[2]);
 
-    protected void tessEdgeFlag(boolean boundaryEdge)
-    {
-        this.isBoundaryEdge = boundaryEdge;
-    }
-
-    protected void tessVertex(Object vertexData)
-    {
-        // Accumulate interior indices appropriate for use as GL_interiorIndices primitives. Based on the GLU
-        // tessellator documentation we can assume that the tessellator is providing interiorIndices because it's
-        // configured with the edgeFlag callback.
-        int index = (Integer) vertexData;
-        this.putInteriorIndex(index);
-
-        // Accumulate outline indices appropriate for use as GL_boundaryIndices. The tessBoundaryEdge flag indicates
-        // whether or not the triangle edge starting with the current vertex is a boundary edge.
-        if ((this.boundaryIndices.position() % 2) == 1)
+        int[] indices = this.tess.getIndices();
+        for (int i = 0; i < this.tess.getIndexCount(); i++)
         {
-            this.putBoundaryIndex(index);
+            this.putInteriorIndex(location + indices[i]);
         }
-        if (this.isBoundaryEdge)
+
+        // Each contour's segments are boundary edges. Omit the zero length segment closing a contour whose last
+        // vertex repeats its first.
+        for (int c = 0; c < this.contourCount; c++)
         {
-            this.putBoundaryIndex(index);
+            int start = this.contourStarts[c];
+            int end = c + 1 < this.contourCount ? this.contourStarts[c + 1] : this.polygonVertexCount;
+            if (end - start < 2)
+                continue;
 
-            int interiorCount = this.interiorIndices.position();
-            if (interiorCount > 0 && (interiorCount % 3) == 0)
+            for (int i = start; i < end; i++)
             {
-                int firstTriIndex = this.interiorIndices.get(interiorCount - 3);
-                this.putBoundaryIndex(firstTriIndex);
+                int j = i + 1 < end ? i + 1 : start;
+                if (j == start && this.isSameVertex(i, j))
+                    continue;
+
+                this.putBoundaryIndex(location + i);
+                this.putBoundaryIndex(location + j);
             }
         }
-    }
 
-    protected void tessEnd()
-    {
-        // Intentionally left blank.
+        this.polygonVertexRange.length = this.vertices.position() / this.vertexStride;
+        this.polygonVertexRange.length -= this.polygonVertexRange.location;
     }
 
-    protected void tessCombine(double[] coords, Object[] vertexData, float[] weight, Object[] outData)
+    protected boolean isSameVertex(int i, int j)
     {
-        outData[0] = this.putVertex(coords, 0);
-
-        // TODO: Implement a caller-specified combine callback to enable customizing the vertex data added.
+        return this.polygonCoords[3 * i] == this.polygonCoords[3 * j]
+            && this.polygonCoords[3 * i + 1] == this.polygonCoords[3 * j + 1]
+            && this.polygonCoords[3 * i + 2] == this.polygonCoords[3 * j + 2];
     }
 
     protected int putVertex(double[] coords, int pos)
@@ -290,6 +247,13 @@ public class PolygonTessellator2
         this.vertex[2] = (float) (coords[2 + pos] + this.offset[2]);
         this.vertices.put(this.vertex, 0, this.vertexStride);
 
+        // Retain the vertex in double precision for tessellation.
+        if (3 * this.polygonVertexCount + 3 > this.polygonCoords.length)
+            this.polygonCoords = Arrays.copyOf(this.polygonCoords, 2 * this.polygonCoords.length);
+
+        System.arraycopy(coords, pos, this.polygonCoords, 3 * this.polygonVertexCount, 3);
+        this.polygonVertexCount++;
+
         return index;
     }
 
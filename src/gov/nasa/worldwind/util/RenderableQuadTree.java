@@ -0,0 +1,674 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+package gov.nasa.worldwind.util;
+
+import gov.nasa.worldwind.Locatable;
+import gov.nasa.worldwind.geom.*;
+import gov.nasa.worldwind.geom.Box;
+import gov.nasa.worldwind.globes.Globe;
+import gov.nasa.worldwind.render.*;
+
+import java.util.*;
+
+/**
+ * A dynamic geographic quadtree of {@link Renderable}s that culls whole subtrees against a view frustum. Each
+ * renderable is placed in the smallest quadtree node whose sector contains the renderable's geographic bounds: a {@link
+ * GeographicExtent}'s sector, or a {@link Locatable}'s position. Renderables with neither are never culled.
+ * <p/>
+ * Each node caches an axis-aligned Cartesian bounding box of the renderables in its subtree. The boxes are computed
+ * lazily during culling and are recomputed when the globe's state key or the vertical exaggeration changes, or when the
+ * subtree's contents change. The bounds of an {@link ExtentHolder} are taken from its extent; those of other
+ * renderables are computed conservatively from their geographic bounds and the globe's elevation range. An extent
+ * holder whose extent is not yet known, typically because it has not been rendered, is never culled. Because the
+ * extents of extent holders can change without notice, for example as terrain following shapes resolve their
+ * geometry against more detailed elevations, subtrees containing them are refreshed at a fixed interval.
+ * <p/>
+ * Renderables that change their geographic bounds must be reindexed by calling {@link #update(Renderable)}. Each
+ * renderable instance is indexed at most once. This class is thread safe.
+ *
+ * @version $Id$
+ */
+public class RenderableQuadTree
+{
+    /** The default maximum number of renderables in a leaf node before the node is subdivided. */
+    protected static final int DEFAULT_MAX_ITEMS_PER_NODE = 32;
+    /** The default maximum depth of the tree. */
+    protected static final int DEFAULT_MAX_LEVEL = 16;
+    /** The default interval in milliseconds between refreshes of the bounds of extent holders. */
+    protected static final long DEFAULT_EXTENT_REFRESH_INTERVAL = 2000;
+
+    protected static class Entry
+    {
+        protected final Renderable renderable;
+        protected Sector sector;
+        protected Node node;
+        /** The entry's Cartesian bounds as min x, min y, min z, max x, max y, max z. */
+        protected final double[] bounds = new double[6];
+        protected boolean boundsKnown;
+
+        public Entry(Renderable renderable)
+        {
+            this.renderable = renderable;
+        }
+    }
+
+    protected static class Node
+    {
+        protected final Node parent;
+        protected final Sector sector;
+        protected final int level;
+        protected Node[] children;
+        protected ArrayList<Entry> entries;
+        /** The number of entries in this node and its descendants. */
+        protected int count;
+        /** The subtree's Cartesian bounds as min x, min y, min z, max x, max y, max z. */
+        protected final double[] bounds = new double[6];
+        /** Indicates that the subtree contains an entry whose bounds are unknown, so the node cannot be culled. */
+        protected boolean hasUnknownBounds;
+        protected boolean dirty = true;
+        protected Object globeStateKey;
+        protected double verticalExaggeration;
+        protected long expiryTime;
+
+        public Node(Node parent, Sector sector, int level)
+        {
+            this.parent = parent;
+            this.sector = sector;
+            this.level = level;
+        }
+    }
+
+    protected final int maxItemsPerNode;
+    protected final int maxLevel;
+    protected long extentRefreshInterval = DEFAULT_EXTENT_REFRESH_INTERVAL;
+    protected Node root = new Node(null, Sector.FULL_SPHERE, 0);
+    protected Map<Renderable, Entry> entries = new IdentityHashMap<Renderable, Entry>();
+    /** Entries without geographic bounds. These are never culled. */
+    protected ArrayList<Entry> unboundedEntries = new ArrayList<Entry>();
+
+    /** Constructs an empty tree with the default node capacity and maximum depth. */
+    public RenderableQuadTree()
+    {
+        this(DEFAULT_MAX_ITEMS_PER_NODE, DEFAULT_MAX_LEVEL);
+    }
+
+    /**
+     * Constructs an empty tree.
+     *
+     * @param maxItemsPerNode the number of renderables a leaf node holds before it is subdivided.
+     * @param maxLevel        the maximum depth of the tree. The root is at level 0.
+     *
+     * @throws IllegalArgumentException if the node capacity is less than 1 or the maximum level is negative.
+     */
+    public RenderableQuadTree(int maxItemsPerNode, int maxLevel)
+    {
+        if (maxItemsPerNode < 1)
+        {
+            String message = Logging.getMessage("generic.SizeOutOfRange", maxItemsPerNode);
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        if (maxLevel < 0)
+        {
+            String message = Logging.getMessage("generic.DepthOutOfRange", maxLevel);
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        this.maxItemsPerNode = maxItemsPerNode;
+        this.maxLevel = maxLevel;
+    }
+
+    /**
+     * Indicates the interval between refreshes of the bounds of {@link ExtentHolder}s.
+     *
+     * @return the refresh interval in milliseconds.
+     */
+    public synchronized long getExtentRefreshInterval()
+    {
+        return this.extentRefreshInterval;
+    }
+
+    /**
+     * Specifies the interval between refreshes of the bounds of {@link ExtentHolder}s. Shorter intervals track shapes
+     * whose extents change more closely, at the cost of recomputing more bounds.
+     *
+     * @param interval the refresh interval in milliseconds.
+     */
+    public synchronized void setExtentRefreshInterval(long interval)
+    {
+        this.extentRefreshInterval = interval;
+    }
+
+    /**
+     * Returns the number of renderables in the tree.
+     *
+     * @return the number of renderables in the tree.
+     */
+    public synchronized int size()
+    {
+        return this.entries.size();
+    }
+
+    /**
+     * Adds a renderable to the tree. Does nothing if the renderable is already in the tree.
+     *
+     * @param renderable the renderable to add.
+     *
+     * @throws IllegalArgumentException if the renderable is null.
+     */
+    public synchronized void add(Renderable renderable)
+    {
+        if (renderable == null)
+        {
+            String msg = Logging.getMessage("nullValue.RenderableIsNull");
+            Logging.logger().severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        if (this.entries.containsKey(renderable))
+            return;
+
+        Entry entry = new Entry(renderable);
+        this.entries.put(renderable, entry);
+        this.insert(entry);
+    }
+
+    /**
+     * Removes a renderable from the tree. Does nothing if the renderable is not in the tree.
+     *
+     * @param renderable the renderable to remove.
+     *
+     * @throws IllegalArgumentException if the renderable is null.
+     */
+    public synchronized void remove(Renderable renderable)
+    {
+        if (renderable == null)
+        {
+            String msg = Logging.getMessage("nullValue.RenderableIsNull");
+            Logging.logger().severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        Entry entry = this.entries.remove(renderable);
+        if (entry != null)
+            this.detach(entry);
+    }
+
+    /**
+     * Reindexes a renderable whose geographic bounds or extent have changed. Does nothing if the renderable is not in
+     * the tree.
+     *
+     * @param renderable the renderable to reindex.
+     *
+     * @throws IllegalArgumentException if the renderable is null.
+     */
+    public synchronized void update(Renderable renderable)
+    {
+        if (renderable == null)
+        {
+            String msg = Logging.getMessage("nullValue.RenderableIsNull");
+            Logging.logger().severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        Entry entry = this.entries.get(renderable);
+        if (entry == null)
+            return;
+
+        this.detach(entry);
+        this.insert(entry);
+    }
+
+    /** Removes all renderables from the tree. */
+    public synchronized void clear()
+    {
+        this.root = new Node(null, Sector.FULL_SPHERE, 0);
+        this.entries.clear();
+        this.unboundedEntries.clear();
+    }
+
+    /**
+     * Adds the renderables that may intersect a frustum to a collection. Renderables whose bounds are known to lie
+     * outside the frustum are excluded; all others are added, including those without geographic bounds and those
+     * whose extents are not yet known. The order of the renderables is unspecified.
+     *
+     * @param globe                the globe the renderables are displayed on.
+     * @param verticalExaggeration the vertical exaggeration of the scene.
+     * @param frustum              the frustum in model coordinates.
+     * @param result               the collection to add the renderables to.
+     *
+     * @throws IllegalArgumentException if the globe, frustum or result is null.
+     */
+    public synchronized void getVisibleRenderables(Globe globe, double verticalExaggeration, Frustum frustum,
+        Collection<? super Renderable> result)
+    {
+        if (globe == null)
+        {
+            String msg = Logging.getMessage("nullValue.GlobeIsNull");
+            Logging.logger().severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        if (frustum == null)
+        {
+            String msg = Logging.getMessage("nullValue.FrustumIsNull");
+            Logging.logger().severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        if (result == null)
+        {
+            String msg = Logging.getMessage("nullValue.CollectionIsNull");
+            Logging.logger().severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        this.resolveUnboundedEntries(result);
+
+        if (this.root.count == 0)
+            return;
+
+        this.updateBounds(this.root, globe, verticalExaggeration, globe.getGlobeStateKey(),
+            System.currentTimeMillis());
+
+        Plane[] planes = frustum.getAllPlanes();
+        double[] planeCoords = new double[4 * planes.length];
+        for (int i = 0; i < planes.length; i++)
+        {
+            Vec4 v = planes[i].getVector();
+            planeCoords[4 * i] = v.x;
+            planeCoords[4 * i + 1] = v.y;
+            planeCoords[4 * i + 2] = v.z;
+            planeCoords[4 * i + 3] = v.w;
+        }
+
+        this.collectVisible(this.root, planeCoords, result);
+    }
+
+    /**
+     * Adds the unbounded entries to the result, first moving to the tree any whose geographic bounds have become
+     * known since they were added, such as a shape whose positions were specified after it was added.
+     *
+     * @param result the collection to add the unbounded renderables to.
+     */
+    protected void resolveUnboundedEntries(Collection<? super Renderable> result)
+    {
+        for (int i = 0; i < this.unboundedEntries.size(); )
+        {
+            Entry entry = this.unboundedEntries.get(i);
+            Sector sector = this.computeSector(entry.renderable);
+
+            if (sector != null)
+            {
+                int last = this.unboundedEntries.size() - 1;
+                this.unboundedEntries.set(i, this.unboundedEntries.get(last));
+                this.unboundedEntries.remove(last);
+                entry.sector = sector;
+                this.insertInTree(entry);
+            }
+            else
+            {
+                result.add(entry.renderable);
+                i++;
+            }
+        }
+    }
+
+    protected void collectVisible(Node node, double[] planes, Collection<? super Renderable> result)
+    {
+        if (node.count == 0)
+            return;
+
+        if (!node.hasUnknownBounds && !intersects(node.bounds, planes))
+            return;
+
+        if (node.entries != null)
+        {
+            for (Entry entry : node.entries)
+            {
+                if (!entry.boundsKnown || intersects(entry.bounds, planes))
+                    result.add(entry.renderable);
+            }
+        }
+
+        if (node.children != null)
+        {
+            for (Node child : node.children)
+            {
+                this.collectVisible(child, planes, result);
+            }
+        }
+    }
+
+    /**
+     * Indicates whether an axis-aligned box intersects the space enclosed by a set of planes. The box is outside if
+     * its corner farthest along any plane's normal is behind that plane. This is conservative: a box near a corner of
+     * the frustum may be reported as intersecting even though it lies outside.
+     *
+     * @param bounds the box as min x, min y, min z, max x, max y, max z.
+     * @param planes the planes as consecutive x, y, z, d tuples, with normals pointing inward.
+     *
+     * @return true if the box may intersect the enclosed space, otherwise false.
+     */
+    protected static boolean intersects(double[] bounds, double[] planes)
+    {
+        for (int i = 0; i < planes.length; i += 4)
+        {
+            double nx = planes[i];
+            double ny = planes[i + 1];
+            double nz = planes[i + 2];
+            double x = nx > 0 ? bounds[3] : bounds[0];
+            double y = ny > 0 ? bounds[4] : bounds[1];
+            double z = nz > 0 ? bounds[5] : bounds[2];
+
+            if (nx * x + ny * y + nz * z + planes[i + 3] < 0)
+                return false;
+        }
+
+        return true;
+    }
+
+    protected void updateBounds(Node node, Globe globe, double verticalExaggeration, Object globeStateKey, long now)
+    {
+        if (!node.dirty && !node.hasUnknownBounds && now < node.expiryTime
+            && node.verticalExaggeration == verticalExaggeration && globeStateKey.equals(node.globeStateKey))
+            return;
+
+        double[] b = node.bounds;
+        b[0] = b[1] = b[2] = Double.MAX_VALUE;
+        b[3] = b[4] = b[5] = -Double.MAX_VALUE;
+        node.hasUnknownBounds = false;
+        node.expiryTime = Long.MAX_VALUE;
+
+        if (node.entries != null)
+        {
+            for (Entry entry : node.entries)
+            {
+                entry.boundsKnown = this.computeBounds(entry.renderable, entry.sector, globe, verticalExaggeration,
+                    entry.bounds);
+
+                if (entry.boundsKnown)
+                    union(b, entry.bounds);
+                else
+                    node.hasUnknownBounds = true;
+
+                if (entry.renderable instanceof ExtentHolder)
+                    node.expiryTime = Math.min(node.expiryTime, now + this.extentRefreshInterval);
+            }
+        }
+
+        if (node.children != null)
+        {
+            for (Node child : node.children)
+            {
+                if (child.count == 0)
+                    continue;
+
+                this.updateBounds(child, globe, verticalExaggeration, globeStateKey, now);
+                node.hasUnknownBounds |= child.hasUnknownBounds;
+                node.expiryTime = Math.min(node.expiryTime, child.expiryTime);
+                union(b, child.bounds);
+            }
+        }
+
+        node.dirty = false;
+        node.globeStateKey = globeStateKey;
+        node.verticalExaggeration = verticalExaggeration;
+    }
+
+    protected static void union(double[] bounds, double[] other)
+    {
+        for (int i = 0; i < 3; i++)
+        {
+            if (other[i] < bounds[i])
+                bounds[i] = other[i];
+            if (other[i + 3] > bounds[i + 3])
+                bounds[i + 3] = other[i + 3];
+        }
+    }
+
+    /**
+     * Computes the Cartesian bounds of a renderable. The default implementation uses the extent of an {@link
+     * ExtentHolder}; the segment between the globe's lowest and highest elevations, offset by the renderable's own
+     * elevation, at a {@link Locatable}'s position; and the bounding box of a {@link GeographicExtent}'s sector.
+     *
+     * @param renderable           the renderable whose bounds are computed.
+     * @param sector               the renderable's geographic bounds.
+     * @param globe                the globe the renderable is displayed on.
+     * @param verticalExaggeration the vertical exaggeration of the scene.
+     * @param bounds               the array in which to return the bounds as min x, min y, min z, max x, max y, max
+     *                             z.
+     *
+     * @return true if the bounds are known, otherwise false.
+     */
+    protected boolean computeBounds(Renderable renderable, Sector sector, Globe globe, double verticalExaggeration,
+        double[] bounds)
+    {
+        if (renderable instanceof ExtentHolder)
+        {
+            Extent extent = ((ExtentHolder) renderable).getExtent(globe, verticalExaggeration);
+            if (extent == null)
+                return false;
+
+            setBounds(bounds, extent);
+            return true;
+        }
+
+        if (renderable instanceof Locatable)
+        {
+            Position position = ((Locatable) renderable).getPosition();
+            if (position == null)
+                return false;
+
+            double elevation = position.getElevation();
+            double minElevation = globe.getMinElevation() + Math.min(0, elevation);
+            double maxElevation = globe.getMaxElevation() + Math.max(0, elevation);
+            Vec4 p1 = globe.computePointFromPosition(position.getLatitude(), position.getLongitude(),
+                minElevation * verticalExaggeration);
+            Vec4 p2 = globe.computePointFromPosition(position.getLatitude(), position.getLongitude(),
+                maxElevation * verticalExaggeration);
+
+            bounds[0] = Math.min(p1.x, p2.x);
+            bounds[1] = Math.min(p1.y, p2.y);
+            bounds[2] = Math.min(p1.z, p2.z);
+            bounds[3] = Math.max(p1.x, p2.x);
+            bounds[4] = Math.max(p1.y, p2.y);
+            bounds[5] = Math.max(p1.z, p2.z);
+            return true;
+        }
+
+        if (sector != null)
+        {
+            setBounds(bounds, Sector.computeBoundingBox(globe, verticalExaggeration, sector));
+            return true;
+        }
+
+        return false;
+    }
+
+    protected static void setBounds(double[] bounds, Extent extent)
+    {
+        if (extent instanceof Box)
+        {
+            bounds[0] = bounds[1] = bounds[2] = Double.MAX_VALUE;
+            bounds[3] = bounds[4] = bounds[5] = -Double.MAX_VALUE;
+
+            for (Vec4 corner : ((Box) extent).getCorners())
+            {
+                bounds[0] = Math.min(bounds[0], corner.x);
+                bounds[1] = Math.min(bounds[1], corner.y);
+                bounds[2] = Math.min(bounds[2], corner.z);
+                bounds[3] = Math.max(bounds[3], corner.x);
+                bounds[4] = Math.max(bounds[4], corner.y);
+                bounds[5] = Math.max(bounds[5], corner.z);
+            }
+        }
+        else
+        {
+            Vec4 center = extent.getCenter();
+            double radius = extent.getRadius();
+            bounds[0] = center.x - radius;
+            bounds[1] = center.y - radius;
+            bounds[2] = center.z - radius;
+            bounds[3] = center.x + radius;
+            bounds[4] = center.y + radius;
+            bounds[5] = center.z + radius;
+        }
+    }
+
+    /**
+     * Returns the geographic bounds used to place a renderable in the tree: a {@link GeographicExtent}'s sector, or a
+     * {@link Locatable}'s position.
+     *
+     * @param renderable the renderable whose bounds are returned.
+     *
+     * @return the renderable's geographic bounds, or null if it has none.
+     */
+    protected Sector computeSector(Renderable renderable)
+    {
+        if (renderable instanceof GeographicExtent)
+        {
+            Sector sector = ((GeographicExtent) renderable).getSector();
+            if (sector != null)
+                return sector;
+        }
+
+        if (renderable instanceof Locatable)
+        {
+            Position position = ((Locatable) renderable).getPosition();
+            if (position != null)
+                return new Sector(position.getLatitude(), position.getLatitude(), position.getLongitude(),
+                    position.getLongitude());
+        }
+
+        return null;
+    }
+
+    protected void insert(Entry entry)
+    {
+        entry.sector = this.computeSector(entry.renderable);
+
+        if (entry.sector != null)
+            this.insertInTree(entry);
+        else
+            this.unboundedEntries.add(entry);
+    }
+
+    protected void insertInTree(Entry entry)
+    {
+        Node node = this.root;
+        while (node.children != null)
+        {
+            Node child = this.childContaining(node, entry.sector);
+            if (child == null)
+                break;
+
+            node = child;
+        }
+
+        this.addToNode(node, entry);
+
+        for (Node n = node; n != null; n = n.parent)
+        {
+            n.count++;
+            n.dirty = true;
+        }
+
+        if (node.children == null && node.entries.size() > this.maxItemsPerNode && node.level < this.maxLevel)
+            this.split(node);
+    }
+
+    protected void detach(Entry entry)
+    {
+        if (entry.node == null)
+        {
+            this.unboundedEntries.remove(entry);
+            return;
+        }
+
+        entry.node.entries.remove(entry);
+
+        for (Node n = entry.node; n != null; n = n.parent)
+        {
+            n.count--;
+            n.dirty = true;
+        }
+
+        entry.node = null;
+    }
+
+    protected void addToNode(Node node, Entry entry)
+    {
+        if (node.entries == null)
+            node.entries = new ArrayList<Entry>();
+
+        node.entries.add(entry);
+        entry.node = node;
+    }
+
+    protected void split(Node node)
+    {
+        Sector[] sectors = node.sector.subdivide();
+        node.children = new Node[sectors.length];
+        for (int i = 0; i < sectors.length; i++)
+        {
+            node.children[i] = new Node(node, sectors[i], node.level + 1);
+        }
+
+        ArrayList<Entry> remaining = new ArrayList<Entry>();
+        for (Entry entry : node.entries)
+        {
+            Node child = this.childContaining(node, entry.sector);
+            if (child != null)
+            {
+                this.addToNode(child, entry);
+                child.count++;
+            }
+            else
+            {
+                remaining.add(entry);
+            }
+        }
+
+        node.entries = remaining.size() > 0 ? remaining : null;
+    }
+
+    /**
+     * Returns the child of a node that contains a sector, or null if no single child contains it. Sectors on the
+     * boundary between children are assigned to the north and east children.
+     *
+     * @param node   the node whose children are searched.
+     * @param sector the sector to find a child for.
+     *
+     * @return the child containing the sector, or null if none contains it.
+     */
+    protected Node childContaining(Node node, Sector sector)
+    {
+        double midLat = 0.5 * (node.sector.getMinLatitude().degrees + node.sector.getMaxLatitude().degrees);
+        double midLon = 0.5 * (node.sector.getMinLongitude().degrees + node.sector.getMaxLongitude().degrees);
+
+        int row;
+        if (sector.getMinLatitude().degrees >= midLat)
+            row = 1;
+        else if (sector.getMaxLatitude().degrees < midLat)
+            row = 0;
+        else
+            return null;
+
+        int col;
+        if (sector.getMinLongitude().degrees >= midLon)
+            col = 1;
+        else if (sector.getMaxLongitude().degrees < midLon)
+            col = 0;
+        else
+            return null;
+
+        // Sector.subdivide orders the children southwest, southeast, northwest, northeast.
+        return node.children[2 * row + col];
+    }
+}
@@ -11,6 +11,7 @@ import gov.nasa.worldwind.avlist.*;
 import gov.nasa.worldwind.exception.WWRuntimeException;
 import gov.nasa.worldwind.geom.*;
 import gov.nasa.worldwind.render.*;
+import gov.nasa.worldwind.util.xml.CursorXMLEventReader;
 import org.w3c.dom.*;
 import org.xml.sax.SAXException;
 
@@ -350,6 +351,9 @@ public class WWXML
             throw new IllegalArgumentException(message);
         }
 
+        if (Configuration.getBooleanValue(AVKey.XML_CURSOR_PARSING_ENABLED, false))
+            return openCursorEventReaderStream(inputStream, isNamespaceAware);
+
         XMLInputFactory inputFactory = XMLInputFactory.newInstance();
         inputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, isNamespaceAware);
         inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
@@ -365,6 +369,48 @@ public class WWXML
         }
     }
 
+    /**
+     * Opens an XML event stream built on the cursor API of an {@link XMLStreamReader}, given an input stream and a
+     * namespace-aware processing mode. The returned reader produces the same events as the reader returned by {@link
+     * #openEventReaderStream(java.io.InputStream, boolean)}, but allocates less per event. See {@link
+     * gov.nasa.worldwind.util.xml.CursorXMLEventReader}.
+     * <p/>
+     * {@link #openEventReaderStream(java.io.InputStream, boolean)} and the methods that call it return a cursor-based
+     * reader when the configuration value {@link AVKey#XML_CURSOR_PARSING_ENABLED} is true.
+     *
+     * @param inputStream      an XML document as an input stream.
+     * @param isNamespaceAware true to enable namespace-aware processing and false to disable it.
+     *
+     * @return an XMLEventReader for the stream content.
+     *
+     * @throws IllegalArgumentException if the input stream is null.
+     * @throws WWRuntimeException       if an exception or error occurs while parsing the stream. The causing exception
+     *                                  is included in this exception's {@link Throwable#initCause(Throwable)}
+     */
+    public static XMLEventReader openCursorEventReaderStream(InputStream inputStream, boolean isNamespaceAware)
+    {
+        if (inputStream == null)
+        {
+            String message = Logging.getMessage("nullValue.InputStreamIsNull");
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+        inputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, isNamespaceAware);
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+
+        try
+        {
+            return new CursorXMLEventReader(inputFactory.createXMLStreamReader(inputStream));
+        }
+        catch (XMLStreamException e)
+        {
+            String message = Logging.getMessage("generic.ExceptionAttemptingToParseXml", inputStream);
+            throw new WWRuntimeException(message, e);
+        }
+    }
+
     /**
      * Opens an XML event stream given an input stream.
      *
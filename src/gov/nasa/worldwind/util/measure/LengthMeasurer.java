@@ -357,13 +357,18 @@ public class LengthMeasurer implements MeasurableLength
         for (int i = 1; i < count; i++)
         {
             Position pos2 = positions.get(start + i);
-            double arcLengthRadians = LatLon.greatCircleDistance(pos1, pos2).radians;
+            double lat1 = pos1.getLatitude().radians;
+            double lon1 = pos1.getLongitude().radians;
+            double lat2 = pos2.getLatitude().radians;
+            double lon2 = pos2.getLongitude().radians;
+            double arcLengthRadians = Geodesy.greatCircleDistance(lat1, lon1, lat2, lon2);
             double arcLength = arcLengthRadians * globe.getRadiusAt(LatLon.interpolate(.5, pos1, pos2));
             if (arcLength > maxLength)
             {
                 // if necessary subdivide segment at regular intervals smaller then maxLength
-                Angle segmentAzimuth = null;
-                Angle segmentDistance = null;
+                double segmentAzimuth = 0;
+                double segmentDistance = -1;
+                double[] location = new double[2];
                 int steps = (int) Math.ceil(arcLength / maxLength);  // number of intervals - at least two
                 for (int j = 1; j < steps; j++)
                 {
@@ -375,23 +380,23 @@ public class LengthMeasurer implements MeasurableLength
                     }
                     else if (pathType == Polyline.RHUMB_LINE)
                     {
-                        if (segmentAzimuth == null)
+                        if (segmentDistance < 0)
                         {
-                            segmentAzimuth = LatLon.rhumbAzimuth(pos1, pos2);
-                            segmentDistance = LatLon.rhumbDistance(pos1, pos2);
+                            segmentAzimuth = Geodesy.rhumbAzimuth(lat1, lon1, lat2, lon2);
+                            segmentDistance = Geodesy.rhumbDistance(lat1, lon1, lat2, lon2);
                         }
-                        destLatLon = LatLon.rhumbEndPosition(pos1, segmentAzimuth.radians,
-                            s * segmentDistance.radians);
+                        Geodesy.rhumbEndPosition(lat1, lon1, segmentAzimuth, s * segmentDistance, location, 0);
+                        destLatLon = LatLon.fromRadians(location[0], location[1]);
                     }
                     else // GREAT_CIRCLE
                     {
-                        if (segmentAzimuth == null)
+                        if (segmentDistance < 0)
                         {
-                            segmentAzimuth = LatLon.greatCircleAzimuth(pos1, pos2);
-                            segmentDistance = LatLon.greatCircleDistance(pos1, pos2);
+                            segmentAzimuth = Geodesy.greatCircleAzimuth(lat1, lon1, lat2, lon2);
+                            segmentDistance = Geodesy.greatCircleDistance(lat1, lon1, lat2, lon2);
                         }
-                        destLatLon = LatLon.greatCircleEndPosition(pos1, segmentAzimuth.radians,
-                            s * segmentDistance.radians);
+                        Geodesy.greatCircleEndPosition(lat1, lon1, segmentAzimuth, s * segmentDistance, location, 0);
+                        destLatLon = LatLon.fromRadians(location[0], location[1]);
                     }
                     // Set elevation
                     double elevation;
@@ -0,0 +1,655 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+
+package gov.nasa.worldwind.util.measure;
+
+import gov.nasa.worldwind.avlist.AVKey;
+import gov.nasa.worldwind.geom.*;
+import gov.nasa.worldwind.globes.Globe;
+import gov.nasa.worldwind.util.Logging;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Computes terrain following surface area, perimeter and length on a globe, dividing the work among the threads of a
+ * fork/join pool. Unlike {@link AreaMeasurer} and {@link LengthMeasurer}, a terrain measurer keeps no state between
+ * measurements and draws no elevations one location at a time, so once configured one instance may be shared by any
+ * number of threads and used outside of a {@link MeasureTool}, for example in headless analysis jobs.
+ * <p/>
+ * Surface area is approximated the same way as {@link AreaMeasurer}: the bounding sector of the shape is sampled with
+ * square cells, and the area of each cell whose center is inside the shape is scaled according to the terrain slope at
+ * the cell's south-west corner. The cells are grouped into tiles of {@link #TILE_SIZE} by {@link #TILE_SIZE} cells.
+ * Each tile is measured by one task, which draws the elevations at all its cell corners from the globe in a single
+ * request. Length is approximated the same way as {@link LengthMeasurer}: the path is sampled at regular intervals,
+ * and the distances between the samples at their terrain elevations are summed. The samples are measured in blocks of
+ * {@link #BLOCK_SIZE}, each drawing its elevations in a single request.
+ * <p/>
+ * Every measurement is also made at half the sampling resolution, and the difference between the two values is
+ * reported as the measurement's error bound. Since these approximations converge as the sampling resolution
+ * increases, the bound is a conservative estimate of the error remaining at the full resolution.
+ *
+ * @version $Id$
+ * @see AreaMeasurer
+ * @see LengthMeasurer
+ */
+public class TerrainMeasurer
+{
+    /** The number of rows and columns of area sampling cells measured by each parallel task. */
+    public static final int TILE_SIZE = 16;
+    /** The number of length samples measured by each parallel task. */
+    public static final int BLOCK_SIZE = 1024;
+
+    protected static final double DEFAULT_MAX_SEGMENT_LENGTH = 100e3; // size above which segments are subdivided
+    protected static final double DEFAULT_MIN_SEGMENT_LENGTH = 30; // minimum length of a terrain following subdivision
+    protected static final double RADIANS_TO_DEGREES = 180d / Math.PI;
+
+    /** The result of a measurement. */
+    public static class Measurement
+    {
+        protected final double value;
+        protected final double errorBound;
+        protected final int sampleCount;
+
+        public Measurement(double value, double errorBound, int sampleCount)
+        {
+            this.value = value;
+            this.errorBound = errorBound;
+            this.sampleCount = sampleCount;
+        }
+
+        /**
+         * Returns the measured value, in meters for a length and in square meters for an area.
+         *
+         * @return the measured value.
+         */
+        public double getValue()
+        {
+            return this.value;
+        }
+
+        /**
+         * Returns the difference between the measured value and the same value measured at half the sampling
+         * resolution.
+         *
+         * @return the measurement's error bound, in the units of its value.
+         */
+        public double getErrorBound()
+        {
+            return this.errorBound;
+        }
+
+        /**
+         * Returns the number of elevation samples that contributed to the measured value.
+         *
+         * @return the number of elevation samples.
+         */
+        public int getSampleCount()
+        {
+            return this.sampleCount;
+        }
+
+        @Override
+        public String toString()
+        {
+            return this.value + " +/- " + this.errorBound + " (" + this.sampleCount + " samples)";
+        }
+    }
+
+    protected final Globe globe;
+    protected final ForkJoinPool pool;
+    protected String pathType = AVKey.GREAT_CIRCLE;
+    protected double maxSegmentLength = DEFAULT_MAX_SEGMENT_LENGTH;
+
+    /**
+     * Constructs a measurer for a globe that measures in parallel using the common fork/join pool.
+     *
+     * @param globe the globe to draw elevations and radii from.
+     *
+     * @throws IllegalArgumentException if the globe is null.
+     */
+    public TerrainMeasurer(Globe globe)
+    {
+        this(globe, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a measurer for a globe that measures in parallel using a specified fork/join pool.
+     *
+     * @param globe the globe to draw elevations and radii from.
+     * @param pool  the pool that performs the measurements, or null to measure on the calling thread.
+     *
+     * @throws IllegalArgumentException if the globe is null.
+     */
+    public TerrainMeasurer(Globe globe, ForkJoinPool pool)
+    {
+        if (globe == null)
+        {
+            String message = Logging.getMessage("nullValue.GlobeIsNull");
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        this.globe = globe;
+        this.pool = pool;
+    }
+
+    public Globe getGlobe()
+    {
+        return this.globe;
+    }
+
+    public ForkJoinPool getPool()
+    {
+        return this.pool;
+    }
+
+    public String getPathType()
+    {
+        return this.pathType;
+    }
+
+    /**
+     * Specifies the type of path between the measured locations, one of {@link AVKey#GREAT_CIRCLE}, {@link
+     * AVKey#RHUMB_LINE} or {@link AVKey#LINEAR}. The default is {@link AVKey#GREAT_CIRCLE}.
+     *
+     * @param pathType the type of path between locations.
+     *
+     * @throws IllegalArgumentException if the path type is null.
+     */
+    public void setPathType(String pathType)
+    {
+        if (pathType == null)
+        {
+            String message = Logging.getMessage("nullValue.PathTypeIsNull");
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        this.pathType = pathType;
+    }
+
+    /**
+     * Get the maximum length a segment can have before being subdivided along a line following the current pathType.
+     *
+     * @return the maximum length a segment can have before being subdivided.
+     */
+    public double getMaxSegmentLength()
+    {
+        return this.maxSegmentLength;
+    }
+
+    /**
+     * Set the maximum length a segment can have before being subdivided along a line following the current pathType.
+     *
+     * @param length the maximum length a segment can have before being subdivided.
+     *
+     * @throws IllegalArgumentException if the length is not positive.
+     */
+    public void setMaxSegmentLength(double length)
+    {
+        if (length <= 0)
+        {
+            String message = Logging.getMessage("generic.ArgumentOutOfRange", length);
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        this.maxSegmentLength = length;
+    }
+
+    /**
+     * Computes the terrain following area of a shape. The shape's boundary is closed if its last location is not
+     * equal to its first.
+     *
+     * @param locations the shape's boundary.
+     * @param steps     the maximum number of rows or columns of the area sampling grid.
+     *
+     * @return the shape's surface area in square meters.
+     *
+     * @throws IllegalArgumentException if the location list is null or contains fewer than three locations, or if the
+     *                                  number of steps is less than one.
+     * @see AreaMeasurer#setAreaTerrainSamplingSteps(double)
+     */
+    public Measurement measureArea(List<? extends LatLon> locations, int steps)
+    {
+        checkLocations(locations, 3);
+
+        if (steps < 1)
+        {
+            String message = Logging.getMessage("generic.ArgumentOutOfRange", steps);
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        // Subdivide the boundary so that its segments are short enough to be tested as straight lines in degrees.
+        double[] path = Geodesy.pack(locations);
+        double[] boundary = Geodesy.densify(this.pathType, path, locations.size(),
+            this.maxSegmentLength / this.globe.getRadius());
+        int n = boundary.length / 2;
+        boolean closed = boundary[0] == boundary[2 * n - 2] && boundary[1] == boundary[2 * n - 1];
+
+        // Keep the original locations' degrees, which the conversion to radians and back may not preserve exactly.
+        double[] degrees = new double[closed ? 2 * n : 2 * n + 2];
+        for (int i = 0, j = 0; i < n; i++)
+        {
+            if (j < locations.size() && boundary[2 * i] == path[2 * j] && boundary[2 * i + 1] == path[2 * j + 1])
+            {
+                degrees[2 * i] = locations.get(j).getLatitude().degrees;
+                degrees[2 * i + 1] = locations.get(j).getLongitude().degrees;
+                j++;
+            }
+            else
+            {
+                degrees[2 * i] = boundary[2 * i] * RADIANS_TO_DEGREES;
+                degrees[2 * i + 1] = boundary[2 * i + 1] * RADIANS_TO_DEGREES;
+            }
+        }
+
+        if (!closed)
+        {
+            degrees[2 * n] = degrees[0];
+            degrees[2 * n + 1] = degrees[1];
+            n++;
+        }
+
+        Sector sector = Sector.boundingSector(locations);
+        AreaGrid grid = new AreaGrid(sector, degrees, n, steps);
+        double[] result = this.sum(grid, grid.tileCount, 1);
+
+        double bound = 0;
+        if (steps > 1)
+        {
+            AreaGrid coarse = new AreaGrid(sector, degrees, n, steps / 2);
+            bound = Math.abs(result[0] - this.sum(coarse, coarse.tileCount, 1)[0]);
+        }
+
+        return new Measurement(result[0], bound, (int) result[1]);
+    }
+
+    /**
+     * Computes the terrain following perimeter of a shape. The shape's boundary is closed if its last location is not
+     * equal to its first.
+     *
+     * @param locations the shape's boundary.
+     * @param steps     the minimum number of elevation samples along the boundary.
+     *
+     * @return the shape's perimeter in meters.
+     *
+     * @throws IllegalArgumentException if the location list is null or contains fewer than three locations, or if the
+     *                                  number of steps is less than one.
+     */
+    public Measurement measurePerimeter(List<? extends LatLon> locations, int steps)
+    {
+        checkLocations(locations, 3);
+
+        if (locations.get(0).equals(locations.get(locations.size() - 1)))
+            return this.measureLength(locations, steps);
+
+        List<LatLon> closed = new ArrayList<LatLon>(locations);
+        closed.add(locations.get(0));
+        return this.measureLength(closed, steps);
+    }
+
+    /**
+     * Computes the terrain following length of a path.
+     *
+     * @param locations the path's locations.
+     * @param steps     the minimum number of elevation samples along the path.
+     *
+     * @return the path's length in meters.
+     *
+     * @throws IllegalArgumentException if the location list is null or contains fewer than two locations, or if the
+     *                                  number of steps is less than one.
+     * @see LengthMeasurer#setLengthTerrainSamplingSteps(double)
+     */
+    public Measurement measureLength(List<? extends LatLon> locations, int steps)
+    {
+        checkLocations(locations, 2);
+
+        if (steps < 1)
+        {
+            String message = Logging.getMessage("generic.ArgumentOutOfRange", steps);
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        // Determine the sampling interval so as to have at least the requested number of samples, but no samples
+        // closer than DEFAULT_MIN_SEGMENT_LENGTH either.
+        double[] path = Geodesy.pack(locations);
+        double radius = this.globe.getRadius();
+        double interval = Geodesy.pathLength(this.pathType, path, locations.size(), null) * radius / steps;
+        interval = Math.min(Math.max(interval, DEFAULT_MIN_SEGMENT_LENGTH), this.maxSegmentLength);
+
+        double[] samples = Geodesy.densify(this.pathType, path, locations.size(), interval / radius);
+        int n = samples.length / 2;
+        double[] result = this.sum(new LengthSampler(samples, interval / radius), n - 1, BLOCK_SIZE);
+
+        return new Measurement(result[0], Math.abs(result[0] - result[1]), n);
+    }
+
+    /** Measures a range of tiles or samples on the calling thread. */
+    protected interface BlockMeasurer
+    {
+        /**
+         * Measures the items from <code>start</code> up to but not including <code>end</code>.
+         *
+         * @param start the first item to measure.
+         * @param end   the index following the last item to measure.
+         *
+         * @return the partial sums of the measurement.
+         */
+        double[] measure(int start, int end);
+    }
+
+    protected double[] sum(BlockMeasurer measurer, int count, int blockSize)
+    {
+        if (this.pool == null || count <= blockSize)
+            return measurer.measure(0, count);
+
+        return this.pool.invoke(new SumTask(measurer, 0, count, blockSize));
+    }
+
+    /** Divides a range of items into blocks and sums their measurements in parallel. */
+    protected static class SumTask extends RecursiveTask<double[]>
+    {
+        protected final BlockMeasurer measurer;
+        protected final int start;
+        protected final int end;
+        protected final int blockSize;
+
+        public SumTask(BlockMeasurer measurer, int start, int end, int blockSize)
+        {
+            this.measurer = measurer;
+            this.start = start;
+            this.end = end;
+            this.blockSize = blockSize;
+        }
+
+        @Override
+        protected double[] compute()
+        {
+            if (this.end - this.start <= this.blockSize)
+                return this.measurer.measure(this.start, this.end);
+
+            // Split on a block boundary so that every block but the last is full.
+            int blocks = (this.end - this.start + this.blockSize - 1) / this.blockSize;
+            int mid = this.start + (blocks / 2) * this.blockSize;
+
+            SumTask left = new SumTask(this.measurer, this.start, mid, this.blockSize);
+            left.fork();
+            double[] sums = new SumTask(this.measurer, mid, this.end, this.blockSize).compute();
+            double[] leftSums = left.join();
+            for (int i = 0; i < sums.length; i++)
+            {
+                sums[i] += leftSums[i];
+            }
+
+            return sums;
+        }
+    }
+
+    /**
+     * Measures the surface area of the tiles of a sampling grid. The partial sums are the surface area and the number
+     * of cells inside the shape.
+     */
+    protected class AreaGrid implements BlockMeasurer
+    {
+        protected final double[] boundary;
+        protected final int boundaryCount;
+        protected final double minLat;
+        protected final double minLon;
+        protected final double latStep;
+        protected final double lonStep;
+        protected final int latSteps;
+        protected final int lonSteps;
+        protected final int tileColumns;
+        protected final int tileCount;
+        protected final double centroidLon;
+
+        /**
+         * Constructs a sampling grid for a shape, with the same cell layout as that of {@link AreaMeasurer}.
+         *
+         * @param sector        the shape's bounding sector.
+         * @param boundary      the shape's closed boundary, as latitude and longitude pairs in degrees.
+         * @param boundaryCount the number of boundary locations.
+         * @param steps         the maximum number of rows or columns of the grid.
+         */
+        public AreaGrid(Sector sector, double[] boundary, int boundaryCount, int steps)
+        {
+            this.boundary = boundary;
+            this.boundaryCount = boundaryCount;
+
+            // Sample the bounding sector with cells about the same length in side - squares
+            double stepRadians = Math.max(sector.getDeltaLatRadians() / steps, sector.getDeltaLonRadians() / steps);
+            this.latSteps = Math.max(1, (int) Math.round(sector.getDeltaLatRadians() / stepRadians));
+            this.lonSteps = Math.max(1, (int) Math.round(sector.getDeltaLonRadians() / stepRadians
+                * Math.cos(sector.getCentroid().getLatitude().radians)));
+            this.latStep = sector.getDeltaLatRadians() / this.latSteps;
+            this.lonStep = sector.getDeltaLonRadians() / this.lonSteps;
+            this.minLat = sector.getMinLatitude().radians;
+            this.minLon = sector.getMinLongitude().radians;
+            this.centroidLon = sector.getCentroid().getLongitude().radians;
+
+            int tileRows = (this.latSteps + TILE_SIZE - 1) / TILE_SIZE;
+            this.tileColumns = (this.lonSteps + TILE_SIZE - 1) / TILE_SIZE;
+            this.tileCount = tileRows * this.tileColumns;
+        }
+
+        public double[] measure(int start, int end)
+        {
+            double[] sums = new double[2];
+            for (int tile = start; tile < end; tile++)
+            {
+                this.measureTile(tile, sums);
+            }
+
+            return sums;
+        }
+
+        protected void measureTile(int tile, double[] sums)
+        {
+            int row0 = (tile / this.tileColumns) * TILE_SIZE;
+            int col0 = (tile % this.tileColumns) * TILE_SIZE;
+            int rows = Math.min(TILE_SIZE, this.latSteps - row0);
+            int cols = Math.min(TILE_SIZE, this.lonSteps - col0);
+
+            // Select the cells whose center is inside the shape.
+            boolean[] inside = new boolean[rows * cols];
+            double[] crossings = new double[this.boundaryCount];
+            int insideCount = 0;
+            for (int i = 0; i < rows; i++)
+            {
+                double lat = this.minLat + this.latStep * (row0 + i);
+                double centerLat = (lat * RADIANS_TO_DEGREES + (lat + this.latStep) * RADIANS_TO_DEGREES) / 2;
+                int numCrossings = this.computeCrossings(centerLat, crossings);
+
+                for (int j = 0; j < cols; j++)
+                {
+                    double lon = this.minLon + this.lonStep * (col0 + j);
+                    double centerLon = (lon * RADIANS_TO_DEGREES + (lon + this.lonStep) * RADIANS_TO_DEGREES) / 2;
+
+                    // The center is inside if an odd number of boundary crossings lie to its east.
+                    int east = numCrossings - upperBound(crossings, numCrossings, centerLon);
+                    if ((east & 1) != 0)
+                    {
+                        inside[i * cols + j] = true;
+                        insideCount++;
+                    }
+                }
+            }
+
+            if (insideCount == 0)
+                return;
+
+            // Draw the elevations at every cell corner of the tile in a single request.
+            List<LatLon> corners = new ArrayList<LatLon>((rows + 1) * (cols + 1));
+            for (int i = 0; i <= rows; i++)
+            {
+                for (int j = 0; j <= cols; j++)
+                {
+                    corners.add(LatLon.fromRadians(this.minLat + this.latStep * (row0 + i),
+                        this.minLon + this.lonStep * (col0 + j)));
+                }
+            }
+            double[] elevations = new double[corners.size()];
+            Sector tileSector = Sector.fromRadians(this.minLat + this.latStep * row0,
+                this.minLat + this.latStep * (row0 + rows), this.minLon + this.lonStep * col0,
+                this.minLon + this.lonStep * (col0 + cols));
+            globe.getElevations(tileSector, corners, Math.min(this.latStep, this.lonStep), elevations);
+
+            double area = 0;
+            for (int i = 0; i < rows; i++)
+            {
+                // Compute this latitude row cells area
+                double lat = this.minLat + this.latStep * (row0 + i);
+                double radius = globe.getRadiusAt(Angle.fromRadians(lat + this.latStep / 2),
+                    Angle.fromRadians(this.centroidLon));
+                double cellWidth = this.lonStep * radius * Math.cos(lat + this.latStep / 2);
+                double cellHeight = this.latStep * radius;
+
+                for (int j = 0; j < cols; j++)
+                {
+                    if (!inside[i * cols + j])
+                        continue;
+
+                    // Scale the cell area according to the terrain normal at its SW corner. The normal is the cross
+                    // product of the cell's east and north edges, so the scaled area is that product's length.
+                    double eleSW = elevations[i * (cols + 1) + j];
+                    double dx = elevations[i * (cols + 1) + j + 1] - eleSW;
+                    double dy = elevations[(i + 1) * (cols + 1) + j] - eleSW;
+                    area += Math.sqrt(cellWidth * cellWidth * cellHeight * cellHeight + dx * dx * cellHeight
+                        * cellHeight + cellWidth * cellWidth * dy * dy);
+                }
+            }
+
+            sums[0] += area;
+            sums[1] += insideCount;
+        }
+
+        /**
+         * Computes the sorted longitudes at which the boundary crosses a line of constant latitude, with the same
+         * crossing test as {@link gov.nasa.worldwind.util.WWMath#isLocationInside(LatLon, Iterable)}.
+         *
+         * @param lat       the latitude in degrees.
+         * @param crossings receives the crossing longitudes in degrees.
+         *
+         * @return the number of crossings.
+         */
+        protected int computeCrossings(double lat, double[] crossings)
+        {
+            int count = 0;
+            for (int k = 2; k < 2 * this.boundaryCount; k += 2)
+            {
+                double lat1 = this.boundary[k - 2];
+                double lon1 = this.boundary[k - 1];
+                double lat2 = this.boundary[k];
+                double lon2 = this.boundary[k + 1];
+
+                if ((lat2 <= lat && lat < lat1) || (lat1 <= lat && lat < lat2))
+                    crossings[count++] = (lon1 - lon2) * (lat - lat2) / (lat1 - lat2) + lon2;
+            }
+
+            Arrays.sort(crossings, 0, count);
+            return count;
+        }
+    }
+
+    /**
+     * Returns the number of leading values in a sorted array that are less than or equal to a specified value.
+     *
+     * @param values the sorted values.
+     * @param count  the number of values.
+     * @param value  the value to compare.
+     *
+     * @return the number of values less than or equal to <code>value</code>.
+     */
+    protected static int upperBound(double[] values, int count, double value)
+    {
+        int low = 0;
+        int high = count;
+        while (low < high)
+        {
+            int mid = (low + high) >>> 1;
+            if (values[mid] <= value)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+
+        return low;
+    }
+
+    /**
+     * Measures the length of blocks of path segments between terrain samples. The partial sums are the length at the
+     * full sampling resolution and the length through every other sample.
+     */
+    protected class LengthSampler implements BlockMeasurer
+    {
+        protected final double[] samples;
+        protected final double interval;
+
+        /**
+         * Constructs a sampler for a path sampled at regular intervals.
+         *
+         * @param samples  the sample locations as latitude and longitude pairs in radians.
+         * @param interval the maximum distance between samples, in radians.
+         */
+        public LengthSampler(double[] samples, double interval)
+        {
+            this.samples = samples;
+            this.interval = interval;
+        }
+
+        public double[] measure(int start, int end)
+        {
+            // Blocks start on an even sample, so each covers the coarse segments that start within it, which end no
+            // later than its last sample.
+            List<LatLon> locations = new ArrayList<LatLon>(end - start + 1);
+            for (int i = start; i <= end; i++)
+            {
+                locations.add(LatLon.fromRadians(this.samples[2 * i], this.samples[2 * i + 1]));
+            }
+            double[] elevations = new double[locations.size()];
+            globe.getElevations(Sector.boundingSector(locations), locations, this.interval, elevations);
+
+            Vec4[] points = new Vec4[locations.size()];
+            for (int i = 0; i < points.length; i++)
+            {
+                LatLon location = locations.get(i);
+                points[i] = globe.computeEllipsoidalPointFromPosition(location.getLatitude(),
+                    location.getLongitude(), elevations[i]);
+            }
+
+            double[] sums = new double[2];
+            for (int i = start; i < end; i++)
+            {
+                sums[0] += points[i - start].distanceTo3(points[i + 1 - start]);
+                if ((i & 1) == 0)
+                    sums[1] += points[i - start].distanceTo3(points[Math.min(i + 2, end) - start]);
+            }
+
+            return sums;
+        }
+    }
+
+    protected static void checkLocations(List<? extends LatLon> locations, int minCount)
+    {
+        if (locations == null)
+        {
+            String message = Logging.getMessage("nullValue.LocationsListIsNull");
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        if (locations.size() < minCount)
+        {
+            String message = Logging.getMessage("generic.ListLengthInsufficient", locations.size());
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+    }
+}
@@ -211,7 +211,10 @@ public class BasicXMLEventParserContext extends AVListImpl implements XMLEventPa
     }
 
     /**
-     * Specify the event reader for the parser context to use to parse XML.
+     * Specify the event reader for the parser context to use to parse XML. The reader may be a {@link
+     * CursorXMLEventReader}, such as one returned by {@link
+     * gov.nasa.worldwind.util.WWXML#openCursorEventReaderStream(java.io.InputStream, boolean)}, to parse using the
+     * cursor-based backend. Both backends produce the same parser results.
      *
      * @param reader the event reader to use.
      */
@@ -258,8 +261,17 @@ public class BasicXMLEventParserContext extends AVListImpl implements XMLEventPa
         return this.getEventReader().hasNext();
     }
 
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Whitespace-only character events are skipped. If this context's event reader is a {@link CursorXMLEventReader},
+     * whitespace is skipped by the reader without allocating events for it.
+     */
     public XMLEvent nextEvent() throws XMLStreamException
     {
+        if (this.reader instanceof CursorXMLEventReader)
+            return ((CursorXMLEventReader) this.reader).nextNonWhitespaceEvent();
+
         while (this.hasNext())
         {
             XMLEvent event = this.getEventReader().nextEvent();
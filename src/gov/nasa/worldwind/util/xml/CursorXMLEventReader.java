@@ -0,0 +1,893 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+
+package gov.nasa.worldwind.util.xml;
+
+import gov.nasa.worldwind.util.Logging;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.*;
+import javax.xml.stream.*;
+import javax.xml.stream.events.*;
+import java.io.*;
+import java.util.*;
+
+/**
+ * An {@link XMLEventReader} built on the cursor API of an {@link XMLStreamReader}. The events produced by this reader
+ * are lightweight: start elements hold their name and attributes in flat arrays, attribute and namespace objects are
+ * created only when requested, and element and attribute names are interned per reader so that each distinct name is
+ * represented by a single {@link QName}.
+ * <p/>
+ * The reader produces the same event sequence as the event reader created by {@link XMLInputFactory} for the same
+ * stream, and may therefore be used anywhere an <code>XMLEventReader</code> is expected. In addition, {@link
+ * #nextNonWhitespaceEvent()} skips whitespace-only character data at the cursor level without allocating an event or
+ * a string for it. {@link BasicXMLEventParserContext} uses that method when its event reader is an instance of this
+ * class.
+ * <p/>
+ * Instances of this class are not thread safe.
+ *
+ * @version $Id$
+ */
+public class CursorXMLEventReader implements XMLEventReader
+{
+    protected XMLStreamReader streamReader;
+    /** The next event to return, or null if the cursor's current state has already been returned. */
+    protected XMLEvent peekedEvent;
+    /** Interned element and attribute names, keyed by namespace URI and then local name. */
+    protected Map<String, Map<String, QName>> names = new HashMap<String, Map<String, QName>>();
+    /** Used to create the infrequent event types that this reader does not implement itself. */
+    protected XMLEventFactory eventFactory;
+
+    /**
+     * Constructs a reader for a specified stream reader. The stream reader's current event, typically the start of the
+     * document, is the first event this reader returns.
+     *
+     * @param streamReader the stream reader to read events from.
+     *
+     * @throws IllegalArgumentException if the stream reader is null.
+     */
+    public CursorXMLEventReader(XMLStreamReader streamReader)
+    {
+        if (streamReader == null)
+        {
+            String message = Logging.getMessage("nullValue.ReaderIsNull");
+            Logging.logger().severe(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        this.streamReader = streamReader;
+
+        // Like the JDK event reader, report the stream reader's current state, usually the start of the document, as
+        // the first event.
+        this.peekedEvent = this.allocate();
+    }
+
+    /**
+     * Returns the stream reader this reader is built on.
+     *
+     * @return this reader's stream reader.
+     */
+    public XMLStreamReader getStreamReader()
+    {
+        return this.streamReader;
+    }
+
+    public boolean hasNext()
+    {
+        if (this.peekedEvent != null)
+            return true;
+
+        try
+        {
+            return this.streamReader.hasNext();
+        }
+        catch (XMLStreamException e)
+        {
+            return false;
+        }
+    }
+
+    public XMLEvent nextEvent() throws XMLStreamException
+    {
+        if (this.peekedEvent != null)
+        {
+            XMLEvent event = this.peekedEvent;
+            this.peekedEvent = null;
+            return event;
+        }
+
+        if (!this.streamReader.hasNext())
+            throw new NoSuchElementException();
+
+        this.streamReader.next();
+
+        return this.allocate();
+    }
+
+    /**
+     * Returns the next event that is not whitespace-only character data, or null if the stream contains no more such
+     * events. Whitespace is detected directly in the stream reader's character buffer, so skipped whitespace costs no
+     * allocation.
+     *
+     * @return the next non-whitespace event, or null if there are no more events.
+     *
+     * @throws XMLStreamException if there is an error with the underlying XML.
+     */
+    public XMLEvent nextNonWhitespaceEvent() throws XMLStreamException
+    {
+        if (this.peekedEvent != null)
+        {
+            XMLEvent event = this.peekedEvent;
+            this.peekedEvent = null;
+
+            if (!(event.isCharacters() && event.asCharacters().isWhiteSpace()))
+                return event;
+        }
+
+        while (this.streamReader.hasNext())
+        {
+            this.streamReader.next();
+
+            if (this.isWhiteSpace())
+                continue;
+
+            return this.allocate();
+        }
+
+        return null;
+    }
+
+    public Object next()
+    {
+        try
+        {
+            return this.nextEvent();
+        }
+        catch (XMLStreamException e)
+        {
+            NoSuchElementException nse = new NoSuchElementException(e.getMessage());
+            nse.initCause(e);
+            throw nse;
+        }
+    }
+
+    public void remove()
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    public XMLEvent peek() throws XMLStreamException
+    {
+        if (this.peekedEvent != null)
+            return this.peekedEvent;
+
+        if (!this.streamReader.hasNext())
+            return null;
+
+        this.streamReader.next();
+        this.peekedEvent = this.allocate();
+
+        return this.peekedEvent;
+    }
+
+    public String getElementText() throws XMLStreamException
+    {
+        StringBuilder sb = new StringBuilder();
+
+        for (XMLEvent event = this.nextEvent(); ; event = this.nextEvent())
+        {
+            if (event.isEndElement())
+                break;
+
+            if (event.isCharacters())
+            {
+                sb.append(event.asCharacters().getData());
+            }
+            else if (event.isStartElement())
+            {
+                throw new XMLStreamException("Element text content may not contain start element",
+                    event.getLocation());
+            }
+            else if (event.isEndDocument())
+            {
+                throw new XMLStreamException("Unexpected end of document when reading element text content",
+                    event.getLocation());
+            }
+        }
+
+        return sb.toString();
+    }
+
+    public XMLEvent nextTag() throws XMLStreamException
+    {
+        for (XMLEvent event = this.nextEvent(); ; event = this.nextEvent())
+        {
+            if (event.isStartElement() || event.isEndElement())
+                return event;
+
+            int type = event.getEventType();
+            boolean skip = type == XMLStreamConstants.SPACE || type == XMLStreamConstants.COMMENT
+                || type == XMLStreamConstants.PROCESSING_INSTRUCTION || type == XMLStreamConstants.START_DOCUMENT
+                || (event.isCharacters() && event.asCharacters().isWhiteSpace());
+
+            if (!skip)
+                throw new XMLStreamException("Expected start or end tag", event.getLocation());
+        }
+    }
+
+    public Object getProperty(String name) throws IllegalArgumentException
+    {
+        return this.streamReader.getProperty(name);
+    }
+
+    public void close() throws XMLStreamException
+    {
+        this.streamReader.close();
+    }
+
+    /**
+     * Indicates whether the cursor's current state is character data consisting only of XML whitespace. Examines the
+     * stream reader's character buffer in place.
+     *
+     * @return true if the current state is whitespace-only character data, otherwise false.
+     */
+    protected boolean isWhiteSpace()
+    {
+        int type = this.streamReader.getEventType();
+        if (type == XMLStreamConstants.SPACE)
+            return true;
+
+        if (type != XMLStreamConstants.CHARACTERS && type != XMLStreamConstants.CDATA)
+            return false;
+
+        char[] chars = this.streamReader.getTextCharacters();
+        int start = this.streamReader.getTextStart();
+        int end = start + this.streamReader.getTextLength();
+
+        for (int i = start; i < end; i++)
+        {
+            if (!isSpace(chars[i]))
+                return false;
+        }
+
+        return true;
+    }
+
+    protected static boolean isSpace(char c)
+    {
+        return c == ' ' || c == '\n' || c == '\t' || c == '\r';
+    }
+
+    /**
+     * Returns the interned name for a specified namespace, local name and prefix.
+     *
+     * @param namespaceURI the name's namespace URI. May be null.
+     * @param localName    the name's local part.
+     * @param prefix       the name's prefix. May be null.
+     *
+     * @return the interned name.
+     */
+    protected QName internName(String namespaceURI, String localName, String prefix)
+    {
+        if (namespaceURI == null)
+            namespaceURI = XMLConstants.NULL_NS_URI;
+        if (prefix == null)
+            prefix = XMLConstants.DEFAULT_NS_PREFIX;
+
+        Map<String, QName> localNames = this.names.get(namespaceURI);
+        if (localNames == null)
+        {
+            localNames = new HashMap<String, QName>();
+            this.names.put(namespaceURI, localNames);
+        }
+
+        QName name = localNames.get(localName);
+        if (name == null)
+        {
+            name = new QName(namespaceURI, localName, prefix);
+            localNames.put(localName, name);
+        }
+        else if (!name.getPrefix().equals(prefix))
+        {
+            // The same name bound to a different prefix. Rare, so don't cache it.
+            name = new QName(namespaceURI, localName, prefix);
+        }
+
+        return name;
+    }
+
+    /**
+     * Creates an event for the cursor's current state.
+     *
+     * @return a new event.
+     */
+    protected XMLEvent allocate()
+    {
+        XMLStreamReader r = this.streamReader;
+        Location location = r.getLocation();
+        int line = location != null ? location.getLineNumber() : -1;
+        int column = location != null ? location.getColumnNumber() : -1;
+        int offset = location != null ? location.getCharacterOffset() : -1;
+
+        switch (r.getEventType())
+        {
+            case XMLStreamConstants.START_ELEMENT:
+                return this.allocateStartElement(line, column, offset);
+            case XMLStreamConstants.END_ELEMENT:
+                return new EndElementEvent(this.internName(r.getNamespaceURI(), r.getLocalName(), r.getPrefix()),
+                    line, column, offset);
+            case XMLStreamConstants.CHARACTERS:
+            case XMLStreamConstants.CDATA:
+            case XMLStreamConstants.SPACE:
+                return new CharactersEvent(r.getEventType(), r.getText(), line, column, offset);
+            default:
+                return this.allocateOther();
+        }
+    }
+
+    protected XMLEvent allocateStartElement(int line, int column, int offset)
+    {
+        XMLStreamReader r = this.streamReader;
+
+        QName[] attrNames = null;
+        String[] attrValues = null;
+        int attrCount = r.getAttributeCount();
+        if (attrCount > 0)
+        {
+            attrNames = new QName[attrCount];
+            attrValues = new String[attrCount];
+
+            for (int i = 0; i < attrCount; i++)
+            {
+                attrNames[i] = this.internName(r.getAttributeNamespace(i), r.getAttributeLocalName(i),
+                    r.getAttributePrefix(i));
+                attrValues[i] = r.getAttributeValue(i);
+            }
+        }
+
+        String[] nsPrefixes = null;
+        String[] nsURIs = null;
+        int nsCount = r.getNamespaceCount();
+        if (nsCount > 0)
+        {
+            nsPrefixes = new String[nsCount];
+            nsURIs = new String[nsCount];
+
+            for (int i = 0; i < nsCount; i++)
+            {
+                nsPrefixes[i] = r.getNamespacePrefix(i);
+                nsURIs[i] = r.getNamespaceURI(i);
+            }
+        }
+
+        return new StartElementEvent(this.internName(r.getNamespaceURI(), r.getLocalName(), r.getPrefix()),
+            attrNames, attrValues, nsPrefixes, nsURIs, nsCount > 0 ? this.getEventFactory() : null, line, column,
+            offset);
+    }
+
+    /**
+     * Returns the factory used to create the infrequent event types that this reader does not implement itself. The
+     * factory is created on first use.
+     *
+     * @return this reader's event factory.
+     */
+    protected XMLEventFactory getEventFactory()
+    {
+        if (this.eventFactory == null)
+            this.eventFactory = XMLEventFactory.newInstance();
+
+        return this.eventFactory;
+    }
+
+    /**
+     * Creates an event for the infrequent cursor states: document start and end, comments, processing instructions,
+     * DTDs and entity references. These are created by the standard event factory.
+     *
+     * @return a new event.
+     */
+    protected XMLEvent allocateOther()
+    {
+        XMLStreamReader r = this.streamReader;
+        XMLEventFactory f = this.getEventFactory();
+        f.setLocation(r.getLocation());
+
+        switch (r.getEventType())
+        {
+            case XMLStreamConstants.START_DOCUMENT:
+                String encoding = r.getCharacterEncodingScheme();
+                String version = r.getVersion();
+                if (encoding != null && version != null)
+                    return f.createStartDocument(encoding, version, r.isStandalone());
+                else if (encoding != null)
+                    return f.createStartDocument(encoding);
+                return f.createStartDocument();
+            case XMLStreamConstants.END_DOCUMENT:
+                return f.createEndDocument();
+            case XMLStreamConstants.COMMENT:
+                return f.createComment(r.getText());
+            case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                return f.createProcessingInstruction(r.getPITarget(), r.getPIData());
+            case XMLStreamConstants.DTD:
+                return f.createDTD(r.getText());
+            case XMLStreamConstants.ENTITY_REFERENCE:
+                return f.createEntityReference(r.getLocalName(), null);
+            default:
+                return f.createCharacters(r.hasText() ? r.getText() : "");
+        }
+    }
+
+    /** A location captured when an event is created, independent of the stream reader's later state. */
+    protected static class EventLocation implements Location
+    {
+        protected final int line;
+        protected final int column;
+        protected final int offset;
+
+        public EventLocation(int line, int column, int offset)
+        {
+            this.line = line;
+            this.column = column;
+            this.offset = offset;
+        }
+
+        public int getLineNumber()
+        {
+            return this.line;
+        }
+
+        public int getColumnNumber()
+        {
+            return this.column;
+        }
+
+        public int getCharacterOffset()
+        {
+            return this.offset;
+        }
+
+        public String getPublicId()
+        {
+            return null;
+        }
+
+        public String getSystemId()
+        {
+            return null;
+        }
+    }
+
+    /** Base class for this reader's events. Holds the event type and location. */
+    protected abstract static class AbstractEvent implements XMLEvent
+    {
+        protected final int eventType;
+        protected final int line;
+        protected final int column;
+        protected final int offset;
+
+        protected AbstractEvent(int eventType, int line, int column, int offset)
+        {
+            this.eventType = eventType;
+            this.line = line;
+            this.column = column;
+            this.offset = offset;
+        }
+
+        public int getEventType()
+        {
+            return this.eventType;
+        }
+
+        public Location getLocation()
+        {
+            return new EventLocation(this.line, this.column, this.offset);
+        }
+
+        public boolean isStartElement()
+        {
+            return this.eventType == START_ELEMENT;
+        }
+
+        public boolean isAttribute()
+        {
+            return false;
+        }
+
+        public boolean isNamespace()
+        {
+            return false;
+        }
+
+        public boolean isEndElement()
+        {
+            return this.eventType == END_ELEMENT;
+        }
+
+        public boolean isEntityReference()
+        {
+            return false;
+        }
+
+        public boolean isProcessingInstruction()
+        {
+            return false;
+        }
+
+        public boolean isCharacters()
+        {
+            return this.eventType == CHARACTERS || this.eventType == CDATA || this.eventType == SPACE;
+        }
+
+        public boolean isStartDocument()
+        {
+            return false;
+        }
+
+        public boolean isEndDocument()
+        {
+            return false;
+        }
+
+        public StartElement asStartElement()
+        {
+            throw new ClassCastException();
+        }
+
+        public EndElement asEndElement()
+        {
+            throw new ClassCastException();
+        }
+
+        public Characters asCharacters()
+        {
+            throw new ClassCastException();
+        }
+
+        public QName getSchemaType()
+        {
+            return null;
+        }
+
+        public String toString()
+        {
+            StringWriter writer = new StringWriter();
+
+            try
+            {
+                this.writeAsEncodedUnicode(writer);
+            }
+            catch (XMLStreamException e)
+            {
+                return super.toString();
+            }
+
+            return writer.toString();
+        }
+
+        protected static void writeName(QName name, Writer writer) throws IOException
+        {
+            if (name.getPrefix() != null && name.getPrefix().length() > 0)
+                writer.write(name.getPrefix() + ":");
+
+            writer.write(name.getLocalPart());
+        }
+    }
+
+    protected static class StartElementEvent extends AbstractEvent implements StartElement
+    {
+        protected final QName name;
+        protected final QName[] attrNames;
+        protected final String[] attrValues;
+        protected final String[] nsPrefixes;
+        protected final String[] nsURIs;
+        /** Creates the namespace events. Null if the element declares no namespaces. */
+        protected final XMLEventFactory eventFactory;
+
+        public StartElementEvent(QName name, QName[] attrNames, String[] attrValues, String[] nsPrefixes,
+            String[] nsURIs, XMLEventFactory eventFactory, int line, int column, int offset)
+        {
+            super(START_ELEMENT, line, column, offset);
+
+            this.name = name;
+            this.attrNames = attrNames;
+            this.attrValues = attrValues;
+            this.nsPrefixes = nsPrefixes;
+            this.nsURIs = nsURIs;
+            this.eventFactory = eventFactory;
+        }
+
+        @Override
+        public StartElement asStartElement()
+        {
+            return this;
+        }
+
+        public QName getName()
+        {
+            return this.name;
+        }
+
+        public Iterator<Attribute> getAttributes()
+        {
+            if (this.attrNames == null)
+                return Collections.<Attribute>emptyList().iterator();
+
+            List<Attribute> list = new ArrayList<Attribute>(this.attrNames.length);
+            for (int i = 0; i < this.attrNames.length; i++)
+            {
+                list.add(new AttributeEvent(this.attrNames[i], this.attrValues[i], this.line, this.column,
+                    this.offset));
+            }
+
+            return list.iterator();
+        }
+
+        public Iterator<Namespace> getNamespaces()
+        {
+            if (this.nsPrefixes == null)
+                return Collections.<Namespace>emptyList().iterator();
+
+            XMLEventFactory factory = this.eventFactory;
+            List<Namespace> list = new ArrayList<Namespace>(this.nsPrefixes.length);
+            for (int i = 0; i < this.nsPrefixes.length; i++)
+            {
+                list.add(this.nsPrefixes[i] == null || this.nsPrefixes[i].length() == 0
+                    ? factory.createNamespace(this.nsURIs[i])
+                    : factory.createNamespace(this.nsPrefixes[i], this.nsURIs[i]));
+            }
+
+            return list.iterator();
+        }
+
+        public Attribute getAttributeByName(QName name)
+        {
+            if (this.attrNames == null || name == null)
+                return null;
+
+            for (int i = 0; i < this.attrNames.length; i++)
+            {
+                if (this.attrNames[i].equals(name))
+                    return new AttributeEvent(this.attrNames[i], this.attrValues[i], this.line, this.column,
+                        this.offset);
+            }
+
+            return null;
+        }
+
+        /**
+         * {@inheritDoc}
+         * <p/>
+         * The returned context resolves only the namespaces declared on this element.
+         */
+        public NamespaceContext getNamespaceContext()
+        {
+            return new NamespaceContext()
+            {
+                public String getNamespaceURI(String prefix)
+                {
+                    return StartElementEvent.this.getNamespaceURI(prefix);
+                }
+
+                public String getPrefix(String namespaceURI)
+                {
+                    if (nsURIs == null)
+                        return null;
+
+                    for (int i = 0; i < nsURIs.length; i++)
+                    {
+                        if (nsURIs[i] != null && nsURIs[i].equals(namespaceURI))
+                            return nsPrefixes[i] != null ? nsPrefixes[i] : XMLConstants.DEFAULT_NS_PREFIX;
+                    }
+
+                    return null;
+                }
+
+                public Iterator<String> getPrefixes(String namespaceURI)
+                {
+                    String prefix = this.getPrefix(namespaceURI);
+                    return prefix != null ? Collections.singletonList(prefix).iterator()
+                        : Collections.<String>emptyList().iterator();
+                }
+            };
+        }
+
+        public String getNamespaceURI(String prefix)
+        {
+            if (this.nsPrefixes == null)
+                return null;
+
+            if (prefix == null)
+                prefix = XMLConstants.DEFAULT_NS_PREFIX;
+
+            for (int i = 0; i < this.nsPrefixes.length; i++)
+            {
+                String p = this.nsPrefixes[i] != null ? this.nsPrefixes[i] : XMLConstants.DEFAULT_NS_PREFIX;
+                if (p.equals(prefix))
+                    return this.nsURIs[i];
+            }
+
+            return null;
+        }
+
+        public void writeAsEncodedUnicode(Writer writer) throws XMLStreamException
+        {
+            try
+            {
+                writer.write('<');
+                writeName(this.name, writer);
+
+                if (this.attrNames != null)
+                {
+                    for (int i = 0; i < this.attrNames.length; i++)
+                    {
+                        writer.write(' ');
+                        writeName(this.attrNames[i], writer);
+                        writer.write("='" + this.attrValues[i] + "'");
+                    }
+                }
+
+                writer.write('>');
+            }
+            catch (IOException e)
+            {
+                throw new XMLStreamException(e);
+            }
+        }
+    }
+
+    protected static class EndElementEvent extends AbstractEvent implements EndElement
+    {
+        protected final QName name;
+
+        public EndElementEvent(QName name, int line, int column, int offset)
+        {
+            super(END_ELEMENT, line, column, offset);
+
+            this.name = name;
+        }
+
+        @Override
+        public EndElement asEndElement()
+        {
+            return this;
+        }
+
+        public QName getName()
+        {
+            return this.name;
+        }
+
+        public Iterator<Namespace> getNamespaces()
+        {
+            return Collections.<Namespace>emptyList().iterator();
+        }
+
+        public void writeAsEncodedUnicode(Writer writer) throws XMLStreamException
+        {
+            try
+            {
+                writer.write("</");
+                writeName(this.name, writer);
+                writer.write('>');
+            }
+            catch (IOException e)
+            {
+                throw new XMLStreamException(e);
+            }
+        }
+    }
+
+    protected static class CharactersEvent extends AbstractEvent implements Characters
+    {
+        protected final String data;
+
+        public CharactersEvent(int eventType, String data, int line, int column, int offset)
+        {
+            super(eventType, line, column, offset);
+
+            this.data = data;
+        }
+
+        @Override
+        public Characters asCharacters()
+        {
+            return this;
+        }
+
+        public String getData()
+        {
+            return this.data;
+        }
+
+        public boolean isWhiteSpace()
+        {
+            if (this.eventType == SPACE)
+                return true;
+
+            for (int i = 0; i < this.data.length(); i++)
+            {
+                if (!isSpace(this.data.charAt(i)))
+                    return false;
+            }
+
+            return true;
+        }
+
+        public boolean isCData()
+        {
+            return this.eventType == CDATA;
+        }
+
+        public boolean isIgnorableWhiteSpace()
+        {
+            return this.eventType == SPACE;
+        }
+
+        public void writeAsEncodedUnicode(Writer writer) throws XMLStreamException
+        {
+            try
+            {
+                writer.write(this.data);
+            }
+            catch (IOException e)
+            {
+                throw new XMLStreamException(e);
+            }
+        }
+    }
+
+    protected static class AttributeEvent extends AbstractEvent implements Attribute
+    {
+        protected final QName name;
+        protected final String value;
+
+        public AttributeEvent(QName name, String value, int line, int column, int offset)
+        {
+            super(ATTRIBUTE, line, column, offset);
+
+            this.name = name;
+            this.value = value;
+        }
+
+        @Override
+        public boolean isAttribute()
+        {
+            return true;
+        }
+
+        public QName getName()
+        {
+            return this.name;
+        }
+
+        public String getValue()
+        {
+            return this.value;
+        }
+
+        public String getDTDType()
+        {
+            return "CDATA";
+        }
+
+        public boolean isSpecified()
+        {
+            return true;
+        }
+
+        public void writeAsEncodedUnicode(Writer writer) throws XMLStreamException
+        {
+            try
+            {
+                writeName(this.name, writer);
+                writer.write("='" + this.value + "'");
+            }
+            catch (IOException e)
+            {
+                throw new XMLStreamException(e);
+            }
+        }
+    }
+}
@@ -795,7 +795,11 @@ public class AnalysisPanel extends JPanel implements Restorable
         latLon = LatLon.rhumbEndPosition(posB, segmentAzimuth,
             Angle.fromRadians(segmentDistance.radians / numSubsegments));
         posB = new Position(latLon, posB.getElevation() + deltaElevation / numSubsegments);
-        segmentDistance = LatLon.rhumbDistance(posA, posB);
+        double latA = posA.getLatitude().radians;
+        double lonA = posA.getLongitude().radians;
+        double distanceRadians = Geodesy.rhumbDistance(latA, lonA, posB.getLatitude().radians,
+            posB.getLongitude().radians);
+        double[] location = new double[2];
         // Iterate through segments to find intersection
         Globe globe = this.wwd.getModel().getGlobe();
         Plane near = this.wwd.getView().getFrustumInModelCoordinates().getNear();
@@ -808,9 +812,9 @@ public class AnalysisPanel extends JPanel implements Restorable
                 p2 = posB;
             else
             {
-                Angle distance = Angle.fromRadians(s * segmentDistance.radians);
-                latLon = LatLon.rhumbEndPosition(posA, segmentAzimuth, distance);
-                p2 = new Position(latLon, (1 - s) * posA.getElevation() + s * posB.getElevation());
+                Geodesy.rhumbEndPosition(latA, lonA, segmentAzimuth.radians, s * distanceRadians, location, 0);
+                p2 = Position.fromRadians(location[0], location[1],
+                    (1 - s) * posA.getElevation() + s * posB.getElevation());
             }
             if (p1 != null)
             {
@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+
+package gov.nasa.worldwindx.performance;
+
+import gov.nasa.worldwind.cache.*;
+import gov.nasa.worldwind.geom.*;
+import gov.nasa.worldwind.globes.*;
+import gov.nasa.worldwind.render.airspaces.*;
+import gov.nasa.worldwind.terrain.ZeroElevationModel;
+import gov.nasa.worldwind.util.GeometryBuilder;
+
+import java.util.*;
+
+/**
+ * Measures the per-frame cost of the airspace geometry cache lookups made by 10,000 capped cylinders, first with
+ * {@link Geometry.CacheKey}, which allocates a parameter array, boxes each parameter and creates a globe state key for
+ * every lookup, and then with a reused {@link Geometry.ShapeKey} as {@link AbstractAirspace} now makes them. Each
+ * cylinder looks up the vertices and the indices of its outer wall and its two caps, as a filled cylinder does each
+ * frame. The cylinders repeat a smaller set of distinct shapes, which share cache entries. No OpenGL context is
+ * required. Optional arguments specify the number of airspaces and the number of distinct shapes.
+ *
+ * @version $Id$
+ */
+public class AirspaceGeometryKeyBenchmark
+{
+    protected static final BenchmarkHarness HARNESS = new BenchmarkHarness(50, 50);
+
+    protected static class Shape
+    {
+        protected LatLon center;
+        protected double radius;
+        protected double[] altitudes;
+        protected boolean[] terrainConformant = {false, false};
+        protected int slices;
+        protected int stacks = 1;
+        protected int loops = 4;
+        protected Vec4 referenceCenter;
+    }
+
+    public static void main(String[] args)
+    {
+        int numAirspaces = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int numShapes = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+
+        Globe globe = new Earth();
+        globe.setElevationModel(new ZeroElevationModel());
+        Random random = new Random(1);
+        Shape[] distinct = new Shape[numShapes];
+        for (int i = 0; i < numShapes; i++)
+        {
+            Shape shape = new Shape();
+            shape.center = LatLon.fromDegrees(60 * random.nextDouble() - 30, 60 * random.nextDouble() - 30);
+            shape.radius = 1000 * (1 + random.nextInt(20));
+            shape.altitudes = new double[] {0, 1000 * (1 + random.nextInt(10))};
+            shape.slices = 8 << random.nextInt(4); // The detail level's slices.
+            shape.referenceCenter = globe.computePointFromPosition(shape.center.getLatitude(),
+                shape.center.getLongitude(), shape.altitudes[0]);
+            distinct[i] = shape;
+        }
+
+        Shape[] airspaces = new Shape[numAirspaces];
+        for (int i = 0; i < numAirspaces; i++)
+        {
+            airspaces[i] = distinct[random.nextInt(numShapes)];
+        }
+
+        MemoryCache cache = new BasicMemoryCache(Long.MAX_VALUE / 2, Long.MAX_VALUE);
+        Geometry geometry = new Geometry();
+        geometry.setVertexData(1, new float[3]);
+
+        System.out.printf("%d airspaces, %d distinct shapes, 6 lookups per airspace\n", numAirspaces, numShapes);
+        System.out.printf("%-12s %12s %14s %12s\n", "Key", "Frame (ms)", "Bytes/lookup", "Entries");
+
+        double cacheKeyTime = timeFrames(new CacheKeyFrame(globe, cache, geometry, airspaces), cache);
+        cache.clear();
+        double shapeKeyTime = timeFrames(new ShapeKeyFrame(globe, cache, geometry, airspaces), cache);
+
+        System.out.printf("%-12s %12s %14s %12s %.1f\n", "Speedup", "", "", "", cacheKeyTime / shapeKeyTime);
+    }
+
+    protected static double timeFrames(Frame frame, MemoryCache cache)
+    {
+        BenchmarkHarness.Measurement measurement = HARNESS.measure(frame);
+        long lookups = 6L * frame.airspaces.length;
+        System.out.printf("%-12s %12.3f %14s %12d\n", frame.name, measurement.time,
+            measurement.bytes >= 0 ? String.format("%.1f", measurement.bytes / lookups) : "n/a",
+            cache.getNumObjects());
+
+        return measurement.time;
+    }
+
+    protected abstract static class Frame implements Runnable
+    {
+        protected final String name;
+        protected final Globe globe;
+        protected final MemoryCache cache;
+        protected final Geometry geometry;
+        protected final Shape[] airspaces;
+
+        public Frame(String name, Globe globe, MemoryCache cache, Geometry geometry, Shape[] airspaces)
+        {
+            this.name = name;
+            this.globe = globe;
+            this.cache = cache;
+            this.geometry = geometry;
+            this.airspaces = airspaces;
+        }
+
+        protected void lookup(Object key)
+        {
+            if (this.cache.getObject(key) == null)
+                this.cache.add(this.copy(key), this.geometry);
+        }
+
+        protected Object copy(Object key)
+        {
+            return key;
+        }
+
+    }
+
+    /** Looks up geometry with keys constructed as the airspaces constructed them before ShapeKey. */
+    protected static class CacheKeyFrame extends Frame
+    {
+        public CacheKeyFrame(Globe globe, MemoryCache cache, Geometry geometry, Shape[] airspaces)
+        {
+            super("CacheKey", globe, cache, geometry, airspaces);
+        }
+
+        public void run()
+        {
+            Class<?> cls = CappedCylinder.class;
+            for (Shape s : this.airspaces)
+            {
+                this.lookup(new Geometry.CacheKey(this.globe, cls, "Cylinder.Vertices", s.center, s.radius,
+                    s.altitudes[0], s.altitudes[1], s.terrainConformant[0], s.terrainConformant[1], s.slices,
+                    s.stacks, GeometryBuilder.OUTSIDE, s.referenceCenter));
+                this.lookup(new Geometry.CacheKey(cls, "Cylinder.Indices", s.slices, s.stacks,
+                    GeometryBuilder.OUTSIDE));
+                for (int cap = 0; cap < 2; cap++)
+                {
+                    this.lookup(new Geometry.CacheKey(this.globe, cls, "Disk.Vertices", s.center, 0d, s.radius,
+                        s.altitudes[cap], s.terrainConformant[cap], s.slices, s.loops, cap, s.referenceCenter));
+                    this.lookup(new Geometry.CacheKey(cls, "Disk.Indices", s.slices, s.loops, cap));
+                }
+            }
+        }
+    }
+
+    /** Looks up geometry with a single reused key and a globe state key computed once per frame. */
+    protected static class ShapeKeyFrame extends Frame
+    {
+        protected final Geometry.ShapeKey key = new Geometry.ShapeKey();
+
+        public ShapeKeyFrame(Globe globe, MemoryCache cache, Geometry geometry, Shape[] airspaces)
+        {
+            super("ShapeKey", globe, cache, geometry, airspaces);
+        }
+
+        @Override
+        protected Object copy(Object key)
+        {
+            return ((Geometry.ShapeKey) key).copy();
+        }
+
+        public void run()
+        {
+            Class<?> cls = CappedCylinder.class;
+            GlobeStateKey globeStateKey = this.globe.getGlobeStateKey();
+            Geometry.ShapeKey k = this.key;
+            for (Shape s : this.airspaces)
+            {
+                this.lookup(k.reset(globeStateKey, cls, "Cylinder.Vertices").add(s.center).add(s.radius)
+                    .add(s.altitudes[0]).add(s.altitudes[1]).add(s.terrainConformant[0]).add(s.terrainConformant[1])
+                    .add(s.slices).add(s.stacks).add(GeometryBuilder.OUTSIDE).add(s.referenceCenter));
+                this.lookup(k.reset(null, cls, "Cylinder.Indices").add(s.slices).add(s.stacks)
+                    .add(GeometryBuilder.OUTSIDE));
+                for (int cap = 0; cap < 2; cap++)
+                {
+                    this.lookup(k.reset(globeStateKey, cls, "Disk.Vertices").add(s.center).add(0d).add(s.radius)
+                        .add(s.altitudes[cap]).add(s.terrainConformant[cap]).add(s.slices).add(s.loops).add(cap)
+                        .add(s.referenceCenter));
+                    this.lookup(k.reset(null, cls, "Disk.Indices").add(s.slices).add(s.loops).add(cap));
+                }
+            }
+        }
+    }
+}
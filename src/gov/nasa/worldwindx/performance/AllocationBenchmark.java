@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+
+package gov.nasa.worldwindx.performance;
+
+import gov.nasa.worldwind.geom.*;
+import gov.nasa.worldwind.globes.*;
+
+import java.util.*;
+
+/**
+ * Measures the time and the number of bytes allocated to compute model coordinate points for a list of positions and
+ * to transform them by a matrix, first with {@link Vec4} and {@link Angle}, which allocate an object for every
+ * intermediate result, and then with a reused {@link MutableVec4}. The loops are the same as those that fill the
+ * vertex buffers of paths and terrain tiles. An optional argument specifies the number of positions.
+ * <p/>
+ * Allocation is measured with the <code>com.sun.management.ThreadMXBean</code> extension, and reported as unavailable
+ * on virtual machines without it. The JIT compiler's escape analysis can remove the temporary vectors from loops as
+ * short as these, though not from the deeper call chains of the renderables; run with
+ * <code>-XX:-DoEscapeAnalysis</code> to see the allocation those call chains incur.
+ *
+ * @version $Id$
+ */
+public class AllocationBenchmark
+{
+    protected static final BenchmarkHarness HARNESS = new BenchmarkHarness(10, 20);
+
+    protected static double sink;
+
+    public static void main(String[] args)
+    {
+        final int count = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+
+        final List<Position> positions = new ArrayList<Position>(count);
+        Random random = new Random(1);
+        for (int i = 0; i < count; i++)
+        {
+            positions.add(Position.fromDegrees(170 * random.nextDouble() - 85, 360 * random.nextDouble() - 180,
+                10000 * random.nextDouble()));
+        }
+
+        final Globe globe = new Earth();
+        final Vec4 referencePoint = globe.computePointFromPosition(positions.get(0));
+        final Matrix matrix = Matrix.fromRotationXYZ(Angle.fromDegrees(10), Angle.fromDegrees(20),
+            Angle.fromDegrees(30));
+        final float[] buffer = new float[3 * count];
+
+        System.out.printf("%d positions\n", count);
+        System.out.printf("%-28s %12s %14s %8s\n", "Operation", "Time (ms)", "Bytes/point", "Speedup");
+
+        double immutable = HARNESS.reportAllocation("Points, Vec4", count, -1, new Runnable()
+        {
+            public void run()
+            {
+                int k = 0;
+                for (Position pos : positions)
+                {
+                    Vec4 pt = globe.computePointFromPosition(pos.getLatitude(), pos.getLongitude(),
+                        2 * pos.getAltitude());
+                    buffer[k++] = (float) (pt.x - referencePoint.x);
+                    buffer[k++] = (float) (pt.y - referencePoint.y);
+                    buffer[k++] = (float) (pt.z - referencePoint.z);
+                }
+            }
+        });
+        HARNESS.reportAllocation("Points, MutableVec4", count, immutable, new Runnable()
+        {
+            public void run()
+            {
+                int k = 0;
+                MutableVec4 pt = new MutableVec4();
+                for (Position pos : positions)
+                {
+                    globe.computePointFromPosition(pos.getLatitude().degrees, pos.getLongitude().degrees,
+                        2 * pos.getAltitude(), pt);
+                    buffer[k++] = (float) (pt.x - referencePoint.x);
+                    buffer[k++] = (float) (pt.y - referencePoint.y);
+                    buffer[k++] = (float) (pt.z - referencePoint.z);
+                }
+            }
+        });
+
+        immutable = HARNESS.reportAllocation("Transform, Vec4", count, -1, new Runnable()
+        {
+            public void run()
+            {
+                double sum = 0;
+                for (int i = 0; i < count; i++)
+                {
+                    Vec4 v = new Vec4(buffer[3 * i], buffer[3 * i + 1], buffer[3 * i + 2]);
+                    sum += v.add3(referencePoint).transformBy4(matrix).normalize3().z;
+                }
+                sink += sum;
+            }
+        });
+        HARNESS.reportAllocation("Transform, MutableVec4", count, immutable, new Runnable()
+        {
+            public void run()
+            {
+                double sum = 0;
+                MutableVec4 v = new MutableVec4();
+                for (int i = 0; i < count; i++)
+                {
+                    v.set(buffer[3 * i], buffer[3 * i + 1], buffer[3 * i + 2]);
+                    sum += v.add3(referencePoint).transformBy4(matrix).normalize3().z;
+                }
+                sink += sum;
+            }
+        });
+    }
+}
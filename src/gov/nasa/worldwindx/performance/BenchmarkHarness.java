@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+
+package gov.nasa.worldwindx.performance;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Times the operations of the performance benchmarks and prints one report row per operation. Each operation is run a
+ * number of warm up iterations, which give the JIT compiler a chance to compile it, and then a number of measured
+ * iterations. The harness reports the mean time of the measured iterations, and optionally the mean number of bytes
+ * they allocate on the calling thread.
+ * <p/>
+ * Allocation is measured with the <code>com.sun.management.ThreadMXBean</code> extension, and reported as unavailable
+ * on virtual machines without it.
+ *
+ * @version $Id$
+ */
+public class BenchmarkHarness
+{
+    /** The time and allocation of an operation, averaged over the measured iterations. */
+    public static class Measurement
+    {
+        /** The mean time of an iteration, in milliseconds. */
+        public final double time;
+        /** The mean number of bytes an iteration allocates, or -1 if allocation cannot be measured. */
+        public final double bytes;
+
+        public Measurement(double time, double bytes)
+        {
+            this.time = time;
+            this.bytes = bytes;
+        }
+    }
+
+    protected final int warmupIterations;
+    protected final int iterations;
+    protected final int nameWidth;
+
+    /**
+     * Creates a harness that prints operation names in a column 28 characters wide.
+     *
+     * @param warmupIterations the number of times to run an operation before measuring it.
+     * @param iterations       the number of times to run an operation while measuring it.
+     */
+    public BenchmarkHarness(int warmupIterations, int iterations)
+    {
+        this(warmupIterations, iterations, 28);
+    }
+
+    /**
+     * Creates a harness.
+     *
+     * @param warmupIterations the number of times to run an operation before measuring it.
+     * @param iterations       the number of times to run an operation while measuring it.
+     * @param nameWidth        the width of the column of operation names.
+     */
+    public BenchmarkHarness(int warmupIterations, int iterations, int nameWidth)
+    {
+        this.warmupIterations = warmupIterations;
+        this.iterations = iterations;
+        this.nameWidth = nameWidth;
+    }
+
+    public int getWarmupIterations()
+    {
+        return this.warmupIterations;
+    }
+
+    public int getIterations()
+    {
+        return this.iterations;
+    }
+
+    /**
+     * Runs an operation for the warm up iterations and then for the measured iterations.
+     *
+     * @param operation the operation to measure.
+     *
+     * @return the operation's mean time and allocation over the measured iterations.
+     */
+    public Measurement measure(Runnable operation)
+    {
+        long total = 0;
+        long bytes = 0;
+        for (int i = 0; i < this.warmupIterations + this.iterations; i++)
+        {
+            long startBytes = allocatedBytes();
+            long start = System.nanoTime();
+            operation.run();
+            if (i >= this.warmupIterations)
+            {
+                total += System.nanoTime() - start;
+                bytes += allocatedBytes() - startBytes;
+            }
+        }
+
+        boolean measuredBytes = allocatedBytes() >= 0;
+        return new Measurement(total / 1e6 / this.iterations, measuredBytes ? (double) bytes / this.iterations : -1);
+    }
+
+    /**
+     * Measures an operation and prints its name, its mean time in milliseconds, the number of items it processes per
+     * second, and its speedup over a baseline time.
+     *
+     * @param name      the operation's name.
+     * @param count     the number of items the operation processes each time it runs.
+     * @param baseline  the time to compare the operation's time with, or a negative value to omit the speedup.
+     * @param operation the operation to measure.
+     *
+     * @return the operation's mean time in milliseconds.
+     */
+    public double report(String name, int count, double baseline, Runnable operation)
+    {
+        double time = this.measure(operation).time;
+        System.out.printf("%-" + this.nameWidth + "s %12.3f %14.0f %8s\n", name, time, count / time * 1e3,
+            formatSpeedup(baseline, time));
+
+        return time;
+    }
+
+    /**
+     * Measures an operation and prints its name, its mean time in milliseconds, the number of bytes it allocates per
+     * item, and its speedup over a baseline time.
+     *
+     * @param name      the operation's name.
+     * @param count     the number of items the operation processes each time it runs.
+     * @param baseline  the time to compare the operation's time with, or a negative value to omit the speedup.
+     * @param operation the operation to measure.
+     *
+     * @return the operation's mean time in milliseconds.
+     */
+    public double reportAllocation(String name, int count, double baseline, Runnable operation)
+    {
+        Measurement measurement = this.measure(operation);
+        System.out.printf("%-" + this.nameWidth + "s %12.3f %14s %8s\n", name, measurement.time,
+            measurement.bytes >= 0 ? String.format("%.1f", measurement.bytes / count) : "n/a",
+            formatSpeedup(baseline, measurement.time));
+
+        return measurement.time;
+    }
+
+    protected static String formatSpeedup(double baseline, double time)
+    {
+        return baseline > 0 ? String.format("%.1f", baseline / time) : "";
+    }
+
+    /**
+     * Returns the total number of bytes the calling thread has allocated.
+     *
+     * @return the number of bytes allocated, or -1 if the virtual machine does not measure allocation.
+     */
+    public static long allocatedBytes()
+    {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean)
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+
+        return -1;
+    }
+}
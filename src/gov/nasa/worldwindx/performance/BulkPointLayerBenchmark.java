@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+
+package gov.nasa.worldwindx.performance;
+
+import gov.nasa.worldwind.geom.*;
+import gov.nasa.worldwind.globes.*;
+import gov.nasa.worldwind.layers.BulkPointLayer;
+
+import java.awt.*;
+import java.util.Random;
+
+/**
+ * Measures the time to project and cull a large number of randomly distributed points against a series of views,
+ * first one point at a time with a {@link Vec4} per point, as {@link gov.nasa.worldwind.render.PointPlacemark}
+ * computes its points each frame, and then in the single pass of {@link BulkPointLayer}. Decluttering is disabled so
+ * that both methods do the same work. No OpenGL context is required. Optional arguments specify the number of points
+ * and the number of views.
+ *
+ * @version $Id$
+ */
+public class BulkPointLayerBenchmark
+{
+    protected static final BenchmarkHarness HARNESS = new BenchmarkHarness(3, 10);
+    protected static final Rectangle VIEWPORT = new Rectangle(0, 0, 1000, 800);
+
+    public static void main(String[] args)
+    {
+        int numPoints = args.length > 0 ? Integer.parseInt(args[0]) : 500000;
+        int numViews = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        final Globe globe = new Earth();
+        Random random = new Random(1);
+
+        final BulkPointLayer layer = new BulkPointLayer();
+        layer.setEnableDecluttering(false);
+        layer.ensureCapacity(numPoints);
+        final Position[] positions = new Position[numPoints];
+        for (int i = 0; i < numPoints; i++)
+        {
+            double lat = Math.toDegrees(Math.asin(2 * random.nextDouble() - 1));
+            double lon = 360 * random.nextDouble() - 180;
+            double alt = 1000 * random.nextDouble();
+            positions[i] = Position.fromDegrees(lat, lon, alt);
+            layer.addPoint(lat, lon, alt, 0, null);
+        }
+
+        long start = System.nanoTime();
+        layer.computeVisiblePoints(globe, 1, Vec4.UNIT_W, Matrix.IDENTITY, VIEWPORT);
+        double modelTime = (System.nanoTime() - start) / 1e6;
+
+        System.out.printf("%d points, model points %.1f ms\n", numPoints, modelTime);
+        System.out.printf("%-8s %12s %10s %14s %12s %8s\n", "View", "Altitude (km)", "Visible", "Per point (ms)",
+            "Bulk (ms)", "Speedup");
+
+        double totalPerPoint = 0;
+        double totalBulk = 0;
+        for (int v = 0; v < numViews; v++)
+        {
+            double altitude = 10e3 * Math.pow(3, v % 8);
+            Position eye = Position.fromDegrees(80 * random.nextDouble() - 40, 360 * random.nextDouble() - 180,
+                altitude);
+            final Vec4 eyePoint = globe.computePointFromPosition(eye);
+            final Matrix mvp = createModelviewProjection(globe, eye);
+
+            final int[] perPointCount = new int[1];
+            double perPointTime = HARNESS.measure(new Runnable()
+            {
+                public void run()
+                {
+                    perPointCount[0] = cullPerPoint(globe, positions, mvp);
+                }
+            }).time;
+
+            final int[] bulkCount = new int[1];
+            double bulkTime = HARNESS.measure(new Runnable()
+            {
+                public void run()
+                {
+                    bulkCount[0] = layer.computeVisiblePoints(globe, 1, eyePoint, mvp, VIEWPORT);
+                }
+            }).time;
+
+            totalPerPoint += perPointTime;
+            totalBulk += bulkTime;
+            // The bulk count excludes points beyond the horizon, which the per point method leaves to the depth test.
+            System.out.printf("%-8d %12.0f %10s %14.3f %12.3f %8.1f\n", v, altitude / 1e3,
+                bulkCount[0] + "/" + perPointCount[0], perPointTime, bulkTime, perPointTime / bulkTime);
+        }
+
+        System.out.printf("%-8s %12s %10s %14.3f %12.3f %8.1f\n", "Total", "", "", totalPerPoint, totalBulk,
+            totalPerPoint / totalBulk);
+    }
+
+    /**
+     * Computes each position's model point and projects it, testing it against the clip volume.
+     *
+     * @param globe     the globe.
+     * @param positions the positions.
+     * @param mvp       the modelview-projection matrix.
+     *
+     * @return the number of points within the clip volume.
+     */
+    protected static int cullPerPoint(Globe globe, Position[] positions, Matrix mvp)
+    {
+        int count = 0;
+        for (Position position : positions)
+        {
+            Vec4 point = globe.computePointFromPosition(position.getLatitude(), position.getLongitude(),
+                position.getElevation());
+            Vec4 clip = point.transformBy4(mvp);
+            if (clip.w > 0 && Math.abs(clip.x) <= clip.w && Math.abs(clip.y) <= clip.w && Math.abs(clip.z) <= clip.w)
+                count++;
+        }
+
+        return count;
+    }
+
+    /**
+     * Creates the modelview-projection matrix of a 45 degree perspective view looking straight down from a position.
+     *
+     * @param globe the globe.
+     * @param eye   the eye position.
+     *
+     * @return the modelview-projection matrix.
+     */
+    protected static Matrix createModelviewProjection(Globe globe, Position eye)
+    {
+        Vec4 eyePoint = globe.computePointFromPosition(eye);
+        Vec4 center = globe.computePointFromPosition(eye.getLatitude(), eye.getLongitude(), 0);
+        Vec4 up = globe.computeNorthPointingTangentAtLocation(eye.getLatitude(), eye.getLongitude());
+        Matrix modelview = Matrix.fromViewLookAt(eyePoint, center, up);
+
+        double far = Math.sqrt(eye.getElevation() * (2 * globe.getRadius() + eye.getElevation()));
+        Matrix projection = Matrix.fromPerspective(Angle.fromDegrees(45), VIEWPORT.width, VIEWPORT.height, 1, far);
+
+        return projection.multiply(modelview);
+    }
+}
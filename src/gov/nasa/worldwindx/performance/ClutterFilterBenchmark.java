@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+
+package gov.nasa.worldwindx.performance;
+
+import gov.nasa.worldwind.render.*;
+import gov.nasa.worldwind.util.*;
+
+import java.awt.*;
+import java.awt.geom.Rectangle2D;
+import java.util.*;
+import java.util.List;
+
+/**
+ * Measures the time for {@link BasicClutterFilter} and {@link PlacemarkClutterFilter} to declutter 1,000, 10,000 and
+ * 100,000 randomly placed labels on a 1920 by 1080 screen, comparing their grid-based region search with the linear
+ * search they previously used. No OpenGL context is required.
+ *
+ * @version $Id$
+ */
+public class ClutterFilterBenchmark
+{
+    protected static final int[] LABEL_COUNTS = new int[] {1000, 10000, 100000};
+    protected static final int WARMUP_ITERATIONS = 2;
+    protected static final int ITERATIONS = 5;
+
+    /** A label with fixed screen bounds. */
+    protected static class Label implements Declutterable
+    {
+        protected final Rectangle2D bounds;
+
+        public Label(Rectangle2D bounds)
+        {
+            this.bounds = bounds;
+        }
+
+        public boolean isEnableDecluttering()
+        {
+            return true;
+        }
+
+        public Rectangle2D getBounds(DrawContext dc)
+        {
+            return this.bounds;
+        }
+
+        public double getDistanceFromEye()
+        {
+            return 0;
+        }
+
+        public void pick(DrawContext dc, Point pickPoint)
+        {
+        }
+
+        public void render(DrawContext dc)
+        {
+        }
+    }
+
+    /** A basic clutter filter using the linear region search. */
+    protected static class LinearBasicClutterFilter extends BasicClutterFilter
+    {
+        @Override
+        protected Rectangle2D intersects(Rectangle2D rectangle)
+        {
+            return linearIntersects(this.rectList, rectangle);
+        }
+    }
+
+    /** A placemark clutter filter using the linear region search. */
+    protected static class LinearPlacemarkClutterFilter extends PlacemarkClutterFilter
+    {
+        @Override
+        protected Rectangle2D intersects(Rectangle2D rectangle)
+        {
+            return linearIntersects(this.rectList, rectangle);
+        }
+    }
+
+    protected static Rectangle2D linearIntersects(List<Rectangle2D> rectList, Rectangle2D rectangle)
+    {
+        if (rectangle == null)
+            return null;
+
+        for (Rectangle2D rect : rectList)
+        {
+            if (rectangle.intersects(rect))
+                return rect;
+        }
+
+        return null;
+    }
+
+    public static void main(String[] args)
+    {
+        System.out.printf("%-10s %-10s %14s %14s %8s\n", "Filter", "Labels", "Linear (ms)", "Grid (ms)", "Speedup");
+
+        for (int count : LABEL_COUNTS)
+        {
+            List<Declutterable> labels = createLabels(count);
+
+            double linear = time(new LinearBasicClutterFilter(), labels);
+            double grid = time(new BasicClutterFilter(), labels);
+            System.out.printf("%-10s %-10d %14.3f %14.3f %8.1f\n", "Basic", count, linear, grid, linear / grid);
+
+            linear = time(new LinearPlacemarkClutterFilter(), labels);
+            grid = time(new PlacemarkClutterFilter(), labels);
+            System.out.printf("%-10s %-10d %14.3f %14.3f %8.1f\n", "Placemark", count, linear, grid, linear / grid);
+        }
+    }
+
+    protected static List<Declutterable> createLabels(int count)
+    {
+        Random random = new Random(1);
+        List<Declutterable> labels = new ArrayList<Declutterable>(count);
+        for (int i = 0; i < count; i++)
+        {
+            labels.add(new Label(new Rectangle2D.Double(random.nextDouble() * 1920, random.nextDouble() * 1080,
+                40 + random.nextDouble() * 80, 14)));
+        }
+
+        return labels;
+    }
+
+    /**
+     * Returns the mean time in milliseconds for a filter to declutter a list of labels.
+     *
+     * @param filter the filter to apply.
+     * @param labels the labels to declutter.
+     *
+     * @return the mean filter time in milliseconds.
+     */
+    protected static double time(ClutterFilter filter, List<Declutterable> labels)
+    {
+        DrawContext dc = new DrawContextImpl();
+        long total = 0;
+
+        for (int i = 0; i < WARMUP_ITERATIONS + ITERATIONS; i++)
+        {
+            long start = System.nanoTime();
+            filter.apply(dc, labels);
+            if (i >= WARMUP_ITERATIONS)
+                total += System.nanoTime() - start;
+
+            while (dc.pollOrderedRenderables() != null)
+            {
+                // Discard the drawn labels.
+            }
+        }
+
+        return total / 1e6 / ITERATIONS;
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+
+package gov.nasa.worldwindx.performance;
+
+import gov.nasa.worldwind.geom.*;
+import gov.nasa.worldwind.geom.coords.*;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Measures the time to convert random geodetic points to UTM coordinates and to MGRS strings, one point at a time with
+ * {@link UTMCoord} and {@link MGRSCoord}, and in batches with {@link BatchCoordConverter} on the calling thread and on
+ * the common fork/join pool. Then measures the time to shift the points from NAD27 to WGS84 with {@link
+ * DatumTransformation} and with a batch converter. An optional argument specifies the number of points.
+ *
+ * @version $Id$
+ */
+public class CoordConversionBenchmark
+{
+    protected static final BenchmarkHarness HARNESS = new BenchmarkHarness(3, 10);
+
+    public static void main(String[] args)
+    {
+        final int count = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+
+        final double[] latitudes = new double[count];
+        final double[] longitudes = new double[count];
+        Random random = new Random(1);
+        for (int i = 0; i < count; i++)
+        {
+            latitudes[i] = 164 * random.nextDouble() - 80;
+            longitudes[i] = 360 * random.nextDouble() - 180;
+        }
+
+        final int[] zones = new int[count];
+        final String[] hemispheres = new String[count];
+        final double[] eastings = new double[count];
+        final double[] northings = new double[count];
+        final String[] strings = new String[count];
+        final BatchCoordConverter sequential = new BatchCoordConverter(null, null);
+        final BatchCoordConverter parallel = new BatchCoordConverter(null, ForkJoinPool.commonPool());
+
+        System.out.printf("%d points, %d threads in the common pool\n", count,
+            ForkJoinPool.commonPool().getParallelism());
+        System.out.printf("%-28s %12s %14s %8s\n", "Conversion", "Time (ms)", "Points/s", "Speedup");
+
+        double utm = HARNESS.report("UTMCoord.fromLatLon", count, -1, new Runnable()
+        {
+            public void run()
+            {
+                for (int i = 0; i < count; i++)
+                {
+                    UTMCoord coord = UTMCoord.fromLatLon(Angle.fromDegrees(latitudes[i]),
+                        Angle.fromDegrees(longitudes[i]));
+                    eastings[i] = coord.getEasting();
+                }
+            }
+        });
+        HARNESS.report("Batch UTM, calling thread", count, utm, new Runnable()
+        {
+            public void run()
+            {
+                sequential.convertToUTM(latitudes, longitudes, count, zones, hemispheres, eastings, northings);
+            }
+        });
+        HARNESS.report("Batch UTM, parallel", count, utm, new Runnable()
+        {
+            public void run()
+            {
+                parallel.convertToUTM(latitudes, longitudes, count, zones, hemispheres, eastings, northings);
+            }
+        });
+
+        double mgrs = HARNESS.report("MGRSCoord.fromLatLon", count, -1, new Runnable()
+        {
+            public void run()
+            {
+                for (int i = 0; i < count; i++)
+                {
+                    strings[i] = MGRSCoord.fromLatLon(Angle.fromDegrees(latitudes[i]),
+                        Angle.fromDegrees(longitudes[i])).toString();
+                }
+            }
+        });
+        HARNESS.report("Batch MGRS, calling thread", count, mgrs, new Runnable()
+        {
+            public void run()
+            {
+                sequential.convertToMGRS(latitudes, longitudes, count, 5, strings);
+            }
+        });
+        HARNESS.report("Batch MGRS, parallel", count, mgrs, new Runnable()
+        {
+            public void run()
+            {
+                parallel.convertToMGRS(latitudes, longitudes, count, 5, strings);
+            }
+        });
+
+        final double[] positions = new double[3 * count];
+        for (int i = 0; i < count; i++)
+        {
+            positions[3 * i] = latitudes[i];
+            positions[3 * i + 1] = longitudes[i];
+            positions[3 * i + 2] = 100 * (i % 100);
+        }
+        final double[] shifted = new double[3 * count];
+
+        double datum = HARNESS.report("DatumTransformation", count, -1, new Runnable()
+        {
+            public void run()
+            {
+                for (int i = 0; i < count; i++)
+                {
+                    Position position = DatumTransformation.convertNad27toWGS84(
+                        Position.fromDegrees(positions[3 * i], positions[3 * i + 1], positions[3 * i + 2]));
+                    shifted[3 * i] = position.latitude.degrees;
+                }
+            }
+        });
+        HARNESS.report("Batch datum, calling thread", count, datum, new Runnable()
+        {
+            public void run()
+            {
+                sequential.convertNad27ToWGS84(positions, count, shifted);
+            }
+        });
+        HARNESS.report("Batch datum, parallel", count, datum, new Runnable()
+        {
+            public void run()
+            {
+                parallel.convertNad27ToWGS84(positions, count, shifted);
+            }
+        });
+    }
+}
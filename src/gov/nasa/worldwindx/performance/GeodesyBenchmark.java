@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+
+package gov.nasa.worldwindx.performance;
+
+import gov.nasa.worldwind.avlist.AVKey;
+import gov.nasa.worldwind.geom.*;
+
+import java.util.*;
+
+/**
+ * Measures the time to compute the length of a random path and to densify it to a fixed interval, first with the
+ * {@link LatLon} methods, which create an angle or a location for every result, and then with the {@link Geodesy}
+ * methods on the same path packed into an array. An optional argument specifies the number of path locations.
+ *
+ * @version $Id$
+ */
+public class GeodesyBenchmark
+{
+    protected static final BenchmarkHarness HARNESS = new BenchmarkHarness(5, 20);
+    protected static final double INTERVAL = Math.toRadians(0.5);
+
+    protected static double sink;
+
+    public static void main(String[] args)
+    {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+
+        final List<LatLon> locations = new ArrayList<LatLon>(count);
+        Random random = new Random(1);
+        double lat = 0, lon = 0;
+        for (int i = 0; i < count; i++)
+        {
+            lat = Math.max(-80, Math.min(80, lat + 2 * random.nextDouble() - 1));
+            lon = Angle.normalizedDegreesLongitude(lon + 2 * random.nextDouble() - 1);
+            locations.add(LatLon.fromDegrees(lat, lon));
+        }
+        final double[] path = Geodesy.pack(locations);
+        final int n = count;
+
+        System.out.printf("%d locations\n", count);
+        System.out.printf("%-28s %12s %14s %8s\n", "Operation", "Time (ms)", "Segments/s", "Speedup");
+
+        String[] names = {"Great circle", "Rhumb line"};
+        String[] pathTypes = {AVKey.GREAT_CIRCLE, AVKey.RHUMB_LINE};
+        for (int k = 0; k < pathTypes.length; k++)
+        {
+            final String pathType = pathTypes[k];
+            String name = names[k];
+
+            double objects = HARNESS.report(name + " length, LatLon", count, -1, new Runnable()
+            {
+                public void run()
+                {
+                    double length = 0;
+                    for (int i = 1; i < n; i++)
+                    {
+                        length += LatLon.pathDistance(pathType, locations.get(i - 1), locations.get(i)).radians;
+                    }
+                    sink += length;
+                }
+            });
+            HARNESS.report(name + " length, Geodesy", count, objects, new Runnable()
+            {
+                public void run()
+                {
+                    sink += Geodesy.pathLength(pathType, path, n, null);
+                }
+            });
+
+            objects = HARNESS.report(name + " densify, LatLon", count, -1, new Runnable()
+            {
+                public void run()
+                {
+                    List<LatLon> dense = new ArrayList<LatLon>();
+                    dense.add(locations.get(0));
+                    for (int i = 1; i < n; i++)
+                    {
+                        LatLon a = locations.get(i - 1);
+                        LatLon b = locations.get(i);
+                        double distance = LatLon.pathDistance(pathType, a, b).radians;
+                        int parts = (int) Math.ceil(distance / INTERVAL);
+                        for (int j = 1; j < parts; j++)
+                        {
+                            dense.add(LatLon.interpolate(pathType, (double) j / parts, a, b));
+                        }
+                        dense.add(b);
+                    }
+                    sink += dense.size();
+                }
+            });
+            HARNESS.report(name + " densify, Geodesy", count, objects, new Runnable()
+            {
+                public void run()
+                {
+                    sink += Geodesy.densify(pathType, path, n, INTERVAL).length;
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+
+package gov.nasa.worldwindx.performance;
+
+import gov.nasa.worldwind.geom.Geodesy;
+import gov.nasa.worldwind.poi.POIIndex;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Measures the time to build a {@link POIIndex} of random places, to write it to a file and to open the file, then the
+ * average time of nearest neighbor, distance and name queries against the opened index, and of finding the nearest
+ * places by testing every place. An optional argument specifies the number of places.
+ *
+ * @version $Id$
+ */
+public class POIIndexBenchmark
+{
+    protected static final int NUM_QUERIES = 20000;
+    protected static final int NUM_SCANS = 5;
+    /** The radius of the distance queries, about 10 kilometers on Earth. */
+    protected static final double RADIUS = 10e3 / 6378137;
+    /** Runs each query set once to warm up and once to measure it. */
+    protected static final BenchmarkHarness HARNESS = new BenchmarkHarness(1, 1);
+
+    public static void main(String[] args) throws IOException
+    {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+
+        List<String> names = new ArrayList<String>(count);
+        double[] locations = new double[2 * count];
+        Random random = new Random(1);
+        for (int i = 0; i < count; i++)
+        {
+            names.add(Long.toString(random.nextLong() & Long.MAX_VALUE, 36));
+            locations[2 * i] = Math.toDegrees(Math.asin(2 * random.nextDouble() - 1));
+            locations[2 * i + 1] = 360 * random.nextDouble() - 180;
+        }
+
+        long start = System.nanoTime();
+        POIIndex built = POIIndex.build(names, locations);
+        System.out.printf("%d places\n", count);
+        System.out.printf("%-28s %12.1f ms\n", "Build", (System.nanoTime() - start) / 1e6);
+
+        File file = File.createTempFile("POIIndexBenchmark", ".poi");
+        file.deleteOnExit();
+        start = System.nanoTime();
+        built.write(file);
+        System.out.printf("%-28s %12.1f ms (%d MB)\n", "Write", (System.nanoTime() - start) / 1e6,
+            file.length() >> 20);
+        //noinspection UnusedAssignment
+        built = null;
+        names = null;
+        locations = null;
+
+        start = System.nanoTime();
+        final POIIndex index = POIIndex.open(file);
+        System.out.printf("%-28s %12.3f ms\n", "Open", (System.nanoTime() - start) / 1e6);
+
+        final double[] queries = new double[2 * NUM_QUERIES];
+        final String[] prefixes = new String[NUM_QUERIES];
+        for (int i = 0; i < NUM_QUERIES; i++)
+        {
+            queries[2 * i] = Math.toDegrees(Math.asin(2 * random.nextDouble() - 1));
+            queries[2 * i + 1] = 360 * random.nextDouble() - 180;
+            prefixes[i] = Long.toString(random.nextLong() & Long.MAX_VALUE, 36).substring(0, 3);
+        }
+
+        System.out.printf("%-28s %12s\n", "Query", "Time (us)");
+        report("Nearest 10", NUM_QUERIES, new Runnable()
+        {
+            public void run()
+            {
+                for (int i = 0; i < NUM_QUERIES; i++)
+                {
+                    index.findNearest(queries[2 * i], queries[2 * i + 1], 10);
+                }
+            }
+        });
+        report("Within 10 km", NUM_QUERIES, new Runnable()
+        {
+            public void run()
+            {
+                for (int i = 0; i < NUM_QUERIES; i++)
+                {
+                    index.findWithin(queries[2 * i], queries[2 * i + 1], RADIUS);
+                }
+            }
+        });
+        report("Name prefix, 10 names", NUM_QUERIES, new Runnable()
+        {
+            public void run()
+            {
+                for (int i = 0; i < NUM_QUERIES; i++)
+                {
+                    int[] found = index.findByName(prefixes[i], 10);
+                    for (int j : found)
+                    {
+                        index.getName(j);
+                    }
+                }
+            }
+        });
+        report("Nearest 1, every place", NUM_SCANS, new Runnable()
+        {
+            public void run()
+            {
+                for (int i = 0; i < NUM_SCANS; i++)
+                {
+                    double lat = Math.toRadians(queries[2 * i]);
+                    double lon = Math.toRadians(queries[2 * i + 1]);
+                    double nearest = Double.MAX_VALUE;
+                    for (int j = 0; j < index.size(); j++)
+                    {
+                        nearest = Math.min(nearest, Geodesy.greatCircleDistance(lat, lon,
+                            Math.toRadians(index.getLatitude(j)), Math.toRadians(index.getLongitude(j))));
+                    }
+                }
+            }
+        });
+    }
+
+    protected static void report(String name, int count, Runnable queries)
+    {
+        double time = HARNESS.measure(queries).time;
+        System.out.printf("%-28s %12.2f\n", name, time * 1e3 / count);
+    }
+}
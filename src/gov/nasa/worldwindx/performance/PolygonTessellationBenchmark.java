@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+
+package gov.nasa.worldwindx.performance;
+
+import gov.nasa.worldwind.formats.shapefile.*;
+import gov.nasa.worldwind.geom.Vec4;
+import gov.nasa.worldwind.util.*;
+
+import javax.media.opengl.glu.GLU;
+import java.util.*;
+
+/**
+ * Measures the time to tessellate the closed rings of the test shapefiles with the GLU tessellator, driven as {@link
+ * gov.nasa.worldwind.render.Polygon} previously drove it, and with {@link EarClippingTessellator}. Run from the
+ * repository root so that the shapefiles in testData are found. No OpenGL context is required.
+ *
+ * @version $Id$
+ */
+public class PolygonTessellationBenchmark
+{
+    protected static final String[] SHAPEFILES = {
+        "testData/shapefiles/BayArea.shp",
+        "testData/shapefiles/SPR_UGB.shp",
+        "testData/shapefiles/state_bounds.shp"
+    };
+    protected static final BenchmarkHarness HARNESS = new BenchmarkHarness(3, 10);
+
+    public static void main(String[] args)
+    {
+        System.out.printf("%-24s %8s %10s %12s %12s %8s\n", "Shapefile", "Rings", "Vertices", "GLU (ms)",
+            "Ear (ms)", "Speedup");
+
+        for (String path : SHAPEFILES)
+        {
+            List<double[]> rings = readClosedRings(path);
+            int vertexCount = 0;
+            for (double[] ring : rings)
+            {
+                vertexCount += ring.length / 3;
+            }
+
+            double glu = timeGLU(rings);
+            double ear = timeEarClipping(rings);
+            String name = path.substring(path.lastIndexOf('/') + 1);
+            System.out.printf("%-24s %8d %10d %12.3f %12.3f %8.1f\n", name, rings.size(), vertexCount, glu, ear,
+                glu / ear);
+        }
+    }
+
+    /**
+     * Reads the closed parts of a shapefile's records as rings of x, y, z coordinates, translated to each ring's first
+     * vertex.
+     *
+     * @param path the shapefile's path.
+     *
+     * @return the rings.
+     */
+    protected static List<double[]> readClosedRings(String path)
+    {
+        List<double[]> rings = new ArrayList<double[]>();
+        Shapefile shapefile = new Shapefile(path);
+        try
+        {
+            double[] origin = new double[2];
+            double[] point = new double[2];
+
+            while (shapefile.hasNext())
+            {
+                ShapefileRecord record = shapefile.nextRecord();
+                for (int part = 0; part < record.getNumberOfParts(); part++)
+                {
+                    VecBuffer buffer = record.getPointBuffer(part);
+                    int n = buffer.getSize();
+                    buffer.get(0, origin);
+                    buffer.get(n - 1, point);
+                    if (n < 4 || origin[0] != point[0] || origin[1] != point[1])
+                        continue;
+
+                    double[] ring = new double[3 * n];
+                    for (int i = 0; i < n; i++)
+                    {
+                        buffer.get(i, point);
+                        ring[3 * i] = point[0] - origin[0];
+                        ring[3 * i + 1] = point[1] - origin[1];
+                    }
+                    rings.add(ring);
+                }
+            }
+        }
+        finally
+        {
+            shapefile.close();
+        }
+
+        return rings;
+    }
+
+    protected static double timeGLU(final List<double[]> rings)
+    {
+        return HARNESS.measure(new Runnable()
+        {
+            public void run()
+            {
+                for (double[] ring : rings)
+                {
+                    GLUTessellatorSupport glts = new GLUTessellatorSupport();
+                    GLUTessellatorSupport.CollectIndexListsCallback cb =
+                        new GLUTessellatorSupport.CollectIndexListsCallback();
+                    glts.beginTessellation(cb, Vec4.UNIT_Z);
+                    try
+                    {
+                        GLU.gluTessBeginPolygon(glts.getGLUtessellator(), null);
+                        GLU.gluTessBeginContour(glts.getGLUtessellator());
+                        for (int k = 0; k < ring.length / 3; k++)
+                        {
+                            double[] coords = {ring[3 * k], ring[3 * k + 1], 0};
+                            GLU.gluTessVertex(glts.getGLUtessellator(), coords, 0, k);
+                        }
+                        GLU.gluTessEndContour(glts.getGLUtessellator());
+                        GLU.gluTessEndPolygon(glts.getGLUtessellator());
+                    }
+                    finally
+                    {
+                        glts.endTessellation();
+                    }
+                }
+            }
+        }).time;
+    }
+
+    protected static double timeEarClipping(final List<double[]> rings)
+    {
+        final EarClippingTessellator tess = new EarClippingTessellator();
+        final int[] starts = {0};
+
+        return HARNESS.measure(new Runnable()
+        {
+            public void run()
+            {
+                for (double[] ring : rings)
+                {
+                    tess.tessellate(ring, 3, starts, 1, ring.length / 3, 0, 0, 1);
+                }
+            }
+        }).time;
+    }
+}
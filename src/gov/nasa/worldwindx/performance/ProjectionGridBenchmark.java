@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+
+package gov.nasa.worldwindx.performance;
+
+import gov.nasa.worldwind.geom.*;
+import gov.nasa.worldwind.globes.*;
+import gov.nasa.worldwind.globes.projections.*;
+
+/**
+ * Measures the time for flat globe projections to compute the Cartesian points of a tessellation grid, one point at a
+ * time with the projection's point method and with the projection's grid method, which computes the terms that depend
+ * on only latitude or only longitude once per grid row or column. An optional argument specifies the number of rows and
+ * columns in the grid.
+ *
+ * @version $Id$
+ */
+public class ProjectionGridBenchmark
+{
+    protected static final BenchmarkHarness HARNESS = new BenchmarkHarness(5, 20, 40);
+
+    public static void main(String[] args)
+    {
+        final int size = args.length > 0 ? Integer.parseInt(args[0]) : 33;
+        final int count = size * size;
+        final double[] elevations = new double[count];
+        final Vec4[] points = new Vec4[count];
+
+        System.out.printf("%d x %d grid, %d iterations per row\n", size, size, HARNESS.getIterations());
+        System.out.printf("%-40s %12s %14s %8s\n", "Projection", "Time (ms)", "Points/s", "Speedup");
+
+        GeographicProjection[] projections = new GeographicProjection[] {new ProjectionUTM(32), new ProjectionUPS(),
+            new ProjectionMercator()};
+        Sector[] sectors = new Sector[] {Sector.fromDegrees(40, 50, 6, 12), Sector.fromDegrees(60, 90, -90, 90),
+            Sector.fromDegrees(-60, 60, -180, 180)};
+
+        for (int k = 0; k < projections.length; k++)
+        {
+            final GeographicProjection projection = projections[k];
+            final Sector sector = sectors[k];
+            final FlatGlobe globe = new EarthFlat();
+            globe.setProjection(projection);
+
+            double perPoint = HARNESS.report(projection.getName() + ", points", count, -1, new Runnable()
+            {
+                public void run()
+                {
+                    double deltaLat = sector.getDeltaLatRadians() / (size - 1);
+                    double deltaLon = sector.getDeltaLonRadians() / (size - 1);
+                    for (int j = 0, pos = 0; j < size; j++)
+                    {
+                        double lat = sector.getMinLatitude().radians + j * deltaLat;
+                        for (int i = 0; i < size; i++, pos++)
+                        {
+                            double lon = sector.getMinLongitude().radians + i * deltaLon;
+                            points[pos] = projection.geographicToCartesian(globe, Angle.fromRadiansLatitude(lat),
+                                Angle.fromRadiansLongitude(lon), elevations[pos], Vec4.ZERO);
+                        }
+                    }
+                }
+            });
+            HARNESS.report(projection.getName() + ", grid", count, perPoint, new Runnable()
+            {
+                public void run()
+                {
+                    projection.geographicToCartesian(globe, sector, size, size, elevations, Vec4.ZERO, points);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+
+package gov.nasa.worldwindx.performance;
+
+import gov.nasa.worldwind.geom.Sector;
+import gov.nasa.worldwind.util.*;
+
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Measures the throughput of a {@link BasicQuadTree} and a {@link ConcurrentQuadTree} under a mixed workload: one
+ * thread adds items at random locations while several threads query random regions, for a fixed time. Also measures
+ * the time to load the trees' initial items. Optional arguments specify the number of query threads and the number of
+ * initial items.
+ *
+ * @version $Id$
+ */
+public class QuadTreeConcurrencyBenchmark
+{
+    protected static final long DURATION_MILLIS = 3000;
+    protected static final double QUERY_SIZE = 5;
+
+    /** The operations the benchmark performs, implemented by each tree. */
+    protected interface Index
+    {
+        void load(List<Integer> items, List<double[]> coords);
+
+        void add(Integer item, double[] coords);
+
+        int query(Sector sector);
+    }
+
+    public static void main(String[] args) throws InterruptedException
+    {
+        int numReaders = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 100000;
+
+        List<Integer> items = new ArrayList<Integer>(count);
+        List<double[]> coords = new ArrayList<double[]>(count);
+        Random random = new Random(1);
+        for (int i = 0; i < count; i++)
+        {
+            items.add(i);
+            coords.add(randomLocation(random));
+        }
+
+        System.out.printf("%d initial items, %d query threads, 1 writer thread, %d ms\n", count, numReaders,
+            DURATION_MILLIS);
+        System.out.printf("%-22s %12s %14s %14s\n", "Tree", "Load (ms)", "Queries/s", "Adds/s");
+
+        run("BasicQuadTree", new Index()
+        {
+            protected BasicQuadTree<Integer> tree = new BasicQuadTree<Integer>(8, Sector.FULL_SPHERE, null);
+
+            public void load(List<Integer> items, List<double[]> coords)
+            {
+                for (int i = 0; i < items.size(); i++)
+                {
+                    this.tree.add(items.get(i), coords.get(i));
+                }
+            }
+
+            public void add(Integer item, double[] coords)
+            {
+                this.tree.add(item, coords);
+            }
+
+            public int query(Sector sector)
+            {
+                return this.tree.getItemsInRegion(sector, null).size();
+            }
+        }, items, coords, numReaders);
+
+        run("ConcurrentQuadTree", new Index()
+        {
+            protected ConcurrentQuadTree<Integer> tree = new ConcurrentQuadTree<Integer>(Sector.FULL_SPHERE);
+
+            public void load(List<Integer> items, List<double[]> coords)
+            {
+                this.tree.addAll(items, coords);
+            }
+
+            public void add(Integer item, double[] coords)
+            {
+                this.tree.add(item, coords);
+            }
+
+            public int query(Sector sector)
+            {
+                return this.tree.getItemsInRegion(sector, null).size();
+            }
+        }, items, coords, numReaders);
+    }
+
+    protected static void run(String name, final Index index, List<Integer> items, List<double[]> coords,
+        int numReaders) throws InterruptedException
+    {
+        long start = System.nanoTime();
+        index.load(items, coords);
+        double loadTime = (System.nanoTime() - start) / 1e6;
+
+        final AtomicBoolean done = new AtomicBoolean();
+        final AtomicLong numQueries = new AtomicLong();
+        final AtomicLong numAdds = new AtomicLong();
+        final AtomicLong sink = new AtomicLong();
+
+        List<Thread> threads = new ArrayList<Thread>();
+        threads.add(new Thread(new Runnable()
+        {
+            public void run()
+            {
+                Random random = new Random(2);
+                int item = -1;
+                while (!done.get())
+                {
+                    index.add(item--, randomLocation(random));
+                    numAdds.incrementAndGet();
+                }
+            }
+        }));
+
+        for (int i = 0; i < numReaders; i++)
+        {
+            final int seed = 3 + i;
+            threads.add(new Thread(new Runnable()
+            {
+                public void run()
+                {
+                    Random random = new Random(seed);
+                    long found = 0;
+                    while (!done.get())
+                    {
+                        double[] location = randomLocation(random);
+                        found += index.query(Sector.fromDegrees(location[0], location[0] + QUERY_SIZE, location[1],
+                            location[1] + QUERY_SIZE));
+                        numQueries.incrementAndGet();
+                    }
+                    sink.addAndGet(found);
+                }
+            }));
+        }
+
+        for (Thread thread : threads)
+        {
+            thread.start();
+        }
+        Thread.sleep(DURATION_MILLIS);
+        done.set(true);
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        System.out.printf("%-22s %12.1f %14.0f %14.0f\n", name, loadTime, numQueries.get() * 1e3 / DURATION_MILLIS,
+            numAdds.get() * 1e3 / DURATION_MILLIS);
+    }
+
+    protected static double[] randomLocation(Random random)
+    {
+        return new double[] {170 * random.nextDouble() - 85, 350 * random.nextDouble() - 175};
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+
+package gov.nasa.worldwindx.performance;
+
+import gov.nasa.worldwind.Locatable;
+import gov.nasa.worldwind.geom.*;
+import gov.nasa.worldwind.globes.*;
+import gov.nasa.worldwind.render.*;
+import gov.nasa.worldwind.util.RenderableQuadTree;
+
+import java.util.*;
+
+/**
+ * Measures the time to cull a large number of randomly distributed locatable renderables against a series of view
+ * frustums, first by testing each renderable's bounds in turn and then with a {@link RenderableQuadTree}. No OpenGL
+ * context is required. Optional arguments specify the number of renderables and the number of views.
+ *
+ * @version $Id$
+ */
+public class RenderableCullingBenchmark
+{
+    protected static final int WARMUP_ITERATIONS = 3;
+
+    /** A minimal renderable with a position, standing in for a placemark. */
+    protected static class Item implements Renderable, Locatable
+    {
+        protected final Position position;
+
+        public Item(Position position)
+        {
+            this.position = position;
+        }
+
+        public Position getPosition()
+        {
+            return this.position;
+        }
+
+        public void render(DrawContext dc)
+        {
+        }
+    }
+
+    public static void main(String[] args)
+    {
+        int numItems = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        int numViews = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        Globe globe = new Earth();
+        Random random = new Random(1);
+
+        List<Item> items = new ArrayList<Item>(numItems);
+        for (int i = 0; i < numItems; i++)
+        {
+            double lat = Math.toDegrees(Math.asin(2 * random.nextDouble() - 1));
+            double lon = 360 * random.nextDouble() - 180;
+            items.add(new Item(Position.fromDegrees(lat, lon, 1000 * random.nextDouble())));
+        }
+
+        Frustum[] frustums = new Frustum[numViews];
+        for (int i = 0; i < numViews; i++)
+        {
+            double altitude = 50e3 * Math.pow(2, i % 8);
+            frustums[i] = createFrustum(globe, Position.fromDegrees(80 * random.nextDouble() - 40,
+                360 * random.nextDouble() - 180, altitude));
+        }
+
+        RenderableQuadTree tree = new RenderableQuadTree();
+        long start = System.nanoTime();
+        for (Item item : items)
+        {
+            tree.add(item);
+        }
+        double buildTime = (System.nanoTime() - start) / 1e6;
+
+        List<Renderable> result = new ArrayList<Renderable>();
+        start = System.nanoTime();
+        tree.getVisibleRenderables(globe, 1, frustums[0], result);
+        double boundsTime = (System.nanoTime() - start) / 1e6;
+
+        // Linear culling tests each renderable's precomputed bounds, as an unindexed layer's renderables do.
+        Extent[] extents = new Extent[numItems];
+        for (int i = 0; i < numItems; i++)
+        {
+            extents[i] = new Sphere(globe.computePointFromPosition(items.get(i).getPosition()), 1);
+        }
+
+        System.out.printf("%d renderables, tree build %.1f ms, initial bounds %.1f ms\n", numItems, buildTime,
+            boundsTime);
+        System.out.printf("%-8s %10s %10s %12s %12s %8s\n", "View", "Linear", "Indexed", "Linear (ms)",
+            "Indexed (ms)", "Speedup");
+
+        double totalLinear = 0;
+        double totalIndexed = 0;
+        for (int v = 0; v < numViews; v++)
+        {
+            int linearCount = 0;
+            for (int i = 0; i < WARMUP_ITERATIONS; i++)
+            {
+                linearCount = cullLinear(extents, frustums[v]);
+            }
+            start = System.nanoTime();
+            cullLinear(extents, frustums[v]);
+            double linearTime = (System.nanoTime() - start) / 1e6;
+
+            for (int i = 0; i < WARMUP_ITERATIONS; i++)
+            {
+                result.clear();
+                tree.getVisibleRenderables(globe, 1, frustums[v], result);
+            }
+            result.clear();
+            start = System.nanoTime();
+            tree.getVisibleRenderables(globe, 1, frustums[v], result);
+            double indexedTime = (System.nanoTime() - start) / 1e6;
+
+            totalLinear += linearTime;
+            totalIndexed += indexedTime;
+            System.out.printf("%-8d %10d %10d %12.3f %12.3f %8.1f\n", v, linearCount, result.size(), linearTime,
+                indexedTime, linearTime / indexedTime);
+        }
+
+        System.out.printf("%-8s %10s %10s %12.3f %12.3f %8.1f\n", "Total", "", "", totalLinear, totalIndexed,
+            totalLinear / totalIndexed);
+    }
+
+    protected static int cullLinear(Extent[] extents, Frustum frustum)
+    {
+        int count = 0;
+        for (Extent extent : extents)
+        {
+            if (frustum.intersects(extent))
+                count++;
+        }
+
+        return count;
+    }
+
+    /**
+     * Creates a 45 degree perspective frustum in model coordinates for an eye looking straight down from a position.
+     *
+     * @param globe the globe.
+     * @param eye   the eye position.
+     *
+     * @return the frustum in model coordinates.
+     */
+    protected static Frustum createFrustum(Globe globe, Position eye)
+    {
+        Vec4 eyePoint = globe.computePointFromPosition(eye);
+        Vec4 center = globe.computePointFromPosition(eye.getLatitude(), eye.getLongitude(), 0);
+        Vec4 up = globe.computeNorthPointingTangentAtLocation(eye.getLatitude(), eye.getLongitude());
+        Matrix modelview = Matrix.fromViewLookAt(eyePoint, center, up);
+
+        double far = Math.sqrt(eye.getElevation() * (2 * globe.getRadius() + eye.getElevation()));
+        Frustum frustum = Frustum.fromPerspective(Angle.fromDegrees(45), 1000, 800, 1, far);
+
+        return frustum.transformBy(modelview.getTranspose());
+    }
+}
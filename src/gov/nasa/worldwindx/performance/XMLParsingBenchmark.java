@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+
+package gov.nasa.worldwindx.performance;
+
+import gov.nasa.worldwind.Configuration;
+import gov.nasa.worldwind.avlist.AVKey;
+import gov.nasa.worldwind.ogc.collada.ColladaRoot;
+import gov.nasa.worldwind.ogc.kml.KMLRoot;
+import gov.nasa.worldwind.ogc.wcs.wcs100.*;
+import gov.nasa.worldwind.util.Logging;
+
+import java.io.File;
+import java.util.logging.Level;
+
+/**
+ * Measures the time to parse the KML, COLLADA and OGC capabilities documents in the <code>testData</code> directory
+ * with the standard event-based XML backend and with the cursor-based backend, {@link
+ * gov.nasa.worldwind.util.xml.CursorXMLEventReader}. Run from the project root directory. An optional argument
+ * specifies the number of timed iterations per document.
+ *
+ * @version $Id$
+ */
+public class XMLParsingBenchmark
+{
+    protected static final int WARMUP_ITERATIONS = 5;
+    /** Holds the logger so that its level isn't lost if the logger is garbage collected. */
+    protected static java.util.logging.Logger logger;
+
+    protected interface DocumentParser
+    {
+        void parse(File file) throws Exception;
+    }
+
+    protected static final DocumentParser KML_PARSER = new DocumentParser()
+    {
+        public void parse(File file) throws Exception
+        {
+            KMLRoot.createAndParse(file);
+        }
+    };
+
+    protected static final DocumentParser COLLADA_PARSER = new DocumentParser()
+    {
+        public void parse(File file) throws Exception
+        {
+            ColladaRoot.createAndParse(file);
+        }
+    };
+
+    protected static final DocumentParser WCS_CAPABILITIES_PARSER = new DocumentParser()
+    {
+        public void parse(File file) throws Exception
+        {
+            new WCS100Capabilities(file).parse();
+        }
+    };
+
+    protected static final DocumentParser WCS_DESCRIBE_COVERAGE_PARSER = new DocumentParser()
+    {
+        public void parse(File file) throws Exception
+        {
+            new WCS100DescribeCoverage(file).parse();
+        }
+    };
+
+    public static void main(String[] args) throws Exception
+    {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+
+        // Unrecognized-element warnings would dominate the timings.
+        logger = Logging.logger();
+        logger.setLevel(Level.SEVERE);
+
+        System.out.printf("%-45s %12s %12s %8s\n", "Document", "Event (ms)", "Cursor (ms)", "Speedup");
+
+        benchmarkDirectory(new File("testData/KML"), ".kml", KML_PARSER, iterations);
+        benchmarkDirectory(new File("testData/collada"), ".dae", COLLADA_PARSER, iterations);
+        benchmark(new File("testData/WCS/WCSCapabilities001.xml"), WCS_CAPABILITIES_PARSER, iterations);
+        benchmark(new File("testData/WCS/WCSCapabilities002.xml"), WCS_CAPABILITIES_PARSER, iterations);
+        benchmark(new File("testData/WCS/WCSCapabilities003.xml"), WCS_CAPABILITIES_PARSER, iterations);
+        benchmark(new File("testData/WCS/WCSDescribeCoverage001.xml"), WCS_DESCRIBE_COVERAGE_PARSER, iterations);
+        benchmark(new File("testData/WCS/WCSDescribeCoverage002.xml"), WCS_DESCRIBE_COVERAGE_PARSER, iterations);
+    }
+
+    protected static void benchmarkDirectory(File dir, String suffix, DocumentParser parser, int iterations)
+        throws Exception
+    {
+        File[] files = dir.listFiles();
+        if (files == null)
+            return;
+
+        java.util.Arrays.sort(files);
+
+        for (File file : files)
+        {
+            if (file.isFile() && file.getName().endsWith(suffix))
+                benchmark(file, parser, iterations);
+        }
+    }
+
+    protected static void benchmark(File file, DocumentParser parser, int iterations) throws Exception
+    {
+        if (!file.exists())
+            return;
+
+        double eventTime = time(file, parser, iterations, false);
+        double cursorTime = time(file, parser, iterations, true);
+
+        System.out.printf("%-45s %12.3f %12.3f %8.2f\n", file.getPath(), eventTime, cursorTime,
+            eventTime / cursorTime);
+    }
+
+    /**
+     * Returns the mean time in milliseconds to parse a document with a specified backend.
+     *
+     * @param file       the document to parse.
+     * @param parser     the parser to use.
+     * @param iterations the number of timed iterations.
+     * @param cursor     true to use the cursor-based backend, false to use the standard event backend.
+     *
+     * @return the mean parse time in milliseconds.
+     *
+     * @throws Exception if the document cannot be parsed.
+     */
+    protected static double time(File file, DocumentParser parser, int iterations, boolean cursor) throws Exception
+    {
+        Configuration.setValue(AVKey.XML_CURSOR_PARSING_ENABLED, cursor);
+
+        try
+        {
+            for (int i = 0; i < WARMUP_ITERATIONS; i++)
+            {
+                parser.parse(file);
+            }
+
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++)
+            {
+                parser.parse(file);
+            }
+
+            return (System.nanoTime() - start) / 1e6 / iterations;
+        }
+        finally
+        {
+            Configuration.removeKey(AVKey.XML_CURSOR_PARSING_ENABLED);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+package gov.nasa.worldwind.formats.geojson;
+
+import gov.nasa.worldwind.avlist.AVList;
+import gov.nasa.worldwind.geom.Position;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.*;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class GeoJSONFeatureIteratorTest
+{
+    private static final String POINT_FEATURE =
+        "{\"type\": \"Feature\", \"geometry\": {\"type\": \"Point\", \"coordinates\": [102.0, 0.5]},"
+            + " \"properties\": {\"name\": \"a\", \"rank\": 1, \"extra\": {\"nested\": [1, 2, {\"x\": 3}]}}}";
+
+    private static final String LINE_FEATURE =
+        "{\"type\": \"Feature\", \"properties\": {\"extra\": [4, 5], \"name\": \"b\"},"
+            + " \"geometry\": {\"type\": \"LineString\", \"coordinates\": [[102.0, 0.0], [103.0, 1.0], [104.0, 0.0]]}}";
+
+    private static final String COLLECTION =
+        "{\"type\": \"FeatureCollection\", \"crs\": {\"type\": \"name\", \"properties\": {\"name\": \"EPSG:4326\"}},"
+            + " \"features\": [" + POINT_FEATURE + ", " + LINE_FEATURE + "], \"bbox\": [100.0, 0.0, 105.0, 1.0]}";
+
+    /** Tests that iterating a FeatureCollection yields the same features as parsing the whole document. */
+    @Test
+    public void testFeatureCollection() throws IOException
+    {
+        GeoJSONDoc doc = new GeoJSONDoc(stream(COLLECTION));
+        doc.parse();
+        GeoJSONFeature[] expected = ((GeoJSONFeatureCollection) doc.getRootObject()).getFeatures();
+        doc.close();
+
+        doc = new GeoJSONDoc(stream(COLLECTION));
+        GeoJSONFeatureIterator iter = doc.getFeatureIterator(null);
+        List<GeoJSONFeature> actual = drain(iter);
+        doc.close();
+
+        assertEquals("Incorrect feature count", expected.length, actual.size());
+        for (int i = 0; i < expected.length; i++)
+        {
+            assertFeatureEquals(expected[i], actual.get(i));
+            assertEquals("Incorrect property", expected[i].getProperties().getValue("name"),
+                actual.get(i).getProperties().getValue("name"));
+        }
+
+        assertEquals("Incorrect collection type", GeoJSONConstants.TYPE_FEATURE_COLLECTION,
+            iter.getCollectionFields().getValue(GeoJSONConstants.FIELD_TYPE));
+        assertNotNull("Collection crs is null", iter.getCollectionFields().getValue(GeoJSONConstants.FIELD_CRS));
+        assertNotNull("Collection bbox is null", iter.getCollectionFields().getValue(GeoJSONConstants.FIELD_BBOX));
+    }
+
+    /** Tests iteration over newline-delimited features. */
+    @Test
+    public void testNewlineDelimited() throws IOException
+    {
+        GeoJSONDoc doc = new GeoJSONDoc(stream(POINT_FEATURE + "\n" + LINE_FEATURE + "\n" + POINT_FEATURE + "\n"));
+        List<GeoJSONFeature> features = drain(doc.getFeatureIterator(null));
+        doc.close();
+
+        assertEquals("Incorrect feature count", 3, features.size());
+        assertTrue("Feature 0 is not a point", features.get(0).getGeometry().isPoint());
+        assertTrue("Feature 1 is not a line string", features.get(1).getGeometry().isLineString());
+        assertTrue("Feature 2 is not a point", features.get(2).getGeometry().isPoint());
+        assertEquals("Incorrect position", Position.fromDegrees(0.5, 102.0, 0),
+            features.get(2).getGeometry().asPoint().getPosition());
+    }
+
+    /** Tests iteration over a root-level array of features. */
+    @Test
+    public void testFeatureArray() throws IOException
+    {
+        GeoJSONDoc doc = new GeoJSONDoc(stream("[" + POINT_FEATURE + ", " + LINE_FEATURE + "]"));
+        List<GeoJSONFeature> features = drain(doc.getFeatureIterator(null));
+        doc.close();
+
+        assertEquals("Incorrect feature count", 2, features.size());
+    }
+
+    /** Tests that only the requested properties are retained and the geometry is unaffected. */
+    @Test
+    public void testPropertyFilter() throws IOException
+    {
+        GeoJSONDoc doc = new GeoJSONDoc(stream(COLLECTION));
+        List<GeoJSONFeature> features = drain(doc.getFeatureIterator(new HashSet<String>(Arrays.asList("name"))));
+        doc.close();
+
+        assertEquals("Incorrect feature count", 2, features.size());
+
+        AVList properties = features.get(0).getProperties();
+        assertEquals("Incorrect property", "a", properties.getValue("name"));
+        assertFalse("Unrequested property retained", properties.hasKey("rank"));
+        assertFalse("Unrequested property retained", properties.hasKey("extra"));
+
+        properties = features.get(1).getProperties();
+        assertEquals("Incorrect property", "b", properties.getValue("name"));
+        assertFalse("Unrequested property retained", properties.hasKey("extra"));
+        assertEquals("Incorrect position count", 3, features.get(1).getGeometry().asLineString()
+            .getCoordinates().length());
+    }
+
+    private static InputStream stream(String s)
+    {
+        return new ByteArrayInputStream(s.getBytes());
+    }
+
+    private static List<GeoJSONFeature> drain(Iterator<GeoJSONFeature> iter)
+    {
+        List<GeoJSONFeature> list = new ArrayList<GeoJSONFeature>();
+        while (iter.hasNext())
+        {
+            list.add(iter.next());
+        }
+
+        return list;
+    }
+
+    private static void assertFeatureEquals(GeoJSONFeature expected, GeoJSONFeature actual)
+    {
+        GeoJSONGeometry e = expected.getGeometry();
+        GeoJSONGeometry a = actual.getGeometry();
+        assertEquals("Incorrect geometry type", e.getType(), a.getType());
+
+        if (e.isPoint())
+        {
+            assertEquals("Incorrect position", e.asPoint().getPosition(), a.asPoint().getPosition());
+        }
+        else if (e.isLineString())
+        {
+            GeoJSONPositionArray ep = e.asLineString().getCoordinates();
+            GeoJSONPositionArray ap = a.asLineString().getCoordinates();
+            assertEquals("Incorrect position count", ep.length(), ap.length());
+            for (int i = 0; i < ep.length(); i++)
+            {
+                assertEquals("Incorrect position", ep.getPosition(i), ap.getPosition(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,354 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+package gov.nasa.worldwind.formats.nitfs;
+
+import gov.nasa.worldwind.formats.rpf.RPFImageType;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class NITFSImageSegmentTest
+{
+    /** The pixel value of pixels the decoder leaves unchanged. */
+    private static final int BACKGROUND = 0x12345678;
+
+    /** Tests that a frame decodes to the same pixels as the per-pixel decode, for every image type. */
+    @Test
+    public void testDecodeMatchesPerPixelDecode() throws IOException
+    {
+        Frame frame = new Frame(new Random(1), false);
+        NITFSImageSegment segment = frame.createSegment();
+        assertFalse("Transparent pixels", segment.hasTransparentPixels());
+        assertFalse("Masked subframes", segment.hasMaskedSubframes());
+
+        for (RPFImageType imageType : RPFImageType.values())
+        {
+            assertArrayEquals(imageType.toString(), frame.decode(imageType), decode(segment, imageType));
+        }
+    }
+
+    /** Tests that transparent kernels, transparent and reserved color codes and masked subframes are skipped. */
+    @Test
+    public void testDecodeTransparentMatchesPerPixelDecode() throws IOException
+    {
+        Frame frame = new Frame(new Random(2), true);
+        NITFSImageSegment segment = frame.createSegment();
+        assertTrue("Transparent pixels", segment.hasTransparentPixels());
+        assertTrue("Masked subframes", segment.hasMaskedSubframes());
+
+        for (RPFImageType imageType : RPFImageType.values())
+        {
+            int[] expected = frame.decode(imageType);
+            int[] actual = decode(segment, imageType);
+            assertArrayEquals(imageType.toString(), expected, actual);
+            // Decode again to test the segment's codebook reuse.
+            assertArrayEquals(imageType + " again", expected, decode(segment, imageType));
+        }
+    }
+
+    private static int[] decode(NITFSImageSegment segment, RPFImageType imageType)
+    {
+        int[] pixels = new int[Frame.SIZE * Frame.SIZE];
+        Arrays.fill(pixels, BACKGROUND);
+
+        return segment.getImagePixelsAsArray(pixels, imageType);
+    }
+
+    /**
+     * A CADRG-like frame of 2 x 2 subframes with random compression codes, codebook and color lookup table. The frame
+     * encodes itself as an image segment and decodes itself one pixel at a time, as the image segment decoded before
+     * it expanded the codebook and the color lookup table.
+     */
+    private static class Frame
+    {
+        private static final int SUBFRAMES = 2;
+        private static final int CODE_ROWS = 4;
+        private static final int CODES_PER_ROW = 4;
+        private static final int SUBFRAME_SIZE = 4 * CODES_PER_ROW;
+        private static final int SIZE = SUBFRAMES * SUBFRAME_SIZE;
+        private static final int NUM_CODES = 300;
+        private static final int NUM_COLORS = 200;
+        private static final int TRANSPARENT_KERNEL = 4095;
+
+        private final boolean transparent;
+        private final int transparentColor;
+        private final byte[][] codebook = new byte[4][4 * NUM_CODES];
+        private final byte[][] colors = new byte[3][NUM_COLORS];
+        private final int[][] codes = new int[SUBFRAMES * SUBFRAMES][CODE_ROWS * CODES_PER_ROW];
+        private final boolean[] masked = new boolean[SUBFRAMES * SUBFRAMES];
+
+        public Frame(Random random, boolean transparent)
+        {
+            this.transparent = transparent;
+            this.transparentColor = transparent ? 7 : 0;
+
+            // Color codes past the color lookup table are reserved application codes.
+            for (byte[] row : this.codebook)
+            {
+                for (int i = 0; i < row.length; i++)
+                {
+                    row[i] = (byte) random.nextInt(transparent ? 256 : NUM_COLORS);
+                }
+            }
+
+            for (byte[] component : this.colors)
+            {
+                random.nextBytes(component);
+            }
+
+            for (int[] subframeCodes : this.codes)
+            {
+                for (int i = 0; i < subframeCodes.length; i++)
+                {
+                    subframeCodes[i] = transparent && i % 5 == 0 ? TRANSPARENT_KERNEL : random.nextInt(NUM_CODES);
+                }
+            }
+
+            this.masked[2] = transparent;
+        }
+
+        public int[] decode(RPFImageType imageType)
+        {
+            int[] pixels = new int[SIZE * SIZE];
+            Arrays.fill(pixels, BACKGROUND);
+
+            for (int subframe = 0; subframe < this.codes.length; subframe++)
+            {
+                if (this.masked[subframe])
+                    continue;
+
+                int blockY = (subframe / SUBFRAMES) * SUBFRAME_SIZE;
+                int blockX = (subframe % SUBFRAMES) * SUBFRAME_SIZE;
+                for (int row = 0; row < CODE_ROWS; row++)
+                {
+                    for (int col = 0; col < CODES_PER_ROW; col++)
+                    {
+                        int code = this.codes[subframe][row * CODES_PER_ROW + col];
+                        if (this.transparent && code == TRANSPARENT_KERNEL)
+                            continue;
+
+                        for (int h = 0; h < 4; h++)
+                        {
+                            for (int w = 0; w < 4; w++)
+                            {
+                                int colorCode = 0xFF & this.codebook[h][4 * code + w];
+                                if (this.transparent && colorCode == this.transparentColor)
+                                    continue;
+                                if (colorCode >= NUM_COLORS)
+                                    continue;
+
+                                int rgb = ((0xFF & this.colors[0][colorCode]) << 16)
+                                    | ((0xFF & this.colors[1][colorCode]) << 8) | (0xFF & this.colors[2][colorCode]);
+                                if (imageType == RPFImageType.IMAGE_TYPE_ALPHA_RGB)
+                                    rgb = 0xFF000000 + rgb;
+                                else if (imageType == RPFImageType.IMAGE_TYPE_GRAY_ALPHA
+                                    || imageType == RPFImageType.IMAGE_TYPE_RGB_ALPHA)
+                                    rgb = (rgb << 8) + 0xFF;
+
+                                pixels[(blockY + row * 4 + h) * SIZE + blockX + col * 4 + w] = rgb;
+                            }
+                        }
+                    }
+                }
+            }
+
+            return pixels;
+        }
+
+        public NITFSImageSegment createSegment() throws IOException
+        {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+
+            // [ nitf identification, security, structure fields ]
+            text(out, "IM", 2);
+            text(out, "CADRG", 10);
+            text(out, "", 14 + 17 + 80);
+            text(out, "U", 1);
+            text(out, "", 40 + 40 + 40 + 20 + 20 + 6);
+            numeric(out, 0, 1);
+            text(out, "", 42);
+            numeric(out, SIZE, 8);
+            numeric(out, SIZE, 8);
+            text(out, "INT", 3);
+            text(out, "RGB/LUT", 8);
+            text(out, "MAP", 8);
+            numeric(out, 8, 2);
+            text(out, "R", 1);
+            text(out, "G", 1);
+            // [ nitf image geographic location ], [ nitf comments ], [ nitf image compression structure ]
+            for (int i = 0; i < 4; i++)
+            {
+                text(out, "000000N0000000E", 15);
+            }
+            numeric(out, 0, 1);
+            text(out, "C4", 2);
+            text(out, "", 4);
+            numeric(out, 1, 1);
+            // [ nitfs image bands ]
+            text(out, "LU", 2);
+            text(out, "", 6 + 1 + 3);
+            numeric(out, 3, 1);
+            numeric(out, NUM_COLORS, 5);
+            for (byte[] component : this.colors)
+            {
+                out.write(component);
+            }
+            // [ nitf image table structure fields ], [ nitfs image location ], [ nitf image magnification ]
+            numeric(out, 0, 1);
+            text(out, "B", 1);
+            numeric(out, SUBFRAMES, 4);
+            numeric(out, SUBFRAMES, 4);
+            numeric(out, SUBFRAME_SIZE, 4);
+            numeric(out, SUBFRAME_SIZE, 4);
+            numeric(out, 8, 2);
+            numeric(out, 1, 3);
+            numeric(out, 0, 3);
+            numeric(out, 0, 5);
+            numeric(out, 0, 5);
+            text(out, "1.0", 4);
+
+            // Lay out the RPF sections that follow the user-defined image subheader and its location section.
+            int numComponents = 6;
+            int locationSection = bytes.size() + 5 + 3 + 6 + 5;
+            int imageDescription = locationSection + 14 + 10 * numComponents;
+            int mask = imageDescription + 28;
+            int maskLength = this.transparent ? 7 + 4 * this.masked.length : 6;
+            int displayParameters = mask + maskLength;
+            int compression = displayParameters + 9;
+            int lookup = compression + 6;
+            int lookupLength = 6 + 14 * 4 + 4 * 4 * NUM_CODES;
+            int dataStart = lookup + lookupLength;
+            int spatialData = dataStart + 4;
+            int subframeLength = CODE_ROWS * CODES_PER_ROW * 3 / 2;
+
+            // [ nitf user-defined image subheader ]
+            numeric(out, 3 + 6 + 5 + spatialData - locationSection, 5);
+            numeric(out, 0, 3);
+            text(out, "RPFIMG", 6);
+            numeric(out, spatialData - locationSection, 5);
+
+            // [ rpf location section ]
+            out.writeShort(14 + 10 * numComponents);
+            out.writeInt(14);
+            out.writeShort(numComponents);
+            out.writeShort(10);
+            out.writeInt(0);
+            component(out, 136, 28, imageDescription);
+            component(out, 138, maskLength, mask);
+            component(out, 137, 9, displayParameters);
+            component(out, 131, 6, compression);
+            component(out, 132, lookupLength, lookup);
+            component(out, 140, this.codes.length * subframeLength, spatialData);
+
+            // [ rpf image description subheader ]
+            out.writeShort(1);
+            out.writeShort(this.transparent ? 1 : 0);
+            out.writeShort(1);
+            out.writeShort(1);
+            out.writeShort(SUBFRAMES);
+            out.writeShort(SUBFRAMES);
+            out.writeInt(SUBFRAME_SIZE);
+            out.writeInt(SUBFRAME_SIZE);
+            out.writeInt(this.transparent ? 7 : -1);
+            out.writeInt(-1);
+
+            // [ nitf-rpf mask subsection ]
+            out.writeShort(this.transparent ? 4 : 0);
+            out.writeShort(0);
+            if (this.transparent)
+            {
+                out.writeShort(8);
+                out.writeByte(this.transparentColor);
+                for (int i = 0, offset = 0; i < this.masked.length; i++)
+                {
+                    out.writeInt(this.masked[i] ? -1 : offset);
+                    offset += this.masked[i] ? 0 : subframeLength;
+                }
+            }
+            else
+            {
+                out.writeShort(0);
+            }
+
+            // [ nitf-rpf image display parameter sub-header ], [ nitf-rpf compression section sub-header ]
+            out.writeInt(CODE_ROWS);
+            out.writeInt(CODES_PER_ROW);
+            out.writeByte(12);
+            out.writeShort(1);
+            out.writeShort(4);
+            out.writeShort(0);
+
+            // [ nitf rpf compression lookup sub-section ]
+            out.writeInt(6);
+            out.writeShort(14);
+            for (int i = 0; i < 4; i++)
+            {
+                out.writeShort(i + 1);
+                out.writeInt(NUM_CODES);
+                out.writeShort(4);
+                out.writeShort(8);
+                out.writeInt(6 + 14 * 4 + i * 4 * NUM_CODES);
+            }
+            for (byte[] table : this.codebook)
+            {
+                out.write(table);
+            }
+
+            // [ nitf rpf spatial data subsection ], with the 12-bit codes packed in pairs
+            out.writeInt(0);
+            for (int i = 0; i < this.codes.length; i++)
+            {
+                if (this.masked[i])
+                    continue;
+
+                for (int j = 0; j < this.codes[i].length; j += 2)
+                {
+                    int a = this.codes[i][j];
+                    int b = this.codes[i][j + 1];
+                    out.writeByte(a >> 4);
+                    out.writeByte(((a & 0x0F) << 4) | (b >> 8));
+                    out.writeByte(b & 0xFF);
+                }
+            }
+            out.close();
+            assertEquals("Fixture layout", spatialData + this.codes.length * subframeLength
+                - (this.transparent ? subframeLength : 0), bytes.size());
+
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray()).asReadOnlyBuffer();
+            return new NITFSImageSegment(buffer, 0, dataStart, dataStart, buffer.capacity() - dataStart);
+        }
+
+        private static void component(DataOutputStream out, int id, int length, int location) throws IOException
+        {
+            out.writeShort(id);
+            out.writeInt(length);
+            out.writeInt(location);
+        }
+
+        private static void text(DataOutputStream out, String value, int length) throws IOException
+        {
+            StringBuilder sb = new StringBuilder(value);
+            while (sb.length() < length)
+            {
+                sb.append(' ');
+            }
+            out.writeBytes(sb.toString());
+        }
+
+        private static void numeric(DataOutputStream out, int value, int length) throws IOException
+        {
+            out.writeBytes(String.format("%0" + length + "d", value));
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+package gov.nasa.worldwind.formats.vpf;
+
+import gov.nasa.worldwind.util.*;
+import org.junit.*;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.*;
+import java.nio.*;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class VPFTableReaderTest
+{
+    private static final String HEADER = "L;Test table;-;"
+        + "id=I,1,P,Row id,-,-,-,:"
+        + "tri=K,1,N,Triplet,-,-,-,:"
+        + "name=T,*,N,Name,-,-,-,:"
+        + "code=S,1,N,Code,-,-,-,:"
+        + "coords=C,*,N,Coordinates,-,-,-,:"
+        + "label=T,4,N,Label,-,-,-,:;";
+
+    private static final String[] NAMES = {"alpha", "", "charlie", "delta-delta", "e"};
+    private static final int[] CODES = {7, 3, 7, 9, 7};
+    private static final String[] LABELS = {"abcd", "ef", "ghij", "k", "lmno"};
+
+    private File tableFile;
+    private File indexFile;
+
+    @Before
+    public void setUp() throws IOException
+    {
+        File dir = WWIO.makeTempDir();
+        this.tableFile = new File(dir, "test.tbl");
+        this.indexFile = new File(dir, "test.tbx");
+        writeTable(this.tableFile, this.indexFile);
+    }
+
+    @After
+    public void tearDown() throws IOException
+    {
+        WWIO.deleteDirectory(this.tableFile.getParentFile());
+        this.tableFile.getParentFile().delete();
+    }
+
+    /** Tests that columns are read on first access, and that columns after variable length fields are read. */
+    @Test
+    public void testDeferredColumns()
+    {
+        VPFBufferedRecordData table = new VPFTableReader().read(this.tableFile);
+        assertEquals("Incorrect record count", NAMES.length, table.getNumRecords());
+
+        for (String name : table.getRecordParameterNames())
+        {
+            assertFalse("Column read before access " + name, table.isRecordDataRead(name));
+        }
+
+        // Access a column following several variable length columns first.
+        VPFRecord record = table.getRecord(4);
+        assertEquals("Incorrect label", "k", record.getValue("label"));
+        assertTrue("Column not read after access", table.isRecordDataRead("label"));
+        assertFalse("Column read before access", table.isRecordDataRead("name"));
+
+        for (VPFRecord row : table)
+        {
+            int i = row.getId() - 1;
+            assertEquals("Incorrect id", row.getId(), row.getValue("id"));
+            assertEquals("Incorrect name", NAMES[i], row.getValue("name"));
+            assertEquals("Incorrect code", CODES[i], row.getValue("code"));
+            assertEquals("Incorrect label", LABELS[i], row.getValue("label"));
+
+            VPFTripletId tri = (VPFTripletId) row.getValue("tri");
+            if (i == 1)
+            {
+                assertNull("Triplet id is not null", tri);
+            }
+            else
+            {
+                assertEquals("Incorrect triplet id", i * 1000, tri.getId());
+                assertEquals("Incorrect triplet tile id", i, tri.getTileId());
+            }
+
+            VecBuffer coords = (VecBuffer) row.getValue("coords");
+            assertEquals("Incorrect coordinate count", i, coords.getSize());
+            for (int j = 0; j < i; j++)
+            {
+                double[] c = coords.get(j, new double[2]);
+                assertEquals("Incorrect x coordinate", i + j, c[0], 0);
+                assertEquals("Incorrect y coordinate", -j, c[1], 0);
+            }
+        }
+    }
+
+    /** Tests that indexed lookups return the same records as a sequential search. */
+    @Test
+    public void testKeyLookup()
+    {
+        VPFBufferedRecordData table = new VPFTableReader().read(this.tableFile);
+
+        List<Integer> ids = new ArrayList<Integer>();
+        for (VPFRecord record : table.getRecords("code", 7))
+        {
+            ids.add(record.getId());
+        }
+        assertEquals("Incorrect matching records", Arrays.asList(1, 3, 5), ids);
+        assertFalse("Unexpected match", table.getRecords("code", 8).iterator().hasNext());
+        assertFalse("Unexpected match", table.getRecords("missing", 7).iterator().hasNext());
+
+        // The first lookup searches sequentially and later lookups use the index; both return the first match.
+        for (int i = 0; i < 3; i++)
+        {
+            assertEquals("Incorrect first match", 1, table.getRecord("code", 7).getId());
+            assertEquals("Incorrect match", 4, table.getRecord("name", "delta-delta").getId());
+            assertNull("Unexpected match", table.getRecord("name", "foxtrot"));
+        }
+    }
+
+    private static void writeTable(File tableFile, File indexFile) throws IOException
+    {
+        ByteBuffer body = ByteBuffer.allocate(4096).order(ByteOrder.LITTLE_ENDIAN);
+        byte[] header = HEADER.getBytes("US-ASCII");
+        body.putInt(header.length);
+        body.put(header);
+
+        int[] offsets = new int[NAMES.length];
+        int[] lengths = new int[NAMES.length];
+
+        for (int i = 0; i < NAMES.length; i++)
+        {
+            offsets[i] = body.position();
+
+            body.putInt(i + 1);
+
+            if (i == 1)
+            {
+                body.put((byte) 0); // Null triplet id.
+            }
+            else
+            {
+                body.put((byte) ((2 << 6) | (1 << 4))); // 16 bit id, 8 bit tile id, no extended id.
+                body.putShort((short) (i * 1000));
+                body.put((byte) i);
+            }
+
+            body.putInt(NAMES[i].length());
+            body.put(NAMES[i].getBytes("US-ASCII"));
+
+            body.putShort((short) CODES[i]);
+
+            body.putInt(i);
+            for (int j = 0; j < i; j++)
+            {
+                body.putFloat(i + j);
+                body.putFloat(-j);
+            }
+
+            String label = (LABELS[i] + "    ").substring(0, 4);
+            body.put(label.getBytes("US-ASCII"));
+
+            lengths[i] = body.position() - offsets[i];
+        }
+
+        body.flip();
+        WWIO.saveBuffer(body, tableFile);
+
+        ByteBuffer index = ByteBuffer.allocate(8 + 8 * NAMES.length).order(ByteOrder.LITTLE_ENDIAN);
+        index.putInt(NAMES.length);
+        index.putInt(header.length);
+        for (int i = 0; i < NAMES.length; i++)
+        {
+            index.putInt(offsets[i]);
+            index.putInt(lengths[i]);
+        }
+
+        index.flip();
+        WWIO.saveBuffer(index, indexFile);
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+package gov.nasa.worldwind.geom;
+
+import gov.nasa.worldwind.avlist.AVKey;
+import gov.nasa.worldwind.globes.Earth;
+import org.junit.*;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class GeodesyTest
+{
+    private static final double TOLERANCE = 1e-12;
+    private static final String[] PATH_TYPES = {AVKey.GREAT_CIRCLE, AVKey.RHUMB_LINE, AVKey.LINEAR};
+
+    private List<LatLon> locations;
+    private double[] path;
+
+    @Before
+    public void setUp()
+    {
+        Random random = new Random(1);
+        this.locations = new ArrayList<LatLon>();
+        for (int i = 0; i < 200; i++)
+        {
+            this.locations.add(LatLon.fromDegrees(170 * random.nextDouble() - 85, 360 * random.nextDouble() - 180));
+        }
+
+        this.path = Geodesy.pack(this.locations);
+    }
+
+    /** Tests that the distances and azimuths match those of the LatLon methods for every path type. */
+    @Test
+    public void testDistanceAndAzimuth()
+    {
+        for (int i = 1; i < this.locations.size(); i++)
+        {
+            LatLon a = this.locations.get(i - 1);
+            LatLon b = this.locations.get(i);
+            double lat1 = a.latitude.radians, lon1 = a.longitude.radians;
+            double lat2 = b.latitude.radians, lon2 = b.longitude.radians;
+
+            assertEquals(LatLon.greatCircleDistance(a, b).radians,
+                Geodesy.greatCircleDistance(lat1, lon1, lat2, lon2), 0);
+            assertEquals(LatLon.greatCircleAzimuth(a, b).radians,
+                Geodesy.greatCircleAzimuth(lat1, lon1, lat2, lon2), 0);
+            assertEquals(LatLon.rhumbDistance(a, b).radians, Geodesy.rhumbDistance(lat1, lon1, lat2, lon2), 0);
+            assertEquals(LatLon.rhumbAzimuth(a, b).radians, Geodesy.rhumbAzimuth(lat1, lon1, lat2, lon2), 0);
+            assertEquals(LatLon.linearDistance(a, b).radians, Geodesy.linearDistance(lat1, lon1, lat2, lon2), 0);
+            assertEquals(LatLon.linearAzimuth(a, b).radians, Geodesy.linearAzimuth(lat1, lon1, lat2, lon2), 0);
+            assertEquals(LatLon.ellipsoidalDistance(a, b, Earth.WGS84_EQUATORIAL_RADIUS, Earth.WGS84_POLAR_RADIUS),
+                Geodesy.ellipsoidalDistance(lat1, lon1, lat2, lon2, Earth.WGS84_EQUATORIAL_RADIUS,
+                    Earth.WGS84_POLAR_RADIUS), 0);
+        }
+    }
+
+    /** Tests that an end position computed from a location's azimuth and distance is that location. */
+    @Test
+    public void testEndPosition()
+    {
+        double[] result = new double[2];
+        for (String pathType : PATH_TYPES)
+        {
+            for (int i = 1; i < this.locations.size(); i++)
+            {
+                LatLon a = this.locations.get(i - 1);
+                LatLon b = this.locations.get(i);
+                double lat1 = a.latitude.radians, lon1 = a.longitude.radians;
+                double lat2 = b.latitude.radians, lon2 = b.longitude.radians;
+
+                double azimuth = Geodesy.pathAzimuth(pathType, lat1, lon1, lat2, lon2);
+                double distance = Geodesy.pathDistance(pathType, lat1, lon1, lat2, lon2);
+                assertTrue(Geodesy.pathEndPosition(pathType, lat1, lon1, azimuth, distance, result, 0));
+                assertEquals(pathType + " latitude", 0,
+                    Geodesy.greatCircleDistance(lat2, lon2, result[0], result[1]), 1e-9);
+            }
+        }
+
+        assertFalse("Zero distance", Geodesy.greatCircleEndPosition(0.1, 0.2, 1, 0, result, 0));
+        assertEquals(0.1, result[0], 0);
+        assertEquals(0.2, result[1], 0);
+    }
+
+    /** Tests that path lengths and cumulative lengths match sums of the LatLon distances. */
+    @Test
+    public void testPathLength()
+    {
+        int n = this.locations.size();
+        double[] cumulative = new double[n];
+        for (String pathType : PATH_TYPES)
+        {
+            double length = Geodesy.pathLength(pathType, this.path, n, cumulative);
+
+            double expected = 0;
+            assertEquals(0, cumulative[0], 0);
+            for (int i = 1; i < n; i++)
+            {
+                expected += LatLon.pathDistance(pathType, this.locations.get(i - 1), this.locations.get(i)).radians;
+                assertEquals(pathType + " cumulative length", expected, cumulative[i], TOLERANCE);
+            }
+            assertEquals(pathType + " length", expected, length, TOLERANCE);
+        }
+
+        double meters = Geodesy.ellipsoidalPathLength(this.path, n, Earth.WGS84_EQUATORIAL_RADIUS,
+            Earth.WGS84_POLAR_RADIUS, null);
+        double expected = 0;
+        for (int i = 1; i < n; i++)
+        {
+            expected += LatLon.ellipsoidalDistance(this.locations.get(i - 1), this.locations.get(i),
+                Earth.WGS84_EQUATORIAL_RADIUS, Earth.WGS84_POLAR_RADIUS);
+        }
+        assertEquals("Ellipsoidal length", expected, meters, 1e-6);
+    }
+
+    /** Tests that a densified path keeps its locations, follows its path type and has no segment over the interval. */
+    @Test
+    public void testDensify()
+    {
+        int n = 20;
+        double interval = Math.toRadians(1);
+        for (String pathType : PATH_TYPES)
+        {
+            double[] dense = Geodesy.densify(pathType, this.path, n, interval);
+            int m = dense.length / 2;
+
+            assertEquals("Length not preserved", Geodesy.pathLength(pathType, this.path, n, null),
+                Geodesy.pathLength(pathType, dense, m, null), 1e-9);
+            for (int i = 1; i < m; i++)
+            {
+                assertTrue(pathType + " segment too long", Geodesy.pathDistance(pathType, dense[2 * i - 2],
+                    dense[2 * i - 1], dense[2 * i], dense[2 * i + 1]) <= interval + 1e-9);
+            }
+
+            // Every original location appears in order.
+            int j = 0;
+            for (int i = 0; i < m && j < n; i++)
+            {
+                if (dense[2 * i] == this.path[2 * j] && dense[2 * i + 1] == this.path[2 * j + 1])
+                    j++;
+            }
+            assertEquals(pathType + " locations not kept", n, j);
+        }
+    }
+
+    /** Tests the nearest location on a path against a dense sampling of the path. */
+    @Test
+    public void testNearestPointOnPath()
+    {
+        // A track that crosses the dateline.
+        List<LatLon> track = Arrays.asList(LatLon.fromDegrees(10, 177), LatLon.fromDegrees(11, 179),
+            LatLon.fromDegrees(10.5, -179.5), LatLon.fromDegrees(12, -178), LatLon.fromDegrees(12.5, -176));
+        double[] trackPath = Geodesy.pack(track);
+        double[] result = new double[4];
+        double[] sample = new double[2];
+        Random random = new Random(2);
+
+        for (String pathType : PATH_TYPES)
+        {
+            for (int k = 0; k < 100; k++)
+            {
+                int segment = random.nextInt(track.size() - 1);
+                this.sample(pathType, trackPath, segment, random.nextDouble(), sample);
+                double lat = sample[0] + Math.toRadians(random.nextDouble() - 0.5);
+                double lon = sample[1] + Math.toRadians(random.nextDouble() - 0.5);
+
+                int index = Geodesy.nearestPointOnPath(pathType, trackPath, track.size(), lat, lon, result);
+
+                double sampled = Double.MAX_VALUE;
+                for (int i = 0; i < track.size() - 1; i++)
+                {
+                    for (int s = 0; s <= 2000; s++)
+                    {
+                        this.sample(pathType, trackPath, i, s / 2000d, sample);
+                        sampled = Math.min(sampled, Geodesy.greatCircleDistance(lat, lon, sample[0], sample[1]));
+                    }
+                }
+
+                assertTrue(pathType + " segment index", index >= 0 && index < track.size() - 1);
+                assertEquals(pathType + " distance", sampled, result[2], Math.toRadians(1e-3));
+                assertEquals(pathType + " reported distance", result[2],
+                    Geodesy.greatCircleDistance(lat, lon, result[0], result[1]), TOLERANCE);
+                assertTrue(pathType + " fraction", result[3] >= 0 && result[3] <= 1);
+            }
+        }
+    }
+
+    /** Tests that a path shorter than its location count is rejected. */
+    @Test(expected = IllegalArgumentException.class)
+    public void testShortPath()
+    {
+        Geodesy.pathLength(AVKey.GREAT_CIRCLE, this.path, this.locations.size() + 1, null);
+    }
+
+    private void sample(String pathType, double[] path, int segment, double amount, double[] result)
+    {
+        double lat1 = path[2 * segment], lon1 = path[2 * segment + 1];
+        double lat2 = path[2 * segment + 2], lon2 = path[2 * segment + 3];
+        Geodesy.pathEndPosition(pathType, lat1, lon1, Geodesy.pathAzimuth(pathType, lat1, lon1, lat2, lon2),
+            amount * Geodesy.pathDistance(pathType, lat1, lon1, lat2, lon2), result, 0);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+package gov.nasa.worldwind.geom;
+
+import gov.nasa.worldwind.globes.*;
+import gov.nasa.worldwind.globes.projections.ProjectionMercator;
+import org.junit.*;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class MutableVec4Test
+{
+    private Random random;
+
+    @Before
+    public void setUp()
+    {
+        this.random = new Random(1);
+    }
+
+    /** Tests that each operation gives the same result as the corresponding Vec4 operation. */
+    @Test
+    public void testOperations()
+    {
+        Matrix matrix = Matrix.fromRotationXYZ(Angle.fromDegrees(10), Angle.fromDegrees(20), Angle.fromDegrees(30))
+            .multiply(Matrix.fromTranslation(100, -200, 300));
+        MutableVec4 m = new MutableVec4();
+
+        for (int i = 0; i < 1000; i++)
+        {
+            Vec4 a = this.randomVec4();
+            Vec4 b = this.randomVec4();
+            double s = this.random.nextDouble();
+
+            assertVec4Equals("add3", a.add3(b), m.set(a).add3(b));
+            assertVec4Equals("subtract3", a.subtract3(b), m.set(a).subtract3(b));
+            assertVec4Equals("multiply3", a.multiply3(s), m.set(a).multiply3(s));
+            assertVec4Equals("cross3", a.cross3(b), m.cross3(a, b));
+            assertVec4Equals("normalize3", a.normalize3(), m.set(a).normalize3());
+            assertVec4Equals("transformBy3", a.transformBy3(matrix), m.set(a).transformBy3(matrix));
+            assertVec4Equals("transformBy4", a.transformBy4(matrix), m.set(a).transformBy4(matrix));
+            assertEquals("dot3", a.dot3(b), m.set(a).dot3(b), 0);
+            assertEquals("getLength3", a.getLength3(), m.set(a).getLength3(), 0);
+            assertEquals("distanceTo3", a.distanceTo3(b), m.set(a).distanceTo3(b), 0);
+            assertEquals("distanceTo3", a.distanceTo3(b), m.set(a).distanceTo3(new MutableVec4(b)), 0);
+        }
+
+        assertVec4Equals("zero normalize3", Vec4.ZERO.normalize3(), m.set(Vec4.ZERO).normalize3());
+    }
+
+    /** Tests that points computed into a mutable vector match those of computePointFromPosition. */
+    @Test
+    public void testComputePointFromPosition()
+    {
+        FlatGlobe flatGlobe = new EarthFlat();
+        flatGlobe.setProjection(new ProjectionMercator());
+        Globe[] globes = {new Earth(), flatGlobe};
+        MutableVec4 point = new MutableVec4();
+
+        for (Globe globe : globes)
+        {
+            for (int i = 0; i < 1000; i++)
+            {
+                double lat = 170 * this.random.nextDouble() - 85;
+                double lon = 360 * this.random.nextDouble() - 180;
+                double elevation = 10000 * this.random.nextDouble();
+
+                Vec4 expected = globe.computePointFromPosition(Angle.fromDegrees(lat), Angle.fromDegrees(lon),
+                    elevation);
+                assertSame(point, globe.computePointFromPosition(lat, lon, elevation, point));
+                assertVec4Equals(globe.toString(), expected, point);
+            }
+        }
+    }
+
+    private Vec4 randomVec4()
+    {
+        return new Vec4(200 * this.random.nextDouble() - 100, 200 * this.random.nextDouble() - 100,
+            200 * this.random.nextDouble() - 100, this.random.nextDouble());
+    }
+
+    private static void assertVec4Equals(String message, Vec4 expected, MutableVec4 actual)
+    {
+        assertEquals(message + " x", expected.x, actual.x, 0);
+        assertEquals(message + " y", expected.y, actual.y, 0);
+        assertEquals(message + " z", expected.z, actual.z, 0);
+        assertEquals(message + " w", expected.w, actual.w, 0);
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+package gov.nasa.worldwind.geom;
+
+import org.junit.*;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class SectorSetTest
+{
+    /** The sectors' bounds are whole degrees within this many degrees of the origin, so unit cells resolve them. */
+    private static final int EXTENT = 12;
+    private static final int NUM_SECTORS = 60;
+
+    private SectorSet a;
+    private SectorSet b;
+
+    @Before
+    public void setUp()
+    {
+        Random random = new Random(1);
+        this.a = this.randomSet(random);
+        this.b = this.randomSet(random);
+    }
+
+    /** Tests that the union covers the unit cells covered by either set, with disjoint sectors. */
+    @Test
+    public void testUnion()
+    {
+        SectorSet result = this.a.union(this.b);
+        this.assertCovers(result, new boolean[][] {{false, true}, {true, true}});
+    }
+
+    /** Tests that the intersection covers the unit cells covered by both sets, with disjoint sectors. */
+    @Test
+    public void testIntersection()
+    {
+        SectorSet result = this.a.intersection(this.b);
+        this.assertCovers(result, new boolean[][] {{false, false}, {false, true}});
+    }
+
+    /** Tests that the difference covers the unit cells covered by the first set but not the second. */
+    @Test
+    public void testDifference()
+    {
+        SectorSet result = this.a.difference(this.b);
+        this.assertCovers(result, new boolean[][] {{false, false}, {true, false}});
+    }
+
+    /** Tests that adjacent rows and columns are merged, and that touching sectors have an empty intersection. */
+    @Test
+    public void testMerging()
+    {
+        SectorSet set = new SectorSet();
+        set.add(Sector.fromDegrees(0, 1, 0, 2));
+        set.add(Sector.fromDegrees(1, 2, 0, 1));
+        set.add(Sector.fromDegrees(1, 2, 1, 2));
+        set.add(Sector.fromDegrees(3, 3, 0, 2));
+
+        SectorSet result = set.toDisjoint();
+        assertEquals("Merged size", 1, result.size());
+        assertEquals("Merged sector", Sector.fromDegrees(0, 2, 0, 2), result.getSector(0));
+
+        SectorSet other = new SectorSet(Arrays.asList(Sector.fromDegrees(2, 4, 0, 2)));
+        assertTrue("Touching intersection", set.intersection(other).isEmpty());
+        assertEquals("Touching join", 3, set.join(other).length / 2); // two touching sectors and the zero area sector
+    }
+
+    /** Tests that the covered area counts overlapping regions once. */
+    @Test
+    public void testCoveredArea()
+    {
+        double expected = 0;
+        for (int lat = -EXTENT; lat < EXTENT; lat++)
+        {
+            for (int lon = -EXTENT; lon < EXTENT; lon++)
+            {
+                if (this.covers(this.a, lat + 0.5, lon + 0.5))
+                    expected += Math.toRadians(1) * (Math.sin(Math.toRadians(lat + 1)) - Math.sin(Math.toRadians(lat)));
+            }
+        }
+
+        assertEquals("Covered area", expected, this.a.getCoveredArea(), 1e-12);
+        assertEquals("Disjoint covered area", expected, this.a.toDisjoint().getCoveredArea(), 1e-12);
+    }
+
+    /** Tests that the joins find the same pairs as testing every pair with Sector.intersects. */
+    @Test
+    public void testJoin()
+    {
+        Set<String> expected = new HashSet<String>();
+        Set<String> expectedSelf = new HashSet<String>();
+        for (int i = 0; i < this.a.size(); i++)
+        {
+            for (int j = 0; j < this.b.size(); j++)
+            {
+                if (this.a.getSector(i).intersects(this.b.getSector(j)))
+                    expected.add(i + "," + j);
+            }
+
+            for (int j = i + 1; j < this.a.size(); j++)
+            {
+                if (this.a.getSector(i).intersects(this.a.getSector(j)))
+                    expectedSelf.add(i + "," + j);
+            }
+        }
+
+        int[] pairs = this.a.join(this.b);
+        assertEquals("Join size", expected.size(), pairs.length / 2);
+        for (int i = 0; i < pairs.length; i += 2)
+        {
+            assertTrue("Join pair", expected.contains(pairs[i] + "," + pairs[i + 1]));
+        }
+
+        pairs = this.a.selfJoin();
+        assertEquals("Self join size", expectedSelf.size(), pairs.length / 2);
+        for (int i = 0; i < pairs.length; i += 2)
+        {
+            assertTrue("Self join pair", expectedSelf.contains(pairs[i] + "," + pairs[i + 1]));
+        }
+    }
+
+    /** Tests that the bounding sector matches Sector.union of the set's sectors. */
+    @Test
+    public void testBoundingSector()
+    {
+        List<Sector> sectors = new ArrayList<Sector>();
+        for (Sector s : this.a)
+        {
+            sectors.add(s);
+        }
+
+        assertEquals("Bounding sector", Sector.union(sectors), this.a.getBoundingSector());
+        assertNull("Empty bounding sector", new SectorSet().getBoundingSector());
+    }
+
+    private void assertCovers(SectorSet result, boolean[][] truthTable)
+    {
+        double sectorArea = 0;
+        for (int i = 0; i < result.size(); i++)
+        {
+            sectorArea += (result.getMaxLatitude(i) - result.getMinLatitude(i))
+                * (result.getMaxLongitude(i) - result.getMinLongitude(i));
+        }
+
+        int numCells = 0;
+        for (int lat = -EXTENT; lat < EXTENT; lat++)
+        {
+            for (int lon = -EXTENT; lon < EXTENT; lon++)
+            {
+                boolean inA = this.covers(this.a, lat + 0.5, lon + 0.5);
+                boolean inB = this.covers(this.b, lat + 0.5, lon + 0.5);
+                boolean expected = truthTable[inA ? 1 : 0][inB ? 1 : 0];
+                assertEquals("Cell " + lat + ", " + lon, expected, this.covers(result, lat + 0.5, lon + 0.5));
+                if (expected)
+                    numCells++;
+            }
+        }
+
+        // The sectors cover exactly the expected cells and sum to their area, so their interiors don't overlap.
+        assertEquals("Area", numCells, sectorArea, 0);
+    }
+
+    private boolean covers(SectorSet set, double lat, double lon)
+    {
+        for (int i = 0; i < set.size(); i++)
+        {
+            if (set.getSector(i).containsDegrees(lat, lon))
+                return true;
+        }
+
+        return false;
+    }
+
+    private SectorSet randomSet(Random random)
+    {
+        SectorSet set = new SectorSet(4);
+        for (int i = 0; i < NUM_SECTORS; i++)
+        {
+            int minLat = random.nextInt(2 * EXTENT) - EXTENT;
+            int minLon = random.nextInt(2 * EXTENT) - EXTENT;
+            int maxLat = Math.min(EXTENT, minLat + random.nextInt(6));
+            int maxLon = Math.min(EXTENT, minLon + random.nextInt(6));
+            set.add(minLat, maxLat, minLon, maxLon);
+        }
+
+        return set;
+    }
+}
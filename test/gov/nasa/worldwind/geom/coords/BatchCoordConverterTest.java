@@ -0,0 +1,301 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+package gov.nasa.worldwind.geom.coords;
+
+import gov.nasa.worldwind.geom.*;
+import gov.nasa.worldwind.globes.*;
+import gov.nasa.worldwind.util.EGM96;
+import org.junit.*;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class BatchCoordConverterTest
+{
+    private static final int NUM_POINTS = 5000;
+
+    private double[] latitudes;
+    private double[] longitudes;
+
+    @Before
+    public void setUp()
+    {
+        Random random = new Random(1);
+        this.latitudes = new double[NUM_POINTS];
+        this.longitudes = new double[NUM_POINTS];
+        for (int i = 0; i < NUM_POINTS; i++)
+        {
+            this.latitudes[i] = 180 * random.nextDouble() - 90;
+            this.longitudes[i] = 360 * random.nextDouble() - 180;
+        }
+
+        // Points in the Norway and Svalbard special zones.
+        for (int i = 0; i < 100; i++)
+        {
+            this.latitudes[i] = 56 + 28 * random.nextDouble();
+            this.longitudes[i] = -2 + 46 * random.nextDouble();
+        }
+    }
+
+    /** Tests that UTM coordinates match those of UTMCoord, and that points UTMCoord rejects are marked. */
+    @Test
+    public void testConvertToUTM()
+    {
+        Globe globe = new Earth();
+        int[] zones = new int[NUM_POINTS];
+        String[] hemispheres = new String[NUM_POINTS];
+        double[] eastings = new double[NUM_POINTS];
+        double[] northings = new double[NUM_POINTS];
+
+        int failures = new BatchCoordConverter(globe).convertToUTM(this.latitudes, this.longitudes, NUM_POINTS, zones,
+            hemispheres, eastings, northings);
+
+        int expectedFailures = 0;
+        for (int i = 0; i < NUM_POINTS; i++)
+        {
+            UTMCoord coord = this.utm(i, globe);
+            if (coord == null)
+            {
+                expectedFailures++;
+                assertEquals("Zone not cleared", 0, zones[i]);
+                assertNull("Hemisphere not cleared", hemispheres[i]);
+                assertTrue("Easting not cleared", Double.isNaN(eastings[i]));
+                assertTrue("Northing not cleared", Double.isNaN(northings[i]));
+            }
+            else
+            {
+                assertEquals("Incorrect zone", coord.getZone(), zones[i]);
+                assertEquals("Incorrect hemisphere", coord.getHemisphere(), hemispheres[i]);
+                assertEquals("Incorrect easting", coord.getEasting(), eastings[i], 0);
+                assertEquals("Incorrect northing", coord.getNorthing(), northings[i], 0);
+            }
+        }
+
+        assertTrue("No points outside UTM", expectedFailures > 0);
+        assertEquals("Incorrect failure count", expectedFailures, failures);
+    }
+
+    /** Tests that UPS coordinates match those of UPSCoord, and that points UPSCoord rejects are marked. */
+    @Test
+    public void testConvertToUPS()
+    {
+        String[] hemispheres = new String[NUM_POINTS];
+        double[] eastings = new double[NUM_POINTS];
+        double[] northings = new double[NUM_POINTS];
+
+        int failures = new BatchCoordConverter().convertToUPS(this.latitudes, this.longitudes, NUM_POINTS,
+            hemispheres, eastings, northings);
+
+        int expectedFailures = 0;
+        for (int i = 0; i < NUM_POINTS; i++)
+        {
+            UPSCoord coord;
+            try
+            {
+                coord = UPSCoord.fromLatLon(Angle.fromDegrees(this.latitudes[i]),
+                    Angle.fromDegrees(this.longitudes[i]));
+            }
+            catch (IllegalArgumentException e)
+            {
+                expectedFailures++;
+                assertNull("Hemisphere not cleared", hemispheres[i]);
+                assertTrue("Easting not cleared", Double.isNaN(eastings[i]));
+                continue;
+            }
+
+            assertEquals("Incorrect hemisphere", coord.getHemisphere(), hemispheres[i]);
+            assertEquals("Incorrect easting", coord.getEasting(), eastings[i], 0);
+            assertEquals("Incorrect northing", coord.getNorthing(), northings[i], 0);
+        }
+
+        assertTrue("No points outside UPS", expectedFailures > 0);
+        assertEquals("Incorrect failure count", expectedFailures, failures);
+    }
+
+    /** Tests that MGRS strings match those of MGRSCoord in both UTM and polar regions, at every precision. */
+    @Test
+    public void testConvertToMGRS()
+    {
+        BatchCoordConverter converter = new BatchCoordConverter();
+        String[] strings = new String[NUM_POINTS];
+
+        for (int precision = 1; precision <= 5; precision++)
+        {
+            assertEquals("Unexpected failures", 0,
+                converter.convertToMGRS(this.latitudes, this.longitudes, NUM_POINTS, precision, strings));
+
+            for (int i = 0; i < NUM_POINTS; i++)
+            {
+                MGRSCoord coord = MGRSCoord.fromLatLon(Angle.fromDegrees(this.latitudes[i]),
+                    Angle.fromDegrees(this.longitudes[i]), precision);
+                assertEquals("Incorrect MGRS string", coord.toString(), strings[i]);
+            }
+        }
+    }
+
+    /** Tests that a batch divided among several threads gives the same results as one converted on a single thread. */
+    @Test
+    public void testParallelConversion()
+    {
+        int count = 5 * BatchCoordConverter.BLOCK_SIZE + 17;
+        double[] lats = new double[count];
+        double[] lons = new double[count];
+        for (int i = 0; i < count; i++)
+        {
+            lats[i] = this.latitudes[i % NUM_POINTS];
+            lons[i] = this.longitudes[i % NUM_POINTS];
+        }
+
+        String[] sequential = new String[count];
+        String[] parallel = new String[count];
+        int sequentialFailures = new BatchCoordConverter(null, null).convertToMGRS(lats, lons, count, 5, sequential);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try
+        {
+            int parallelFailures = new BatchCoordConverter(null, pool).convertToMGRS(lats, lons, count, 5, parallel);
+            assertEquals("Incorrect failure count", sequentialFailures, parallelFailures);
+            assertArrayEquals("Parallel results differ", sequential, parallel);
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    /** Tests that datum shifts match those of the per-position DatumTransformation methods, in both directions. */
+    @Test
+    public void testDatumTransformation()
+    {
+        double[] positions = new double[3 * NUM_POINTS];
+        for (int i = 0; i < NUM_POINTS; i++)
+        {
+            positions[3 * i] = Math.max(-89, Math.min(89, this.latitudes[i]));
+            positions[3 * i + 1] = this.longitudes[i];
+            positions[3 * i + 2] = 1000 * (i % 10);
+        }
+
+        double[] wgs84 = new double[3 * NUM_POINTS];
+        double[] nad27 = new double[3 * NUM_POINTS];
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try
+        {
+            BatchCoordConverter converter = new BatchCoordConverter(null, pool);
+            converter.convertNad27ToWGS84(positions, NUM_POINTS, wgs84);
+            converter.convertWGS84ToNad27(positions, NUM_POINTS, nad27);
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+
+        Globe clarke1866 = DatumTransformation.CLARKE1866_GLOBE;
+        Globe earth = new Earth();
+        for (int i = 0; i < NUM_POINTS; i++)
+        {
+            Position position = Position.fromDegrees(positions[3 * i], positions[3 * i + 1], positions[3 * i + 2]);
+
+            Position expected = molodenski(position, clarke1866, earth, -8, 160, 176);
+            assertEquals("Incorrect WGS84 position", expected, DatumTransformation.convertNad27toWGS84(position));
+            assertEquals("Incorrect WGS84 latitude", expected.latitude.degrees, wgs84[3 * i], 0);
+            assertEquals("Incorrect WGS84 longitude", expected.longitude.degrees, wgs84[3 * i + 1], 0);
+            assertEquals("Incorrect WGS84 elevation", expected.elevation, wgs84[3 * i + 2], 0);
+
+            expected = molodenski(position, earth, clarke1866, 8, -160, -176);
+            assertEquals("Incorrect NAD27 position", expected, DatumTransformation.convertWGS84toNad27(position));
+            assertEquals("Incorrect NAD27 latitude", expected.latitude.degrees, nad27[3 * i], 0);
+            assertEquals("Incorrect NAD27 longitude", expected.longitude.degrees, nad27[3 * i + 1], 0);
+            assertEquals("Incorrect NAD27 elevation", expected.elevation, nad27[3 * i + 2], 0);
+        }
+    }
+
+    /** Tests that orthometric heights are ellipsoidal heights less the EGM96 offsets. */
+    @Test
+    public void testConvertToOrthometric() throws IOException
+    {
+        EGM96 egm96 = new EGM96("config/EGM96.dat");
+        double[] heights = new double[NUM_POINTS];
+        for (int i = 0; i < NUM_POINTS; i++)
+        {
+            heights[i] = 10 * i;
+        }
+
+        double[] orthometric = new double[NUM_POINTS];
+        new BatchCoordConverter().convertToOrthometric(egm96, this.latitudes, this.longitudes, NUM_POINTS, heights,
+            orthometric);
+
+        for (int i = 0; i < NUM_POINTS; i++)
+        {
+            double offset = egm96.getOffset(Angle.fromDegrees(this.latitudes[i]),
+                Angle.fromDegrees(this.longitudes[i]));
+            assertEquals("Incorrect orthometric height", heights[i] - offset, orthometric[i], 0);
+        }
+    }
+
+    /** Tests that arrays shorter than the point count are rejected. */
+    @Test(expected = IllegalArgumentException.class)
+    public void testShortArray()
+    {
+        new BatchCoordConverter().convertToMGRS(this.latitudes, this.longitudes, NUM_POINTS, 5,
+            new String[NUM_POINTS - 1]);
+    }
+
+    private UTMCoord utm(int i, Globe globe)
+    {
+        try
+        {
+            return UTMCoord.fromLatLon(Angle.fromDegrees(this.latitudes[i]), Angle.fromDegrees(this.longitudes[i]),
+                globe);
+        }
+        catch (IllegalArgumentException e)
+        {
+            return null;
+        }
+    }
+
+    /** The three parameter Molodenski shift as DatumTransformation computed it before it had a bulk form. */
+    private static Position molodenski(Position source, Globe fromGlobe, Globe toGlobe, double dx, double dy,
+        double dz)
+    {
+        double sinLat = Math.sin(source.getLatitude().getRadians());
+        double cosLat = Math.cos(source.getLatitude().getRadians());
+        double sinLon = Math.sin(source.getLongitude().getRadians());
+        double cosLon = Math.cos(source.getLongitude().getRadians());
+        double sinLatsquared = sinLat * sinLat;
+        double fromF = (fromGlobe.getEquatorialRadius() - fromGlobe.getPolarRadius())
+            / fromGlobe.getEquatorialRadius();
+        double toF = (toGlobe.getEquatorialRadius() - toGlobe.getPolarRadius()) / toGlobe.getEquatorialRadius();
+        double dF = toF - fromF;
+        double adb = 1.0 / (1.0 - fromF);
+
+        double dEquatorialRadius = (toGlobe.getEquatorialRadius() - fromGlobe.getEquatorialRadius());
+
+        double rn = fromGlobe.getEquatorialRadius() / Math.sqrt(
+            1.0 - fromGlobe.getEccentricitySquared() * sinLatsquared);
+        double rm = fromGlobe.getEquatorialRadius() * (1. - fromGlobe.getEccentricitySquared()) /
+            Math.pow((1.0 - fromGlobe.getEccentricitySquared() * sinLatsquared), 1.5);
+
+        double dLat = (((((-dx * sinLat * cosLon - dy * sinLat * sinLon) + dz * cosLat)
+            + (dEquatorialRadius * ((rn * fromGlobe.getEccentricitySquared() * sinLat * cosLat)
+            / fromGlobe.getEquatorialRadius())))
+            + (dF * (rm * adb + rn / adb) * sinLat * cosLat)))
+            / (rm + source.getElevation());
+
+        double dLon = (-dx * sinLon + dy * cosLon) / ((rn + source.getElevation()) * cosLat);
+
+        double dh = (dx * cosLat * cosLon) + (dy * cosLat * sinLon) + (dz * sinLat)
+            - (dEquatorialRadius * (fromGlobe.getEquatorialRadius() / rn)) + ((dF * rn * sinLatsquared) / adb);
+
+        return Position.fromRadians(source.getLatitude().getRadians() + dLat,
+            source.getLongitude().getRadians() + dLon, source.getElevation() + dh);
+    }
+}
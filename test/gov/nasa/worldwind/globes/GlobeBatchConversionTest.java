@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+package gov.nasa.worldwind.globes;
+
+import gov.nasa.worldwind.avlist.AVKey;
+import gov.nasa.worldwind.geom.*;
+import gov.nasa.worldwind.globes.projections.*;
+import org.junit.*;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.nio.FloatBuffer;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class GlobeBatchConversionTest
+{
+    private static final int NUM_POSITIONS = 3000;
+
+    private double[] positions;
+    private Vec4 referenceCenter;
+
+    @Before
+    public void setUp()
+    {
+        Random random = new Random(1);
+        this.positions = new double[3 * NUM_POSITIONS];
+        for (int i = 0; i < NUM_POSITIONS; i++)
+        {
+            this.positions[3 * i] = 178 * random.nextDouble() - 89;
+            this.positions[3 * i + 1] = 360 * random.nextDouble() - 180;
+            this.positions[3 * i + 2] = 20000 * random.nextDouble() - 1000;
+        }
+
+        this.referenceCenter = new Vec4(1000, -2000, 3000);
+    }
+
+    /** Tests that points computed in a batch match those of computePointFromPosition on an ellipsoidal globe. */
+    @Test
+    public void testEllipsoidalPoints()
+    {
+        this.assertPointsMatch(new Earth(), 0);
+    }
+
+    /** Tests that points computed in a batch match those of computePointFromPosition for each flat projection. */
+    @Test
+    public void testFlatPoints()
+    {
+        for (GeographicProjection projection : this.projections())
+        {
+            this.assertPointsMatch(this.flatGlobe(projection), 0);
+        }
+    }
+
+    /** Tests that positions computed in a batch match those of computePositionFromPoint, and that they round trip. */
+    @Test
+    public void testPositions()
+    {
+        Globe[] globes = {new Earth(), this.flatGlobe(new ProjectionEquirectangular()),
+            this.flatGlobe(new ProjectionMercator()), this.flatGlobe(new ProjectionSinusoidal()),
+            this.flatGlobe(new ProjectionModifiedSinusoidal()), this.flatGlobe(new ProjectionPolarEquidistant()),
+            this.flatGlobe(new ProjectionUTM(14))};
+
+        for (Globe globe : globes)
+        {
+            String name = globe instanceof FlatGlobe ? ((FlatGlobe) globe).getProjection().getName() : "Earth";
+            double[] points = new double[3 * NUM_POSITIONS];
+            globe.computePointsFromPositions(this.positions, NUM_POSITIONS, this.referenceCenter, points);
+
+            double[] result = points.clone();
+            globe.computePositionsFromPoints(result, NUM_POSITIONS, this.referenceCenter, result);
+
+            for (int i = 0; i < 3 * NUM_POSITIONS; i += 3)
+            {
+                Position expected = globe.computePositionFromPoint(
+                    new Vec4(points[i], points[i + 1], points[i + 2]).add3(this.referenceCenter));
+                assertEquals(name + " latitude", expected.getLatitude().degrees, result[i], 1e-12);
+                assertEquals(name + " longitude", expected.getLongitude().degrees, result[i + 1], 1e-12);
+                assertEquals(name + " elevation", expected.getElevation(), result[i + 2], 1e-6);
+            }
+
+            if (globe instanceof Earth)
+            {
+                for (int i = 0; i < 3 * NUM_POSITIONS; i += 3)
+                {
+                    assertEquals("Latitude round trip", this.positions[i], result[i], 1e-9);
+                    assertEquals("Longitude round trip", this.positions[i + 1], result[i + 1], 1e-9);
+                    assertEquals("Elevation round trip", this.positions[i + 2], result[i + 2], 1e-5);
+                }
+            }
+        }
+    }
+
+    /** Tests that points written to a float buffer match those written to an array, across several blocks. */
+    @Test
+    public void testFloatBuffer()
+    {
+        Globe globe = new Earth();
+        double[] points = new double[3 * NUM_POSITIONS];
+        globe.computePointsFromPositions(this.positions, NUM_POSITIONS, this.referenceCenter, points);
+
+        FloatBuffer buffer = FloatBuffer.allocate(3 * NUM_POSITIONS + 2);
+        buffer.put(0);
+        globe.computePointsFromPositions(this.positions, NUM_POSITIONS, this.referenceCenter, buffer);
+
+        assertEquals("Buffer position", 3 * NUM_POSITIONS + 1, buffer.position());
+        for (int i = 0; i < 3 * NUM_POSITIONS; i++)
+        {
+            assertEquals("Buffer value", (float) points[i], buffer.get(i + 1), 0);
+        }
+    }
+
+    /** Tests that an output array shorter than the point count is rejected. */
+    @Test(expected = IllegalArgumentException.class)
+    public void testShortArray()
+    {
+        new Earth().computePointsFromPositions(this.positions, NUM_POSITIONS, null,
+            new double[3 * NUM_POSITIONS - 1]);
+    }
+
+    /** Tests that a float buffer without room for every point is rejected. */
+    @Test(expected = IllegalArgumentException.class)
+    public void testShortBuffer()
+    {
+        new Earth().computePointsFromPositions(this.positions, NUM_POSITIONS, null,
+            FloatBuffer.allocate(3 * NUM_POSITIONS - 1));
+    }
+
+    private void assertPointsMatch(Globe globe, double tolerance)
+    {
+        String name = globe instanceof FlatGlobe ? ((FlatGlobe) globe).getProjection().getName() : "Earth";
+        double[] points = this.positions.clone();
+        globe.computePointsFromPositions(points, NUM_POSITIONS, this.referenceCenter, points);
+
+        for (int i = 0; i < 3 * NUM_POSITIONS; i += 3)
+        {
+            Vec4 expected = globe.computePointFromPosition(Angle.fromDegrees(this.positions[i]),
+                Angle.fromDegrees(this.positions[i + 1]), this.positions[i + 2]).subtract3(this.referenceCenter);
+            assertEquals(name + " x", expected.x, points[i], tolerance);
+            assertEquals(name + " y", expected.y, points[i + 1], tolerance);
+            assertEquals(name + " z", expected.z, points[i + 2], tolerance);
+        }
+    }
+
+    private GeographicProjection[] projections()
+    {
+        return new GeographicProjection[] {new ProjectionEquirectangular(), new ProjectionMercator(),
+            new ProjectionSinusoidal(), new ProjectionModifiedSinusoidal(), new ProjectionPolarEquidistant(),
+            new ProjectionPolarEquidistant(AVKey.SOUTH), new ProjectionTransverseMercator()};
+    }
+
+    private FlatGlobe flatGlobe(GeographicProjection projection)
+    {
+        FlatGlobe globe = new EarthFlat();
+        globe.setProjection(projection);
+        return globe;
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+package gov.nasa.worldwind.globes;
+
+import gov.nasa.worldwind.avlist.AVKey;
+import gov.nasa.worldwind.geom.*;
+import gov.nasa.worldwind.geom.coords.TMCoord;
+import gov.nasa.worldwind.globes.projections.*;
+import gov.nasa.worldwind.util.WWMath;
+import org.junit.*;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class ProjectionGridTest
+{
+    private static final int NUM_SECTORS = 20;
+    /** Some projections' grid and point paths order their arithmetic differently, so allow a micrometer. */
+    private static final double TOLERANCE = 1e-6;
+
+    private Globe globe;
+    private Random random;
+
+    @Before
+    public void setUp()
+    {
+        this.globe = new EarthFlat();
+        this.random = new Random(1);
+    }
+
+    /** Tests that each projection's grid points are identical to the points it computes one at a time. */
+    @Test
+    public void testGridMatchesPoints()
+    {
+        GeographicProjection[] projections = new GeographicProjection[] {new ProjectionEquirectangular(),
+            new ProjectionMercator(), new ProjectionSinusoidal(), new ProjectionModifiedSinusoidal(),
+            new ProjectionPolarEquidistant(), new ProjectionPolarEquidistant(AVKey.SOUTH),
+            new ProjectionTransverseMercator(), new ProjectionTransverseMercator(Angle.fromDegrees(-75)),
+            new ProjectionUTM(33), new ProjectionUPS(), new ProjectionUPS(AVKey.SOUTH)};
+
+        for (GeographicProjection projection : projections)
+        {
+            Sector region = projection.getProjectionLimits().intersection(Sector.fromDegrees(-80, 80, -180, 180));
+            for (int k = 0; k < NUM_SECTORS; k++)
+            {
+                this.assertGridMatchesPoints(projection, this.randomSector(region), Vec4.ZERO);
+            }
+
+            // Include the poles of the polar projections. Transverse Mercator clamps its grids to latitudes narrower
+            // than its projection limits, so the limits' grid rows differ from those iterated here.
+            if (projection.isContinuous())
+                this.assertGridMatchesPoints(projection, region, new Vec4(4e7, 0, 0));
+            else if (!(projection instanceof ProjectionTransverseMercator))
+                this.assertGridMatchesPoints(projection, projection.getProjectionLimits(), Vec4.ZERO);
+        }
+    }
+
+    /** Tests that the TM coordinates of a grid match those of each grid point, including the distorted columns. */
+    @Test
+    public void testTMGridMatchesPoints()
+    {
+        double[] lats = new double[] {-1.2, -0.5, 0, 1e-12, 0.3, 1.5};
+        double[] lons = new double[] {-1.5, -0.2, 0, 1e-11, 0.1, 0.5, 1.4};
+        Angle origin = Angle.fromDegrees(10);
+        Angle centralMeridian = Angle.fromDegrees(-5);
+        double[] eastings = new double[lats.length * lons.length];
+        double[] northings = new double[lats.length * lons.length];
+
+        TMCoord.fromLatLonGrid(lats, lons, this.globe, null, null, origin, centralMeridian, 500000, 1000, 0.9996,
+            eastings, northings);
+
+        for (int j = 0, pos = 0; j < lats.length; j++)
+        {
+            for (int i = 0; i < lons.length; i++, pos++)
+            {
+                TMCoord tm = TMCoord.fromLatLon(Angle.fromRadians(lats[j]), Angle.fromRadians(lons[i]), this.globe,
+                    null, null, origin, centralMeridian, 500000, 1000, 0.9996);
+                assertEquals("Easting", tm.getEasting(), eastings[pos], 0);
+                assertEquals("Northing", tm.getNorthing(), northings[pos], 0);
+            }
+        }
+    }
+
+    /** Tests that a grid containing a point that cannot be converted to TM coordinates is rejected. */
+    @Test(expected = IllegalArgumentException.class)
+    public void testTMGridOutOfRange()
+    {
+        TMCoord.fromLatLonGrid(new double[] {0, Math.PI / 2}, new double[] {0}, this.globe, null, null, Angle.ZERO,
+            Angle.ZERO, 0, 0, 1, new double[2], new double[2]);
+    }
+
+    private void assertGridMatchesPoints(GeographicProjection projection, Sector sector, Vec4 offset)
+    {
+        int numLat = 2 + this.random.nextInt(20);
+        int numLon = 2 + this.random.nextInt(20);
+        double[] elevations = new double[numLat * numLon];
+        for (int i = 0; i < elevations.length; i++)
+        {
+            elevations[i] = 9000 * this.random.nextDouble() - 500;
+        }
+
+        Vec4[] points = new Vec4[elevations.length];
+        projection.geographicToCartesian(this.globe, sector, numLat, numLon, elevations, offset, points);
+
+        // Iterate over the grid exactly as the projections do, comparing each grid point to the point computed alone.
+        Sector limits = projection.getProjectionLimits();
+        double deltaLat = sector.getDeltaLatRadians() / (numLat - 1);
+        double deltaLon = sector.getDeltaLonRadians() / (numLon - 1);
+        double lat = sector.getMinLatitude().radians;
+        for (int j = 0, pos = 0; j < numLat; j++, lat += deltaLat)
+        {
+            if (j == numLat - 1)
+                lat = sector.getMaxLatitude().radians;
+            lat = WWMath.clamp(lat, limits.getMinLatitude().radians, limits.getMaxLatitude().radians);
+
+            double lon = sector.getMinLongitude().radians;
+            for (int i = 0; i < numLon; i++, lon += deltaLon, pos++)
+            {
+                if (i == numLon - 1)
+                    lon = sector.getMaxLongitude().radians;
+                lon = WWMath.clamp(lon, limits.getMinLongitude().radians, limits.getMaxLongitude().radians);
+
+                Vec4 expected = projection.geographicToCartesian(this.globe, Angle.fromRadiansLatitude(lat),
+                    Angle.fromRadiansLongitude(lon), elevations[pos], offset);
+                String message = projection.getName() + " " + sector + " point " + pos;
+                assertEquals(message, expected.x, points[pos].x, TOLERANCE);
+                assertEquals(message, expected.y, points[pos].y, TOLERANCE);
+                assertEquals(message, expected.z, points[pos].z, 0);
+            }
+        }
+    }
+
+    private Sector randomSector(Sector region)
+    {
+        double minLat = region.getMinLatitude().degrees + region.getDeltaLatDegrees() * this.random.nextDouble();
+        double minLon = region.getMinLongitude().degrees + region.getDeltaLonDegrees() * this.random.nextDouble();
+        double maxLat = minLat + (region.getMaxLatitude().degrees - minLat) * this.random.nextDouble();
+        double maxLon = minLon + (region.getMaxLongitude().degrees - minLon) * this.random.nextDouble();
+
+        return Sector.fromDegrees(minLat, maxLat, minLon, maxLon);
+    }
+}
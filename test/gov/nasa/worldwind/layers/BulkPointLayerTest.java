@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+package gov.nasa.worldwind.layers;
+
+import gov.nasa.worldwind.avlist.AVKey;
+import gov.nasa.worldwind.geom.*;
+import gov.nasa.worldwind.globes.*;
+import gov.nasa.worldwind.pick.PickedObject;
+import org.junit.*;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.awt.*;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class BulkPointLayerTest
+{
+    private static final Rectangle VIEWPORT = new Rectangle(0, 0, 800, 600);
+
+    private Globe globe;
+    private Position eye;
+    private Vec4 eyePoint;
+    private Matrix mvp;
+
+    @Before
+    public void setUp()
+    {
+        this.globe = new Earth();
+        this.eye = Position.fromDegrees(30, -100, 2e6);
+        this.eyePoint = this.globe.computePointFromPosition(this.eye);
+
+        Vec4 center = this.globe.computePointFromPosition(this.eye.getLatitude(), this.eye.getLongitude(), 0);
+        Vec4 up = this.globe.computeNorthPointingTangentAtLocation(this.eye.getLatitude(), this.eye.getLongitude());
+        Matrix modelview = Matrix.fromViewLookAt(this.eyePoint, center, up);
+        Matrix projection = Matrix.fromPerspective(Angle.fromDegrees(45), VIEWPORT.width, VIEWPORT.height, 1, 1e8);
+        this.mvp = projection.multiply(modelview);
+    }
+
+    /** Tests that visible points are projected as the view projects them, and that all other points are culled. */
+    @Test
+    public void testProjectionAndCulling()
+    {
+        BulkPointLayer layer = new BulkPointLayer();
+        layer.setEnableDecluttering(false);
+        Random random = new Random(1);
+        for (int i = 0; i < 2000; i++)
+        {
+            layer.addPoint(30 + 20 * (random.nextDouble() - 0.5), -100 + 30 * (random.nextDouble() - 0.5),
+                1000 * random.nextDouble(), 0, null);
+        }
+        // Points on the far side of the globe, within the clip volume but beyond the horizon.
+        int farSide = layer.getPointCount();
+        layer.addPoint(-30, 80, 0, 0, null);
+        layer.addPoint(-25, 85, 1000, 0, null);
+
+        int count = layer.computeVisiblePoints(this.globe, 1, this.eyePoint, this.mvp, VIEWPORT);
+        int[] indices = layer.getVisibleIndices();
+        float[] screen = layer.getVisibleScreenPoints();
+        assertEquals("Incorrect index count", count, indices.length);
+        assertTrue("Too few visible points", count > 100 && count < farSide);
+
+        Set<Integer> visible = new HashSet<Integer>();
+        for (int k = 0; k < count; k++)
+        {
+            visible.add(indices[k]);
+            Vec4 p = this.project(layer.getPointPosition(indices[k]));
+            assertEquals("Incorrect x", p.x, screen[3 * k], 1e-2);
+            assertEquals("Incorrect y", p.y, screen[3 * k + 1], 1e-2);
+            assertEquals("Incorrect depth", p.z, screen[3 * k + 2], 1e-6);
+        }
+
+        for (int i = 0; i < farSide; i++)
+        {
+            Vec4 p = this.project(layer.getPointPosition(i));
+            boolean inside = p != null && p.x >= 0 && p.x <= VIEWPORT.width && p.y >= 0 && p.y <= VIEWPORT.height
+                && p.z >= 0 && p.z <= 1;
+            assertEquals("Incorrect culling of point " + i, inside, visible.contains(i));
+        }
+
+        assertNotNull("Far side point not in clip volume", this.project(layer.getPointPosition(farSide)));
+        assertFalse("Far side point visible", visible.contains(farSide));
+        assertFalse("Far side point visible", visible.contains(farSide + 1));
+    }
+
+    /** Tests that decluttering keeps the first point in each screen cell. */
+    @Test
+    public void testDecluttering()
+    {
+        BulkPointLayer layer = new BulkPointLayer();
+        layer.addPoint(30.3, -100.3, 0, 0, "a");
+        layer.addPoint(30.30001, -100.30001, 0, 0, "b");
+        layer.addPoint(31, -99, 0, 0, "c");
+
+        layer.computeVisiblePoints(this.globe, 1, this.eyePoint, this.mvp, VIEWPORT);
+        assertArrayEquals("Incorrect decluttered points", new int[] {0, 2}, layer.getVisibleIndices());
+
+        layer.setEnableDecluttering(false);
+        layer.computeVisiblePoints(this.globe, 1, this.eyePoint, this.mvp, VIEWPORT);
+        assertArrayEquals("Incorrect points", new int[] {0, 1, 2}, layer.getVisibleIndices());
+    }
+
+    /** Tests that moved points and changes to the vertical exaggeration are reflected in the projected points. */
+    @Test
+    public void testModelPointUpdates()
+    {
+        BulkPointLayer layer = new BulkPointLayer();
+        layer.addPoint(30, -100, 1000, 0, null);
+
+        layer.computeVisiblePoints(this.globe, 1, this.eyePoint, this.mvp, VIEWPORT);
+        float[] first = layer.getVisibleScreenPoints();
+
+        layer.setPointPosition(0, 31, -100, 1000);
+        layer.computeVisiblePoints(this.globe, 1, this.eyePoint, this.mvp, VIEWPORT);
+        assertEquals("Moved point not updated", this.project(Position.fromDegrees(31, -100, 1000)).y,
+            layer.getVisibleScreenPoints()[1], 1e-2);
+        assertTrue("Moved point not updated", layer.getVisibleScreenPoints()[1] > first[1]);
+
+        layer.computeVisiblePoints(this.globe, 10, this.eyePoint, this.mvp, VIEWPORT);
+        assertEquals("Exaggeration not applied", this.project(Position.fromDegrees(31, -100, 10000)).z,
+            layer.getVisibleScreenPoints()[2], 1e-6);
+    }
+
+    /** Tests that a picked point identifies the point by its index and position. */
+    @Test
+    public void testPickedPoint()
+    {
+        BulkPointLayer layer = new BulkPointLayer();
+        int style = layer.addStyle(Color.RED, 8);
+        layer.addPoint(10, 20, 30, 0, null);
+        layer.addPoint(40, 50, 60, style, "b");
+
+        PickedObject po = layer.createPickedPoint(123, 1);
+        assertSame("Incorrect picked object", layer, po.getObject());
+        assertEquals("Incorrect color code", 123, po.getColorCode());
+        assertEquals("Incorrect ordinal", 1, po.getValue(AVKey.ORDINAL));
+        assertEquals("Incorrect position", Position.fromDegrees(40, 50, 60), po.getPosition());
+        assertEquals("Incorrect style", style, layer.getPointStyle(1));
+    }
+
+    /** Returns a position's viewport relative screen coordinates and window depth, or null if it is behind the eye. */
+    private Vec4 project(Position position)
+    {
+        Vec4 clip = this.globe.computePointFromPosition(position).transformBy4(this.mvp);
+        if (clip.w <= 0)
+            return null;
+
+        return new Vec4(VIEWPORT.width * (clip.x / clip.w + 1) / 2, VIEWPORT.height * (clip.y / clip.w + 1) / 2,
+            (clip.z / clip.w + 1) / 2);
+    }
+}
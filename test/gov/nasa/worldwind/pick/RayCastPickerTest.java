@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+package gov.nasa.worldwind.pick;
+
+import gov.nasa.worldwind.WorldWind;
+import gov.nasa.worldwind.avlist.AVKey;
+import gov.nasa.worldwind.geom.*;
+import gov.nasa.worldwind.globes.*;
+import gov.nasa.worldwind.render.*;
+import gov.nasa.worldwind.terrain.*;
+import org.junit.*;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class RayCastPickerTest
+{
+    private static final double EYE_ALTITUDE = 10000;
+
+    private Globe globe;
+    private RayCastPicker picker;
+
+    @Before
+    public void setUp()
+    {
+        this.globe = new Earth();
+        this.globe.setElevationModel(new ZeroElevationModel());
+        this.picker = new RayCastPicker(new HighResolutionTerrain(this.globe, 10d));
+    }
+
+    /**
+     * Returns a ray pointing straight down from a point above a location. The location is offset slightly so that the
+     * ray does not pass through a terrain vertex.
+     */
+    private Line rayDownAt(double latitude, double longitude)
+    {
+        latitude += 1e-6;
+        longitude += 2e-6;
+        Vec4 origin = this.globe.computePointFromPosition(Position.fromDegrees(latitude, longitude, EYE_ALTITUDE));
+        Vec4 target = this.globe.computePointFromPosition(Position.fromDegrees(latitude, longitude, 0));
+        return new Line(origin, target.subtract3(origin).normalize3());
+    }
+
+    /** Tests that a polygon above the terrain is picked on top of the terrain. */
+    @Test
+    public void testPolygon() throws InterruptedException
+    {
+        Polygon polygon = new Polygon(Arrays.asList(
+            Position.fromDegrees(-0.01, -0.01, 1000), Position.fromDegrees(-0.01, 0.01, 1000),
+            Position.fromDegrees(0.01, 0.01, 1000), Position.fromDegrees(0.01, -0.01, 1000)));
+        polygon.setAltitudeMode(WorldWind.ABSOLUTE);
+        this.picker.add(polygon);
+
+        PickedObjectList pickedObjects = this.picker.pick(this.rayDownAt(0, 0), 0.001);
+        assertEquals("Incorrect picked object count", 2, pickedObjects.size());
+        assertSame("Incorrect top object", polygon, pickedObjects.getTopObject());
+        assertNotNull("Terrain not picked", pickedObjects.getTerrainObject());
+        assertEquals("Incorrect pick elevation", 1000,
+            pickedObjects.getTopPickedObject().getPosition().getElevation(), 1);
+
+        pickedObjects = this.picker.pick(this.rayDownAt(1, 1), 0.001);
+        assertEquals("Incorrect picked object count", 1, pickedObjects.size());
+        assertTrue("Terrain not on top", pickedObjects.getTopPickedObject().isTerrain());
+        assertEquals("Incorrect terrain elevation", 0,
+            pickedObjects.getTerrainObject().getPosition().getElevation(), 1);
+
+        this.picker.remove(polygon);
+        pickedObjects = this.picker.pick(this.rayDownAt(0, 0), 0.001);
+        assertFalse("Removed polygon picked", pickedObjects.hasNonTerrainObjects());
+    }
+
+    /** Tests that paths and placemarks are picked within their pixel size plus the pick tolerance. */
+    @Test
+    public void testPathAndPlacemark() throws InterruptedException
+    {
+        Path path = new Path(Position.fromDegrees(0.5, -0.1, 1000), Position.fromDegrees(0.5, 0.1, 1000));
+        path.setAltitudeMode(WorldWind.ABSOLUTE);
+        path.setPathType(AVKey.LINEAR);
+        this.picker.add(path);
+
+        PointPlacemark placemark = new PointPlacemark(Position.fromDegrees(-0.5, 0, 500));
+        placemark.setAltitudeMode(WorldWind.RELATIVE_TO_GROUND);
+        this.picker.add(placemark);
+
+        // About 11 meters off the path and placemark. At 0.001 meters per pixel per meter, the path's pick radius at
+        // 9 km is about 31 meters and the placemark's about 171 meters; at 0.0001 they are about 3 and 17 meters.
+        Line pathRay = this.rayDownAt(0.5001, 0);
+        Line placemarkRay = this.rayDownAt(-0.5001, 0);
+
+        assertSame("Path not picked", path, this.picker.pick(pathRay, 0.001).getTopObject());
+        assertNotSame("Path picked outside tolerance", path, this.picker.pick(pathRay, 0.0001).getTopObject());
+        assertSame("Placemark not picked", placemark, this.picker.pick(placemarkRay, 0.001).getTopObject());
+        assertNotSame("Placemark picked outside tolerance", placemark,
+            this.picker.pick(this.rayDownAt(-0.502, 0), 0.0001).getTopObject());
+
+        // Move the placemark and verify that the cached geometry is refreshed.
+        placemark.setPosition(Position.fromDegrees(1.5, 0, 500));
+        this.picker.update(placemark);
+        assertNotSame("Moved placemark picked", placemark, this.picker.pick(placemarkRay, 0.001).getTopObject());
+        assertSame("Moved placemark not picked", placemark,
+            this.picker.pick(this.rayDownAt(1.5, 0), 0.001).getTopObject());
+    }
+
+    /** Tests that changing the pick tolerance changes the pick radius of objects already in the picker. */
+    @Test
+    public void testPickTolerance() throws InterruptedException
+    {
+        Path path = new Path(Position.fromDegrees(0.5, -0.1, 1000), Position.fromDegrees(0.5, 0.1, 1000));
+        path.setAltitudeMode(WorldWind.ABSOLUTE);
+        path.setPathType(AVKey.LINEAR);
+        this.picker.add(path);
+
+        // About 11 meters off the path. At 0.0001 meters per pixel per meter, a pixel is about 0.9 meters at 9 km.
+        Line pathRay = this.rayDownAt(0.5001, 0);
+        assertNotSame("Path picked outside tolerance", path, this.picker.pick(pathRay, 0.0001).getTopObject());
+
+        this.picker.setPickTolerance(20);
+        assertSame("Path not picked within increased tolerance", path,
+            this.picker.pick(pathRay, 0.0001).getTopObject());
+
+        this.picker.setPickTolerance(0);
+        assertNotSame("Path picked outside decreased tolerance", path,
+            this.picker.pick(pathRay, 0.0001).getTopObject());
+    }
+
+    /** Tests that objects behind the terrain are picked only when deep picking is enabled. */
+    @Test
+    public void testOcclusion() throws InterruptedException
+    {
+        PointPlacemark placemark = new PointPlacemark(Position.fromDegrees(0, 0, -1000));
+        placemark.setAltitudeMode(WorldWind.ABSOLUTE);
+        this.picker.add(placemark);
+
+        PickedObjectList pickedObjects = this.picker.pick(this.rayDownAt(0, 0), 0.001);
+        assertFalse("Occluded placemark picked", pickedObjects.hasNonTerrainObjects());
+
+        this.picker.setDeepPickEnabled(true);
+        pickedObjects = this.picker.pick(this.rayDownAt(0, 0), 0.001);
+        assertEquals("Incorrect picked object count", 2, pickedObjects.size());
+        assertSame("Deep picked placemark not on top", placemark, pickedObjects.getTopObject());
+
+        this.picker.setTerrainPickEnabled(false);
+        pickedObjects = this.picker.pick(this.rayDownAt(0, 0), 0.001);
+        assertEquals("Incorrect picked object count", 1, pickedObjects.size());
+        assertNull("Terrain picked", pickedObjects.getTerrainObject());
+    }
+
+    /** Tests that many objects are found through the bounding volume hierarchy. */
+    @Test
+    public void testManyObjects() throws InterruptedException
+    {
+        PointPlacemark[] placemarks = new PointPlacemark[500];
+        for (int i = 0; i < placemarks.length; i++)
+        {
+            placemarks[i] = new PointPlacemark(Position.fromDegrees(0.1 * (i / 25), 0.1 * (i % 25), 100));
+            placemarks[i].setAltitudeMode(WorldWind.ABSOLUTE);
+            this.picker.add(placemarks[i]);
+        }
+
+        assertEquals("Incorrect size", placemarks.length, this.picker.size());
+        for (int i = 0; i < placemarks.length; i += 37)
+        {
+            Position p = placemarks[i].getPosition();
+            PickedObjectList pickedObjects = this.picker.pick(
+                this.rayDownAt(p.getLatitude().degrees, p.getLongitude().degrees), 0.001);
+            assertSame("Incorrect placemark picked", placemarks[i], pickedObjects.getTopObject());
+        }
+
+        this.picker.clear();
+        assertEquals("Picker not cleared", 0, this.picker.size());
+    }
+}
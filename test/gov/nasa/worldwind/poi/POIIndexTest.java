@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+package gov.nasa.worldwind.poi;
+
+import gov.nasa.worldwind.avlist.AVKey;
+import gov.nasa.worldwind.exception.NoItemException;
+import gov.nasa.worldwind.geom.*;
+import org.junit.*;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.*;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class POIIndexTest
+{
+    private static final int NUM_PLACES = 5000;
+
+    private List<String> names;
+    private double[] locations;
+    private POIIndex index;
+
+    @Before
+    public void setUp()
+    {
+        Random random = new Random(1);
+        this.names = new ArrayList<String>(NUM_PLACES);
+        this.locations = new double[2 * NUM_PLACES];
+        for (int i = 0; i < NUM_PLACES; i++)
+        {
+            this.names.add("Place " + i);
+            // Cluster a quarter of the places near the poles and the anti-meridian.
+            this.locations[2 * i] = i % 4 == 0 ? 89 * Math.signum(random.nextGaussian())
+                : 180 * random.nextDouble() - 90;
+            this.locations[2 * i + 1] = i % 4 == 1 ? 179.9 * Math.signum(random.nextGaussian())
+                : 360 * random.nextDouble() - 180;
+        }
+
+        this.index = POIIndex.build(this.names, this.locations);
+    }
+
+    /** Tests that the nearest places have the same distances as the nearest found by sorting every place. */
+    @Test
+    public void testNearest()
+    {
+        Random random = new Random(2);
+        for (int k = 0; k < 100; k++)
+        {
+            double lat = 180 * random.nextDouble() - 90;
+            double lon = 360 * random.nextDouble() - 180;
+            double[] distances = this.distances(lat, lon);
+            double[] sorted = distances.clone();
+            Arrays.sort(sorted);
+
+            int[] nearest = this.index.findNearest(lat, lon, 20);
+            assertEquals("Nearest count", 20, nearest.length);
+            for (int i = 0; i < nearest.length; i++)
+            {
+                assertEquals("Nearest distance", sorted[i], distances[nearest[i]], 0);
+            }
+        }
+
+        assertEquals("All places", NUM_PLACES, this.index.findNearest(0, 0, NUM_PLACES + 1).length);
+        assertEquals("No places", 0, this.index.findNearest(0, 0, 0).length);
+    }
+
+    /** Tests that the places within a distance are those found by testing every place. */
+    @Test
+    public void testWithin()
+    {
+        Random random = new Random(3);
+        for (int k = 0; k < 100; k++)
+        {
+            double lat = 180 * random.nextDouble() - 90;
+            double lon = 360 * random.nextDouble() - 180;
+            double radius = 0.3 * random.nextDouble();
+            double[] distances = this.distances(lat, lon);
+
+            Set<Integer> expected = new HashSet<Integer>();
+            for (int i = 0; i < NUM_PLACES; i++)
+            {
+                if (distances[i] <= radius)
+                    expected.add(i);
+            }
+
+            Set<Integer> actual = new HashSet<Integer>();
+            for (int i : this.index.findWithin(lat, lon, radius))
+            {
+                actual.add(i);
+            }
+            assertEquals("Places within distance", expected, actual);
+        }
+    }
+
+    /** Tests that name lookups ignore case, list exact matches first and handle names outside ASCII. */
+    @Test
+    public void testNames()
+    {
+        POIIndex index = POIIndex.build(Arrays.asList("Paris, Texas", "paris", "Parma", "Zürich", "Zug", "Paris"),
+            new double[] {33.66, -95.55, 48.86, 2.35, 44.8, 10.33, 47.37, 8.54, 47.17, 8.52, 48.86, 2.35});
+
+        int[] found = index.findByName("PARIS", 10);
+        assertEquals("Paris count", 3, found.length);
+        assertEquals("Exact match first", "paris", index.getName(found[0]).toLowerCase());
+        assertEquals("Exact match second", "paris", index.getName(found[1]).toLowerCase());
+        assertEquals("Prefix match", "Paris, Texas", index.getName(found[2]));
+        assertEquals("Limited count", 1, index.findByName("par", 1).length);
+        assertEquals("Non-ASCII match", "Zürich", index.getName(index.findByName("zü", 10)[0]));
+        assertEquals("No match", 0, index.findByName("Rome", 10).length);
+
+        List<PointOfInterest> places = index.findPlaces(" parma ");
+        assertEquals("Places", 1, places.size());
+        assertEquals("Place name", "Parma", places.get(0).getStringValue(AVKey.DISPLAY_NAME));
+        assertEquals("Place location", LatLon.fromDegrees(44.8, 10.33), places.get(0).getLatlon());
+
+        try
+        {
+            index.findPlaces("Rome");
+            fail("Found a missing place");
+        }
+        catch (NoItemException e)
+        {
+            // Expected
+        }
+    }
+
+    /** Tests that an index read from a text file, written and mapped from its file answers the same queries. */
+    @Test
+    public void testReadWriteOpen() throws IOException
+    {
+        StringBuilder text = new StringBuilder("malformed line\n");
+        for (int i = 0; i < NUM_PLACES; i++)
+        {
+            text.append(i).append('\t').append(this.names.get(i)).append("\tascii\talternate\t")
+                .append(this.locations[2 * i]).append('\t').append(this.locations[2 * i + 1]).append("\tP\tPPL\n");
+        }
+        POIIndex read = POIIndex.read(new StringReader(text.toString()), 1, 4, 5);
+        assertEquals("Read size", NUM_PLACES, read.size());
+
+        File file = File.createTempFile("POIIndexTest", ".poi");
+        try
+        {
+            read.write(file);
+            POIIndex mapped = POIIndex.open(file);
+            assertEquals("Mapped size", NUM_PLACES, mapped.size());
+            for (int i = 0; i < NUM_PLACES; i++)
+            {
+                assertEquals("Name", this.index.getName(i), mapped.getName(i));
+                assertEquals("Latitude", this.index.getLatitude(i), mapped.getLatitude(i), 0);
+                assertEquals("Longitude", this.index.getLongitude(i), mapped.getLongitude(i), 0);
+                assertEquals("Location", this.locations[2 * this.names.indexOf(mapped.getName(i))],
+                    mapped.getLatitude(i), 1e-7);
+            }
+
+            assertArrayEquals("Nearest", this.index.findNearest(10, 20, 10), mapped.findNearest(10, 20, 10));
+            assertArrayEquals("Names", this.index.findByName("place 12", 20), mapped.findByName("place 12", 20));
+        }
+        finally
+        {
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+        }
+    }
+
+    private double[] distances(double lat, double lon)
+    {
+        double[] distances = new double[NUM_PLACES];
+        for (int i = 0; i < NUM_PLACES; i++)
+        {
+            distances[i] = Geodesy.greatCircleDistance(Math.toRadians(lat), Math.toRadians(lon),
+                Math.toRadians(this.index.getLatitude(i)), Math.toRadians(this.index.getLongitude(i)));
+        }
+
+        return distances;
+    }
+}
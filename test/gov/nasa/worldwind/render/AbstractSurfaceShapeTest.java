@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+package gov.nasa.worldwind.render;
+
+import gov.nasa.worldwind.geom.*;
+import gov.nasa.worldwind.globes.*;
+import gov.nasa.worldwind.pick.PickedObject;
+import gov.nasa.worldwind.util.*;
+import org.junit.*;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.*;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class AbstractSurfaceShapeTest
+{
+    /** A draw context whose globe is assigned directly. */
+    private static class TestDrawContext extends DrawContextImpl
+    {
+        public TestDrawContext(Globe globe)
+        {
+            this.globe = globe;
+        }
+    }
+
+    private DrawContext dc;
+    private Level level;
+
+    @Before
+    public void setUp()
+    {
+        this.dc = new TestDrawContext(new Earth());
+        this.level = SurfaceObjectTileBuilder.createLevelSet(512, 512).getFirstLevel();
+    }
+
+    /** Tests that packed geometry holds the shape's contours, and splits contours crossing the anti-meridian. */
+    @Test
+    public void testDatelineGeometry()
+    {
+        SurfacePolyline shape = new SurfacePolyline(Arrays.asList(LatLon.fromDegrees(10, 170),
+            LatLon.fromDegrees(20, -170), LatLon.fromDegrees(30, -160)));
+        SurfaceTileDrawContext sdc = this.createTileContext(Sector.fromDegrees(0, 36, 144, 180));
+
+        AbstractSurfaceShape.PackedGeometry geometry = shape.getCachedPackedGeometry(this.dc, sdc);
+        List<List<LatLon>> contours = shape.createGeometry(this.dc.getGlobe(), sdc);
+        assertEquals("Incorrect contours", contours, geometry.getContourLists());
+        assertSame("Outline not shared", geometry.interior, geometry.outline);
+
+        List<List<LatLon>> expected = LatLon.repeatLocationsAroundDateline(contours.get(0));
+        assertEquals("Incorrect outline", expected, geometry.outline.unpack());
+        assertEquals("Incorrect location count", expected.get(0).size() + expected.get(1).size(),
+            geometry.outline.getLocationCount());
+    }
+
+    /** Tests that the interior of a polygon enclosing a pole is cut along the anti-meridian, but its outline is not. */
+    @Test
+    public void testPoleGeometry()
+    {
+        List<LatLon> locations = new ArrayList<LatLon>();
+        for (int lon = -180; lon < 180; lon += 30)
+        {
+            locations.add(LatLon.fromDegrees(80, lon + 15));
+        }
+
+        SurfacePolygon shape = new SurfacePolygon(locations);
+        SurfaceTileDrawContext sdc = this.createTileContext(Sector.fromDegrees(72, 90, 0, 36));
+
+        AbstractSurfaceShape.PackedGeometry geometry = shape.getCachedPackedGeometry(this.dc, sdc);
+        List<LatLon> contour = shape.createGeometry(this.dc.getGlobe(), sdc).get(0);
+        assertEquals("Incorrect interior",
+            Arrays.asList(LatLon.cutLocationsAlongDateLine(contour, LatLon.locationsContainPole(contour),
+                this.dc.getGlobe())), geometry.interior.unpack());
+        assertEquals("Incorrect outline", LatLon.repeatLocationsAroundDateline(contour), geometry.outline.unpack());
+    }
+
+    /** Tests that geometry is shared until the shape changes, and that each level of detail is cached separately. */
+    @Test
+    public void testCachedGeometry()
+    {
+        List<LatLon> locations = Arrays.asList(LatLon.fromDegrees(1, 1), LatLon.fromDegrees(5, 7),
+            LatLon.fromDegrees(9, 2));
+        SurfacePolyline shape = new SurfacePolyline(locations);
+        SurfacePolyline other = new SurfacePolyline(locations);
+        SurfaceTileDrawContext coarse = this.createTileContext(Sector.fromDegrees(0, 36, 0, 36));
+        SurfaceTileDrawContext fine = this.createTileContext(Sector.fromDegrees(0, 9, 0, 9));
+
+        AbstractSurfaceShape.PackedGeometry geometry = shape.getCachedPackedGeometry(this.dc, coarse);
+        assertSame("Geometry not cached", geometry, shape.getCachedPackedGeometry(this.dc, coarse));
+        assertNotSame("Shapes share geometry", geometry, other.getCachedPackedGeometry(this.dc, coarse));
+
+        AbstractSurfaceShape.PackedGeometry fineGeometry = shape.getCachedPackedGeometry(this.dc, fine);
+        assertNotSame("Levels share geometry", geometry, fineGeometry);
+        assertTrue("Incorrect level of detail",
+            fineGeometry.contours.getLocationCount() > geometry.contours.getLocationCount());
+        assertSame("Level not cached", geometry, shape.getCachedPackedGeometry(this.dc, coarse));
+
+        shape.setLocations(Arrays.asList(LatLon.fromDegrees(1, 1), LatLon.fromDegrees(5, 8)));
+        AbstractSurfaceShape.PackedGeometry changed = shape.getCachedPackedGeometry(this.dc, coarse);
+        assertNotSame("Geometry not updated", geometry, changed);
+        assertEquals("Incorrect changed contours", shape.createGeometry(this.dc.getGlobe(), coarse),
+            changed.getContourLists());
+    }
+
+    private SurfaceTileDrawContext createTileContext(Sector sector)
+    {
+        return new SurfaceTileDrawContext(new Tile(sector, this.level, 0, 0), new ArrayList<PickedObject>());
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+package gov.nasa.worldwind.render;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.awt.*;
+import java.util.*;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class DrawContextImplTest
+{
+    private static class Item implements OrderedRenderable
+    {
+        private final double distance;
+        private final int sequence;
+
+        public Item(double distance, int sequence)
+        {
+            this.distance = distance;
+            this.sequence = sequence;
+        }
+
+        public double getDistanceFromEye()
+        {
+            return this.distance;
+        }
+
+        public void pick(DrawContext dc, Point pickPoint)
+        {
+        }
+
+        public void render(DrawContext dc)
+        {
+        }
+    }
+
+    /** Orders items back to front, then by the order they were added. */
+    private static final Comparator<Item> BACK_TO_FRONT = new Comparator<Item>()
+    {
+        public int compare(Item a, Item b)
+        {
+            if (a.distance != b.distance)
+                return a.distance > b.distance ? -1 : 1;
+
+            return a.sequence < b.sequence ? -1 : a.sequence == b.sequence ? 0 : 1;
+        }
+    };
+
+    /** Tests that ordered renderables are returned back to front, with ties in the order they were added. */
+    @Test
+    public void testOrdering()
+    {
+        Random random = new Random(1);
+        DrawContext dc = new DrawContextImpl();
+
+        for (int frame = 0; frame < 3; frame++)
+        {
+            int count = frame == 0 ? 5000 : 20;
+            List<Item> expected = new ArrayList<Item>();
+            for (int i = 0; i < count; i++)
+            {
+                // Use few distinct distances, including negative and zero values, so that many ties occur.
+                Item item = new Item(random.nextInt(200) - 20 + (random.nextBoolean() ? 0.5 : 0), i);
+                expected.add(item);
+                dc.addOrderedRenderable(item);
+            }
+
+            Collections.sort(expected, BACK_TO_FRONT);
+            for (Item item : expected)
+            {
+                assertSame("Incorrect peeked renderable", item, dc.peekOrderedRenderables());
+                assertSame("Incorrect polled renderable", item, dc.pollOrderedRenderables());
+            }
+
+            assertNull("Queue not empty", dc.peekOrderedRenderables());
+            assertNull("Queue not empty", dc.pollOrderedRenderables());
+        }
+    }
+
+    /** Tests that renderables added while the queue is drained are merged in order with the remaining renderables. */
+    @Test
+    public void testAddWhileDraining()
+    {
+        Random random = new Random(2);
+        DrawContext dc = new DrawContextImpl();
+        PriorityQueue<Item> expected = new PriorityQueue<Item>(16, BACK_TO_FRONT);
+        int sequence = 0;
+
+        for (int i = 0; i < 1000; i++)
+        {
+            Item item = new Item(random.nextInt(100), sequence++);
+            expected.add(item);
+            dc.addOrderedRenderable(item);
+        }
+
+        while (!expected.isEmpty())
+        {
+            assertSame("Incorrect polled renderable", expected.poll(), dc.pollOrderedRenderables());
+
+            if (sequence < 3000 && random.nextInt(10) == 0)
+            {
+                // Add a batch large enough to be radix sorted, or a single renderable.
+                int n = random.nextBoolean() ? 50 : 1;
+                for (int i = 0; i < n; i++)
+                {
+                    Item item = new Item(random.nextInt(100), sequence++);
+                    expected.add(item);
+                    dc.addOrderedRenderable(item);
+                }
+            }
+        }
+
+        assertNull("Queue not empty", dc.pollOrderedRenderables());
+    }
+
+    /** Tests that renderables added as behind all others are returned first, in the order they were added. */
+    @Test
+    public void testBehind()
+    {
+        DrawContext dc = new DrawContextImpl();
+        Item a = new Item(10, 0);
+        Item b = new Item(5, 1);
+        Item c = new Item(20, 2);
+        Item d = new Item(Double.POSITIVE_INFINITY, 3);
+
+        dc.addOrderedRenderable(a);
+        dc.addOrderedRenderable(b, true);
+        dc.addOrderedRenderable(c, true);
+        dc.addOrderedRenderable(d);
+
+        assertSame("Incorrect polled renderable", d, dc.pollOrderedRenderables());
+        assertSame("Incorrect polled renderable", b, dc.pollOrderedRenderables());
+        assertSame("Incorrect polled renderable", c, dc.pollOrderedRenderables());
+        assertSame("Incorrect polled renderable", a, dc.pollOrderedRenderables());
+        assertNull("Queue not empty", dc.pollOrderedRenderables());
+    }
+}
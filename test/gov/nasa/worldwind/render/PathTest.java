@@ -0,0 +1,324 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+package gov.nasa.worldwind.render;
+
+import gov.nasa.worldwind.WorldWind;
+import gov.nasa.worldwind.geom.*;
+import gov.nasa.worldwind.geom.Box;
+import gov.nasa.worldwind.globes.*;
+import gov.nasa.worldwind.terrain.*;
+import org.junit.*;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.awt.*;
+import java.nio.*;
+import java.util.*;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class PathTest
+{
+    /** A draw context that needs no view, and for which no extent is small. */
+    private static class TestDrawContext extends DrawContextImpl
+    {
+        public TestDrawContext(Globe globe)
+        {
+            this.globe = globe;
+            this.setVerticalExaggeration(1);
+            this.setSurfaceGeometry(new SectorGeometryList());
+            this.setFrameTimeStamp(System.currentTimeMillis());
+        }
+
+        @Override
+        public boolean isSmall(Extent extent, int numPixels)
+        {
+            return false;
+        }
+    }
+
+    /** A path whose geometry can be computed without a view or OpenGL, and which counts how it was computed. */
+    private static class TestPath extends Path
+    {
+        private int fullCount;
+        private int appendCount;
+
+        public void update(DrawContext dc)
+        {
+            this.currentData = (AbstractShapeData) this.shapeDataCache.getEntry(dc.getGlobe());
+            if (this.currentData == null)
+            {
+                this.currentData = this.createCacheEntry(dc);
+                this.shapeDataCache.addEntry(this.currentData);
+            }
+
+            if (this.mustRegenerateGeometry(dc))
+            {
+                assertTrue("Geometry not computed", this.doMakeOrderedRenderable(dc));
+                this.currentData.restartTimer(dc);
+            }
+        }
+
+        @Override
+        protected boolean makeGeometry(DrawContext dc, PathData pathData)
+        {
+            this.fullCount++;
+            return super.makeGeometry(dc, pathData);
+        }
+
+        @Override
+        protected void appendGeometry(DrawContext dc, PathData pathData)
+        {
+            this.appendCount++;
+            super.appendGeometry(dc, pathData);
+        }
+
+        @Override
+        protected boolean shouldUseVBOs(DrawContext dc)
+        {
+            return false;
+        }
+
+        @Override
+        protected boolean intersectsFrustum(DrawContext dc)
+        {
+            return true;
+        }
+
+        @Override
+        protected boolean isSmall(DrawContext dc, Vec4 ptA, Vec4 ptB, int numPixels)
+        {
+            return false;
+        }
+
+        @Override
+        protected boolean isSegmentVisible(DrawContext dc, Position posA, Position posB, Vec4 ptA, Vec4 ptB)
+        {
+            return true;
+        }
+
+        @Override
+        protected double computeEyeDistance(DrawContext dc, PathData pathData)
+        {
+            return 0;
+        }
+    }
+
+    private static final Path.PositionColors POSITION_COLORS = new Path.PositionColors()
+    {
+        public Color getColor(Position position, int ordinal)
+        {
+            return new Color(ordinal % 256, 255 - ordinal % 256, 128);
+        }
+    };
+
+    private Globe globe;
+
+    @Before
+    public void setUp()
+    {
+        this.globe = new Earth();
+        this.globe.setElevationModel(new ZeroElevationModel());
+    }
+
+    /** Tests that appended positions produce the same geometry as setting all of the positions. */
+    @Test
+    public void testAppendMatchesFullGeometry()
+    {
+        int[] altitudeModes = {WorldWind.ABSOLUTE, WorldWind.RELATIVE_TO_GROUND, WorldWind.CLAMP_TO_GROUND};
+        for (int altitudeMode : altitudeModes)
+        {
+            for (int i = 0; i < 4; i++)
+            {
+                boolean extrude = (i & 1) != 0;
+                boolean colors = (i & 2) != 0;
+                String name = "altitude mode " + altitudeMode + (extrude ? ", extruded" : "") + (colors ? ", colored"
+                    : "");
+
+                TestPath appended = this.createPath(altitudeMode, extrude, colors);
+                TestPath full = this.createPath(altitudeMode, extrude, colors);
+                DrawContext dc = new TestDrawContext(this.globe);
+
+                List<Position> positions = makeTrack(0, 3);
+                appended.setPositions(new ArrayList<Position>(positions));
+                appended.update(dc);
+
+                for (int n = 3; n < 200; n += 1 + n / 4)
+                {
+                    List<Position> track = makeTrack(n, 1 + n / 4);
+                    positions.addAll(track);
+                    appended.addPositions(track);
+                    appended.update(dc);
+
+                    full.setPositions(new ArrayList<Position>(positions));
+                    full.update(dc);
+                    assertSameGeometry(name, full.getCurrentPathData(), appended.getCurrentPathData());
+                }
+
+                assertEquals(name + ": geometry not appended", 1, appended.fullCount);
+                assertTrue(name + ": geometry not appended", appended.appendCount > 10);
+            }
+        }
+    }
+
+    /** Tests that the extent of an appended path contains all of the path's points. */
+    @Test
+    public void testAppendedExtent()
+    {
+        TestPath path = this.createPath(WorldWind.ABSOLUTE, true, false);
+        DrawContext dc = new TestDrawContext(this.globe);
+
+        path.addPositions(makeTrack(0, 2));
+        path.update(dc);
+
+        for (int i = 0; i < 50; i++)
+        {
+            // Turn the track so that the points leave the original extent along each of its axes.
+            path.addPosition(Position.fromDegrees(10 * Math.sin(i * 0.2), 0.5 * i, 1000 + 500 * i));
+            assertNull("Extent not discarded", path.getExtent());
+            path.update(dc);
+        }
+
+        assertEquals("Geometry not appended", 1, path.fullCount);
+        Box box = (Box) path.getExtent();
+        assertNotNull("Extent not computed", box);
+
+        Path.PathData pathData = path.getCurrentPathData();
+        FloatBuffer points = pathData.renderedPath;
+        Vec4 ref = pathData.getReferencePoint();
+        for (int i = 0; i < points.limit(); i += pathData.vertexStride)
+        {
+            Vec4 point = new Vec4(points.get(i) + ref.x, points.get(i + 1) + ref.y, points.get(i + 2) + ref.z);
+            for (Plane plane : box.getPlanes())
+            {
+                assertTrue("Point outside extent", plane.dot(point) <= 1e-3 * box.getDiameter());
+            }
+        }
+    }
+
+    /** Tests that the geometry is computed in full when it expires or the vertical exaggeration changes. */
+    @Test
+    public void testAppendFallsBackToFullGeometry()
+    {
+        TestPath path = this.createPath(WorldWind.ABSOLUTE, false, false);
+        TestDrawContext dc = new TestDrawContext(this.globe);
+
+        path.setPositions(makeTrack(0, 5));
+        path.update(dc);
+        path.addPositions(makeTrack(5, 5));
+        path.update(dc);
+        assertEquals("Incorrect full count", 1, path.fullCount);
+        assertEquals("Incorrect append count", 1, path.appendCount);
+
+        path.getCurrentPathData().setExpired(true);
+        path.addPositions(makeTrack(10, 5));
+        path.update(dc);
+        assertEquals("Incorrect full count", 2, path.fullCount);
+
+        dc.setVerticalExaggeration(2);
+        path.addPositions(makeTrack(15, 5));
+        path.update(dc);
+        assertEquals("Incorrect full count", 3, path.fullCount);
+        assertEquals("Incorrect append count", 1, path.appendCount);
+
+        TestPath full = this.createPath(WorldWind.ABSOLUTE, false, false);
+        full.setPositions(makeTrack(0, 20));
+        full.update(dc);
+        assertSameGeometry("fallback", full.getCurrentPathData(), path.getCurrentPathData());
+    }
+
+    /** Tests that a path appended to more often than its expiration interval is still periodically computed in full. */
+    @Test
+    public void testFrequentAppendExpires()
+    {
+        TestPath path = this.createPath(WorldWind.ABSOLUTE, false, false);
+        path.setGeometryRegenerationInterval(1000);
+        TestDrawContext dc = new TestDrawContext(this.globe);
+        long startTime = dc.getFrameTimeStamp();
+
+        path.setPositions(makeTrack(0, 5));
+        path.update(dc);
+
+        // Append every 200 milliseconds for two seconds, twice the longest expiration interval.
+        for (int i = 1; i <= 10; i++)
+        {
+            dc.setFrameTimeStamp(startTime + 200 * i);
+            path.addPositions(makeTrack(5 * i, 5));
+            path.update(dc);
+        }
+
+        assertTrue("Geometry not computed in full after expiring", path.fullCount >= 3);
+        assertTrue("Geometry never appended", path.appendCount > 0);
+
+        TestPath full = this.createPath(WorldWind.ABSOLUTE, false, false);
+        full.setPositions(makeTrack(0, 55));
+        full.update(dc);
+        assertSameGeometry("frequent append", full.getCurrentPathData(), path.getCurrentPathData());
+    }
+
+    private TestPath createPath(int altitudeMode, boolean extrude, boolean colors)
+    {
+        TestPath path = new TestPath();
+        path.setAltitudeMode(altitudeMode);
+        path.setExtrude(extrude);
+        path.setNumSubsegments(4);
+        if (colors)
+            path.setPositionColors(POSITION_COLORS);
+
+        return path;
+    }
+
+    /** Returns positions of a track that advances a short distance north east with each position. */
+    private static List<Position> makeTrack(int first, int count)
+    {
+        List<Position> positions = new ArrayList<Position>(count);
+        for (int i = first; i < first + count; i++)
+        {
+            positions.add(Position.fromDegrees(30 + 0.01 * i, -120 + 0.02 * i + 0.001 * (i % 3), 100 + 10 * (i % 7)));
+        }
+
+        return positions;
+    }
+
+    private static void assertSameGeometry(String name, Path.PathData expected, Path.PathData actual)
+    {
+        assertEquals(name + ": incorrect tessellated positions", expected.tessellatedPositions,
+            actual.tessellatedPositions);
+        assertEquals(name + ": incorrect tessellated colors", expected.tessellatedColors, actual.tessellatedColors);
+        assertEquals(name + ": incorrect pole positions", toList(expected.polePositions),
+            toList(actual.polePositions));
+        // The first geometry computed for a path indexes its position points as if it had no extrusion points.
+        if (!expected.hasExtrusionPoints)
+        {
+            assertEquals(name + ": incorrect position points", toList(expected.positionPoints),
+                toList(actual.positionPoints));
+        }
+        assertEquals(name + ": incorrect vertex stride", expected.vertexStride, actual.vertexStride);
+        assertEquals(name + ": incorrect vertex count", expected.vertexCount, actual.vertexCount);
+        assertEquals(name + ": incorrect extrusion", expected.hasExtrusionPoints, actual.hasExtrusionPoints);
+
+        FloatBuffer expectedPath = expected.renderedPath;
+        FloatBuffer actualPath = actual.renderedPath;
+        assertEquals(name + ": incorrect rendered path size", expectedPath.limit(), actualPath.limit());
+        for (int i = 0; i < expectedPath.limit(); i++)
+        {
+            assertEquals(name + ": incorrect rendered path", expectedPath.get(i), actualPath.get(i), 0);
+        }
+    }
+
+    private static List<Integer> toList(IntBuffer buffer)
+    {
+        List<Integer> list = new ArrayList<Integer>(buffer.limit());
+        for (int i = 0; i < buffer.limit(); i++)
+        {
+            list.add(buffer.get(i));
+        }
+
+        return list;
+    }
+}
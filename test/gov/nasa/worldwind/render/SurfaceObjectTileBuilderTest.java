@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+package gov.nasa.worldwind.render;
+
+import gov.nasa.worldwind.geom.Sector;
+import gov.nasa.worldwind.util.LevelSet;
+import org.junit.*;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.awt.*;
+import java.util.*;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class SurfaceObjectTileBuilderTest
+{
+    /** A surface renderable with a fixed sector whose state key changes when it is moved. */
+    private static class TestObject implements SurfaceRenderable
+    {
+        private Sector sector;
+        private int version;
+
+        public TestObject(Sector sector)
+        {
+            this.sector = sector;
+        }
+
+        public void moveTo(Sector sector)
+        {
+            this.sector = sector;
+            this.version++;
+        }
+
+        public List<Sector> getSectors(DrawContext dc)
+        {
+            return Arrays.asList(this.sector);
+        }
+
+        public Object getStateKey(DrawContext dc)
+        {
+            return Arrays.asList(this, this.version);
+        }
+
+        public void render(DrawContext dc)
+        {
+        }
+    }
+
+    private SurfaceObjectTileBuilder builder;
+    private SurfaceObjectTileBuilder.SurfaceObjectTile tile;
+
+    @Before
+    public void setUp()
+    {
+        this.builder = new SurfaceObjectTileBuilder();
+        LevelSet levelSet = SurfaceObjectTileBuilder.createLevelSet(512, 512);
+        // A 36 degree tile drawn in 512 pixels; each pixel spans 36/512 degrees.
+        this.tile = new SurfaceObjectTileBuilder.SurfaceObjectTile(Sector.fromDegrees(0, 36, 0, 36),
+            levelSet.getFirstLevel(), 0, 0, "test");
+    }
+
+    /** Tests that moving an object dirties its previous and current sectors, expanded by the margin. */
+    @Test
+    public void testMovedObject()
+    {
+        TestObject a = new TestObject(Sector.fromDegrees(1, 2, 1, 2));
+        TestObject b = new TestObject(Sector.fromDegrees(20, 30, 20, 30));
+        Object lastKey = this.createStateKey(a, b);
+
+        a.moveTo(Sector.fromDegrees(3, 4.5, 1, 2));
+        Rectangle region = this.builder.computeDirtyRegion(this.tile, lastKey, this.createStateKey(a, b));
+
+        int margin = this.builder.getDirtyRegionMargin();
+        assertEquals("Incorrect dirty region", new Rectangle(pixel(1) - margin, pixel(1) - margin,
+            ceilPixel(2) - pixel(1) + 2 * margin, ceilPixel(4.5) - pixel(1) + 2 * margin), region);
+        assertFalse("Unchanged object dirty", region.intersects(
+            this.builder.computeTileRegion(this.tile, b.sector, 0)));
+    }
+
+    /** Tests that added and removed objects dirty their sectors, and that the dirty region is clipped to the tile. */
+    @Test
+    public void testAddedAndRemovedObjects()
+    {
+        TestObject a = new TestObject(Sector.fromDegrees(0, 1, 0, 1));
+        TestObject b = new TestObject(Sector.fromDegrees(10, 12, 10, 12));
+        TestObject c = new TestObject(Sector.fromDegrees(30, 31, 30, 31));
+
+        Rectangle region = this.builder.computeDirtyRegion(this.tile, this.createStateKey(a, b),
+            this.createStateKey(a, b, c));
+        int margin = this.builder.getDirtyRegionMargin();
+        assertEquals("Incorrect added region", new Rectangle(pixel(30) - margin, pixel(30) - margin,
+            ceilPixel(31) - pixel(30) + 2 * margin, ceilPixel(31) - pixel(30) + 2 * margin), region);
+
+        region = this.builder.computeDirtyRegion(this.tile, this.createStateKey(a, b), this.createStateKey(b));
+        assertEquals("Incorrect removed region", new Rectangle(0, 0, ceilPixel(1) + margin, ceilPixel(1) + margin),
+            region);
+    }
+
+    /** Tests the conditions under which the entire tile must be redrawn. */
+    @Test
+    public void testEntireTile()
+    {
+        TestObject a = new TestObject(Sector.fromDegrees(1, 2, 1, 2));
+        TestObject b = new TestObject(Sector.fromDegrees(20, 21, 20, 21));
+        TestObject c = new TestObject(Sector.fromDegrees(10, 11, 10, 11));
+
+        // Unchanged objects drawn in a different order.
+        assertNull("Reordered objects", this.builder.computeDirtyRegion(this.tile, this.createStateKey(a, b, c),
+            this.createStateKey(b, a)));
+
+        // A change covering more than half of the tile.
+        Object lastKey = this.createStateKey(a, b);
+        a.moveTo(Sector.fromDegrees(1, 35, 1, 35));
+        assertNull("Large change", this.builder.computeDirtyRegion(this.tile, lastKey, this.createStateKey(a, b)));
+
+        // A previous state whose object sectors were not recorded.
+        SurfaceObjectTileBuilder.SurfaceObjectTileStateKey key = this.createStateKey(a);
+        key.intersectingObjectSectors = null;
+        assertNull("Unknown sectors", this.builder.computeDirtyRegion(this.tile, key, this.createStateKey(a, c)));
+    }
+
+    /** Tests that object sectors are recorded clipped to the tile, and are not part of the state key's equality. */
+    @Test
+    public void testObjectSectors()
+    {
+        TestObject a = new TestObject(Sector.fromDegrees(-10, 5, 30, 50));
+        SurfaceObjectTileBuilder.SurfaceObjectTileStateKey key = this.createStateKey(a);
+        assertEquals("Incorrect sector", Sector.fromDegrees(0, 5, 30, 36), key.intersectingObjectSectors[0]);
+
+        SurfaceObjectTileBuilder.SurfaceObjectTileStateKey other = new SurfaceObjectTileBuilder
+            .SurfaceObjectTileStateKey(null, this.tile);
+        assertEquals("Sectors compared", key, other);
+        assertEquals("Sectors hashed", key.hashCode(), other.hashCode());
+    }
+
+    private SurfaceObjectTileBuilder.SurfaceObjectTileStateKey createStateKey(TestObject... objects)
+    {
+        this.tile.clearObjectList();
+        for (TestObject o : objects)
+        {
+            this.tile.addSurfaceObject(o, o.sector);
+        }
+
+        SurfaceObjectTileBuilder.SurfaceObjectTileStateKey key =
+            new SurfaceObjectTileBuilder.SurfaceObjectTileStateKey(null, this.tile);
+        key.intersectingObjectSectors = this.builder.computeObjectSectors(null, this.tile);
+        return key;
+    }
+
+    private static int pixel(double degrees)
+    {
+        return (int) Math.floor(degrees * 512 / 36);
+    }
+
+    private static int ceilPixel(double degrees)
+    {
+        return (int) Math.ceil(degrees * 512 / 36);
+    }
+}
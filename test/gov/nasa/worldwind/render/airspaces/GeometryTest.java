@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+package gov.nasa.worldwind.render.airspaces;
+
+import gov.nasa.worldwind.cache.*;
+import gov.nasa.worldwind.geom.*;
+import gov.nasa.worldwind.globes.*;
+import gov.nasa.worldwind.util.GeometryBuilder;
+import org.junit.*;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class GeometryTest
+{
+    private GlobeStateKey globeStateKey;
+
+    @Before
+    public void setUp()
+    {
+        this.globeStateKey = new Earth().getGlobeStateKey();
+    }
+
+    /** Tests that keys built from the same parameters are equal, and that a copy is independent of its source. */
+    @Test
+    public void testShapeKeyEquality()
+    {
+        Geometry.ShapeKey key = this.makeKey(new Geometry.ShapeKey(), 1000);
+        Geometry.ShapeKey other = this.makeKey(new Geometry.ShapeKey(), 1000);
+        assertEquals("Keys not equal", key, other);
+        assertEquals("Hash codes not equal", key.hashCode(), other.hashCode());
+
+        Geometry.ShapeKey copy = key.copy();
+        assertEquals("Copy not equal", key, copy);
+        assertEquals("Copy hash code not equal", key.hashCode(), copy.hashCode());
+
+        this.makeKey(key, 2000);
+        assertFalse("Different radius equal", key.equals(copy));
+        assertEquals("Copy changed", other, copy);
+
+        other.reset(null, CappedCylinder.class, "Cylinder.Vertices").add(LatLon.fromDegrees(10, 20)).add(1000d);
+        assertFalse("Different globe state equal", other.equals(this.makeKey(new Geometry.ShapeKey(), 1000)));
+
+        Geometry.ShapeKey reordered = new Geometry.ShapeKey().reset(this.globeStateKey, CappedCylinder.class,
+            "Cylinder.Vertices").add(LatLon.fromDegrees(20, 10)).add(1000d);
+        assertFalse("Reordered parameters equal", reordered.equals(this.makeKey(new Geometry.ShapeKey(), 1000)));
+
+        Geometry.ShapeKey named = new Geometry.ShapeKey().reset(this.globeStateKey, CappedCylinder.class,
+            "Disk.Vertices").add(LatLon.fromDegrees(10, 20)).add(1000d);
+        assertFalse("Different name equal", named.equals(this.makeKey(new Geometry.ShapeKey(), 1000)));
+    }
+
+    /** Tests that object parameters are compared with equals, and that keys grow to hold any number of parameters. */
+    @Test
+    public void testShapeKeyParameters()
+    {
+        Geometry.ShapeKey key = new Geometry.ShapeKey().reset(null, Curtain.class, "Curtain");
+        Geometry.ShapeKey other = new Geometry.ShapeKey().reset(null, Curtain.class, "Curtain");
+        for (int i = 0; i < 100; i++)
+        {
+            key.add(LatLon.fromDegrees(i, i));
+            other.add(LatLon.fromDegrees(i, i));
+        }
+
+        String pathType = "GreatCircle";
+        key.add(pathType, pathType.hashCode()).add(true);
+        other.add(new String(pathType), pathType.hashCode()).add(true);
+        assertEquals("Keys not equal", key, other);
+        assertEquals("Keys not equal", key.copy(), other);
+
+        other.reset(null, Curtain.class, "Curtain");
+        for (int i = 0; i < 100; i++)
+        {
+            other.add(LatLon.fromDegrees(i, i));
+        }
+        other.add("Linear", "Linear".hashCode()).add(true);
+        assertFalse("Different object parameter equal", key.equals(other));
+    }
+
+    /** Tests that geometry added with a reused key is found with a key rebuilt from the same parameters. */
+    @Test
+    public void testShapeKeyCacheLookup()
+    {
+        MemoryCache cache = new BasicMemoryCache(1000000, 2000000);
+        Geometry.ShapeKey key = new Geometry.ShapeKey();
+
+        Geometry small = new Geometry();
+        small.setVertexData(1, new float[] {1, 2, 3});
+        cache.add(this.makeKey(key, 1000).copy(), small);
+
+        Geometry large = new Geometry();
+        large.setVertexData(1, new float[] {4, 5, 6});
+        cache.add(this.makeKey(key, 2000).copy(), large);
+
+        assertSame("Geometry not found", small, cache.getObject(this.makeKey(key, 1000)));
+        assertSame("Geometry not found", large, cache.getObject(this.makeKey(key, 2000)));
+        assertNull("Unexpected geometry", cache.getObject(this.makeKey(key, 3000)));
+    }
+
+    private Geometry.ShapeKey makeKey(Geometry.ShapeKey key, double radius)
+    {
+        return key.reset(this.globeStateKey, CappedCylinder.class, "Cylinder.Vertices")
+            .add(LatLon.fromDegrees(10, 20)).add(radius).add(0d).add(5000d).add(false).add(true).add(32).add(4)
+            .add(GeometryBuilder.OUTSIDE).add(new Vec4(1, 2, 3));
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+package gov.nasa.worldwind.util;
+
+import gov.nasa.worldwind.render.*;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.awt.*;
+import java.awt.geom.Rectangle2D;
+import java.util.*;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class ClutterGridTest
+{
+    private static class Label implements Declutterable
+    {
+        private final Rectangle2D bounds;
+        private final double distance;
+
+        public Label(Rectangle2D bounds, double distance)
+        {
+            this.bounds = bounds;
+            this.distance = distance;
+        }
+
+        public boolean isEnableDecluttering()
+        {
+            return true;
+        }
+
+        public Rectangle2D getBounds(DrawContext dc)
+        {
+            return this.bounds;
+        }
+
+        public double getDistanceFromEye()
+        {
+            return this.distance;
+        }
+
+        public void pick(DrawContext dc, Point pickPoint)
+        {
+        }
+
+        public void render(DrawContext dc)
+        {
+        }
+    }
+
+    /** Tests that the grid finds the same first intersecting region as a linear search. */
+    @Test
+    public void testFirstIntersecting()
+    {
+        Random random = new Random(1);
+        List<Rectangle2D> regions = new ArrayList<Rectangle2D>();
+        for (int i = 0; i < 2000; i++)
+        {
+            regions.add(randomRegion(random));
+        }
+
+        ClutterGrid grid = new ClutterGrid();
+        // Size the grid for a subset of the regions so that later regions extend beyond its area.
+        grid.reset(regions.subList(0, 100));
+
+        for (int i = 0; i < regions.size(); i++)
+        {
+            Rectangle2D region = regions.get(i);
+
+            int expected = -1;
+            for (int j = 0; j < i; j++)
+            {
+                if (region.intersects(regions.get(j)))
+                {
+                    expected = j;
+                    break;
+                }
+            }
+
+            assertEquals("Incorrect first intersecting region " + i, expected, grid.firstIntersecting(region));
+            assertEquals("Incorrect region index", i, grid.add(region));
+        }
+
+        assertEquals("Incorrect size", regions.size(), grid.size());
+        assertEquals("Incorrect first intersecting region", -1, grid.firstIntersecting(null));
+
+        grid.clear();
+        assertEquals("Grid not cleared", 0, grid.size());
+        assertEquals("Grid not cleared", -1, grid.firstIntersecting(regions.get(0)));
+    }
+
+    /** Tests that the basic clutter filter draws the shapes a linear first-come-wins search would draw. */
+    @Test
+    public void testBasicClutterFilter()
+    {
+        Random random = new Random(2);
+        List<Declutterable> shapes = new ArrayList<Declutterable>();
+        for (int i = 0; i < 3000; i++)
+        {
+            shapes.add(new Label(i % 100 == 0 ? null : randomRegion(random), i));
+        }
+
+        List<Rectangle2D> drawn = new ArrayList<Rectangle2D>();
+        Set<Declutterable> expected = new HashSet<Declutterable>();
+        for (Declutterable shape : shapes)
+        {
+            Rectangle2D bounds = shape.getBounds(null);
+            if (bounds == null)
+                continue;
+
+            boolean intersects = false;
+            for (Rectangle2D r : drawn)
+            {
+                if (bounds.intersects(r))
+                {
+                    intersects = true;
+                    break;
+                }
+            }
+
+            if (!intersects)
+            {
+                drawn.add(bounds);
+                expected.add(shape);
+            }
+        }
+
+        DrawContext dc = new DrawContextImpl();
+        new BasicClutterFilter().apply(dc, shapes);
+
+        Set<OrderedRenderable> actual = new HashSet<OrderedRenderable>();
+        for (OrderedRenderable or = dc.pollOrderedRenderables(); or != null; or = dc.pollOrderedRenderables())
+        {
+            actual.add(or);
+        }
+
+        assertEquals("Incorrect shapes drawn", expected, actual);
+    }
+
+    private static Rectangle2D randomRegion(Random random)
+    {
+        if (random.nextInt(50) == 0)
+            return new Rectangle2D.Double(random.nextDouble() * 1000, random.nextDouble() * 800, 0, 10);
+
+        return new Rectangle2D.Double(random.nextDouble() * 1200 - 100, random.nextDouble() * 1000 - 100,
+            5 + random.nextDouble() * 80, 5 + random.nextDouble() * 20);
+    }
+}
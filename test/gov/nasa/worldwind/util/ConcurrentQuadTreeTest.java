@@ -0,0 +1,253 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+package gov.nasa.worldwind.util;
+
+import gov.nasa.worldwind.geom.*;
+import org.junit.*;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class ConcurrentQuadTreeTest
+{
+    private static final int NUM_ITEMS = 2000;
+
+    private List<Integer> items;
+    private List<double[]> coords;
+
+    @Before
+    public void setUp()
+    {
+        Random random = new Random(1);
+        this.items = new ArrayList<Integer>(NUM_ITEMS);
+        this.coords = new ArrayList<double[]>(NUM_ITEMS);
+        for (int i = 0; i < NUM_ITEMS; i++)
+        {
+            double lat = 170 * random.nextDouble() - 85;
+            double lon = 350 * random.nextDouble() - 175;
+            this.items.add(i);
+            if (i % 4 == 0)
+                this.coords.add(new double[] {lat, lat + 5 * random.nextDouble(), lon, lon + 5 * random.nextDouble()});
+            else
+                this.coords.add(new double[] {lat, lon});
+        }
+    }
+
+    /** Tests that region and location queries return exactly the items whose coordinates match. */
+    @Test
+    public void testRegionQueries()
+    {
+        ConcurrentQuadTree<Integer> tree = new ConcurrentQuadTree<Integer>(Sector.FULL_SPHERE, 10, 4);
+        tree.addAll(this.items, this.coords);
+        assertEquals("Size", NUM_ITEMS, tree.size());
+
+        Random random = new Random(2);
+        for (int k = 0; k < 100; k++)
+        {
+            double lat = 170 * random.nextDouble() - 85;
+            double lon = 350 * random.nextDouble() - 175;
+            Sector sector = Sector.fromDegrees(lat, lat + 20 * random.nextDouble(), lon,
+                lon + 20 * random.nextDouble());
+            assertEquals("Region items", this.bruteForce(sector), tree.getItemsInRegion(sector, null));
+
+            LatLon location = LatLon.fromDegrees(lat, lon);
+            assertEquals("Location items", this.bruteForce(new Sector(location.getLatitude(),
+                location.getLatitude(), location.getLongitude(), location.getLongitude())),
+                tree.getItemsAtLocation(location, null));
+        }
+
+        // Items added at the coordinates of existing items are found by location.
+        tree.add(-1, this.coords.get(1));
+        double[] c = this.coords.get(1);
+        assertTrue("Item at location", tree.getItemsAtLocation(LatLon.fromDegrees(c[0], c[1]), null).contains(-1));
+    }
+
+    /** Tests that the nearest items match those found by sorting every item by distance. */
+    @Test
+    public void testNearestItems()
+    {
+        ConcurrentQuadTree<Integer> tree = new ConcurrentQuadTree<Integer>(Sector.FULL_SPHERE, 10, 4);
+        for (int i = 0; i < NUM_ITEMS; i++)
+        {
+            tree.add(this.items.get(i), this.coords.get(i));
+        }
+
+        Random random = new Random(3);
+        for (int k = 0; k < 50; k++)
+        {
+            final double lat = Math.toRadians(180 * random.nextDouble() - 90);
+            final double lon = Math.toRadians(360 * random.nextDouble() - 180);
+            final double[] distances = new double[NUM_ITEMS];
+            for (int i = 0; i < NUM_ITEMS; i++)
+            {
+                double[] c = this.coords.get(i);
+                distances[i] = c.length == 2 ? ConcurrentQuadTree.distanceToRegion(lat, lon, c[0], c[0], c[1], c[1])
+                    : ConcurrentQuadTree.distanceToRegion(lat, lon, c[0], c[1], c[2], c[3]);
+            }
+
+            List<Integer> expected = new ArrayList<Integer>(this.items);
+            Collections.sort(expected, new Comparator<Integer>()
+            {
+                public int compare(Integer a, Integer b)
+                {
+                    return Double.compare(distances[a], distances[b]);
+                }
+            });
+
+            List<Integer> nearest = tree.getNearestItems(LatLon.fromRadians(lat, lon), 10);
+            assertEquals("Nearest count", 10, nearest.size());
+            for (int i = 0; i < 10; i++)
+            {
+                assertEquals("Nearest distance", distances[expected.get(i)], distances[nearest.get(i)], 0);
+            }
+        }
+    }
+
+    /** Tests that the distance to a region is the smallest distance to any location sampled within it. */
+    @Test
+    public void testDistanceToRegion()
+    {
+        Random random = new Random(4);
+        for (int k = 0; k < 100; k++)
+        {
+            double lat = Math.toRadians(180 * random.nextDouble() - 90);
+            double lon = Math.toRadians(360 * random.nextDouble() - 180);
+            double minLat = 170 * random.nextDouble() - 85;
+            double maxLat = Math.min(90, minLat + 60 * random.nextDouble());
+            double minLon = 300 * random.nextDouble() - 180;
+            double maxLon = minLon + 60 * random.nextDouble();
+
+            double sampled = Double.MAX_VALUE;
+            int n = 100;
+            for (int i = 0; i <= n; i++)
+            {
+                for (int j = 0; j <= n; j++)
+                {
+                    double sLat = Math.toRadians(minLat + (maxLat - minLat) * i / n);
+                    double sLon = Math.toRadians(minLon + (maxLon - minLon) * j / n);
+                    sampled = Math.min(sampled, Geodesy.greatCircleDistance(lat, lon, sLat, sLon));
+                }
+            }
+
+            double distance = ConcurrentQuadTree.distanceToRegion(lat, lon, minLat, maxLat, minLon, maxLon);
+            assertTrue("Distance exceeds sampled distance", distance <= sampled + 1e-12);
+            assertEquals("Distance", sampled, distance, Math.toRadians(0.6));
+        }
+    }
+
+    /** Tests that removal finds items by coordinates, and that a snapshot is unaffected by later changes. */
+    @Test
+    public void testRemovalAndSnapshots()
+    {
+        ConcurrentQuadTree<Integer> tree = new ConcurrentQuadTree<Integer>(Sector.FULL_SPHERE, 10, 4);
+        tree.addAll(this.items, this.coords);
+        ConcurrentQuadTree.Snapshot<Integer> snapshot = tree.getSnapshot();
+
+        assertFalse("Removed at wrong location", tree.remove(0, new double[] {0, 0}));
+        for (int i = 0; i < NUM_ITEMS; i += 2)
+        {
+            assertTrue("Removed", tree.remove(this.items.get(i), this.coords.get(i)));
+        }
+
+        assertEquals("Size after removal", NUM_ITEMS / 2, tree.size());
+        assertEquals("Snapshot size", NUM_ITEMS, snapshot.size());
+        assertEquals("Snapshot items", new HashSet<Integer>(this.items), this.toSet(snapshot));
+
+        Set<Integer> remaining = this.toSet(tree);
+        for (int i = 0; i < NUM_ITEMS; i++)
+        {
+            assertEquals("Remaining item", i % 2 == 1, remaining.contains(i));
+        }
+
+        for (int i = 1; i < NUM_ITEMS; i += 2)
+        {
+            assertTrue("Removed", tree.remove(this.items.get(i), this.coords.get(i)));
+        }
+        assertTrue("Empty", tree.isEmpty());
+        assertEquals("Snapshot size after removal", NUM_ITEMS, snapshot.size());
+    }
+
+    /** Tests that queries made while another thread adds items always see a consistent tree. */
+    @Test
+    public void testConcurrentQueries() throws InterruptedException
+    {
+        final ConcurrentQuadTree<Integer> tree = new ConcurrentQuadTree<Integer>(Sector.FULL_SPHERE, 10, 4);
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+
+        Thread writer = new Thread(new Runnable()
+        {
+            public void run()
+            {
+                for (int i = 0; i < NUM_ITEMS; i++)
+                {
+                    tree.add(items.get(i), coords.get(i));
+                }
+            }
+        });
+
+        Thread reader = new Thread(new Runnable()
+        {
+            public void run()
+            {
+                try
+                {
+                    int size = 0;
+                    while (size < NUM_ITEMS)
+                    {
+                        ConcurrentQuadTree.Snapshot<Integer> snapshot = tree.getSnapshot();
+                        Set<Integer> all = snapshot.getItemsInRegion(Sector.FULL_SPHERE, null);
+                        assertEquals("Snapshot items", snapshot.size(), all.size());
+                        assertTrue("Snapshot shrank", snapshot.size() >= size);
+                        size = snapshot.size();
+                    }
+                }
+                catch (Throwable t)
+                {
+                    failure.set(t);
+                }
+            }
+        });
+
+        reader.start();
+        writer.start();
+        writer.join();
+        reader.join();
+
+        if (failure.get() != null)
+            throw new AssertionError(failure.get());
+    }
+
+    private Set<Integer> bruteForce(Sector sector)
+    {
+        Set<Integer> result = new HashSet<Integer>();
+        for (int i = 0; i < NUM_ITEMS; i++)
+        {
+            double[] c = this.coords.get(i);
+            Sector s = c.length == 2 ? Sector.fromDegrees(c[0], c[0], c[1], c[1])
+                : Sector.fromDegrees(c[0], c[1], c[2], c[3]);
+            if (s.intersects(sector))
+                result.add(this.items.get(i));
+        }
+
+        return result;
+    }
+
+    private Set<Integer> toSet(Iterable<Integer> iterable)
+    {
+        Set<Integer> set = new HashSet<Integer>();
+        for (Integer i : iterable)
+        {
+            set.add(i);
+        }
+
+        return set;
+    }
+}
@@ -12,6 +12,7 @@ import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
 import java.io.IOException;
+import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
 
@@ -260,4 +261,81 @@ public class EGM96Test
         // Ensure that they are equal
         assertEquals("interpolated matches actual longitude", manuallyCalculatedInterpolationValue, lonOffset, DELTA);
     }
+
+    /**
+     * Tests that offsets computed in a batch from the interpolation grid match those computed one location at a time
+     * from the offsets file, including at the poles and across the prime meridian.
+     */
+    @Test
+    public void testGetOffsets() throws IOException
+    {
+        EGM96 egm96 = new EGM96(OFFSETS_FILE_PATH);
+
+        int count = 20000;
+        double[] latitudes = new double[count];
+        double[] longitudes = new double[count];
+        Random random = new Random(1);
+        for (int i = 0; i < count; i++)
+        {
+            latitudes[i] = 180 * random.nextDouble() - 90;
+            longitudes[i] = 360 * random.nextDouble() - 180;
+        }
+        double[][] edges = {{90, 0}, {-90, 0}, {-90, -0.1}, {45, -0.1}, {45, 359.9}, {45, 360}, {0, -180},
+            {89.9, 179.9}};
+        for (int i = 0; i < edges.length; i++)
+        {
+            latitudes[i] = edges[i][0];
+            longitudes[i] = edges[i][1];
+        }
+
+        double[] offsets = new double[count];
+        egm96.getOffsets(latitudes, longitudes, count, offsets);
+
+        for (int i = 0; i < count; i++)
+        {
+            double expected = this.fileOffset(egm96, latitudes[i], longitudes[i]);
+            assertEquals("batch offset matches file offset", expected, offsets[i], 0);
+            assertEquals("offset matches file offset", expected,
+                egm96.getOffset(Angle.fromDegrees(latitudes[i]), Angle.fromDegrees(longitudes[i])), 0);
+        }
+    }
+
+    /**
+     * Computes an offset directly from the offsets file, as EGM96 did before it kept an interpolation grid.
+     */
+    private double fileOffset(EGM96 egm96, double lat, double lon)
+    {
+        lon = lon >= 0 ? lon : lon + 360;
+
+        int topRow = (int) ((90 - lat) / EGM96.INTERVAL.degrees);
+        if (lat <= -90)
+            topRow = EGM96.NUM_ROWS - 2;
+        int bottomRow = topRow + 1;
+
+        int leftCol = (int) (lon / EGM96.INTERVAL.degrees);
+        int rightCol = leftCol + 1;
+        if (lon >= 360 - EGM96.INTERVAL.degrees)
+        {
+            leftCol = EGM96.NUM_COLS - 1;
+            rightCol = 0;
+        }
+
+        double latBottom = 90 - bottomRow * EGM96.INTERVAL.degrees;
+        double lonLeft = leftCol * EGM96.INTERVAL.degrees;
+
+        double ul = egm96.deltas.getInt(topRow * EGM96.NUM_COLS + leftCol);
+        double ll = egm96.deltas.getInt(bottomRow * EGM96.NUM_COLS + leftCol);
+        double lr = egm96.deltas.getInt(bottomRow * EGM96.NUM_COLS + rightCol);
+        double ur = egm96.deltas.getInt(topRow * EGM96.NUM_COLS + rightCol);
+
+        double u = (lon - lonLeft) / EGM96.INTERVAL.degrees;
+        double v = (lat - latBottom) / EGM96.INTERVAL.degrees;
+
+        double pll = (1.0 - u) * (1.0 - v);
+        double plr = u * (1.0 - v);
+        double pur = u * v;
+        double pul = (1.0 - u) * v;
+
+        return (pll * ll + plr * lr + pur * ur + pul * ul) / 100d;
+    }
 }
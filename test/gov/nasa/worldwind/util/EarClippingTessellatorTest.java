@@ -0,0 +1,304 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+package gov.nasa.worldwind.util;
+
+import gov.nasa.worldwind.formats.shapefile.*;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.nio.IntBuffer;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class EarClippingTessellatorTest
+{
+    private static final String[] POLYGON_CORPUS = {
+        "testData/shapefiles/BayArea.shp",
+        "testData/shapefiles/SPR_UGB.shp",
+        // Polylines whose closed parts are state boundaries of up to tens of thousands of vertices.
+        "testData/shapefiles/state_bounds.shp"
+    };
+
+    /** Tests that every closed ring of the shapefile corpus is covered exactly by counter-clockwise triangles. */
+    @Test
+    public void testShapefileCorpus()
+    {
+        EarClippingTessellator tess = new EarClippingTessellator();
+        int polygonCount = 0;
+
+        for (String path : POLYGON_CORPUS)
+        {
+            Shapefile shapefile = new Shapefile(path);
+            try
+            {
+                while (shapefile.hasNext())
+                {
+                    ShapefileRecord record = shapefile.nextRecord();
+                    for (int part = 0; part < record.getNumberOfParts(); part++)
+                    {
+                        double[] coords = readClosedRing(record.getPointBuffer(part));
+                        if (coords == null)
+                            continue;
+
+                        int[] starts = {0};
+                        String name = path + " record " + record.getRecordNumber() + " part " + part;
+                        tess.tessellate(coords, starts, 1, coords.length / 2);
+                        assertCovered(name, tess, coords, starts, 1);
+                        polygonCount++;
+                    }
+                }
+            }
+            finally
+            {
+                shapefile.close();
+            }
+        }
+
+        assertTrue("Corpus not read", polygonCount > 100);
+    }
+
+    /** Tests a polygon with holes, one of which touches the outer boundary's edge. */
+    @Test
+    public void testHoles()
+    {
+        double[] coords = {
+            0, 0, 10, 0, 10, 10, 0, 10, // outer boundary, counter-clockwise
+            2, 2, 2, 4, 4, 4, 4, 2, // hole, clockwise
+            6, 6, 8, 6, 8, 8, 6, 8, // hole, counter-clockwise
+            8, 4, 8, 3, 10, 5 // hole touching the outer boundary's edge
+        };
+        int[] starts = {0, 4, 8, 12};
+
+        EarClippingTessellator tess = new EarClippingTessellator();
+        int count = tess.tessellate(coords, starts, starts.length, coords.length / 2);
+        assertEquals("Incorrect index count", count, tess.getIndexCount());
+        assertCovered("holes", tess, coords, starts, starts.length);
+        assertEquals("Incorrect area", 100 - 4 - 4 - 1, triangleArea(tess, coords), 1e-9);
+    }
+
+    /** Tests that boundaries are grouped by nesting: an island in a hole and a disjoint second outer boundary. */
+    @Test
+    public void testNestedBoundaries()
+    {
+        double[] coords = {
+            20, 0, 22, 0, 22, 2, 20, 2, // disjoint outer boundary, listed first
+            1, 1, 9, 1, 9, 9, 1, 9, // hole in the large boundary
+            0, 0, 10, 0, 10, 10, 0, 10, // large outer boundary
+            4, 4, 6, 4, 6, 6, 4, 6 // island inside the hole
+        };
+        int[] starts = {0, 4, 8, 12};
+
+        EarClippingTessellator tess = new EarClippingTessellator();
+        tess.tessellate(coords, starts, starts.length, coords.length / 2);
+        assertCovered("nested", tess, coords, starts, starts.length);
+        assertEquals("Incorrect area", 4 + 100 - 64 + 4, triangleArea(tess, coords), 1e-9);
+    }
+
+    /** Tests a self-touching boundary, duplicate and collinear vertices, and a closing vertex. */
+    @Test
+    public void testDegenerateVertices()
+    {
+        double[] coords = {
+            0, 0, 2, 0, 2, 0, 4, 0, 4, 2, 2, 2, // collinear and duplicate vertices along the bottom
+            3, 3, 2, 4, 1, 3, 2, 2, // a loop touching the boundary at (2, 2)
+            0, 2, 0, 0 // closing vertex
+        };
+        int[] starts = {0};
+
+        EarClippingTessellator tess = new EarClippingTessellator();
+        tess.tessellate(coords, starts, 1, coords.length / 2);
+        assertEquals("Incorrect area", 8 + 2, triangleArea(tess, coords), 1e-9);
+        assertCounterClockwise("degenerate", tess, coords);
+    }
+
+    /** Tests that three dimensional polygons are wound counter-clockwise about the specified normal. */
+    @Test
+    public void testNormal()
+    {
+        // A square in the x-z plane.
+        double[] coords = {0, 5, 0, 1, 5, 0, 1, 5, 1, 0, 5, 1};
+        int[] starts = {0};
+        EarClippingTessellator tess = new EarClippingTessellator();
+
+        for (int sign = -1; sign <= 1; sign += 2)
+        {
+            assertEquals("Incorrect index count", 6, tess.tessellate(coords, 3, starts, 1, 4, 0, sign, 0));
+
+            int[] indices = tess.getIndices();
+            for (int i = 0; i < 6; i += 3)
+            {
+                // The y component of (b - a) x (c - a) has the normal's sign.
+                int a = 3 * indices[i], b = 3 * indices[i + 1], c = 3 * indices[i + 2];
+                double cross = (coords[b + 2] - coords[a + 2]) * (coords[c] - coords[a])
+                    - (coords[b] - coords[a]) * (coords[c + 2] - coords[a + 2]);
+                assertEquals("Incorrect winding", sign, Math.signum(cross), 0);
+            }
+        }
+
+        IntBuffer buffer = tess.getIndices(IntBuffer.allocate(6), 10);
+        for (int i = 0; i < 6; i++)
+        {
+            assertTrue("Incorrect offset index", buffer.get(i) >= 10 && buffer.get(i) < 14);
+        }
+    }
+
+    /** Tests that random star polygons large enough to use the z-order index are covered exactly. */
+    @Test
+    public void testRandomStars()
+    {
+        Random random = new Random(1);
+        EarClippingTessellator tess = new EarClippingTessellator();
+
+        for (int n = 3; n < 2000; n = n * 3 / 2 + 1)
+        {
+            double[] coords = new double[2 * n];
+            for (int i = 0; i < n; i++)
+            {
+                double angle = 2 * Math.PI * i / n;
+                double radius = 1 + 9 * random.nextDouble();
+                coords[2 * i] = radius * Math.cos(angle);
+                coords[2 * i + 1] = radius * Math.sin(angle);
+            }
+
+            int[] starts = {0};
+            assertEquals("Incorrect triangle count", 3 * (n - 2), tess.tessellate(coords, starts, 1, n));
+            assertCovered("star " + n, tess, coords, starts, 1);
+        }
+    }
+
+    private static double[] readClosedRing(VecBuffer buffer)
+    {
+        int n = buffer.getSize();
+        if (n < 4)
+            return null;
+
+        // Translate the ring to its first vertex so that the test's area sums are not dominated by rounding error.
+        double[] coords = new double[2 * n];
+        double[] origin = buffer.get(0, new double[2]);
+        double[] point = new double[2];
+        for (int i = 0; i < n; i++)
+        {
+            buffer.get(i, point);
+            coords[2 * i] = point[0] - origin[0];
+            coords[2 * i + 1] = point[1] - origin[1];
+        }
+
+        boolean closed = coords[0] == coords[2 * n - 2] && coords[1] == coords[2 * n - 1];
+        return closed ? coords : null;
+    }
+
+    /**
+     * Asserts that a tessellation's triangles are counter-clockwise, lie inside the polygon, and have the polygon's
+     * area by the odd winding rule.
+     */
+    private static void assertCovered(String name, EarClippingTessellator tess, double[] coords, int[] starts,
+        int ringCount)
+    {
+        int vertexCount = coords.length / 2;
+        int[] indices = tess.getIndices();
+        assertEquals(name + ": incomplete triangles", 0, tess.getIndexCount() % 3);
+        for (int i = 0; i < tess.getIndexCount(); i++)
+        {
+            assertTrue(name + ": index out of range", indices[i] >= 0 && indices[i] < vertexCount);
+        }
+
+        assertCounterClockwise(name, tess, coords);
+
+        double expected = 0;
+        for (int r = 0; r < ringCount; r++)
+        {
+            int end = r + 1 < ringCount ? starts[r + 1] : vertexCount;
+            double area = Math.abs(ringArea(coords, starts[r], end));
+            int depth = 0;
+            for (int o = 0; o < ringCount; o++)
+            {
+                int oEnd = o + 1 < ringCount ? starts[o + 1] : vertexCount;
+                if (o != r && contains(coords, starts[o], oEnd, coords[2 * starts[r]], coords[2 * starts[r] + 1]))
+                    depth++;
+            }
+            expected += depth % 2 == 0 ? area : -area;
+        }
+
+        assertEquals(name + ": incorrect area", expected, triangleArea(tess, coords), 1e-9 * expected);
+
+        // Test a sample of triangle centroids against the polygon.
+        int triangleCount = tess.getIndexCount() / 3;
+        int step = Math.max(1, triangleCount / 100);
+        for (int t = 0; t < triangleCount; t += step)
+        {
+            int a = indices[3 * t], b = indices[3 * t + 1], c = indices[3 * t + 2];
+            double x = (coords[2 * a] + coords[2 * b] + coords[2 * c]) / 3;
+            double y = (coords[2 * a + 1] + coords[2 * b + 1] + coords[2 * c + 1]) / 3;
+            if (triangleArea(coords, a, b, c) < 1e-12 * expected)
+                continue; // the centroid of a sliver may lie on the boundary
+
+            int crossings = 0;
+            for (int r = 0; r < ringCount; r++)
+            {
+                int end = r + 1 < ringCount ? starts[r + 1] : vertexCount;
+                if (contains(coords, starts[r], end, x, y))
+                    crossings++;
+            }
+            assertTrue(name + ": triangle " + t + " outside polygon", crossings % 2 == 1);
+        }
+    }
+
+    private static void assertCounterClockwise(String name, EarClippingTessellator tess, double[] coords)
+    {
+        int[] indices = tess.getIndices();
+        for (int i = 0; i < tess.getIndexCount(); i += 3)
+        {
+            assertTrue(name + ": clockwise triangle", triangleArea(coords, indices[i], indices[i + 1],
+                indices[i + 2]) >= 0);
+        }
+    }
+
+    private static double triangleArea(EarClippingTessellator tess, double[] coords)
+    {
+        int[] indices = tess.getIndices();
+        double sum = 0;
+        for (int i = 0; i < tess.getIndexCount(); i += 3)
+        {
+            sum += triangleArea(coords, indices[i], indices[i + 1], indices[i + 2]);
+        }
+
+        return sum;
+    }
+
+    private static double triangleArea(double[] coords, int a, int b, int c)
+    {
+        return 0.5 * ((coords[2 * b] - coords[2 * a]) * (coords[2 * c + 1] - coords[2 * a + 1])
+            - (coords[2 * c] - coords[2 * a]) * (coords[2 * b + 1] - coords[2 * a + 1]));
+    }
+
+    private static double ringArea(double[] coords, int start, int end)
+    {
+        double sum = 0;
+        for (int i = start, j = end - 1; i < end; j = i++)
+        {
+            sum += coords[2 * j] * coords[2 * i + 1] - coords[2 * i] * coords[2 * j + 1];
+        }
+
+        return 0.5 * sum;
+    }
+
+    private static boolean contains(double[] coords, int start, int end, double x, double y)
+    {
+        boolean inside = false;
+        for (int i = start, j = end - 1; i < end; j = i++)
+        {
+            double xi = coords[2 * i], yi = coords[2 * i + 1];
+            double xj = coords[2 * j], yj = coords[2 * j + 1];
+            if ((yi > y) != (yj > y) && x < (xj - xi) * (y - yi) / (yj - yi) + xi)
+                inside = !inside;
+        }
+
+        return inside;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+package gov.nasa.worldwind.util;
+
+import gov.nasa.worldwind.Locatable;
+import gov.nasa.worldwind.geom.*;
+import gov.nasa.worldwind.globes.*;
+import gov.nasa.worldwind.render.*;
+import org.junit.*;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class RenderableQuadTreeTest
+{
+    private static class Item implements Renderable, Locatable
+    {
+        private Position position;
+
+        public Item(Position position)
+        {
+            this.position = position;
+        }
+
+        public Position getPosition()
+        {
+            return this.position;
+        }
+
+        public void render(DrawContext dc)
+        {
+        }
+    }
+
+    private static class Unbounded implements Renderable
+    {
+        public void render(DrawContext dc)
+        {
+        }
+    }
+
+    private Globe globe;
+    private Frustum frustum;
+
+    @Before
+    public void setUp()
+    {
+        this.globe = new Earth();
+
+        Position eye = Position.fromDegrees(35, -120, 500e3);
+        Vec4 eyePoint = this.globe.computePointFromPosition(eye);
+        Vec4 center = this.globe.computePointFromPosition(eye.getLatitude(), eye.getLongitude(), 0);
+        Vec4 up = this.globe.computeNorthPointingTangentAtLocation(eye.getLatitude(), eye.getLongitude());
+        Matrix modelview = Matrix.fromViewLookAt(eyePoint, center, up);
+        this.frustum = Frustum.fromPerspective(Angle.fromDegrees(45), 1000, 800, 1, 3000e3).transformBy(
+            modelview.getTranspose());
+    }
+
+    /** Tests that culling returns every renderable inside the frustum and excludes most of those outside it. */
+    @Test
+    public void testCulling()
+    {
+        RenderableQuadTree tree = new RenderableQuadTree(8, 16);
+        Random random = new Random(1);
+        List<Item> items = new ArrayList<Item>();
+        for (int i = 0; i < 20000; i++)
+        {
+            Item item = new Item(Position.fromDegrees(180 * random.nextDouble() - 90, 360 * random.nextDouble() - 180,
+                0));
+            items.add(item);
+            tree.add(item);
+        }
+        assertEquals("Incorrect size", items.size(), tree.size());
+
+        Set<Renderable> visible = this.cull(tree);
+        int inside = 0;
+        for (Item item : items)
+        {
+            if (this.frustum.contains(this.globe.computePointFromPosition(item.getPosition())))
+            {
+                assertTrue("Visible renderable culled", visible.contains(item));
+                inside++;
+            }
+        }
+
+        assertTrue("No renderables inside frustum", inside > 0);
+        assertTrue("Too few renderables culled", visible.size() < 2 * inside);
+    }
+
+    /** Tests that unbounded renderables are never culled, and that removed and moved renderables are reindexed. */
+    @Test
+    public void testUpdates()
+    {
+        RenderableQuadTree tree = new RenderableQuadTree(2, 16);
+        Item near = new Item(Position.fromDegrees(35, -120, 0));
+        Item far = new Item(Position.fromDegrees(-35, 60, 0));
+        Item pending = new Item(null);
+        Unbounded unbounded = new Unbounded();
+
+        tree.add(near);
+        tree.add(far);
+        tree.add(pending);
+        tree.add(unbounded);
+        for (int i = 0; i < 10; i++)
+        {
+            tree.add(new Item(Position.fromDegrees(-30 - i, 50 + i, 0)));
+        }
+
+        Set<Renderable> visible = this.cull(tree);
+        assertTrue("Visible renderable culled", visible.contains(near));
+        assertFalse("Invisible renderable not culled", visible.contains(far));
+        assertTrue("Unbounded renderable culled", visible.contains(unbounded));
+        assertTrue("Pending renderable culled", visible.contains(pending));
+
+        // A renderable without a position is placed in the tree once its position becomes known.
+        pending.position = Position.fromDegrees(-35, 61, 0);
+        this.cull(tree);
+        assertFalse("Pending renderable not culled", this.cull(tree).contains(pending));
+
+        far.position = Position.fromDegrees(35.1, -120.1, 0);
+        tree.update(far);
+        near.position = Position.fromDegrees(-35, 60, 0);
+        tree.update(near);
+        visible = this.cull(tree);
+        assertTrue("Moved renderable culled", visible.contains(far));
+        assertFalse("Moved renderable not culled", visible.contains(near));
+
+        tree.remove(far);
+        assertFalse("Removed renderable returned", this.cull(tree).contains(far));
+        assertEquals("Incorrect size", 13, tree.size());
+
+        tree.clear();
+        assertEquals("Tree not cleared", 0, tree.size());
+        assertTrue("Tree not cleared", this.cull(tree).isEmpty());
+    }
+
+    private Set<Renderable> cull(RenderableQuadTree tree)
+    {
+        List<Renderable> result = new ArrayList<Renderable>();
+        tree.getVisibleRenderables(this.globe, 1, this.frustum, result);
+
+        Set<Renderable> set = new HashSet<Renderable>(result);
+        assertEquals("Duplicate renderables", result.size(), set.size());
+
+        return set;
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+package gov.nasa.worldwind.util.measure;
+
+import gov.nasa.worldwind.WorldWind;
+import gov.nasa.worldwind.avlist.AVKey;
+import gov.nasa.worldwind.geom.*;
+import gov.nasa.worldwind.globes.*;
+import gov.nasa.worldwind.terrain.ZeroElevationModel;
+import org.junit.*;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class TerrainMeasurerTest
+{
+    private Globe globe;
+    private ArrayList<Position> boundary;
+
+    @Before
+    public void setUp()
+    {
+        this.globe = new EllipsoidalGlobe(Earth.WGS84_EQUATORIAL_RADIUS, Earth.WGS84_POLAR_RADIUS, Earth.WGS84_ES,
+            new HillsElevationModel());
+
+        // An irregular, closed county-sized polygon.
+        this.boundary = new ArrayList<Position>();
+        this.boundary.add(Position.fromDegrees(36.0, -112.3, 0));
+        this.boundary.add(Position.fromDegrees(36.1, -111.8, 0));
+        this.boundary.add(Position.fromDegrees(36.5, -111.6, 0));
+        this.boundary.add(Position.fromDegrees(36.3, -111.9, 0));
+        this.boundary.add(Position.fromDegrees(36.6, -112.1, 0));
+        this.boundary.add(Position.fromDegrees(36.2, -112.4, 0));
+        this.boundary.add(this.boundary.get(0));
+    }
+
+    /** Tests that the surface area matches that of AreaMeasurer. */
+    @Test
+    public void testArea()
+    {
+        for (int steps : new int[] {8, 32, 100})
+        {
+            AreaMeasurer areaMeasurer = new AreaMeasurer(this.boundary);
+            areaMeasurer.setFollowTerrain(true);
+            areaMeasurer.setAreaTerrainSamplingSteps(steps);
+            double expected = areaMeasurer.getSurfaceArea(this.globe);
+
+            TerrainMeasurer.Measurement area = new TerrainMeasurer(this.globe, null).measureArea(this.boundary, steps);
+            assertEquals("Surface area", expected, area.getValue(), expected * 1e-9);
+            assertTrue("No cells", area.getSampleCount() > 0);
+        }
+    }
+
+    /** Tests that the error bound shrinks as the sampling resolution increases, and bounds the actual error. */
+    @Test
+    public void testErrorBound()
+    {
+        TerrainMeasurer measurer = new TerrainMeasurer(this.globe, null);
+        TerrainMeasurer.Measurement reference = measurer.measureArea(this.boundary, 800);
+        TerrainMeasurer.Measurement coarse = measurer.measureArea(this.boundary, 50);
+        TerrainMeasurer.Measurement fine = measurer.measureArea(this.boundary, 200);
+
+        assertTrue("Area bound not decreasing", fine.getErrorBound() < coarse.getErrorBound());
+        assertTrue("Area error not bounded", Math.abs(fine.getValue() - reference.getValue())
+            < fine.getErrorBound());
+
+        TerrainMeasurer.Measurement length = measurer.measureLength(this.boundary, 100);
+        TerrainMeasurer.Measurement denseLength = measurer.measureLength(this.boundary, 10000);
+        assertTrue("Length bound not decreasing", denseLength.getErrorBound() < length.getErrorBound());
+        assertTrue("Length error not bounded", Math.abs(length.getValue() - denseLength.getValue())
+            < length.getErrorBound());
+    }
+
+    /** Tests that the terrain following length and perimeter are close to those of LengthMeasurer. */
+    @Test
+    public void testLength()
+    {
+        List<Position> path = this.boundary.subList(0, this.boundary.size() - 1);
+
+        LengthMeasurer lengthMeasurer = new LengthMeasurer(new ArrayList<Position>(path));
+        lengthMeasurer.setFollowTerrain(true);
+        lengthMeasurer.setPathType(WorldWind.GREAT_CIRCLE);
+        lengthMeasurer.setLengthTerrainSamplingSteps(1000);
+        double expected = lengthMeasurer.getLength(this.globe);
+
+        TerrainMeasurer measurer = new TerrainMeasurer(this.globe, null);
+        TerrainMeasurer.Measurement length = measurer.measureLength(path, 1000);
+        assertEquals("Length", expected, length.getValue(), Math.max(length.getErrorBound(), expected * 1e-4));
+
+        AreaMeasurer areaMeasurer = new AreaMeasurer(this.boundary);
+        areaMeasurer.setFollowTerrain(true);
+        areaMeasurer.setLengthTerrainSamplingSteps(1000);
+        expected = areaMeasurer.getPerimeter(this.globe);
+
+        TerrainMeasurer.Measurement perimeter = measurer.measurePerimeter(path, 1000);
+        assertEquals("Perimeter", expected, perimeter.getValue(), Math.max(perimeter.getErrorBound(),
+            expected * 1e-4));
+        assertEquals("Closed perimeter", perimeter.getValue(), measurer.measurePerimeter(this.boundary, 1000)
+            .getValue(), 0);
+    }
+
+    /** Tests that measurements made in parallel match those made on the calling thread. */
+    @Test
+    public void testParallelMeasurement()
+    {
+        TerrainMeasurer sequential = new TerrainMeasurer(this.globe, null);
+        sequential.setPathType(AVKey.RHUMB_LINE);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try
+        {
+            TerrainMeasurer parallel = new TerrainMeasurer(this.globe, pool);
+            parallel.setPathType(AVKey.RHUMB_LINE);
+
+            TerrainMeasurer.Measurement expected = sequential.measureArea(this.boundary, 300);
+            TerrainMeasurer.Measurement area = parallel.measureArea(this.boundary, 300);
+            assertEquals("Area", expected.getValue(), area.getValue(), expected.getValue() * 1e-12);
+            assertEquals("Area cells", expected.getSampleCount(), area.getSampleCount());
+
+            expected = sequential.measureLength(this.boundary, 20000);
+            TerrainMeasurer.Measurement length = parallel.measureLength(this.boundary, 20000);
+            assertEquals("Length", expected.getValue(), length.getValue(), expected.getValue() * 1e-12);
+            assertEquals("Length bound", expected.getErrorBound(), length.getErrorBound(), 1e-6);
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    /** Tests that a boundary with fewer than three locations is rejected. */
+    @Test(expected = IllegalArgumentException.class)
+    public void testShortBoundary()
+    {
+        new TerrainMeasurer(this.globe).measureArea(this.boundary.subList(0, 2), 32);
+    }
+
+    /** An elevation model of smooth hills that returns the same elevations one location at a time or in a batch. */
+    private static class HillsElevationModel extends ZeroElevationModel
+    {
+        @Override
+        public double getMaxElevation()
+        {
+            return 2000;
+        }
+
+        @Override
+        public double getUnmappedElevation(Angle latitude, Angle longitude)
+        {
+            return 1000 + 600 * Math.sin(40 * latitude.radians * 180 / Math.PI)
+                * Math.cos(30 * longitude.radians * 180 / Math.PI);
+        }
+
+        @Override
+        public double getElevations(Sector sector, List<? extends LatLon> latlons, double targetResolution,
+            double[] buffer)
+        {
+            for (int i = 0; i < latlons.size(); i++)
+            {
+                buffer[i] = this.getUnmappedElevation(latlons.get(i).getLatitude(), latlons.get(i).getLongitude());
+            }
+
+            return targetResolution;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright (C) 2012 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration.
+ * All Rights Reserved.
+ */
+
+package gov.nasa.worldwind.util.xml;
+
+import gov.nasa.worldwind.Configuration;
+import gov.nasa.worldwind.avlist.*;
+import gov.nasa.worldwind.ogc.collada.ColladaRoot;
+import gov.nasa.worldwind.ogc.kml.KMLRoot;
+import gov.nasa.worldwind.ogc.wcs.wcs100.WCS100Capabilities;
+import gov.nasa.worldwind.util.WWXML;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import javax.xml.stream.*;
+import javax.xml.stream.events.*;
+import java.io.*;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class CursorXMLEventReaderTest
+{
+    private static final String[] DOCUMENTS = new String[]
+        {
+            "testData/KML/GoogleTutorialExample01.kml",
+            "testData/KML/StyleReferences.kml",
+            "testData/KML/MultiGeometryPlacemark.kml",
+            "testData/collada/duck_triangulate.dae",
+            "testData/WCS/WCSCapabilities001.xml",
+            "testData/WCS/WCSDescribeCoverage001.xml",
+        };
+
+    /** Tests that a reader for a stream reader already positioned past the document start returns that event first. */
+    @Test
+    public void testStartAtElement() throws Exception
+    {
+        String xml = "<?xml version='1.0'?><root xmlns:a='urn:a' a:id='1'><child>text</child></root>";
+        XMLStreamReader streamReader = XMLInputFactory.newInstance().createXMLStreamReader(new StringReader(xml));
+        streamReader.nextTag();
+        assertEquals("Stream reader state", XMLStreamConstants.START_ELEMENT, streamReader.getEventType());
+
+        XMLEventReader reader = new CursorXMLEventReader(streamReader);
+        assertTrue("Reader has no events", reader.hasNext());
+        XMLEvent event = reader.peek();
+        assertTrue("First event is not an element", event.isStartElement());
+        assertEquals("First element name", "root", event.asStartElement().getName().getLocalPart());
+        assertSame("Peeked and next events differ", event, reader.nextEvent());
+
+        Iterator<?> namespaces = event.asStartElement().getNamespaces();
+        assertTrue("Missing namespace", namespaces.hasNext());
+        assertEquals("Namespace URI", "urn:a", ((Namespace) namespaces.next()).getNamespaceURI());
+        assertEquals("Attributes", Collections.singletonMap("{urn:a}id", "1"), attributes(event.asStartElement()));
+        assertEquals("Second element name", "child", reader.nextTag().asStartElement().getName().getLocalPart());
+
+        reader.close();
+    }
+
+    /** Tests that the cursor-based reader produces the same event sequence as the standard event reader. */
+    @Test
+    public void testEventSequence() throws Exception
+    {
+        for (String path : DOCUMENTS)
+        {
+            XMLEventReader expected = WWXML.openEventReaderStream(new FileInputStream(path), true);
+            XMLEventReader actual = WWXML.openCursorEventReaderStream(new FileInputStream(path), true);
+            assertTrue("Reader is not cursor based", actual instanceof CursorXMLEventReader);
+
+            int count = 0;
+            while (expected.hasNext())
+            {
+                assertTrue("Cursor reader ended early " + path, actual.hasNext());
+                assertEventEquals(path + " event " + count, expected.nextEvent(), actual.nextEvent());
+                count++;
+            }
+            assertFalse("Cursor reader has extra events " + path, actual.hasNext());
+
+            expected.close();
+            actual.close();
+        }
+    }
+
+    /** Tests that the context's whitespace-skipping path returns the same events for both backends. */
+    @Test
+    public void testContextEventSequence() throws Exception
+    {
+        for (String path : DOCUMENTS)
+        {
+            BasicXMLEventParserContext expected = new BasicXMLEventParserContext(
+                WWXML.openEventReaderStream(new FileInputStream(path), true));
+            BasicXMLEventParserContext actual = new BasicXMLEventParserContext(
+                WWXML.openCursorEventReaderStream(new FileInputStream(path), true));
+
+            int count = 0;
+            for (XMLEvent event = expected.nextEvent(); event != null; event = expected.nextEvent())
+            {
+                assertEventEquals(path + " event " + count, event, actual.nextEvent());
+                assertEquals("hasNext differs " + path, expected.hasNext(), actual.hasNext());
+                count++;
+            }
+            assertNull("Cursor context has extra events " + path, actual.nextEvent());
+        }
+    }
+
+    /** Tests that KML, COLLADA and capabilities documents parse to the same object trees with both backends. */
+    @Test
+    public void testParsedTrees() throws Exception
+    {
+        assertTreeEquals("KML", parseKML(false), parseKML(true));
+        assertTreeEquals("COLLADA", parseCollada(false), parseCollada(true));
+        assertTreeEquals("WCS", parseCapabilities(false), parseCapabilities(true));
+    }
+
+    private static KMLRoot parseKML(boolean cursor) throws Exception
+    {
+        return (KMLRoot) parseWithBackend(cursor, new Parser()
+        {
+            public Object parse() throws Exception
+            {
+                return KMLRoot.createAndParse("testData/KML/StyleReferences.kml");
+            }
+        });
+    }
+
+    private static ColladaRoot parseCollada(boolean cursor) throws Exception
+    {
+        return (ColladaRoot) parseWithBackend(cursor, new Parser()
+        {
+            public Object parse() throws Exception
+            {
+                return ColladaRoot.createAndParse("testData/collada/duck_triangulate.dae");
+            }
+        });
+    }
+
+    private static WCS100Capabilities parseCapabilities(boolean cursor) throws Exception
+    {
+        return (WCS100Capabilities) parseWithBackend(cursor, new Parser()
+        {
+            public Object parse() throws Exception
+            {
+                return new WCS100Capabilities("testData/WCS/WCSCapabilities001.xml").parse();
+            }
+        });
+    }
+
+    private interface Parser
+    {
+        Object parse() throws Exception;
+    }
+
+    private static Object parseWithBackend(boolean cursor, Parser parser) throws Exception
+    {
+        Configuration.setValue(AVKey.XML_CURSOR_PARSING_ENABLED, cursor);
+        try
+        {
+            return parser.parse();
+        }
+        finally
+        {
+            Configuration.removeKey(AVKey.XML_CURSOR_PARSING_ENABLED);
+        }
+    }
+
+    private static void assertEventEquals(String message, XMLEvent expected, XMLEvent actual)
+    {
+        assertNotNull(message, actual);
+        assertEquals(message, expected.getEventType(), actual.getEventType());
+        assertEquals(message, expected.isCharacters(), actual.isCharacters());
+
+        if (expected.isStartElement())
+        {
+            assertEquals(message, expected.asStartElement().getName(), actual.asStartElement().getName());
+            assertEquals(message, attributes(expected.asStartElement()), attributes(actual.asStartElement()));
+        }
+        else if (expected.isEndElement())
+        {
+            assertEquals(message, expected.asEndElement().getName(), actual.asEndElement().getName());
+        }
+        else if (expected.isCharacters())
+        {
+            Characters e = expected.asCharacters();
+            Characters a = actual.asCharacters();
+            assertEquals(message, e.getData(), a.getData());
+            assertEquals(message, e.isWhiteSpace(), a.isWhiteSpace());
+            assertEquals(message, e.isCData(), a.isCData());
+        }
+    }
+
+    private static Map<String, String> attributes(StartElement element)
+    {
+        Map<String, String> map = new HashMap<String, String>();
+
+        for (Iterator<?> iter = element.getAttributes(); iter.hasNext(); )
+        {
+            Attribute attr = (Attribute) iter.next();
+            map.put(attr.getName().toString(), attr.getValue());
+        }
+
+        return map;
+    }
+
+    private static void assertTreeEquals(String path, Object expected, Object actual)
+    {
+        if (expected == null || actual == null)
+        {
+            assertTrue(path, expected == actual);
+            return;
+        }
+
+        assertEquals(path, expected.getClass(), actual.getClass());
+
+        if (expected instanceof AbstractXMLEventParser)
+        {
+            AbstractXMLEventParser e = (AbstractXMLEventParser) expected;
+            AbstractXMLEventParser a = (AbstractXMLEventParser) actual;
+            assertEquals(path, e.hasFields(), a.hasFields());
+            if (e.hasFields())
+                assertTreeEquals(path, e.getFields(), a.getFields());
+        }
+        else if (expected instanceof AVList)
+        {
+            Map<String, Object> e = entries((AVList) expected);
+            Map<String, Object> a = entries((AVList) actual);
+            assertEquals(path, e.keySet(), a.keySet());
+            for (Map.Entry<String, Object> entry : e.entrySet())
+            {
+                assertTreeEquals(path + "/" + entry.getKey(), entry.getValue(), a.get(entry.getKey()));
+            }
+        }
+        else if (expected instanceof List)
+        {
+            List<?> e = (List<?>) expected;
+            List<?> a = (List<?>) actual;
+            assertEquals(path, e.size(), a.size());
+            for (int i = 0; i < e.size(); i++)
+            {
+                assertTreeEquals(path + "[" + i + "]", e.get(i), a.get(i));
+            }
+        }
+        else if (expected instanceof CharSequence || expected instanceof Number || expected instanceof Boolean)
+        {
+            assertEquals(path, expected.toString(), actual.toString());
+        }
+    }
+
+    private static Map<String, Object> entries(AVList list)
+    {
+        Map<String, Object> map = new HashMap<String, Object>();
+
+        for (Map.Entry<String, Object> entry : list.getEntries())
+        {
+            map.put(entry.getKey(), entry.getValue());
+        }
+
+        return map;
+    }
+}